@@ -1,11 +1,11 @@
 package com.athena.lms.account;
 
-import org.springframework.boot.SpringApplication;
+import com.athena.lms.common.startup.LmsSpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication(scanBasePackages = {"com.athena.lms.account", "com.athena.lms.common"})
 public class AccountServiceApplication {
     public static void main(String[] args) {
-        SpringApplication.run(AccountServiceApplication.class, args);
+        LmsSpringApplication.run(AccountServiceApplication.class, args);
     }
 }
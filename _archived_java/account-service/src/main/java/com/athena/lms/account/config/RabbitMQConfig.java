@@ -1,10 +1,42 @@
 package com.athena.lms.account.config;
 
 import com.athena.lms.common.config.LmsRabbitMQConfig;
+import com.athena.lms.common.event.EventTypes;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
 @Import(LmsRabbitMQConfig.class)
 public class RabbitMQConfig {
+
+    /**
+     * Per-replica queue for the changes the in-memory search indexes follow: every running
+     * instance gets its own copy of each message. Removed when the instance disconnects.
+     */
+    @Bean
+    public Queue accountSearchIndexQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("athena.lms.account.search."));
+    }
+
+    @Bean
+    public Binding searchIndexCustomerCreatedBinding(Queue accountSearchIndexQueue, TopicExchange lmsExchange) {
+        return BindingBuilder.bind(accountSearchIndexQueue).to(lmsExchange).with(EventTypes.CUSTOMER_CREATED);
+    }
+
+    @Bean
+    public Binding searchIndexCustomerUpdatedBinding(Queue accountSearchIndexQueue, TopicExchange lmsExchange) {
+        return BindingBuilder.bind(accountSearchIndexQueue).to(lmsExchange).with(EventTypes.CUSTOMER_UPDATED);
+    }
+
+    @Bean
+    public Binding searchIndexAccountCreatedBinding(Queue accountSearchIndexQueue, TopicExchange lmsExchange) {
+        return BindingBuilder.bind(accountSearchIndexQueue).to(lmsExchange).with(EventTypes.ACCOUNT_CREATED);
+    }
 }
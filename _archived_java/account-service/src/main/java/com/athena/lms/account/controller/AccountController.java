@@ -7,7 +7,9 @@ import com.athena.lms.account.dto.response.BalanceResponse;
 import com.athena.lms.account.dto.response.StatementResponse;
 import com.athena.lms.account.dto.response.TransactionResponse;
 import com.athena.lms.account.service.AccountService;
+import com.athena.lms.account.service.IdempotencyGuard;
 import com.athena.lms.common.auth.TenantContextHolder;
+import com.athena.lms.common.dto.BatchLookupRequest;
 import com.athena.lms.common.dto.PageResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -28,6 +30,7 @@ import java.util.UUID;
 public class AccountController {
 
     private final AccountService accountService;
+    private final IdempotencyGuard idempotencyGuard;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -47,6 +50,13 @@ public class AccountController {
     }
 
 
+    @PostMapping("/batch")
+    public List<AccountResponse> getAccounts(
+            @Valid @RequestBody BatchLookupRequest<UUID> req,
+            HttpServletRequest httpRequest) {
+        return accountService.getAccounts(req.getIds(), getTenantId(httpRequest));
+    }
+
     @GetMapping("/{id}")
     public AccountResponse getAccount(@PathVariable UUID id, HttpServletRequest httpRequest) {
         return accountService.getAccount(id, getTenantId(httpRequest));
@@ -66,7 +76,9 @@ public class AccountController {
         if (idempotencyKey != null && req.getIdempotencyKey() == null) {
             req.setIdempotencyKey(idempotencyKey);
         }
-        return accountService.credit(id, req, getTenantId(httpRequest));
+        String tenantId = getTenantId(httpRequest);
+        return idempotencyGuard.replayOnConflict(req.getIdempotencyKey(),
+                () -> accountService.credit(id, req, tenantId));
     }
 
     @PostMapping("/{id}/debit")
@@ -78,7 +90,9 @@ public class AccountController {
         if (idempotencyKey != null && req.getIdempotencyKey() == null) {
             req.setIdempotencyKey(idempotencyKey);
         }
-        return accountService.debit(id, req, getTenantId(httpRequest));
+        String tenantId = getTenantId(httpRequest);
+        return idempotencyGuard.replayOnConflict(req.getIdempotencyKey(),
+                () -> accountService.debit(id, req, tenantId));
     }
 
     @GetMapping("/{id}/transactions")
@@ -114,8 +128,10 @@ public class AccountController {
     @GetMapping("/search")
     public List<AccountResponse> searchAccounts(
             @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
             HttpServletRequest httpRequest) {
-        return accountService.searchAccounts(q, getTenantId(httpRequest));
+        return accountService.searchAccounts(q, getTenantId(httpRequest), page, size);
     }
 
     @GetMapping("/customer/{customerId}")
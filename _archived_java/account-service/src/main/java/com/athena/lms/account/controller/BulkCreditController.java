@@ -0,0 +1,104 @@
+package com.athena.lms.account.controller;
+
+import com.athena.lms.account.dto.request.BulkCreditRequest;
+import com.athena.lms.account.dto.response.BulkCreditBatchResponse;
+import com.athena.lms.account.dto.response.BulkCreditLineResponse;
+import com.athena.lms.account.service.BulkCreditService;
+import com.athena.lms.common.auth.TenantContextHolder;
+import com.athena.lms.common.dto.PageResponse;
+import com.athena.lms.common.exception.BusinessException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/bulk-credits")
+@RequiredArgsConstructor
+public class BulkCreditController {
+
+    private final BulkCreditService bulkCreditService;
+
+    /** A CSV or JSON file upload. 202 when accepted for posting, 422 with the line errors when rejected. */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkCreditBatchResponse> upload(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String channel,
+            @RequestParam(required = false) String description,
+            HttpServletRequest httpRequest) throws IOException {
+        if (file.isEmpty()) {
+            throw BusinessException.badRequest("Bulk credit file is empty");
+        }
+        return respond(bulkCreditService.submitFile(file.getOriginalFilename(), file.getContentType(),
+                file.getBytes(), channel, description, getTenantId(httpRequest), getUserId(httpRequest)));
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkCreditBatchResponse> submit(
+            @Valid @RequestBody BulkCreditRequest req,
+            HttpServletRequest httpRequest) {
+        return respond(bulkCreditService.submit(req, getTenantId(httpRequest), getUserId(httpRequest)));
+    }
+
+    @GetMapping
+    public PageResponse<BulkCreditBatchResponse> listBatches(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletRequest httpRequest) {
+        return bulkCreditService.listBatches(getTenantId(httpRequest),
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    @GetMapping("/{id}")
+    public BulkCreditBatchResponse getBatch(@PathVariable UUID id, HttpServletRequest httpRequest) {
+        return bulkCreditService.getBatch(id, getTenantId(httpRequest));
+    }
+
+    @GetMapping("/{id}/lines")
+    public PageResponse<BulkCreditLineResponse> getLines(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            HttpServletRequest httpRequest) {
+        return bulkCreditService.getLines(id, status, getTenantId(httpRequest),
+                PageRequest.of(page, Math.min(size, 1000), Sort.by("lineNo")));
+    }
+
+    /** Every line's outcome as CSV, for reconciliation against the sender's file. */
+    @GetMapping(value = "/{id}/report", produces = "text/csv")
+    public void getReport(@PathVariable UUID id, HttpServletRequest httpRequest,
+                          HttpServletResponse response) throws IOException {
+        String tenantId = getTenantId(httpRequest);
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"bulk-credit-" + id + ".csv\"");
+        bulkCreditService.writeReport(id, tenantId, response.getWriter());
+    }
+
+    private static ResponseEntity<BulkCreditBatchResponse> respond(BulkCreditBatchResponse batch) {
+        HttpStatus status = "REJECTED".equals(batch.getStatus()) ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(batch);
+    }
+
+    private String getTenantId(HttpServletRequest req) {
+        String tid = (String) req.getAttribute("tenantId");
+        return tid != null ? tid : TenantContextHolder.getTenantIdOrDefault();
+    }
+
+    private String getUserId(HttpServletRequest req) {
+        String userId = (String) req.getAttribute("userId");
+        return userId != null ? userId : "system";
+    }
+}
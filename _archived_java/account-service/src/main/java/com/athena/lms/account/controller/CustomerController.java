@@ -5,6 +5,7 @@ import com.athena.lms.account.dto.request.UpdateCustomerRequest;
 import com.athena.lms.account.dto.response.CustomerResponse;
 import com.athena.lms.account.service.CustomerService;
 import com.athena.lms.common.auth.TenantContextHolder;
+import com.athena.lms.common.dto.BatchLookupRequest;
 import com.athena.lms.common.dto.PageResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -65,8 +66,17 @@ public class CustomerController {
     @GetMapping("/search")
     public List<CustomerResponse> searchCustomers(
             @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletRequest httpRequest) {
+        return customerService.searchCustomers(q, getTenantId(httpRequest), page, size);
+    }
+
+    @PostMapping("/batch")
+    public List<CustomerResponse> getByCustomerIds(
+            @Valid @RequestBody BatchLookupRequest<String> req,
             HttpServletRequest httpRequest) {
-        return customerService.searchCustomers(q, getTenantId(httpRequest));
+        return customerService.getByCustomerIds(req.getIds(), getTenantId(httpRequest));
     }
 
     @GetMapping("/by-customer-id/{customerId}")
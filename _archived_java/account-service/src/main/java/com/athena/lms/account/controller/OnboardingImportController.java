@@ -0,0 +1,82 @@
+package com.athena.lms.account.controller;
+
+import com.athena.lms.account.dto.response.OnboardingImportResponse;
+import com.athena.lms.account.service.OnboardingImportService;
+import com.athena.lms.common.auth.TenantContextHolder;
+import com.athena.lms.common.dto.PageResponse;
+import com.athena.lms.common.exception.BusinessException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/onboarding-imports")
+@RequiredArgsConstructor
+public class OnboardingImportController {
+
+    private final OnboardingImportService onboardingImportService;
+
+    /**
+     * A CSV or JSON file of customers, each with an optional account to open. 202 when rows
+     * were accepted for import; 200 for a dry run, or when no row was importable.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<OnboardingImportResponse> upload(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            HttpServletRequest httpRequest) throws IOException {
+        if (file.isEmpty()) {
+            throw BusinessException.badRequest("Onboarding file is empty");
+        }
+        OnboardingImportResponse imp = onboardingImportService.submitFile(file.getOriginalFilename(),
+                file.getContentType(), file.getBytes(), dryRun, getTenantId(httpRequest), getUserId(httpRequest));
+        HttpStatus status = "PENDING".equals(imp.getStatus()) ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(imp);
+    }
+
+    @GetMapping
+    public PageResponse<OnboardingImportResponse> listImports(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletRequest httpRequest) {
+        return onboardingImportService.listImports(getTenantId(httpRequest),
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    @GetMapping("/{id}")
+    public OnboardingImportResponse getImport(@PathVariable UUID id, HttpServletRequest httpRequest) {
+        return onboardingImportService.getImport(id, getTenantId(httpRequest));
+    }
+
+    /** Every row's outcome as CSV, with the customer and account created for it. */
+    @GetMapping(value = "/{id}/report", produces = "text/csv")
+    public void getReport(@PathVariable UUID id, HttpServletRequest httpRequest,
+                          HttpServletResponse response) throws IOException {
+        String tenantId = getTenantId(httpRequest);
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"onboarding-import-" + id + ".csv\"");
+        onboardingImportService.writeReport(id, tenantId, response.getWriter());
+    }
+
+    private String getTenantId(HttpServletRequest req) {
+        String tid = (String) req.getAttribute("tenantId");
+        return tid != null ? tid : TenantContextHolder.getTenantIdOrDefault();
+    }
+
+    private String getUserId(HttpServletRequest req) {
+        String userId = (String) req.getAttribute("userId");
+        return userId != null ? userId : "system";
+    }
+}
@@ -0,0 +1,58 @@
+package com.athena.lms.account.controller;
+
+import com.athena.lms.account.dto.request.SavingsInterestSettingsRequest;
+import com.athena.lms.account.dto.request.SavingsRateScheduleRequest;
+import com.athena.lms.account.dto.response.SavingsInterestSettingsResponse;
+import com.athena.lms.account.dto.response.SavingsInterestSummaryResponse;
+import com.athena.lms.account.dto.response.SavingsRateScheduleResponse;
+import com.athena.lms.account.interest.SavingsInterestService;
+import com.athena.lms.common.auth.TenantContextHolder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/savings-interest")
+@RequiredArgsConstructor
+public class SavingsInterestController {
+
+    private final SavingsInterestService savingsInterestService;
+
+    @GetMapping("/settings")
+    public SavingsInterestSettingsResponse getSettings(HttpServletRequest httpRequest) {
+        return savingsInterestService.getSettings(getTenantId(httpRequest));
+    }
+
+    @PutMapping("/settings")
+    public SavingsInterestSettingsResponse updateSettings(@Valid @RequestBody SavingsInterestSettingsRequest req,
+                                                          HttpServletRequest httpRequest) {
+        return savingsInterestService.updateSettings(req, getTenantId(httpRequest));
+    }
+
+    /** Every schedule for the currency, oldest first; each applies until the next one starts. */
+    @GetMapping("/rates")
+    public List<SavingsRateScheduleResponse> listSchedules(@RequestParam(defaultValue = "KES") String currency,
+                                                           HttpServletRequest httpRequest) {
+        return savingsInterestService.listSchedules(getTenantId(httpRequest), currency);
+    }
+
+    @PutMapping("/rates")
+    public SavingsRateScheduleResponse setSchedule(@Valid @RequestBody SavingsRateScheduleRequest req,
+                                                   HttpServletRequest httpRequest) {
+        return savingsInterestService.setSchedule(req, getTenantId(httpRequest));
+    }
+
+    @GetMapping("/accounts/{accountId}")
+    public SavingsInterestSummaryResponse getAccountInterest(@PathVariable UUID accountId, HttpServletRequest httpRequest) {
+        return savingsInterestService.getAccountInterest(accountId, getTenantId(httpRequest));
+    }
+
+    private String getTenantId(HttpServletRequest req) {
+        String tid = (String) req.getAttribute("tenantId");
+        return tid != null ? tid : TenantContextHolder.getTenantIdOrDefault();
+    }
+}
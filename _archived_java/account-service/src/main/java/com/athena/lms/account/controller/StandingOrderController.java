@@ -0,0 +1,82 @@
+package com.athena.lms.account.controller;
+
+import com.athena.lms.account.dto.request.StandingOrderRequest;
+import com.athena.lms.account.dto.response.StandingOrderExecutionResponse;
+import com.athena.lms.account.dto.response.StandingOrderResponse;
+import com.athena.lms.account.standingorder.StandingOrderService;
+import com.athena.lms.common.auth.TenantContextHolder;
+import com.athena.lms.common.dto.PageResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/standing-orders")
+@RequiredArgsConstructor
+public class StandingOrderController {
+
+    private final StandingOrderService standingOrderService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public StandingOrderResponse create(@Valid @RequestBody StandingOrderRequest req,
+                                        HttpServletRequest httpRequest) {
+        return standingOrderService.create(req, getTenantId(httpRequest), getUserId(httpRequest));
+    }
+
+    /** All the tenant's orders, or those paying from or into one account. */
+    @GetMapping
+    public PageResponse<StandingOrderResponse> list(
+            @RequestParam(required = false) UUID accountId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            HttpServletRequest httpRequest) {
+        return standingOrderService.list(accountId, getTenantId(httpRequest),
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    @GetMapping("/{id}")
+    public StandingOrderResponse get(@PathVariable UUID id, HttpServletRequest httpRequest) {
+        return standingOrderService.get(id, getTenantId(httpRequest));
+    }
+
+    @PostMapping("/{id}/pause")
+    public StandingOrderResponse pause(@PathVariable UUID id, HttpServletRequest httpRequest) {
+        return standingOrderService.pause(id, getTenantId(httpRequest));
+    }
+
+    @PostMapping("/{id}/resume")
+    public StandingOrderResponse resume(@PathVariable UUID id, HttpServletRequest httpRequest) {
+        return standingOrderService.resume(id, getTenantId(httpRequest));
+    }
+
+    @DeleteMapping("/{id}")
+    public StandingOrderResponse cancel(@PathVariable UUID id, HttpServletRequest httpRequest) {
+        return standingOrderService.cancel(id, getTenantId(httpRequest));
+    }
+
+    @GetMapping("/{id}/executions")
+    public List<StandingOrderExecutionResponse> listExecutions(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "50") int limit,
+            HttpServletRequest httpRequest) {
+        return standingOrderService.listExecutions(id, getTenantId(httpRequest), Math.min(limit, 500));
+    }
+
+    private String getTenantId(HttpServletRequest req) {
+        String tid = (String) req.getAttribute("tenantId");
+        return tid != null ? tid : TenantContextHolder.getTenantIdOrDefault();
+    }
+
+    private String getUserId(HttpServletRequest req) {
+        String userId = (String) req.getAttribute("userId");
+        return userId != null ? userId : "system";
+    }
+}
@@ -0,0 +1,141 @@
+package com.athena.lms.account.controller;
+
+import com.athena.lms.account.dto.request.StatementExportRequest;
+import com.athena.lms.account.dto.response.StatementExportResponse;
+import com.athena.lms.account.entity.StatementExport;
+import com.athena.lms.account.statement.StatementExportService;
+import com.athena.lms.common.auth.TenantContextHolder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Statements as files. {@code /statement/export} streams one directly; {@code /statement/exports}
+ * generates one in the background for download later, resumable with Range requests.
+ */
+@RestController
+@RequestMapping("/api/v1/accounts/{accountId}/statement")
+@RequiredArgsConstructor
+public class StatementExportController {
+
+    private final StatementExportService statementExportService;
+
+    @GetMapping("/export")
+    public void streamStatement(
+            @PathVariable UUID accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "CSV") String format,
+            HttpServletRequest httpRequest,
+            HttpServletResponse response) throws IOException {
+        StatementExport.Format fmt = StatementExportService.format(format);
+        response.setContentType(fmt.contentType());
+        response.setHeader("Content-Disposition", "attachment; filename=\"statement-" + accountId
+                + "-" + from + "-" + to + "." + fmt.extension() + "\"");
+        statementExportService.stream(accountId, getTenantId(httpRequest), from, to, fmt, response.getOutputStream());
+    }
+
+    @PostMapping("/exports")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public StatementExportResponse requestExport(
+            @PathVariable UUID accountId,
+            @Valid @RequestBody StatementExportRequest req,
+            HttpServletRequest httpRequest) {
+        String userId = (String) httpRequest.getAttribute("userId");
+        return statementExportService.requestExport(accountId, getTenantId(httpRequest), req,
+                userId != null ? userId : "system");
+    }
+
+    @GetMapping("/exports")
+    public List<StatementExportResponse> listExports(@PathVariable UUID accountId, HttpServletRequest httpRequest) {
+        return statementExportService.listExports(accountId, getTenantId(httpRequest));
+    }
+
+    @GetMapping("/exports/{exportId}")
+    public StatementExportResponse getExport(@PathVariable UUID accountId, @PathVariable UUID exportId,
+                                             HttpServletRequest httpRequest) {
+        return statementExportService.getExport(accountId, exportId, getTenantId(httpRequest));
+    }
+
+    /**
+     * The finished file. A single {@code Range: bytes=...} is answered with 206 and that part;
+     * {@code If-Range} with a stale ETag, or several ranges, get the whole file.
+     */
+    @GetMapping("/exports/{exportId}/download")
+    public void download(@PathVariable UUID accountId, @PathVariable UUID exportId,
+                         @RequestHeader(value = "Range", required = false) String range,
+                         @RequestHeader(value = "If-Range", required = false) String ifRange,
+                         HttpServletRequest httpRequest,
+                         HttpServletResponse response) throws IOException {
+        StatementExport export = statementExportService.completedExport(accountId, exportId, getTenantId(httpRequest));
+        long size = export.getSizeBytes();
+        String etag = "\"" + export.getSha256() + "\"";
+
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", etag);
+        response.setHeader("Content-Disposition", "attachment; filename=\"statement-" + accountId + "-"
+                + export.getPeriodFrom() + "-" + export.getPeriodTo() + "." + export.getFormat().extension() + "\"");
+
+        long first = 0;
+        long last = size - 1;
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader("Content-Range", "bytes */" + size);
+                return;
+            }
+            if (bounds.length == 2) {
+                first = bounds[0];
+                last = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader("Content-Range", "bytes " + first + "-" + last + "/" + size);
+            }
+        }
+        response.setContentType(export.getFormat().contentType());
+        response.setContentLengthLong(last - first + 1);
+        if (size > 0) {
+            statementExportService.copy(export, first, last, response.getOutputStream());
+        }
+    }
+
+    // The inclusive bounds of a single byte range; empty for a header to ignore (several
+    // ranges, another unit), null for one that cannot be satisfied
+    private static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return new long[0];
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return new long[0];
+        try {
+            long first;
+            long last;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) return null;
+                first = Math.max(0, size - suffix);
+                last = size - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash));
+                last = dash == spec.length() - 1 ? size - 1 : Math.min(size - 1, Long.parseLong(spec.substring(dash + 1)));
+            }
+            if (first >= size || first > last) return null;
+            return new long[]{first, last};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private String getTenantId(HttpServletRequest req) {
+        String tid = (String) req.getAttribute("tenantId");
+        return tid != null ? tid : TenantContextHolder.getTenantIdOrDefault();
+    }
+}
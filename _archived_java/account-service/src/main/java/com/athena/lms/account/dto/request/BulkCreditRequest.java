@@ -0,0 +1,35 @@
+package com.athena.lms.account.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A bulk credit file sent as JSON. Lines are validated by the service, line by line, so that
+ * a rejected file comes back with every problem rather than the first.
+ */
+@Data
+public class BulkCreditRequest {
+
+    private String fileName;
+    private String channel;
+    private String description;
+
+    @NotEmpty(message = "lines are required")
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        /** Account number or account id. */
+        private String account;
+        /** Kept as text so that a malformed amount is reported against its line. */
+        private String amount;
+        private String reference;
+        private String description;
+    }
+}
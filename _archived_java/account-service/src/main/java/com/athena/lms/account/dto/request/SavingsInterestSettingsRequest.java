@@ -0,0 +1,22 @@
+package com.athena.lms.account.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/** Fields left out keep their current value. */
+@Data
+public class SavingsInterestSettingsRequest {
+
+    /** MONTHLY or QUARTERLY. */
+    private String capitalizationFrequency;
+
+    @DecimalMin(value = "0.00", message = "withholdingTaxRate must not be negative")
+    @DecimalMax(value = "99.99", message = "withholdingTaxRate must be below 100")
+    private BigDecimal withholdingTaxRate;
+
+    /** 365 or 360. */
+    private Integer dayCount;
+}
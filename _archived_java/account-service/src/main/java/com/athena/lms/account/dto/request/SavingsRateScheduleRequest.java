@@ -0,0 +1,43 @@
+package com.athena.lms.account.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/** A savings rate schedule for one currency, replacing any schedule from the same date on. */
+@Data
+public class SavingsRateScheduleRequest {
+
+    @NotBlank(message = "currency is required")
+    @Size(min = 3, max = 3, message = "currency must be a three-letter code")
+    private String currency;
+
+    @NotNull(message = "effectiveFrom is required")
+    private LocalDate effectiveFrom;
+
+    @NotEmpty(message = "tiers are required")
+    @Valid
+    private List<Tier> tiers;
+
+    @Data
+    public static class Tier {
+        @NotNull(message = "minBalance is required")
+        @DecimalMin(value = "0.00", message = "minBalance must not be negative")
+        private BigDecimal minBalance;
+
+        /** Percent a year. */
+        @NotNull(message = "annualRate is required")
+        @DecimalMin(value = "0.0000", message = "annualRate must not be negative")
+        @DecimalMax(value = "100.0000", message = "annualRate must be at most 100")
+        private BigDecimal annualRate;
+    }
+}
@@ -0,0 +1,54 @@
+package com.athena.lms.account.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+public class StandingOrderRequest {
+
+    @NotNull(message = "sourceAccountId is required")
+    private UUID sourceAccountId;
+
+    private UUID destinationAccountId;
+
+    private String destinationAccountNumber;
+
+    @NotBlank(message = "frequency is required")
+    private String frequency;  // DAILY | WEEKLY | MONTHLY | END_OF_MONTH
+
+    @NotBlank(message = "amountRule is required")
+    private String amountRule;  // FIXED | SWEEP_ABOVE | FULL_BALANCE
+
+    /** Required for FIXED. */
+    @DecimalMin(value = "0.01", message = "amount must be > 0")
+    private BigDecimal amount;
+
+    /** Required for SWEEP_ABOVE: the balance to leave in the source account. */
+    @DecimalMin(value = "0.00", message = "threshold must not be negative")
+    private BigDecimal threshold;
+
+    @NotNull(message = "startDate is required")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Min(value = 0, message = "maxRetries must not be negative")
+    @Max(value = 10, message = "maxRetries must be at most 10")
+    private Integer maxRetries;
+
+    @Min(value = 1, message = "retryIntervalHours must be at least 1")
+    @Max(value = 168, message = "retryIntervalHours must be at most 168")
+    private Integer retryIntervalHours;
+
+    @Size(max = 255, message = "narration must be at most 255 characters")
+    private String narration;
+}
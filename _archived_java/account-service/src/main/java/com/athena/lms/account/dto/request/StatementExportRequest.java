@@ -0,0 +1,19 @@
+package com.athena.lms.account.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class StatementExportRequest {
+
+    @NotNull(message = "from is required")
+    private LocalDate from;
+
+    @NotNull(message = "to is required")
+    private LocalDate to;
+
+    /** CSV (default) or PDF. */
+    private String format;
+}
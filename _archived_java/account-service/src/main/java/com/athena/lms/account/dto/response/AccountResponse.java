@@ -20,6 +20,7 @@ public class AccountResponse {
     private int kycTier;
     private String accountName;
     private BalanceResponse balance;
+    private LocalDateTime lastCustomerActivityAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -43,6 +44,7 @@ public class AccountResponse {
                 .kycTier(account.getKycTier())
                 .accountName(account.getAccountName())
                 .balance(balance)
+                .lastCustomerActivityAt(account.getLastCustomerActivityAt())
                 .createdAt(account.getCreatedAt())
                 .updatedAt(account.getUpdatedAt())
                 .build();
@@ -0,0 +1,57 @@
+package com.athena.lms.account.dto.response;
+
+import com.athena.lms.account.entity.BulkCreditBatch;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BulkCreditBatchResponse {
+
+    private UUID id;
+    private String fileName;
+    private String status;
+    private String channel;
+    private String description;
+    private int totalLines;
+    private BigDecimal totalAmount;
+    private int postedLines;
+    private BigDecimal postedAmount;
+    private int failedLines;
+    private int pendingLines;
+    private String submittedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    /** Why the last run stopped, while it is retried, or why the batch FAILED. */
+    private String lastError;
+    /** For a rejected file, its first invalid lines; the lines endpoint pages through all of them. */
+    private List<BulkCreditLineResponse> errors;
+
+    public static BulkCreditBatchResponse from(BulkCreditBatch batch, List<BulkCreditLineResponse> errors) {
+        int pending = batch.getStatus() == BulkCreditBatch.BatchStatus.REJECTED ? 0
+                : batch.getTotalLines() - batch.getPostedLines() - batch.getFailedLines();
+        return BulkCreditBatchResponse.builder()
+                .id(batch.getId())
+                .fileName(batch.getFileName())
+                .status(batch.getStatus().name())
+                .channel(batch.getChannel())
+                .description(batch.getDescription())
+                .totalLines(batch.getTotalLines())
+                .totalAmount(batch.getTotalAmount())
+                .postedLines(batch.getPostedLines())
+                .postedAmount(batch.getPostedAmount())
+                .failedLines(batch.getFailedLines())
+                .pendingLines(pending)
+                .submittedBy(batch.getSubmittedBy())
+                .createdAt(batch.getCreatedAt())
+                .completedAt(batch.getCompletedAt())
+                .lastError(batch.getLastError())
+                .errors(errors)
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.athena.lms.account.dto.response;
+
+import com.athena.lms.account.entity.BulkCreditLine;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BulkCreditLineResponse {
+
+    private int lineNo;
+    private String account;
+    private UUID accountId;
+    private BigDecimal amount;
+    private String reference;
+    private String status;
+    private String error;
+    private UUID transactionId;
+    private BigDecimal balanceAfter;
+    private LocalDateTime postedAt;
+
+    public static BulkCreditLineResponse from(BulkCreditLine line) {
+        return BulkCreditLineResponse.builder()
+                .lineNo(line.getLineNo())
+                .account(line.getAccountRef())
+                .accountId(line.getAccountId())
+                .amount(line.getAmount())
+                .reference(line.getReference())
+                .status(line.getStatus().name())
+                .error(line.getError())
+                .transactionId(line.getTransactionId())
+                .balanceAfter(line.getBalanceAfter())
+                .postedAt(line.getPostedAt())
+                .build();
+    }
+}
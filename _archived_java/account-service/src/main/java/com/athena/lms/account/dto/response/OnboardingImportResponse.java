@@ -0,0 +1,56 @@
+package com.athena.lms.account.dto.response;
+
+import com.athena.lms.account.entity.OnboardingImport;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class OnboardingImportResponse {
+
+    private UUID id;
+    private String fileName;
+    private boolean dryRun;
+    private String status;
+    private int totalRows;
+    private int validRows;
+    private int invalidRows;
+    private int skippedRows;
+    private int importedCustomers;
+    private int importedAccounts;
+    private int failedRows;
+    private int pendingRows;
+    private String submittedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    /** The first rows that were not or will not be imported; the report has all of them. */
+    private List<RowError> errors;
+
+    public record RowError(int rowNo, String customerId, String status, String error) {}
+
+    public static OnboardingImportResponse from(OnboardingImport imp, List<RowError> errors) {
+        int pending = imp.isDryRun() ? 0 : imp.getValidRows() - imp.getImportedCustomers() - imp.getFailedRows();
+        return OnboardingImportResponse.builder()
+                .id(imp.getId())
+                .fileName(imp.getFileName())
+                .dryRun(imp.isDryRun())
+                .status(imp.getStatus().name())
+                .totalRows(imp.getTotalRows())
+                .validRows(imp.getValidRows())
+                .invalidRows(imp.getInvalidRows())
+                .skippedRows(imp.getSkippedRows())
+                .importedCustomers(imp.getImportedCustomers())
+                .importedAccounts(imp.getImportedAccounts())
+                .failedRows(imp.getFailedRows())
+                .pendingRows(pending)
+                .submittedBy(imp.getSubmittedBy())
+                .createdAt(imp.getCreatedAt())
+                .completedAt(imp.getCompletedAt())
+                .errors(errors)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.athena.lms.account.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class SavingsInterestSettingsResponse {
+
+    private String tenantId;
+    private String capitalizationFrequency;
+    private BigDecimal withholdingTaxRate;
+    private int dayCount;
+    /** False while the tenant is on the service defaults. */
+    private boolean configured;
+    private LocalDateTime updatedAt;
+}
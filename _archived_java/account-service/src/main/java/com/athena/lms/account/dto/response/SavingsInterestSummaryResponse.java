@@ -0,0 +1,36 @@
+package com.athena.lms.account.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/** Interest accrued on a savings account but not yet capitalized, and its latest capitalizations. */
+@Data
+@Builder
+public class SavingsInterestSummaryResponse {
+
+    private UUID accountId;
+    /** Six decimals; rounded to cents only when capitalized. */
+    private BigDecimal accruedInterest;
+    private LocalDate accruedFrom;
+    private LocalDate lastAccrualDate;
+    private BigDecimal currentAnnualRate;
+    private List<Posting> postings;
+
+    @Data
+    @AllArgsConstructor
+    public static class Posting {
+        private LocalDate periodEnd;
+        private BigDecimal grossAmount;
+        private BigDecimal taxAmount;
+        private BigDecimal netAmount;
+        private UUID creditTransactionId;
+        private LocalDateTime postedAt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.athena.lms.account.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class SavingsRateScheduleResponse {
+
+    private String currency;
+    private LocalDate effectiveFrom;
+    private List<Tier> tiers;
+
+    @Data
+    @AllArgsConstructor
+    public static class Tier {
+        private BigDecimal minBalance;
+        private BigDecimal annualRate;
+    }
+}
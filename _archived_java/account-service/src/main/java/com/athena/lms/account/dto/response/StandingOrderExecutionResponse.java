@@ -0,0 +1,24 @@
+package com.athena.lms.account.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class StandingOrderExecutionResponse {
+
+    private LocalDate dueDate;
+    private String status;
+    private int attempts;
+    /** When a PENDING execution is next tried. */
+    private LocalDateTime nextAttemptAt;
+    private BigDecimal amount;
+    private UUID transferId;
+    private String lastError;
+    private LocalDateTime completedAt;
+}
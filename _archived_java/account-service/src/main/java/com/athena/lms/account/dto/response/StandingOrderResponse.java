@@ -0,0 +1,57 @@
+package com.athena.lms.account.dto.response;
+
+import com.athena.lms.account.entity.StandingOrder;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class StandingOrderResponse {
+
+    private UUID id;
+    private UUID sourceAccountId;
+    private UUID destinationAccountId;
+    private String transferType;
+    private String frequency;
+    private String amountRule;
+    private BigDecimal amount;
+    private BigDecimal threshold;
+    private int maxRetries;
+    private int retryIntervalHours;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextDueDate;
+    private String status;
+    private String narration;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static StandingOrderResponse from(StandingOrder order) {
+        return StandingOrderResponse.builder()
+                .id(order.getId())
+                .sourceAccountId(order.getSourceAccountId())
+                .destinationAccountId(order.getDestinationAccountId())
+                .transferType(order.getTransferType().name())
+                .frequency(order.getFrequency().name())
+                .amountRule(order.getAmountRule().name())
+                .amount(order.getAmount())
+                .threshold(order.getThreshold())
+                .maxRetries(order.getMaxRetries())
+                .retryIntervalHours(order.getRetryIntervalHours())
+                .startDate(order.getStartDate())
+                .endDate(order.getEndDate())
+                .nextDueDate(order.getNextDueDate())
+                .status(order.getStatus().name())
+                .narration(order.getNarration())
+                .createdBy(order.getCreatedBy())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+}
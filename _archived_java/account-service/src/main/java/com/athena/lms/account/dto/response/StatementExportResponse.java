@@ -0,0 +1,46 @@
+package com.athena.lms.account.dto.response;
+
+import com.athena.lms.account.entity.StatementExport;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class StatementExportResponse {
+
+    private UUID id;
+    private UUID accountId;
+    private LocalDate periodFrom;
+    private LocalDate periodTo;
+    private String format;
+    private String status;
+    private Long transactionCount;
+    private Long sizeBytes;
+    private String sha256;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+
+    public static StatementExportResponse from(StatementExport export) {
+        return StatementExportResponse.builder()
+                .id(export.getId())
+                .accountId(export.getAccountId())
+                .periodFrom(export.getPeriodFrom())
+                .periodTo(export.getPeriodTo())
+                .format(export.getFormat().name())
+                .status(export.getStatus().name())
+                .transactionCount(export.getTransactionCount())
+                .sizeBytes(export.getSizeBytes())
+                .sha256(export.getSha256())
+                .error(export.getError())
+                .createdAt(export.getCreatedAt())
+                .completedAt(export.getCompletedAt())
+                .expiresAt(export.getExpiresAt())
+                .build();
+    }
+}
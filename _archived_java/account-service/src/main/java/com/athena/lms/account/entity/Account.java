@@ -64,6 +64,10 @@ public class Account {
     @Transient
     private AccountBalance balance;
 
+    // Set by the database, in the same statement as each credit or debit (see AccountMovements)
+    @Column(name = "last_customer_activity_at", insertable = false, updatable = false)
+    private LocalDateTime lastCustomerActivityAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
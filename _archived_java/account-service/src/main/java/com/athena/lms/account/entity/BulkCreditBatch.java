@@ -0,0 +1,75 @@
+package com.athena.lms.account.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** An uploaded bulk credit file. Written by BulkCreditService and BulkCreditPoster through JDBC. */
+@Entity
+@Table(name = "bulk_credit_batches")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreditBatch {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false, length = 50)
+    private String tenantId;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_sha256", nullable = false, length = 64)
+    private String fileSha256;
+
+    @Column(name = "channel", nullable = false, length = 50)
+    private String channel;
+
+    @Column(name = "description")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    private BatchStatus status;
+
+    @Column(name = "total_lines", nullable = false)
+    private int totalLines;
+
+    @Column(name = "total_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "posted_lines", nullable = false)
+    private int postedLines;
+
+    @Column(name = "posted_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal postedAmount;
+
+    @Column(name = "failed_lines", nullable = false)
+    private int failedLines;
+
+    @Column(name = "submitted_by", length = 100)
+    private String submittedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    public enum BatchStatus { REJECTED, PENDING, PROCESSING, COMPLETED, COMPLETED_WITH_ERRORS, FAILED }
+}
@@ -0,0 +1,79 @@
+package com.athena.lms.account.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** One line of a bulk credit file and its outcome. */
+@Entity
+@Table(name = "bulk_credit_lines")
+@IdClass(BulkCreditLine.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreditLine {
+
+    @Id
+    @Column(name = "batch_id")
+    private UUID batchId;
+
+    @Id
+    @Column(name = "line_no")
+    private int lineNo;
+
+    @Column(name = "post_order", nullable = false)
+    private int postOrder;
+
+    @Column(name = "account_ref", nullable = false, length = 100)
+    private String accountRef;
+
+    @Column(name = "account_id")
+    private UUID accountId;
+
+    @Column(name = "amount", precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "reference", length = 100)
+    private String reference;
+
+    @Column(name = "description")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private LineStatus status;
+
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "transaction_id")
+    private UUID transactionId;
+
+    @Column(name = "balance_after", precision = 15, scale = 2)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "posted_at")
+    private LocalDateTime postedAt;
+
+    @Column(name = "notified", nullable = false)
+    private boolean notified;
+
+    /** INVALID and SKIPPED only occur in rejected batches: nothing in those is posted. */
+    public enum LineStatus { INVALID, SKIPPED, PENDING, POSTED, FAILED }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID batchId;
+        private int lineNo;
+    }
+}
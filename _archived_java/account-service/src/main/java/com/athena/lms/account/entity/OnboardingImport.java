@@ -0,0 +1,75 @@
+package com.athena.lms.account.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** An uploaded onboarding file. Written by OnboardingImportService and OnboardingImporter through JDBC. */
+@Entity
+@Table(name = "onboarding_imports")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingImport {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false, length = 50)
+    private String tenantId;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_sha256", nullable = false, length = 64)
+    private String fileSha256;
+
+    @Column(name = "dry_run", nullable = false)
+    private boolean dryRun;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    private ImportStatus status;
+
+    @Column(name = "total_rows", nullable = false)
+    private int totalRows;
+
+    @Column(name = "valid_rows", nullable = false)
+    private int validRows;
+
+    @Column(name = "invalid_rows", nullable = false)
+    private int invalidRows;
+
+    /** Rows naming a customer the tenant already has. */
+    @Column(name = "skipped_rows", nullable = false)
+    private int skippedRows;
+
+    @Column(name = "imported_customers", nullable = false)
+    private int importedCustomers;
+
+    @Column(name = "imported_accounts", nullable = false)
+    private int importedAccounts;
+
+    @Column(name = "failed_rows", nullable = false)
+    private int failedRows;
+
+    @Column(name = "submitted_by", length = 100)
+    private String submittedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum ImportStatus { VALIDATED, PENDING, PROCESSING, COMPLETED, COMPLETED_WITH_ERRORS }
+}
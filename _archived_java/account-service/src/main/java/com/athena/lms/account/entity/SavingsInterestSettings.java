@@ -0,0 +1,41 @@
+package com.athena.lms.account.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** A tenant's savings interest terms; tenants without a row use the lms.savings-interest defaults. */
+@Entity
+@Table(name = "savings_interest_settings")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavingsInterestSettings {
+
+    @Id
+    @Column(name = "tenant_id", nullable = false, length = 50)
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "capitalization_frequency", nullable = false, length = 20)
+    private CapitalizationFrequency capitalizationFrequency;
+
+    /** Percent of gross interest withheld at capitalization. */
+    @Column(name = "withholding_tax_rate", nullable = false, precision = 5, scale = 2)
+    private BigDecimal withholdingTaxRate;
+
+    /** Days in the interest year: 365, or 360. */
+    @Column(name = "day_count", nullable = false)
+    private int dayCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum CapitalizationFrequency { MONTHLY, QUARTERLY }
+}
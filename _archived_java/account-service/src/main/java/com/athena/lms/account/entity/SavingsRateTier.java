@@ -0,0 +1,46 @@
+package com.athena.lms.account.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One band of a savings rate schedule. A day-end balance of at least {@code minBalance}, and
+ * below the next band's, earns {@code annualRate} percent on the whole balance.
+ */
+@Entity
+@Table(name = "savings_rate_tiers")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavingsRateTier {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false, length = 50)
+    private String tenantId;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "effective_from", nullable = false)
+    private LocalDate effectiveFrom;
+
+    @Column(name = "min_balance", nullable = false, precision = 18, scale = 2)
+    private BigDecimal minBalance;
+
+    @Column(name = "annual_rate", nullable = false, precision = 7, scale = 4)
+    private BigDecimal annualRate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
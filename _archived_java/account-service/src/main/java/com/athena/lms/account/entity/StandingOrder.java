@@ -0,0 +1,121 @@
+package com.athena.lms.account.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/** A recurring transfer. Scheduled and executed by StandingOrderExecutor through JDBC. */
+@Entity
+@Table(name = "standing_orders")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandingOrder {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false, length = 50)
+    private String tenantId;
+
+    @Column(name = "source_account_id", nullable = false)
+    private UUID sourceAccountId;
+
+    @Column(name = "destination_account_id", nullable = false)
+    private UUID destinationAccountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transfer_type", nullable = false, length = 20)
+    private FundTransfer.TransferType transferType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false, length = 20)
+    private Frequency frequency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "amount_rule", nullable = false, length = 20)
+    private AmountRule amountRule;
+
+    /** The amount sent, for a FIXED order. */
+    @Column(name = "amount", precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    /** The balance left behind, for a SWEEP_ABOVE order. */
+    @Column(name = "threshold", precision = 15, scale = 2)
+    private BigDecimal threshold;
+
+    /** Further attempts after the due date's first finds insufficient funds. */
+    @Column(name = "max_retries", nullable = false)
+    private int maxRetries;
+
+    @Column(name = "retry_interval_hours", nullable = false)
+    private int retryIntervalHours;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "next_due_date")
+    private LocalDate nextDueDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "narration")
+    private String narration;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum OrderStatus { ACTIVE, PAUSED, CANCELLED, COMPLETED }
+
+    public enum AmountRule {
+        FIXED,
+        /** Everything available above the threshold. */
+        SWEEP_ABOVE,
+        /** Everything available. */
+        FULL_BALANCE
+    }
+
+    /**
+     * How due dates follow one another. Weekly orders fall on the start date's weekday and
+     * monthly ones on its day of the month, or the month's last day when it is shorter.
+     */
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, END_OF_MONTH;
+
+        public LocalDate first(LocalDate start) {
+            return this == END_OF_MONTH ? YearMonth.from(start).atEndOfMonth() : start;
+        }
+
+        public LocalDate next(LocalDate due, LocalDate start) {
+            return switch (this) {
+                case DAILY -> due.plusDays(1);
+                case WEEKLY -> due.plusWeeks(1);
+                case MONTHLY -> {
+                    YearMonth month = YearMonth.from(due).plusMonths(1);
+                    yield month.atDay(Math.min(start.getDayOfMonth(), month.lengthOfMonth()));
+                }
+                case END_OF_MONTH -> YearMonth.from(due).plusMonths(1).atEndOfMonth();
+            };
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.athena.lms.account.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** A statement generated in the background; its file is kept in statement_export_chunks until it expires. */
+@Entity
+@Table(name = "statement_exports")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementExport {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false, length = 50)
+    private String tenantId;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "period_from", nullable = false)
+    private LocalDate periodFrom;
+
+    @Column(name = "period_to", nullable = false)
+    private LocalDate periodTo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, length = 10)
+    private Format format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ExportStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "transaction_count")
+    private Long transactionCount;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "chunk_bytes")
+    private Integer chunkBytes;
+
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "requested_by", length = 100)
+    private String requestedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    public enum Format {
+        CSV("text/csv"), PDF("application/pdf");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return name().toLowerCase();
+        }
+    }
+
+    public enum ExportStatus { PENDING, RUNNING, COMPLETED, FAILED }
+}
@@ -9,6 +9,10 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -33,6 +37,130 @@ public class AccountEventPublisher {
                        "tenantId", tenantId));
     }
 
+    /** A credit posted from a bulk credit file. */
+    public record PostedCredit(UUID accountId, BigDecimal amount, UUID transactionId) {}
+
+    /**
+     * Publishes account.credit.received for each credit of a bulk credit chunk, over one
+     * channel. Unlike the single-event methods a failure is thrown, so that the caller keeps
+     * the credits marked unsent and publishes them again.
+     */
+    public void publishCreditsReceived(UUID batchId, List<PostedCredit> credits, String tenantId) {
+        lmsRabbitTemplate.invoke(operations -> {
+            for (PostedCredit credit : credits) {
+                operations.convertAndSend(LmsRabbitMQConfig.LMS_EXCHANGE, EventTypes.ACCOUNT_CREDIT_RECEIVED,
+                        DomainEvent.of(EventTypes.ACCOUNT_CREDIT_RECEIVED, "account-service", tenantId,
+                                Map.of("accountId", credit.accountId().toString(),
+                                       "amount", credit.amount(),
+                                       "tenantId", tenantId,
+                                       "transactionId", credit.transactionId().toString(),
+                                       "bulkCreditId", batchId.toString())));
+            }
+            return null;
+        });
+        log.debug("Published {} credit events for bulk credit batch {}", credits.size(), batchId);
+    }
+
+    public void publishBulkCreditCompleted(UUID batchId, String status, int totalLines, int postedLines,
+            BigDecimal postedAmount, int failedLines, String tenantId) {
+        publish(EventTypes.ACCOUNT_BULK_CREDIT_COMPLETED, tenantId,
+                Map.of("bulkCreditId", batchId.toString(),
+                       "status", status,
+                       "totalLines", totalLines,
+                       "postedLines", postedLines,
+                       "postedAmount", postedAmount,
+                       "failedLines", failedLines));
+    }
+
+    /**
+     * A tenant's savings interest for one period, for the ledger. Thrown on failure, so that
+     * the capitalization run stays open and publishes it again.
+     */
+    public void publishInterestCapitalized(LocalDate periodEnd, int accounts, BigDecimal grossAmount,
+            BigDecimal taxAmount, String tenantId) {
+        lmsRabbitTemplate.convertAndSend(LmsRabbitMQConfig.LMS_EXCHANGE, EventTypes.ACCOUNT_INTEREST_CAPITALIZED,
+                DomainEvent.of(EventTypes.ACCOUNT_INTEREST_CAPITALIZED, "account-service", tenantId,
+                        Map.of("periodEnd", periodEnd.toString(),
+                               "accounts", accounts,
+                               "grossAmount", grossAmount,
+                               "taxAmount", taxAmount,
+                               "netAmount", grossAmount.subtract(taxAmount),
+                               "tenantId", tenantId)));
+        log.debug("Published savings interest for {} to {}", tenantId, periodEnd);
+    }
+
+    /** An account marked dormant by the dormancy sweep. */
+    public record DormantAccount(UUID accountId, String accountNumber, String customerId, LocalDateTime lastActivityAt) {}
+
+    /**
+     * One account.dormant event for the accounts of one tenant made dormant together, rather
+     * than an event each.
+     */
+    public void publishDormant(List<DormantAccount> accounts, int inactiveDays, String tenantId) {
+        List<Map<String, Object>> items = accounts.stream()
+                .map(a -> Map.<String, Object>of("accountId", a.accountId().toString(),
+                        "accountNumber", a.accountNumber(),
+                        "customerId", a.customerId(),
+                        "lastActivityAt", a.lastActivityAt().toString()))
+                .toList();
+        publish(EventTypes.ACCOUNT_DORMANT, tenantId,
+                Map.of("accounts", items,
+                       "count", items.size(),
+                       "inactiveDays", inactiveDays,
+                       "tenantId", tenantId));
+    }
+
+    /**
+     * A dormant account moved again. inactiveDays is whole days since its previous customer
+     * activity, for rules that care how long it slept.
+     */
+    public void publishReactivated(UUID accountId, String accountNumber, String customerId,
+            LocalDateTime lastActivityAt, LocalDateTime reactivatedAt, String transactionType,
+            BigDecimal amount, String tenantId) {
+        Duration inactive = Duration.between(lastActivityAt, reactivatedAt);
+        publish(EventTypes.ACCOUNT_REACTIVATED, tenantId,
+                Map.of("accountId", accountId.toString(),
+                       "accountNumber", accountNumber,
+                       "customerId", customerId,
+                       "lastActivityAt", lastActivityAt.toString(),
+                       "reactivatedAt", reactivatedAt.toString(),
+                       "inactiveDays", inactive.toDays(),
+                       "inactiveSeconds", inactive.toSeconds(),
+                       "transactionType", transactionType,
+                       "amount", amount,
+                       "tenantId", tenantId));
+    }
+
+    /** A customer created by an onboarding import, and the account opened for it if any. */
+    public record OnboardedCustomer(UUID id, String customerId, UUID accountId, String accountNumber) {}
+
+    /**
+     * Publishes customer.created, and account.created where an account was opened, for each
+     * customer of an onboarding chunk, over one channel. As for bulk credits a failure is
+     * thrown, so that the caller keeps the rows marked unsent and publishes them again.
+     */
+    public void publishOnboarded(UUID importId, List<OnboardedCustomer> customers, String tenantId) {
+        lmsRabbitTemplate.invoke(operations -> {
+            for (OnboardedCustomer c : customers) {
+                operations.convertAndSend(LmsRabbitMQConfig.LMS_EXCHANGE, EventTypes.CUSTOMER_CREATED,
+                        DomainEvent.of(EventTypes.CUSTOMER_CREATED, "account-service", tenantId,
+                                Map.of("id", c.id().toString(),
+                                       "customerId", c.customerId(),
+                                       "onboardingImportId", importId.toString())));
+                if (c.accountId() != null) {
+                    operations.convertAndSend(LmsRabbitMQConfig.LMS_EXCHANGE, EventTypes.ACCOUNT_CREATED,
+                            DomainEvent.of(EventTypes.ACCOUNT_CREATED, "account-service", tenantId,
+                                    Map.of("accountId", c.accountId().toString(),
+                                           "accountNumber", c.accountNumber(),
+                                           "customerId", c.customerId(),
+                                           "onboardingImportId", importId.toString())));
+                }
+            }
+            return null;
+        });
+        log.debug("Published creation events for {} onboarded customers of import {}", customers.size(), importId);
+    }
+
     public void publishCustomerCreated(UUID id, String customerId, String tenantId) {
         publish(EventTypes.CUSTOMER_CREATED, tenantId,
                 Map.of("id", id.toString(), "customerId", customerId));
@@ -52,6 +180,35 @@ public class AccountEventPublisher {
                        "amount", amount));
     }
 
+    /** A transfer made by a standing order on one of its due dates. */
+    public record StandingOrderTransfer(UUID transferId, UUID standingOrderId, LocalDate dueDate,
+                                        UUID sourceAccountId, UUID destinationAccountId, BigDecimal amount) {}
+
+    /**
+     * Publishes transfer.completed for each transfer of a standing order chunk, over one
+     * channel. As with a single transfer, a failure is logged rather than thrown.
+     */
+    public void publishStandingOrderTransfers(List<StandingOrderTransfer> transfers, String tenantId) {
+        try {
+            lmsRabbitTemplate.invoke(operations -> {
+                for (StandingOrderTransfer t : transfers) {
+                    operations.convertAndSend(LmsRabbitMQConfig.LMS_EXCHANGE, EventTypes.TRANSFER_COMPLETED,
+                            DomainEvent.of(EventTypes.TRANSFER_COMPLETED, "account-service", tenantId,
+                                    Map.of("transferId", t.transferId().toString(),
+                                           "sourceAccountId", t.sourceAccountId().toString(),
+                                           "destinationAccountId", t.destinationAccountId().toString(),
+                                           "amount", t.amount(),
+                                           "standingOrderId", t.standingOrderId().toString(),
+                                           "dueDate", t.dueDate().toString())));
+                }
+                return null;
+            });
+            log.debug("Published {} standing order transfer events for tenant: {}", transfers.size(), tenantId);
+        } catch (Exception e) {
+            log.error("Failed to publish {} standing order transfer events: {}", transfers.size(), e.getMessage());
+        }
+    }
+
     public void publishTransferFailed(UUID transferId, String reason, String tenantId) {
         publish(EventTypes.TRANSFER_FAILED, tenantId,
                 Map.of("transferId", transferId.toString(), "reason", reason));
@@ -0,0 +1,442 @@
+package com.athena.lms.account.interest;
+
+import com.athena.lms.account.event.AccountEventPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accrues interest on savings accounts every day and capitalizes it at month or quarter end.
+ *
+ * Each day gets an accrual run over all savings accounts in id order, a chunk per
+ * transaction. A chunk is one INSERT ... SELECT: it works out each account's balance at the
+ * end of the day (the current balance less the chunk's movements since, summed in one pass
+ * over the account and date index), picks the rate of the tier that balance falls in, and
+ * writes the day's accrual, skipping accounts that already have one, so rerunning a day
+ * changes nothing. Runs are claimed with a lease that every
+ * chunk renews along with the last account done; a run left by a stopped replica is taken
+ * over by the next sweep and carries on from there. Days missed while no replica was up are
+ * caught up, oldest first.
+ *
+ * A month end also gets a capitalization run once its accruals are in. For each account of a
+ * tenant due that month, the open accruals up to the period end are rounded to cents and
+ * posted as an interest credit, with the tenant's withholding tax debited straight after.
+ * Balances are locked in the order TransferService uses. The posting row and the
+ * transactions' idempotency keys make each account's capitalization happen once. Each chunk
+ * adds its postings to the period's per-tenant totals in the same transaction; when the run
+ * is done those totals go out as account.interest.capitalized for the ledger, once, as the
+ * run row records the period as published.
+ */
+@Service
+@Slf4j
+public class SavingsInterestEngine {
+
+    private static final String ACCRUAL = "ACCRUAL";
+    private static final String CAPITALIZATION = "CAPITALIZATION";
+
+    private static final String ACCRUE_SQL =
+            "WITH schedule AS (" +
+            "  SELECT r.tenant_id, r.currency, r.min_balance, r.annual_rate, " +
+            "         LEAD(r.min_balance) OVER (PARTITION BY r.tenant_id, r.currency ORDER BY r.min_balance) AS next_min " +
+            "  FROM savings_rate_tiers r " +
+            "  WHERE r.effective_from = (SELECT MAX(s.effective_from) FROM savings_rate_tiers s " +
+            "                            WHERE s.tenant_id = r.tenant_id AND s.currency = r.currency " +
+            "                            AND s.effective_from <= ?)" +
+            "), since_day_end AS (" +
+            "  SELECT t.account_id, SUM(CASE WHEN t.transaction_type = 'CREDIT' THEN t.amount ELSE -t.amount END) AS net " +
+            "  FROM account_transactions t WHERE t.account_id = ANY(?) AND t.created_at >= ? " +
+            "  GROUP BY t.account_id" +
+            "), day_end AS (" +
+            "  SELECT a.id, a.tenant_id, a.currency, b.current_balance - COALESCE(m.net, 0) AS balance " +
+            "  FROM accounts a JOIN account_balances b ON b.account_id = a.id " +
+            "  LEFT JOIN since_day_end m ON m.account_id = a.id " +
+            "  WHERE a.id = ANY(?) AND a.status <> 'CLOSED' AND a.created_at < ?" +
+            ") " +
+            "INSERT INTO savings_interest_accruals (account_id, accrual_date, tenant_id, balance, annual_rate, amount) " +
+            "SELECT d.id, ?, d.tenant_id, d.balance, s.annual_rate, " +
+            "       ROUND(d.balance * s.annual_rate / 100 / COALESCE(st.day_count, ?), 6) " +
+            "FROM day_end d " +
+            "JOIN schedule s ON s.tenant_id = d.tenant_id AND s.currency = d.currency " +
+            "     AND d.balance >= s.min_balance AND (s.next_min IS NULL OR d.balance < s.next_min) " +
+            "LEFT JOIN savings_interest_settings st ON st.tenant_id = d.tenant_id " +
+            "WHERE d.balance > 0 AND s.annual_rate > 0 " +
+            "ON CONFLICT (account_id, accrual_date) DO NOTHING";
+
+    // Totals under a cent stay open and carry into the next period
+    private static final String CAPITALIZE_SQL =
+            "WITH totals AS (" +
+            "  SELECT x.account_id, x.tenant_id, ROUND(SUM(x.amount), 2) AS gross " +
+            "  FROM savings_interest_accruals x " +
+            "  JOIN accounts a ON a.id = x.account_id " +
+            "  LEFT JOIN savings_interest_settings st ON st.tenant_id = x.tenant_id " +
+            "  WHERE x.account_id = ANY(?) AND x.accrual_date <= ? AND x.capitalized_on IS NULL " +
+            "    AND a.status <> 'CLOSED' AND COALESCE(st.capitalization_frequency, ?) = ANY(?) " +
+            "  GROUP BY x.account_id, x.tenant_id " +
+            "  HAVING ROUND(SUM(x.amount), 2) > 0" +
+            ") " +
+            "INSERT INTO savings_interest_postings (account_id, period_end, tenant_id, gross_amount, tax_amount, posted_at) " +
+            "SELECT t.account_id, ?, t.tenant_id, t.gross, " +
+            "       ROUND(t.gross * COALESCE(st.withholding_tax_rate, ?) / 100, 2), ? " +
+            "FROM totals t LEFT JOIN savings_interest_settings st ON st.tenant_id = t.tenant_id " +
+            "ON CONFLICT (account_id, period_end) DO NOTHING " +
+            "RETURNING account_id, tenant_id, gross_amount, tax_amount";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final AccountEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int leaseSeconds;
+    private final int sweepSeconds;
+    private final int maxCatchUpDays;
+    private final String defaultFrequency;
+    private final BigDecimal defaultWithholdingTaxRate;
+    private final int defaultDayCount;
+    private final String owner;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "savings-interest");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public SavingsInterestEngine(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 AccountEventPublisher eventPublisher,
+                                 @Value("${lms.savings-interest.enabled:true}") boolean enabled,
+                                 @Value("${lms.savings-interest.chunk-size:5000}") int chunkSize,
+                                 @Value("${lms.savings-interest.lease-seconds:300}") int leaseSeconds,
+                                 @Value("${lms.savings-interest.sweep-seconds:600}") int sweepSeconds,
+                                 @Value("${lms.savings-interest.max-catch-up-days:31}") int maxCatchUpDays,
+                                 @Value("${lms.savings-interest.capitalization-frequency:MONTHLY}") String defaultFrequency,
+                                 @Value("${lms.savings-interest.withholding-tax-rate:15.00}") BigDecimal defaultWithholdingTaxRate,
+                                 @Value("${lms.savings-interest.day-count:365}") int defaultDayCount) {
+        this(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager), eventPublisher, enabled,
+                chunkSize, leaseSeconds, sweepSeconds, maxCatchUpDays, defaultFrequency, defaultWithholdingTaxRate,
+                defaultDayCount);
+    }
+
+    SavingsInterestEngine(JdbcTemplate jdbc, TransactionTemplate transaction, AccountEventPublisher eventPublisher,
+                          boolean enabled, int chunkSize, int leaseSeconds, int sweepSeconds, int maxCatchUpDays,
+                          String defaultFrequency, BigDecimal defaultWithholdingTaxRate, int defaultDayCount) {
+        this.jdbc = jdbc;
+        this.transaction = transaction;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.leaseSeconds = leaseSeconds;
+        this.sweepSeconds = sweepSeconds;
+        this.maxCatchUpDays = maxCatchUpDays;
+        this.defaultFrequency = defaultFrequency;
+        this.defaultWithholdingTaxRate = defaultWithholdingTaxRate;
+        this.defaultDayCount = defaultDayCount;
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Savings interest engine disabled");
+            return;
+        }
+        sweeper.scheduleWithFixedDelay(this::sweep, 60, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // An interrupted chunk rolls back; the lease lapses and another replica carries on
+        sweeper.shutdownNow();
+    }
+
+    void sweep() {
+        try {
+            schedule(LocalDate.now().minusDays(1));
+            Run run;
+            while (!Thread.currentThread().isInterrupted() && (run = claimNext()) != null) {
+                process(run);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Savings interest sweep failed: {}", e.getMessage());
+        }
+    }
+
+    // Runs for every day up to and including the last full one that has none yet
+    void schedule(LocalDate through) {
+        LocalDate last = jdbc.queryForObject(
+                "SELECT MAX(run_date) FROM savings_interest_runs WHERE run_type = 'ACCRUAL'", LocalDate.class);
+        LocalDate first = last != null ? last.plusDays(1) : through;
+        if (first.isBefore(through.minusDays(maxCatchUpDays - 1L))) {
+            log.warn("Savings interest has not run since {}; accruing from {} only", last, through.minusDays(maxCatchUpDays - 1L));
+            first = through.minusDays(maxCatchUpDays - 1L);
+        }
+        for (LocalDate date = first; !date.isAfter(through); date = date.plusDays(1)) {
+            jdbc.update("INSERT INTO savings_interest_runs (run_type, run_date, status) VALUES ('ACCRUAL', ?, 'PENDING') " +
+                    "ON CONFLICT DO NOTHING", date);
+            if (isMonthEnd(date)) {
+                jdbc.update("INSERT INTO savings_interest_runs (run_type, run_date, status) " +
+                        "VALUES ('CAPITALIZATION', ?, 'PENDING') ON CONFLICT DO NOTHING", date);
+            }
+        }
+    }
+
+    // ─── Runs ────────────────────────────────────────────────────────────────
+
+    private record Run(String type, LocalDate date, UUID lastAccountId) {}
+
+    /** Thrown inside a chunk when another replica has taken the run over; rolls the chunk back. */
+    private static final class LeaseLostException extends RuntimeException {
+        LeaseLostException(Run run) {
+            super("Lease on savings interest " + run.type().toLowerCase() + " run for " + run.date() + " lost");
+        }
+    }
+
+    // The oldest open run; a capitalization waits for its day's accruals
+    private Run claimNext() {
+        List<Run> claimed = jdbc.query(
+                "UPDATE savings_interest_runs r SET status = 'RUNNING', claimed_by = ?, " +
+                "claimed_until = NOW() + make_interval(secs => ?) " +
+                "WHERE (r.run_type, r.run_date) = (" +
+                "  SELECT o.run_type, o.run_date FROM savings_interest_runs o " +
+                "  WHERE o.status <> 'COMPLETED' AND (o.claimed_until IS NULL OR o.claimed_until < NOW()) " +
+                "  AND (o.run_type = 'ACCRUAL' OR EXISTS (SELECT 1 FROM savings_interest_runs p " +
+                "       WHERE p.run_type = 'ACCRUAL' AND p.run_date = o.run_date AND p.status = 'COMPLETED')) " +
+                "  ORDER BY o.run_date, o.run_type LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+                "RETURNING r.run_type, r.run_date, r.last_account_id",
+                (rs, i) -> new Run(rs.getString(1), rs.getObject(2, LocalDate.class), rs.getObject(3, UUID.class)),
+                owner, leaseSeconds);
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    private void process(Run run) {
+        long started = System.currentTimeMillis();
+        try {
+            UUID after = run.lastAccountId();
+            int accounts = 0;
+            int entries = 0;
+            List<UUID> chunk;
+            do {
+                chunk = nextAccounts(after);
+                if (chunk.isEmpty()) break;
+                List<UUID> ids = chunk;
+                entries += ACCRUAL.equals(run.type())
+                        ? transaction.execute(status -> accrueChunk(run, ids))
+                        : transaction.execute(status -> capitalizeChunk(run, ids));
+                accounts += chunk.size();
+                after = chunk.get(chunk.size() - 1);
+            } while (chunk.size() == chunkSize);
+
+            if (CAPITALIZATION.equals(run.type())) {
+                transaction.executeWithoutResult(status -> publishCapitalized(run));
+            }
+            complete(run);
+            log.info("Savings interest {} for {}: {} accounts, {} entries this run in {} ms",
+                    run.type().toLowerCase(), run.date(), accounts, entries, System.currentTimeMillis() - started);
+        } catch (LeaseLostException e) {
+            log.warn(e.getMessage());
+        } catch (RuntimeException e) {
+            // The lease is left to lapse, which spaces out retries by the lease length
+            log.error("Savings interest {} for {} stopped, will resume: {}",
+                    run.type().toLowerCase(), run.date(), e.getMessage(), e);
+        }
+    }
+
+    private List<UUID> nextAccounts(UUID after) {
+        return after == null
+                ? jdbc.queryForList("SELECT id FROM accounts WHERE account_type = 'SAVINGS' ORDER BY id LIMIT ?",
+                        UUID.class, chunkSize)
+                : jdbc.queryForList("SELECT id FROM accounts WHERE account_type = 'SAVINGS' AND id > ? ORDER BY id LIMIT ?",
+                        UUID.class, after, chunkSize);
+    }
+
+    // Renewing the lease last holds the run row until commit, as BulkCreditPoster does
+    private void advance(Run run, List<UUID> chunk, int entries) {
+        int renewed = jdbc.update("UPDATE savings_interest_runs SET last_account_id = ?, " +
+                "accounts_processed = accounts_processed + ?, entries_written = entries_written + ?, " +
+                "claimed_until = NOW() + make_interval(secs => ?) " +
+                "WHERE run_type = ? AND run_date = ? AND claimed_by = ?",
+                chunk.get(chunk.size() - 1), chunk.size(), entries, leaseSeconds, run.type(), run.date(), owner);
+        if (renewed == 0) throw new LeaseLostException(run);
+    }
+
+    private void complete(Run run) {
+        int done = jdbc.update("UPDATE savings_interest_runs SET status = 'COMPLETED', completed_at = NOW(), " +
+                "claimed_by = NULL, claimed_until = NULL WHERE run_type = ? AND run_date = ? AND claimed_by = ?",
+                run.type(), run.date(), owner);
+        if (done == 0) throw new LeaseLostException(run);
+    }
+
+    // ─── Accrual ─────────────────────────────────────────────────────────────
+
+    private int accrueChunk(Run run, List<UUID> accountIds) {
+        Timestamp dayEnd = Timestamp.valueOf(run.date().plusDays(1).atStartOfDay());
+        Date day = Date.valueOf(run.date());
+        int written = jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(ACCRUE_SQL);
+            Array ids = con.createArrayOf("uuid", accountIds.toArray());
+            ps.setDate(1, day);
+            ps.setArray(2, ids);
+            ps.setTimestamp(3, dayEnd);
+            ps.setArray(4, ids);
+            ps.setTimestamp(5, dayEnd);
+            ps.setDate(6, day);
+            ps.setInt(7, defaultDayCount);
+            return ps;
+        });
+        advance(run, accountIds, written);
+        return written;
+    }
+
+    // ─── Capitalization ──────────────────────────────────────────────────────
+
+    private record Capitalized(UUID accountId, String tenantId, BigDecimal gross, BigDecimal tax) {}
+
+    private int capitalizeChunk(Run run, List<UUID> accountIds) {
+        Date periodEnd = Date.valueOf(run.date());
+        Timestamp postedAt = Timestamp.valueOf(LocalDateTime.now());
+        String[] due = isQuarterEnd(run.date()) ? new String[]{"MONTHLY", "QUARTERLY"} : new String[]{"MONTHLY"};
+        List<Capitalized> postings = jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CAPITALIZE_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", accountIds.toArray()));
+            ps.setDate(2, periodEnd);
+            ps.setString(3, defaultFrequency);
+            ps.setArray(4, con.createArrayOf("varchar", due));
+            ps.setDate(5, periodEnd);
+            ps.setBigDecimal(6, defaultWithholdingTaxRate);
+            ps.setTimestamp(7, postedAt);
+            return ps;
+        }, (rs, i) -> new Capitalized(rs.getObject(1, UUID.class), rs.getString(2), rs.getBigDecimal(3), rs.getBigDecimal(4)));
+        if (postings.isEmpty()) {
+            advance(run, accountIds, 0);
+            return 0;
+        }
+
+        postings = new ArrayList<>(postings);
+        postings.sort(Comparator.comparing(Capitalized::accountId));
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        List<UUID> lockOrder = postings.stream().map(Capitalized::accountId).toList();
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT k.account_id, b.available_balance " +
+                    "FROM unnest(?) WITH ORDINALITY AS k(account_id, ord) " +
+                    "JOIN account_balances b ON b.account_id = k.account_id " +
+                    "ORDER BY k.ord FOR UPDATE OF b");
+            Array ids = con.createArrayOf("uuid", lockOrder.toArray());
+            ps.setArray(1, ids);
+            return ps;
+        }, rs -> {
+            balances.put(rs.getObject(1, UUID.class), rs.getBigDecimal(2));
+        });
+
+        String period = run.date().toString();
+        List<Object[]> transactions = new ArrayList<>(postings.size() * 2);
+        List<Object[]> balanceUpdates = new ArrayList<>(postings.size());
+        List<Object[]> postingUpdates = new ArrayList<>(postings.size());
+        for (Capitalized c : postings) {
+            BigDecimal credited = balances.get(c.accountId()).add(c.gross());
+            UUID creditId = UUID.randomUUID();
+            transactions.add(new Object[]{creditId, c.tenantId(), c.accountId(), "CREDIT", c.gross(), credited,
+                    "INT-" + period, "Savings interest to " + period,
+                    "interest:" + c.accountId() + ":" + period, postedAt});
+            UUID taxId = null;
+            if (c.tax().signum() > 0) {
+                taxId = UUID.randomUUID();
+                transactions.add(new Object[]{taxId, c.tenantId(), c.accountId(), "DEBIT", c.tax(),
+                        credited.subtract(c.tax()), "WHT-" + period, "Withholding tax on savings interest to " + period,
+                        "interest-tax:" + c.accountId() + ":" + period, postedAt});
+            }
+            BigDecimal net = c.gross().subtract(c.tax());
+            balanceUpdates.add(new Object[]{net, net, net, postedAt, c.accountId()});
+            postingUpdates.add(new Object[]{creditId, taxId, c.accountId(), periodEnd});
+        }
+        jdbc.batchUpdate("INSERT INTO account_transactions (id, tenant_id, account_id, transaction_type, " +
+                "amount, balance_after, reference, description, channel, idempotency_key, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'SYSTEM', ?, ?)", transactions);
+        jdbc.batchUpdate("UPDATE account_balances SET available_balance = available_balance + ?, " +
+                "current_balance = current_balance + ?, ledger_balance = ledger_balance + ?, updated_at = ? " +
+                "WHERE account_id = ?", balanceUpdates);
+        jdbc.batchUpdate("UPDATE savings_interest_postings SET credit_transaction_id = ?, tax_transaction_id = ? " +
+                "WHERE account_id = ? AND period_end = ?", postingUpdates);
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE savings_interest_accruals SET capitalized_on = ? " +
+                    "WHERE account_id = ANY(?) AND accrual_date <= ? AND capitalized_on IS NULL");
+            ps.setDate(1, periodEnd);
+            ps.setArray(2, con.createArrayOf("uuid", lockOrder.toArray()));
+            ps.setDate(3, periodEnd);
+            return ps;
+        });
+        addToTotals(periodEnd, postings);
+        advance(run, accountIds, postings.size());
+        return postings.size();
+    }
+
+    // Only postings this chunk inserted come back from CAPITALIZE_SQL, so a rerun adds nothing twice
+    private void addToTotals(Date periodEnd, List<Capitalized> postings) {
+        Map<String, Object[]> byTenant = new TreeMap<>();
+        for (Capitalized c : postings) {
+            Object[] row = byTenant.computeIfAbsent(c.tenantId(),
+                    t -> new Object[]{periodEnd, t, 0, BigDecimal.ZERO, BigDecimal.ZERO});
+            row[2] = (Integer) row[2] + 1;
+            row[3] = ((BigDecimal) row[3]).add(c.gross());
+            row[4] = ((BigDecimal) row[4]).add(c.tax());
+        }
+        jdbc.batchUpdate("INSERT INTO savings_interest_period_totals AS p " +
+                "(period_end, tenant_id, accounts, gross_amount, tax_amount) VALUES (?, ?, ?, ?, ?) " +
+                "ON CONFLICT (period_end, tenant_id) DO UPDATE SET accounts = p.accounts + EXCLUDED.accounts, " +
+                "gross_amount = p.gross_amount + EXCLUDED.gross_amount, tax_amount = p.tax_amount + EXCLUDED.tax_amount",
+                new ArrayList<>(byTenant.values()));
+    }
+
+    // Marking the run published and sending share a transaction: a failed send leaves the period
+    // unmarked for the retry, and a resumed run that finds it marked sends nothing
+    private void publishCapitalized(Run run) {
+        int marked = jdbc.update("UPDATE savings_interest_runs SET published_at = NOW() " +
+                "WHERE run_type = ? AND run_date = ? AND claimed_by = ? AND published_at IS NULL",
+                run.type(), run.date(), owner);
+        if (marked == 0) return;
+        jdbc.query("SELECT tenant_id, accounts, gross_amount, tax_amount " +
+                        "FROM savings_interest_period_totals WHERE period_end = ? ORDER BY tenant_id",
+                rs -> {
+                    eventPublisher.publishInterestCapitalized(run.date(), rs.getInt(2), rs.getBigDecimal(3),
+                            rs.getBigDecimal(4), rs.getString(1));
+                },
+                run.date());
+    }
+
+    private static boolean isMonthEnd(LocalDate date) {
+        return date.plusDays(1).getDayOfMonth() == 1;
+    }
+
+    private static boolean isQuarterEnd(LocalDate date) {
+        return isMonthEnd(date) && date.getMonthValue() % 3 == 0;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "account-service";
+        }
+    }
+}
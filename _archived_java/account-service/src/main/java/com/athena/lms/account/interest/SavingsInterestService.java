@@ -0,0 +1,204 @@
+package com.athena.lms.account.interest;
+
+import com.athena.lms.account.dto.request.SavingsInterestSettingsRequest;
+import com.athena.lms.account.dto.request.SavingsRateScheduleRequest;
+import com.athena.lms.account.dto.response.SavingsInterestSettingsResponse;
+import com.athena.lms.account.dto.response.SavingsInterestSummaryResponse;
+import com.athena.lms.account.dto.response.SavingsRateScheduleResponse;
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.SavingsInterestSettings;
+import com.athena.lms.account.entity.SavingsInterestSettings.CapitalizationFrequency;
+import com.athena.lms.account.entity.SavingsRateTier;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.SavingsInterestSettingsRepository;
+import com.athena.lms.account.repository.SavingsRateTierRepository;
+import com.athena.lms.common.exception.BusinessException;
+import com.athena.lms.common.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Savings interest terms and rate schedules, and what an account has accrued. The product
+ * catalog holds loan products only, so savings rates are kept here, per tenant and currency.
+ */
+@Service
+@Slf4j
+public class SavingsInterestService {
+
+    private final SavingsInterestSettingsRepository settingsRepository;
+    private final SavingsRateTierRepository tierRepository;
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbc;
+    private final CapitalizationFrequency defaultFrequency;
+    private final BigDecimal defaultWithholdingTaxRate;
+    private final int defaultDayCount;
+
+    public SavingsInterestService(SavingsInterestSettingsRepository settingsRepository,
+                                  SavingsRateTierRepository tierRepository,
+                                  AccountRepository accountRepository,
+                                  DataSource dataSource,
+                                  @Value("${lms.savings-interest.capitalization-frequency:MONTHLY}") CapitalizationFrequency defaultFrequency,
+                                  @Value("${lms.savings-interest.withholding-tax-rate:15.00}") BigDecimal defaultWithholdingTaxRate,
+                                  @Value("${lms.savings-interest.day-count:365}") int defaultDayCount) {
+        this.settingsRepository = settingsRepository;
+        this.tierRepository = tierRepository;
+        this.accountRepository = accountRepository;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.defaultFrequency = defaultFrequency;
+        this.defaultWithholdingTaxRate = defaultWithholdingTaxRate;
+        this.defaultDayCount = defaultDayCount;
+    }
+
+    // ─── Settings ────────────────────────────────────────────────────────────
+
+    public SavingsInterestSettingsResponse getSettings(String tenantId) {
+        return settingsRepository.findById(tenantId)
+                .map(s -> toResponse(s, true))
+                .orElseGet(() -> toResponse(defaults(tenantId), false));
+    }
+
+    @Transactional
+    public SavingsInterestSettingsResponse updateSettings(SavingsInterestSettingsRequest req, String tenantId) {
+        SavingsInterestSettings settings = settingsRepository.findById(tenantId).orElseGet(() -> defaults(tenantId));
+        if (req.getCapitalizationFrequency() != null) {
+            try {
+                settings.setCapitalizationFrequency(CapitalizationFrequency.valueOf(req.getCapitalizationFrequency().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw BusinessException.badRequest("capitalizationFrequency must be MONTHLY or QUARTERLY");
+            }
+        }
+        if (req.getWithholdingTaxRate() != null) {
+            settings.setWithholdingTaxRate(req.getWithholdingTaxRate());
+        }
+        if (req.getDayCount() != null) {
+            if (req.getDayCount() != 365 && req.getDayCount() != 360) {
+                throw BusinessException.badRequest("dayCount must be 365 or 360");
+            }
+            settings.setDayCount(req.getDayCount());
+        }
+        settings.setUpdatedAt(LocalDateTime.now());
+        settings = settingsRepository.save(settings);
+        log.info("Savings interest settings for tenant {}: {} capitalization, {}% withholding tax, {}-day year",
+                tenantId, settings.getCapitalizationFrequency(), settings.getWithholdingTaxRate(), settings.getDayCount());
+        return toResponse(settings, true);
+    }
+
+    // ─── Rate schedules ──────────────────────────────────────────────────────
+
+    public List<SavingsRateScheduleResponse> listSchedules(String tenantId, String currency) {
+        Map<LocalDate, List<SavingsRateScheduleResponse.Tier>> byDate = new LinkedHashMap<>();
+        for (SavingsRateTier tier : tierRepository.findByTenantIdAndCurrencyOrderByEffectiveFromAscMinBalanceAsc(
+                tenantId, currency.toUpperCase())) {
+            byDate.computeIfAbsent(tier.getEffectiveFrom(), d -> new ArrayList<>())
+                    .add(new SavingsRateScheduleResponse.Tier(tier.getMinBalance(), tier.getAnnualRate()));
+        }
+        List<SavingsRateScheduleResponse> schedules = new ArrayList<>(byDate.size());
+        byDate.forEach((date, tiers) -> schedules.add(SavingsRateScheduleResponse.builder()
+                .currency(currency.toUpperCase()).effectiveFrom(date).tiers(tiers).build()));
+        return schedules;
+    }
+
+    /**
+     * Sets the schedule from {@code effectiveFrom} on, dropping any set for that date or later.
+     * Days already accrued keep the rates they accrued at, so a schedule cannot start in the past.
+     */
+    @Transactional
+    public SavingsRateScheduleResponse setSchedule(SavingsRateScheduleRequest req, String tenantId) {
+        if (req.getEffectiveFrom().isBefore(LocalDate.now())) {
+            throw BusinessException.badRequest("effectiveFrom cannot be in the past");
+        }
+        String currency = req.getCurrency().toUpperCase();
+        Set<BigDecimal> seen = new HashSet<>();
+        for (SavingsRateScheduleRequest.Tier tier : req.getTiers()) {
+            if (!seen.add(tier.getMinBalance().stripTrailingZeros())) {
+                throw BusinessException.badRequest("Two tiers start at minBalance " + tier.getMinBalance());
+            }
+        }
+
+        tierRepository.deleteAll(tierRepository.findByTenantIdAndCurrencyAndEffectiveFromGreaterThanEqual(
+                tenantId, currency, req.getEffectiveFrom()));
+        tierRepository.flush();
+        LocalDateTime now = LocalDateTime.now();
+        List<SavingsRateTier> tiers = req.getTiers().stream()
+                .sorted(Comparator.comparing(SavingsRateScheduleRequest.Tier::getMinBalance))
+                .map(t -> SavingsRateTier.builder()
+                        .id(UUID.randomUUID())
+                        .tenantId(tenantId)
+                        .currency(currency)
+                        .effectiveFrom(req.getEffectiveFrom())
+                        .minBalance(t.getMinBalance())
+                        .annualRate(t.getAnnualRate())
+                        .createdAt(now)
+                        .build())
+                .toList();
+        tierRepository.saveAll(tiers);
+        log.info("Savings rate schedule for tenant {} {} from {}: {} tiers",
+                tenantId, currency, req.getEffectiveFrom(), tiers.size());
+        return SavingsRateScheduleResponse.builder()
+                .currency(currency)
+                .effectiveFrom(req.getEffectiveFrom())
+                .tiers(tiers.stream().map(t -> new SavingsRateScheduleResponse.Tier(t.getMinBalance(), t.getAnnualRate())).toList())
+                .build();
+    }
+
+    // ─── Accounts ────────────────────────────────────────────────────────────
+
+    public SavingsInterestSummaryResponse getAccountInterest(UUID accountId, String tenantId) {
+        Account account = accountRepository.findByIdAndTenantId(accountId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account", accountId));
+        if (account.getAccountType() != Account.AccountType.SAVINGS) {
+            throw BusinessException.badRequest("Account " + account.getAccountNumber() + " is not a savings account");
+        }
+        SavingsInterestSummaryResponse summary = jdbc.queryForObject(
+                "SELECT COALESCE(SUM(amount) FILTER (WHERE capitalized_on IS NULL), 0), " +
+                "MIN(accrual_date) FILTER (WHERE capitalized_on IS NULL), MAX(accrual_date), " +
+                "(ARRAY_AGG(annual_rate ORDER BY accrual_date DESC))[1] " +
+                "FROM savings_interest_accruals WHERE account_id = ?",
+                (rs, i) -> SavingsInterestSummaryResponse.builder()
+                        .accountId(accountId)
+                        .accruedInterest(rs.getBigDecimal(1))
+                        .accruedFrom(rs.getObject(2, LocalDate.class))
+                        .lastAccrualDate(rs.getObject(3, LocalDate.class))
+                        .currentAnnualRate(rs.getBigDecimal(4))
+                        .build(),
+                accountId);
+        List<SavingsInterestSummaryResponse.Posting> postings = jdbc.query(
+                "SELECT period_end, gross_amount, tax_amount, credit_transaction_id, posted_at " +
+                "FROM savings_interest_postings WHERE account_id = ? ORDER BY period_end DESC LIMIT 12",
+                (rs, i) -> new SavingsInterestSummaryResponse.Posting(rs.getObject(1, LocalDate.class),
+                        rs.getBigDecimal(2), rs.getBigDecimal(3), rs.getBigDecimal(2).subtract(rs.getBigDecimal(3)),
+                        rs.getObject(4, UUID.class), rs.getTimestamp(5).toLocalDateTime()),
+                accountId);
+        summary.setPostings(postings);
+        return summary;
+    }
+
+    private SavingsInterestSettings defaults(String tenantId) {
+        return SavingsInterestSettings.builder()
+                .tenantId(tenantId)
+                .capitalizationFrequency(defaultFrequency)
+                .withholdingTaxRate(defaultWithholdingTaxRate)
+                .dayCount(defaultDayCount)
+                .build();
+    }
+
+    private static SavingsInterestSettingsResponse toResponse(SavingsInterestSettings s, boolean configured) {
+        return SavingsInterestSettingsResponse.builder()
+                .tenantId(s.getTenantId())
+                .capitalizationFrequency(s.getCapitalizationFrequency().name())
+                .withholdingTaxRate(s.getWithholdingTaxRate())
+                .dayCount(s.getDayCount())
+                .configured(configured)
+                .updatedAt(s.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.athena.lms.account.listener;
+
+import com.athena.lms.account.search.SearchIndexService;
+import com.athena.lms.common.event.EventTypes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Receives customer and account changes on this replica's own queue (see RabbitMQConfig) and
+ * hands them to the search indexes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchIndexListener {
+
+    private final SearchIndexService searchIndexService;
+
+    @RabbitListener(queues = "#{accountSearchIndexQueue.name}")
+    public void onEvent(Map<String, Object> message) {
+        try {
+            Object type = message.get("type");
+            if (!(message.get("payload") instanceof Map<?, ?> payload)) {
+                log.debug("Search index event {} has no payload, ignoring", message.get("id"));
+                return;
+            }
+            if (EventTypes.CUSTOMER_CREATED.equals(type) || EventTypes.CUSTOMER_UPDATED.equals(type)) {
+                searchIndexService.customerChanged(UUID.fromString(String.valueOf(payload.get("id"))));
+            } else if (EventTypes.ACCOUNT_CREATED.equals(type)) {
+                searchIndexService.accountChanged(UUID.fromString(String.valueOf(payload.get("accountId"))));
+            }
+        } catch (Exception e) {
+            log.error("Failed to index search event {}: {}", message.get("id"), e.getMessage(), e);
+        }
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,6 +16,8 @@ public interface AccountBalanceRepository extends JpaRepository<AccountBalance,
 
     Optional<AccountBalance> findByAccountId(UUID accountId);
 
+    List<AccountBalance> findByAccountIdIn(Collection<UUID> accountIds);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT b FROM AccountBalance b WHERE b.accountId = :accountId")
     Optional<AccountBalance> findByAccountIdForUpdate(@Param("accountId") UUID accountId);
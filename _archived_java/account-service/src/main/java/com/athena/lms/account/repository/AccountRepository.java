@@ -4,9 +4,11 @@ import com.athena.lms.account.entity.Account;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +21,10 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
 
     List<Account> findByCustomerIdAndTenantId(String customerId, String tenantId);
 
+    List<Account> findByTenantIdAndIdIn(String tenantId, Collection<UUID> ids);
+
+    List<Account> findByTenantIdAndAccountNumberIn(String tenantId, Collection<String> accountNumbers);
+
     Page<Account> findByTenantId(String tenantId, Pageable pageable);
 
     @Query(value = """
@@ -26,7 +32,14 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
         WHERE tenant_id = :tenantId
           AND (account_number ILIKE '%' || :q || '%'
                OR account_name ILIKE '%' || :q || '%')
-        LIMIT 20
+        ORDER BY created_at DESC
+        LIMIT :limit OFFSET :offset
         """, nativeQuery = true)
-    List<Account> searchByTenantAndQuery(@Param("tenantId") String tenantId, @Param("q") String q);
+    List<Account> searchByTenantAndQuery(@Param("tenantId") String tenantId, @Param("q") String q,
+                                         @Param("limit") int limit, @Param("offset") int offset);
+
+    /** Starts a fresh inactivity period, for an account an officer has reactivated by hand. */
+    @Modifying
+    @Query(value = "UPDATE accounts SET last_customer_activity_at = NOW() WHERE id = :id", nativeQuery = true)
+    int restartActivityClock(@Param("id") UUID id);
 }
@@ -0,0 +1,23 @@
+package com.athena.lms.account.repository;
+
+import com.athena.lms.account.entity.BulkCreditBatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BulkCreditBatchRepository extends JpaRepository<BulkCreditBatch, UUID> {
+
+    Optional<BulkCreditBatch> findByIdAndTenantId(UUID id, String tenantId);
+
+    Page<BulkCreditBatch> findByTenantId(String tenantId, Pageable pageable);
+
+    Optional<BulkCreditBatch> findFirstByTenantIdAndFileSha256AndStatusNot(String tenantId, String fileSha256,
+                                                                           BulkCreditBatch.BatchStatus status);
+
+    default Optional<BulkCreditBatch> findAccepted(String tenantId, String sha256) {
+        return findFirstByTenantIdAndFileSha256AndStatusNot(tenantId, sha256, BulkCreditBatch.BatchStatus.REJECTED);
+    }
+}
@@ -0,0 +1,18 @@
+package com.athena.lms.account.repository;
+
+import com.athena.lms.account.entity.BulkCreditLine;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface BulkCreditLineRepository extends JpaRepository<BulkCreditLine, BulkCreditLine.Key> {
+
+    Page<BulkCreditLine> findByBatchId(UUID batchId, Pageable pageable);
+
+    Page<BulkCreditLine> findByBatchIdAndStatus(UUID batchId, BulkCreditLine.LineStatus status, Pageable pageable);
+
+    List<BulkCreditLine> findTop100ByBatchIdAndStatusOrderByLineNo(UUID batchId, BulkCreditLine.LineStatus status);
+}
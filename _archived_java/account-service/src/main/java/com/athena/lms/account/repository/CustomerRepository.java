@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,6 +22,8 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
 
     boolean existsByCustomerIdAndTenantId(String customerId, String tenantId);
 
+    List<Customer> findByTenantIdAndCustomerIdIn(String tenantId, Collection<String> customerIds);
+
     @Query(value = """
         SELECT * FROM customers
         WHERE tenant_id = :tenantId
@@ -28,7 +31,9 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
                OR phone ILIKE '%' || :q || '%'
                OR email ILIKE '%' || :q || '%'
                OR customer_id ILIKE '%' || :q || '%')
-        LIMIT 20
+        ORDER BY created_at DESC
+        LIMIT :limit OFFSET :offset
         """, nativeQuery = true)
-    List<Customer> searchByTenantAndQuery(@Param("tenantId") String tenantId, @Param("q") String q);
+    List<Customer> searchByTenantAndQuery(@Param("tenantId") String tenantId, @Param("q") String q,
+                                          @Param("limit") int limit, @Param("offset") int offset);
 }
@@ -0,0 +1,16 @@
+package com.athena.lms.account.repository;
+
+import com.athena.lms.account.entity.OnboardingImport;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OnboardingImportRepository extends JpaRepository<OnboardingImport, UUID> {
+
+    Optional<OnboardingImport> findByIdAndTenantId(UUID id, String tenantId);
+
+    Page<OnboardingImport> findByTenantId(String tenantId, Pageable pageable);
+}
@@ -0,0 +1,7 @@
+package com.athena.lms.account.repository;
+
+import com.athena.lms.account.entity.SavingsInterestSettings;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SavingsInterestSettingsRepository extends JpaRepository<SavingsInterestSettings, String> {
+}
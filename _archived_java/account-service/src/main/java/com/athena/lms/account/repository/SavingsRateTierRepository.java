@@ -0,0 +1,16 @@
+package com.athena.lms.account.repository;
+
+import com.athena.lms.account.entity.SavingsRateTier;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface SavingsRateTierRepository extends JpaRepository<SavingsRateTier, UUID> {
+
+    List<SavingsRateTier> findByTenantIdAndCurrencyOrderByEffectiveFromAscMinBalanceAsc(String tenantId, String currency);
+
+    List<SavingsRateTier> findByTenantIdAndCurrencyAndEffectiveFromGreaterThanEqual(
+            String tenantId, String currency, LocalDate effectiveFrom);
+}
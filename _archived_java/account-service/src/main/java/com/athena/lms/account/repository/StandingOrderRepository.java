@@ -0,0 +1,27 @@
+package com.athena.lms.account.repository;
+
+import com.athena.lms.account.entity.StandingOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StandingOrderRepository extends JpaRepository<StandingOrder, UUID> {
+
+    Optional<StandingOrder> findByIdAndTenantId(UUID id, String tenantId);
+
+    Page<StandingOrder> findByTenantId(String tenantId, Pageable pageable);
+
+    @Query("""
+        SELECT o FROM StandingOrder o
+        WHERE o.tenantId = :tenantId
+          AND (o.sourceAccountId = :accountId OR o.destinationAccountId = :accountId)
+        """)
+    Page<StandingOrder> findByAccountId(@Param("tenantId") String tenantId,
+                                        @Param("accountId") UUID accountId,
+                                        Pageable pageable);
+}
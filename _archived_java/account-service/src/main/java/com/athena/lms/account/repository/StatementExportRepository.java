@@ -0,0 +1,15 @@
+package com.athena.lms.account.repository;
+
+import com.athena.lms.account.entity.StatementExport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StatementExportRepository extends JpaRepository<StatementExport, UUID> {
+
+    Optional<StatementExport> findByIdAndAccountIdAndTenantId(UUID id, UUID accountId, String tenantId);
+
+    List<StatementExport> findTop20ByAccountIdAndTenantIdOrderByCreatedAtDesc(UUID accountId, String tenantId);
+}
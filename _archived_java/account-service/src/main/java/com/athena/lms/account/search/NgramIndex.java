@@ -0,0 +1,417 @@
+package com.athena.lms.account.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over one tenant's customers or accounts.
+ *
+ * Each document is the folded text of a fixed list of fields, kept in one byte arena. Every
+ * token contributes its inner trigrams and a padded trigram for its first two characters, so a
+ * query token of three or more characters matches anywhere inside a word and a two-character
+ * one matches word starts. Name fields also post a sound key per token, used for query tokens
+ * whose spelling alone is rare. A query is answered from the postings of its most selective
+ * token, then every candidate is checked and scored against its stored text: exact token,
+ * prefix, infix, then sound-alike, plus the field's weight and a bonus when a whole field
+ * equals the query.
+ *
+ * Documents are append-only: changing one appends a new version and tombstones the old, and
+ * the index compacts itself once a quarter of it is dead. Document order is insertion order,
+ * which ranks newer documents first among equal scores. Reads share a lock; writes are brief
+ * and exclusive.
+ */
+final class NgramIndex {
+
+    /** A field of the indexed documents, in document order. */
+    record Field(String name, int weight, boolean phonetic) {}
+
+    /** One page of ranked matches. {@code exhaustive} is false when only the newest candidates were scored. */
+    record Hits(List<UUID> ids, int total, boolean exhaustive) {
+        static final Hits NONE = new Hits(List.of(), 0, true);
+    }
+
+    static final int EXACT = 100;
+    static final int PREFIX = 70;
+    static final int INFIX = 40;
+    static final int PHONETIC = 25;
+    static final int WHOLE_FIELD = 50;
+
+    // Intersect further query tokens' postings only while the candidate list is longer than this
+    private static final int NARROW_BELOW = 512;
+
+    private final Field[] fields;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private byte[] arena = new byte[1 << 12];
+    private int arenaLength;
+    private int[] starts = new int[257];
+    private long[] idHigh = new long[256];
+    private long[] idLow = new long[256];
+    private int docs;
+    private BitSet dead = new BitSet();
+    private int deadCount;
+
+    private Postings[] trigrams = new Postings[SearchText.TRIGRAM_SPACE];
+    private Map<Long, Postings> sounds = new HashMap<>();
+
+    // Open addressing from document id to its live document number
+    private int[] slots = emptySlots(1 << 10);
+
+    NgramIndex(Field... fields) {
+        this.fields = fields;
+    }
+
+    // ─── Writes ──────────────────────────────────────────────────────────────
+
+    /** Indexes the current values of a document, replacing any earlier version. */
+    void put(UUID id, String... values) {
+        write(id, SearchText.document(values), true);
+    }
+
+    /** Indexes a document unless a version of it is already present (startup load racing with events). */
+    void putIfAbsent(UUID id, String... values) {
+        write(id, SearchText.document(values), false);
+    }
+
+    private void write(UUID id, byte[] text, boolean replace) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            int existing = slots[slot];
+            if (existing >= 0) {
+                if (!replace || sameText(existing, text)) return;
+                dead.set(existing);
+                deadCount++;
+            }
+            slots[slot] = append(id.getMostSignificantBits(), id.getLeastSignificantBits(), text);
+            if (existing < 0 && docs - deadCount > slots.length * 6 / 10) rehash(slots.length * 2);
+            if (deadCount > 1024 && deadCount > docs / 4) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int append(long high, long low, byte[] text) {
+        int doc = docs;
+        if (doc + 1 >= idHigh.length) {
+            int capacity = idHigh.length + (idHigh.length >> 1);
+            idHigh = Arrays.copyOf(idHigh, capacity);
+            idLow = Arrays.copyOf(idLow, capacity);
+            starts = Arrays.copyOf(starts, capacity + 1);
+        }
+        if (arenaLength + text.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arenaLength + text.length, arena.length + (arena.length >> 1)));
+        }
+        System.arraycopy(text, 0, arena, arenaLength, text.length);
+        int start = arenaLength;
+        arenaLength += text.length;
+        idHigh[doc] = high;
+        idLow[doc] = low;
+        starts[doc] = start;
+        starts[doc + 1] = arenaLength;
+        docs++;
+
+        int field = 0;
+        int token = start;
+        for (int i = start; i <= arenaLength; i++) {
+            if (i < arenaLength && !SearchText.isSeparator(arena[i])) continue;
+            if (i - token >= 2) post(doc, token, i, fields[field].phonetic());
+            if (i < arenaLength && arena[i] == SearchText.FIELD_SEPARATOR) field++;
+            token = i + 1;
+        }
+        return doc;
+    }
+
+    private void post(int doc, int from, int to, boolean phonetic) {
+        postings(SearchText.leadingTrigram(arena, from)).add(doc);
+        for (int i = from; i + 3 <= to; i++) {
+            postings(SearchText.trigram(arena[i], arena[i + 1], arena[i + 2])).add(doc);
+        }
+        if (phonetic) {
+            long key = SearchText.phonetic(arena, from, to);
+            if (key != 0) sounds.computeIfAbsent(key, k -> new Postings()).add(doc);
+        }
+    }
+
+    private Postings postings(int trigram) {
+        Postings postings = trigrams[trigram];
+        if (postings == null) trigrams[trigram] = postings = new Postings();
+        return postings;
+    }
+
+    private boolean sameText(int doc, byte[] text) {
+        return Arrays.equals(arena, starts[doc], starts[doc + 1], text, 0, text.length);
+    }
+
+    // Rebuilds the arena and postings from the live documents, in their current order
+    private void compact() {
+        byte[] oldArena = arena;
+        int[] oldStarts = starts;
+        long[] oldHigh = idHigh;
+        long[] oldLow = idLow;
+        int oldDocs = docs;
+        BitSet oldDead = dead;
+        int live = oldDocs - deadCount;
+
+        arena = new byte[Math.max(1 << 12, arenaLength - (arenaLength / Math.max(1, oldDocs)) * deadCount)];
+        arenaLength = 0;
+        starts = new int[live + 257];
+        idHigh = new long[live + 256];
+        idLow = new long[live + 256];
+        docs = 0;
+        dead = new BitSet();
+        deadCount = 0;
+        trigrams = new Postings[SearchText.TRIGRAM_SPACE];
+        sounds = new HashMap<>();
+        slots = emptySlots(slotCapacity(live));
+
+        for (int doc = 0; doc < oldDocs; doc++) {
+            if (oldDead.get(doc)) continue;
+            byte[] text = Arrays.copyOfRange(oldArena, oldStarts[doc], oldStarts[doc + 1]);
+            int moved = append(oldHigh[doc], oldLow[doc], text);
+            slots[slotOf(oldHigh[doc], oldLow[doc])] = moved;
+        }
+    }
+
+    // ─── Id lookup ───────────────────────────────────────────────────────────
+
+    private static int[] emptySlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    private static int slotCapacity(int entries) {
+        int capacity = 1 << 10;
+        while (entries > capacity * 6 / 10) capacity <<= 1;
+        return capacity;
+    }
+
+    // The slot holding the id, or the empty slot where it belongs
+    private int slotOf(long high, long low) {
+        int mask = slots.length - 1;
+        long h = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h >>> 32) & mask;
+        while (true) {
+            int doc = slots[slot];
+            if (doc < 0 || (idHigh[doc] == high && idLow[doc] == low)) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] old = slots;
+        slots = emptySlots(capacity);
+        for (int doc : old) {
+            if (doc >= 0) slots[slotOf(idHigh[doc], idLow[doc])] = doc;
+        }
+    }
+
+    // ─── Queries ─────────────────────────────────────────────────────────────
+
+    /**
+     * Ranked matches for {@code query}: every token of the query must match some token of the
+     * document. Tokens shorter than two characters are ignored. At most {@code maxCandidates}
+     * documents, the newest first, are scored.
+     */
+    Hits search(String query, int offset, int limit, int maxCandidates) {
+        byte[] folded = SearchText.normalize(query);
+        List<QueryToken> tokens = tokenize(folded);
+        if (tokens.isEmpty() || limit <= 0) return Hits.NONE;
+
+        lock.readLock().lock();
+        try {
+            for (QueryToken token : tokens) estimate(token, maxCandidates);
+            tokens.sort((a, b) -> Integer.compare(a.estimate, b.estimate));
+            if (tokens.get(0).estimate == 0) return Hits.NONE;
+
+            int[] candidates = candidates(tokens.get(0));
+            for (int i = 1; i < tokens.size() && candidates.length > NARROW_BELOW; i++) {
+                candidates = Postings.intersect(candidates, candidates(tokens.get(i)));
+            }
+
+            long[] ranked = new long[Math.min(candidates.length, maxCandidates)];
+            int matched = 0;
+            int scored = 0;
+            int i = candidates.length - 1;
+            for (; i >= 0 && scored < maxCandidates; i--) {
+                int doc = candidates[i];
+                if (dead.get(doc)) continue;
+                scored++;
+                int score = score(doc, tokens, folded);
+                // Higher score first, then the newer document
+                if (score > 0) ranked[matched++] = ((long) score << 32) | doc;
+            }
+            Arrays.sort(ranked, 0, matched);
+
+            List<UUID> page = new ArrayList<>(Math.min(limit, Math.max(0, matched - offset)));
+            for (int r = matched - 1 - offset; r >= 0 && page.size() < limit; r--) {
+                int doc = (int) ranked[r];
+                page.add(new UUID(idHigh[doc], idLow[doc]));
+            }
+            return new Hits(page, matched, i < 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docs - deadCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Approximate heap held by the index, for the load log. */
+    long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = arena.length + starts.length * 4L + idHigh.length * 16L + slots.length * 4L;
+            for (Postings postings : trigrams) {
+                if (postings != null) bytes += postings.bytes() + 32;
+            }
+            for (Postings postings : sounds.values()) bytes += postings.bytes() + 80;
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<QueryToken> tokenize(byte[] folded) {
+        List<QueryToken> tokens = new ArrayList<>();
+        int from = 0;
+        for (int i = 0; i <= folded.length; i++) {
+            if (i < folded.length && folded[i] != SearchText.SPACE) continue;
+            if (i - from >= 2) {
+                byte[] bytes = Arrays.copyOfRange(folded, from, i);
+                if (tokens.stream().noneMatch(t -> Arrays.equals(t.bytes, bytes))) {
+                    tokens.add(new QueryToken(bytes, SearchText.phonetic(bytes, 0, bytes.length)));
+                }
+            }
+            from = i + 1;
+        }
+        return tokens;
+    }
+
+    // Sound-alikes only widen tokens whose spelling is rare enough to rank them usefully
+    private void estimate(QueryToken token, int maxCandidates) {
+        int textual = Integer.MAX_VALUE;
+        for (int trigram : token.trigrams()) {
+            Postings postings = trigrams[trigram];
+            textual = Math.min(textual, postings == null ? 0 : postings.count());
+        }
+        Postings sound = token.sound != 0 && textual < maxCandidates ? sounds.get(token.sound) : null;
+        token.sounds = sound;
+        token.estimate = textual + (sound == null ? 0 : sound.count());
+    }
+
+    // Documents that may contain the token: its rarest trigrams intersected, plus its sound-alikes
+    private int[] candidates(QueryToken token) {
+        int[] codes = token.trigrams();
+        Postings[] lists = new Postings[codes.length];
+        boolean textual = true;
+        for (int i = 0; i < codes.length; i++) {
+            lists[i] = trigrams[codes[i]];
+            if (lists[i] == null) textual = false;
+        }
+        int[] docs = new int[0];
+        if (textual) {
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.count(), b.count()));
+            docs = lists[0].toArray();
+            // The trigrams of one word are correlated; stop once another list barely narrows it
+            for (int i = 1; i < lists.length && docs.length > NARROW_BELOW; i++) {
+                int before = docs.length;
+                docs = Postings.intersect(docs, lists[i].toArray());
+                if (docs.length > before - before / 10) break;
+            }
+        }
+        return token.sounds == null ? docs : Postings.union(docs, token.sounds.toArray());
+    }
+
+    private int score(int doc, List<QueryToken> tokens, byte[] query) {
+        int start = starts[doc];
+        int end = starts[doc + 1];
+        int[] best = new int[tokens.size()];
+        int bonus = 0;
+        int field = 0;
+        int fieldStart = start;
+        int token = start;
+        for (int i = start; i <= end; i++) {
+            boolean fieldEnd = i == end || arena[i] == SearchText.FIELD_SEPARATOR;
+            if (!fieldEnd && arena[i] != SearchText.SPACE) continue;
+            if (i > token) {
+                Field spec = fields[field];
+                long sound = 0;
+                for (int t = 0; t < best.length; t++) {
+                    QueryToken q = tokens.get(t);
+                    int match = match(token, i, q.bytes);
+                    if (match == 0 && spec.phonetic() && q.sounds != null) {
+                        if (sound == 0) sound = SearchText.phonetic(arena, token, i);
+                        if (sound == q.sound) match = PHONETIC;
+                    }
+                    if (match > 0) best[t] = Math.max(best[t], match + spec.weight());
+                }
+            }
+            if (fieldEnd) {
+                if (Arrays.equals(arena, fieldStart, i, query, 0, query.length)) bonus = WHOLE_FIELD;
+                field++;
+                fieldStart = i + 1;
+            }
+            token = i + 1;
+        }
+        int score = bonus;
+        for (int match : best) {
+            if (match == 0) return 0;
+            score += match;
+        }
+        return score;
+    }
+
+    private int match(int from, int to, byte[] q) {
+        int length = to - from;
+        if (q.length > length) return 0;
+        if (Arrays.equals(arena, from, from + q.length, q, 0, q.length)) {
+            return q.length == length ? EXACT : PREFIX;
+        }
+        if (q.length < 3) return 0;
+        outer:
+        for (int i = from + 1; i + q.length <= to; i++) {
+            for (int j = 0; j < q.length; j++) {
+                if (arena[i + j] != q[j]) continue outer;
+            }
+            return INFIX;
+        }
+        return 0;
+    }
+
+    private static final class QueryToken {
+
+        final byte[] bytes;
+        final long sound;
+        Postings sounds;
+        int estimate;
+
+        QueryToken(byte[] bytes, long sound) {
+            this.bytes = bytes;
+            this.sound = sound;
+        }
+
+        // Two characters can only be looked up as a word start; longer tokens by their inner trigrams
+        int[] trigrams() {
+            if (bytes.length == 2) return new int[]{SearchText.leadingTrigram(bytes, 0)};
+            int[] codes = new int[bytes.length - 2];
+            for (int i = 0; i + 3 <= bytes.length; i++) {
+                codes[i] = SearchText.trigram(bytes[i], bytes[i + 1], bytes[i + 2]);
+            }
+            return codes;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.athena.lms.account.search;
+
+import java.util.Arrays;
+
+/**
+ * The documents containing one trigram (or sound key), in increasing document order. Stored as
+ * variable-length deltas, so a posting for a common trigram costs about a byte. Not
+ * thread-safe: the owning index guards it.
+ */
+final class Postings {
+
+    private static final int[] NONE = new int[0];
+
+    private byte[] data = new byte[4];
+    private int length;
+    private int count;
+    private int last = -1;
+
+    /** Appends a document; documents arrive in increasing order and repeats are ignored. */
+    void add(int doc) {
+        if (doc == last) return;
+        int delta = doc - last;
+        if (length + 5 > data.length) data = Arrays.copyOf(data, Math.max(length + 5, data.length + (data.length >> 1)));
+        while ((delta & ~0x7f) != 0) {
+            data[length++] = (byte) ((delta & 0x7f) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+        last = doc;
+        count++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long bytes() {
+        return data.length;
+    }
+
+    int[] toArray() {
+        if (count == 0) return NONE;
+        int[] docs = new int[count];
+        int doc = -1;
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                delta |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+            docs[i] = doc;
+        }
+        return docs;
+    }
+
+    // ─── Sorted document arrays ──────────────────────────────────────────────
+
+    static int[] intersect(int[] a, int[] b) {
+        if (a.length > b.length) return intersect(b, a);
+        int[] out = new int[a.length];
+        int n = 0;
+        // Gallop through the longer list when the lengths are far apart
+        if (b.length > a.length * 16) {
+            int from = 0;
+            for (int doc : a) {
+                int at = Arrays.binarySearch(b, from, b.length, doc);
+                if (at >= 0) {
+                    out[n++] = doc;
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+                if (from == b.length) break;
+            }
+        } else {
+            int i = 0, j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else { out[n++] = a[i]; i++; j++; }
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    static int[] union(int[] a, int[] b) {
+        if (a.length == 0) return b;
+        if (b.length == 0) return a;
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) out[n++] = a[i++];
+            else if (a[i] > b[j]) out[n++] = b[j++];
+            else { out[n++] = a[i++]; j++; }
+        }
+        while (i < a.length) out[n++] = a[i++];
+        while (j < b.length) out[n++] = b[j++];
+        return Arrays.copyOf(out, n);
+    }
+}
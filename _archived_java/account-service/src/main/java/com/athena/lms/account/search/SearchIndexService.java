@@ -0,0 +1,203 @@
+package com.athena.lms.account.search;
+
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.Customer;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Customer and account search from per-tenant in-memory indexes (see {@link NgramIndex}).
+ *
+ * The indexes are loaded once at startup and then kept current from customer.created,
+ * customer.updated and account.created, which every replica receives on its own queue. Until
+ * the load completes, or when disabled with lms.search.enabled=false, searches return empty
+ * and callers use the trigram-indexed database query instead. Events are published before
+ * their transaction commits, so each changed row is read again until its committed version is
+ * visible.
+ */
+@Service
+@Slf4j
+public class SearchIndexService {
+
+    private static final NgramIndex.Field[] CUSTOMER_FIELDS = {
+            new NgramIndex.Field("name", 5, true),
+            new NgramIndex.Field("customerId", 10, false),
+            new NgramIndex.Field("phone", 10, false),
+            new NgramIndex.Field("email", 0, false)};
+
+    private static final NgramIndex.Field[] ACCOUNT_FIELDS = {
+            new NgramIndex.Field("accountNumber", 10, false),
+            new NgramIndex.Field("accountName", 5, true),
+            new NgramIndex.Field("customerId", 10, false)};
+
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int REFRESH_ATTEMPTS = 5;
+
+    private final CustomerRepository customerRepository;
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final Map<String, NgramIndex> customers = new ConcurrentHashMap<>();
+    private final Map<String, NgramIndex> accounts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "search-index-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean ready;
+
+    public SearchIndexService(CustomerRepository customerRepository,
+                              AccountRepository accountRepository,
+                              DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${lms.search.enabled:true}") boolean enabled,
+                              @Value("${lms.search.max-candidates:5000}") int maxCandidates) {
+        this.customerRepository = customerRepository;
+        this.accountRepository = accountRepository;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(10_000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("In-memory search disabled, searches use the database");
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            // Rows changed while this runs arrive as events; those win over the snapshot
+            readOnlyTransaction.executeWithoutResult(status -> {
+                jdbc.query("SELECT id, tenant_id, first_name, last_name, customer_id, phone, email " +
+                                "FROM customers ORDER BY created_at",
+                        rs -> {
+                            customerIndex(rs.getString(2)).putIfAbsent(rs.getObject(1, UUID.class),
+                                    name(rs.getString(3), rs.getString(4)), rs.getString(5),
+                                    rs.getString(6), rs.getString(7));
+                        });
+                jdbc.query("SELECT id, tenant_id, account_number, account_name, customer_id " +
+                                "FROM accounts ORDER BY created_at",
+                        rs -> {
+                            accountIndex(rs.getString(2)).putIfAbsent(rs.getObject(1, UUID.class),
+                                    rs.getString(3), rs.getString(4), rs.getString(5));
+                        });
+            });
+            ready = true;
+            log.info("Search indexes loaded: {} customers, {} accounts in {} tenant(s), ~{} MiB in {} ms",
+                    count(customers), count(accounts), customers.size(),
+                    (bytes(customers) + bytes(accounts)) / (1024 * 1024), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Could not load search indexes, searches will use the database: {}", e.getMessage(), e);
+        }
+    }
+
+    // ─── Queries ─────────────────────────────────────────────────────────────
+
+    /**
+     * Ids of the page of ranked customer matches, or empty when the caller should query the
+     * database. {@code size} is at most {@link #MAX_PAGE_SIZE}.
+     */
+    public Optional<List<UUID>> searchCustomers(String tenantId, String q, int page, int size) {
+        return search(customers, tenantId, q, page, size);
+    }
+
+    /** Ids of the page of ranked account matches, or empty when the caller should query the database. */
+    public Optional<List<UUID>> searchAccounts(String tenantId, String q, int page, int size) {
+        return search(accounts, tenantId, q, page, size);
+    }
+
+    private Optional<List<UUID>> search(Map<String, NgramIndex> indexes, String tenantId, String q,
+                                        int page, int size) {
+        if (!ready) return Optional.empty();
+        NgramIndex index = indexes.get(tenantId);
+        if (index == null) return Optional.of(List.of());
+        NgramIndex.Hits hits = index.search(q, page * size, size, maxCandidates);
+        if (!hits.exhaustive()) {
+            log.debug("Search in tenant {} matched more than {} candidates, ranked the newest", tenantId, maxCandidates);
+        }
+        return Optional.of(hits.ids());
+    }
+
+    // ─── Updates ─────────────────────────────────────────────────────────────
+
+    /** Re-reads a customer and indexes its current values. */
+    public void customerChanged(UUID id) {
+        refresh(id, customerRepository::findById, this::index, 1);
+    }
+
+    /** Re-reads an account and indexes its current values. */
+    public void accountChanged(UUID id) {
+        refresh(id, accountRepository::findById, this::index, 1);
+    }
+
+    // The event may be read before its transaction commits: a missing row is retried, and a
+    // row found at once is read again shortly after in case that read saw the previous version
+    private <T> void refresh(UUID id, Function<UUID, Optional<T>> finder,
+                             Consumer<T> indexer, int attempt) {
+        if (!enabled) return;
+        Optional<T> row = finder.apply(id);
+        row.ifPresent(indexer);
+        if ((row.isEmpty() || attempt == 1) && attempt < REFRESH_ATTEMPTS) {
+            retries.schedule(() -> refresh(id, finder, indexer, attempt + 1), 250L * attempt, TimeUnit.MILLISECONDS);
+        } else if (row.isEmpty()) {
+            log.warn("Row {} never became visible, not indexed", id);
+        }
+    }
+
+    private void index(Customer customer) {
+        customerIndex(customer.getTenantId()).put(customer.getId(),
+                name(customer.getFirstName(), customer.getLastName()), customer.getCustomerId(),
+                customer.getPhone(), customer.getEmail());
+    }
+
+    private void index(Account account) {
+        accountIndex(account.getTenantId()).put(account.getId(),
+                account.getAccountNumber(), account.getAccountName(), account.getCustomerId());
+    }
+
+    private NgramIndex customerIndex(String tenantId) {
+        return customers.computeIfAbsent(tenantId, t -> new NgramIndex(CUSTOMER_FIELDS));
+    }
+
+    private NgramIndex accountIndex(String tenantId) {
+        return accounts.computeIfAbsent(tenantId, t -> new NgramIndex(ACCOUNT_FIELDS));
+    }
+
+    private static String name(String first, String last) {
+        return (first == null ? "" : first) + ' ' + (last == null ? "" : last);
+    }
+
+    private static long count(Map<String, NgramIndex> indexes) {
+        return indexes.values().stream().mapToLong(NgramIndex::size).sum();
+    }
+
+    private static long bytes(Map<String, NgramIndex> indexes) {
+        return indexes.values().stream().mapToLong(NgramIndex::memoryBytes).sum();
+    }
+}
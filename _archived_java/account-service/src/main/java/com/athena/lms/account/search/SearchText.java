@@ -0,0 +1,114 @@
+package com.athena.lms.account.search;
+
+import java.io.ByteArrayOutputStream;
+import java.text.Normalizer;
+
+/**
+ * Text handling shared by indexing and querying, so both sides agree on what a token is.
+ * Text is folded to lower-case ASCII letters and digits, one byte per character; everything
+ * else (punctuation, accents, the '+' of a phone number, the '@' of an email) separates tokens.
+ */
+final class SearchText {
+
+    /** Separates the fields of a document in the index's text arena. */
+    static final byte FIELD_SEPARATOR = 1;
+    static final byte SPACE = ' ';
+
+    /** Letters, digits and the pad that marks the start of a token. */
+    static final int TRIGRAM_SPACE = 37 * 37 * 37;
+
+    // Soundex-style classes: 0 separates repeats, -1 is transparent (h, w, y between sounds)
+    private static final int[] SOUND = {
+            0, 1, 2, 3, 0, 1, 2, -1, 0, 2, 2, 4, 5, 5, 0, 1, 2, 6, 2, 3, 0, 1, -1, 2, -1, 2};
+    // Initials that are spelling variants of each other: vowels, c/k/q, f/p, s/x/z, v/w
+    private static final String INITIAL = "abkdafghajklmnafkrstavvsys";
+    private static final int MAX_SOUNDS = 15;
+
+    private SearchText() {}
+
+    /** Folded bytes of {@code text}: tokens separated by single spaces, no leading or trailing space. */
+    static byte[] normalize(String text) {
+        if (text == null || text.isEmpty()) return new byte[0];
+        String folded = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7f) {
+                folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (c >= 'A' && c <= 'Z') c = (char) (c + ('a' - 'A'));
+            boolean word = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+            if (word) {
+                if (pendingSpace && out.size() > 0) out.write(SPACE);
+                pendingSpace = false;
+                out.write(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                pendingSpace = true;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /** The fields' folded text joined by {@link #FIELD_SEPARATOR}. */
+    static byte[] document(String... fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.write(FIELD_SEPARATOR);
+            out.writeBytes(normalize(fields[i]));
+        }
+        return out.toByteArray();
+    }
+
+    static boolean isSeparator(byte b) {
+        return b == SPACE || b == FIELD_SEPARATOR;
+    }
+
+    static int trigram(int a, int b, int c) {
+        return (symbol(a) * 37 + symbol(b)) * 37 + symbol(c);
+    }
+
+    /** The trigram of a token's first two characters, padded: what a two-character prefix query looks up. */
+    static int leadingTrigram(byte[] text, int from) {
+        return trigram(SPACE, text[from], text[from + 1]);
+    }
+
+    private static int symbol(int b) {
+        if (b == SPACE) return 0;
+        if (b <= '9') return 1 + (b - '0');
+        return 11 + (b - 'a');
+    }
+
+    /**
+     * A sound key for the letters in [from, to), equal for common spelling variants of a name
+     * (Mohamed, Mohammed, Muhamed; Otieno, Otiyeno; Wanjiku, Wanjiko; Catherine, Katherine).
+     * The initial is kept up to spelling-equivalent letters, the remaining consonants map to
+     * Soundex classes, and repeats collapse unless a vowel separates them. Zero for tokens
+     * shorter than three characters or containing digits, which get no phonetic matching.
+     */
+    static long phonetic(byte[] text, int from, int to) {
+        if (to - from < 3) return 0;
+        long sounds = 0;
+        int count = 0;
+        int last = 0;
+        for (int i = from; i < to; i++) {
+            int b = text[i];
+            if (b < 'a' || b > 'z') return 0;
+            int sound = SOUND[b - 'a'];
+            if (i == from) {
+                last = Math.max(sound, 0);
+            } else if (sound == 0) {
+                last = 0;
+            } else if (sound > 0 && sound != last) {
+                // Classes are 1-6, so the octal digits alone identify the sequence
+                if (count < MAX_SOUNDS) sounds = sounds * 8 + sound;
+                count++;
+                last = sound;
+            }
+        }
+        return ((long) (INITIAL.charAt(text[from] - 'a') - 'a' + 1) << 48) | sounds;
+    }
+}
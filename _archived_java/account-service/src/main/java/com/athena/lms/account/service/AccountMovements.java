@@ -0,0 +1,94 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.entity.Account;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves an account's balances and stamps its last customer activity in the same statement,
+ * so that dormancy never needs to look at account_transactions. A dormant account becomes
+ * active again on the spot; the account as it was before comes back, so that the caller can
+ * tell a reactivation from an ordinary movement without another query.
+ *
+ * Callers hold the account's balance row lock already; the account row is locked after it.
+ * Postings that are not the customer's doing, such as interest, move balances directly and
+ * leave the activity alone.
+ */
+@Component
+public class AccountMovements {
+
+    private static final String MOVE_SQL =
+            "WITH prior AS (" +
+            "  SELECT id, status, last_customer_activity_at FROM accounts WHERE id = ? FOR UPDATE" +
+            "), touched AS (" +
+            "  UPDATE accounts a SET last_customer_activity_at = ?, " +
+            "         status = CASE WHEN prior.status = 'DORMANT' THEN 'ACTIVE' ELSE prior.status END, " +
+            "         updated_at = CASE WHEN prior.status = 'DORMANT' THEN ? ELSE a.updated_at END " +
+            "  FROM prior WHERE a.id = prior.id " +
+            "  RETURNING a.id, prior.status AS prior_status, prior.last_customer_activity_at AS prior_activity" +
+            ") " +
+            "UPDATE account_balances b SET available_balance = b.available_balance + ?, " +
+            "       current_balance = b.current_balance + ?, ledger_balance = b.ledger_balance + ?, updated_at = ? " +
+            "FROM touched WHERE b.account_id = touched.id " +
+            "RETURNING b.available_balance, touched.prior_status, touched.prior_activity";
+
+    private static final String MOVE_BATCH_SQL =
+            "WITH touched AS (" +
+            "  UPDATE accounts SET last_customer_activity_at = ?, " +
+            "         updated_at = CASE WHEN status = 'DORMANT' THEN ? ELSE updated_at END, " +
+            "         status = CASE WHEN status = 'DORMANT' THEN 'ACTIVE' ELSE status END " +
+            "  WHERE id = ? RETURNING id" +
+            ") " +
+            "UPDATE account_balances b SET available_balance = b.available_balance + ?, " +
+            "       current_balance = b.current_balance + ?, ledger_balance = b.ledger_balance + ?, updated_at = ? " +
+            "FROM touched WHERE b.account_id = touched.id";
+
+    private final JdbcTemplate jdbc;
+
+    public AccountMovements(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /** The balances after a movement, and the account's status and last activity before it. */
+    public record Movement(UUID accountId, BigDecimal availableAfter, Account.AccountStatus priorStatus,
+                           LocalDateTime priorActivityAt, LocalDateTime at) {
+
+        public boolean reactivated() {
+            return priorStatus == Account.AccountStatus.DORMANT;
+        }
+    }
+
+    /** Adds {@code delta} (negative for a debit) to all three balances and records customer activity. */
+    public Movement move(UUID accountId, BigDecimal delta, LocalDateTime at) {
+        Timestamp ts = Timestamp.valueOf(at);
+        List<Movement> moved = jdbc.query(MOVE_SQL,
+                (rs, i) -> new Movement(accountId, rs.getBigDecimal(1),
+                        Account.AccountStatus.valueOf(rs.getString(2)),
+                        rs.getTimestamp(3).toLocalDateTime(), at),
+                accountId, ts, ts, delta, delta, delta, ts);
+        if (moved.isEmpty()) {
+            throw new IllegalStateException("No balance row for account " + accountId);
+        }
+        return moved.get(0);
+    }
+
+    /**
+     * The batched form for callers that have read the accounts' status and activity under
+     * their own locks, and so know which movements reactivate.
+     */
+    public void moveAll(Map<UUID, BigDecimal> deltas, LocalDateTime at) {
+        Timestamp ts = Timestamp.valueOf(at);
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((accountId, delta) -> args.add(new Object[]{ts, ts, accountId, delta, delta, delta, ts}));
+        jdbc.batchUpdate(MOVE_BATCH_SQL, args);
+    }
+}
@@ -13,9 +13,11 @@ import com.athena.lms.account.event.AccountEventPublisher;
 import com.athena.lms.account.repository.AccountBalanceRepository;
 import com.athena.lms.account.repository.AccountRepository;
 import com.athena.lms.account.repository.AccountTransactionRepository;
+import com.athena.lms.account.search.SearchIndexService;
 import com.athena.lms.common.dto.PageResponse;
 import com.athena.lms.common.exception.BusinessException;
 import com.athena.lms.common.exception.ResourceNotFoundException;
+import com.athena.lms.common.sequence.SequenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -27,11 +29,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,7 +53,10 @@ public class AccountService {
     private final AccountBalanceRepository accountBalanceRepository;
     private final AccountTransactionRepository transactionRepository;
     private final AccountEventPublisher eventPublisher;
-    private final SecureRandom random = new SecureRandom();
+    private final SequenceService sequenceService;
+    private final IdempotencyGuard idempotencyGuard;
+    private final AccountMovements accountMovements;
+    private final SearchIndexService searchIndexService;
 
     @Transactional
     public AccountResponse createAccount(CreateAccountRequest req, String tenantId) {
@@ -99,6 +107,18 @@ public class AccountService {
         return AccountResponse.from(account);
     }
 
+    /** Multi-get with balances in two queries total; ids not found in the tenant are omitted. */
+    @Transactional(readOnly = true)
+    public List<AccountResponse> getAccounts(List<UUID> ids, String tenantId) {
+        List<Account> accounts = accountRepository.findByTenantIdAndIdIn(tenantId, ids);
+        if (accounts.isEmpty()) return List.of();
+        Map<UUID, AccountBalance> balances = accountBalanceRepository
+                .findByAccountIdIn(accounts.stream().map(Account::getId).toList())
+                .stream().collect(Collectors.toMap(AccountBalance::getAccountId, Function.identity(), (a, b) -> a));
+        accounts.forEach(a -> a.setBalance(balances.get(a.getId())));
+        return accounts.stream().map(AccountResponse::from).collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public PageResponse<AccountResponse> listAccounts(String tenantId, Pageable pageable) {
         return PageResponse.from(accountRepository.findByTenantId(tenantId, pageable)
@@ -124,28 +144,27 @@ public class AccountService {
     public TransactionResponse credit(UUID accountId, TransactionRequest req, String tenantId) {
         // Idempotency check
         if (req.getIdempotencyKey() != null) {
-            var existing = transactionRepository.findByIdempotencyKey(req.getIdempotencyKey());
-            if (existing.isPresent()) {
-                return TransactionResponse.from(existing.get());
+            var previous = idempotencyGuard.findPrevious(req.getIdempotencyKey());
+            if (previous.isPresent()) {
+                return previous.get();
             }
         }
 
         Account account = accountRepository.findByIdAndTenantId(accountId, tenantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account", accountId));
 
-        if (account.getStatus() != Account.AccountStatus.ACTIVE) {
+        // A dormant account is reactivated by the movement (see AccountMovements)
+        if (account.getStatus() != Account.AccountStatus.ACTIVE && account.getStatus() != Account.AccountStatus.DORMANT) {
             throw new BusinessException(HttpStatus.UNPROCESSABLE_ENTITY,
                     "Account is " + account.getStatus() + " — cannot credit");
         }
 
-        AccountBalance balance = accountBalanceRepository.findByAccountIdForUpdate(accountId)
+        // The balance row is locked before the account row, as in debit and transfers
+        accountBalanceRepository.findByAccountIdForUpdate(accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Balance for account", accountId));
 
-        BigDecimal newBalance = balance.getAvailableBalance().add(req.getAmount());
-        balance.setAvailableBalance(newBalance);
-        balance.setCurrentBalance(balance.getCurrentBalance().add(req.getAmount()));
-        balance.setLedgerBalance(balance.getLedgerBalance().add(req.getAmount()));
-        accountBalanceRepository.save(balance);
+        AccountMovements.Movement moved = accountMovements.move(accountId, req.getAmount(), LocalDateTime.now());
+        BigDecimal newBalance = moved.availableAfter();
 
         AccountTransaction txn = AccountTransaction.builder()
                 .tenantId(tenantId)
@@ -158,26 +177,36 @@ public class AccountService {
                 .channel(req.getChannel() != null ? req.getChannel() : "SYSTEM")
                 .idempotencyKey(req.getIdempotencyKey())
                 .build();
-        txn = transactionRepository.save(txn);
+        // Flushed here so a key committed concurrently fails inside this call (see IdempotencyGuard)
+        txn = transactionRepository.saveAndFlush(txn);
 
         eventPublisher.publishCreditReceived(accountId, req.getAmount(), tenantId);
-        return TransactionResponse.from(txn);
+        if (moved.reactivated()) {
+            eventPublisher.publishReactivated(accountId, account.getAccountNumber(), account.getCustomerId(),
+                    moved.priorActivityAt(), moved.at(), "CREDIT", req.getAmount(), tenantId);
+        }
+        TransactionResponse response = TransactionResponse.from(txn);
+        if (req.getIdempotencyKey() != null) {
+            idempotencyGuard.recordOnCommit(req.getIdempotencyKey(), response);
+        }
+        return response;
     }
 
     @Transactional
     public TransactionResponse debit(UUID accountId, TransactionRequest req, String tenantId) {
         // Idempotency check
         if (req.getIdempotencyKey() != null) {
-            var existing = transactionRepository.findByIdempotencyKey(req.getIdempotencyKey());
-            if (existing.isPresent()) {
-                return TransactionResponse.from(existing.get());
+            var previous = idempotencyGuard.findPrevious(req.getIdempotencyKey());
+            if (previous.isPresent()) {
+                return previous.get();
             }
         }
 
         Account account = accountRepository.findByIdAndTenantId(accountId, tenantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account", accountId));
 
-        if (account.getStatus() != Account.AccountStatus.ACTIVE) {
+        // A dormant account is reactivated by the movement (see AccountMovements)
+        if (account.getStatus() != Account.AccountStatus.ACTIVE && account.getStatus() != Account.AccountStatus.DORMANT) {
             throw new BusinessException(HttpStatus.UNPROCESSABLE_ENTITY,
                     "Account is " + account.getStatus() + " — cannot debit");
         }
@@ -193,11 +222,8 @@ public class AccountService {
         // KYC limit enforcement
         enforceKycLimits(account, req.getAmount(), accountId);
 
-        BigDecimal newBalance = balance.getAvailableBalance().subtract(req.getAmount());
-        balance.setAvailableBalance(newBalance);
-        balance.setCurrentBalance(balance.getCurrentBalance().subtract(req.getAmount()));
-        balance.setLedgerBalance(balance.getLedgerBalance().subtract(req.getAmount()));
-        accountBalanceRepository.save(balance);
+        AccountMovements.Movement moved = accountMovements.move(accountId, req.getAmount().negate(), LocalDateTime.now());
+        BigDecimal newBalance = moved.availableAfter();
 
         AccountTransaction txn = AccountTransaction.builder()
                 .tenantId(tenantId)
@@ -210,10 +236,19 @@ public class AccountService {
                 .channel(req.getChannel() != null ? req.getChannel() : "SYSTEM")
                 .idempotencyKey(req.getIdempotencyKey())
                 .build();
-        txn = transactionRepository.save(txn);
+        // Flushed here so a key committed concurrently fails inside this call (see IdempotencyGuard)
+        txn = transactionRepository.saveAndFlush(txn);
 
         eventPublisher.publishDebitProcessed(accountId, req.getAmount(), tenantId);
-        return TransactionResponse.from(txn);
+        if (moved.reactivated()) {
+            eventPublisher.publishReactivated(accountId, account.getAccountNumber(), account.getCustomerId(),
+                    moved.priorActivityAt(), moved.at(), "DEBIT", req.getAmount(), tenantId);
+        }
+        TransactionResponse response = TransactionResponse.from(txn);
+        if (req.getIdempotencyKey() != null) {
+            idempotencyGuard.recordOnCommit(req.getIdempotencyKey(), response);
+        }
+        return response;
     }
 
     @Transactional(readOnly = true)
@@ -234,10 +269,22 @@ public class AccountService {
                 .stream().map(TransactionResponse::from).collect(Collectors.toList());
     }
 
+    /**
+     * Ranked matches on account number, account name and customer id from the in-memory index;
+     * the database's trigram-indexed query while the index is loading.
+     */
     @Transactional(readOnly = true)
-    public List<AccountResponse> searchAccounts(String q, String tenantId) {
-        return accountRepository.searchByTenantAndQuery(tenantId, q)
-                .stream().map(AccountResponse::from).collect(Collectors.toList());
+    public List<AccountResponse> searchAccounts(String q, String tenantId, int page, int size) {
+        int limit = Math.max(1, Math.min(size, SearchIndexService.MAX_PAGE_SIZE));
+        Optional<List<UUID>> ranked = searchIndexService.searchAccounts(tenantId, q, Math.max(0, page), limit);
+        if (ranked.isEmpty()) {
+            return accountRepository.searchByTenantAndQuery(tenantId, q, limit, Math.max(0, page) * limit)
+                    .stream().map(AccountResponse::from).collect(Collectors.toList());
+        }
+        Map<UUID, Account> byId = accountRepository.findByTenantIdAndIdIn(tenantId, ranked.get()).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+        return ranked.get().stream().map(byId::get).filter(Objects::nonNull)
+                .map(AccountResponse::from).collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
@@ -256,6 +303,10 @@ public class AccountService {
         } catch (IllegalArgumentException e) {
             throw BusinessException.badRequest("Invalid account status: " + status);
         }
+        // Otherwise the next dormancy sweep would find it as inactive as before
+        if (account.getStatus() == Account.AccountStatus.DORMANT && newStatus == Account.AccountStatus.ACTIVE) {
+            accountRepository.restartActivityClock(accountId);
+        }
         account.setStatus(newStatus);
         return AccountResponse.from(accountRepository.save(account));
     }
@@ -290,20 +341,12 @@ public class AccountService {
     // ─── Helpers ──────────────────────────────────────────────────────────────
 
     private String generateAccountNumber(String tenantId) {
-        String prefix = tenantId.length() >= 3
-                ? tenantId.substring(0, 3).toUpperCase()
-                : tenantId.toUpperCase();
-        String suffix = String.format("%08d", random.nextInt(100_000_000));
-        String candidate = "ACC-" + prefix + "-" + suffix;
-        // Retry on collision (extremely unlikely)
-        while (accountRepository.findByAccountNumber(candidate).isPresent()) {
-            suffix = String.format("%08d", random.nextInt(100_000_000));
-            candidate = "ACC-" + prefix + "-" + suffix;
-        }
-        return candidate;
+        // Tenants sharing a three-letter prefix draw from the prefix's one counter, so no number repeats
+        return sequenceService.nextFormatted(tenantId, "account-number");
     }
 
-    private void applyKycLimits(Account account, int kycTier) {
+    // Also used by OnboardingImporter for the accounts it opens
+    static void applyKycLimits(Account account, int kycTier) {
         switch (kycTier) {
             case 0 -> account.setDailyTransactionLimit(TIER_0_DAILY_LIMIT);
             case 1 -> account.setMonthlyTransactionLimit(TIER_1_MONTHLY_LIMIT);
@@ -0,0 +1,107 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.dto.request.BulkCreditRequest;
+import com.athena.lms.common.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads a bulk credit file into lines, without judging their content. CSV needs a header row
+ * naming at least the account, amount and reference columns, in any order. JSON is either an
+ * array of lines or an object with a "lines" array. Structural problems reject the whole file;
+ * problems with a line's values are left to validation so that they are reported per line.
+ */
+final class BulkCreditFileParser {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "account", "account", "account_number", "account", "accountnumber", "account",
+            "account_id", "account", "accountid", "account",
+            "amount", "amount", "reference", "reference", "description", "description");
+
+    private BulkCreditFileParser() {}
+
+    static List<BulkCreditRequest.Line> parse(String fileName, String contentType, byte[] content,
+                                              ObjectMapper objectMapper, int maxLines) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        boolean json = name.endsWith(".json") || (contentType != null && contentType.contains("json"));
+        return json ? parseJson(content, objectMapper, maxLines) : parseCsv(content, maxLines);
+    }
+
+    static List<BulkCreditRequest.Line> parseJson(byte[] content, ObjectMapper objectMapper, int maxLines) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(content);
+        } catch (JsonProcessingException e) {
+            throw BusinessException.badRequest("Bulk credit file is not valid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw BusinessException.badRequest("Bulk credit file could not be read: " + e.getMessage());
+        }
+        JsonNode lines = root != null && root.isObject() ? root.get("lines") : root;
+        if (lines == null || !lines.isArray()) {
+            throw BusinessException.badRequest("Bulk credit JSON must be an array of lines or have a \"lines\" array");
+        }
+        checkSize(lines.size(), maxLines);
+        List<BulkCreditRequest.Line> parsed = new ArrayList<>(lines.size());
+        for (JsonNode line : lines) {
+            parsed.add(new BulkCreditRequest.Line(text(line, "account", "accountNumber", "accountId"),
+                    text(line, "amount"), text(line, "reference"), text(line, "description")));
+        }
+        return parsed;
+    }
+
+    static List<BulkCreditRequest.Line> parseCsv(byte[] content, int maxLines) {
+        List<List<String>> rows = CsvRows.parse(content, "Bulk credit CSV");
+        if (rows.isEmpty()) throw BusinessException.badRequest("Bulk credit file is empty");
+
+        List<String> header = rows.get(0);
+        int account = -1, amount = -1, reference = -1, description = -1;
+        for (int i = 0; i < header.size(); i++) {
+            String column = COLUMNS.get(header.get(i).trim().toLowerCase(Locale.ROOT).replace(' ', '_'));
+            if (column == null) continue;
+            switch (column) {
+                case "account" -> account = i;
+                case "amount" -> amount = i;
+                case "reference" -> reference = i;
+                default -> description = i;
+            }
+        }
+        if (account < 0 || amount < 0 || reference < 0) {
+            throw BusinessException.badRequest("Bulk credit CSV header must name account, amount and reference columns");
+        }
+        checkSize(rows.size() - 1, maxLines);
+        List<BulkCreditRequest.Line> parsed = new ArrayList<>(rows.size() - 1);
+        for (List<String> row : rows.subList(1, rows.size())) {
+            parsed.add(new BulkCreditRequest.Line(cell(row, account), cell(row, amount),
+                    cell(row, reference), cell(row, description)));
+        }
+        return parsed;
+    }
+
+    private static void checkSize(int lines, int maxLines) {
+        if (lines == 0) throw BusinessException.badRequest("Bulk credit file has no lines");
+        if (lines > maxLines) {
+            throw BusinessException.badRequest("Bulk credit file has " + lines + " lines; at most " + maxLines + " are accepted");
+        }
+    }
+
+    private static String text(JsonNode line, String... names) {
+        for (String name : names) {
+            JsonNode value = line.get(name);
+            if (value != null && !value.isNull()) return value.asText();
+        }
+        return null;
+    }
+
+    private static String cell(List<String> row, int column) {
+        if (column < 0 || column >= row.size()) return null;
+        String value = row.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
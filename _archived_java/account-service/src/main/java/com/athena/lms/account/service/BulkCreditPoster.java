@@ -0,0 +1,446 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.entity.BulkCreditBatch;
+import com.athena.lms.account.event.AccountEventPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Posts accepted bulk credit files, a chunk of lines per transaction.
+ *
+ * Each chunk locks its accounts' balances with one statement, in the order TransferService
+ * uses, then writes its transactions, balances and line outcomes as JDBC batches, so a
+ * 100 000-line payroll costs a few hundred round trips rather than several per line. A batch
+ * is claimed with a lease that every chunk renews; if this replica stops, the lease runs out
+ * and any replica's sweep picks the batch up at the first line not yet posted. A line's
+ * transaction carries the idempotency key bulk:{batch}:{line}, so no line is credited twice.
+ *
+ * A line whose account was frozen or closed since the file was accepted fails on its own;
+ * the rest of the file still posts. A credit to a dormant account reactivates it.
+ * account.credit.received is published for each credit once its chunk has committed, and
+ * lines are marked notified afterwards, so events lost to a crash are sent when the batch
+ * resumes.
+ *
+ * A run that fails is counted on the batch and retried once its lease lapses. A retry posts
+ * the first chunk's lines one at a time, so a line that keeps failing is found: after
+ * lms.bulk-credit.max-attempts failures it is marked FAILED and the rest of the file posts.
+ * A batch that keeps failing outside its lines is marked FAILED and no longer resumed.
+ */
+@Service
+@Slf4j
+public class BulkCreditPoster {
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final AccountEventPublisher eventPublisher;
+    private final AccountMovements accountMovements;
+    private final int chunkSize;
+    private final int leaseSeconds;
+    private final int sweepSeconds;
+    private final int maxAttempts;
+    private final String owner;
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            daemon("bulk-credit-sweep"));
+
+    @Autowired
+    public BulkCreditPoster(DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            AccountEventPublisher eventPublisher,
+                            AccountMovements accountMovements,
+                            @Value("${lms.bulk-credit.chunk-size:500}") int chunkSize,
+                            @Value("${lms.bulk-credit.workers:1}") int workers,
+                            @Value("${lms.bulk-credit.lease-seconds:120}") int leaseSeconds,
+                            @Value("${lms.bulk-credit.sweep-seconds:60}") int sweepSeconds,
+                            @Value("${lms.bulk-credit.max-attempts:5}") int maxAttempts) {
+        this(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager), eventPublisher,
+                accountMovements, chunkSize, workers, leaseSeconds, sweepSeconds, maxAttempts);
+    }
+
+    BulkCreditPoster(JdbcTemplate jdbc, TransactionTemplate transaction, AccountEventPublisher eventPublisher,
+                     AccountMovements accountMovements, int chunkSize, int workers, int leaseSeconds,
+                     int sweepSeconds, int maxAttempts) {
+        this.jdbc = jdbc;
+        this.transaction = transaction;
+        this.eventPublisher = eventPublisher;
+        this.accountMovements = accountMovements;
+        this.chunkSize = chunkSize;
+        this.leaseSeconds = leaseSeconds;
+        this.sweepSeconds = sweepSeconds;
+        this.maxAttempts = maxAttempts;
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        this.workers = Executors.newFixedThreadPool(workers, daemon("bulk-credit"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSweeping() {
+        sweeper.scheduleWithFixedDelay(this::resumeAbandoned, 0, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // An interrupted chunk rolls back; the lease lapses and another replica resumes the batch
+        sweeper.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /** Starts posting the batch once the current transaction, which inserted it, commits. */
+    public void startAfterCommit(UUID batchId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(batchId);
+            }
+        });
+    }
+
+    void resumeAbandoned() {
+        try {
+            List<UUID> open = jdbc.queryForList(
+                    "SELECT id FROM bulk_credit_batches WHERE status IN ('PENDING', 'PROCESSING') " +
+                    "AND (claimed_until IS NULL OR claimed_until < NOW()) ORDER BY created_at", UUID.class);
+            open.forEach(this::submit);
+        } catch (RuntimeException e) {
+            log.warn("Bulk credit sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void submit(UUID batchId) {
+        if (!running.add(batchId)) return;
+        try {
+            workers.execute(() -> {
+                try {
+                    process(batchId);
+                } finally {
+                    running.remove(batchId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(batchId);
+        }
+    }
+
+    // ─── Posting ─────────────────────────────────────────────────────────────
+
+    private record Batch(UUID id, String tenantId, String channel, String description, int attempts) {}
+
+    private record Line(int lineNo, UUID accountId, BigDecimal amount, String reference, String description) {}
+
+    private record Outcome(Line line, UUID transactionId, BigDecimal balanceAfter, String error) {}
+
+    /** Thrown inside a chunk when another replica has taken the batch over; rolls the chunk back. */
+    private static final class LeaseLostException extends RuntimeException {
+        LeaseLostException(UUID batchId) {
+            super("Lease on bulk credit batch " + batchId + " lost");
+        }
+    }
+
+    void process(UUID batchId) {
+        if (!claim(batchId)) return;
+        Batch batch = jdbc.queryForObject(
+                "SELECT id, tenant_id, channel, description, attempts FROM bulk_credit_batches WHERE id = ?",
+                (rs, i) -> new Batch(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getInt(5)),
+                batchId);
+        long started = System.currentTimeMillis();
+        // After a failed run, the lines of the chunk that failed are posted one at a time
+        int isolating = batch.attempts() > 0 ? chunkSize : 0;
+        boolean single = false;
+        try {
+            notifyPosted(batch);
+            int posted = 0;
+            List<Outcome> chunk;
+            do {
+                int size = isolating > 0 ? 1 : chunkSize;
+                single = size == 1;
+                chunk = transaction.execute(status -> postChunk(batch, size));
+                single = false;
+                notify(batch, chunk);
+                posted += chunk.size();
+                isolating -= chunk.size();
+            } while (!chunk.isEmpty());
+            complete(batch, posted, System.currentTimeMillis() - started);
+        } catch (LeaseLostException e) {
+            log.warn(e.getMessage());
+        } catch (RuntimeException e) {
+            failed(batch, single, e);
+        }
+    }
+
+    // The lease is left to lapse, which spaces out retries by the lease length, until the
+    // attempts run out
+    private void failed(Batch batch, boolean single, RuntimeException e) {
+        String error = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), 255);
+        try {
+            List<Integer> attempts = jdbc.queryForList("UPDATE bulk_credit_batches SET attempts = attempts + 1, " +
+                    "last_error = ?, updated_at = NOW() WHERE id = ? AND claimed_by = ? RETURNING attempts",
+                    Integer.class, error, batch.id(), owner);
+            if (attempts.isEmpty()) {
+                log.warn("Bulk credit batch {} stopped after its lease was lost: {}", batch.id(), error);
+            } else if (attempts.get(0) < maxAttempts) {
+                log.error("Bulk credit batch {} stopped, will resume (attempt {} of {}): {}",
+                        batch.id(), attempts.get(0), maxAttempts, error, e);
+            } else if (single) {
+                failLine(batch, error);
+            } else {
+                failBatch(batch, error);
+            }
+        } catch (RuntimeException recording) {
+            log.error("Bulk credit batch {} stopped, will resume: {}", batch.id(), error, e);
+        }
+    }
+
+    // The line that failed alone is still the first pending one, its chunk having rolled back
+    private void failLine(Batch batch, String error) {
+        Integer lineNo = transaction.execute(status -> {
+            List<Integer> failed = jdbc.queryForList("UPDATE bulk_credit_lines SET status = 'FAILED', error = ? " +
+                    "WHERE batch_id = ? AND line_no = (SELECT line_no FROM bulk_credit_lines " +
+                    "WHERE batch_id = ? AND status = 'PENDING' ORDER BY post_order LIMIT 1) RETURNING line_no",
+                    Integer.class, error, batch.id(), batch.id());
+            // Released rather than left to lapse, so the next sweep resumes the batch
+            jdbc.update("UPDATE bulk_credit_batches SET failed_lines = failed_lines + ?, attempts = 0, " +
+                    "claimed_by = NULL, claimed_until = NULL, updated_at = NOW() WHERE id = ? AND claimed_by = ?",
+                    failed.size(), batch.id(), owner);
+            return failed.isEmpty() ? null : failed.get(0);
+        });
+        log.error("Bulk credit batch {} line {} failed after {} attempts: {}", batch.id(), lineNo, maxAttempts, error);
+    }
+
+    private void failBatch(Batch batch, String error) {
+        List<Map<String, Object>> done = jdbc.queryForList(
+                "UPDATE bulk_credit_batches SET status = 'FAILED', completed_at = NOW(), updated_at = NOW(), " +
+                "claimed_by = NULL, claimed_until = NULL WHERE id = ? AND claimed_by = ? " +
+                "RETURNING total_lines, posted_lines, posted_amount, failed_lines",
+                batch.id(), owner);
+        if (done.isEmpty()) return;
+        Map<String, Object> row = done.get(0);
+        eventPublisher.publishBulkCreditCompleted(batch.id(), BulkCreditBatch.BatchStatus.FAILED.name(),
+                ((Number) row.get("total_lines")).intValue(), ((Number) row.get("posted_lines")).intValue(),
+                (BigDecimal) row.get("posted_amount"), ((Number) row.get("failed_lines")).intValue(),
+                batch.tenantId());
+        log.error("Bulk credit batch {} failed after {} attempts with {} lines posted: {}",
+                batch.id(), maxAttempts, row.get("posted_lines"), error);
+    }
+
+    private boolean claim(UUID batchId) {
+        return jdbc.update("UPDATE bulk_credit_batches SET status = 'PROCESSING', claimed_by = ?, " +
+                "claimed_until = NOW() + make_interval(secs => ?), updated_at = NOW() " +
+                "WHERE id = ? AND status IN ('PENDING', 'PROCESSING') " +
+                "AND (claimed_until IS NULL OR claimed_until < NOW() OR claimed_by = ?)",
+                owner, leaseSeconds, batchId, owner) == 1;
+    }
+
+    private List<Outcome> postChunk(Batch batch, int size) {
+        List<Line> lines = jdbc.query(
+                "SELECT line_no, account_id, amount, reference, description FROM bulk_credit_lines " +
+                "WHERE batch_id = ? AND status = 'PENDING' ORDER BY post_order LIMIT ?",
+                (rs, i) -> new Line(rs.getInt(1), rs.getObject(2, UUID.class), rs.getBigDecimal(3),
+                        rs.getString(4), rs.getString(5)),
+                batch.id(), size);
+        if (lines.isEmpty()) return List.of();
+
+        // Lines are in account order, so the accounts are too
+        List<UUID> accountIds = new ArrayList<>();
+        for (Line line : lines) {
+            if (accountIds.isEmpty() || !accountIds.get(accountIds.size() - 1).equals(line.accountId())) {
+                accountIds.add(line.accountId());
+            }
+        }
+        // Each account's balance row and then its account row, as AccountMovements expects
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        Map<UUID, String> statuses = new HashMap<>();
+        Map<UUID, AccountEventPublisher.DormantAccount> dormant = new HashMap<>();
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT k.account_id, a.status, b.available_balance, a.account_number, a.customer_id, " +
+                    "a.last_customer_activity_at " +
+                    "FROM unnest(?) WITH ORDINALITY AS k(account_id, ord) " +
+                    "JOIN account_balances b ON b.account_id = k.account_id " +
+                    "JOIN accounts a ON a.id = k.account_id " +
+                    "ORDER BY k.ord FOR UPDATE OF b, a");
+            Array ids = con.createArrayOf("uuid", accountIds.toArray());
+            ps.setArray(1, ids);
+            return ps;
+        }, rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            statuses.put(id, rs.getString(2));
+            balances.put(id, rs.getBigDecimal(3));
+            if ("DORMANT".equals(rs.getString(2))) {
+                dormant.put(id, new AccountEventPublisher.DormantAccount(id, rs.getString(4), rs.getString(5),
+                        rs.getTimestamp(6).toLocalDateTime()));
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp postedAt = Timestamp.valueOf(now);
+        List<Outcome> outcomes = new ArrayList<>(lines.size());
+        Map<UUID, BigDecimal> credited = new LinkedHashMap<>();
+        List<Object[]> transactions = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            BigDecimal balance = balances.get(line.accountId());
+            String status = statuses.get(line.accountId());
+            if (balance == null) {
+                outcomes.add(new Outcome(line, null, null, "Balance for account not found"));
+            } else if (!"ACTIVE".equals(status) && !"DORMANT".equals(status)) {
+                outcomes.add(new Outcome(line, null, null, "Account is " + status + " — cannot credit"));
+            } else {
+                BigDecimal after = balance.add(line.amount());
+                balances.put(line.accountId(), after);
+                credited.merge(line.accountId(), line.amount(), BigDecimal::add);
+                UUID transactionId = UUID.randomUUID();
+                outcomes.add(new Outcome(line, transactionId, after, null));
+                transactions.add(new Object[]{transactionId, batch.tenantId(), line.accountId(), line.amount(),
+                        after, line.reference(), line.description() != null ? line.description() : batch.description(),
+                        batch.channel(), "bulk:" + batch.id() + ":" + line.lineNo(), postedAt});
+            }
+        }
+
+        if (!transactions.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO account_transactions (id, tenant_id, account_id, transaction_type, " +
+                    "amount, balance_after, reference, description, channel, idempotency_key, created_at) " +
+                    "VALUES (?, ?, ?, 'CREDIT', ?, ?, ?, ?, ?, ?, ?)", transactions);
+            accountMovements.moveAll(credited, now);
+            dormant.keySet().retainAll(credited.keySet());
+            if (!dormant.isEmpty()) {
+                notifyReactivated(batch, dormant.values(), credited, now);
+            }
+        }
+
+        List<Object[]> results = new ArrayList<>(outcomes.size());
+        BigDecimal postedAmount = BigDecimal.ZERO;
+        int failed = 0;
+        for (Outcome o : outcomes) {
+            if (o.error() == null) {
+                postedAmount = postedAmount.add(o.line().amount());
+            } else {
+                failed++;
+            }
+            results.add(new Object[]{o.error() == null ? "POSTED" : "FAILED", o.error(), o.transactionId(),
+                    o.balanceAfter(), o.error() == null ? postedAt : null, batch.id(), o.line().lineNo()});
+        }
+        jdbc.batchUpdate("UPDATE bulk_credit_lines SET status = ?, error = ?, transaction_id = ?, " +
+                "balance_after = ?, posted_at = ? WHERE batch_id = ? AND line_no = ?", results);
+
+        // Renewing the lease last holds the batch row until commit, so a replica that finds the
+        // lease expired mid-chunk cannot claim the batch until this chunk has committed or failed.
+        // A chunk that commits ends a run of failures
+        int renewed = jdbc.update("UPDATE bulk_credit_batches SET posted_lines = posted_lines + ?, " +
+                "posted_amount = posted_amount + ?, failed_lines = failed_lines + ?, attempts = 0, " +
+                "claimed_until = NOW() + make_interval(secs => ?), updated_at = NOW() " +
+                "WHERE id = ? AND claimed_by = ?",
+                outcomes.size() - failed, postedAmount, failed, leaseSeconds, batch.id(), owner);
+        if (renewed == 0) throw new LeaseLostException(batch.id());
+        return outcomes;
+    }
+
+    // ─── Events ──────────────────────────────────────────────────────────────
+
+    // Credits posted by a run that stopped before publishing them
+    private void notifyPosted(Batch batch) {
+        List<Outcome> unsent;
+        do {
+            unsent = jdbc.query(
+                    "SELECT line_no, account_id, amount, transaction_id FROM bulk_credit_lines " +
+                    "WHERE batch_id = ? AND status = 'POSTED' AND NOT notified ORDER BY line_no LIMIT ?",
+                    (rs, i) -> new Outcome(new Line(rs.getInt(1), rs.getObject(2, UUID.class),
+                            rs.getBigDecimal(3), null, null), rs.getObject(4, UUID.class), null, null),
+                    batch.id(), chunkSize);
+            notify(batch, unsent);
+        } while (!unsent.isEmpty());
+    }
+
+    private void notify(Batch batch, List<Outcome> outcomes) {
+        List<AccountEventPublisher.PostedCredit> credits = new ArrayList<>(outcomes.size());
+        Integer[] lineNos = new Integer[outcomes.size()];
+        int n = 0;
+        for (Outcome o : outcomes) {
+            if (o.error() != null) continue;
+            credits.add(new AccountEventPublisher.PostedCredit(o.line().accountId(), o.line().amount(), o.transactionId()));
+            lineNos[n++] = o.line().lineNo();
+        }
+        if (credits.isEmpty()) return;
+        eventPublisher.publishCreditsReceived(batch.id(), credits, batch.tenantId());
+        Integer[] sent = Arrays.copyOf(lineNos, n);
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE bulk_credit_lines SET notified = TRUE WHERE batch_id = ? AND line_no = ANY(?)");
+            ps.setObject(1, batch.id());
+            ps.setArray(2, con.createArrayOf("integer", sent));
+            return ps;
+        });
+    }
+
+    // Sent once the chunk commits; a chunk rolled back reactivated nothing
+    private void notifyReactivated(Batch batch, Collection<AccountEventPublisher.DormantAccount> accounts,
+                                   Map<UUID, BigDecimal> credited, LocalDateTime at) {
+        List<AccountEventPublisher.DormantAccount> reactivated = List.copyOf(accounts);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (AccountEventPublisher.DormantAccount a : reactivated) {
+                    eventPublisher.publishReactivated(a.accountId(), a.accountNumber(), a.customerId(),
+                            a.lastActivityAt(), at, "CREDIT", credited.get(a.accountId()), batch.tenantId());
+                }
+            }
+        });
+    }
+
+    private void complete(Batch batch, int lines, long millis) {
+        List<Map<String, Object>> done = jdbc.queryForList(
+                "UPDATE bulk_credit_batches SET status = CASE WHEN failed_lines > 0 " +
+                "THEN 'COMPLETED_WITH_ERRORS' ELSE 'COMPLETED' END, completed_at = NOW(), updated_at = NOW(), " +
+                "claimed_by = NULL, claimed_until = NULL " +
+                "WHERE id = ? AND claimed_by = ? " +
+                "RETURNING status, total_lines, posted_lines, posted_amount, failed_lines",
+                batch.id(), owner);
+        if (done.isEmpty()) throw new LeaseLostException(batch.id());
+        Map<String, Object> row = done.get(0);
+        eventPublisher.publishBulkCreditCompleted(batch.id(), (String) row.get("status"),
+                ((Number) row.get("total_lines")).intValue(), ((Number) row.get("posted_lines")).intValue(),
+                (BigDecimal) row.get("posted_amount"), ((Number) row.get("failed_lines")).intValue(),
+                batch.tenantId());
+        log.info("Bulk credit batch {} {}: {} posted, {} failed; {} lines this run in {} ms",
+                batch.id(), row.get("status"), row.get("posted_lines"), row.get("failed_lines"), lines, millis);
+    }
+
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "account-service";
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.dto.request.BulkCreditRequest;
+import com.athena.lms.account.dto.response.BulkCreditBatchResponse;
+import com.athena.lms.account.dto.response.BulkCreditLineResponse;
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.BulkCreditBatch;
+import com.athena.lms.account.entity.BulkCreditLine;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.BulkCreditBatchRepository;
+import com.athena.lms.account.repository.BulkCreditLineRepository;
+import com.athena.lms.common.dto.PageResponse;
+import com.athena.lms.common.exception.BusinessException;
+import com.athena.lms.common.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Accepts bulk credit files (payroll, disbursements) and reports on them.
+ *
+ * A file is validated as a whole before anything is posted: if any line is bad the file is
+ * stored as REJECTED with every line's problem and nothing is credited, so the sender corrects
+ * and resubmits it rather than reconciling a half-paid file. An accepted file is stored as
+ * PENDING and posted in the background by {@link BulkCreditPoster}. The same file submitted
+ * twice to a tenant returns the first batch instead of paying twice, also when the two
+ * submissions race.
+ */
+@Service
+@Slf4j
+public class BulkCreditService {
+
+    private static final int LOOKUP_PARTITION = 1000;
+    private static final int INSERT_BATCH = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("9999999999999.99");
+    private static final int MAX_REFERENCE = 100;
+    private static final int MAX_ACCOUNT_REF = 100;
+    private static final int MAX_DESCRIPTION = 255;
+
+    private final AccountRepository accountRepository;
+    private final BulkCreditBatchRepository batchRepository;
+    private final BulkCreditLineRepository lineRepository;
+    private final BulkCreditPoster poster;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbc;
+    private final int maxLines;
+
+    @Autowired
+    public BulkCreditService(AccountRepository accountRepository,
+                             BulkCreditBatchRepository batchRepository,
+                             BulkCreditLineRepository lineRepository,
+                             BulkCreditPoster poster,
+                             ObjectMapper objectMapper,
+                             DataSource dataSource,
+                             @Value("${lms.bulk-credit.max-lines:100000}") int maxLines) {
+        this(accountRepository, batchRepository, lineRepository, poster, objectMapper,
+                new JdbcTemplate(dataSource), maxLines);
+        this.jdbc.setFetchSize(1000);
+    }
+
+    BulkCreditService(AccountRepository accountRepository, BulkCreditBatchRepository batchRepository,
+                      BulkCreditLineRepository lineRepository, BulkCreditPoster poster, ObjectMapper objectMapper,
+                      JdbcTemplate jdbc, int maxLines) {
+        this.accountRepository = accountRepository;
+        this.batchRepository = batchRepository;
+        this.lineRepository = lineRepository;
+        this.poster = poster;
+        this.objectMapper = objectMapper;
+        this.jdbc = jdbc;
+        this.maxLines = maxLines;
+    }
+
+    // ─── Submission ──────────────────────────────────────────────────────────
+
+    /** An uploaded CSV or JSON file; the digest is over the file's bytes. */
+    @Transactional
+    public BulkCreditBatchResponse submitFile(String fileName, String contentType, byte[] content,
+                                              String channel, String description,
+                                              String tenantId, String submittedBy) {
+        List<BulkCreditRequest.Line> lines =
+                BulkCreditFileParser.parse(fileName, contentType, content, objectMapper, maxLines);
+        return accept(fileName, sha256(content), lines, channel, description, tenantId, submittedBy);
+    }
+
+    /** A file sent as a JSON body; the digest is over its lines. */
+    @Transactional
+    public BulkCreditBatchResponse submit(BulkCreditRequest req, String tenantId, String submittedBy) {
+        if (req.getLines().size() > maxLines) {
+            throw BusinessException.badRequest("Bulk credit file has " + req.getLines().size()
+                    + " lines; at most " + maxLines + " are accepted");
+        }
+        byte[] canonical;
+        try {
+            canonical = objectMapper.writeValueAsBytes(req.getLines());
+        } catch (JsonProcessingException e) {
+            throw BusinessException.badRequest("Bulk credit lines could not be read: " + e.getOriginalMessage());
+        }
+        return accept(req.getFileName(), sha256(canonical), req.getLines(), req.getChannel(),
+                req.getDescription(), tenantId, submittedBy);
+    }
+
+    private BulkCreditBatchResponse accept(String fileName, String sha256, List<BulkCreditRequest.Line> lines,
+                                           String channel, String description,
+                                           String tenantId, String submittedBy) {
+        Optional<BulkCreditBatch> previous = batchRepository.findAccepted(tenantId, sha256);
+        if (previous.isPresent()) {
+            log.info("Bulk credit file {} already submitted as batch {}", sha256, previous.get().getId());
+            return BulkCreditBatchResponse.from(previous.get(), List.of());
+        }
+        if (description != null && description.length() > MAX_DESCRIPTION) {
+            throw BusinessException.badRequest("description is longer than " + MAX_DESCRIPTION + " characters");
+        }
+
+        List<Checked> checked = validate(lines, tenantId);
+        boolean rejected = checked.stream().anyMatch(c -> c.error() != null);
+
+        // Posting order is account order, the order TransferService locks balances in, so a
+        // batch and concurrent transfers never wait on each other in a cycle
+        List<Checked> postOrder = new ArrayList<>(checked);
+        postOrder.sort(Comparator.comparing(Checked::accountId, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(Checked::lineNo));
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkCreditBatch batch = BulkCreditBatch.builder()
+                .id(UUID.randomUUID())
+                .tenantId(tenantId)
+                .fileName(truncate(fileName, 255))
+                .fileSha256(sha256)
+                .channel(channel != null && !channel.isBlank() ? truncate(channel.trim().toUpperCase(), 50) : "BULK")
+                .description(description)
+                .status(rejected ? BulkCreditBatch.BatchStatus.REJECTED : BulkCreditBatch.BatchStatus.PENDING)
+                .totalLines(checked.size())
+                .totalAmount(checked.stream().map(Checked::amount).filter(Objects::nonNull)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add))
+                .postedLines(0)
+                .postedAmount(BigDecimal.ZERO)
+                .failedLines(0)
+                .submittedBy(submittedBy)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        if (!insert(batch, postOrder, rejected)) {
+            // The same file was accepted concurrently; the unique index held this insert until
+            // that submission committed, so its batch is visible now
+            BulkCreditBatch concurrent = batchRepository.findAccepted(tenantId, sha256)
+                    .orElseThrow(() -> BusinessException.conflict("Bulk credit file is already being submitted"));
+            log.info("Bulk credit file {} submitted concurrently as batch {}", sha256, concurrent.getId());
+            return BulkCreditBatchResponse.from(concurrent, List.of());
+        }
+
+        List<BulkCreditLineResponse> errors = List.of();
+        if (rejected) {
+            errors = checked.stream().filter(c -> c.error() != null).limit(MAX_REPORTED_ERRORS)
+                    .map(c -> BulkCreditLineResponse.builder()
+                            .lineNo(c.lineNo())
+                            .account(c.line().getAccount())
+                            .accountId(c.accountId())
+                            .amount(c.amount())
+                            .reference(c.line().getReference())
+                            .status(BulkCreditLine.LineStatus.INVALID.name())
+                            .error(c.error())
+                            .build())
+                    .toList();
+            log.info("Bulk credit batch {} rejected: {} of {} lines invalid", batch.getId(),
+                    checked.stream().filter(c -> c.error() != null).count(), checked.size());
+        } else {
+            poster.startAfterCommit(batch.getId());
+            log.info("Bulk credit batch {} accepted: {} lines, {} in total", batch.getId(),
+                    batch.getTotalLines(), batch.getTotalAmount());
+        }
+        return BulkCreditBatchResponse.from(batch, errors);
+    }
+
+    private record Checked(int lineNo, BulkCreditRequest.Line line, UUID accountId, BigDecimal amount, String error) {}
+
+    private List<Checked> validate(List<BulkCreditRequest.Line> lines, String tenantId) {
+        Map<String, Account> accounts = resolveAccounts(lines, tenantId);
+        Map<String, Integer> references = new HashMap<>();
+        List<Checked> checked = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            BulkCreditRequest.Line line = lines.get(i);
+            int lineNo = i + 1;
+            BigDecimal amount = parseAmount(line.getAmount());
+            Account account = line.getAccount() == null ? null : accounts.get(accountKey(line.getAccount()));
+            String error;
+            if (line.getAccount() == null || line.getAccount().isBlank()) {
+                error = "account is required";
+            } else if (line.getAccount().length() > MAX_ACCOUNT_REF) {
+                error = "account is longer than " + MAX_ACCOUNT_REF + " characters";
+            } else {
+                error = amountError(line.getAmount(), amount);
+            }
+            if (error == null) {
+                if (line.getReference() == null || line.getReference().isBlank()) {
+                    error = "reference is required";
+                } else if (line.getReference().length() > MAX_REFERENCE) {
+                    error = "reference is longer than " + MAX_REFERENCE + " characters";
+                } else if (line.getDescription() != null && line.getDescription().length() > MAX_DESCRIPTION) {
+                    error = "description is longer than " + MAX_DESCRIPTION + " characters";
+                } else {
+                    Integer first = references.putIfAbsent(line.getReference(), lineNo);
+                    if (first != null) error = "reference repeats line " + first;
+                }
+            }
+            if (error == null) {
+                if (account == null) {
+                    error = "account not found";
+                } else if (account.getStatus() != Account.AccountStatus.ACTIVE
+                        && account.getStatus() != Account.AccountStatus.DORMANT) {
+                    // A credit reactivates a dormant account, as the poster does
+                    error = "account is " + account.getStatus();
+                }
+            }
+            checked.add(new Checked(lineNo, line, account != null ? account.getId() : null,
+                    error == null ? amount : null, error));
+        }
+        return checked;
+    }
+
+    // Lines name accounts by number or by id; both are looked up in the tenant, a partition at a time
+    private Map<String, Account> resolveAccounts(List<BulkCreditRequest.Line> lines, String tenantId) {
+        Set<UUID> ids = new HashSet<>();
+        Set<String> numbers = new HashSet<>();
+        for (BulkCreditRequest.Line line : lines) {
+            if (line.getAccount() == null || line.getAccount().isBlank()) continue;
+            String ref = line.getAccount().trim();
+            UUID id = parseUuid(ref);
+            if (id != null) ids.add(id);
+            else numbers.add(ref);
+        }
+        Map<String, Account> accounts = new HashMap<>();
+        for (List<UUID> part : partition(ids)) {
+            accountRepository.findByTenantIdAndIdIn(tenantId, part)
+                    .forEach(a -> accounts.put(a.getId().toString(), a));
+        }
+        for (List<String> part : partition(numbers)) {
+            accountRepository.findByTenantIdAndAccountNumberIn(tenantId, part)
+                    .forEach(a -> accounts.put(a.getAccountNumber(), a));
+        }
+        return accounts;
+    }
+
+    // Ids are matched in any letter case, account numbers exactly
+    private static String accountKey(String ref) {
+        String trimmed = ref.trim();
+        UUID id = parseUuid(trimmed);
+        return id != null ? id.toString() : trimmed;
+    }
+
+    // False if the file is already accepted, in which case no lines are written
+    private boolean insert(BulkCreditBatch batch, List<Checked> postOrder, boolean rejected) {
+        int inserted = jdbc.update("INSERT INTO bulk_credit_batches (id, tenant_id, file_name, file_sha256, " +
+                        "channel, description, status, total_lines, total_amount, submitted_by, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (tenant_id, file_sha256) WHERE status <> 'REJECTED' DO NOTHING",
+                batch.getId(), batch.getTenantId(), batch.getFileName(), batch.getFileSha256(),
+                batch.getChannel(), batch.getDescription(), batch.getStatus().name(), batch.getTotalLines(),
+                batch.getTotalAmount(), batch.getSubmittedBy(), Timestamp.valueOf(batch.getCreatedAt()),
+                Timestamp.valueOf(batch.getUpdatedAt()));
+        if (inserted == 0) return false;
+
+        List<Object[]> rows = new ArrayList<>(Math.min(postOrder.size(), INSERT_BATCH));
+        for (int order = 0; order < postOrder.size(); order++) {
+            Checked c = postOrder.get(order);
+            BulkCreditLine.LineStatus status = c.error() != null ? BulkCreditLine.LineStatus.INVALID
+                    : rejected ? BulkCreditLine.LineStatus.SKIPPED : BulkCreditLine.LineStatus.PENDING;
+            rows.add(new Object[]{batch.getId(), c.lineNo(), order,
+                    truncate(c.line().getAccount() == null ? "" : c.line().getAccount(), MAX_ACCOUNT_REF),
+                    c.accountId(), c.amount(), truncate(c.line().getReference(), MAX_REFERENCE),
+                    truncate(c.line().getDescription(), MAX_DESCRIPTION), status.name(), c.error()});
+            if (rows.size() == INSERT_BATCH || order == postOrder.size() - 1) {
+                jdbc.batchUpdate("INSERT INTO bulk_credit_lines (batch_id, line_no, post_order, account_ref, " +
+                        "account_id, amount, reference, description, status, error) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return true;
+    }
+
+    // ─── Queries ─────────────────────────────────────────────────────────────
+
+    @Transactional(readOnly = true)
+    public BulkCreditBatchResponse getBatch(UUID batchId, String tenantId) {
+        BulkCreditBatch batch = batchRepository.findByIdAndTenantId(batchId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bulk credit batch", batchId));
+        List<BulkCreditLineResponse> errors = List.of();
+        if (batch.getStatus() == BulkCreditBatch.BatchStatus.REJECTED) {
+            errors = lineRepository.findTop100ByBatchIdAndStatusOrderByLineNo(batchId, BulkCreditLine.LineStatus.INVALID)
+                    .stream().map(BulkCreditLineResponse::from).toList();
+        }
+        return BulkCreditBatchResponse.from(batch, errors);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<BulkCreditBatchResponse> listBatches(String tenantId, Pageable pageable) {
+        return PageResponse.from(batchRepository.findByTenantId(tenantId, pageable)
+                .map(b -> BulkCreditBatchResponse.from(b, List.of())));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<BulkCreditLineResponse> getLines(UUID batchId, String status, String tenantId,
+                                                         Pageable pageable) {
+        batchRepository.findByIdAndTenantId(batchId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bulk credit batch", batchId));
+        if (status == null || status.isBlank()) {
+            return PageResponse.from(lineRepository.findByBatchId(batchId, pageable).map(BulkCreditLineResponse::from));
+        }
+        BulkCreditLine.LineStatus lineStatus;
+        try {
+            lineStatus = BulkCreditLine.LineStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw BusinessException.badRequest("Invalid line status: " + status);
+        }
+        return PageResponse.from(lineRepository.findByBatchIdAndStatus(batchId, lineStatus, pageable)
+                .map(BulkCreditLineResponse::from));
+    }
+
+    /** Writes every line's outcome as CSV, streamed from the database in file order. */
+    @Transactional(readOnly = true)
+    public void writeReport(UUID batchId, String tenantId, Writer out) {
+        batchRepository.findByIdAndTenantId(batchId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bulk credit batch", batchId));
+        try {
+            out.write("line,account,amount,reference,status,error,transaction_id,balance_after,posted_at\n");
+            jdbc.query("SELECT line_no, account_ref, amount, reference, status, error, transaction_id, " +
+                            "balance_after, posted_at FROM bulk_credit_lines WHERE batch_id = ? ORDER BY line_no",
+                    rs -> {
+                        try {
+                            out.write(rs.getInt(1) + "," + csv(rs.getString(2)) + "," + csv(rs.getString(3)) + ","
+                                    + csv(rs.getString(4)) + "," + rs.getString(5) + "," + csv(rs.getString(6)) + ","
+                                    + csv(rs.getString(7)) + "," + csv(rs.getString(8)) + ","
+                                    + csv(rs.getTimestamp(9) == null ? null
+                                            : rs.getTimestamp(9).toLocalDateTime().toString()) + "\n");
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, batchId);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────
+
+    private static BigDecimal parseAmount(String amount) {
+        if (amount == null) return null;
+        try {
+            return new BigDecimal(amount.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String amountError(String text, BigDecimal amount) {
+        if (text == null || text.isBlank()) return "amount is required";
+        if (amount == null) return "amount is not a number";
+        if (amount.signum() <= 0) return "amount must be positive";
+        if (amount.stripTrailingZeros().scale() > 2) return "amount has more than 2 decimal places";
+        if (amount.compareTo(MAX_AMOUNT) > 0) return "amount is too large";
+        return null;
+    }
+
+    private static UUID parseUuid(String text) {
+        if (text.length() != 36) return null;
+        try {
+            return UUID.fromString(text);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static <T> List<List<T>> partition(Collection<T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> parts = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += LOOKUP_PARTITION) {
+            parts.add(all.subList(i, Math.min(all.size(), i + LOOKUP_PARTITION)));
+        }
+        return parts;
+    }
+
+    private static String truncate(String text, int length) {
+        return text == null || text.length() <= length ? text : text.substring(0, length);
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
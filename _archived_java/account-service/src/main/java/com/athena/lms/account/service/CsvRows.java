@@ -0,0 +1,61 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Splits an uploaded UTF-8 CSV file into rows of fields, for the bulk file parsers. */
+final class CsvRows {
+
+    private CsvRows() {}
+
+    /**
+     * RFC 4180: comma-separated, fields optionally quoted, "" inside quotes is a quote; blank
+     * rows skipped. {@code what} names the file in errors.
+     */
+    static List<List<String>> parse(byte[] content, String what) {
+        String text = new String(content, StandardCharsets.UTF_8);
+        if (text.startsWith("\uFEFF")) text = text.substring(1);
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean blank = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                blank = false;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+                blank = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') i++;
+                row.add(field.toString());
+                if (!blank || !field.toString().isBlank()) rows.add(row);
+                row = new ArrayList<>();
+                field.setLength(0);
+                blank = true;
+            } else {
+                field.append(c);
+                if (!Character.isWhitespace(c)) blank = false;
+            }
+        }
+        if (quoted) throw BusinessException.badRequest(what + " has an unterminated quoted field");
+        row.add(field.toString());
+        if (!blank) rows.add(row);
+        return rows;
+    }
+}
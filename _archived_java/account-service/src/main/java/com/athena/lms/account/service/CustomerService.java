@@ -6,6 +6,7 @@ import com.athena.lms.account.dto.response.CustomerResponse;
 import com.athena.lms.account.entity.Customer;
 import com.athena.lms.account.event.AccountEventPublisher;
 import com.athena.lms.account.repository.CustomerRepository;
+import com.athena.lms.account.search.SearchIndexService;
 import com.athena.lms.common.dto.PageResponse;
 import com.athena.lms.common.exception.BusinessException;
 import com.athena.lms.common.exception.ResourceNotFoundException;
@@ -17,7 +18,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +32,7 @@ public class CustomerService {
 
     private final CustomerRepository customerRepository;
     private final AccountEventPublisher eventPublisher;
+    private final SearchIndexService searchIndexService;
 
     @Transactional
     public CustomerResponse createCustomer(CreateCustomerRequest req, String tenantId) {
@@ -123,12 +129,32 @@ public class CustomerService {
         return CustomerResponse.from(customer);
     }
 
+    /** Multi-get by business customerId; ids not found in the tenant are omitted. */
     @Transactional(readOnly = true)
-    public List<CustomerResponse> searchCustomers(String q, String tenantId) {
-        return customerRepository.searchByTenantAndQuery(tenantId, q)
+    public List<CustomerResponse> getByCustomerIds(List<String> customerIds, String tenantId) {
+        return customerRepository.findByTenantIdAndCustomerIdIn(tenantId, customerIds)
                 .stream().map(CustomerResponse::from).collect(Collectors.toList());
     }
 
+    /**
+     * Ranked matches on name (including sound-alike spellings), customer id, phone and email from
+     * the in-memory index; the database's trigram-indexed query while the index is loading.
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerResponse> searchCustomers(String q, String tenantId, int page, int size) {
+        int limit = Math.max(1, Math.min(size, SearchIndexService.MAX_PAGE_SIZE));
+        Optional<List<UUID>> ranked = searchIndexService.searchCustomers(tenantId, q, Math.max(0, page), limit);
+        if (ranked.isEmpty()) {
+            return customerRepository.searchByTenantAndQuery(tenantId, q, limit, Math.max(0, page) * limit)
+                    .stream().map(CustomerResponse::from).collect(Collectors.toList());
+        }
+        Map<UUID, Customer> byId = customerRepository.findAllById(ranked.get()).stream()
+                .filter(c -> tenantId.equals(c.getTenantId()))
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        return ranked.get().stream().map(byId::get).filter(Objects::nonNull)
+                .map(CustomerResponse::from).collect(Collectors.toList());
+    }
+
     private LocalDate parseDate(String dateStr) {
         if (dateStr == null || dateStr.isBlank()) return null;
         return LocalDate.parse(dateStr);
@@ -0,0 +1,147 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.event.AccountEventPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks accounts dormant once their customer has not moved money for lms.dormancy.inactive-days.
+ *
+ * Accounts are walked in id order, a chunk per transaction, and each chunk is one UPDATE that
+ * reads last_customer_activity_at from the account row itself. Rows locked by a credit or
+ * debit in flight are skipped rather than waited for; they are active anyway. So replicas
+ * can sweep at the same time without coordinating, and an account's transaction never waits
+ * on the sweep. Each chunk's dormant accounts go out as one account.dormant event per tenant.
+ * Reactivation needs no sweep: the next movement does it (see AccountMovements).
+ */
+@Service
+@Slf4j
+public class DormancySweeper {
+
+    private static final String MARK_SQL =
+            "UPDATE accounts a SET status = 'DORMANT', updated_at = ? " +
+            "FROM (SELECT id FROM accounts WHERE id = ANY(?) AND status = 'ACTIVE' " +
+            "      AND last_customer_activity_at < ? FOR UPDATE SKIP LOCKED) d " +
+            "WHERE a.id = d.id " +
+            "RETURNING a.id, a.tenant_id, a.account_number, a.customer_id, a.last_customer_activity_at";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final AccountEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int inactiveDays;
+    private final int chunkSize;
+    private final int sweepMinutes;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "dormancy-sweep");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public DormancySweeper(DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           AccountEventPublisher eventPublisher,
+                           @Value("${lms.dormancy.enabled:true}") boolean enabled,
+                           @Value("${lms.dormancy.inactive-days:365}") int inactiveDays,
+                           @Value("${lms.dormancy.chunk-size:5000}") int chunkSize,
+                           @Value("${lms.dormancy.sweep-minutes:360}") int sweepMinutes) {
+        this(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager), eventPublisher, enabled,
+                inactiveDays, chunkSize, sweepMinutes);
+    }
+
+    DormancySweeper(JdbcTemplate jdbc, TransactionTemplate transaction, AccountEventPublisher eventPublisher,
+                    boolean enabled, int inactiveDays, int chunkSize, int sweepMinutes) {
+        this.jdbc = jdbc;
+        this.transaction = transaction;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.inactiveDays = inactiveDays;
+        this.chunkSize = chunkSize;
+        this.sweepMinutes = sweepMinutes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Dormancy sweep disabled");
+            return;
+        }
+        sweeper.scheduleWithFixedDelay(this::sweep, 5, sweepMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    void sweep() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp cutoff = Timestamp.valueOf(now.minusDays(inactiveDays));
+        int scanned = 0;
+        int marked = 0;
+        try {
+            UUID after = null;
+            List<UUID> chunk;
+            do {
+                chunk = nextAccounts(after);
+                if (chunk.isEmpty()) break;
+                List<UUID> ids = chunk;
+                List<Dormant> dormant = transaction.execute(status -> mark(ids, cutoff, now));
+                publish(dormant);
+                scanned += chunk.size();
+                marked += dormant.size();
+                after = chunk.get(chunk.size() - 1);
+            } while (chunk.size() == chunkSize && !Thread.currentThread().isInterrupted());
+            log.info("Dormancy sweep: {} accounts scanned, {} made dormant in {} ms",
+                    scanned, marked, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.warn("Dormancy sweep stopped after {} accounts: {}", scanned, e.getMessage());
+        }
+    }
+
+    private record Dormant(String tenantId, AccountEventPublisher.DormantAccount account) {}
+
+    private List<UUID> nextAccounts(UUID after) {
+        return after == null
+                ? jdbc.queryForList("SELECT id FROM accounts ORDER BY id LIMIT ?", UUID.class, chunkSize)
+                : jdbc.queryForList("SELECT id FROM accounts WHERE id > ? ORDER BY id LIMIT ?", UUID.class, after, chunkSize);
+    }
+
+    private List<Dormant> mark(List<UUID> accountIds, Timestamp cutoff, LocalDateTime now) {
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(MARK_SQL);
+            ps.setTimestamp(1, Timestamp.valueOf(now));
+            ps.setArray(2, con.createArrayOf("uuid", accountIds.toArray()));
+            ps.setTimestamp(3, cutoff);
+            return ps;
+        }, (rs, i) -> new Dormant(rs.getString(2), new AccountEventPublisher.DormantAccount(
+                rs.getObject(1, UUID.class), rs.getString(3), rs.getString(4), rs.getTimestamp(5).toLocalDateTime())));
+    }
+
+    private void publish(List<Dormant> dormant) {
+        Map<String, List<AccountEventPublisher.DormantAccount>> byTenant = new HashMap<>();
+        for (Dormant d : dormant) {
+            byTenant.computeIfAbsent(d.tenantId(), t -> new ArrayList<>()).add(d.account());
+        }
+        byTenant.forEach((tenantId, accounts) -> eventPublisher.publishDormant(accounts, inactiveDays, tenantId));
+    }
+}
@@ -0,0 +1,136 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.dto.response.TransactionResponse;
+import com.athena.lms.account.repository.AccountTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Answers "has this idempotency key been used?" for credits and debits without a query in the
+ * common case, where the key is new. A Bloom filter of every committed key (loaded at startup,
+ * extended as transactions commit) rules most keys out in memory; recently used keys and their
+ * responses are kept in a small LRU; only a possible hit costs a lookup. Keys committed by other
+ * replicas since this one started are not in its filter, so the unique constraint on
+ * idempotency_key remains the guarantee: {@link #replayOnConflict} turns its violation into the
+ * original response. Until the startup load completes every key is looked up, as before.
+ */
+@Service
+@Slf4j
+public class IdempotencyGuard {
+
+    private final AccountTransactionRepository transactionRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ScalableBloomFilter committedKeys;
+    private final Map<String, TransactionResponse> recent;
+    private volatile boolean loaded;
+
+    public IdempotencyGuard(AccountTransactionRepository transactionRepository,
+                            DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${lms.idempotency.expected-keys:1000000}") long expectedKeys,
+                            @Value("${lms.idempotency.false-positive-rate:0.001}") double falsePositiveRate,
+                            @Value("${lms.idempotency.recent-size:10000}") int recentSize) {
+        this.transactionRepository = transactionRepository;
+        this.jdbc = new JdbcTemplate(dataSource);
+        // The startup load streams the key column through a cursor instead of materialising it
+        this.jdbc.setFetchSize(10_000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.committedKeys = new ScalableBloomFilter(expectedKeys, falsePositiveRate);
+        this.recent = new LinkedHashMap<>(Math.max(16, recentSize * 4 / 3), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TransactionResponse> eldest) {
+                return size() > recentSize;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCommittedKeys() {
+        long started = System.currentTimeMillis();
+        try {
+            // Keys committed while this runs are added by their own transactions
+            readOnlyTransaction.executeWithoutResult(status -> jdbc.query(
+                    "SELECT idempotency_key FROM account_transactions WHERE idempotency_key IS NOT NULL",
+                    rs -> { committedKeys.add(rs.getString(1)); }));
+            loaded = true;
+            log.info("Idempotency filter loaded: {} keys, {} stage(s), {} KiB in {} ms",
+                    committedKeys.approximateCount(), committedKeys.stageCount(),
+                    committedKeys.bitCount() / 8 / 1024, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Could not load idempotency keys, every key will be looked up: {}", e.getMessage(), e);
+        }
+    }
+
+    /** The response of the transaction that already used this key, if any. */
+    public Optional<TransactionResponse> findPrevious(String key) {
+        TransactionResponse cached;
+        synchronized (recent) {
+            cached = recent.get(key);
+        }
+        if (cached != null) return Optional.of(cached);
+        if (loaded && !committedKeys.mightContain(key)) return Optional.empty();
+
+        Optional<TransactionResponse> previous = transactionRepository.findByIdempotencyKey(key)
+                .map(TransactionResponse::from);
+        previous.ifPresent(response -> remember(key, response));
+        return previous;
+    }
+
+    /** Marks the key as used once the current transaction commits; a rollback leaves it free. */
+    public void recordOnCommit(String key, TransactionResponse response) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(key, response);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(key, response);
+            }
+        });
+    }
+
+    /**
+     * Runs a keyed credit or debit. If a concurrent request, or one served by another replica,
+     * committed the same key first, the operation fails on the unique constraint and rolls back;
+     * the original transaction's response is returned instead.
+     */
+    public TransactionResponse replayOnConflict(String key, Supplier<TransactionResponse> operation) {
+        try {
+            return operation.get();
+        } catch (DataIntegrityViolationException e) {
+            if (key == null) throw e;
+            Optional<TransactionResponse> original = transactionRepository.findByIdempotencyKey(key)
+                    .map(TransactionResponse::from);
+            if (original.isEmpty()) throw e;
+            log.info("Idempotency key {} was committed concurrently, replaying transaction {}",
+                    key, original.get().getId());
+            remember(key, original.get());
+            return original.get();
+        }
+    }
+
+    private void remember(String key, TransactionResponse response) {
+        committedKeys.add(key);
+        synchronized (recent) {
+            recent.put(key, response);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.common.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads an onboarding file into rows, without judging their content. CSV needs a header row
+ * naming at least the customer id, first name and last name columns, in any order; the
+ * account columns are optional and a row without an account type opens no account. JSON is
+ * either an array of rows or an object with a "customers" array, keyed by the same names in
+ * camel case. As with bulk credit files, only structural problems reject the whole file.
+ */
+final class OnboardingFileParser {
+
+    record Row(String customerId, String firstName, String lastName, String email, String phone,
+               String dateOfBirth, String nationalId, String gender, String address, String customerType,
+               String accountType, String currency, String kycTier, String accountName) {}
+
+    // Field names in Row order; CSV headers match them in any case, with or without underscores
+    private static final String[] FIELDS = {"customerId", "firstName", "lastName", "email", "phone",
+            "dateOfBirth", "nationalId", "gender", "address", "customerType",
+            "accountType", "currency", "kycTier", "accountName"};
+
+    private static final Map<String, Integer> COLUMNS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < FIELDS.length; i++) {
+            COLUMNS.put(FIELDS[i].toLowerCase(Locale.ROOT), i);
+        }
+        COLUMNS.put("phonenumber", 4);
+        COLUMNS.put("dob", 5);
+    }
+
+    private OnboardingFileParser() {}
+
+    static List<Row> parse(String fileName, String contentType, byte[] content,
+                           ObjectMapper objectMapper, int maxRows) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        boolean json = name.endsWith(".json") || (contentType != null && contentType.contains("json"));
+        return json ? parseJson(content, objectMapper, maxRows) : parseCsv(content, maxRows);
+    }
+
+    static List<Row> parseJson(byte[] content, ObjectMapper objectMapper, int maxRows) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(content);
+        } catch (JsonProcessingException e) {
+            throw BusinessException.badRequest("Onboarding file is not valid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw BusinessException.badRequest("Onboarding file could not be read: " + e.getMessage());
+        }
+        JsonNode rows = root != null && root.isObject() ? root.get("customers") : root;
+        if (rows == null || !rows.isArray()) {
+            throw BusinessException.badRequest("Onboarding JSON must be an array of customers or have a \"customers\" array");
+        }
+        checkSize(rows.size(), maxRows);
+        List<Row> parsed = new ArrayList<>(rows.size());
+        for (JsonNode row : rows) {
+            String[] values = new String[FIELDS.length];
+            for (int i = 0; i < FIELDS.length; i++) {
+                JsonNode value = row.get(FIELDS[i]);
+                values[i] = value == null || value.isNull() || value.asText().isBlank() ? null : value.asText().trim();
+            }
+            parsed.add(row(values));
+        }
+        return parsed;
+    }
+
+    static List<Row> parseCsv(byte[] content, int maxRows) {
+        List<List<String>> rows = CsvRows.parse(content, "Onboarding CSV");
+        if (rows.isEmpty()) throw BusinessException.badRequest("Onboarding file is empty");
+
+        List<String> header = rows.get(0);
+        int[] columns = new int[FIELDS.length];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < header.size(); i++) {
+            Integer field = COLUMNS.get(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", ""));
+            if (field != null && columns[field] < 0) columns[field] = i;
+        }
+        if (columns[0] < 0 || columns[1] < 0 || columns[2] < 0) {
+            throw BusinessException.badRequest("Onboarding CSV header must name customer_id, first_name and last_name columns");
+        }
+        checkSize(rows.size() - 1, maxRows);
+        List<Row> parsed = new ArrayList<>(rows.size() - 1);
+        for (List<String> row : rows.subList(1, rows.size())) {
+            String[] values = new String[FIELDS.length];
+            for (int i = 0; i < FIELDS.length; i++) {
+                values[i] = cell(row, columns[i]);
+            }
+            parsed.add(row(values));
+        }
+        return parsed;
+    }
+
+    private static Row row(String[] v) {
+        return new Row(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7], v[8], v[9], v[10], v[11], v[12], v[13]);
+    }
+
+    private static void checkSize(int rows, int maxRows) {
+        if (rows == 0) throw BusinessException.badRequest("Onboarding file has no rows");
+        if (rows > maxRows) {
+            throw BusinessException.badRequest("Onboarding file has " + rows + " rows; at most " + maxRows + " are accepted");
+        }
+    }
+
+    private static String cell(List<String> row, int column) {
+        if (column < 0 || column >= row.size()) return null;
+        String value = row.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,333 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.dto.response.OnboardingImportResponse;
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.Customer;
+import com.athena.lms.account.entity.OnboardingImport;
+import com.athena.lms.account.entity.OnboardingImport.ImportStatus;
+import com.athena.lms.account.repository.OnboardingImportRepository;
+import com.athena.lms.common.dto.PageResponse;
+import com.athena.lms.common.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Accepts onboarding files, a tenant's customers with an account each where wanted, and
+ * reports on them.
+ *
+ * The whole file is checked in memory before anything is written: customer ids are matched
+ * against a set of the tenant's existing ids, loaded with one streaming query, rather than
+ * looked up row by row. A row for a customer the tenant already has is SKIPPED, so a file cut
+ * short can be submitted again as it is; a row with bad values is INVALID and the rest of the
+ * file still imports. A dry run stops there and keeps only the rows that would not import,
+ * for the report. Otherwise the rows are staged and imported in the background by
+ * {@link OnboardingImporter}.
+ */
+@Service
+@Slf4j
+public class OnboardingImportService {
+
+    private static final int INSERT_BATCH = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final OnboardingImportRepository importRepository;
+    private final OnboardingImporter importer;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbc;
+    private final int maxRows;
+
+    @Autowired
+    public OnboardingImportService(OnboardingImportRepository importRepository,
+                                   OnboardingImporter importer,
+                                   ObjectMapper objectMapper,
+                                   DataSource dataSource,
+                                   @Value("${lms.onboarding.max-rows:500000}") int maxRows) {
+        this(importRepository, importer, objectMapper, new JdbcTemplate(dataSource), maxRows);
+        this.jdbc.setFetchSize(10000);
+    }
+
+    OnboardingImportService(OnboardingImportRepository importRepository, OnboardingImporter importer,
+                            ObjectMapper objectMapper, JdbcTemplate jdbc, int maxRows) {
+        this.importRepository = importRepository;
+        this.importer = importer;
+        this.objectMapper = objectMapper;
+        this.jdbc = jdbc;
+        this.maxRows = maxRows;
+    }
+
+    // ─── Submission ──────────────────────────────────────────────────────────
+
+    @Transactional
+    public OnboardingImportResponse submitFile(String fileName, String contentType, byte[] content, boolean dryRun,
+                                               String tenantId, String submittedBy) {
+        List<OnboardingFileParser.Row> rows =
+                OnboardingFileParser.parse(fileName, contentType, content, objectMapper, maxRows);
+        List<Checked> checked = validate(rows, existingCustomerIds(tenantId));
+
+        int invalid = 0;
+        int skipped = 0;
+        for (Checked c : checked) {
+            if (c.status() == RowStatus.INVALID) invalid++;
+            else if (c.status() == RowStatus.SKIPPED) skipped++;
+        }
+        int valid = checked.size() - invalid - skipped;
+        ImportStatus status = dryRun ? ImportStatus.VALIDATED
+                : valid > 0 ? ImportStatus.PENDING
+                : invalid > 0 ? ImportStatus.COMPLETED_WITH_ERRORS : ImportStatus.COMPLETED;
+
+        LocalDateTime now = LocalDateTime.now();
+        OnboardingImport imp = OnboardingImport.builder()
+                .id(UUID.randomUUID())
+                .tenantId(tenantId)
+                .fileName(truncate(fileName, 255))
+                .fileSha256(sha256(content))
+                .dryRun(dryRun)
+                .status(status)
+                .totalRows(checked.size())
+                .validRows(valid)
+                .invalidRows(invalid)
+                .skippedRows(skipped)
+                .submittedBy(submittedBy)
+                .createdAt(now)
+                .updatedAt(now)
+                .completedAt(status == ImportStatus.PENDING ? null : now)
+                .build();
+        insert(imp, checked);
+
+        if (status == ImportStatus.PENDING) {
+            importer.startAfterCommit(imp.getId());
+        }
+        log.info("Onboarding {} {} for tenant {}: {} rows, {} valid, {} invalid, {} already customers",
+                dryRun ? "dry run" : "import", imp.getId(), tenantId, checked.size(), valid, invalid, skipped);
+        List<OnboardingImportResponse.RowError> errors = checked.stream()
+                .filter(c -> c.error() != null).limit(MAX_REPORTED_ERRORS)
+                .map(c -> new OnboardingImportResponse.RowError(c.rowNo(), c.row().customerId(), c.status().name(), c.error()))
+                .toList();
+        return OnboardingImportResponse.from(imp, errors);
+    }
+
+    private enum RowStatus { INVALID, SKIPPED, PENDING }
+
+    private record Checked(int rowNo, OnboardingFileParser.Row row, RowStatus status, String error,
+                           LocalDate dateOfBirth, String customerType, String accountType,
+                           String currency, Integer kycTier) {}
+
+    private Set<String> existingCustomerIds(String tenantId) {
+        Set<String> ids = new HashSet<>();
+        jdbc.query("SELECT customer_id FROM customers WHERE tenant_id = ?",
+                rs -> {
+                    ids.add(rs.getString(1));
+                },
+                tenantId);
+        return ids;
+    }
+
+    private static List<Checked> validate(List<OnboardingFileParser.Row> rows, Set<String> existing) {
+        Map<String, Integer> seen = new HashMap<>();
+        List<Checked> checked = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            OnboardingFileParser.Row row = rows.get(i);
+            int rowNo = i + 1;
+            String error = customerError(row);
+
+            LocalDate dateOfBirth = null;
+            if (error == null && row.dateOfBirth() != null) {
+                try {
+                    dateOfBirth = LocalDate.parse(row.dateOfBirth());
+                    if (dateOfBirth.isAfter(LocalDate.now())) error = "dateOfBirth is in the future";
+                } catch (DateTimeParseException e) {
+                    error = "dateOfBirth must be YYYY-MM-DD";
+                }
+            }
+            String customerType = Customer.CustomerType.INDIVIDUAL.name();
+            if (error == null && row.customerType() != null) {
+                customerType = row.customerType().toUpperCase();
+                if (!isEnum(Customer.CustomerType.class, customerType)) error = "Invalid customerType: " + row.customerType();
+            }
+
+            String accountType = row.accountType() != null ? row.accountType().toUpperCase() : null;
+            String currency = row.currency() != null ? row.currency().toUpperCase() : "KES";
+            Integer kycTier = 0;
+            if (error == null) {
+                if (accountType == null) {
+                    if (row.currency() != null || row.kycTier() != null || row.accountName() != null) {
+                        error = "accountType is required to open an account";
+                    }
+                } else if (!isEnum(Account.AccountType.class, accountType)) {
+                    error = "Invalid accountType: " + row.accountType();
+                } else if (currency.length() != 3) {
+                    error = "currency must be a three-letter code";
+                } else if (row.accountName() != null && row.accountName().length() > 100) {
+                    error = "accountName is longer than 100 characters";
+                } else if (row.kycTier() != null) {
+                    try {
+                        kycTier = Integer.parseInt(row.kycTier());
+                        if (kycTier < 0 || kycTier > 3) error = "kycTier must be 0 to 3";
+                    } catch (NumberFormatException e) {
+                        error = "kycTier must be 0 to 3";
+                    }
+                }
+            }
+            if (error == null) {
+                Integer first = seen.putIfAbsent(row.customerId(), rowNo);
+                if (first != null) error = "customerId repeats row " + first;
+            }
+
+            RowStatus status = error != null ? RowStatus.INVALID : RowStatus.PENDING;
+            if (status == RowStatus.PENDING && existing.contains(row.customerId())) {
+                status = RowStatus.SKIPPED;
+                error = "Customer already exists";
+            }
+            checked.add(new Checked(rowNo, row, status, error, dateOfBirth, customerType,
+                    accountType, accountType != null ? currency : null, accountType != null ? kycTier : null));
+        }
+        return checked;
+    }
+
+    private static String customerError(OnboardingFileParser.Row row) {
+        if (row.customerId() == null) return "customerId is required";
+        if (row.customerId().length() > 100) return "customerId is longer than 100 characters";
+        if (row.firstName() == null) return "firstName is required";
+        if (row.firstName().length() > 100) return "firstName is longer than 100 characters";
+        if (row.lastName() == null) return "lastName is required";
+        if (row.lastName().length() > 100) return "lastName is longer than 100 characters";
+        if (row.email() != null && (row.email().length() > 200 || row.email().indexOf('@') < 1)) return "email is not valid";
+        if (row.phone() != null && row.phone().length() > 30) return "phone is longer than 30 characters";
+        if (row.nationalId() != null && row.nationalId().length() > 50) return "nationalId is longer than 50 characters";
+        if (row.gender() != null && row.gender().length() > 10) return "gender is longer than 10 characters";
+        return null;
+    }
+
+    // A dry run keeps only the rows that would not import
+    private void insert(OnboardingImport imp, List<Checked> checked) {
+        jdbc.update("INSERT INTO onboarding_imports (id, tenant_id, file_name, file_sha256, dry_run, status, " +
+                        "total_rows, valid_rows, invalid_rows, skipped_rows, submitted_by, created_at, updated_at, " +
+                        "completed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                imp.getId(), imp.getTenantId(), imp.getFileName(), imp.getFileSha256(), imp.isDryRun(),
+                imp.getStatus().name(), imp.getTotalRows(), imp.getValidRows(), imp.getInvalidRows(),
+                imp.getSkippedRows(), imp.getSubmittedBy(), Timestamp.valueOf(imp.getCreatedAt()),
+                Timestamp.valueOf(imp.getUpdatedAt()),
+                imp.getCompletedAt() != null ? Timestamp.valueOf(imp.getCompletedAt()) : null);
+
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < checked.size(); i++) {
+            Checked c = checked.get(i);
+            if (!imp.isDryRun() || c.status() != RowStatus.PENDING) {
+                OnboardingFileParser.Row r = c.row();
+                rows.add(new Object[]{imp.getId(), c.rowNo(), truncate(r.customerId(), 100), truncate(r.firstName(), 100),
+                        truncate(r.lastName(), 100), truncate(r.email(), 200), truncate(r.phone(), 30),
+                        c.dateOfBirth() != null ? Date.valueOf(c.dateOfBirth()) : null, truncate(r.nationalId(), 50),
+                        truncate(r.gender(), 10), r.address(), truncate(c.customerType(), 20),
+                        truncate(c.accountType(), 20), truncate(c.currency(), 3), c.kycTier(),
+                        truncate(r.accountName(), 100), c.status().name(), truncate(c.error(), 255)});
+            }
+            if (rows.size() == INSERT_BATCH || (i == checked.size() - 1 && !rows.isEmpty())) {
+                jdbc.batchUpdate("INSERT INTO onboarding_import_rows (import_id, row_no, customer_id, first_name, " +
+                        "last_name, email, phone, date_of_birth, national_id, gender, address, customer_type, " +
+                        "account_type, currency, kyc_tier, account_name, status, error) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    // ─── Queries ─────────────────────────────────────────────────────────────
+
+    @Transactional(readOnly = true)
+    public OnboardingImportResponse getImport(UUID importId, String tenantId) {
+        OnboardingImport imp = find(importId, tenantId);
+        List<OnboardingImportResponse.RowError> errors = jdbc.query(
+                "SELECT row_no, customer_id, status, error FROM onboarding_import_rows " +
+                "WHERE import_id = ? AND status IN ('INVALID', 'SKIPPED', 'FAILED') ORDER BY row_no LIMIT ?",
+                (rs, i) -> new OnboardingImportResponse.RowError(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+                importId, MAX_REPORTED_ERRORS);
+        return OnboardingImportResponse.from(imp, errors);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<OnboardingImportResponse> listImports(String tenantId, Pageable pageable) {
+        return PageResponse.from(importRepository.findByTenantId(tenantId, pageable)
+                .map(i -> OnboardingImportResponse.from(i, List.of())));
+    }
+
+    /**
+     * Writes each stored row's outcome as CSV in file order: every row of an import, and the
+     * rows that would not import for a dry run.
+     */
+    @Transactional(readOnly = true)
+    public void writeReport(UUID importId, String tenantId, Writer out) {
+        find(importId, tenantId);
+        try {
+            out.write("row,customer_id,status,error,customer_uuid,account_id,account_number\n");
+            jdbc.query("SELECT row_no, customer_id, status, error, customer_uuid, account_id, account_number " +
+                            "FROM onboarding_import_rows WHERE import_id = ? ORDER BY row_no",
+                    rs -> {
+                        try {
+                            out.write(rs.getInt(1) + "," + csv(rs.getString(2)) + "," + rs.getString(3) + ","
+                                    + csv(rs.getString(4)) + "," + csv(rs.getString(5)) + ","
+                                    + csv(rs.getString(6)) + "," + csv(rs.getString(7)) + "\n");
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, importId);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private OnboardingImport find(UUID importId, String tenantId) {
+        return importRepository.findByIdAndTenantId(importId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Onboarding import", importId));
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────
+
+    private static <E extends Enum<E>> boolean isEnum(Class<E> type, String value) {
+        try {
+            Enum.valueOf(type, value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String truncate(String text, int length) {
+        return text == null || text.length() <= length ? text : text.substring(0, length);
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.event.AccountEventPublisher;
+import com.athena.lms.common.sequence.SequenceFormat;
+import com.athena.lms.common.sequence.SequenceService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Imports staged onboarding rows, a chunk per transaction.
+ *
+ * Each chunk inserts its customers, accounts and zero balances as JDBC batches. Account
+ * numbers come from the account-number sequence a chunk's worth at a time, with one upsert,
+ * instead of the replica's block of 100 that single openings draw from; the counter is shared
+ * by every tenant whose numbers render alike, so they need no check against existing ones.
+ * A customer created since the file was checked makes its row fail on its own, without an
+ * account. Imports are claimed with a lease that every chunk renews, and resumed by any
+ * replica's sweep once it lapses, as BulkCreditPoster does for bulk credits.
+ *
+ * customer.created and account.created go out once a chunk has committed, over one channel,
+ * and rows are marked notified afterwards, so events lost to a crash are sent on resume.
+ */
+@Service
+@Slf4j
+public class OnboardingImporter {
+
+    private static final String ACCOUNT_NUMBER = "account-number";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final AccountEventPublisher eventPublisher;
+    private final SequenceService sequenceService;
+    private final int chunkSize;
+    private final int leaseSeconds;
+    private final int sweepSeconds;
+    private final String owner;
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            daemon("onboarding-import-sweep"));
+
+    @Autowired
+    public OnboardingImporter(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              AccountEventPublisher eventPublisher,
+                              SequenceService sequenceService,
+                              @Value("${lms.onboarding.chunk-size:1000}") int chunkSize,
+                              @Value("${lms.onboarding.workers:1}") int workers,
+                              @Value("${lms.onboarding.lease-seconds:120}") int leaseSeconds,
+                              @Value("${lms.onboarding.sweep-seconds:60}") int sweepSeconds) {
+        this(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager), eventPublisher,
+                sequenceService, chunkSize, workers, leaseSeconds, sweepSeconds);
+    }
+
+    OnboardingImporter(JdbcTemplate jdbc, TransactionTemplate transaction, AccountEventPublisher eventPublisher,
+                       SequenceService sequenceService, int chunkSize, int workers, int leaseSeconds,
+                       int sweepSeconds) {
+        this.jdbc = jdbc;
+        this.transaction = transaction;
+        this.eventPublisher = eventPublisher;
+        this.sequenceService = sequenceService;
+        this.chunkSize = chunkSize;
+        this.leaseSeconds = leaseSeconds;
+        this.sweepSeconds = sweepSeconds;
+        this.workers = Executors.newFixedThreadPool(workers, daemon("onboarding-import"));
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSweeping() {
+        sweeper.scheduleWithFixedDelay(this::resumeAbandoned, 0, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // An interrupted chunk rolls back; the lease lapses and another replica resumes the import
+        sweeper.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /** Starts importing once the current transaction, which staged the rows, commits. */
+    public void startAfterCommit(UUID importId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(importId);
+            }
+        });
+    }
+
+    void resumeAbandoned() {
+        try {
+            List<UUID> open = jdbc.queryForList(
+                    "SELECT id FROM onboarding_imports WHERE status IN ('PENDING', 'PROCESSING') " +
+                    "AND (claimed_until IS NULL OR claimed_until < NOW()) ORDER BY created_at", UUID.class);
+            open.forEach(this::submit);
+        } catch (RuntimeException e) {
+            log.warn("Onboarding import sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void submit(UUID importId) {
+        if (!running.add(importId)) return;
+        try {
+            workers.execute(() -> {
+                try {
+                    process(importId);
+                } finally {
+                    running.remove(importId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(importId);
+        }
+    }
+
+    // ─── Importing ───────────────────────────────────────────────────────────
+
+    private record Import(UUID id, String tenantId) {}
+
+    private record Row(int rowNo, String customerId, String firstName, String lastName, String email, String phone,
+                       LocalDate dateOfBirth, String nationalId, String gender, String address, String customerType,
+                       String accountType, String currency, Integer kycTier, String accountName) {}
+
+    private record Outcome(int rowNo, UUID customerUuid, String customerId, UUID accountId, String accountNumber,
+                           String error) {}
+
+    /** Thrown inside a chunk when another replica has taken the import over; rolls the chunk back. */
+    private static final class LeaseLostException extends RuntimeException {
+        LeaseLostException(UUID importId) {
+            super("Lease on onboarding import " + importId + " lost");
+        }
+    }
+
+    void process(UUID importId) {
+        if (!claim(importId)) return;
+        Import imp = jdbc.queryForObject("SELECT id, tenant_id FROM onboarding_imports WHERE id = ?",
+                (rs, i) -> new Import(rs.getObject(1, UUID.class), rs.getString(2)), importId);
+        long started = System.currentTimeMillis();
+        try {
+            notifyImported(imp);
+            int rows = 0;
+            List<Outcome> chunk;
+            do {
+                chunk = transaction.execute(status -> importChunk(imp));
+                notify(imp, chunk);
+                rows += chunk.size();
+            } while (!chunk.isEmpty());
+            complete(imp, rows, System.currentTimeMillis() - started);
+        } catch (LeaseLostException e) {
+            log.warn(e.getMessage());
+        } catch (RuntimeException e) {
+            // The lease is left to lapse, which spaces out retries by the lease length
+            log.error("Onboarding import {} stopped, will resume: {}", importId, e.getMessage(), e);
+        }
+    }
+
+    private boolean claim(UUID importId) {
+        return jdbc.update("UPDATE onboarding_imports SET status = 'PROCESSING', claimed_by = ?, " +
+                "claimed_until = NOW() + make_interval(secs => ?), updated_at = NOW() " +
+                "WHERE id = ? AND status IN ('PENDING', 'PROCESSING') " +
+                "AND (claimed_until IS NULL OR claimed_until < NOW() OR claimed_by = ?)",
+                owner, leaseSeconds, importId, owner) == 1;
+    }
+
+    private List<Outcome> importChunk(Import imp) {
+        List<Row> rows = jdbc.query(
+                "SELECT row_no, customer_id, first_name, last_name, email, phone, date_of_birth, national_id, " +
+                "gender, address, customer_type, account_type, currency, kyc_tier, account_name " +
+                "FROM onboarding_import_rows WHERE import_id = ? AND status = 'PENDING' ORDER BY row_no LIMIT ?",
+                (rs, i) -> new Row(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                        rs.getString(6), rs.getObject(7, LocalDate.class), rs.getString(8), rs.getString(9),
+                        rs.getString(10), rs.getString(11), rs.getString(12), rs.getString(13),
+                        (Integer) rs.getObject(14), rs.getString(15)),
+                imp.id(), chunkSize);
+        if (rows.isEmpty()) return List.of();
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<UUID> customerUuids = new ArrayList<>(rows.size());
+        List<Object[]> customers = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            UUID id = UUID.randomUUID();
+            customerUuids.add(id);
+            customers.add(new Object[]{id, imp.tenantId(), row.customerId(), row.firstName(), row.lastName(),
+                    row.email(), row.phone(), row.dateOfBirth() != null ? Date.valueOf(row.dateOfBirth()) : null,
+                    row.nationalId(), row.gender(), row.address(), row.customerType(), now, now});
+        }
+        int[] inserted = jdbc.batchUpdate("INSERT INTO customers (id, tenant_id, customer_id, first_name, last_name, " +
+                "email, phone, date_of_birth, national_id, gender, address, customer_type, status, kyc_status, source, " +
+                "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE', 'PENDING', 'API', ?, ?) " +
+                "ON CONFLICT (tenant_id, customer_id) DO NOTHING", customers);
+
+        int opening = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (inserted[i] == 1 && rows.get(i).accountType() != null) opening++;
+        }
+        Iterator<String> numbers = accountNumbers(imp.tenantId(), opening).iterator();
+
+        List<Outcome> outcomes = new ArrayList<>(rows.size());
+        List<Object[]> accounts = new ArrayList<>(opening);
+        List<Object[]> balances = new ArrayList<>(opening);
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            if (inserted[i] != 1) {
+                outcomes.add(new Outcome(row.rowNo(), null, row.customerId(), null, null,
+                        "Customer already exists"));
+                continue;
+            }
+            UUID accountId = null;
+            String accountNumber = null;
+            if (row.accountType() != null) {
+                accountId = UUID.randomUUID();
+                accountNumber = numbers.next();
+                Account limits = Account.builder().build();
+                AccountService.applyKycLimits(limits, row.kycTier());
+                accounts.add(new Object[]{accountId, imp.tenantId(), accountNumber, row.customerId(),
+                        row.accountType(), row.currency(), row.kycTier(), limits.getDailyTransactionLimit(),
+                        limits.getMonthlyTransactionLimit(), row.accountName(), now, now, now});
+                balances.add(new Object[]{accountId, now});
+            }
+            outcomes.add(new Outcome(row.rowNo(), customerUuids.get(i), row.customerId(), accountId, accountNumber, null));
+        }
+        if (!accounts.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO accounts (id, tenant_id, account_number, customer_id, account_type, status, " +
+                    "currency, kyc_tier, daily_transaction_limit, monthly_transaction_limit, account_name, " +
+                    "created_at, updated_at, last_customer_activity_at) " +
+                    "VALUES (?, ?, ?, ?, ?, 'ACTIVE', ?, ?, ?, ?, ?, ?, ?, ?)", accounts);
+            jdbc.batchUpdate("INSERT INTO account_balances (account_id, available_balance, current_balance, " +
+                    "ledger_balance, updated_at) VALUES (?, 0, 0, 0, ?)", balances);
+        }
+
+        List<Object[]> results = new ArrayList<>(outcomes.size());
+        int failed = 0;
+        for (Outcome o : outcomes) {
+            if (o.error() != null) failed++;
+            results.add(new Object[]{o.error() == null ? "IMPORTED" : "FAILED", o.error(), o.customerUuid(),
+                    o.accountId(), o.accountNumber(), imp.id(), o.rowNo()});
+        }
+        jdbc.batchUpdate("UPDATE onboarding_import_rows SET status = ?, error = ?, customer_uuid = ?, " +
+                "account_id = ?, account_number = ? WHERE import_id = ? AND row_no = ?", results);
+
+        // Renewing the lease last holds the import row until commit, as BulkCreditPoster does
+        int renewed = jdbc.update("UPDATE onboarding_imports SET imported_customers = imported_customers + ?, " +
+                "imported_accounts = imported_accounts + ?, failed_rows = failed_rows + ?, " +
+                "claimed_until = NOW() + make_interval(secs => ?), updated_at = NOW() " +
+                "WHERE id = ? AND claimed_by = ?",
+                outcomes.size() - failed, accounts.size(), failed, leaseSeconds, imp.id(), owner);
+        if (renewed == 0) throw new LeaseLostException(imp.id());
+        return outcomes;
+    }
+
+    // A block of numbers with one sequence upsert
+    private List<String> accountNumbers(String tenantId, int count) {
+        if (count == 0) return List.of();
+        long first = sequenceService.reserve(tenantId, ACCOUNT_NUMBER, count);
+        SequenceFormat format = sequenceService.format(ACCOUNT_NUMBER);
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(format.format(tenantId, first + i));
+        }
+        return numbers;
+    }
+
+    // ─── Events ──────────────────────────────────────────────────────────────
+
+    // Rows imported by a run that stopped before publishing them
+    private void notifyImported(Import imp) {
+        List<Outcome> unsent;
+        do {
+            unsent = jdbc.query(
+                    "SELECT row_no, customer_uuid, customer_id, account_id, account_number FROM onboarding_import_rows " +
+                    "WHERE import_id = ? AND status = 'IMPORTED' AND NOT notified ORDER BY row_no LIMIT ?",
+                    (rs, i) -> new Outcome(rs.getInt(1), rs.getObject(2, UUID.class), rs.getString(3),
+                            rs.getObject(4, UUID.class), rs.getString(5), null),
+                    imp.id(), chunkSize);
+            notify(imp, unsent);
+        } while (!unsent.isEmpty());
+    }
+
+    private void notify(Import imp, List<Outcome> outcomes) {
+        List<AccountEventPublisher.OnboardedCustomer> customers = new ArrayList<>(outcomes.size());
+        Integer[] rowNos = new Integer[outcomes.size()];
+        int n = 0;
+        for (Outcome o : outcomes) {
+            if (o.error() != null) continue;
+            customers.add(new AccountEventPublisher.OnboardedCustomer(o.customerUuid(), o.customerId(),
+                    o.accountId(), o.accountNumber()));
+            rowNos[n++] = o.rowNo();
+        }
+        if (customers.isEmpty()) return;
+        eventPublisher.publishOnboarded(imp.id(), customers, imp.tenantId());
+        Integer[] sent = Arrays.copyOf(rowNos, n);
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "UPDATE onboarding_import_rows SET notified = TRUE WHERE import_id = ? AND row_no = ANY(?)");
+            ps.setObject(1, imp.id());
+            ps.setArray(2, con.createArrayOf("integer", sent));
+            return ps;
+        });
+    }
+
+    private void complete(Import imp, int rows, long millis) {
+        List<Map<String, Object>> done = jdbc.queryForList(
+                "UPDATE onboarding_imports SET status = CASE WHEN failed_rows > 0 OR invalid_rows > 0 " +
+                "THEN 'COMPLETED_WITH_ERRORS' ELSE 'COMPLETED' END, completed_at = NOW(), updated_at = NOW(), " +
+                "claimed_by = NULL, claimed_until = NULL " +
+                "WHERE id = ? AND claimed_by = ? " +
+                "RETURNING status, imported_customers, imported_accounts, failed_rows",
+                imp.id(), owner);
+        if (done.isEmpty()) throw new LeaseLostException(imp.id());
+        Map<String, Object> row = done.get(0);
+        log.info("Onboarding import {} {}: {} customers and {} accounts created, {} failed; {} rows this run in {} ms",
+                imp.id(), row.get("status"), row.get("imported_customers"), row.get("imported_accounts"),
+                row.get("failed_rows"), rows, millis);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "account-service";
+        }
+    }
+}
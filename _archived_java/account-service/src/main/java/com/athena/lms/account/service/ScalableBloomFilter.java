@@ -0,0 +1,136 @@
+package com.athena.lms.account.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Set-membership filter that answers "definitely not seen" or "maybe seen" and never forgets
+ * an added key. It grows without a rebuild by adding stages: each new stage holds twice the
+ * keys of the last at half its false-positive rate, so the overall rate stays below the
+ * configured one however many keys arrive (Almeida et al., "Scalable Bloom Filters").
+ * Adds and lookups are lock-free; only opening a new stage synchronizes.
+ */
+class ScalableBloomFilter {
+
+    private static final double TIGHTENING = 0.5;
+    private static final int GROWTH = 2;
+
+    private final double falsePositiveRate;
+    private volatile List<Stage> stages;
+
+    ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+        this.stages = List.of(new Stage(Math.max(1024, initialCapacity), falsePositiveRate * (1 - TIGHTENING)));
+    }
+
+    boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) return true;
+        }
+        return false;
+    }
+
+    void add(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        Stage current = current();
+        if (current.count.get() >= current.capacity) current = grow(current);
+        current.add(h1, h2);
+    }
+
+    long approximateCount() {
+        return stages.stream().mapToLong(s -> s.count.get()).sum();
+    }
+
+    int stageCount() {
+        return stages.size();
+    }
+
+    long bitCount() {
+        return stages.stream().mapToLong(s -> s.bits).sum();
+    }
+
+    private Stage current() {
+        List<Stage> snapshot = stages;
+        return snapshot.get(snapshot.size() - 1);
+    }
+
+    private synchronized Stage grow(Stage full) {
+        Stage current = current();
+        if (current != full) return current;
+        int n = stages.size();
+        double rate = falsePositiveRate * (1 - TIGHTENING) * Math.pow(TIGHTENING, n);
+        Stage next = new Stage(full.capacity * GROWTH, rate);
+        List<Stage> grown = new ArrayList<>(stages);
+        grown.add(next);
+        stages = List.copyOf(grown);
+        return next;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with the murmur3 mixer
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // ─── Stage ───────────────────────────────────────────────────────────────
+
+    private static final class Stage {
+
+        final long capacity;
+        final long bits;
+        final int hashes;
+        final AtomicLongArray words;
+        final AtomicLong count = new AtomicLong();
+
+        Stage(long capacity, double rate) {
+            this.capacity = capacity;
+            // Optimal m = -n ln p / (ln 2)^2 and k = m/n ln 2, rounded up to whole words
+            long m = (long) Math.ceil(-capacity * Math.log(rate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+            this.bits = wordCount * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        void add(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                do {
+                    word = words.get(index);
+                    if ((word & mask) != 0) break;
+                } while (!words.compareAndSet(index, word, word | mask));
+            }
+            count.incrementAndGet();
+        }
+    }
+}
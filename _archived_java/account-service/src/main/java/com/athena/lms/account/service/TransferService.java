@@ -38,6 +38,7 @@ public class TransferService {
     private final AccountBalanceRepository balanceRepository;
     private final AccountTransactionRepository transactionRepository;
     private final AccountEventPublisher eventPublisher;
+    private final AccountMovements accountMovements;
     private final RestTemplate restTemplate;
 
     @Value("${lms.product-service.url:http://lms-product-service:8087}")
@@ -70,7 +71,7 @@ public class TransferService {
         // Resolve source account
         Account sourceAccount = accountRepository.findByIdAndTenantId(req.getSourceAccountId(), tenantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Source account", req.getSourceAccountId()));
-        if (sourceAccount.getStatus() != Account.AccountStatus.ACTIVE) {
+        if (!canMove(sourceAccount)) {
             throw new BusinessException(HttpStatus.UNPROCESSABLE_ENTITY, "Source account is " + sourceAccount.getStatus());
         }
 
@@ -86,7 +87,7 @@ public class TransferService {
             throw BusinessException.badRequest("Either destinationAccountId or destinationAccountNumber is required");
         }
 
-        if (destAccount.getStatus() != Account.AccountStatus.ACTIVE) {
+        if (!canMove(destAccount)) {
             throw new BusinessException(HttpStatus.UNPROCESSABLE_ENTITY, "Destination account is " + destAccount.getStatus());
         }
 
@@ -122,7 +123,6 @@ public class TransferService {
                 .orElseThrow(() -> new ResourceNotFoundException("Balance", second));
 
         AccountBalance sourceBal = first.equals(sourceAccount.getId()) ? firstBal : secondBal;
-        AccountBalance destBal = first.equals(destAccount.getId()) ? firstBal : secondBal;
 
         // Sufficient funds check
         if (sourceBal.getAvailableBalance().compareTo(totalDebit) < 0) {
@@ -136,17 +136,13 @@ public class TransferService {
                 ? req.getIdempotencyKey()
                 : "TXF-" + UUID.randomUUID().toString().substring(0, 12).toUpperCase();
 
-        // Debit source
-        sourceBal.setAvailableBalance(sourceBal.getAvailableBalance().subtract(totalDebit));
-        sourceBal.setCurrentBalance(sourceBal.getCurrentBalance().subtract(totalDebit));
-        sourceBal.setLedgerBalance(sourceBal.getLedgerBalance().subtract(totalDebit));
-        balanceRepository.save(sourceBal);
-
-        // Credit destination
-        destBal.setAvailableBalance(destBal.getAvailableBalance().add(req.getAmount()));
-        destBal.setCurrentBalance(destBal.getCurrentBalance().add(req.getAmount()));
-        destBal.setLedgerBalance(destBal.getLedgerBalance().add(req.getAmount()));
-        balanceRepository.save(destBal);
+        // Debit source and credit destination, account rows locked in the same order as balances
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, BigDecimal> deltas = Map.of(sourceAccount.getId(), totalDebit.negate(), destAccount.getId(), req.getAmount());
+        AccountMovements.Movement firstMove = accountMovements.move(first, deltas.get(first), now);
+        AccountMovements.Movement secondMove = accountMovements.move(second, deltas.get(second), now);
+        AccountMovements.Movement sourceMove = first.equals(sourceAccount.getId()) ? firstMove : secondMove;
+        AccountMovements.Movement destMove = first.equals(destAccount.getId()) ? firstMove : secondMove;
 
         // Create transaction records
         AccountTransaction debitTxn = AccountTransaction.builder()
@@ -154,7 +150,7 @@ public class TransferService {
                 .accountId(sourceAccount.getId())
                 .transactionType(AccountTransaction.TransactionType.DEBIT)
                 .amount(totalDebit)
-                .balanceAfter(sourceBal.getAvailableBalance())
+                .balanceAfter(sourceMove.availableAfter())
                 .reference(reference)
                 .description("Transfer to " + destAccount.getAccountNumber()
                         + (req.getNarration() != null ? " — " + req.getNarration() : ""))
@@ -167,7 +163,7 @@ public class TransferService {
                 .accountId(destAccount.getId())
                 .transactionType(AccountTransaction.TransactionType.CREDIT)
                 .amount(req.getAmount())
-                .balanceAfter(destBal.getAvailableBalance())
+                .balanceAfter(destMove.availableAfter())
                 .reference(reference)
                 .description("Transfer from " + sourceAccount.getAccountNumber()
                         + (req.getNarration() != null ? " — " + req.getNarration() : ""))
@@ -194,6 +190,14 @@ public class TransferService {
 
         eventPublisher.publishTransferCompleted(transfer.getId(),
                 sourceAccount.getId(), destAccount.getId(), req.getAmount(), tenantId);
+        if (sourceMove.reactivated()) {
+            eventPublisher.publishReactivated(sourceAccount.getId(), sourceAccount.getAccountNumber(),
+                    sourceAccount.getCustomerId(), sourceMove.priorActivityAt(), now, "DEBIT", totalDebit, tenantId);
+        }
+        if (destMove.reactivated()) {
+            eventPublisher.publishReactivated(destAccount.getId(), destAccount.getAccountNumber(),
+                    destAccount.getCustomerId(), destMove.priorActivityAt(), now, "CREDIT", req.getAmount(), tenantId);
+        }
 
         log.info("Transfer {} completed: {} {} from {} to {} (charge: {})",
                 reference, req.getAmount(), sourceAccount.getCurrency(),
@@ -220,6 +224,11 @@ public class TransferService {
                 .map(TransferResponse::from));
     }
 
+    // Dormant accounts may transact, and are reactivated by doing so
+    private static boolean canMove(Account account) {
+        return account.getStatus() == Account.AccountStatus.ACTIVE || account.getStatus() == Account.AccountStatus.DORMANT;
+    }
+
     private BigDecimal calculateCharge(String transferType, BigDecimal amount, String tenantId) {
         try {
             String chargeType = "TRANSFER_" + transferType;
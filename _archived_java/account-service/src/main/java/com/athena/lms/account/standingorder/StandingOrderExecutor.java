@@ -0,0 +1,423 @@
+package com.athena.lms.account.standingorder;
+
+import com.athena.lms.account.entity.StandingOrder.Frequency;
+import com.athena.lms.account.event.AccountEventPublisher;
+import com.athena.lms.account.service.AccountMovements;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes standing orders on their due dates.
+ *
+ * A sweep works in two steps, a chunk per transaction. Scheduling takes the orders whose
+ * next_due_date has come, off the due-date index, and writes an execution row for each due
+ * date reached, then moves next_due_date on. Execution then takes the PENDING executions
+ * whose attempt time has come and makes their transfers. Both steps pick their rows with
+ * FOR UPDATE SKIP LOCKED, so replicas sweeping at the same time take different chunks
+ * without a lease. The execution row's key, and the transactions' idempotency keys
+ * standing-order:{order}:{due date}, make each due date's transfer happen once.
+ *
+ * An execution chunk locks every account it touches, balance row and then account row, in
+ * the order TransferService uses, and works through its executions in memory. The chunk's
+ * transactions, transfers and execution outcomes are written as JDBC batches and each
+ * account's movements are netted into one balance update, so a payday with hundreds of
+ * thousands of orders paying into a few collection accounts updates each of those accounts
+ * once per chunk rather than once per order.
+ *
+ * A FIXED order that finds too little money is tried again after the order's retry interval,
+ * up to its retry count, and then fails for that due date; the order itself carries on.
+ * A sweep that finds nothing above its threshold is skipped. No transfer charge is applied.
+ *
+ * A chunk that fails as a whole is executed again one execution per transaction, so an
+ * execution that fails on its own is found. It is put back with its error until the order's
+ * retry interval has passed, which keeps it out of the due query meanwhile, and after
+ * lms.standing-orders.max-error-attempts it fails for that due date.
+ */
+@Service
+@Slf4j
+public class StandingOrderExecutor {
+
+    private static final String DUE_ORDERS_SQL =
+            "SELECT id, tenant_id, frequency, start_date, end_date, next_due_date FROM standing_orders " +
+            "WHERE status = 'ACTIVE' AND next_due_date <= ? " +
+            "ORDER BY next_due_date LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DUE_EXECUTIONS_SQL =
+            "SELECT e.order_id, e.due_date, e.attempts, e.next_attempt_at, o.tenant_id, o.status, " +
+            "       o.source_account_id, o.destination_account_id, o.transfer_type, o.amount_rule, o.amount, " +
+            "       o.threshold, o.max_retries, o.retry_interval_hours, o.narration " +
+            "FROM standing_order_executions e JOIN standing_orders o ON o.id = e.order_id " +
+            "WHERE e.status = 'PENDING' AND e.next_attempt_at <= ? " +
+            "ORDER BY e.next_attempt_at LIMIT ? FOR UPDATE OF e SKIP LOCKED";
+
+    private static final String OUTCOME_SQL =
+            "UPDATE standing_order_executions SET status = ?, attempts = ?, next_attempt_at = ?, " +
+            "amount = ?, transfer_id = ?, last_error = ?, completed_at = ? WHERE order_id = ? AND due_date = ?";
+
+    private static final String LOCK_ACCOUNTS_SQL =
+            "SELECT k.account_id, a.status, b.available_balance, a.account_number, a.customer_id, " +
+            "a.last_customer_activity_at, a.currency " +
+            "FROM unnest(?) WITH ORDINALITY AS k(account_id, ord) " +
+            "JOIN account_balances b ON b.account_id = k.account_id " +
+            "JOIN accounts a ON a.id = k.account_id " +
+            "ORDER BY k.ord FOR UPDATE OF b, a";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final AccountEventPublisher eventPublisher;
+    private final AccountMovements accountMovements;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int sweepSeconds;
+    private final int maxCatchUpDays;
+    private final int maxErrorAttempts;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "standing-orders");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public StandingOrderExecutor(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 AccountEventPublisher eventPublisher,
+                                 AccountMovements accountMovements,
+                                 @Value("${lms.standing-orders.enabled:true}") boolean enabled,
+                                 @Value("${lms.standing-orders.chunk-size:1000}") int chunkSize,
+                                 @Value("${lms.standing-orders.sweep-seconds:60}") int sweepSeconds,
+                                 @Value("${lms.standing-orders.max-catch-up-days:7}") int maxCatchUpDays,
+                                 @Value("${lms.standing-orders.max-error-attempts:3}") int maxErrorAttempts) {
+        this(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager), eventPublisher,
+                accountMovements, enabled, chunkSize, sweepSeconds, maxCatchUpDays, maxErrorAttempts);
+    }
+
+    StandingOrderExecutor(JdbcTemplate jdbc, TransactionTemplate transaction, AccountEventPublisher eventPublisher,
+                          AccountMovements accountMovements, boolean enabled, int chunkSize, int sweepSeconds,
+                          int maxCatchUpDays, int maxErrorAttempts) {
+        this.jdbc = jdbc;
+        this.transaction = transaction;
+        this.eventPublisher = eventPublisher;
+        this.accountMovements = accountMovements;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.sweepSeconds = sweepSeconds;
+        this.maxCatchUpDays = maxCatchUpDays;
+        this.maxErrorAttempts = maxErrorAttempts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Standing order executor disabled");
+            return;
+        }
+        sweeper.scheduleWithFixedDelay(this::sweep, 30, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // An interrupted chunk rolls back and its rows are picked up by the next sweep
+        sweeper.shutdownNow();
+    }
+
+    void sweep() {
+        long started = System.currentTimeMillis();
+        int scheduled = 0;
+        int executed = 0;
+        try {
+            LocalDate today = LocalDate.now();
+            int orders;
+            do {
+                orders = transaction.execute(status -> scheduleChunk(today));
+                scheduled += orders;
+            } while (orders == chunkSize && !Thread.currentThread().isInterrupted());
+
+            Chunk chunk;
+            do {
+                try {
+                    chunk = transaction.execute(status -> executeChunk(chunkSize, new ArrayList<>()));
+                } catch (RuntimeException e) {
+                    log.warn("Standing order chunk failed, executing it one at a time: {}", e.getMessage());
+                    chunk = isolate();
+                }
+                publish(chunk);
+                executed += chunk.executions();
+            } while (chunk.executions() == chunkSize && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            log.warn("Standing order sweep stopped: {}", e.getMessage());
+        }
+        if (scheduled > 0 || executed > 0) {
+            log.info("Standing orders: {} orders scheduled, {} executions processed in {} ms",
+                    scheduled, executed, System.currentTimeMillis() - started);
+        }
+    }
+
+    // ─── Scheduling ──────────────────────────────────────────────────────────
+
+    // Every due date an order has reached, so that an order missed for a few days is caught up.
+    // Dates older than max-catch-up-days are recorded as skipped rather than paid late.
+    private int scheduleChunk(LocalDate today) {
+        LocalDate oldest = today.minusDays(maxCatchUpDays);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> executions = new ArrayList<>();
+        List<Object[]> orders = new ArrayList<>();
+        jdbc.query(DUE_ORDERS_SQL, rs -> {
+            UUID orderId = rs.getObject(1, UUID.class);
+            String tenantId = rs.getString(2);
+            Frequency frequency = Frequency.valueOf(rs.getString(3));
+            LocalDate start = rs.getObject(4, LocalDate.class);
+            LocalDate end = rs.getObject(5, LocalDate.class);
+            LocalDate due = rs.getObject(6, LocalDate.class);
+            while (!due.isAfter(today) && (end == null || !due.isAfter(end))) {
+                boolean missed = due.isBefore(oldest);
+                executions.add(new Object[]{orderId, due, tenantId, missed ? "SKIPPED" : "PENDING",
+                        Timestamp.valueOf(due.atStartOfDay()), missed ? "Missed while standing orders were not running" : null});
+                due = frequency.next(due, start);
+            }
+            boolean ended = end != null && due.isAfter(end);
+            orders.add(new Object[]{ended ? null : due, ended ? "COMPLETED" : "ACTIVE", now, orderId});
+        }, today, chunkSize);
+        if (orders.isEmpty()) return 0;
+
+        jdbc.batchUpdate("INSERT INTO standing_order_executions (order_id, due_date, tenant_id, status, " +
+                "next_attempt_at, last_error) VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING", executions);
+        jdbc.batchUpdate("UPDATE standing_orders SET next_due_date = ?, status = ?, updated_at = ? WHERE id = ?", orders);
+        return orders.size();
+    }
+
+    // ─── Execution ───────────────────────────────────────────────────────────
+
+    private record Due(UUID orderId, LocalDate dueDate, int attempts, Timestamp nextAttemptAt, String tenantId,
+                       String orderStatus, UUID sourceId, UUID destinationId, String transferType,
+                       String amountRule, BigDecimal amount, BigDecimal threshold, int maxRetries,
+                       int retryIntervalHours, String narration) {}
+
+    private static final class Held {
+        final String status;
+        final String accountNumber;
+        final String customerId;
+        final LocalDateTime lastActivityAt;
+        final String currency;
+        BigDecimal available;
+        boolean moved;
+
+        Held(String status, BigDecimal available, String accountNumber, String customerId,
+             LocalDateTime lastActivityAt, String currency) {
+            this.status = status;
+            this.available = available;
+            this.accountNumber = accountNumber;
+            this.customerId = customerId;
+            this.lastActivityAt = lastActivityAt;
+            this.currency = currency;
+        }
+
+        boolean canMove() {
+            return "ACTIVE".equals(status) || "DORMANT".equals(status);
+        }
+    }
+
+    private record Reactivation(UUID accountId, Held account, String transactionType, BigDecimal amount, String tenantId) {}
+
+    private record Made(String tenantId, AccountEventPublisher.StandingOrderTransfer transfer) {}
+
+    private record Chunk(int executions, List<Made> transfers, List<Reactivation> reactivations, LocalDateTime at) {}
+
+    // The executions taken are added to picked, so a caller can tell which failed after a rollback
+    private Chunk executeChunk(int limit, List<Due> picked) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp at = Timestamp.valueOf(now);
+        List<Due> dues = jdbc.query(DUE_EXECUTIONS_SQL,
+                (rs, i) -> new Due(rs.getObject(1, UUID.class), rs.getObject(2, LocalDate.class), rs.getInt(3),
+                        rs.getTimestamp(4), rs.getString(5), rs.getString(6), rs.getObject(7, UUID.class),
+                        rs.getObject(8, UUID.class), rs.getString(9), rs.getString(10), rs.getBigDecimal(11),
+                        rs.getBigDecimal(12), rs.getInt(13), rs.getInt(14), rs.getString(15)),
+                at, limit);
+        picked.addAll(dues);
+        if (dues.isEmpty()) return new Chunk(0, List.of(), List.of(), now);
+
+        // UUID order, as TransferService locks a transfer's two accounts
+        TreeSet<UUID> lockOrder = new TreeSet<>();
+        for (Due due : dues) {
+            lockOrder.add(due.sourceId());
+            lockOrder.add(due.destinationId());
+        }
+        Map<UUID, Held> accounts = new HashMap<>();
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_ACCOUNTS_SQL);
+            Array ids = con.createArrayOf("uuid", lockOrder.toArray());
+            ps.setArray(1, ids);
+            return ps;
+        }, rs -> {
+            accounts.put(rs.getObject(1, UUID.class), new Held(rs.getString(2), rs.getBigDecimal(3),
+                    rs.getString(4), rs.getString(5), rs.getTimestamp(6).toLocalDateTime(), rs.getString(7)));
+        });
+
+        List<Object[]> outcomes = new ArrayList<>(dues.size());
+        List<Object[]> transactions = new ArrayList<>();
+        List<Object[]> transfers = new ArrayList<>();
+        Map<UUID, BigDecimal> deltas = new LinkedHashMap<>();
+        List<Made> made = new ArrayList<>();
+        List<Reactivation> reactivations = new ArrayList<>();
+        for (Due due : dues) {
+            Held source = accounts.get(due.sourceId());
+            Held destination = accounts.get(due.destinationId());
+            if ("PAUSED".equals(due.orderStatus()) || "CANCELLED".equals(due.orderStatus())) {
+                outcomes.add(outcome(due, "SKIPPED", due.attempts(), due.nextAttemptAt(), null, null,
+                        "Standing order is " + due.orderStatus(), at));
+                continue;
+            }
+            if (source == null || !source.canMove()) {
+                outcomes.add(outcome(due, "FAILED", due.attempts() + 1, due.nextAttemptAt(), null, null,
+                        "Source account is " + (source != null ? source.status : "missing"), at));
+                continue;
+            }
+            if (destination == null || !destination.canMove()) {
+                outcomes.add(outcome(due, "FAILED", due.attempts() + 1, due.nextAttemptAt(), null, null,
+                        "Destination account is " + (destination != null ? destination.status : "missing"), at));
+                continue;
+            }
+
+            BigDecimal amount = switch (due.amountRule()) {
+                case "SWEEP_ABOVE" -> source.available.subtract(due.threshold());
+                case "FULL_BALANCE" -> source.available;
+                default -> due.amount();
+            };
+            if (!"FIXED".equals(due.amountRule()) && amount.signum() <= 0) {
+                outcomes.add(outcome(due, "SKIPPED", due.attempts() + 1, due.nextAttemptAt(), null, null,
+                        "Nothing available to move", at));
+                continue;
+            }
+            if (source.available.compareTo(amount) < 0) {
+                String error = "Insufficient funds. Available: " + source.available + ", required: " + amount;
+                int attempts = due.attempts() + 1;
+                outcomes.add(attempts <= due.maxRetries()
+                        ? outcome(due, "PENDING", attempts,
+                                Timestamp.valueOf(now.plusHours(due.retryIntervalHours())), null, null, error, null)
+                        : outcome(due, "FAILED", attempts, due.nextAttemptAt(), null, null, error, at));
+                continue;
+            }
+
+            source.available = source.available.subtract(amount);
+            destination.available = destination.available.add(amount);
+            deltas.merge(due.sourceId(), amount.negate(), BigDecimal::add);
+            deltas.merge(due.destinationId(), amount, BigDecimal::add);
+
+            UUID transferId = UUID.randomUUID();
+            String key = "standing-order:" + due.orderId() + ":" + due.dueDate();
+            String reference = "SO-" + due.orderId() + "-" + due.dueDate();
+            String narration = due.narration() != null ? " — " + due.narration() : "";
+            transactions.add(new Object[]{UUID.randomUUID(), due.tenantId(), due.sourceId(), "DEBIT", amount,
+                    source.available, reference, "Standing order to " + destination.accountNumber + narration,
+                    key + ":debit", at});
+            transactions.add(new Object[]{UUID.randomUUID(), due.tenantId(), due.destinationId(), "CREDIT", amount,
+                    destination.available, reference, "Standing order from " + source.accountNumber + narration,
+                    key + ":credit", at});
+            transfers.add(new Object[]{transferId, due.tenantId(), due.sourceId(), due.destinationId(), amount,
+                    source.currency, due.transferType(), reference, due.narration(), at, at});
+            outcomes.add(outcome(due, "COMPLETED", due.attempts() + 1, due.nextAttemptAt(), amount, transferId, null, at));
+
+            made.add(new Made(due.tenantId(), new AccountEventPublisher.StandingOrderTransfer(
+                    transferId, due.orderId(), due.dueDate(), due.sourceId(), due.destinationId(), amount)));
+            reactivate(due.sourceId(), source, "DEBIT", amount, due.tenantId(), reactivations);
+            reactivate(due.destinationId(), destination, "CREDIT", amount, due.tenantId(), reactivations);
+        }
+
+        if (!transactions.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO account_transactions (id, tenant_id, account_id, transaction_type, " +
+                    "amount, balance_after, reference, description, channel, idempotency_key, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'STANDING_ORDER', ?, ?)", transactions);
+            jdbc.batchUpdate("INSERT INTO fund_transfers (id, tenant_id, source_account_id, destination_account_id, " +
+                    "amount, currency, transfer_type, status, reference, narration, charge_amount, initiated_by, " +
+                    "initiated_at, completed_at) VALUES (?, ?, ?, ?, ?, ?, ?, 'COMPLETED', ?, ?, 0, 'standing-order', ?, ?)",
+                    transfers);
+            accountMovements.moveAll(deltas, now);
+        }
+        jdbc.batchUpdate(OUTCOME_SQL, outcomes);
+        return new Chunk(dues.size(), made, reactivations, now);
+    }
+
+    // Up to a chunk's worth of executions, each in its own transaction and published as it
+    // commits, so the chunk returned has nothing left to publish. One that fails alone is put back with its error rather than failing the rest;
+    // a failure before any execution is taken, such as a lost connection, stops the sweep.
+    private Chunk isolate() {
+        LocalDateTime now = LocalDateTime.now();
+        int executions = 0;
+        while (executions < chunkSize && !Thread.currentThread().isInterrupted()) {
+            List<Due> picked = new ArrayList<>(1);
+            try {
+                Chunk one = transaction.execute(status -> executeChunk(1, picked));
+                if (one.executions() == 0) break;
+                publish(one);
+            } catch (RuntimeException e) {
+                if (picked.isEmpty()) throw e;
+                putBack(picked.get(0), e, now);
+            }
+            executions++;
+        }
+        return new Chunk(executions, List.of(), List.of(), now);
+    }
+
+    private void putBack(Due due, RuntimeException e, LocalDateTime now) {
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        error = error.length() <= 255 ? error : error.substring(0, 255);
+        int attempts = due.attempts() + 1;
+        Timestamp at = Timestamp.valueOf(now);
+        Object[] outcome = attempts < maxErrorAttempts
+                ? outcome(due, "PENDING", attempts, Timestamp.valueOf(now.plusHours(due.retryIntervalHours())),
+                        null, null, error, null)
+                : outcome(due, "FAILED", attempts, due.nextAttemptAt(), null, null, error, at);
+        jdbc.update(OUTCOME_SQL, outcome);
+        log.error("Standing order {} due {} failed (attempt {} of {}): {}",
+                due.orderId(), due.dueDate(), attempts, maxErrorAttempts, error);
+    }
+
+    private static Object[] outcome(Due due, String status, int attempts, Timestamp nextAttemptAt, BigDecimal amount,
+                                    UUID transferId, String error, Timestamp completedAt) {
+        return new Object[]{status, attempts, nextAttemptAt, amount, transferId, error, completedAt,
+                due.orderId(), due.dueDate()};
+    }
+
+    // The first movement of a dormant account in the chunk is the one that reactivated it
+    private static void reactivate(UUID accountId, Held account, String transactionType, BigDecimal amount,
+                                   String tenantId, List<Reactivation> reactivations) {
+        if ("DORMANT".equals(account.status) && !account.moved) {
+            reactivations.add(new Reactivation(accountId, account, transactionType, amount, tenantId));
+        }
+        account.moved = true;
+    }
+
+    // ─── Events ──────────────────────────────────────────────────────────────
+
+    // Sent once the chunk has committed
+    private void publish(Chunk chunk) {
+        Map<String, List<AccountEventPublisher.StandingOrderTransfer>> byTenant = new HashMap<>();
+        for (Made m : chunk.transfers()) {
+            byTenant.computeIfAbsent(m.tenantId(), t -> new ArrayList<>()).add(m.transfer());
+        }
+        byTenant.forEach((tenantId, transfers) -> eventPublisher.publishStandingOrderTransfers(transfers, tenantId));
+        for (Reactivation r : chunk.reactivations()) {
+            eventPublisher.publishReactivated(r.accountId(), r.account().accountNumber, r.account().customerId,
+                    r.account().lastActivityAt, chunk.at(), r.transactionType(), r.amount(), r.tenantId());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.athena.lms.account.standingorder;
+
+import com.athena.lms.account.dto.request.StandingOrderRequest;
+import com.athena.lms.account.dto.response.StandingOrderExecutionResponse;
+import com.athena.lms.account.dto.response.StandingOrderResponse;
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.FundTransfer;
+import com.athena.lms.account.entity.StandingOrder;
+import com.athena.lms.account.entity.StandingOrder.AmountRule;
+import com.athena.lms.account.entity.StandingOrder.Frequency;
+import com.athena.lms.account.entity.StandingOrder.OrderStatus;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.StandingOrderRepository;
+import com.athena.lms.common.dto.PageResponse;
+import com.athena.lms.common.exception.BusinessException;
+import com.athena.lms.common.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Standing orders: recurring transfers between two accounts, set up once and executed on
+ * their due dates by {@link StandingOrderExecutor}. Accounts and currencies are checked here,
+ * when the order is made, as TransferService checks them for an immediate transfer; the
+ * executor checks only what can change between due dates.
+ */
+@Service
+@Slf4j
+public class StandingOrderService {
+
+    private final StandingOrderRepository orderRepository;
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbc;
+    private final int defaultMaxRetries;
+    private final int defaultRetryIntervalHours;
+
+    public StandingOrderService(StandingOrderRepository orderRepository,
+                                AccountRepository accountRepository,
+                                DataSource dataSource,
+                                @Value("${lms.standing-orders.max-retries:2}") int defaultMaxRetries,
+                                @Value("${lms.standing-orders.retry-interval-hours:24}") int defaultRetryIntervalHours) {
+        this.orderRepository = orderRepository;
+        this.accountRepository = accountRepository;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.defaultMaxRetries = defaultMaxRetries;
+        this.defaultRetryIntervalHours = defaultRetryIntervalHours;
+    }
+
+    // ─── Orders ──────────────────────────────────────────────────────────────
+
+    @Transactional
+    public StandingOrderResponse create(StandingOrderRequest req, String tenantId, String createdBy) {
+        Frequency frequency = parse(Frequency.class, req.getFrequency(), "frequency");
+        AmountRule amountRule = parse(AmountRule.class, req.getAmountRule(), "amountRule");
+        if (amountRule == AmountRule.FIXED && req.getAmount() == null) {
+            throw BusinessException.badRequest("amount is required for a FIXED standing order");
+        }
+        if (amountRule == AmountRule.SWEEP_ABOVE && req.getThreshold() == null) {
+            throw BusinessException.badRequest("threshold is required for a SWEEP_ABOVE standing order");
+        }
+        if (req.getStartDate().isBefore(LocalDate.now())) {
+            throw BusinessException.badRequest("startDate cannot be in the past");
+        }
+        LocalDate firstDue = frequency.first(req.getStartDate());
+        if (req.getEndDate() != null && req.getEndDate().isBefore(firstDue)) {
+            throw BusinessException.badRequest("endDate is before the first due date " + firstDue);
+        }
+
+        Account source = accountRepository.findByIdAndTenantId(req.getSourceAccountId(), tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Source account", req.getSourceAccountId()));
+        if (source.getStatus() != Account.AccountStatus.ACTIVE && source.getStatus() != Account.AccountStatus.DORMANT) {
+            throw new BusinessException(HttpStatus.UNPROCESSABLE_ENTITY, "Source account is " + source.getStatus());
+        }
+        Account destination;
+        if (req.getDestinationAccountId() != null) {
+            destination = accountRepository.findById(req.getDestinationAccountId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Destination account", req.getDestinationAccountId()));
+        } else if (req.getDestinationAccountNumber() != null) {
+            destination = accountRepository.findByAccountNumber(req.getDestinationAccountNumber())
+                    .orElseThrow(() -> BusinessException.badRequest("Destination account not found: " + req.getDestinationAccountNumber()));
+        } else {
+            throw BusinessException.badRequest("Either destinationAccountId or destinationAccountNumber is required");
+        }
+        if (destination.getStatus() == Account.AccountStatus.CLOSED) {
+            throw new BusinessException(HttpStatus.UNPROCESSABLE_ENTITY, "Destination account is CLOSED");
+        }
+        if (source.getId().equals(destination.getId())) {
+            throw BusinessException.badRequest("Cannot set up a standing order to the same account");
+        }
+        if (!source.getCurrency().equals(destination.getCurrency())) {
+            throw BusinessException.badRequest("Currency mismatch: " + source.getCurrency() + " vs " + destination.getCurrency());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        StandingOrder order = StandingOrder.builder()
+                .id(UUID.randomUUID())
+                .tenantId(tenantId)
+                .sourceAccountId(source.getId())
+                .destinationAccountId(destination.getId())
+                .transferType(source.getCustomerId().equals(destination.getCustomerId())
+                        ? FundTransfer.TransferType.INTERNAL : FundTransfer.TransferType.THIRD_PARTY)
+                .frequency(frequency)
+                .amountRule(amountRule)
+                .amount(amountRule == AmountRule.FIXED ? req.getAmount() : null)
+                .threshold(amountRule == AmountRule.SWEEP_ABOVE ? req.getThreshold() : null)
+                .maxRetries(req.getMaxRetries() != null ? req.getMaxRetries() : defaultMaxRetries)
+                .retryIntervalHours(req.getRetryIntervalHours() != null ? req.getRetryIntervalHours() : defaultRetryIntervalHours)
+                .startDate(req.getStartDate())
+                .endDate(req.getEndDate())
+                .nextDueDate(firstDue)
+                .status(OrderStatus.ACTIVE)
+                .narration(req.getNarration())
+                .createdBy(createdBy)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        order = orderRepository.save(order);
+        log.info("Standing order {} created: {} {} from {} to {}, first due {}",
+                order.getId(), frequency, amountRule, source.getAccountNumber(), destination.getAccountNumber(), firstDue);
+        return StandingOrderResponse.from(order);
+    }
+
+    @Transactional(readOnly = true)
+    public StandingOrderResponse get(UUID id, String tenantId) {
+        return StandingOrderResponse.from(find(id, tenantId));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<StandingOrderResponse> list(UUID accountId, String tenantId, Pageable pageable) {
+        return PageResponse.from((accountId != null
+                ? orderRepository.findByAccountId(tenantId, accountId, pageable)
+                : orderRepository.findByTenantId(tenantId, pageable))
+                .map(StandingOrderResponse::from));
+    }
+
+    /** Due dates that pass while paused are not executed, and retries waiting on them are dropped. */
+    @Transactional
+    public StandingOrderResponse pause(UUID id, String tenantId) {
+        StandingOrder order = find(id, tenantId);
+        if (order.getStatus() != OrderStatus.ACTIVE) {
+            throw new BusinessException(HttpStatus.CONFLICT, "Standing order is " + order.getStatus());
+        }
+        order.setStatus(OrderStatus.PAUSED);
+        order.setUpdatedAt(LocalDateTime.now());
+        log.info("Standing order {} paused", id);
+        return StandingOrderResponse.from(orderRepository.save(order));
+    }
+
+    /** Carries on from the first due date from today on. */
+    @Transactional
+    public StandingOrderResponse resume(UUID id, String tenantId) {
+        StandingOrder order = find(id, tenantId);
+        if (order.getStatus() != OrderStatus.PAUSED) {
+            throw new BusinessException(HttpStatus.CONFLICT, "Standing order is " + order.getStatus());
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate next = order.getNextDueDate();
+        while (next.isBefore(today)) {
+            next = order.getFrequency().next(next, order.getStartDate());
+        }
+        boolean ended = order.getEndDate() != null && next.isAfter(order.getEndDate());
+        order.setNextDueDate(ended ? null : next);
+        order.setStatus(ended ? OrderStatus.COMPLETED : OrderStatus.ACTIVE);
+        order.setUpdatedAt(LocalDateTime.now());
+        log.info("Standing order {} resumed, next due {}", id, order.getNextDueDate());
+        return StandingOrderResponse.from(orderRepository.save(order));
+    }
+
+    @Transactional
+    public StandingOrderResponse cancel(UUID id, String tenantId) {
+        StandingOrder order = find(id, tenantId);
+        if (order.getStatus() == OrderStatus.CANCELLED || order.getStatus() == OrderStatus.COMPLETED) {
+            throw new BusinessException(HttpStatus.CONFLICT, "Standing order is " + order.getStatus());
+        }
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setNextDueDate(null);
+        order.setUpdatedAt(LocalDateTime.now());
+        log.info("Standing order {} cancelled", id);
+        return StandingOrderResponse.from(orderRepository.save(order));
+    }
+
+    // ─── Executions ──────────────────────────────────────────────────────────
+
+    /** The most recent due dates first. */
+    public List<StandingOrderExecutionResponse> listExecutions(UUID id, String tenantId, int limit) {
+        find(id, tenantId);
+        return jdbc.query(
+                "SELECT due_date, status, attempts, next_attempt_at, amount, transfer_id, last_error, completed_at " +
+                "FROM standing_order_executions WHERE order_id = ? ORDER BY due_date DESC LIMIT ?",
+                (rs, i) -> StandingOrderExecutionResponse.builder()
+                        .dueDate(rs.getObject(1, LocalDate.class))
+                        .status(rs.getString(2))
+                        .attempts(rs.getInt(3))
+                        .nextAttemptAt("PENDING".equals(rs.getString(2)) ? rs.getTimestamp(4).toLocalDateTime() : null)
+                        .amount(rs.getBigDecimal(5))
+                        .transferId(rs.getObject(6, UUID.class))
+                        .lastError(rs.getString(7))
+                        .completedAt(toLocalDateTime(rs.getTimestamp(8)))
+                        .build(),
+                id, limit);
+    }
+
+    private StandingOrder find(UUID id, String tenantId) {
+        return orderRepository.findByIdAndTenantId(id, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Standing order", id));
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw BusinessException.badRequest("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp ts) {
+        return ts != null ? ts.toLocalDateTime() : null;
+    }
+}
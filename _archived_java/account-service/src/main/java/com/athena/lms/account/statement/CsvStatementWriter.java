@@ -0,0 +1,64 @@
+package com.athena.lms.account.statement;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * One row per transaction, amounts unsigned with their type, as the transactions API returns
+ * them. An OPENING row before them and a CLOSING row after carry the period's balances.
+ */
+final class CsvStatementWriter implements StatementWriter {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BufferedWriter out;
+
+    CsvStatementWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void begin(Header header) throws IOException {
+        out.write("date,type,amount,balance,reference,description,channel\n");
+        out.write(header.from().atStartOfDay().format(TIMESTAMP) + ",OPENING,," + header.openingBalance().toPlainString() + ",,,\n");
+    }
+
+    @Override
+    public void row(Row row) throws IOException {
+        out.write(row.at().format(TIMESTAMP));
+        out.write(',');
+        out.write(row.type());
+        out.write(',');
+        out.write(row.amount().toPlainString());
+        out.write(',');
+        out.write(row.balance().toPlainString());
+        out.write(',');
+        out.write(escape(row.reference()));
+        out.write(',');
+        out.write(escape(row.description()));
+        out.write(',');
+        out.write(escape(row.channel()));
+        out.write('\n');
+    }
+
+    @Override
+    public void end(Totals totals) throws IOException {
+        out.write(",CLOSING,," + totals.closingBalance().toPlainString() + ",,,\n");
+        out.flush();
+    }
+
+    private static String escape(String value) {
+        if (value == null) return "";
+        // A leading formula character would be evaluated by spreadsheet software
+        boolean formula = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+        if (!formula && value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + (formula ? "'" : "") + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,316 @@
+package com.athena.lms.account.statement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * A paginated A4 statement written as plain PDF 1.4 with the standard Helvetica fonts, which
+ * every reader has, so no PDF library or embedded font is needed. Each page is compressed and
+ * written as soon as it fills; only object offsets and page numbers are kept until the end.
+ * The page count in each footer ("Page 3 of 412") is a form object drawn on every page and
+ * written last, once the count is known.
+ */
+final class PdfStatementWriter implements StatementWriter {
+
+    private static final int PAGE_WIDTH = 595;
+    private static final int PAGE_HEIGHT = 842;
+    private static final int MARGIN = 40;
+    private static final int FOOTER_Y = 25;
+    private static final int ROW_HEIGHT = 12;
+    private static final int FONT_SIZE = 8;
+
+    // Column left edges, and right edges of the right-aligned amount columns
+    private static final int DATE_X = MARGIN;
+    private static final int TYPE_X = 118;
+    private static final int REFERENCE_X = 150;
+    private static final int DESCRIPTION_X = 250;
+    private static final int AMOUNT_RIGHT = 475;
+    private static final int BALANCE_RIGHT = PAGE_WIDTH - MARGIN;
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int REGULAR = 3;
+    private static final int BOLD = 4;
+    private static final int PAGE_TOTAL = 5;
+
+    // Helvetica advance widths for ' ' through '~', in thousandths of the font size
+    private static final short[] WIDTHS = {
+            278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+            1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+            333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+            556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584};
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm", Locale.ENGLISH);
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("dd MMM yyyy", Locale.ENGLISH);
+
+    private final CountingOutputStream out;
+    private final DecimalFormat money = new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream(16 * 1024);
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(8 * 1024);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final byte[] deflateBuffer = new byte[8 * 1024];
+    private long[] offsets = new long[64];
+    private int nextObject = PAGE_TOTAL + 1;
+    private int[] pages = new int[64];
+    private int pageCount;
+    private int y;
+    private Header header;
+
+    PdfStatementWriter(OutputStream out) {
+        this.out = new CountingOutputStream(out);
+    }
+
+    @Override
+    public void begin(Header header) throws IOException {
+        this.header = header;
+        // The comment's high bytes mark the file as binary for transfer tools
+        write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+        object(CATALOG, "<< /Type /Catalog /Pages " + PAGES + " 0 R >>");
+        object(REGULAR, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+        object(BOLD, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+
+        startPage();
+        text(MARGIN, y, BOLD, 14, "Account Statement");
+        y -= 22;
+        text(MARGIN, y, REGULAR, 9, "Account: " + header.accountNumber()
+                + (header.accountName() != null ? "  " + header.accountName() : ""));
+        text(360, y, REGULAR, 9, "Currency: " + header.currency());
+        y -= 13;
+        text(MARGIN, y, REGULAR, 9, "Period: " + header.from().format(DAY) + " to " + header.to().format(DAY));
+        text(360, y, REGULAR, 9, "Generated: " + LocalDate.now().format(DAY));
+        y -= 13;
+        text(MARGIN, y, BOLD, 9, "Opening balance: " + money.format(header.openingBalance()));
+        y -= 20;
+        columnHeadings();
+    }
+
+    @Override
+    public void row(Row row) throws IOException {
+        if (y < MARGIN + ROW_HEIGHT) {
+            finishPage();
+            startPage();
+            text(MARGIN, y, REGULAR, FONT_SIZE, header.accountNumber() + "  "
+                    + header.from().format(DAY) + " to " + header.to().format(DAY));
+            y -= 18;
+            columnHeadings();
+        }
+        boolean debit = "DEBIT".equals(row.type());
+        text(DATE_X, y, REGULAR, FONT_SIZE, row.at().format(DATE));
+        text(TYPE_X, y, REGULAR, FONT_SIZE, debit ? "DR" : "CR");
+        text(REFERENCE_X, y, REGULAR, FONT_SIZE, fit(row.reference(), DESCRIPTION_X - REFERENCE_X - 6));
+        text(DESCRIPTION_X, y, REGULAR, FONT_SIZE, fit(row.description(), AMOUNT_RIGHT - 60 - DESCRIPTION_X));
+        right(AMOUNT_RIGHT, y, REGULAR, (debit ? "-" : "") + money.format(row.amount()));
+        right(BALANCE_RIGHT, y, REGULAR, money.format(row.balance()));
+        y -= ROW_HEIGHT;
+    }
+
+    @Override
+    public void end(Totals totals) throws IOException {
+        if (y < MARGIN + 5 * ROW_HEIGHT) {
+            finishPage();
+            startPage();
+        }
+        y -= 6;
+        line(y + ROW_HEIGHT - 2);
+        text(DESCRIPTION_X, y, REGULAR, FONT_SIZE, "Total credits");
+        right(AMOUNT_RIGHT, y, REGULAR, money.format(totals.credits()));
+        y -= ROW_HEIGHT;
+        text(DESCRIPTION_X, y, REGULAR, FONT_SIZE, "Total debits");
+        right(AMOUNT_RIGHT, y, REGULAR, "-" + money.format(totals.debits()));
+        y -= ROW_HEIGHT;
+        text(DESCRIPTION_X, y, REGULAR, FONT_SIZE, "Transactions");
+        right(AMOUNT_RIGHT, y, REGULAR, Long.toString(totals.transactions()));
+        y -= ROW_HEIGHT;
+        text(DESCRIPTION_X, y, BOLD, FONT_SIZE, "Closing balance");
+        right(BALANCE_RIGHT, y, BOLD, money.format(totals.closingBalance()));
+        finishPage();
+
+        stream(PAGE_TOTAL, "/Type /XObject /Subtype /Form /BBox [0 0 100 20] /Resources << /Font << /F" + REGULAR
+                + " " + REGULAR + " 0 R >> >>", ("BT /F" + REGULAR + " " + FONT_SIZE + " Tf 0 0 Td ("
+                + pageCount + ") Tj ET").getBytes(StandardCharsets.ISO_8859_1));
+        mark(PAGES);
+        write(PAGES + " 0 obj\n<< /Type /Pages /Count " + pageCount + " /Kids [");
+        StringBuilder kids = new StringBuilder();
+        for (int i = 0; i < pageCount; i++) {
+            kids.append(pages[i]).append(" 0 R ");
+            if (kids.length() > 8192) {
+                write(kids.toString());
+                kids.setLength(0);
+            }
+        }
+        write(kids + "] >>\nendobj\n");
+
+        long xref = out.count();
+        StringBuilder table = new StringBuilder("xref\n0 " + nextObject + "\n0000000000 65535 f \n");
+        for (int i = 1; i < nextObject; i++) {
+            table.append(String.format("%010d 00000 n \n", offsets[i]));
+            if (table.length() > 64 * 1024) {
+                write(table.toString());
+                table.setLength(0);
+            }
+        }
+        table.append("trailer\n<< /Size ").append(nextObject).append(" /Root ").append(CATALOG)
+                .append(" 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        write(table.toString());
+        out.flush();
+        deflater.end();
+    }
+
+    // ─── Pages ───────────────────────────────────────────────────────────────
+
+    private void startPage() {
+        content.reset();
+        y = PAGE_HEIGHT - MARGIN;
+    }
+
+    private void columnHeadings() {
+        text(DATE_X, y, BOLD, FONT_SIZE, "Date");
+        text(TYPE_X, y, BOLD, FONT_SIZE, "Type");
+        text(REFERENCE_X, y, BOLD, FONT_SIZE, "Reference");
+        text(DESCRIPTION_X, y, BOLD, FONT_SIZE, "Description");
+        right(AMOUNT_RIGHT, y, BOLD, "Amount");
+        right(BALANCE_RIGHT, y, BOLD, "Balance");
+        line(y - 4);
+        y -= ROW_HEIGHT + 4;
+    }
+
+    private void finishPage() throws IOException {
+        String footer = "Page " + (pageCount + 1) + " of ";
+        text(MARGIN, FOOTER_Y, REGULAR, FONT_SIZE, footer);
+        append("q 1 0 0 1 " + (MARGIN + width(footer, FONT_SIZE)) + " " + FOOTER_Y + " cm /Total Do Q\n");
+
+        int contents = nextObject++;
+        int page = nextObject++;
+        deflater.reset();
+        deflater.setInput(content.toByteArray());
+        deflater.finish();
+        compressed.reset();
+        while (!deflater.finished()) {
+            int n = deflater.deflate(deflateBuffer);
+            compressed.write(deflateBuffer, 0, n);
+        }
+        stream(contents, "/Filter /FlateDecode", compressed.toByteArray());
+        object(page, "<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "]"
+                + " /Resources << /Font << /F" + REGULAR + " " + REGULAR + " 0 R /F" + BOLD + " " + BOLD + " 0 R >>"
+                + " /XObject << /Total " + PAGE_TOTAL + " 0 R >> >> /Contents " + contents + " 0 R >>");
+        if (pageCount == pages.length) pages = Arrays.copyOf(pages, pageCount * 2);
+        pages[pageCount++] = page;
+    }
+
+    private void text(int x, int y, int font, int size, String text) {
+        append("BT /F" + font + " " + size + " Tf " + x + " " + y + " Td (" + escape(text) + ") Tj ET\n");
+    }
+
+    private void right(int rightEdge, int y, int font, String text) {
+        float x = rightEdge - width(text, FONT_SIZE);
+        append("BT /F" + font + " " + FONT_SIZE + " Tf " + x + " " + y + " Td (" + escape(text) + ") Tj ET\n");
+    }
+
+    private void line(int atY) {
+        append("0.5 w " + MARGIN + " " + atY + " m " + (PAGE_WIDTH - MARGIN) + " " + atY + " l S\n");
+    }
+
+    private void append(String operators) {
+        content.writeBytes(operators.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /** The text cut, with an ellipsis, to what fits in {@code maxWidth} points. */
+    private static String fit(String text, int maxWidth) {
+        if (text == null) return "";
+        if (width(text, FONT_SIZE) <= maxWidth) return text;
+        float budget = maxWidth - width("...", FONT_SIZE);
+        float used = 0;
+        int end = 0;
+        while (end < text.length()) {
+            float w = charWidth(text.charAt(end)) * FONT_SIZE / 1000f;
+            if (used + w > budget) break;
+            used += w;
+            end++;
+        }
+        return text.substring(0, end) + "...";
+    }
+
+    private static float width(String text, int size) {
+        float units = 0;
+        for (int i = 0; i < text.length(); i++) units += charWidth(text.charAt(i));
+        return units * size / 1000f;
+    }
+
+    private static int charWidth(char c) {
+        return c >= ' ' && c <= '~' ? WIDTHS[c - ' '] : 556;
+    }
+
+    // Latin-1 text maps to WinAnsi unchanged; anything else prints as '?'
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') escaped.append('\\').append(c);
+            else if (c < ' ' || c > 0xff) escaped.append(c < ' ' ? ' ' : '?');
+            else escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    // ─── Objects ─────────────────────────────────────────────────────────────
+
+    private void object(int number, String body) throws IOException {
+        mark(number);
+        write(number + " 0 obj\n" + body + "\nendobj\n");
+    }
+
+    private void stream(int number, String dictionary, byte[] data) throws IOException {
+        mark(number);
+        write(number + " 0 obj\n<< " + dictionary + " /Length " + data.length + " >>\nstream\n");
+        out.write(data);
+        write("\nendstream\nendobj\n");
+    }
+
+    private void mark(int number) {
+        if (number >= offsets.length) offsets = Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        offsets[number] = out.count();
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /** Tracks the byte offsets the cross-reference table needs. */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long count() {
+            return count;
+        }
+    }
+}
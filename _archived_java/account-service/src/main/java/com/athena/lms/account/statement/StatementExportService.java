@@ -0,0 +1,439 @@
+package com.athena.lms.account.statement;
+
+import com.athena.lms.account.dto.request.StatementExportRequest;
+import com.athena.lms.account.dto.response.StatementExportResponse;
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.StatementExport;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.AccountTransactionRepository;
+import com.athena.lms.account.repository.StatementExportRepository;
+import com.athena.lms.common.exception.BusinessException;
+import com.athena.lms.common.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Account statements of any length, as CSV or PDF.
+ *
+ * Transactions are read through a database cursor in time order and written out as they
+ * arrive, with the running balance carried from the opening balance, so memory use does not
+ * grow with the period. A statement can be streamed straight to the caller, or generated in
+ * the background: the finished file is stored in fixed-size chunks and downloaded with HTTP
+ * range requests, so an interrupted download resumes where it stopped. Export jobs are
+ * claimed with a lease, like bulk credit batches, and one abandoned by a stopped replica is
+ * picked up by any other.
+ */
+@Service
+@Slf4j
+public class StatementExportService {
+
+    private static final int CURSOR_FETCH_SIZE = 1000;
+
+    private final AccountRepository accountRepository;
+    private final AccountTransactionRepository transactionRepository;
+    private final StatementExportRepository exportRepository;
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate chunkReader;
+    private final TransactionTemplate jobTransaction;
+    private final int chunkBytes;
+    private final int timeoutSeconds;
+    private final int retentionHours;
+    private final int maxAttempts;
+    private final String owner;
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            daemon("statement-export-sweep"));
+
+    public StatementExportService(AccountRepository accountRepository,
+                                  AccountTransactionRepository transactionRepository,
+                                  StatementExportRepository exportRepository,
+                                  DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${lms.statement.export.chunk-bytes:1048576}") int chunkBytes,
+                                  @Value("${lms.statement.export.workers:1}") int workers,
+                                  @Value("${lms.statement.export.timeout-minutes:30}") int timeoutMinutes,
+                                  @Value("${lms.statement.export.retention-hours:24}") int retentionHours,
+                                  @Value("${lms.statement.export.max-attempts:3}") int maxAttempts) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.exportRepository = exportRepository;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(CURSOR_FETCH_SIZE);
+        // Chunks are large; fetch them a couple at a time
+        this.chunkReader = new JdbcTemplate(dataSource);
+        this.chunkReader.setFetchSize(2);
+        this.jobTransaction = new TransactionTemplate(transactionManager);
+        this.chunkBytes = chunkBytes;
+        this.timeoutSeconds = timeoutMinutes * 60;
+        this.retentionHours = retentionHours;
+        this.maxAttempts = maxAttempts;
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        this.workers = Executors.newFixedThreadPool(workers, daemon("statement-export"));
+    }
+
+    public static StatementExport.Format format(String format) {
+        if (format == null || format.isBlank()) return StatementExport.Format.CSV;
+        try {
+            return StatementExport.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw BusinessException.badRequest("Invalid statement format: " + format + " (CSV or PDF)");
+        }
+    }
+
+    // ─── Streamed statements ─────────────────────────────────────────────────
+
+    /** Writes the statement to {@code out} as it is read. Nothing is written if the request is invalid. */
+    @Transactional(readOnly = true)
+    public void stream(UUID accountId, String tenantId, LocalDate from, LocalDate to,
+                       StatementExport.Format format, OutputStream out) {
+        Account account = accountRepository.findByIdAndTenantId(accountId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account", accountId));
+        checkPeriod(from, to);
+        write(account, from, to, format, out, 0);
+    }
+
+    // Must run in a transaction: the cursor only streams with auto-commit off. A timeout of
+    // zero lets the statement run as long as the caller keeps reading.
+    private long write(Account account, LocalDate from, LocalDate to, StatementExport.Format format,
+                       OutputStream out, long timeoutNanos) {
+        long started = System.nanoTime();
+        LocalDateTime fromDt = from.atStartOfDay();
+        LocalDateTime toDt = to.plusDays(1).atStartOfDay();
+        BigDecimal opening = transactionRepository.sumNetBalanceChangeBefore(account.getId(), fromDt);
+
+        StatementWriter writer = StatementWriter.of(format, out);
+        Totals totals = new Totals(opening);
+        try {
+            writer.begin(new StatementWriter.Header(account.getAccountNumber(),
+                    account.getAccountName(), account.getCurrency(), from, to, opening));
+            jdbc.query("SELECT created_at, transaction_type, amount, reference, description, channel " +
+                            "FROM account_transactions WHERE account_id = ? AND created_at >= ? AND created_at < ? " +
+                            "ORDER BY created_at, id",
+                    rs -> {
+                        String type = rs.getString(2);
+                        BigDecimal amount = rs.getBigDecimal(3);
+                        try {
+                            writer.row(new StatementWriter.Row(rs.getTimestamp(1).toLocalDateTime(), type, amount,
+                                    totals.apply(type, amount), rs.getString(4), rs.getString(5), rs.getString(6)));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if (timeoutNanos > 0 && totals.count % CURSOR_FETCH_SIZE == 0
+                                && System.nanoTime() - started > timeoutNanos) {
+                            throw new IllegalStateException("Statement took longer than the export timeout");
+                        }
+                    },
+                    account.getId(), Timestamp.valueOf(fromDt), Timestamp.valueOf(toDt));
+            writer.end(new StatementWriter.Totals(totals.count, totals.credits, totals.debits, totals.balance));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return totals.count;
+    }
+
+    private static final class Totals {
+        private BigDecimal balance;
+        private BigDecimal credits = BigDecimal.ZERO;
+        private BigDecimal debits = BigDecimal.ZERO;
+        private long count;
+
+        Totals(BigDecimal opening) {
+            this.balance = opening;
+        }
+
+        BigDecimal apply(String type, BigDecimal amount) {
+            count++;
+            if ("CREDIT".equals(type)) {
+                credits = credits.add(amount);
+                balance = balance.add(amount);
+            } else {
+                debits = debits.add(amount);
+                balance = balance.subtract(amount);
+            }
+            return balance;
+        }
+    }
+
+    private static void checkPeriod(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw BusinessException.badRequest("Statement period starts after it ends: " + from + " to " + to);
+        }
+    }
+
+    // ─── Background exports ──────────────────────────────────────────────────
+
+    @Transactional
+    public StatementExportResponse requestExport(UUID accountId, String tenantId, StatementExportRequest req,
+                                                 String requestedBy) {
+        accountRepository.findByIdAndTenantId(accountId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account", accountId));
+        checkPeriod(req.getFrom(), req.getTo());
+        StatementExport export = exportRepository.save(StatementExport.builder()
+                .id(UUID.randomUUID())
+                .tenantId(tenantId)
+                .accountId(accountId)
+                .periodFrom(req.getFrom())
+                .periodTo(req.getTo())
+                .format(format(req.getFormat()))
+                .status(StatementExport.ExportStatus.PENDING)
+                .requestedBy(requestedBy)
+                .createdAt(LocalDateTime.now())
+                .build());
+        UUID exportId = export.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(exportId);
+            }
+        });
+        log.info("Statement export {} requested for account {}: {} to {} as {}",
+                exportId, accountId, req.getFrom(), req.getTo(), export.getFormat());
+        return StatementExportResponse.from(export);
+    }
+
+    @Transactional(readOnly = true)
+    public StatementExportResponse getExport(UUID accountId, UUID exportId, String tenantId) {
+        return StatementExportResponse.from(findExport(accountId, exportId, tenantId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<StatementExportResponse> listExports(UUID accountId, String tenantId) {
+        return exportRepository.findTop20ByAccountIdAndTenantIdOrderByCreatedAtDesc(accountId, tenantId)
+                .stream().map(StatementExportResponse::from).toList();
+    }
+
+    /** A finished export, ready to download. */
+    @Transactional(readOnly = true)
+    public StatementExport completedExport(UUID accountId, UUID exportId, String tenantId) {
+        StatementExport export = findExport(accountId, exportId, tenantId);
+        if (export.getStatus() != StatementExport.ExportStatus.COMPLETED) {
+            throw new BusinessException(HttpStatus.CONFLICT, "Statement export is " + export.getStatus());
+        }
+        return export;
+    }
+
+    /** Copies bytes {@code first} to {@code last}, inclusive, of a finished export's file. */
+    @Transactional(readOnly = true)
+    public void copy(StatementExport export, long first, long last, OutputStream out) {
+        int size = export.getChunkBytes();
+        chunkReader.query("SELECT seq, data FROM statement_export_chunks " +
+                        "WHERE export_id = ? AND seq BETWEEN ? AND ? ORDER BY seq",
+                rs -> {
+                    long start = (long) rs.getInt(1) * size;
+                    byte[] data = rs.getBytes(2);
+                    int from = (int) Math.max(0, first - start);
+                    int to = (int) Math.min(data.length, last + 1 - start);
+                    try {
+                        out.write(data, from, to - from);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                export.getId(), (int) (first / size), (int) (last / size));
+    }
+
+    private StatementExport findExport(UUID accountId, UUID exportId, String tenantId) {
+        return exportRepository.findByIdAndAccountIdAndTenantId(exportId, accountId, tenantId)
+                .filter(e -> e.getExpiresAt() == null || e.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Statement export", exportId));
+    }
+
+    // ─── Export jobs ─────────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSweeping() {
+        sweeper.scheduleWithFixedDelay(this::sweep, 0, 60, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    void sweep() {
+        try {
+            int purged = jdbc.update("DELETE FROM statement_exports WHERE expires_at < NOW()");
+            if (purged > 0) log.info("Purged {} expired statement export(s)", purged);
+            jdbc.update("UPDATE statement_exports SET status = 'FAILED', claimed_until = NULL, " +
+                    "error = 'Export did not finish after ' || attempts || ' attempt(s)', " +
+                    "expires_at = NOW() + make_interval(hours => ?) " +
+                    "WHERE status IN ('PENDING', 'RUNNING') AND attempts >= ? " +
+                    "AND (claimed_until IS NULL OR claimed_until < NOW())", retentionHours, maxAttempts);
+            jdbc.queryForList("SELECT id FROM statement_exports WHERE status IN ('PENDING', 'RUNNING') " +
+                            "AND (claimed_until IS NULL OR claimed_until < NOW()) ORDER BY created_at", UUID.class)
+                    .forEach(this::submit);
+        } catch (RuntimeException e) {
+            log.warn("Statement export sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void submit(UUID exportId) {
+        if (!running.add(exportId)) return;
+        try {
+            workers.execute(() -> {
+                try {
+                    run(exportId);
+                } finally {
+                    running.remove(exportId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(exportId);
+        }
+    }
+
+    // The lease covers the whole job, which is cut off when it runs out, so a claimed export
+    // is never generated twice at once. The file's chunks commit with its COMPLETED status.
+    void run(UUID exportId) {
+        int claimed = jdbc.update("UPDATE statement_exports SET status = 'RUNNING', attempts = attempts + 1, " +
+                "claimed_by = ?, claimed_until = NOW() + make_interval(secs => ?) " +
+                "WHERE id = ? AND status IN ('PENDING', 'RUNNING') AND attempts < ? " +
+                "AND (claimed_until IS NULL OR claimed_until < NOW())",
+                owner, timeoutSeconds, exportId, maxAttempts);
+        if (claimed == 0) return;
+        long started = System.nanoTime();
+        // Stops short of the lease so the job never outlives its claim
+        long timeout = TimeUnit.SECONDS.toNanos(Math.max(1, timeoutSeconds - 5));
+        try {
+            Long count = jobTransaction.execute(status -> {
+                StatementExport export = exportRepository.findById(exportId).orElseThrow();
+                Account account = accountRepository.findById(export.getAccountId()).orElseThrow();
+                ChunkedExportStream out = new ChunkedExportStream(exportId);
+                long transactions = write(account, export.getPeriodFrom(), export.getPeriodTo(),
+                        export.getFormat(), out, timeout);
+                out.close();
+                int done = jdbc.update("UPDATE statement_exports SET status = 'COMPLETED', transaction_count = ?, " +
+                        "size_bytes = ?, chunk_bytes = ?, sha256 = ?, error = NULL, completed_at = NOW(), " +
+                        "expires_at = NOW() + make_interval(hours => ?), claimed_until = NULL " +
+                        "WHERE id = ? AND claimed_by = ?",
+                        transactions, out.size, chunkBytes, out.sha256(), retentionHours, exportId, owner);
+                if (done == 0) throw new IllegalStateException("Statement export " + exportId + " claimed elsewhere");
+                return transactions;
+            });
+            log.info("Statement export {} completed: {} transactions in {} ms", exportId, count,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.error("Statement export {} failed: {}", exportId, e.getMessage(), e);
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            // Retried from the next sweep until the attempts run out
+            jdbc.update("UPDATE statement_exports SET claimed_until = NULL, error = ?, " +
+                    "status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END, " +
+                    "expires_at = CASE WHEN attempts >= ? THEN NOW() + make_interval(hours => ?) END " +
+                    "WHERE id = ? AND claimed_by = ?",
+                    error.length() > 255 ? error.substring(0, 255) : error,
+                    maxAttempts, maxAttempts, retentionHours, exportId, owner);
+        }
+    }
+
+    /** Buffers the file into chunk rows, hashing it on the way. */
+    private final class ChunkedExportStream extends OutputStream {
+
+        private final UUID exportId;
+        private final byte[] buffer = new byte[chunkBytes];
+        private final MessageDigest digest;
+        private int length;
+        private int seq;
+        private long size;
+
+        ChunkedExportStream(UUID exportId) {
+            this.exportId = exportId;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            if (length == buffer.length) flushChunk();
+            buffer[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                if (length == buffer.length) flushChunk();
+                int n = Math.min(len, buffer.length - length);
+                System.arraycopy(b, off, buffer, length, n);
+                length += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (length > 0) flushChunk();
+        }
+
+        private void flushChunk() {
+            byte[] data = length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+            digest.update(buffer, 0, length);
+            int chunk = seq++;
+            jdbc.update(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "INSERT INTO statement_export_chunks (export_id, seq, data) VALUES (?, ?, ?)");
+                ps.setObject(1, exportId);
+                ps.setInt(2, chunk);
+                ps.setBytes(3, data);
+                return ps;
+            });
+            size += length;
+            length = 0;
+        }
+
+        String sha256() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "account-service";
+        }
+    }
+}
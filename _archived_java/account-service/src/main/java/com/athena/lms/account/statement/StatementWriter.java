@@ -0,0 +1,39 @@
+package com.athena.lms.account.statement;
+
+import com.athena.lms.account.entity.StatementExport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Renders a statement as its rows arrive, holding nothing but the current page, so output of
+ * any length is written in constant memory. Callers give rows in time order with the running
+ * balance already applied.
+ */
+interface StatementWriter {
+
+    record Header(String accountNumber, String accountName, String currency,
+                  LocalDate from, LocalDate to, BigDecimal openingBalance) {}
+
+    record Row(LocalDateTime at, String type, BigDecimal amount, BigDecimal balance,
+               String reference, String description, String channel) {}
+
+    record Totals(long transactions, BigDecimal credits, BigDecimal debits, BigDecimal closingBalance) {}
+
+    void begin(Header header) throws IOException;
+
+    void row(Row row) throws IOException;
+
+    /** Writes the closing section and flushes; the stream is left open. */
+    void end(Totals totals) throws IOException;
+
+    static StatementWriter of(StatementExport.Format format, OutputStream out) {
+        return switch (format) {
+            case CSV -> new CsvStatementWriter(out);
+            case PDF -> new PdfStatementWriter(out);
+        };
+    }
+}
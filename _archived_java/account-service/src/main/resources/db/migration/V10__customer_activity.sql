@@ -0,0 +1,12 @@
+-- account-service V10 — last customer activity per account, for dormancy (AccountMovements / DormancySweeper)
+
+ALTER TABLE accounts ADD COLUMN last_customer_activity_at TIMESTAMP;
+
+UPDATE accounts a SET last_customer_activity_at = COALESCE(
+    (SELECT MAX(t.created_at) FROM account_transactions t WHERE t.account_id = a.id), a.created_at);
+
+ALTER TABLE accounts ALTER COLUMN last_customer_activity_at SET DEFAULT NOW();
+ALTER TABLE accounts ALTER COLUMN last_customer_activity_at SET NOT NULL;
+
+-- Deliberately not indexed: every credit and debit sets it, and leaving it out of every index
+-- keeps those updates HOT. The dormancy sweep walks accounts by primary key instead.
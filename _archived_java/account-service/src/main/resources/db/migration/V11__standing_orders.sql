@@ -0,0 +1,51 @@
+-- account-service V11 — standing orders (StandingOrderService / StandingOrderExecutor)
+
+-- A recurring transfer between two accounts. next_due_date is the next date not yet scheduled;
+-- it is NULL once the order is cancelled or has run past end_date.
+CREATE TABLE standing_orders (
+    id                     UUID PRIMARY KEY,
+    tenant_id              VARCHAR(50)   NOT NULL,
+    source_account_id      UUID          NOT NULL REFERENCES accounts(id),
+    destination_account_id UUID          NOT NULL REFERENCES accounts(id),
+    transfer_type          VARCHAR(20)   NOT NULL CHECK (transfer_type IN ('INTERNAL','THIRD_PARTY')),
+    frequency              VARCHAR(20)   NOT NULL CHECK (frequency IN ('DAILY','WEEKLY','MONTHLY','END_OF_MONTH')),
+    amount_rule            VARCHAR(20)   NOT NULL CHECK (amount_rule IN ('FIXED','SWEEP_ABOVE','FULL_BALANCE')),
+    amount                 DECIMAL(15,2) CHECK (amount > 0),
+    threshold              DECIMAL(15,2) CHECK (threshold >= 0),
+    max_retries            INTEGER       NOT NULL CHECK (max_retries >= 0),
+    retry_interval_hours   INTEGER       NOT NULL CHECK (retry_interval_hours > 0),
+    start_date             DATE          NOT NULL,
+    end_date               DATE,
+    next_due_date          DATE,
+    status                 VARCHAR(20)   NOT NULL CHECK (status IN ('ACTIVE','PAUSED','CANCELLED','COMPLETED')),
+    narration              VARCHAR(255),
+    created_by             VARCHAR(100),
+    created_at             TIMESTAMP     NOT NULL DEFAULT NOW(),
+    updated_at             TIMESTAMP     NOT NULL DEFAULT NOW(),
+    CHECK (amount_rule <> 'FIXED' OR amount IS NOT NULL),
+    CHECK (amount_rule <> 'SWEEP_ABOVE' OR threshold IS NOT NULL)
+);
+
+-- The scheduler's due-date index: only orders that still have dates to schedule
+CREATE INDEX idx_standing_orders_due ON standing_orders (next_due_date) WHERE status = 'ACTIVE';
+CREATE INDEX idx_standing_orders_source ON standing_orders (tenant_id, source_account_id);
+CREATE INDEX idx_standing_orders_destination ON standing_orders (tenant_id, destination_account_id);
+
+-- One row per order and due date; the key is what makes each date run once. A PENDING row
+-- with attempts > 0 is waiting to retry after insufficient funds.
+CREATE TABLE standing_order_executions (
+    order_id        UUID          NOT NULL REFERENCES standing_orders(id),
+    due_date        DATE          NOT NULL,
+    tenant_id       VARCHAR(50)   NOT NULL,
+    status          VARCHAR(20)   NOT NULL CHECK (status IN ('PENDING','COMPLETED','SKIPPED','FAILED')),
+    attempts        INTEGER       NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP     NOT NULL,
+    amount          DECIMAL(15,2),
+    transfer_id     UUID,
+    last_error      VARCHAR(255),
+    created_at      TIMESTAMP     NOT NULL DEFAULT NOW(),
+    completed_at    TIMESTAMP,
+    PRIMARY KEY (order_id, due_date)
+);
+
+CREATE INDEX idx_standing_order_executions_due ON standing_order_executions (next_attempt_at) WHERE status = 'PENDING';
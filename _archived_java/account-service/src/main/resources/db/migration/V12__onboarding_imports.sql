@@ -0,0 +1,57 @@
+-- account-service V12 — bulk customer and account onboarding (OnboardingImportService / OnboardingImporter)
+
+CREATE TABLE onboarding_imports (
+    id                 UUID PRIMARY KEY,
+    tenant_id          VARCHAR(50)   NOT NULL,
+    file_name          VARCHAR(255),
+    file_sha256        VARCHAR(64)   NOT NULL,
+    dry_run            BOOLEAN       NOT NULL,
+    status             VARCHAR(30)   NOT NULL CHECK (status IN ('VALIDATED','PENDING','PROCESSING','COMPLETED','COMPLETED_WITH_ERRORS')),
+    total_rows         INTEGER       NOT NULL,
+    valid_rows         INTEGER       NOT NULL,
+    invalid_rows       INTEGER       NOT NULL,
+    skipped_rows       INTEGER       NOT NULL,
+    imported_customers INTEGER       NOT NULL DEFAULT 0,
+    imported_accounts  INTEGER       NOT NULL DEFAULT 0,
+    failed_rows        INTEGER       NOT NULL DEFAULT 0,
+    submitted_by       VARCHAR(100),
+    claimed_by         VARCHAR(100),
+    claimed_until      TIMESTAMP,
+    created_at         TIMESTAMP     NOT NULL DEFAULT NOW(),
+    updated_at         TIMESTAMP     NOT NULL DEFAULT NOW(),
+    completed_at       TIMESTAMP
+);
+
+CREATE INDEX idx_onboarding_imports_tenant ON onboarding_imports (tenant_id, created_at DESC);
+CREATE INDEX idx_onboarding_imports_open ON onboarding_imports (status) WHERE status IN ('PENDING','PROCESSING');
+
+-- A dry run keeps only the rows that would not be imported; an import keeps every row.
+-- SKIPPED rows name a customer the tenant already has, so a file can be resubmitted safely.
+CREATE TABLE onboarding_import_rows (
+    import_id      UUID          NOT NULL REFERENCES onboarding_imports(id),
+    row_no         INTEGER       NOT NULL,
+    customer_id    VARCHAR(100),
+    first_name     VARCHAR(100),
+    last_name      VARCHAR(100),
+    email          VARCHAR(200),
+    phone          VARCHAR(30),
+    date_of_birth  DATE,
+    national_id    VARCHAR(50),
+    gender         VARCHAR(10),
+    address        TEXT,
+    customer_type  VARCHAR(20),
+    account_type   VARCHAR(20),
+    currency       VARCHAR(3),
+    kyc_tier       INTEGER,
+    account_name   VARCHAR(100),
+    status         VARCHAR(20)   NOT NULL CHECK (status IN ('INVALID','SKIPPED','PENDING','IMPORTED','FAILED')),
+    error          VARCHAR(255),
+    customer_uuid  UUID,
+    account_id     UUID,
+    account_number VARCHAR(20),
+    notified       BOOLEAN       NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (import_id, row_no)
+);
+
+CREATE INDEX idx_onboarding_rows_pending ON onboarding_import_rows (import_id, row_no) WHERE status = 'PENDING';
+CREATE INDEX idx_onboarding_rows_unnotified ON onboarding_import_rows (import_id, row_no) WHERE status = 'IMPORTED' AND NOT notified;
@@ -0,0 +1,25 @@
+-- account-service V13 — account numbers counted per rendered prefix
+-- SequenceService keys a counter by the tenant text its pattern renders ({tenant:3}, see
+-- application.yml), so tenants sharing a three-letter prefix draw from one counter instead of
+-- each starting at 1. Each prefix's counter starts past every number already issued under it,
+-- whether counted by a tenant's old row or found on an account.
+
+INSERT INTO lms_sequences (tenant_id, sequence_name, next_value)
+SELECT prefix, 'account-number', MAX(next_value)
+FROM (
+    SELECT UPPER(LEFT(tenant_id, 3)) AS prefix, next_value
+    FROM lms_sequences
+    WHERE sequence_name = 'account-number'
+    UNION ALL
+    -- Sequenced numbers end in nine digits and a check digit; the old random ones have eight
+    SELECT UPPER(LEFT(tenant_id, 3)), CAST(SUBSTRING(account_number FROM '([0-9]{9})[0-9]$') AS BIGINT) + 1
+    FROM accounts
+    WHERE account_number ~ '-[0-9]{10}$'
+) issued
+GROUP BY prefix
+ON CONFLICT (tenant_id, sequence_name)
+DO UPDATE SET next_value = GREATEST(lms_sequences.next_value, EXCLUDED.next_value), updated_at = NOW();
+
+DELETE FROM lms_sequences
+WHERE sequence_name = 'account-number'
+  AND tenant_id <> UPPER(LEFT(tenant_id, 3));
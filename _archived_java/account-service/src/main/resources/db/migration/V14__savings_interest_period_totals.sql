@@ -0,0 +1,27 @@
+-- account-service V14 — savings interest: indexed day-end balances, published period totals
+
+-- The accrual's day-end balance sums each account's movements since the day end; this keeps
+-- that to a range scan over the recent rows instead of the account's whole history
+CREATE INDEX IF NOT EXISTS idx_txn_account_created ON account_transactions (account_id, created_at);
+
+-- Per-tenant totals of a period's capitalizations, added to by each chunk as it posts, so the
+-- account.interest.capitalized event no longer re-sums the period's postings
+CREATE TABLE savings_interest_period_totals (
+    period_end   DATE          NOT NULL,
+    tenant_id    VARCHAR(50)   NOT NULL,
+    accounts     INTEGER       NOT NULL,
+    gross_amount DECIMAL(18,2) NOT NULL,
+    tax_amount   DECIMAL(18,2) NOT NULL,
+    PRIMARY KEY (period_end, tenant_id)
+);
+
+INSERT INTO savings_interest_period_totals (period_end, tenant_id, accounts, gross_amount, tax_amount)
+SELECT period_end, tenant_id, COUNT(*), SUM(gross_amount), SUM(tax_amount)
+FROM savings_interest_postings
+GROUP BY period_end, tenant_id;
+
+-- Set once a capitalization run's totals have gone out; periods completed before this were sent
+ALTER TABLE savings_interest_runs ADD COLUMN published_at TIMESTAMP;
+
+UPDATE savings_interest_runs SET published_at = completed_at
+WHERE run_type = 'CAPITALIZATION' AND status = 'COMPLETED';
@@ -0,0 +1,12 @@
+-- account-service V15 — bulk credits: bounded retries for a batch that keeps failing
+
+-- attempts counts the batch's failed runs since a chunk last committed. Past the limit a line
+-- that fails on its own is marked FAILED and posting moves on; a batch that fails outside its
+-- lines is marked FAILED and no longer resumed
+ALTER TABLE bulk_credit_batches
+    ADD COLUMN attempts   INTEGER      NOT NULL DEFAULT 0,
+    ADD COLUMN last_error VARCHAR(255);
+
+ALTER TABLE bulk_credit_batches DROP CONSTRAINT bulk_credit_batches_status_check;
+ALTER TABLE bulk_credit_batches ADD CONSTRAINT bulk_credit_batches_status_check
+    CHECK (status IN ('REJECTED','PENDING','PROCESSING','COMPLETED','COMPLETED_WITH_ERRORS','FAILED'));
@@ -0,0 +1,9 @@
+-- account-service V5 — counters for SequenceService (athena-lms-common)
+
+CREATE TABLE lms_sequences (
+    tenant_id     VARCHAR(50)  NOT NULL,
+    sequence_name VARCHAR(100) NOT NULL,
+    next_value    BIGINT       NOT NULL,
+    updated_at    TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (tenant_id, sequence_name)
+);
@@ -0,0 +1,6 @@
+-- account-service V6 — trigram indexes for the database customer search, used while the
+-- in-memory search index loads. Name, account number and account name are covered by V1/V4.
+
+CREATE INDEX IF NOT EXISTS idx_customers_phone_trgm       ON customers USING GIN (phone gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_email_trgm       ON customers USING GIN (email gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_customer_id_trgm ON customers USING GIN (customer_id gin_trgm_ops);
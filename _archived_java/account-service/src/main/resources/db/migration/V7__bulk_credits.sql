@@ -0,0 +1,49 @@
+-- account-service V7 — bulk credit files (BulkCreditService / BulkCreditPoster)
+
+CREATE TABLE bulk_credit_batches (
+    id             UUID PRIMARY KEY,
+    tenant_id      VARCHAR(50)   NOT NULL,
+    file_name      VARCHAR(255),
+    file_sha256    VARCHAR(64)   NOT NULL,
+    channel        VARCHAR(50)   NOT NULL DEFAULT 'BULK',
+    description    VARCHAR(255),
+    status         VARCHAR(30)   NOT NULL CHECK (status IN ('REJECTED','PENDING','PROCESSING','COMPLETED','COMPLETED_WITH_ERRORS')),
+    total_lines    INTEGER       NOT NULL,
+    total_amount   DECIMAL(18,2) NOT NULL,
+    posted_lines   INTEGER       NOT NULL DEFAULT 0,
+    posted_amount  DECIMAL(18,2) NOT NULL DEFAULT 0,
+    failed_lines   INTEGER       NOT NULL DEFAULT 0,
+    submitted_by   VARCHAR(100),
+    claimed_by     VARCHAR(100),
+    claimed_until  TIMESTAMP,
+    created_at     TIMESTAMP     NOT NULL DEFAULT NOW(),
+    updated_at     TIMESTAMP     NOT NULL DEFAULT NOW(),
+    completed_at   TIMESTAMP
+);
+
+-- A file accepted once is not posted twice; a rejected one may be corrected and resubmitted
+CREATE UNIQUE INDEX uq_bulk_credit_file ON bulk_credit_batches (tenant_id, file_sha256) WHERE status <> 'REJECTED';
+CREATE INDEX idx_bulk_credit_tenant ON bulk_credit_batches (tenant_id, created_at DESC);
+CREATE INDEX idx_bulk_credit_open ON bulk_credit_batches (status) WHERE status IN ('PENDING','PROCESSING');
+
+-- post_order is the line's position sorted by account, the order balances are locked in
+CREATE TABLE bulk_credit_lines (
+    batch_id       UUID          NOT NULL REFERENCES bulk_credit_batches(id),
+    line_no        INTEGER       NOT NULL,
+    post_order     INTEGER       NOT NULL,
+    account_ref    VARCHAR(100)  NOT NULL,
+    account_id     UUID,
+    amount         DECIMAL(15,2),
+    reference      VARCHAR(100),
+    description    VARCHAR(255),
+    status         VARCHAR(20)   NOT NULL CHECK (status IN ('INVALID','SKIPPED','PENDING','POSTED','FAILED')),
+    error          VARCHAR(255),
+    transaction_id UUID,
+    balance_after  DECIMAL(15,2),
+    posted_at      TIMESTAMP,
+    notified       BOOLEAN       NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (batch_id, line_no)
+);
+
+CREATE INDEX idx_bulk_credit_lines_pending ON bulk_credit_lines (batch_id, post_order) WHERE status = 'PENDING';
+CREATE INDEX idx_bulk_credit_lines_unnotified ON bulk_credit_lines (batch_id, line_no) WHERE status = 'POSTED' AND NOT notified;
@@ -0,0 +1,40 @@
+-- account-service V8 — streamed statements and background statement exports (StatementExportService)
+
+-- Statements read an account's transactions in time order; amount and type ride along so the
+-- opening balance sum is answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_txn_account_created
+    ON account_transactions (account_id, created_at, id) INCLUDE (transaction_type, amount);
+
+CREATE TABLE statement_exports (
+    id                UUID PRIMARY KEY,
+    tenant_id         VARCHAR(50)  NOT NULL,
+    account_id        UUID         NOT NULL REFERENCES accounts(id),
+    period_from       DATE         NOT NULL,
+    period_to         DATE         NOT NULL,
+    format            VARCHAR(10)  NOT NULL CHECK (format IN ('CSV','PDF')),
+    status            VARCHAR(20)  NOT NULL CHECK (status IN ('PENDING','RUNNING','COMPLETED','FAILED')),
+    attempts          INTEGER      NOT NULL DEFAULT 0,
+    transaction_count BIGINT,
+    size_bytes        BIGINT,
+    chunk_bytes       INTEGER,
+    sha256            VARCHAR(64),
+    error             VARCHAR(255),
+    requested_by      VARCHAR(100),
+    claimed_by        VARCHAR(100),
+    claimed_until     TIMESTAMP,
+    created_at        TIMESTAMP    NOT NULL DEFAULT NOW(),
+    completed_at      TIMESTAMP,
+    expires_at        TIMESTAMP
+);
+
+CREATE INDEX idx_statement_exports_account ON statement_exports (tenant_id, account_id, created_at DESC);
+CREATE INDEX idx_statement_exports_open ON statement_exports (status) WHERE status IN ('PENDING','RUNNING');
+CREATE INDEX idx_statement_exports_expiry ON statement_exports (expires_at) WHERE expires_at IS NOT NULL;
+
+-- The finished file in fixed-size pieces, so a ranged download reads only the pieces it needs
+CREATE TABLE statement_export_chunks (
+    export_id  UUID    NOT NULL REFERENCES statement_exports(id) ON DELETE CASCADE,
+    seq        INTEGER NOT NULL,
+    data       BYTEA   NOT NULL,
+    PRIMARY KEY (export_id, seq)
+);
@@ -0,0 +1,73 @@
+-- account-service V9 — savings interest accrual and capitalization (SavingsInterestEngine)
+
+-- Per-tenant terms; a tenant without a row uses the lms.savings-interest defaults
+CREATE TABLE savings_interest_settings (
+    tenant_id                VARCHAR(50)  PRIMARY KEY,
+    capitalization_frequency VARCHAR(20)  NOT NULL CHECK (capitalization_frequency IN ('MONTHLY','QUARTERLY')),
+    withholding_tax_rate     DECIMAL(5,2) NOT NULL CHECK (withholding_tax_rate >= 0 AND withholding_tax_rate < 100),
+    day_count                INTEGER      NOT NULL CHECK (day_count IN (360, 365)),
+    updated_at               TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+-- Rate schedules by day-end balance: the whole balance earns the rate of the highest tier it
+-- reaches. A schedule applies from effective_from until the next schedule for the same
+-- tenant and currency; a tenant with no schedule pays no interest.
+CREATE TABLE savings_rate_tiers (
+    id             UUID PRIMARY KEY,
+    tenant_id      VARCHAR(50)   NOT NULL,
+    currency       VARCHAR(3)    NOT NULL,
+    effective_from DATE          NOT NULL,
+    min_balance    DECIMAL(18,2) NOT NULL CHECK (min_balance >= 0),
+    annual_rate    DECIMAL(7,4)  NOT NULL CHECK (annual_rate >= 0),
+    created_at     TIMESTAMP     NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_savings_rate_tier UNIQUE (tenant_id, currency, effective_from, min_balance)
+);
+
+-- One row per account and day; the key makes a rerun of a day a no-op. amount keeps six
+-- decimals so that fractions of a cent add up until capitalization rounds the total.
+CREATE TABLE savings_interest_accruals (
+    account_id     UUID          NOT NULL,
+    accrual_date   DATE          NOT NULL,
+    tenant_id      VARCHAR(50)   NOT NULL,
+    balance        DECIMAL(18,2) NOT NULL,
+    annual_rate    DECIMAL(7,4)  NOT NULL,
+    amount         DECIMAL(18,6) NOT NULL,
+    capitalized_on DATE,
+    PRIMARY KEY (account_id, accrual_date)
+);
+
+CREATE INDEX idx_savings_accruals_open ON savings_interest_accruals (account_id, accrual_date) WHERE capitalized_on IS NULL;
+
+-- One capitalization per account and period; its transactions carry the idempotency keys
+-- interest:{account}:{period_end} and interest-tax:{account}:{period_end}
+CREATE TABLE savings_interest_postings (
+    account_id            UUID          NOT NULL,
+    period_end            DATE          NOT NULL,
+    tenant_id             VARCHAR(50)   NOT NULL,
+    gross_amount          DECIMAL(15,2) NOT NULL,
+    tax_amount            DECIMAL(15,2) NOT NULL,
+    credit_transaction_id UUID,
+    tax_transaction_id    UUID,
+    posted_at             TIMESTAMP     NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (account_id, period_end)
+);
+
+CREATE INDEX idx_savings_postings_period ON savings_interest_postings (period_end, tenant_id);
+
+-- One accrual run per day and one capitalization run per month end. last_account_id is the
+-- keyset position, so a run taken over from a stopped replica carries on from there.
+CREATE TABLE savings_interest_runs (
+    run_type           VARCHAR(20) NOT NULL CHECK (run_type IN ('ACCRUAL','CAPITALIZATION')),
+    run_date           DATE        NOT NULL,
+    status             VARCHAR(20) NOT NULL CHECK (status IN ('PENDING','RUNNING','COMPLETED')),
+    last_account_id    UUID,
+    accounts_processed INTEGER     NOT NULL DEFAULT 0,
+    entries_written    INTEGER     NOT NULL DEFAULT 0,
+    claimed_by         VARCHAR(100),
+    claimed_until      TIMESTAMP,
+    created_at         TIMESTAMP   NOT NULL DEFAULT NOW(),
+    completed_at       TIMESTAMP,
+    PRIMARY KEY (run_type, run_date)
+);
+
+CREATE INDEX idx_accounts_savings ON accounts (id) WHERE account_type = 'SAVINGS';
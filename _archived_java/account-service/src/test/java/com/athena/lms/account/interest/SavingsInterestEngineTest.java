@@ -0,0 +1,339 @@
+package com.athena.lms.account.interest;
+
+import com.athena.lms.account.event.AccountEventPublisher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SavingsInterestEngineTest {
+
+    private static final UUID A1 = new UUID(0, 1);
+    private static final UUID A2 = new UUID(0, 2);
+
+    // The database side, answered by statement: what each query returns and what was written
+    private LocalDate lastAccrualRun = LocalDate.now().minusDays(1);
+    private final Queue<Object[]> claimable = new ArrayDeque<>();
+    private final Queue<List<UUID>> chunks = new ArrayDeque<>();
+    private int accrualRows;
+    private int leaseRenewals = 1;
+    private boolean alreadyPublished;
+    private final List<Object[]> capitalized = new ArrayList<>();
+    private final Map<UUID, BigDecimal> balances = new HashMap<>();
+    private final List<Object[]> periodTotals = new ArrayList<>();
+
+    private final List<Map<Integer, Object>> bound = new ArrayList<>();
+    private final List<String> updates = new ArrayList<>();
+    private final List<Object[]> updateArgs = new ArrayList<>();
+    private final Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AccountEventPublisher eventPublisher = mock(AccountEventPublisher.class);
+    private final SavingsInterestEngine engine;
+
+    SavingsInterestEngineTest() {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        JdbcTemplate jdbc = mock(JdbcTemplate.class, this::answer);
+        engine = new SavingsInterestEngine(jdbc, new TransactionTemplate(transactionManager), eventPublisher,
+                true, 2, 300, 600, 31, "MONTHLY", new BigDecimal("15.00"), 365);
+    }
+
+    @Nested
+    @DisplayName("Scheduling")
+    class SchedulingTests {
+
+        @Test
+        @DisplayName("each day without a run gets an accrual run, and a month end a capitalization run too")
+        void daysAfterLastRun() {
+            lastAccrualRun = LocalDate.of(2025, 1, 29);
+
+            engine.schedule(LocalDate.of(2025, 1, 31));
+
+            assertThat(scheduled()).containsExactly("ACCRUAL 2025-01-30", "ACCRUAL 2025-01-31", "CAPITALIZATION 2025-01-31");
+        }
+
+        @Test
+        @DisplayName("a long outage is caught up over the last max-catch-up-days days only")
+        void catchUpCapped() {
+            lastAccrualRun = LocalDate.of(2024, 6, 30);
+
+            engine.schedule(LocalDate.of(2025, 3, 31));
+
+            List<String> runs = scheduled();
+            assertThat(runs).hasSize(32).startsWith("ACCRUAL 2025-03-01").endsWith("ACCRUAL 2025-03-31", "CAPITALIZATION 2025-03-31");
+        }
+
+        @Test
+        @DisplayName("the first sweep ever starts with the day it is given")
+        void firstRun() {
+            lastAccrualRun = null;
+
+            engine.schedule(LocalDate.of(2025, 2, 10));
+
+            assertThat(scheduled()).containsExactly("ACCRUAL 2025-02-10");
+        }
+
+        private List<String> scheduled() {
+            List<String> runs = new ArrayList<>();
+            for (int i = 0; i < updates.size(); i++) {
+                if (!updates.get(i).startsWith("INSERT INTO savings_interest_runs")) continue;
+                String type = updates.get(i).contains("'CAPITALIZATION'") ? "CAPITALIZATION" : "ACCRUAL";
+                runs.add(type + " " + updateArgs.get(i)[0]);
+            }
+            return runs;
+        }
+    }
+
+    @Nested
+    @DisplayName("Accrual")
+    class AccrualTests {
+
+        @Test
+        @DisplayName("each chunk accrues the day at its day-end balance and moves the run on")
+        void accruesDay() {
+            claimable.add(new Object[]{"ACCRUAL", LocalDate.of(2025, 3, 10), null});
+            chunks.add(List.of(A1, A2));
+            chunks.add(List.of(new UUID(0, 3)));
+            accrualRows = 2;
+
+            engine.sweep();
+
+            assertThat(bound).hasSize(2);
+            Map<Integer, Object> first = bound.get(0);
+            Timestamp dayEnd = Timestamp.valueOf(LocalDate.of(2025, 3, 11).atStartOfDay());
+            assertThat(first.get(1)).isEqualTo(Date.valueOf("2025-03-10"));
+            assertThat(first.get(2)).isEqualTo(List.of(A1, A2));
+            // Movements since the end of the day are taken back off the current balance
+            assertThat(first.get(3)).isEqualTo(dayEnd);
+            assertThat(first.get(5)).isEqualTo(dayEnd);
+            assertThat(first.get(6)).isEqualTo(Date.valueOf("2025-03-10"));
+            assertThat(first.get(7)).isEqualTo(365);
+
+            List<Object[]> advanced = argsOf("UPDATE savings_interest_runs SET last_account_id");
+            assertThat(advanced).hasSize(2);
+            assertThat(advanced.get(0)).startsWith(A2, 2, 2);
+            assertThat(argsOf("UPDATE savings_interest_runs SET status = 'COMPLETED'")).hasSize(1);
+            verify(eventPublisher, never()).publishInterestCapitalized(any(), any(Integer.class), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("a chunk that finds its lease taken rolls back and leaves the run to the new owner")
+        void leaseLost() {
+            claimable.add(new Object[]{"ACCRUAL", LocalDate.of(2025, 3, 10), null});
+            chunks.add(List.of(A1, A2));
+            leaseRenewals = 0;
+
+            engine.sweep();
+
+            verify(transactionManager).rollback(any());
+            assertThat(argsOf("UPDATE savings_interest_runs SET status = 'COMPLETED'")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Capitalization")
+    class CapitalizationTests {
+
+        @Test
+        @DisplayName("interest is credited and the withholding tax debited after it, under per-period idempotency keys")
+        void creditsAndWithholds() {
+            claimable.add(new Object[]{"CAPITALIZATION", LocalDate.of(2025, 3, 31), null});
+            chunks.add(List.of(A1, A2));
+            capitalized.add(new Object[]{A2, "t1", new BigDecimal("10.00"), new BigDecimal("1.50")});
+            capitalized.add(new Object[]{A1, "t1", new BigDecimal("0.40"), new BigDecimal("0.00")});
+            balances.put(A1, new BigDecimal("100.00"));
+            balances.put(A2, new BigDecimal("200.00"));
+            periodTotals.add(new Object[]{"t1", 2, new BigDecimal("10.40"), new BigDecimal("1.50")});
+
+            engine.sweep();
+
+            Map<Integer, Object> capitalize = bound.get(0);
+            // A quarter end capitalizes monthly and quarterly tenants, at the default tax rate unless set
+            assertThat(capitalize.get(4)).isEqualTo(List.of("MONTHLY", "QUARTERLY"));
+            assertThat(capitalize.get(6)).isEqualTo(new BigDecimal("15.00"));
+            // Balances are locked in account id order
+            assertThat(bound.get(1).get(1)).isEqualTo(List.of(A1, A2));
+
+            List<Object[]> transactions = batch("INSERT INTO account_transactions");
+            assertThat(transactions).hasSize(3);
+            assertThat(transactions.get(0)).containsSubsequence(A1, "CREDIT", new BigDecimal("0.40"),
+                    new BigDecimal("100.40"), "INT-2025-03-31");
+            assertThat(transactions.get(0)[8]).isEqualTo("interest:" + A1 + ":2025-03-31");
+            assertThat(transactions.get(1)).containsSubsequence(A2, "CREDIT", new BigDecimal("10.00"), new BigDecimal("210.00"));
+            assertThat(transactions.get(1)[8]).isEqualTo("interest:" + A2 + ":2025-03-31");
+            assertThat(transactions.get(2)).containsSubsequence(A2, "DEBIT", new BigDecimal("1.50"),
+                    new BigDecimal("208.50"), "WHT-2025-03-31");
+            assertThat(transactions.get(2)[8]).isEqualTo("interest-tax:" + A2 + ":2025-03-31");
+
+            List<Object[]> balanceUpdates = batch("UPDATE account_balances");
+            assertThat(balanceUpdates.get(0)).startsWith(new BigDecimal("0.40"));
+            assertThat(balanceUpdates.get(1)).startsWith(new BigDecimal("8.50"));
+
+            assertThat(batch("INSERT INTO savings_interest_period_totals")).singleElement()
+                    .satisfies(row -> assertThat(Arrays.copyOfRange(row, 1, 5))
+                            .containsExactly("t1", 2, new BigDecimal("10.40"), new BigDecimal("1.50")));
+            verify(eventPublisher).publishInterestCapitalized(LocalDate.of(2025, 3, 31), 2,
+                    new BigDecimal("10.40"), new BigDecimal("1.50"), "t1");
+            assertThat(argsOf("UPDATE savings_interest_runs SET status = 'COMPLETED'")).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("a month end that is not a quarter end capitalizes monthly tenants only")
+        void monthlyOnly() {
+            claimable.add(new Object[]{"CAPITALIZATION", LocalDate.of(2025, 2, 28), null});
+            chunks.add(List.of(A1));
+
+            engine.sweep();
+
+            assertThat(bound.get(0).get(4)).isEqualTo(List.of("MONTHLY"));
+            assertThat(batches).isEmpty();
+            assertThat(argsOf("UPDATE savings_interest_runs SET last_account_id").get(0)).startsWith(A1, 1, 0);
+        }
+
+        @Test
+        @DisplayName("a period already published is not sent again when its run is resumed")
+        void publishedOnce() {
+            claimable.add(new Object[]{"CAPITALIZATION", LocalDate.of(2025, 2, 28), A2});
+            alreadyPublished = true;
+            periodTotals.add(new Object[]{"t1", 2, new BigDecimal("10.40"), new BigDecimal("1.50")});
+
+            engine.sweep();
+
+            verify(eventPublisher, never()).publishInterestCapitalized(any(), any(Integer.class), any(), any(), any());
+            assertThat(argsOf("UPDATE savings_interest_runs SET status = 'COMPLETED'")).hasSize(1);
+        }
+    }
+
+    // ─── Database stand-in ───────────────────────────────────────────────────
+
+    private List<Object[]> argsOf(String prefix) {
+        List<Object[]> matching = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (updates.get(i).startsWith(prefix)) matching.add(updateArgs.get(i));
+        }
+        return matching;
+    }
+
+    private List<Object[]> batch(String prefix) {
+        return batches.entrySet().stream().filter(e -> e.getKey().startsWith(prefix))
+                .findFirst().map(Map.Entry::getValue).orElse(List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object answer(InvocationOnMock inv) throws Exception {
+        Object[] args = inv.getRawArguments();
+        switch (inv.getMethod().getName()) {
+            case "queryForObject":
+                return lastAccrualRun;
+            case "queryForList":
+                List<UUID> chunk = chunks.poll();
+                return chunk != null ? chunk : List.of();
+            case "batchUpdate":
+                batches.put((String) args[0], (List<Object[]>) args[1]);
+                return new int[0];
+            case "update":
+                if (args[0] instanceof PreparedStatementCreator creator) {
+                    bind(creator);
+                    return accrualRows;
+                }
+                String sql = (String) args[0];
+                updates.add(sql);
+                updateArgs.add((Object[]) args[1]);
+                if (sql.startsWith("UPDATE savings_interest_runs SET last_account_id")) return leaseRenewals;
+                if (sql.startsWith("UPDATE savings_interest_runs SET published_at")) return alreadyPublished ? 0 : 1;
+                return 1;
+            case "query":
+                return query(args);
+            default:
+                throw new UnsupportedOperationException(inv.getMethod().toString());
+        }
+    }
+
+    private Object query(Object[] args) throws Exception {
+        if (args[0] instanceof PreparedStatementCreator creator) {
+            bind(creator);
+            if (args[1] instanceof RowMapper<?> mapper) {
+                // The capitalization insert's RETURNING rows
+                List<Object> rows = new ArrayList<>();
+                for (Object[] row : capitalized) rows.add(mapper.mapRow(row(row), rows.size()));
+                return rows;
+            }
+            for (Map.Entry<UUID, BigDecimal> balance : new TreeMap<>(balances).entrySet()) {
+                ((RowCallbackHandler) args[1]).processRow(row(balance.getKey(), balance.getValue()));
+            }
+            return null;
+        }
+        String sql = (String) args[0];
+        if (sql.startsWith("UPDATE savings_interest_runs r SET status = 'RUNNING'")) {
+            Object[] run = claimable.poll();
+            return run == null ? List.of() : List.of(((RowMapper<?>) args[1]).mapRow(row(run), 0));
+        }
+        if (sql.contains("FROM savings_interest_period_totals")) {
+            for (Object[] totals : periodTotals) ((RowCallbackHandler) args[1]).processRow(row(totals));
+            return null;
+        }
+        throw new UnsupportedOperationException(sql);
+    }
+
+    // Runs the creator against a recording statement, keeping its parameters by index
+    private void bind(PreparedStatementCreator creator) throws Exception {
+        Map<Integer, Object> params = new HashMap<>();
+        PreparedStatement ps = mock(PreparedStatement.class, inv -> {
+            if (inv.getMethod().getName().startsWith("set")) {
+                Object value = inv.getArgument(1);
+                // Arrays are kept as lists of their elements, so assertions can compare them
+                params.put(inv.getArgument(0), value instanceof Array a ? Arrays.asList((Object[]) a.getArray()) : value);
+            }
+            return null;
+        });
+        Connection con = mock(Connection.class);
+        when(con.prepareStatement(any())).thenReturn(ps);
+        when(con.createArrayOf(any(), any())).thenAnswer(inv -> array(inv.getArgument(1)));
+        creator.createPreparedStatement(con);
+        bound.add(params);
+    }
+
+    private static Array array(Object[] elements) throws Exception {
+        Array array = mock(Array.class);
+        when(array.getArray()).thenReturn(elements);
+        return array;
+    }
+
+    private static ResultSet row(Object... columns) {
+        return mock(ResultSet.class, inv -> inv.getMethod().getName().startsWith("get")
+                ? columns[(int) inv.getArgument(0) - 1] : null);
+    }
+}
@@ -0,0 +1,124 @@
+package com.athena.lms.account.interest;
+
+import com.athena.lms.account.dto.request.SavingsInterestSettingsRequest;
+import com.athena.lms.account.dto.request.SavingsRateScheduleRequest;
+import com.athena.lms.account.dto.response.SavingsInterestSettingsResponse;
+import com.athena.lms.account.dto.response.SavingsRateScheduleResponse;
+import com.athena.lms.account.entity.SavingsInterestSettings.CapitalizationFrequency;
+import com.athena.lms.account.entity.SavingsRateTier;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.SavingsInterestSettingsRepository;
+import com.athena.lms.account.repository.SavingsRateTierRepository;
+import com.athena.lms.common.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SavingsInterestServiceTest {
+
+    private final SavingsInterestSettingsRepository settingsRepository = mock(SavingsInterestSettingsRepository.class);
+    private final SavingsRateTierRepository tierRepository = mock(SavingsRateTierRepository.class);
+    private final SavingsInterestService service = new SavingsInterestService(settingsRepository, tierRepository,
+            mock(AccountRepository.class), mock(DataSource.class), CapitalizationFrequency.MONTHLY,
+            new BigDecimal("15.00"), 365);
+
+    @Test
+    @DisplayName("a tenant without settings sees the defaults, marked as not configured")
+    void defaults() {
+        when(settingsRepository.findById("t1")).thenReturn(Optional.empty());
+
+        SavingsInterestSettingsResponse settings = service.getSettings("t1");
+
+        assertThat(settings.getCapitalizationFrequency()).isEqualTo("MONTHLY");
+        assertThat(settings.getWithholdingTaxRate()).isEqualByComparingTo("15.00");
+        assertThat(settings.getDayCount()).isEqualTo(365);
+        assertThat(settings.isConfigured()).isFalse();
+    }
+
+    @Test
+    @DisplayName("an update changes only the fields given and rejects unknown frequencies and day counts")
+    void updateSettings() {
+        when(settingsRepository.findById("t1")).thenReturn(Optional.empty());
+        when(settingsRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        SavingsInterestSettingsRequest req = new SavingsInterestSettingsRequest();
+        req.setCapitalizationFrequency("quarterly");
+        req.setWithholdingTaxRate(new BigDecimal("10.00"));
+
+        SavingsInterestSettingsResponse updated = service.updateSettings(req, "t1");
+
+        assertThat(updated.getCapitalizationFrequency()).isEqualTo("QUARTERLY");
+        assertThat(updated.getWithholdingTaxRate()).isEqualByComparingTo("10.00");
+        assertThat(updated.getDayCount()).isEqualTo(365);
+
+        SavingsInterestSettingsRequest badFrequency = new SavingsInterestSettingsRequest();
+        badFrequency.setCapitalizationFrequency("DAILY");
+        assertThatThrownBy(() -> service.updateSettings(badFrequency, "t1")).isInstanceOf(BusinessException.class);
+        SavingsInterestSettingsRequest badDayCount = new SavingsInterestSettingsRequest();
+        badDayCount.setDayCount(364);
+        assertThatThrownBy(() -> service.updateSettings(badDayCount, "t1")).isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("a schedule replaces those from its date on, with its tiers stored in balance order")
+    @SuppressWarnings("unchecked")
+    void setSchedule() {
+        LocalDate from = LocalDate.now().plusDays(1);
+        List<SavingsRateTier> later = List.of(SavingsRateTier.builder().effectiveFrom(from.plusDays(5)).build());
+        when(tierRepository.findByTenantIdAndCurrencyAndEffectiveFromGreaterThanEqual("t1", "KES", from)).thenReturn(later);
+
+        SavingsRateScheduleResponse schedule = service.setSchedule(request(from, "10000", "4.5", "0", "2.0"), "t1");
+
+        verify(tierRepository).deleteAll(later);
+        ArgumentCaptor<List<SavingsRateTier>> saved = ArgumentCaptor.forClass(List.class);
+        verify(tierRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(SavingsRateTier::getMinBalance)
+                .containsExactly(new BigDecimal("0"), new BigDecimal("10000"));
+        assertThat(saved.getValue()).allSatisfy(t -> {
+            assertThat(t.getTenantId()).isEqualTo("t1");
+            assertThat(t.getCurrency()).isEqualTo("KES");
+            assertThat(t.getEffectiveFrom()).isEqualTo(from);
+        });
+        assertThat(schedule.getTiers()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("a schedule cannot start in the past or have two tiers at the same balance")
+    void rejectsSchedule() {
+        assertThatThrownBy(() -> service.setSchedule(request(LocalDate.now().minusDays(1), "0", "2.0"), "t1"))
+                .isInstanceOf(BusinessException.class).hasMessageContaining("past");
+        assertThatThrownBy(() -> service.setSchedule(request(LocalDate.now(), "100", "2.0", "100.00", "3.0"), "t1"))
+                .isInstanceOf(BusinessException.class).hasMessageContaining("minBalance");
+        verify(tierRepository, never()).saveAll(any());
+    }
+
+    // Pairs of minimum balance and annual rate
+    private static SavingsRateScheduleRequest request(LocalDate from, String... tiers) {
+        SavingsRateScheduleRequest req = new SavingsRateScheduleRequest();
+        req.setCurrency("kes");
+        req.setEffectiveFrom(from);
+        List<SavingsRateScheduleRequest.Tier> list = new ArrayList<>();
+        for (int i = 0; i < tiers.length; i += 2) {
+            SavingsRateScheduleRequest.Tier tier = new SavingsRateScheduleRequest.Tier();
+            tier.setMinBalance(new BigDecimal(tiers[i]));
+            tier.setAnnualRate(new BigDecimal(tiers[i + 1]));
+            list.add(tier);
+        }
+        req.setTiers(list);
+        return req;
+    }
+}
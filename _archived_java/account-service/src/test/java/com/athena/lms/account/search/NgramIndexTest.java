@@ -0,0 +1,308 @@
+package com.athena.lms.account.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NgramIndexTest {
+
+    // The customer index's fields: name, customerId, phone, email
+    private final NgramIndex index = new NgramIndex(
+            new NgramIndex.Field("name", 5, true),
+            new NgramIndex.Field("customerId", 10, false),
+            new NgramIndex.Field("phone", 10, false),
+            new NgramIndex.Field("email", 0, false));
+
+    private static UUID id(int n) {
+        return new UUID(0x5EA7C4L, n);
+    }
+
+    private void customer(int n, String name) {
+        index.put(id(n), name, "CUST-" + n, "+2547000" + n, null);
+    }
+
+    private List<UUID> search(String query) {
+        return index.search(query, 0, 100, 1_000).ids();
+    }
+
+    @Nested
+    @DisplayName("Encoding")
+    class EncodingTests {
+
+        @Test
+        @DisplayName("postings decode to the documents added, across every varint length")
+        void postingsRoundTrip() {
+            int[] docs = {0, 1, 127, 128, 255, 16_383, 16_384, 2_097_151, 2_097_152, 268_435_456, Integer.MAX_VALUE - 1};
+            Postings postings = new Postings();
+            for (int doc : docs) postings.add(doc);
+
+            assertThat(postings.count()).isEqualTo(docs.length);
+            assertThat(postings.toArray()).containsExactly(docs);
+        }
+
+        @Test
+        @DisplayName("random increasing documents round-trip, and a repeated document is stored once")
+        void randomRoundTrip() {
+            Random random = new Random(42);
+            List<Integer> expected = new ArrayList<>();
+            Postings postings = new Postings();
+            int doc = -1;
+            for (int i = 0; i < 10_000; i++) {
+                doc += 1 + random.nextInt(i % 10 == 0 ? 50_000 : 20);
+                postings.add(doc);
+                postings.add(doc);
+                expected.add(doc);
+            }
+
+            assertThat(postings.toArray()).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        @Test
+        @DisplayName("an empty posting decodes to no documents")
+        void emptyPostings() {
+            assertThat(new Postings().toArray()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("intersect and union agree whether or not the lists are far apart in length")
+        void intersectAndUnion() {
+            int[] evens = IntStream.range(0, 5_000).map(i -> i * 2).toArray();
+            int[] few = {3, 4, 10, 9_998, 20_000};
+
+            assertThat(Postings.intersect(few, evens)).containsExactly(4, 10, 9_998);
+            assertThat(Postings.intersect(new int[]{1, 2, 4, 6}, new int[]{2, 3, 4, 7})).containsExactly(2, 4);
+            assertThat(Postings.union(new int[]{1, 4, 6}, new int[]{2, 4, 9})).containsExactly(1, 2, 4, 6, 9);
+            assertThat(Postings.union(new int[0], few)).containsExactly(few);
+        }
+
+        @Test
+        @DisplayName("text folds to lower-case ASCII tokens separated by single spaces")
+        void normalize() {
+            assertThat(folded("  José-María O'Brien ")).isEqualTo("jose maria o brien");
+            assertThat(folded("+254 700-000 111")).isEqualTo("254 700 000 111");
+            assertThat(folded("J.Doe@Example.COM")).isEqualTo("j doe example com");
+            assertThat(folded(null)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("spelling variants of a name share a sound key; short or numeric tokens have none")
+        void phonetic() {
+            assertThat(sound("mohamed")).isNotZero()
+                    .isEqualTo(sound("mohammed"))
+                    .isEqualTo(sound("muhamed"));
+            assertThat(sound("catherine")).isEqualTo(sound("katherine"));
+            assertThat(sound("otieno")).isEqualTo(sound("otiyeno"));
+            assertThat(sound("wanjiku")).isEqualTo(sound("wanjiko"));
+            assertThat(sound("wanjiku")).isNotEqualTo(sound("mohamed"));
+            assertThat(sound("al")).isZero();
+            assertThat(sound("abc123")).isZero();
+        }
+
+        private String folded(String text) {
+            return new String(SearchText.normalize(text), StandardCharsets.US_ASCII);
+        }
+
+        private long sound(String token) {
+            byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+            return SearchText.phonetic(bytes, 0, bytes.length);
+        }
+    }
+
+    @Nested
+    @DisplayName("Ranking")
+    class RankingTests {
+
+        @Test
+        @DisplayName("an exact token ranks above a prefix, and a prefix above an infix")
+        void exactPrefixInfix() {
+            customer(1, "Joanna Brown");
+            customer(2, "Annabel Jones");
+            customer(3, "Ann Smith");
+            customer(4, "Peter Kamau");
+
+            assertThat(search("ann")).containsExactly(id(3), id(2), id(1));
+        }
+
+        @Test
+        @DisplayName("a two-character token matches word starts only")
+        void twoCharacterPrefix() {
+            customer(1, "Joanna Brown");
+            customer(2, "Annabel Jones");
+
+            assertThat(search("an")).containsExactly(id(2));
+        }
+
+        @Test
+        @DisplayName("a sound-alike name matches, below any spelling match")
+        void soundAlike() {
+            customer(1, "Mohamed Ali");
+            customer(2, "Muhamedi Hassan");
+            customer(3, "Peter Kamau");
+
+            assertThat(search("muhamed")).containsExactly(id(2), id(1));
+            assertThat(search("katherine")).isEmpty();
+
+            customer(4, "Catherine Wanjiku");
+            assertThat(search("katherine")).containsExactly(id(4));
+        }
+
+        @Test
+        @DisplayName("fields that are not phonetic get no sound-alike matches")
+        void phoneticFieldsOnly() {
+            index.put(id(1), "Peter Kamau", "CUST-1", null, "mohamed@example.com");
+
+            assertThat(search("mohamed")).containsExactly(id(1));
+            assertThat(search("muhamed")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("every query token must match, and a whole-field match earns the bonus")
+        void allTokensAndWholeField() {
+            customer(1, "Ann Smith");
+            customer(2, "Ann Smithers");
+            customer(3, "Ann Jones");
+            customer(4, "Smith Ann");
+
+            // The newer "Smith Ann" matches the same tokens, but only "Ann Smith" equals the query
+            assertThat(search("ann smith")).containsExactly(id(1), id(4), id(2));
+            assertThat(search("smith ann")).containsExactly(id(4), id(1), id(2));
+        }
+
+        @Test
+        @DisplayName("equal scores rank the newer document first, and pages follow the ranking")
+        void newestFirstAndPaging() {
+            for (int n = 1; n <= 5; n++) customer(n, "Grace Akinyi");
+
+            assertThat(search("grace")).containsExactly(id(5), id(4), id(3), id(2), id(1));
+
+            NgramIndex.Hits page = index.search("grace", 2, 2, 1_000);
+            assertThat(page.ids()).containsExactly(id(3), id(2));
+            assertThat(page.total()).isEqualTo(5);
+            assertThat(page.exhaustive()).isTrue();
+        }
+
+        @Test
+        @DisplayName("identifiers and phone numbers match on their digits")
+        void identifiers() {
+            customer(1, "Peter Kamau");
+            customer(22, "Ann Smith");
+
+            assertThat(search("cust 22")).containsExactly(id(22));
+            assertThat(search("254700022")).containsExactly(id(22));
+            assertThat(search("x")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Tombstones and compaction")
+    class TombstoneTests {
+
+        @Test
+        @DisplayName("put replaces the earlier version of a document")
+        void replace() {
+            customer(1, "Alice Wong");
+            customer(1, "Alicia Keys");
+
+            assertThat(search("wong")).isEmpty();
+            assertThat(search("keys")).containsExactly(id(1));
+            assertThat(index.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("putIfAbsent keeps the version already indexed")
+        void putIfAbsent() {
+            customer(1, "Alice Wong");
+            index.putIfAbsent(id(1), "Stale Name", "CUST-1", null, null);
+
+            assertThat(search("wong")).containsExactly(id(1));
+            assertThat(search("stale")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("replaced documents do not take up the candidate budget")
+        void deadSkipped() {
+            customer(1, "Grace Akinyi");
+            customer(2, "Grace Otieno");
+            customer(2, "Mary Otieno");
+
+            NgramIndex.Hits hits = index.search("grace", 0, 10, 1);
+            assertThat(hits.ids()).containsExactly(id(1));
+            assertThat(hits.exhaustive()).isTrue();
+        }
+
+        @Test
+        @DisplayName("compaction keeps every live document searchable, by id and in order")
+        void compaction() {
+            int count = 2_000;
+            for (int n = 0; n < count; n++) customer(n, "Old Name" + n);
+            // Past a quarter dead and over 1024 tombstones, the index rebuilds itself
+            for (int n = 0; n < 1_500; n++) customer(n, "New Name" + n);
+
+            assertThat(index.size()).isEqualTo(count);
+            assertThat(search("name1499")).containsExactly(id(1_499));
+            assertThat(search("name1500")).containsExactly(id(1_500));
+            assertThat(search("old name10")).isEmpty();
+            assertThat(search("new name10")).first().isEqualTo(id(10));
+            // Replaced documents are newer than the untouched ones
+            assertThat(index.search("name", 0, 1, 10_000).ids()).containsExactly(id(1_499));
+            assertThat(index.search("old", 0, 1, 10_000).ids()).containsExactly(id(1_999));
+
+            // The id table was rebuilt too: a further put still replaces rather than duplicates
+            customer(7, "Renamed Again");
+            assertThat(index.size()).isEqualTo(count);
+            assertThat(search("new name7")).doesNotContain(id(7));
+            assertThat(search("renamed")).containsExactly(id(7));
+        }
+    }
+
+    @Nested
+    @DisplayName("Candidate cap")
+    class CandidateCapTests {
+
+        @Test
+        @DisplayName("only the newest candidates are scored once the cap is reached")
+        void capped() {
+            for (int n = 1; n <= 50; n++) customer(n, "Peter Kamau");
+
+            NgramIndex.Hits hits = index.search("peter", 0, 5, 20);
+            assertThat(hits.total()).isEqualTo(20);
+            assertThat(hits.exhaustive()).isFalse();
+            assertThat(hits.ids()).containsExactly(id(50), id(49), id(48), id(47), id(46));
+
+            NgramIndex.Hits beyond = index.search("peter", 18, 5, 20);
+            assertThat(beyond.ids()).containsExactly(id(32), id(31));
+        }
+
+        @Test
+        @DisplayName("a cap at or above the candidate count is exhaustive")
+        void exhaustive() {
+            for (int n = 1; n <= 50; n++) customer(n, "Peter Kamau");
+
+            NgramIndex.Hits hits = index.search("peter", 0, 5, 50);
+            assertThat(hits.total()).isEqualTo(50);
+            assertThat(hits.exhaustive()).isTrue();
+        }
+
+        @Test
+        @DisplayName("candidates that fail the scoring check use the budget but are not returned")
+        void scoredButUnmatched() {
+            customer(1, "Peter Kamau");
+            // Carries every trigram of "peter", but not the word
+            customer(2, "Pete Terry");
+            customer(3, "Peter Otieno");
+
+            NgramIndex.Hits hits = index.search("peter", 0, 10, 2);
+            assertThat(hits.ids()).containsExactly(id(3));
+            assertThat(hits.exhaustive()).isFalse();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.entity.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountMovementsTest {
+
+    private static final UUID ACCOUNT = new UUID(0, 7);
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 6, 1, 9, 30);
+    private static final LocalDateTime LAST_ACTIVE = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private final List<String> statements = new ArrayList<>();
+    // Parameters of each statement execution, by index
+    private final List<Map<Integer, Object>> executions = new ArrayList<>();
+    private Object[] returned;
+
+    private final AccountMovements movements;
+
+    AccountMovementsTest() throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDriverName()).thenReturn("PostgreSQL JDBC Driver");
+        Connection con = mock(Connection.class);
+        when(con.getMetaData()).thenReturn(metaData);
+        when(con.prepareStatement(anyString())).thenAnswer(inv -> {
+            statements.add(inv.getArgument(0));
+            return statement(con);
+        });
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(con);
+        movements = new AccountMovements(dataSource);
+    }
+
+    @Test
+    @DisplayName("a movement stamps the customer's activity and moves all three balances by the delta")
+    void stampsActivity() {
+        returned = new Object[]{new BigDecimal("150.00"), "ACTIVE", Timestamp.valueOf(LAST_ACTIVE)};
+
+        AccountMovements.Movement moved = movements.move(ACCOUNT, new BigDecimal("-50.00"), AT);
+
+        Map<Integer, Object> params = executions.get(0);
+        assertThat(params.get(1)).isEqualTo(ACCOUNT);
+        assertThat(params.get(2)).isEqualTo(Timestamp.valueOf(AT));
+        assertThat(params).containsEntry(4, new BigDecimal("-50.00")).containsEntry(5, new BigDecimal("-50.00"))
+                .containsEntry(6, new BigDecimal("-50.00"));
+        assertThat(moved.availableAfter()).isEqualByComparingTo("150.00");
+        assertThat(moved.priorActivityAt()).isEqualTo(LAST_ACTIVE);
+        assertThat(moved.at()).isEqualTo(AT);
+        assertThat(moved.reactivated()).isFalse();
+    }
+
+    @Test
+    @DisplayName("moving a dormant account reactivates it in the same statement and reports so")
+    void reactivates() {
+        returned = new Object[]{new BigDecimal("10.00"), "DORMANT", Timestamp.valueOf(LAST_ACTIVE)};
+
+        AccountMovements.Movement moved = movements.move(ACCOUNT, new BigDecimal("10.00"), AT);
+
+        assertThat(moved.priorStatus()).isEqualTo(Account.AccountStatus.DORMANT);
+        assertThat(moved.reactivated()).isTrue();
+        // Only a dormant account changes status; the reactivation time is the movement's
+        assertThat(statements.get(0)).contains("status = CASE WHEN prior.status = 'DORMANT' THEN 'ACTIVE' ELSE prior.status END");
+        assertThat(executions.get(0).get(3)).isEqualTo(Timestamp.valueOf(AT));
+    }
+
+    @Test
+    @DisplayName("an account without a balance row is an error rather than a silent no-op")
+    void missingBalance() {
+        returned = null;
+
+        assertThatThrownBy(() -> movements.move(ACCOUNT, BigDecimal.ONE, AT))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining(ACCOUNT.toString());
+    }
+
+    @Test
+    @DisplayName("the batched form stamps every account with the same activity time")
+    void moveAll() {
+        Map<UUID, BigDecimal> deltas = new LinkedHashMap<>();
+        deltas.put(new UUID(0, 1), new BigDecimal("5.00"));
+        deltas.put(new UUID(0, 2), new BigDecimal("7.50"));
+
+        movements.moveAll(deltas, AT);
+
+        assertThat(statements).singleElement().asString().contains("last_customer_activity_at = ?");
+        assertThat(executions).hasSize(2);
+        for (Map<Integer, Object> params : executions) {
+            assertThat(params.get(1)).isEqualTo(Timestamp.valueOf(AT));
+            assertThat(params.get(4)).isEqualTo(deltas.get((UUID) params.get(3)));
+        }
+    }
+
+    // Records each execution's parameters; queries answer with the returned row, if any
+    private PreparedStatement statement(Connection con) throws Exception {
+        Map<Integer, Object> params = new TreeMap<>();
+        return mock(PreparedStatement.class, inv -> {
+            String method = inv.getMethod().getName();
+            if (method.startsWith("set")) {
+                params.put(inv.getArgument(0), inv.getArgument(1));
+            } else if (method.equals("addBatch") || method.equals("executeUpdate")) {
+                executions.add(new TreeMap<>(params));
+                return method.equals("executeUpdate") ? 1 : null;
+            } else if (method.equals("executeBatch")) {
+                return new int[]{1, 1};
+            } else if (method.equals("executeQuery")) {
+                executions.add(new TreeMap<>(params));
+                return rows();
+            } else if (method.equals("getConnection")) {
+                return con;
+            }
+            return null;
+        });
+    }
+
+    private ResultSet rows() {
+        boolean[] read = {false};
+        return mock(ResultSet.class, inv -> switch (inv.getMethod().getName()) {
+            case "next" -> returned != null && !read[0] && (read[0] = true);
+            case "getBigDecimal", "getString", "getTimestamp" -> returned[(int) inv.getArgument(0) - 1];
+            default -> null;
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.dto.request.TransactionRequest;
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.AccountBalance;
+import com.athena.lms.account.entity.AccountTransaction;
+import com.athena.lms.account.event.AccountEventPublisher;
+import com.athena.lms.account.repository.AccountBalanceRepository;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.AccountTransactionRepository;
+import com.athena.lms.common.exception.BusinessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AccountServiceTest {
+
+    private static final String TENANT = "t1";
+    private static final UUID ACCOUNT = new UUID(0, 42);
+    private static final LocalDateTime LAST_ACTIVE = LocalDateTime.of(2024, 2, 1, 8, 0);
+
+    private final Account account = new Account();
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final AccountBalanceRepository balanceRepository = mock(AccountBalanceRepository.class);
+    private final AccountTransactionRepository transactionRepository = mock(AccountTransactionRepository.class);
+    private final AccountEventPublisher eventPublisher = mock(AccountEventPublisher.class);
+    private final AccountMovements movements = mock(AccountMovements.class);
+    private final AccountService service = new AccountService(accountRepository, balanceRepository,
+            transactionRepository, eventPublisher, null, null, movements, null);
+
+    AccountServiceTest() {
+        account.setId(ACCOUNT);
+        account.setTenantId(TENANT);
+        account.setAccountNumber("0100012345");
+        account.setCustomerId("CUST-1");
+        // Tier 3 has no limits, so debits skip the limit queries
+        account.setKycTier(3);
+        when(accountRepository.findByIdAndTenantId(ACCOUNT, TENANT)).thenReturn(Optional.of(account));
+        AccountBalance balance = new AccountBalance();
+        balance.setAccountId(ACCOUNT);
+        balance.setAvailableBalance(new BigDecimal("500.00"));
+        when(balanceRepository.findByAccountIdForUpdate(ACCOUNT)).thenReturn(Optional.of(balance));
+        when(transactionRepository.saveAndFlush(any(AccountTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("a credit to a dormant account moves it and publishes the reactivation")
+    void creditReactivates() {
+        account.setStatus(Account.AccountStatus.DORMANT);
+        when(movements.move(eq(ACCOUNT), eq(new BigDecimal("100.00")), any())).thenAnswer(inv ->
+                new AccountMovements.Movement(ACCOUNT, new BigDecimal("600.00"), Account.AccountStatus.DORMANT,
+                        LAST_ACTIVE, inv.getArgument(2)));
+
+        service.credit(ACCOUNT, request("100.00"), TENANT);
+
+        verify(eventPublisher).publishCreditReceived(ACCOUNT, new BigDecimal("100.00"), TENANT);
+        verify(eventPublisher).publishReactivated(eq(ACCOUNT), eq("0100012345"), eq("CUST-1"), eq(LAST_ACTIVE),
+                any(LocalDateTime.class), eq("CREDIT"), eq(new BigDecimal("100.00")), eq(TENANT));
+    }
+
+    @Test
+    @DisplayName("a debit from a dormant account moves the negated amount and publishes the reactivation")
+    void debitReactivates() {
+        account.setStatus(Account.AccountStatus.DORMANT);
+        when(movements.move(eq(ACCOUNT), eq(new BigDecimal("-40.00")), any())).thenAnswer(inv ->
+                new AccountMovements.Movement(ACCOUNT, new BigDecimal("460.00"), Account.AccountStatus.DORMANT,
+                        LAST_ACTIVE, inv.getArgument(2)));
+
+        service.debit(ACCOUNT, request("40.00"), TENANT);
+
+        verify(eventPublisher).publishReactivated(eq(ACCOUNT), eq("0100012345"), eq("CUST-1"), eq(LAST_ACTIVE),
+                any(LocalDateTime.class), eq("DEBIT"), eq(new BigDecimal("40.00")), eq(TENANT));
+    }
+
+    @Test
+    @DisplayName("a movement on an active account publishes no reactivation")
+    void activeNotReactivated() {
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        when(movements.move(eq(ACCOUNT), any(), any())).thenAnswer(inv ->
+                new AccountMovements.Movement(ACCOUNT, new BigDecimal("600.00"), Account.AccountStatus.ACTIVE,
+                        LAST_ACTIVE, inv.getArgument(2)));
+
+        service.credit(ACCOUNT, request("100.00"), TENANT);
+
+        verify(eventPublisher, never()).publishReactivated(any(), any(), any(), any(), any(), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("a frozen account is refused before anything moves")
+    void frozenRefused() {
+        account.setStatus(Account.AccountStatus.FROZEN);
+
+        assertThatThrownBy(() -> service.credit(ACCOUNT, request("100.00"), TENANT))
+                .isInstanceOf(BusinessException.class).hasMessageContaining("FROZEN");
+        assertThatThrownBy(() -> service.debit(ACCOUNT, request("100.00"), TENANT))
+                .isInstanceOf(BusinessException.class).hasMessageContaining("FROZEN");
+        verifyNoInteractions(movements);
+        assertThat(account.getStatus()).isEqualTo(Account.AccountStatus.FROZEN);
+    }
+
+    private static TransactionRequest request(String amount) {
+        TransactionRequest req = new TransactionRequest();
+        req.setAmount(new BigDecimal(amount));
+        return req;
+    }
+}
@@ -0,0 +1,339 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.event.AccountEventPublisher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkCreditPosterTest {
+
+    private static final UUID BATCH = new UUID(0xB, 1);
+    private static final UUID A1 = new UUID(0, 1);
+    private static final UUID A2 = new UUID(0, 2);
+    private static final int MAX_ATTEMPTS = 3;
+
+    // The database side: the batch's failed runs so far, its pending lines a chunk at a time,
+    // and the accounts' status and balance as the lock query returns them
+    private int attempts;
+    private final Queue<List<Object[]>> pending = new ArrayDeque<>();
+    private final Map<UUID, Object[]> accounts = new LinkedHashMap<>();
+    private RuntimeException failPosting;
+    private int leaseRenewals = 1;
+
+    private final List<Integer> chunkLimits = new ArrayList<>();
+    private final List<List<Object>> locked = new ArrayList<>();
+    private final List<String> lockSql = new ArrayList<>();
+    private final List<String> updates = new ArrayList<>();
+    private final List<Object[]> updateArgs = new ArrayList<>();
+    private final Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AccountEventPublisher eventPublisher = mock(AccountEventPublisher.class);
+    private final AccountMovements movements = mock(AccountMovements.class);
+    private final BulkCreditPoster poster;
+
+    BulkCreditPosterTest() {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        JdbcTemplate jdbc = mock(JdbcTemplate.class, this::answer);
+        poster = new BulkCreditPoster(jdbc, new TransactionTemplate(transactionManager), eventPublisher, movements,
+                2, 1, 120, 60, MAX_ATTEMPTS);
+        accounts.put(A1, new Object[]{A1, "ACTIVE", new BigDecimal("100.00"), "0100001", "CUST-1", null});
+        accounts.put(A2, new Object[]{A2, "ACTIVE", new BigDecimal("0.00"), "0100002", "CUST-2", null});
+    }
+
+    @Nested
+    @DisplayName("Posting")
+    class PostingTests {
+
+        @Test
+        @DisplayName("a chunk locks its accounts once each, in post order, and credits every line under its own key")
+        void postsChunk() {
+            pending.add(List.of(line(1, A1, "10.00"), line(3, A1, "5.00")));
+            pending.add(List.<Object[]>of(line(2, A2, "7.50")));
+
+            poster.process(BATCH);
+
+            assertThat(chunkLimits).containsExactly(2, 2, 2);
+            assertThat(locked).containsExactly(List.of(A1), List.of(A2));
+            assertThat(lockSql.get(0)).contains("ORDER BY k.ord FOR UPDATE OF b, a");
+
+            List<Object[]> transactions = batch("INSERT INTO account_transactions");
+            assertThat(transactions).extracting(t -> t[8]).containsExactly(
+                    "bulk:" + BATCH + ":1", "bulk:" + BATCH + ":3", "bulk:" + BATCH + ":2");
+            // Each line's balance after follows the one before it on the same account
+            assertThat(transactions).extracting(t -> t[4]).containsExactly(
+                    new BigDecimal("110.00"), new BigDecimal("115.00"), new BigDecimal("7.50"));
+            verify(movements).moveAll(eq(Map.of(A1, new BigDecimal("15.00"))), any(LocalDateTime.class));
+            verify(movements).moveAll(eq(Map.of(A2, new BigDecimal("7.50"))), any(LocalDateTime.class));
+
+            assertThat(batch("UPDATE bulk_credit_lines SET status")).extracting(r -> r[0]).containsOnly("POSTED");
+            verify(eventPublisher).publishBulkCreditCompleted(BATCH, "COMPLETED", 3, 3, new BigDecimal("22.50"), 0, "t1");
+        }
+
+        @Test
+        @DisplayName("a line whose account was frozen since acceptance fails alone")
+        void frozenLineFails() {
+            accounts.get(A2)[1] = "FROZEN";
+            pending.add(List.of(line(1, A1, "10.00"), line(2, A2, "7.50")));
+
+            poster.process(BATCH);
+
+            assertThat(batch("INSERT INTO account_transactions")).hasSize(1);
+            List<Object[]> results = batch("UPDATE bulk_credit_lines SET status");
+            assertThat(results.get(0)[0]).isEqualTo("POSTED");
+            assertThat(results.get(1)).startsWith("FAILED", "Account is FROZEN — cannot credit");
+            assertThat(argsOf("UPDATE bulk_credit_batches SET posted_lines").get(0))
+                    .startsWith(1, new BigDecimal("10.00"), 1);
+        }
+
+        @Test
+        @DisplayName("a chunk that finds its lease taken rolls back and leaves the batch to the new owner")
+        void leaseLost() {
+            pending.add(List.<Object[]>of(line(1, A1, "10.00")));
+            leaseRenewals = 0;
+
+            poster.process(BATCH);
+
+            verify(transactionManager).rollback(any());
+            assertThat(argsOf("UPDATE bulk_credit_batches SET attempts")).isEmpty();
+            verify(eventPublisher, never()).publishBulkCreditCompleted(any(), any(), anyInt(), anyInt(), any(), anyInt(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Failures")
+    class FailureTests {
+
+        @Test
+        @DisplayName("a failed run is counted and the batch left to resume while attempts remain")
+        void counted() {
+            pending.add(List.of(line(1, A1, "10.00"), line(2, A2, "7.50")));
+            failPosting = new DataIntegrityViolationException("value out of range");
+
+            poster.process(BATCH);
+
+            assertThat(attempts).isEqualTo(1);
+            assertThat(argsOf("UPDATE bulk_credit_batches SET attempts").get(0)).startsWith("value out of range");
+            assertThat(updates).noneMatch(sql -> sql.contains("'FAILED'"));
+        }
+
+        @Test
+        @DisplayName("after a failed run the lines are retried one at a time, and a chunk that commits resets the count")
+        void isolatesAfterFailure() {
+            attempts = 1;
+            pending.add(List.<Object[]>of(line(1, A1, "10.00")));
+
+            poster.process(BATCH);
+
+            assertThat(chunkLimits).startsWith(1);
+            assertThat(updates).filteredOn(sql -> sql.startsWith("UPDATE bulk_credit_batches SET posted_lines"))
+                    .singleElement().asString().contains("attempts = 0");
+        }
+
+        @Test
+        @DisplayName("a line that fails alone on the last attempt is marked FAILED and the batch released")
+        void failsLine() {
+            attempts = MAX_ATTEMPTS - 1;
+            pending.add(List.<Object[]>of(line(4, A1, "10.00")));
+            failPosting = new DataIntegrityViolationException("value out of range");
+
+            poster.process(BATCH);
+
+            assertThat(chunkLimits).containsExactly(1);
+            assertThat(argsOf("UPDATE bulk_credit_lines SET status = 'FAILED'")).singleElement()
+                    .satisfies(args -> assertThat(args).startsWith("value out of range", BATCH));
+            assertThat(updates).anyMatch(sql -> sql.startsWith("UPDATE bulk_credit_batches SET failed_lines")
+                    && sql.contains("attempts = 0") && sql.contains("claimed_by = NULL"));
+            assertThat(updates).noneMatch(sql -> sql.contains("SET status = 'FAILED', completed_at"));
+        }
+
+        @Test
+        @DisplayName("a batch that keeps failing outside its lines is marked FAILED and reported")
+        void failsBatch() {
+            attempts = MAX_ATTEMPTS - 1;
+            failPosting = new QueryTimeoutException("canceling statement due to statement timeout");
+
+            poster.process(BATCH);
+
+            assertThat(updates).anyMatch(sql -> sql.contains("SET status = 'FAILED', completed_at"));
+            assertThat(argsOf("UPDATE bulk_credit_lines SET status = 'FAILED'")).isEmpty();
+            verify(eventPublisher).publishBulkCreditCompleted(BATCH, "FAILED", 3, 1, new BigDecimal("10.00"), 0, "t1");
+        }
+    }
+
+    private static Object[] line(int lineNo, UUID accountId, String amount) {
+        return new Object[]{lineNo, accountId, new BigDecimal(amount), "REF-" + lineNo, null};
+    }
+
+    // ─── Database stand-in ───────────────────────────────────────────────────
+
+    private List<Object[]> argsOf(String prefix) {
+        List<Object[]> matching = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (updates.get(i).startsWith(prefix)) matching.add(updateArgs.get(i));
+        }
+        return matching;
+    }
+
+    private List<Object[]> batch(String prefix) {
+        List<Object[]> rows = new ArrayList<>();
+        batches.forEach((sql, args) -> {
+            if (sql.startsWith(prefix)) rows.addAll(args);
+        });
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object answer(InvocationOnMock inv) throws Exception {
+        Object[] args = inv.getRawArguments();
+        switch (inv.getMethod().getName()) {
+            case "update":
+                if (args[0] instanceof PreparedStatementCreator) return 1;
+                return update((String) args[0], (Object[]) args[1]);
+            case "queryForObject":
+                return ((RowMapper<?>) args[1]).mapRow(row(BATCH, "t1", "BULK", "Payroll", attempts), 0);
+            case "queryForList":
+                return queryForList((String) args[0], args[1] instanceof Class ? (Object[]) args[2] : (Object[]) args[1]);
+            case "batchUpdate":
+                String sql = (String) args[0];
+                if (failPosting instanceof DataIntegrityViolationException && sql.startsWith("INSERT INTO account_transactions")) {
+                    throw failPosting;
+                }
+                List<Object[]> rows = new ArrayList<>((List<Object[]>) args[1]);
+                batches.computeIfAbsent(sql, s -> new ArrayList<>()).addAll(rows);
+                return new int[0];
+            case "query":
+                return query(args);
+            default:
+                throw new UnsupportedOperationException(inv.getMethod().toString());
+        }
+    }
+
+    private int update(String sql, Object[] args) {
+        updates.add(sql);
+        updateArgs.add(args);
+        if (sql.startsWith("UPDATE bulk_credit_batches SET posted_lines")) {
+            if (leaseRenewals > 0) attempts = 0;
+            return leaseRenewals;
+        }
+        return 1;
+    }
+
+    private Object queryForList(String sql, Object[] args) {
+        updates.add(sql);
+        updateArgs.add(args);
+        if (sql.startsWith("UPDATE bulk_credit_batches SET attempts")) return List.of(++attempts);
+        if (sql.startsWith("UPDATE bulk_credit_lines SET status = 'FAILED'")) return List.of(4);
+        if (sql.startsWith("UPDATE bulk_credit_batches SET status = 'FAILED'")) {
+            return List.of(Map.of("total_lines", 3, "posted_lines", 1, "posted_amount", new BigDecimal("10.00"),
+                    "failed_lines", 0));
+        }
+        if (sql.startsWith("UPDATE bulk_credit_batches SET status = CASE")) {
+            Map<String, Object> done = new HashMap<>();
+            done.put("status", "COMPLETED");
+            done.put("total_lines", 3);
+            done.put("posted_lines", 3);
+            done.put("posted_amount", new BigDecimal("22.50"));
+            done.put("failed_lines", 0);
+            return List.of(done);
+        }
+        throw new UnsupportedOperationException(sql);
+    }
+
+    private Object query(Object[] args) throws Exception {
+        if (args[0] instanceof PreparedStatementCreator creator) {
+            List<Object> ids = bind(creator);
+            for (Object id : ids) ((RowCallbackHandler) args[1]).processRow(row(accounts.get((UUID) id)));
+            return null;
+        }
+        String sql = (String) args[0];
+        RowMapper<?> mapper = (RowMapper<?>) args[1];
+        Object[] params = (Object[]) args[2];
+        if (sql.contains("status = 'POSTED' AND NOT notified")) {
+            if (failPosting instanceof QueryTimeoutException) throw failPosting;
+            return List.of();
+        }
+        if (sql.contains("status = 'PENDING' ORDER BY post_order")) {
+            chunkLimits.add((Integer) params[1]);
+            List<Object[]> chunk = pending.peek();
+            if (chunk == null) return List.of();
+            // A chunk that rolls back leaves its lines pending
+            if (failPosting == null) pending.poll();
+            List<Object> lines = new ArrayList<>();
+            for (Object[] line : chunk.subList(0, Math.min(chunk.size(), (Integer) params[1]))) {
+                lines.add(mapper.mapRow(row(line), lines.size()));
+            }
+            return lines;
+        }
+        throw new UnsupportedOperationException(sql);
+    }
+
+    // Runs the lock statement's creator, returning the account ids it binds
+    private List<Object> bind(PreparedStatementCreator creator) throws Exception {
+        Map<Integer, Object> params = new HashMap<>();
+        PreparedStatement ps = mock(PreparedStatement.class, inv -> {
+            if (inv.getMethod().getName().startsWith("set")) {
+                Object value = inv.getArgument(1);
+                params.put(inv.getArgument(0), value instanceof Array a ? Arrays.asList((Object[]) a.getArray()) : value);
+            }
+            return null;
+        });
+        Connection con = mock(Connection.class);
+        when(con.prepareStatement(anyString())).thenAnswer(inv -> {
+            lockSql.add(inv.getArgument(0));
+            return ps;
+        });
+        when(con.createArrayOf(any(), any())).thenAnswer(inv -> array(inv.getArgument(1)));
+        creator.createPreparedStatement(con);
+        List<Object> ids = (List<Object>) params.get(1);
+        locked.add(ids);
+        return ids;
+    }
+
+    private static Array array(Object[] elements) throws Exception {
+        Array array = mock(Array.class);
+        when(array.getArray()).thenReturn(elements);
+        return array;
+    }
+
+    private static ResultSet row(Object... columns) {
+        return mock(ResultSet.class, inv -> inv.getMethod().getName().startsWith("get")
+                ? columns[(int) inv.getArgument(0) - 1] : null);
+    }
+}
@@ -0,0 +1,234 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.dto.request.BulkCreditRequest;
+import com.athena.lms.account.dto.response.BulkCreditBatchResponse;
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.BulkCreditBatch;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.BulkCreditBatchRepository;
+import com.athena.lms.account.repository.BulkCreditLineRepository;
+import com.athena.lms.common.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkCreditServiceTest {
+
+    private static final String TENANT = "t1";
+
+    // The database side: the tenant's accounts by number, whether the batch insert wins the
+    // unique index, and the rows written
+    private final Map<String, Account> accounts = new HashMap<>();
+    private int batchInserts = 1;
+    private final List<String> batchSql = new ArrayList<>();
+    private final List<Object[]> lineRows = new ArrayList<>();
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final BulkCreditBatchRepository batchRepository = mock(BulkCreditBatchRepository.class);
+    private final BulkCreditPoster poster = mock(BulkCreditPoster.class);
+    private final BulkCreditService service;
+
+    BulkCreditServiceTest() {
+        when(accountRepository.findByTenantIdAndAccountNumberIn(eq(TENANT), anyCollection())).thenAnswer(inv ->
+                inv.<Collection<String>>getArgument(1).stream().map(accounts::get)
+                        .filter(Objects::nonNull).toList());
+        when(batchRepository.findAccepted(anyString(), anyString())).thenReturn(Optional.empty());
+        JdbcTemplate jdbc = mock(JdbcTemplate.class, this::answer);
+        service = new BulkCreditService(accountRepository, batchRepository, mock(BulkCreditLineRepository.class),
+                poster, new ObjectMapper(), jdbc, 5);
+    }
+
+    @Nested
+    @DisplayName("Validation")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("a dormant account may be credited, and the file is accepted for posting")
+        void dormantAccepted() {
+            account(1, Account.AccountStatus.DORMANT);
+            account(2, Account.AccountStatus.ACTIVE);
+
+            BulkCreditBatchResponse response = service.submit(request(line(1, "R1"), line(2, "R2")), TENANT, "ops");
+
+            assertThat(response.getStatus()).isEqualTo("PENDING");
+            assertThat(response.getTotalAmount()).isEqualByComparingTo("200.00");
+            assertThat(lineRows).extracting(row -> row[8]).containsOnly("PENDING");
+            verify(poster).startAfterCommit(response.getId());
+        }
+
+        @Test
+        @DisplayName("frozen and closed accounts reject the file and nothing is posted")
+        void frozenAndClosedRejected() {
+            account(1, Account.AccountStatus.FROZEN);
+            account(2, Account.AccountStatus.CLOSED);
+            account(3, Account.AccountStatus.DORMANT);
+
+            BulkCreditBatchResponse response = service.submit(
+                    request(line(1, "R1"), line(2, "R2"), line(3, "R3")), TENANT, "ops");
+
+            assertThat(response.getStatus()).isEqualTo("REJECTED");
+            assertThat(response.getErrors()).extracting(e -> e.getLineNo() + " " + e.getError())
+                    .containsExactly("1 account is FROZEN", "2 account is CLOSED");
+            // The good line is kept but will not be posted
+            assertThat(lineRows).extracting(row -> row[8]).containsExactly("INVALID", "INVALID", "SKIPPED");
+            verify(poster, never()).startAfterCommit(any());
+        }
+
+        @Test
+        @DisplayName("every bad line is reported with its own problem")
+        void everyProblemReported() {
+            account(1, Account.AccountStatus.ACTIVE);
+
+            BulkCreditBatchResponse response = service.submit(request(
+                    new BulkCreditRequest.Line("010001", "abc", "R1", null),
+                    new BulkCreditRequest.Line("010001", "1.005", "R2", null),
+                    new BulkCreditRequest.Line("010001", "10.00", " ", null),
+                    new BulkCreditRequest.Line("010001", "10.00", "R4", null),
+                    new BulkCreditRequest.Line("010009", "10.00", "R4", null)), TENANT, "ops");
+
+            assertThat(response.getErrors()).extracting(e -> e.getLineNo() + " " + e.getError()).containsExactly(
+                    "1 amount is not a number",
+                    "2 amount has more than 2 decimal places",
+                    "3 reference is required",
+                    "5 reference repeats line 4");
+        }
+
+        @Test
+        @DisplayName("a file over the line limit is refused outright")
+        void tooManyLines() {
+            BulkCreditRequest.Line[] lines = new BulkCreditRequest.Line[6];
+            for (int i = 0; i < lines.length; i++) lines[i] = line(1, "R" + i);
+
+            assertThatThrownBy(() -> service.submit(request(lines), TENANT, "ops"))
+                    .isInstanceOf(BusinessException.class).hasMessageContaining("at most 5");
+            assertThat(batchSql).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Deduplication and order")
+    class DeduplicationTests {
+
+        @Test
+        @DisplayName("a file already accepted returns its batch without writing another")
+        void alreadyAccepted() {
+            BulkCreditBatch first = batch();
+            when(batchRepository.findAccepted(eq(TENANT), anyString())).thenReturn(Optional.of(first));
+
+            BulkCreditBatchResponse response = service.submit(request(line(1, "R1")), TENANT, "ops");
+
+            assertThat(response.getId()).isEqualTo(first.getId());
+            assertThat(batchSql).isEmpty();
+            verify(poster, never()).startAfterCommit(any());
+        }
+
+        @Test
+        @DisplayName("a file accepted concurrently returns the batch that won the unique index")
+        void acceptedConcurrently() {
+            account(1, Account.AccountStatus.ACTIVE);
+            BulkCreditBatch winner = batch();
+            when(batchRepository.findAccepted(eq(TENANT), anyString()))
+                    .thenReturn(Optional.empty(), Optional.of(winner));
+            batchInserts = 0;
+
+            BulkCreditBatchResponse response = service.submit(request(line(1, "R1")), TENANT, "ops");
+
+            assertThat(response.getId()).isEqualTo(winner.getId());
+            assertThat(batchSql).singleElement().asString()
+                    .contains("ON CONFLICT (tenant_id, file_sha256) WHERE status <> 'REJECTED' DO NOTHING");
+            assertThat(lineRows).isEmpty();
+            verify(poster, never()).startAfterCommit(any());
+        }
+
+        @Test
+        @DisplayName("a concurrent submission whose batch cannot be seen is a conflict, not a server error")
+        void concurrentUnseen() {
+            account(1, Account.AccountStatus.ACTIVE);
+            batchInserts = 0;
+
+            assertThatThrownBy(() -> service.submit(request(line(1, "R1")), TENANT, "ops"))
+                    .isInstanceOf(BusinessException.class).hasMessageContaining("already being submitted");
+        }
+
+        @Test
+        @DisplayName("lines are stored in account order, the order balances are locked in")
+        void postOrder() {
+            account(3, Account.AccountStatus.ACTIVE);
+            account(1, Account.AccountStatus.ACTIVE);
+            account(2, Account.AccountStatus.ACTIVE);
+
+            service.submit(request(line(3, "R1"), line(1, "R2"), line(2, "R3"), line(1, "R4")), TENANT, "ops");
+
+            // line_no, post_order and account id of each row, in post order
+            assertThat(lineRows).extracting(row -> row[1] + " " + row[2] + " " + row[4]).containsExactly(
+                    "2 0 " + new UUID(0, 1), "4 1 " + new UUID(0, 1), "3 2 " + new UUID(0, 2), "1 3 " + new UUID(0, 3));
+        }
+    }
+
+    private void account(int n, Account.AccountStatus status) {
+        Account account = new Account();
+        account.setId(new UUID(0, n));
+        account.setTenantId(TENANT);
+        account.setAccountNumber("01000" + n);
+        account.setStatus(status);
+        accounts.put(account.getAccountNumber(), account);
+    }
+
+    private static BulkCreditBatch batch() {
+        return BulkCreditBatch.builder().id(UUID.randomUUID()).tenantId(TENANT)
+                .status(BulkCreditBatch.BatchStatus.PROCESSING).totalLines(1).totalAmount(new BigDecimal("100.00"))
+                .postedAmount(BigDecimal.ZERO).build();
+    }
+
+    private static BulkCreditRequest.Line line(int account, String reference) {
+        return new BulkCreditRequest.Line("01000" + account, "100.00", reference, null);
+    }
+
+    private static BulkCreditRequest request(BulkCreditRequest.Line... lines) {
+        BulkCreditRequest req = new BulkCreditRequest();
+        req.setFileName("payroll.csv");
+        req.setLines(List.of(lines));
+        return req;
+    }
+
+    // ─── Database stand-in ───────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private Object answer(InvocationOnMock inv) {
+        Object[] args = inv.getRawArguments();
+        switch (inv.getMethod().getName()) {
+            case "update":
+                batchSql.add((String) args[0]);
+                return batchInserts;
+            case "batchUpdate":
+                lineRows.addAll((List<Object[]>) args[1]);
+                return new int[0];
+            default:
+                throw new UnsupportedOperationException(inv.getMethod().toString());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.event.AccountEventPublisher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DormancySweeperTest {
+
+    private static final int INACTIVE_DAYS = 365;
+    private static final LocalDateTime LAST_ACTIVE = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    // The database side: the id chunks the walk reads and the rows each mark returns
+    private final Queue<List<UUID>> chunks = new ArrayDeque<>();
+    private final Queue<List<Object[]>> markedRows = new ArrayDeque<>();
+    private final List<Object[]> walks = new ArrayList<>();
+    private final List<String> markSql = new ArrayList<>();
+    private final List<Map<Integer, Object>> bound = new ArrayList<>();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AccountEventPublisher eventPublisher = mock(AccountEventPublisher.class);
+    private final DormancySweeper sweeper;
+
+    DormancySweeperTest() {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        JdbcTemplate jdbc = mock(JdbcTemplate.class, this::answer);
+        sweeper = new DormancySweeper(jdbc, new TransactionTemplate(transactionManager), eventPublisher,
+                true, INACTIVE_DAYS, 2, 360);
+    }
+
+    @Test
+    @DisplayName("accounts are walked in id chunks, each marked by one statement that skips locked rows")
+    void walksInChunks() {
+        chunks.add(List.of(id(1), id(2)));
+        chunks.add(List.of(id(3)));
+        markedRows.add(List.of());
+        markedRows.add(List.of());
+
+        LocalDateTime before = LocalDateTime.now();
+        sweeper.sweep();
+
+        // The walk resumes after the last id of each full chunk and ends on a short one
+        assertThat(walks).hasSize(2);
+        assertThat(walks.get(0)).containsExactly(2);
+        assertThat(walks.get(1)).containsExactly(id(2), 2);
+        assertThat(markSql).hasSize(2).allSatisfy(sql -> assertThat(sql)
+                .contains("status = 'ACTIVE'")
+                .contains("last_customer_activity_at < ?")
+                .contains("FOR UPDATE SKIP LOCKED"));
+
+        assertThat(bound.get(0).get(2)).isEqualTo(List.of(id(1), id(2)));
+        assertThat(bound.get(1).get(2)).isEqualTo(List.of(id(3)));
+        LocalDateTime now = ((Timestamp) bound.get(0).get(1)).toLocalDateTime();
+        assertThat(now).isCloseTo(before, within(5, ChronoUnit.SECONDS));
+        assertThat(((Timestamp) bound.get(0).get(3)).toLocalDateTime()).isEqualTo(now.minusDays(INACTIVE_DAYS));
+        verify(eventPublisher, never()).publishDormant(anyList(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("each chunk's dormant accounts go out as one event per tenant")
+    void publishesPerTenant() {
+        chunks.add(List.of(id(1), id(2)));
+        chunks.add(List.of(id(3)));
+        markedRows.add(List.of(dormant(1, "t1"), dormant(2, "t2")));
+        markedRows.add(List.<Object[]>of(dormant(3, "t1")));
+
+        sweeper.sweep();
+
+        verify(eventPublisher).publishDormant(List.of(account(1)), INACTIVE_DAYS, "t1");
+        verify(eventPublisher).publishDormant(List.of(account(2)), INACTIVE_DAYS, "t2");
+        verify(eventPublisher).publishDormant(List.of(account(3)), INACTIVE_DAYS, "t1");
+    }
+
+    @Test
+    @DisplayName("a failing chunk rolls back, publishes nothing and stops the sweep")
+    void failureStops() {
+        chunks.add(List.of(id(1), id(2)));
+        chunks.add(List.of(id(3), id(4)));
+        chunks.add(List.of(id(5)));
+        markedRows.add(List.<Object[]>of(dormant(1, "t1")));
+        // The second chunk's statement fails
+
+        sweeper.sweep();
+
+        verify(transactionManager).rollback(any());
+        verify(eventPublisher).publishDormant(List.of(account(1)), INACTIVE_DAYS, "t1");
+        verify(eventPublisher, never()).publishDormant(eq(List.of()), anyInt(), any());
+        assertThat(walks).hasSize(2);
+    }
+
+    private static UUID id(int n) {
+        return new UUID(0xD0, n);
+    }
+
+    private static Object[] dormant(int n, String tenantId) {
+        return new Object[]{id(n), tenantId, "ACC-" + n, "CUST-" + n, Timestamp.valueOf(LAST_ACTIVE)};
+    }
+
+    private static AccountEventPublisher.DormantAccount account(int n) {
+        return new AccountEventPublisher.DormantAccount(id(n), "ACC-" + n, "CUST-" + n, LAST_ACTIVE);
+    }
+
+    // ─── Database stand-in ───────────────────────────────────────────────────
+
+    private Object answer(InvocationOnMock inv) throws Exception {
+        Object[] args = inv.getRawArguments();
+        switch (inv.getMethod().getName()) {
+            case "queryForList":
+                walks.add((Object[]) args[2]);
+                List<UUID> chunk = chunks.poll();
+                return chunk != null ? chunk : List.of();
+            case "query":
+                bind((PreparedStatementCreator) args[0]);
+                List<Object[]> rows = markedRows.poll();
+                if (rows == null) throw new QueryTimeoutException("canceling statement due to statement timeout");
+                RowMapper<?> mapper = (RowMapper<?>) args[1];
+                List<Object> mapped = new ArrayList<>();
+                for (Object[] row : rows) mapped.add(mapper.mapRow(row(row), mapped.size()));
+                return mapped;
+            default:
+                throw new UnsupportedOperationException(inv.getMethod().toString());
+        }
+    }
+
+    // Runs the creator against a recording statement, keeping its SQL and parameters
+    private void bind(PreparedStatementCreator creator) throws Exception {
+        Map<Integer, Object> params = new HashMap<>();
+        PreparedStatement ps = mock(PreparedStatement.class, inv -> {
+            if (inv.getMethod().getName().startsWith("set")) {
+                Object value = inv.getArgument(1);
+                params.put(inv.getArgument(0), value instanceof Array a ? Arrays.asList((Object[]) a.getArray()) : value);
+            }
+            return null;
+        });
+        Connection con = mock(Connection.class);
+        when(con.prepareStatement(any())).thenAnswer(inv -> {
+            markSql.add(inv.getArgument(0));
+            return ps;
+        });
+        when(con.createArrayOf(any(), any())).thenAnswer(inv -> array(inv.getArgument(1)));
+        creator.createPreparedStatement(con);
+        bound.add(params);
+    }
+
+    private static Array array(Object[] elements) throws Exception {
+        Array array = mock(Array.class);
+        when(array.getArray()).thenReturn(elements);
+        return array;
+    }
+
+    private static ResultSet row(Object... columns) {
+        return mock(ResultSet.class, inv -> inv.getMethod().getName().startsWith("get")
+                ? columns[(int) inv.getArgument(0) - 1] : null);
+    }
+}
@@ -0,0 +1,240 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.dto.request.TransactionRequest;
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.AccountBalance;
+import com.athena.lms.account.entity.AccountTransaction;
+import com.athena.lms.account.event.AccountEventPublisher;
+import com.athena.lms.account.repository.AccountBalanceRepository;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.AccountTransactionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Credit and debit throughput through AccountService with every key looked up (the guard before
+ * its startup load, which is how credit and debit behaved before IdempotencyGuard) and with the
+ * filter loaded. Repositories are stubs that cost one simulated database round trip per call,
+ * so the difference is the lookups saved. Also reports the Bloom filter's size and observed
+ * false-positive rate past its expected capacity.
+ *
+ * Not a test; run it with the test classpath:
+ * <pre>
+ * mvn -o -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.athena.lms.account.service.IdempotencyGuardBenchmark [rtt-micros] [threads] [ops-per-thread] [existing-keys]
+ * </pre>
+ */
+public final class IdempotencyGuardBenchmark {
+
+    private static final String TENANT = "bench";
+    private static final int ACCOUNTS = 64;
+
+    private final long roundTripNanos;
+    private final AtomicLong keyLookups = new AtomicLong();
+    private final Map<UUID, Account> accounts = new HashMap<>();
+    private final Map<UUID, AccountBalance> balances = new HashMap<>();
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    private IdempotencyGuardBenchmark(long roundTripNanos) {
+        this.roundTripNanos = roundTripNanos;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            UUID id = UUID.randomUUID();
+            Account account = new Account();
+            account.setId(id);
+            account.setTenantId(TENANT);
+            account.setStatus(Account.AccountStatus.ACTIVE);
+            // Tier 3 has no limits, so debits skip the limit queries
+            account.setKycTier(3);
+            accounts.put(id, account);
+            AccountBalance balance = new AccountBalance();
+            balance.setAccountId(id);
+            balance.setAvailableBalance(new BigDecimal("1000000000"));
+            balance.setCurrentBalance(new BigDecimal("1000000000"));
+            balance.setLedgerBalance(new BigDecimal("1000000000"));
+            balances.put(id, balance);
+            accountIds.add(id);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        long rttMicros = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int opsPerThread = args.length > 2 ? Integer.parseInt(args[2]) : 1_500;
+        int existingKeys = args.length > 3 ? Integer.parseInt(args[3]) : 1_000_000;
+
+        IdempotencyGuardBenchmark bench = new IdempotencyGuardBenchmark(rttMicros * 1_000);
+        AccountTransactionRepository transactions = bench.transactionRepository();
+
+        IdempotencyGuard unloaded = guard(transactions, committedKeys(0));
+        IdempotencyGuard loaded = guard(transactions, committedKeys(existingKeys));
+        loaded.loadCommittedKeys();
+        AccountService before = bench.service(transactions, unloaded);
+        AccountService after = bench.service(transactions, loaded);
+
+        bench.run(before, threads, 200);
+        bench.run(after, threads, 200);
+
+        bench.keyLookups.set(0);
+        double beforeRate = bench.run(before, threads, opsPerThread);
+        long beforeLookups = bench.keyLookups.getAndSet(0);
+        double afterRate = bench.run(after, threads, opsPerThread);
+        long afterLookups = bench.keyLookups.get();
+
+        System.out.printf("rtt=%dus threads=%d ops=%d existing keys=%d%n",
+                rttMicros, threads, threads * opsPerThread, existingKeys);
+        System.out.printf("before (lookup every key): %.0f ops/s, %d key lookups%n", beforeRate, beforeLookups);
+        System.out.printf("after  (filter + LRU):     %.0f ops/s, %d key lookups%n", afterRate, afterLookups);
+
+        filterCharacteristics(1_000_000, 3_000_000);
+    }
+
+    // ─── Credit / debit load ─────────────────────────────────────────────────
+
+    private double run(AccountService service, int threads, int opsPerThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < opsPerThread; i++) {
+                        TransactionRequest req = new TransactionRequest();
+                        req.setAmount(new BigDecimal("10.00"));
+                        req.setIdempotencyKey(UUID.randomUUID().toString());
+                        UUID accountId = accountIds.get(random.nextInt(accountIds.size()));
+                        if (i % 2 == 0) service.credit(accountId, req, TENANT);
+                        else service.debit(accountId, req, TENANT);
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) worker.get();
+            return threads * (double) opsPerThread / ((System.nanoTime() - started) / 1e9);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private AccountService service(AccountTransactionRepository transactions, IdempotencyGuard guard) {
+        AccountRepository accountRepository = mock(AccountRepository.class, withSettings().stubOnly());
+        when(accountRepository.findByIdAndTenantId(any(), eq(TENANT))).thenAnswer(inv -> {
+            roundTrip();
+            return Optional.ofNullable(accounts.get(inv.<UUID>getArgument(0)));
+        });
+        AccountBalanceRepository balanceRepository = mock(AccountBalanceRepository.class, withSettings().stubOnly());
+        when(balanceRepository.findByAccountIdForUpdate(any())).thenAnswer(inv -> {
+            roundTrip();
+            return Optional.ofNullable(balances.get(inv.<UUID>getArgument(0)));
+        });
+        AccountMovements movements = mock(AccountMovements.class, withSettings().stubOnly());
+        when(movements.move(any(), any(), any())).thenAnswer(inv -> {
+            roundTrip();
+            UUID accountId = inv.getArgument(0);
+            return new AccountMovements.Movement(accountId, balances.get(accountId).getAvailableBalance(),
+                    Account.AccountStatus.ACTIVE, null, inv.<LocalDateTime>getArgument(2));
+        });
+        AccountEventPublisher publisher = mock(AccountEventPublisher.class, withSettings().stubOnly());
+
+        return new AccountService(accountRepository, balanceRepository, transactions, publisher,
+                null, guard, movements, null);
+    }
+
+    private AccountTransactionRepository transactionRepository() {
+        AccountTransactionRepository repository = mock(AccountTransactionRepository.class, withSettings().stubOnly());
+        // Every key is fresh, so a lookup always comes back empty
+        when(repository.findByIdempotencyKey(anyString())).thenAnswer(inv -> {
+            keyLookups.incrementAndGet();
+            roundTrip();
+            return Optional.empty();
+        });
+        when(repository.saveAndFlush(any(AccountTransaction.class))).thenAnswer(inv -> {
+            roundTrip();
+            AccountTransaction txn = inv.getArgument(0);
+            txn.setId(UUID.randomUUID());
+            return txn;
+        });
+        return repository;
+    }
+
+    // Parks for most of the round trip and spins the rest, as a blocking JDBC call would
+    private void roundTrip() {
+        long end = System.nanoTime() + roundTripNanos;
+        LockSupport.parkNanos(roundTripNanos);
+        while (System.nanoTime() < end) Thread.onSpinWait();
+    }
+
+    // ─── Guard wiring ────────────────────────────────────────────────────────
+
+    private static IdempotencyGuard guard(AccountTransactionRepository transactions, DataSource committedKeys) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class, withSettings().stubOnly());
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return new IdempotencyGuard(transactions, committedKeys, transactionManager, 1_000_000, 0.001, 10_000);
+    }
+
+    // The startup load's key query, answering with existing-0 .. existing-(count-1)
+    private static DataSource committedKeys(int count) throws Exception {
+        AtomicInteger row = new AtomicInteger(-1);
+        ResultSet rs = mock(ResultSet.class, withSettings().stubOnly());
+        when(rs.next()).thenAnswer(inv -> row.incrementAndGet() < count);
+        when(rs.getString(1)).thenAnswer(inv -> "existing-" + row.get());
+        Statement stmt = mock(Statement.class, withSettings().stubOnly());
+        when(stmt.executeQuery(anyString())).thenReturn(rs);
+        Connection conn = mock(Connection.class, withSettings().stubOnly());
+        when(conn.createStatement()).thenReturn(stmt);
+        DataSource dataSource = mock(DataSource.class, withSettings().stubOnly());
+        when(dataSource.getConnection()).thenReturn(conn);
+        return dataSource;
+    }
+
+    // ─── Filter ──────────────────────────────────────────────────────────────
+
+    private static void filterCharacteristics(long expected, int added) {
+        ScalableBloomFilter filter = new ScalableBloomFilter(expected, 0.001);
+        for (int i = 0; i < added; i++) filter.add("key-" + i);
+        int falseNegatives = 0;
+        for (int i = 0; i < added; i++) {
+            if (!filter.mightContain("key-" + i)) falseNegatives++;
+        }
+        int probes = 1_000_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+        }
+        System.out.printf("filter: %d keys in %d stage(s), %d KiB, false negatives=%d, false positive rate=%.5f%n",
+                added, filter.stageCount(), filter.bitCount() / 8 / 1024, falseNegatives,
+                falsePositives / (double) probes);
+    }
+}
@@ -0,0 +1,113 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.dto.response.OnboardingImportResponse;
+import com.athena.lms.account.repository.OnboardingImportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OnboardingImportServiceTest {
+
+    private static final String FILE = """
+            customer_id,first_name,last_name,email,account_type,kyc_tier
+            C1,Grace,Akinyi,grace@example.com,SAVINGS,1
+            C2,Peter,Kamau,,,
+            C3,Mary,Otieno,not-an-email,SAVINGS,1
+            """;
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final OnboardingImporter importer = mock(OnboardingImporter.class);
+    private final OnboardingImportService service = new OnboardingImportService(mock(OnboardingImportRepository.class),
+            importer, new ObjectMapper(), jdbc, 1_000);
+    private final List<Object[]> staged = new ArrayList<>();
+
+    OnboardingImportServiceTest() {
+        // The batch list is reused once written, so keep copies of its rows
+        doAnswer(inv -> {
+            staged.addAll(inv.<List<Object[]>>getArgument(1));
+            return new int[0];
+        }).when(jdbc).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("bad rows are INVALID while the rest of the file is staged and imported")
+    void partiallyInvalid() {
+        existingCustomers();
+
+        OnboardingImportResponse response = submit(false);
+
+        assertThat(response.getStatus()).isEqualTo("PENDING");
+        assertThat(response.getValidRows()).isEqualTo(2);
+        assertThat(response.getInvalidRows()).isEqualTo(1);
+        assertThat(response.getErrors()).containsExactly(
+                new OnboardingImportResponse.RowError(3, "C3", "INVALID", "email is not valid"));
+        assertThat(staged).extracting(row -> row[16]).containsExactly("PENDING", "PENDING", "INVALID");
+        // A row without an account type stages no account fields
+        assertThat(staged.get(1)[12]).isNull();
+        assertThat(staged.get(1)[14]).isNull();
+        verify(importer).startAfterCommit(response.getId());
+    }
+
+    @Test
+    @DisplayName("submitting the same file again skips the customers it already created and imports nothing")
+    void resubmittedFile() {
+        existingCustomers("C1", "C2");
+
+        OnboardingImportResponse response = submit(false);
+
+        assertThat(response.getSkippedRows()).isEqualTo(2);
+        assertThat(response.getValidRows()).isZero();
+        assertThat(response.getStatus()).isEqualTo("COMPLETED_WITH_ERRORS");
+        assertThat(staged).extracting(row -> row[16]).containsExactly("SKIPPED", "SKIPPED", "INVALID");
+        assertThat(staged.get(0)[17]).isEqualTo("Customer already exists");
+        verify(importer, never()).startAfterCommit(any());
+    }
+
+    @Test
+    @DisplayName("a dry run keeps only the rows that would not import and starts nothing")
+    void dryRun() {
+        existingCustomers("C2");
+
+        OnboardingImportResponse response = submit(true);
+
+        assertThat(response.getStatus()).isEqualTo("VALIDATED");
+        assertThat(staged).extracting(row -> row[1]).containsExactly(2, 3);
+        verify(importer, never()).startAfterCommit(any());
+    }
+
+    private OnboardingImportResponse submit(boolean dryRun) {
+        return service.submitFile("customers.csv", "text/csv", FILE.getBytes(StandardCharsets.UTF_8), dryRun,
+                "t1", "ops@example.com");
+    }
+
+    private void existingCustomers(String... ids) {
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (String id : Set.of(ids)) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn(id);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbc).query(eq("SELECT customer_id FROM customers WHERE tenant_id = ?"), any(RowCallbackHandler.class), eq("t1"));
+    }
+}
@@ -0,0 +1,267 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.event.AccountEventPublisher;
+import com.athena.lms.account.event.AccountEventPublisher.OnboardedCustomer;
+import com.athena.lms.common.sequence.CheckDigit;
+import com.athena.lms.common.sequence.SequenceFormat;
+import com.athena.lms.common.sequence.SequenceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OnboardingImporterTest {
+
+    private static final UUID IMPORT = new UUID(0x0B0A4DL, 1);
+    private static final SequenceFormat FORMAT = SequenceFormat.compile("ACC-{tenant:3}-{seq:09}{check}", CheckDigit.LUHN);
+
+    // The database side, answered by statement: what each query returns and what was written
+    private boolean claimable = true;
+    private final Queue<List<Object[]>> pending = new ArrayDeque<>();
+    private final Queue<List<Object[]>> unnotified = new ArrayDeque<>();
+    private final Set<String> existingCustomers = new HashSet<>();
+    private int failOnChunk = -1;
+    private int chunks;
+
+    private final Map<String, List<List<Object[]>>> batches = new HashMap<>();
+    private final List<Object[]> renewals = new ArrayList<>();
+    private final List<List<Object>> notified = new ArrayList<>();
+    private int completed;
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AccountEventPublisher eventPublisher = mock(AccountEventPublisher.class);
+    private final SequenceService sequenceService = mock(SequenceService.class);
+    private final OnboardingImporter importer;
+
+    OnboardingImporterTest() {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        when(sequenceService.format("account-number")).thenReturn(FORMAT);
+        JdbcTemplate jdbc = mock(JdbcTemplate.class, this::answer);
+        importer = new OnboardingImporter(jdbc, new TransactionTemplate(transactionManager), eventPublisher,
+                sequenceService, 2, 1, 120, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importer.stop();
+    }
+
+    @Test
+    @DisplayName("a customer created since the file was checked fails its row alone, without an account")
+    void upsertConflict() {
+        pending.add(List.<Object[]>of(row(1, "C1", "SAVINGS"), row(2, "C2", "SAVINGS")));
+        pending.add(List.<Object[]>of(row(3, "C3", null)));
+        existingCustomers.add("C2");
+        when(sequenceService.reserve("t1", "account-number", 1)).thenReturn(41L);
+
+        importer.process(IMPORT);
+
+        List<Object[]> results = batches.get("UPDATE onboarding_import_rows").get(0);
+        assertThat(results.get(0)).startsWith("IMPORTED", null);
+        assertThat(results.get(0)[4]).isEqualTo(FORMAT.format("t1", 41));
+        assertThat(results.get(1)).containsExactly("FAILED", "Customer already exists", null, null, null, IMPORT, 2);
+        assertThat(batches.get("INSERT INTO accounts").get(0)).hasSize(1);
+        // Customers, accounts and failures counted per chunk on the lease renewal
+        assertThat(renewals.get(0)).startsWith(1, 1, 1);
+        assertThat(renewals.get(1)).startsWith(1, 0, 0);
+        assertThat(completed).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("each chunk reserves its account numbers with one call and formats them in order")
+    void accountNumberReservation() {
+        pending.add(List.<Object[]>of(row(1, "C1", "SAVINGS"), row(2, "C2", "CURRENT")));
+        pending.add(List.<Object[]>of(row(3, "C3", "SAVINGS"), row(4, "C4", null)));
+        when(sequenceService.reserve("t1", "account-number", 2)).thenReturn(100L);
+        when(sequenceService.reserve("t1", "account-number", 1)).thenReturn(102L);
+
+        importer.process(IMPORT);
+
+        verify(sequenceService).reserve("t1", "account-number", 2);
+        verify(sequenceService).reserve("t1", "account-number", 1);
+        verify(sequenceService, never()).next(anyString(), anyString());
+        List<Object> numbers = new ArrayList<>();
+        for (List<Object[]> batch : batches.get("INSERT INTO accounts")) {
+            for (Object[] account : batch) numbers.add(account[2]);
+        }
+        assertThat(numbers).containsExactly(FORMAT.format("t1", 100), FORMAT.format("t1", 101), FORMAT.format("t1", 102));
+        assertThat(numbers.get(0)).asString().startsWith("ACC-T1-000000100");
+    }
+
+    @Test
+    @DisplayName("imported rows go out once per chunk after it commits and are then marked notified")
+    void notifiesAfterEachChunk() {
+        pending.add(List.<Object[]>of(row(1, "C1", "SAVINGS"), row(2, "C2", null)));
+        pending.add(List.<Object[]>of(row(3, "C3", null)));
+        existingCustomers.add("C3");
+        when(sequenceService.reserve("t1", "account-number", 1)).thenReturn(7L);
+
+        importer.process(IMPORT);
+
+        ArgumentCaptor<List<OnboardedCustomer>> sent = captor();
+        // The second chunk imported nothing, so it sends nothing
+        verify(eventPublisher, times(1)).publishOnboarded(eq(IMPORT), sent.capture(), eq("t1"));
+        assertThat(sent.getValue()).extracting(OnboardedCustomer::customerId).containsExactly("C1", "C2");
+        assertThat(sent.getValue().get(0).accountNumber()).isEqualTo(FORMAT.format("t1", 7));
+        assertThat(sent.getValue().get(1).accountId()).isNull();
+        assertThat(notified).containsExactly(List.of(1, 2));
+    }
+
+    @Test
+    @DisplayName("a resumed import first sends the rows a stopped run imported but did not announce")
+    void resumeSendsUnnotified() {
+        UUID customer = UUID.randomUUID();
+        unnotified.add(List.<Object[]>of(new Object[]{5, customer, "C5", null, null}));
+
+        importer.process(IMPORT);
+
+        ArgumentCaptor<List<OnboardedCustomer>> sent = captor();
+        verify(eventPublisher).publishOnboarded(eq(IMPORT), sent.capture(), eq("t1"));
+        assertThat(sent.getValue()).containsExactly(new OnboardedCustomer(customer, "C5", null, null));
+        assertThat(notified).containsExactly(List.of(5));
+        assertThat(batches).doesNotContainKey("INSERT INTO customers");
+        assertThat(completed).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("an import already finished or held by another replica is left alone")
+    void notClaimed() {
+        claimable = false;
+        pending.add(List.<Object[]>of(row(1, "C1", "SAVINGS")));
+
+        importer.process(IMPORT);
+
+        assertThat(batches).isEmpty();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("a failing chunk rolls back alone: earlier chunks stay imported and announced, and the import stays open")
+    void partialFailure() {
+        pending.add(List.<Object[]>of(row(1, "C1", null), row(2, "C2", null)));
+        pending.add(List.<Object[]>of(row(3, "C3", null)));
+        failOnChunk = 2;
+
+        importer.process(IMPORT);
+
+        verify(transactionManager).rollback(any());
+        verify(eventPublisher).publishOnboarded(eq(IMPORT), any(), eq("t1"));
+        assertThat(notified).containsExactly(List.of(1, 2));
+        assertThat(renewals).hasSize(1);
+        assertThat(completed).isZero();
+        verify(sequenceService, never()).reserve(anyString(), anyString(), anyInt());
+    }
+
+    // ─── Database stand-in ───────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private static <T> ArgumentCaptor<List<T>> captor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    // A staged row: a customer, with an account of the given type if one is wanted
+    private static Object[] row(int rowNo, String customerId, String accountType) {
+        return new Object[]{rowNo, customerId, "First", "Last", null, null, null, null, null, null, "INDIVIDUAL",
+                accountType, accountType != null ? "KES" : null, accountType != null ? 0 : null, null};
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object answer(InvocationOnMock inv) throws Exception {
+        Object[] args = inv.getRawArguments();
+        switch (inv.getMethod().getName()) {
+            case "queryForObject":
+                return ((RowMapper<?>) args[1]).mapRow(result(IMPORT, "t1"), 0);
+            case "query":
+                String sql = (String) args[0];
+                Queue<List<Object[]>> source = sql.contains("status = 'PENDING'") ? pending : unnotified;
+                List<Object[]> rows = source.poll();
+                List<Object> mapped = new ArrayList<>();
+                if (rows != null) {
+                    for (Object[] row : rows) mapped.add(((RowMapper<?>) args[1]).mapRow(result(row), mapped.size()));
+                }
+                return mapped;
+            case "batchUpdate":
+                String statement = (String) args[0];
+                List<Object[]> batch = (List<Object[]>) args[1];
+                String key = statement.substring(0, statement.indexOf(statement.startsWith("UPDATE") ? " SET" : " ("));
+                batches.computeIfAbsent(key, k -> new ArrayList<>()).add(batch);
+                int[] counts = new int[batch.size()];
+                Arrays.fill(counts, 1);
+                if (key.equals("INSERT INTO customers")) {
+                    if (++chunks == failOnChunk) throw new DataAccessResourceFailureException("connection reset");
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (existingCustomers.contains((String) batch.get(i)[2])) counts[i] = 0;
+                    }
+                }
+                return counts;
+            case "update":
+                if (args[0] instanceof PreparedStatementCreator creator) {
+                    notified.add(boundArray(creator));
+                    return 1;
+                }
+                String update = (String) args[0];
+                if (update.startsWith("UPDATE onboarding_imports SET status = 'PROCESSING'")) return claimable ? 1 : 0;
+                renewals.add((Object[]) args[1]);
+                return 1;
+            case "queryForList":
+                completed++;
+                return List.of(Map.of("status", "COMPLETED", "imported_customers", 0, "imported_accounts", 0,
+                        "failed_rows", 0));
+            default:
+                throw new UnsupportedOperationException(inv.getMethod().toString());
+        }
+    }
+
+    // The row numbers a notified update marks
+    private static List<Object> boundArray(PreparedStatementCreator creator) throws Exception {
+        List<Object> elements = new ArrayList<>();
+        Connection con = mock(Connection.class);
+        when(con.prepareStatement(any())).thenReturn(mock(PreparedStatement.class));
+        when(con.createArrayOf(any(), any())).thenAnswer(inv -> {
+            elements.addAll(Arrays.asList(inv.<Object[]>getArgument(1)));
+            return mock(Array.class);
+        });
+        creator.createPreparedStatement(con);
+        return elements;
+    }
+
+    private static ResultSet result(Object... columns) {
+        return mock(ResultSet.class, inv -> inv.getMethod().getName().startsWith("get")
+                ? columns[(int) inv.getArgument(0) - 1] : null);
+    }
+}
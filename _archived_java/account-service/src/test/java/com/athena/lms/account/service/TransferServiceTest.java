@@ -0,0 +1,116 @@
+package com.athena.lms.account.service;
+
+import com.athena.lms.account.dto.request.TransferRequest;
+import com.athena.lms.account.entity.Account;
+import com.athena.lms.account.entity.AccountBalance;
+import com.athena.lms.account.entity.FundTransfer;
+import com.athena.lms.account.event.AccountEventPublisher;
+import com.athena.lms.account.repository.AccountBalanceRepository;
+import com.athena.lms.account.repository.AccountRepository;
+import com.athena.lms.account.repository.AccountTransactionRepository;
+import com.athena.lms.account.repository.FundTransferRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransferServiceTest {
+
+    private static final String TENANT = "t1";
+    // The destination sorts first, so it is locked and moved first
+    private static final UUID SOURCE = new UUID(0, 9);
+    private static final UUID DEST = new UUID(0, 3);
+    private static final LocalDateTime LAST_ACTIVE = LocalDateTime.of(2024, 5, 20, 14, 0);
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final AccountBalanceRepository balanceRepository = mock(AccountBalanceRepository.class);
+    private final FundTransferRepository transferRepository = mock(FundTransferRepository.class);
+    private final AccountEventPublisher eventPublisher = mock(AccountEventPublisher.class);
+    private final AccountMovements movements = mock(AccountMovements.class);
+    private final Map<UUID, Account.AccountStatus> priorStatus = new HashMap<>();
+    // The product service is unreachable, so the charge fails open to zero
+    private final TransferService service = new TransferService(transferRepository, accountRepository,
+            balanceRepository, mock(AccountTransactionRepository.class), eventPublisher, movements, mock(RestTemplate.class));
+
+    TransferServiceTest() {
+        Account source = account(SOURCE, "0100000009");
+        Account dest = account(DEST, "0100000003");
+        when(accountRepository.findByIdAndTenantId(SOURCE, TENANT)).thenReturn(Optional.of(source));
+        when(accountRepository.findById(DEST)).thenReturn(Optional.of(dest));
+        when(balanceRepository.findByAccountIdForUpdate(any())).thenAnswer(inv -> {
+            AccountBalance balance = new AccountBalance();
+            balance.setAccountId(inv.getArgument(0));
+            balance.setAvailableBalance(new BigDecimal("1000.00"));
+            return Optional.of(balance);
+        });
+        when(movements.move(any(), any(), any())).thenAnswer(inv -> new AccountMovements.Movement(inv.getArgument(0),
+                new BigDecimal("1000.00").add(inv.getArgument(1)), priorStatus.getOrDefault(inv.<UUID>getArgument(0),
+                Account.AccountStatus.ACTIVE), LAST_ACTIVE, inv.getArgument(2)));
+        when(transferRepository.save(any(FundTransfer.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("a transfer into a dormant account reactivates it as a credit, locking in id order")
+    void destinationReactivated() {
+        priorStatus.put(DEST, Account.AccountStatus.DORMANT);
+
+        service.initiateTransfer(request(), TENANT, "teller");
+
+        InOrder order = inOrder(balanceRepository, movements);
+        order.verify(balanceRepository).findByAccountIdForUpdate(DEST);
+        order.verify(balanceRepository).findByAccountIdForUpdate(SOURCE);
+        order.verify(movements).move(eq(DEST), eq(new BigDecimal("250.00")), any());
+        order.verify(movements).move(eq(SOURCE), eq(new BigDecimal("-250.00")), any());
+        verify(eventPublisher).publishReactivated(eq(DEST), eq("0100000003"), eq("CUST-1"), eq(LAST_ACTIVE),
+                any(LocalDateTime.class), eq("CREDIT"), eq(new BigDecimal("250.00")), eq(TENANT));
+        verify(eventPublisher, never()).publishReactivated(eq(SOURCE), any(), any(), any(), any(), anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("a transfer out of a dormant account reactivates it as a debit of the total")
+    void sourceReactivated() {
+        priorStatus.put(SOURCE, Account.AccountStatus.DORMANT);
+
+        service.initiateTransfer(request(), TENANT, "teller");
+
+        verify(eventPublisher).publishReactivated(eq(SOURCE), eq("0100000009"), eq("CUST-1"), eq(LAST_ACTIVE),
+                any(LocalDateTime.class), eq("DEBIT"), eq(new BigDecimal("250.00")), eq(TENANT));
+        verify(eventPublisher, never()).publishReactivated(eq(DEST), any(), any(), any(), any(), anyString(), any(), any());
+    }
+
+    private static Account account(UUID id, String number) {
+        Account account = new Account();
+        account.setId(id);
+        account.setTenantId(TENANT);
+        account.setAccountNumber(number);
+        account.setCustomerId("CUST-1");
+        account.setCurrency("KES");
+        account.setStatus(Account.AccountStatus.DORMANT);
+        return account;
+    }
+
+    private static TransferRequest request() {
+        TransferRequest req = new TransferRequest();
+        req.setSourceAccountId(SOURCE);
+        req.setDestinationAccountId(DEST);
+        req.setAmount(new BigDecimal("250.00"));
+        req.setTransferType("INTERNAL");
+        return req;
+    }
+}
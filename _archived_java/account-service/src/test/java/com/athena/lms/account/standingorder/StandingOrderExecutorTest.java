@@ -0,0 +1,348 @@
+package com.athena.lms.account.standingorder;
+
+import com.athena.lms.account.event.AccountEventPublisher;
+import com.athena.lms.account.service.AccountMovements;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StandingOrderExecutorTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final UUID COLLECTION = new UUID(0, 1);
+    private static final UUID S1 = new UUID(0, 7);
+    private static final UUID S2 = new UUID(0, 5);
+    private static final UUID S3 = new UUID(0, 9);
+    private static final int MAX_ERROR_ATTEMPTS = 3;
+
+    // The database side: orders due for scheduling, executions due to run, the accounts the
+    // lock query returns, and an order whose posting the database refuses
+    private final List<Object[]> dueOrders = new ArrayList<>();
+    private final List<Object[]> dueExecutions = new ArrayList<>();
+    private final Map<UUID, Object[]> accounts = new HashMap<>();
+    private UUID poisoned;
+    private RuntimeException dueQueryFailure;
+
+    private final List<Integer> executionLimits = new ArrayList<>();
+    private final List<List<Object>> locked = new ArrayList<>();
+    private final List<Object[]> putBack = new ArrayList<>();
+    private final Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AccountEventPublisher eventPublisher = mock(AccountEventPublisher.class);
+    private final AccountMovements movements = mock(AccountMovements.class);
+    private final StandingOrderExecutor executor;
+
+    StandingOrderExecutorTest() {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        JdbcTemplate jdbc = mock(JdbcTemplate.class, this::answer);
+        executor = new StandingOrderExecutor(jdbc, new TransactionTemplate(transactionManager), eventPublisher,
+                movements, true, 10, 60, 7, MAX_ERROR_ATTEMPTS);
+        account(COLLECTION, "ACTIVE", "0.00");
+        account(S1, "ACTIVE", "500.00");
+        account(S2, "ACTIVE", "500.00");
+        account(S3, "ACTIVE", "500.00");
+    }
+
+    @Nested
+    @DisplayName("Scheduling")
+    class SchedulingTests {
+
+        @Test
+        @DisplayName("each due date reached gets an execution; dates past the catch-up window are skipped")
+        void catchesUp() {
+            UUID order = UUID.randomUUID();
+            dueOrders.add(new Object[]{order, "t1", "DAILY", TODAY.minusDays(30), null, TODAY.minusDays(9)});
+
+            executor.sweep();
+
+            List<Object[]> executions = batch("INSERT INTO standing_order_executions");
+            assertThat(executions).hasSize(10);
+            assertThat(executions).extracting(e -> e[1] + " " + e[3]).startsWith(
+                    TODAY.minusDays(9) + " SKIPPED", TODAY.minusDays(8) + " SKIPPED", TODAY.minusDays(7) + " PENDING");
+            assertThat(executions.get(9)).startsWith(order, TODAY, "t1", "PENDING");
+            assertThat(batch("UPDATE standing_orders").get(0)).startsWith(TODAY.plusDays(1), "ACTIVE");
+        }
+
+        @Test
+        @DisplayName("an order whose last date is scheduled completes")
+        void completesAtEndDate() {
+            dueOrders.add(new Object[]{UUID.randomUUID(), "t1", "MONTHLY", TODAY.minusMonths(2), TODAY, TODAY});
+
+            executor.sweep();
+
+            assertThat(batch("INSERT INTO standing_order_executions")).hasSize(1);
+            assertThat(batch("UPDATE standing_orders").get(0)).startsWith(null, "COMPLETED");
+        }
+    }
+
+    @Nested
+    @DisplayName("Execution")
+    class ExecutionTests {
+
+        @Test
+        @DisplayName("orders paying one account are netted into a single movement per account")
+        void nets() {
+            due(S1, "100.00");
+            due(S2, "50.00");
+            due(S3, "25.00");
+
+            executor.sweep();
+
+            // Every account is locked once, in UUID order
+            assertThat(locked).containsExactly(List.of(COLLECTION, S2, S1, S3));
+            verify(movements).moveAll(eq(Map.of(COLLECTION, new BigDecimal("175.00"),
+                    S1, new BigDecimal("-100.00"), S2, new BigDecimal("-50.00"), S3, new BigDecimal("-25.00"))),
+                    any(LocalDateTime.class));
+            // The collection account's balance after each credit builds on the one before
+            assertThat(batch("INSERT INTO account_transactions")).filteredOn(t -> t[3].equals("CREDIT"))
+                    .extracting(t -> t[5]).containsExactly(
+                            new BigDecimal("100.00"), new BigDecimal("150.00"), new BigDecimal("175.00"));
+            assertThat(outcomes()).extracting(o -> o[0]).containsOnly("COMPLETED");
+            assertThat(batch("INSERT INTO fund_transfers")).hasSize(3);
+            verify(eventPublisher).publishStandingOrderTransfers(anyList(), eq("t1"));
+        }
+
+        @Test
+        @DisplayName("each leg's idempotency key names the order and its due date")
+        void idempotencyKeys() {
+            UUID order = due(S1, "100.00");
+
+            executor.sweep();
+
+            String key = "standing-order:" + order + ":" + TODAY;
+            assertThat(batch("INSERT INTO account_transactions")).extracting(t -> t[8])
+                    .containsExactly(key + ":debit", key + ":credit");
+            assertThat(batch("INSERT INTO fund_transfers").get(0)[7]).isEqualTo("SO-" + order + "-" + TODAY);
+        }
+
+        @Test
+        @DisplayName("a fixed order short of money waits out its retry interval, then fails once retries run out")
+        void insufficientFunds() {
+            due(S1, "900.00");
+            dueExecutions.add(dueRow(UUID.randomUUID(), S2, "900.00", 2));
+
+            executor.sweep();
+
+            List<Object[]> outcomes = outcomes();
+            assertThat(outcomes.get(0)).startsWith("PENDING", 1);
+            assertThat(((Timestamp) outcomes.get(0)[2]).toLocalDateTime())
+                    .isCloseTo(LocalDateTime.now().plusHours(24), within(1, ChronoUnit.MINUTES));
+            assertThat(outcomes.get(1)).startsWith("FAILED", 3);
+            verify(movements, never()).moveAll(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Failures")
+    class FailureTests {
+
+        @Test
+        @DisplayName("an execution that fails on its own is put back until its retry interval and the rest still run")
+        void poisonRowPutBack() {
+            due(S1, "100.00");
+            poisoned = due(S2, "50.00");
+            due(S3, "25.00");
+
+            executor.sweep();
+
+            verify(transactionManager, times(2)).rollback(any());
+            assertThat(executionLimits).containsExactly(10, 1, 1, 1, 1);
+            assertThat(outcomes()).extracting(o -> o[0]).containsExactly("COMPLETED", "COMPLETED");
+            assertThat(putBack).singleElement().satisfies(row -> {
+                assertThat(row).startsWith("PENDING", 1);
+                assertThat(((Timestamp) row[2]).toLocalDateTime())
+                        .isCloseTo(LocalDateTime.now().plusHours(24), within(1, ChronoUnit.MINUTES));
+                assertThat(row[5]).isEqualTo("duplicate key value violates unique constraint");
+                assertThat(row[7]).isEqualTo(poisoned);
+            });
+            // Each execution that committed on its own was published on its own
+            verify(eventPublisher, times(2)).publishStandingOrderTransfers(anyList(), eq("t1"));
+        }
+
+        @Test
+        @DisplayName("an execution that keeps failing fails for its due date once its attempts run out")
+        void poisonRowFails() {
+            poisoned = UUID.randomUUID();
+            dueExecutions.add(dueRow(poisoned, S1, "100.00", MAX_ERROR_ATTEMPTS - 1));
+
+            executor.sweep();
+
+            assertThat(putBack).singleElement().satisfies(row -> {
+                assertThat(row).startsWith("FAILED", MAX_ERROR_ATTEMPTS);
+                assertThat(row[6]).isNotNull();
+            });
+        }
+
+        @Test
+        @DisplayName("a failure before any execution is taken stops the sweep without putting anything back")
+        void dueQueryFails() {
+            due(S1, "100.00");
+            dueQueryFailure = new QueryTimeoutException("canceling statement due to statement timeout");
+
+            executor.sweep();
+
+            assertThat(putBack).isEmpty();
+            assertThat(executionLimits).containsExactly(10, 1);
+        }
+    }
+
+    private void account(UUID id, String status, String balance) {
+        accounts.put(id, new Object[]{id, status, new BigDecimal(balance), "ACC-" + id.getLeastSignificantBits(),
+                "CUST-1", Timestamp.valueOf(LocalDateTime.now().minusDays(1)), "KES"});
+    }
+
+    // A FIXED order paying the collection account, due today
+    private UUID due(UUID source, String amount) {
+        UUID order = UUID.randomUUID();
+        dueExecutions.add(dueRow(order, source, amount, 0));
+        return order;
+    }
+
+    private static Object[] dueRow(UUID order, UUID source, String amount, int attempts) {
+        return new Object[]{order, TODAY, attempts, Timestamp.valueOf(TODAY.atStartOfDay()), "t1", "ACTIVE",
+                source, COLLECTION, "THIRD_PARTY", "FIXED", new BigDecimal(amount), null, 2, 24, "Savings"};
+    }
+
+    // ─── Database stand-in ───────────────────────────────────────────────────
+
+    private List<Object[]> batch(String prefix) {
+        List<Object[]> rows = new ArrayList<>();
+        batches.forEach((sql, args) -> {
+            if (sql.startsWith(prefix)) rows.addAll(args);
+        });
+        return rows;
+    }
+
+    private List<Object[]> outcomes() {
+        return batch("UPDATE standing_order_executions");
+    }
+
+    // An execution leaves the due query once an outcome is written for it
+    private void resolve(Object[] outcome) {
+        dueExecutions.removeIf(row -> row[0].equals(outcome[7]) && row[1].equals(outcome[8]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object answer(InvocationOnMock inv) throws Exception {
+        Object[] args = inv.getRawArguments();
+        switch (inv.getMethod().getName()) {
+            case "query":
+                return query(args);
+            case "batchUpdate":
+                String sql = (String) args[0];
+                List<Object[]> rows = new ArrayList<>((List<Object[]>) args[1]);
+                if (sql.startsWith("INSERT INTO account_transactions") && poisoned != null
+                        && rows.stream().anyMatch(t -> ((String) t[8]).contains(poisoned.toString()))) {
+                    throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+                }
+                batches.computeIfAbsent(sql, s -> new ArrayList<>()).addAll(rows);
+                if (sql.startsWith("UPDATE standing_order_executions")) rows.forEach(this::resolve);
+                return new int[0];
+            case "update":
+                Object[] outcome = (Object[]) args[1];
+                putBack.add(outcome);
+                resolve(outcome);
+                return 1;
+            default:
+                throw new UnsupportedOperationException(inv.getMethod().toString());
+        }
+    }
+
+    private Object query(Object[] args) throws Exception {
+        if (args[0] instanceof PreparedStatementCreator creator) {
+            for (Object id : bind(creator)) ((RowCallbackHandler) args[1]).processRow(row(accounts.get((UUID) id)));
+            return null;
+        }
+        String sql = (String) args[0];
+        Object[] params = (Object[]) args[2];
+        if (sql.contains("FROM standing_orders WHERE status = 'ACTIVE'")) {
+            List<Object[]> orders = new ArrayList<>(dueOrders);
+            dueOrders.clear();
+            for (Object[] order : orders) ((RowCallbackHandler) args[1]).processRow(row(order));
+            return null;
+        }
+        if (sql.contains("FROM standing_order_executions e")) {
+            int limit = (Integer) params[1];
+            executionLimits.add(limit);
+            if (dueQueryFailure != null && limit == 1) throw dueQueryFailure;
+            if (dueQueryFailure != null) throw new DataIntegrityViolationException("chunk failed");
+            RowMapper<?> mapper = (RowMapper<?>) args[1];
+            List<Object> dues = new ArrayList<>();
+            for (Object[] row : dueExecutions.subList(0, Math.min(limit, dueExecutions.size()))) {
+                dues.add(mapper.mapRow(row(row), dues.size()));
+            }
+            return dues;
+        }
+        throw new UnsupportedOperationException(sql);
+    }
+
+    // Runs the lock statement's creator, returning the account ids it binds
+    @SuppressWarnings("unchecked")
+    private List<Object> bind(PreparedStatementCreator creator) throws Exception {
+        Map<Integer, Object> params = new HashMap<>();
+        PreparedStatement ps = mock(PreparedStatement.class, inv -> {
+            if (inv.getMethod().getName().startsWith("set")) {
+                Object value = inv.getArgument(1);
+                params.put(inv.getArgument(0), value instanceof Array a ? Arrays.asList((Object[]) a.getArray()) : value);
+            }
+            return null;
+        });
+        Connection con = mock(Connection.class);
+        when(con.prepareStatement(any())).thenReturn(ps);
+        when(con.createArrayOf(any(), any())).thenAnswer(inv -> array(inv.getArgument(1)));
+        creator.createPreparedStatement(con);
+        List<Object> ids = (List<Object>) params.get(1);
+        locked.add(ids);
+        return ids;
+    }
+
+    private static Array array(Object[] elements) throws Exception {
+        Array array = mock(Array.class);
+        when(array.getArray()).thenReturn(elements);
+        return array;
+    }
+
+    private static ResultSet row(Object... columns) {
+        return mock(ResultSet.class, inv -> inv.getMethod().getName().startsWith("get")
+                ? columns[(int) inv.getArgument(0) - 1] : null);
+    }
+}
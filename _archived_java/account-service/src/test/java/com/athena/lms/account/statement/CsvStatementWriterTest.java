@@ -0,0 +1,75 @@
+package com.athena.lms.account.statement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvStatementWriterTest {
+
+    private static final StatementWriter.Header HEADER = new StatementWriter.Header("0100012345", "Jane", "KES",
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), new BigDecimal("1000.00"));
+
+    @Test
+    @DisplayName("rows sit between the OPENING and CLOSING balances, amounts unsigned")
+    void layout() throws IOException {
+        String csv = write(
+                row("CREDIT", "250.00", "1250.00", "REF-1", "Salary", "MOBILE"),
+                row("DEBIT", "100.5", "1149.50", null, "ATM", null));
+
+        assertThat(csv.split("\n", -1)).containsExactly(
+                "date,type,amount,balance,reference,description,channel",
+                "2025-01-01 00:00:00,OPENING,,1000.00,,,",
+                "2025-01-05 09:30:00,CREDIT,250.00,1250.00,REF-1,Salary,MOBILE",
+                "2025-01-05 09:30:00,DEBIT,100.5,1149.50,,ATM,",
+                ",CLOSING,,1149.50,,,",
+                "");
+    }
+
+    @Test
+    @DisplayName("commas, quotes and line breaks are quoted; formula characters are defused")
+    void escaping() throws IOException {
+        String csv = write(
+                row("CREDIT", "1", "1001", "A,B", "say \"hi\"", "line\nbreak"),
+                row("CREDIT", "1", "1002", "=SUM(A1)", "+254700", "@cmd"),
+                row("CREDIT", "1", "1003", "-1", "plain", ""));
+
+        assertThat(csv).contains(",\"A,B\",\"say \"\"hi\"\"\",\"line\nbreak\"\n");
+        assertThat(csv).contains(",\"'=SUM(A1)\",\"'+254700\",\"'@cmd\"\n");
+        assertThat(csv).contains(",\"'-1\",plain,\n");
+    }
+
+    @Test
+    @DisplayName("amounts are written in plain notation")
+    void plainAmounts() throws IOException {
+        String csv = write(row("CREDIT", "1E+3", "2E+3", "R", "D", "C"));
+
+        assertThat(csv).contains(",CREDIT,1000,2000,R,D,C\n");
+    }
+
+    private static StatementWriter.Row row(String type, String amount, String balance,
+                                           String reference, String description, String channel) {
+        return new StatementWriter.Row(LocalDateTime.of(2025, 1, 5, 9, 30), type, new BigDecimal(amount),
+                new BigDecimal(balance), reference, description, channel);
+    }
+
+    private static String write(StatementWriter.Row... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = new CsvStatementWriter(out);
+        writer.begin(HEADER);
+        BigDecimal closing = HEADER.openingBalance();
+        for (StatementWriter.Row row : rows) {
+            writer.row(row);
+            closing = row.balance();
+        }
+        writer.end(new StatementWriter.Totals(rows.length, BigDecimal.ZERO, BigDecimal.ZERO, closing));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
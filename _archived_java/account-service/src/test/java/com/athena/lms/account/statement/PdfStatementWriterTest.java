@@ -0,0 +1,183 @@
+package com.athena.lms.account.statement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfStatementWriterTest {
+
+    // 56 rows fit under the first page's header and 60 on each page after it
+    private static final int ROWS = 200;
+    private static final int PAGES = 4;
+
+    private static final Pattern STARTXREF = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$");
+    private static final Pattern STREAM = Pattern.compile("(\\d+) 0 obj\n<< ([^\n]*) /Length (\\d+) >>\nstream\n");
+
+    private String pdf;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = new PdfStatementWriter(out);
+        writer.begin(new StatementWriter.Header("0100012345", "Jane (Savings)", "KES",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31), new BigDecimal("1000.00")));
+        BigDecimal balance = new BigDecimal("1000.00");
+        BigDecimal credits = BigDecimal.ZERO;
+        BigDecimal debits = BigDecimal.ZERO;
+        for (int i = 0; i < ROWS; i++) {
+            boolean debit = i % 3 == 0;
+            BigDecimal amount = new BigDecimal("25.50");
+            balance = debit ? balance.subtract(amount) : balance.add(amount);
+            if (debit) debits = debits.add(amount);
+            else credits = credits.add(amount);
+            writer.row(new StatementWriter.Row(LocalDateTime.of(2025, 1, 1, 8, 0).plusHours(i * 7L),
+                    debit ? "DEBIT" : "CREDIT", amount, balance, "REF-" + i,
+                    "Payment " + i + " (salary) \\ batch", "MOBILE"));
+        }
+        writer.end(new StatementWriter.Totals(ROWS, credits, debits, balance));
+        // Latin-1 keeps one char per byte, so string indexes are byte offsets
+        pdf = out.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    @DisplayName("every xref entry points at the start of its object")
+    void xrefOffsets() {
+        int xref = startxref();
+        assertThat(pdf.substring(xref)).startsWith("xref\n0 ");
+
+        List<Long> offsets = xrefEntries(xref);
+        assertThat(offsets).isNotEmpty();
+        for (int object = 1; object < offsets.size(); object++) {
+            int offset = Math.toIntExact(offsets.get(object));
+            assertThat(pdf.substring(offset)).as("object %d", object).startsWith(object + " 0 obj\n");
+        }
+    }
+
+    @Test
+    @DisplayName("the trailer names the catalog, sizes the xref table and closes the file")
+    void trailer() {
+        int xref = startxref();
+        int size = xrefEntries(xref).size();
+
+        assertThat(pdf).startsWith("%PDF-1.4\n");
+        assertThat(pdf).endsWith("%%EOF\n");
+        assertThat(pdf.substring(xref)).contains("trailer\n<< /Size " + size + " /Root 1 0 R >>\n");
+        assertThat(pdf.substring(objectOffset(1))).startsWith("1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>");
+    }
+
+    @Test
+    @DisplayName("a multi-page statement lists every page and prints the page total once")
+    void pages() throws DataFormatException {
+        String pagesObject = pdf.substring(objectOffset(2), pdf.indexOf("endobj", objectOffset(2)));
+        assertThat(pagesObject).contains("/Count " + PAGES + " ");
+
+        Matcher kids = Pattern.compile("(\\d+) 0 R").matcher(pagesObject.substring(pagesObject.indexOf("/Kids")));
+        int pages = 0;
+        while (kids.find()) {
+            assertThat(pdf.substring(objectOffset(Integer.parseInt(kids.group(1))))).contains("/Type /Page /Parent 2 0 R");
+            pages++;
+        }
+        assertThat(pages).isEqualTo(PAGES);
+
+        String total = inflatedOrRaw(5);
+        assertThat(total).contains("(" + PAGES + ") Tj");
+    }
+
+    @Test
+    @DisplayName("stream lengths match their data and page content decompresses")
+    void streams() throws DataFormatException {
+        Matcher m = STREAM.matcher(pdf);
+        StringBuilder content = new StringBuilder();
+        int streams = 0;
+        while (m.find()) {
+            int length = Integer.parseInt(m.group(3));
+            assertThat(pdf.substring(m.end() + length)).as("object %s", m.group(1)).startsWith("\nendstream\nendobj\n");
+            if (m.group(2).contains("/FlateDecode")) {
+                content.append(inflate(pdf.substring(m.end(), m.end() + length)));
+            }
+            streams++;
+        }
+        // One content stream per page, plus the page-total form
+        assertThat(streams).isEqualTo(PAGES + 1);
+
+        String text = content.toString();
+        assertThat(text).contains("(Account Statement) Tj")
+                .contains("(Account: 0100012345  Jane \\(Savings\\)) Tj")
+                .contains("(Page 1 of ) Tj")
+                .contains("(Page " + PAGES + " of ) Tj")
+                .contains("/Total Do")
+                .contains("(REF-0) Tj")
+                .contains("(REF-" + (ROWS - 1) + ") Tj")
+                .contains("(Closing balance) Tj");
+        assertThat(text).contains("(Payment 7 \\(salary\\) \\\\ batch) Tj");
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────
+
+    private int startxref() {
+        Matcher m = STARTXREF.matcher(pdf);
+        assertThat(m.find()).as("startxref at end of file").isTrue();
+        return Integer.parseInt(m.group(1));
+    }
+
+    // Offsets by object number; entry 0 is the free-list head
+    private List<Long> xrefEntries(int xref) {
+        String[] lines = pdf.substring(xref).split("\n");
+        assertThat(lines[0]).isEqualTo("xref");
+        String[] subsection = lines[1].split(" ");
+        assertThat(subsection[0]).isEqualTo("0");
+        int count = Integer.parseInt(subsection[1]);
+        assertThat(lines[2]).isEqualTo("0000000000 65535 f ");
+
+        List<Long> offsets = new ArrayList<>(count);
+        offsets.add(0L);
+        for (int i = 1; i < count; i++) {
+            String entry = lines[2 + i];
+            // Fixed 20-byte entries: 10-digit offset, generation, in-use flag
+            assertThat(entry).hasSize(19).endsWith(" 00000 n ");
+            offsets.add(Long.parseLong(entry.substring(0, 10)));
+        }
+        assertThat(lines[2 + count]).isEqualTo("trailer");
+        return offsets;
+    }
+
+    private int objectOffset(int object) {
+        return Math.toIntExact(xrefEntries(startxref()).get(object));
+    }
+
+    private String inflatedOrRaw(int object) throws DataFormatException {
+        Matcher m = STREAM.matcher(pdf);
+        assertThat(m.find(objectOffset(object))).isTrue();
+        String data = pdf.substring(m.end(), m.end() + Integer.parseInt(m.group(3)));
+        return m.group(2).contains("/FlateDecode") ? inflate(data) : data;
+    }
+
+    private static String inflate(String data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        inflater.setInput(data.getBytes(StandardCharsets.ISO_8859_1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        while (!inflater.finished()) {
+            int n = inflater.inflate(buffer);
+            if (n == 0 && inflater.needsInput()) break;
+            out.write(buffer, 0, n);
+        }
+        inflater.end();
+        return out.toString(StandardCharsets.ISO_8859_1);
+    }
+}
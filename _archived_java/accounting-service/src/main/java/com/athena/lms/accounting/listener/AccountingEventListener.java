@@ -46,6 +46,7 @@ public class AccountingEventListener {
                 case "overdraft.repaid"          -> handleOverdraftRepaid(payload, tenantId);
                 case "overdraft.interest.charged" -> handleOverdraftInterestCharged(payload, tenantId);
                 case "overdraft.fee.charged"     -> handleOverdraftFeeCharged(payload, tenantId);
+                case "account.interest.capitalized" -> handleSavingsInterestCapitalized(payload, tenantId);
                 default -> log.debug("No accounting handler for event: {}", eventType);
             }
         } catch (Exception e) {
@@ -133,6 +134,18 @@ public class AccountingEventListener {
         accountingService.postOverdraftFeeCharged(tenantId, sourceId, amount);
     }
 
+    // ─── Savings interest ────────────────────────────────────────────────────────
+
+    private void handleSavingsInterestCapitalized(Map<String, Object> payload, String tenantId) {
+        String periodEnd = getStr(payload, "periodEnd");
+        String sourceId = "SAV-INT-" + tenantId + "-" + periodEnd;
+        if (accountingService.entryExists("account.interest.capitalized", sourceId)) return;
+        BigDecimal gross = getBigDecimal(payload, "grossAmount");
+        BigDecimal tax = getBigDecimal(payload, "taxAmount");
+        // DR 5000 Interest Expense / CR 2000 Customer Deposits, CR 2200 Withholding Tax Payable
+        accountingService.postSavingsInterest(tenantId, sourceId, periodEnd, gross, tax);
+    }
+
     // ─── helpers ─────────────────────────────────────────────────────────────────
 
     @SuppressWarnings("unchecked")
@@ -378,6 +378,53 @@ public class AccountingService {
         log.info("Posted overdraft fee journal [{}] amount [{}]", sourceId, amount);
     }
 
+    // ─── Savings interest GL Posting ──────────────────────────────────────────────
+
+    @Transactional
+    public void postSavingsInterest(String tenantId, String sourceId, String periodEnd,
+                                    BigDecimal gross, BigDecimal tax) {
+        if (gross.compareTo(BigDecimal.ZERO) <= 0) return;
+        // DR 5000 Interest Expense — gross
+        // CR 2000 Customer Deposits — net, CR 2200 Withholding Tax Payable — tax withheld
+        UUID expenseAccount = resolveAccountId(tenantId, "5000");
+        UUID depositsAccount = resolveAccountId(tenantId, "2000");
+        BigDecimal net = gross.subtract(tax);
+
+        JournalEntry entry = JournalEntry.builder()
+            .tenantId(tenantId)
+            .reference(sourceId)
+            .description("Savings interest capitalized to " + periodEnd)
+            .entryDate(LocalDate.now())
+            .status(EntryStatus.POSTED)
+            .sourceEvent("account.interest.capitalized")
+            .sourceId(sourceId)
+            .totalDebit(gross)
+            .totalCredit(gross)
+            .postedBy("system")
+            .build();
+
+        entry.getLines().add(JournalLine.builder()
+            .entry(entry).tenantId(tenantId).accountId(expenseAccount)
+            .lineNo(1).debitAmount(gross).creditAmount(BigDecimal.ZERO).currency("KES")
+            .build());
+        entry.getLines().add(JournalLine.builder()
+            .entry(entry).tenantId(tenantId).accountId(depositsAccount)
+            .lineNo(2).debitAmount(BigDecimal.ZERO).creditAmount(net).currency("KES")
+            .build());
+        if (tax.compareTo(BigDecimal.ZERO) > 0) {
+            UUID taxAccount = resolveAccountId(tenantId, "2200");
+            entry.getLines().add(JournalLine.builder()
+                .entry(entry).tenantId(tenantId).accountId(taxAccount)
+                .lineNo(3).debitAmount(BigDecimal.ZERO).creditAmount(tax).currency("KES")
+                .build());
+        }
+
+        entryRepo.save(entry);
+        updateAccountBalances(entry);
+        eventPublisher.publishJournalPosted(entry);
+        log.info("Posted savings interest journal [{}] gross [{}] tax [{}]", sourceId, gross, tax);
+    }
+
     // ─── Private helpers ──────────────────────────────────────────────────────────
 
     private BigDecimal getBigDecimal(Map<String, Object> m, String key) {
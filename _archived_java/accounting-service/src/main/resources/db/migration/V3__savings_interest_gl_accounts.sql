@@ -0,0 +1,4 @@
+-- Savings interest capitalized by account-service (account.interest.capitalized)
+INSERT INTO chart_of_accounts (tenant_id, code, name, account_type, balance_type, description) VALUES
+    ('system', '2200', 'Withholding Tax Payable', 'LIABILITY', 'CREDIT', 'Tax withheld from savings interest, due to the revenue authority')
+ON CONFLICT (tenant_id, code) DO NOTHING;
@@ -0,0 +1,99 @@
+package com.athena.lms.accounting.service;
+
+import com.athena.lms.accounting.entity.ChartOfAccount;
+import com.athena.lms.accounting.entity.JournalEntry;
+import com.athena.lms.accounting.entity.JournalLine;
+import com.athena.lms.accounting.event.AccountingEventPublisher;
+import com.athena.lms.accounting.repository.AccountBalanceRepository;
+import com.athena.lms.accounting.repository.ChartOfAccountRepository;
+import com.athena.lms.accounting.repository.JournalEntryRepository;
+import com.athena.lms.accounting.repository.JournalLineRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountingServiceTest {
+
+    private static final UUID INTEREST_EXPENSE = new UUID(0, 5000);
+    private static final UUID DEPOSITS = new UUID(0, 2000);
+    private static final UUID WITHHOLDING_TAX = new UUID(0, 2200);
+
+    private final ChartOfAccountRepository coaRepo = mock(ChartOfAccountRepository.class);
+    private final JournalEntryRepository entryRepo = mock(JournalEntryRepository.class);
+    private final AccountBalanceRepository balanceRepo = mock(AccountBalanceRepository.class);
+    private final AccountingEventPublisher eventPublisher = mock(AccountingEventPublisher.class);
+    private final AccountingService service = new AccountingService(coaRepo, entryRepo,
+            mock(JournalLineRepository.class), balanceRepo, eventPublisher);
+
+    AccountingServiceTest() {
+        gl("5000", INTEREST_EXPENSE);
+        gl("2000", DEPOSITS);
+        gl("2200", WITHHOLDING_TAX);
+        when(balanceRepo.findByTenantIdAndAccountIdAndPeriodYearAndPeriodMonth(anyString(), any(), any(Integer.class), any(Integer.class)))
+                .thenReturn(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("capitalized savings interest debits the gross to expense and credits deposits net and tax withheld")
+    void savingsInterestWithTax() {
+        service.postSavingsInterest("t1", "SAV-INT-t1-2025-03-31", "2025-03-31",
+                new BigDecimal("1000.00"), new BigDecimal("150.00"));
+
+        JournalEntry entry = saved();
+        assertThat(entry.getSourceEvent()).isEqualTo("account.interest.capitalized");
+        assertThat(entry.getSourceId()).isEqualTo("SAV-INT-t1-2025-03-31");
+        assertThat(entry.getTotalDebit()).isEqualByComparingTo("1000.00");
+        assertThat(entry.getTotalCredit()).isEqualByComparingTo("1000.00");
+        assertThat(entry.getLines()).extracting(JournalLine::getAccountId)
+                .containsExactly(INTEREST_EXPENSE, DEPOSITS, WITHHOLDING_TAX);
+        assertThat(entry.getLines().get(0).getDebitAmount()).isEqualByComparingTo("1000.00");
+        assertThat(entry.getLines().get(1).getCreditAmount()).isEqualByComparingTo("850.00");
+        assertThat(entry.getLines().get(2).getCreditAmount()).isEqualByComparingTo("150.00");
+        verify(eventPublisher).publishJournalPosted(entry);
+    }
+
+    @Test
+    @DisplayName("without tax withheld the whole gross goes to deposits and no tax line is written")
+    void savingsInterestWithoutTax() {
+        service.postSavingsInterest("t1", "SAV-INT-t1-2025-03-31", "2025-03-31",
+                new BigDecimal("40.00"), BigDecimal.ZERO);
+
+        JournalEntry entry = saved();
+        assertThat(entry.getLines()).extracting(JournalLine::getAccountId).containsExactly(INTEREST_EXPENSE, DEPOSITS);
+        assertThat(entry.getLines().get(1).getCreditAmount()).isEqualByComparingTo("40.00");
+        verify(coaRepo, never()).findByCodeAndTenantIdIn(eq("2200"), any());
+    }
+
+    @Test
+    @DisplayName("a period with no interest posts nothing")
+    void noInterest() {
+        service.postSavingsInterest("t1", "SAV-INT-t1-2025-03-31", "2025-03-31", BigDecimal.ZERO, BigDecimal.ZERO);
+
+        verify(entryRepo, never()).save(any());
+    }
+
+    private void gl(String code, UUID id) {
+        ChartOfAccount account = ChartOfAccount.builder().id(id).code(code).tenantId("system").build();
+        when(coaRepo.findByCodeAndTenantIdIn(code, List.of("t1", "system"))).thenReturn(Optional.of(account));
+    }
+
+    private JournalEntry saved() {
+        ArgumentCaptor<JournalEntry> entry = ArgumentCaptor.forClass(JournalEntry.class);
+        verify(entryRepo).save(entry.capture());
+        return entry.getValue();
+    }
+}
@@ -1,5 +1,6 @@
 package com.athena.lms.scoring.controller;
 
+import com.athena.lms.common.dto.BatchLookupRequest;
 import com.athena.lms.common.dto.PageResponse;
 import com.athena.lms.common.auth.TenantContextHolder;
 import com.athena.lms.scoring.dto.request.ManualScoringRequest;
@@ -14,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -75,6 +77,14 @@ public class AiScoringController {
         return ResponseEntity.ok(scoringService.getLatestResultByCustomer(customerId, tenantId));
     }
 
+    @PostMapping("/customers/latest:batch")
+    public ResponseEntity<List<ScoringResultResponse>> getLatestResultsByCustomers(
+            @Valid @RequestBody BatchLookupRequest<Long> request,
+            HttpServletRequest httpRequest) {
+        String tenantId = resolveTenantId(httpRequest);
+        return ResponseEntity.ok(scoringService.getLatestResultsByCustomers(request.getIds(), tenantId));
+    }
+
     private String resolveTenantId(HttpServletRequest request) {
         String tenantId = TenantContextHolder.getTenantId();
         if (tenantId != null && !tenantId.isBlank()) {
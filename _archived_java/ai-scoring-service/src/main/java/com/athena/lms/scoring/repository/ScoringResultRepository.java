@@ -2,8 +2,12 @@ package com.athena.lms.scoring.repository;
 
 import com.athena.lms.scoring.entity.ScoringResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +19,13 @@ public interface ScoringResultRepository extends JpaRepository<ScoringResult, UU
     Optional<ScoringResult> findByRequestId(UUID requestId);
 
     Optional<ScoringResult> findTopByCustomerIdOrderByCreatedAtDesc(Long customerId);
+
+    /** Latest result per customer in one pass — the multi-get counterpart of the query above. */
+    @Query(value = """
+        SELECT DISTINCT ON (customer_id) *
+        FROM scoring_results
+        WHERE customer_id IN (:customerIds)
+        ORDER BY customer_id, created_at DESC
+        """, nativeQuery = true)
+    List<ScoringResult> findLatestByCustomerIds(@Param("customerIds") Collection<Long> customerIds);
 }
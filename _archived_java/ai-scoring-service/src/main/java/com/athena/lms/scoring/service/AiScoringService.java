@@ -135,6 +135,12 @@ public class AiScoringService {
         return toResultResponse(result);
     }
 
+    @Transactional(readOnly = true)
+    public List<ScoringResultResponse> getLatestResultsByCustomers(List<Long> customerIds, String tenantId) {
+        return resultRepository.findLatestByCustomerIds(customerIds)
+                .stream().map(this::toResultResponse).toList();
+    }
+
     @Transactional(readOnly = true)
     public PageResponse<ScoringRequestResponse> listRequests(String tenantId, Pageable pageable) {
         Page<ScoringRequest> page = requestRepository.findByTenantId(tenantId, pageable);
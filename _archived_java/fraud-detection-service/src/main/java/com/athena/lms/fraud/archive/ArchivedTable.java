@@ -0,0 +1,140 @@
+package com.athena.lms.fraud.archive;
+
+import com.athena.lms.fraud.config.FraudRetentionConfig;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The monthly-partitioned history tables and the columns their archive segments hold, in
+ * segment order. Archived rows are Object[] in that order: UUID, String (jsonb as its text),
+ * BigDecimal, Double, Boolean or OffsetDateTime (UTC), or null.
+ */
+public enum ArchivedTable {
+
+    FRAUD_EVENTS("fraud_events", "processed_at", List.of(
+            new Column("id", ColumnType.UUID),
+            new Column("tenant_id", ColumnType.TEXT),
+            new Column("event_type", ColumnType.TEXT),
+            new Column("source_service", ColumnType.TEXT),
+            new Column("customer_id", ColumnType.TEXT),
+            new Column("subject_id", ColumnType.TEXT),
+            new Column("amount", ColumnType.DECIMAL),
+            new Column("risk_score", ColumnType.DECIMAL),
+            new Column("rules_triggered", ColumnType.TEXT),
+            new Column("payload", ColumnType.JSON),
+            new Column("processed_at", ColumnType.TIMESTAMP))),
+
+    SCORING_HISTORY("scoring_history", "created_at", List.of(
+            new Column("id", ColumnType.UUID),
+            new Column("tenant_id", ColumnType.TEXT),
+            new Column("customer_id", ColumnType.TEXT),
+            new Column("event_type", ColumnType.TEXT),
+            new Column("amount", ColumnType.DECIMAL),
+            new Column("ml_score", ColumnType.DOUBLE),
+            new Column("risk_level", ColumnType.TEXT),
+            new Column("model_available", ColumnType.BOOLEAN),
+            new Column("latency_ms", ColumnType.DOUBLE),
+            new Column("rule_score", ColumnType.DOUBLE),
+            new Column("anomaly_score", ColumnType.DOUBLE),
+            new Column("lgbm_score", ColumnType.DOUBLE),
+            new Column("model_details", ColumnType.TEXT),
+            new Column("created_at", ColumnType.TIMESTAMP))),
+
+    AUDIT_LOG("fraud_audit_log", "created_at", List.of(
+            new Column("id", ColumnType.UUID),
+            new Column("tenant_id", ColumnType.TEXT),
+            new Column("action", ColumnType.TEXT),
+            new Column("entity_type", ColumnType.TEXT),
+            new Column("entity_id", ColumnType.UUID),
+            new Column("performed_by", ColumnType.TEXT),
+            new Column("description", ColumnType.TEXT),
+            new Column("changes", ColumnType.JSON),
+            new Column("created_at", ColumnType.TIMESTAMP)));
+
+    public enum ColumnType { UUID, TEXT, JSON, DECIMAL, DOUBLE, BOOLEAN, TIMESTAMP }
+
+    public record Column(String name, ColumnType type) {}
+
+    private final String tableName;
+    private final String timeColumn;
+    private final List<Column> columns;
+
+    ArchivedTable(String tableName, String timeColumn, List<Column> columns) {
+        this.tableName = tableName;
+        this.timeColumn = timeColumn;
+        this.columns = columns;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public String timeColumn() {
+        return timeColumn;
+    }
+
+    public List<Column> columns() {
+        return columns;
+    }
+
+    public int indexOf(String column) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(column)) return i;
+        }
+        throw new IllegalArgumentException(tableName + " has no archived column " + column);
+    }
+
+    public int timeIndex() {
+        return indexOf(timeColumn);
+    }
+
+    public int hotMonths(FraudRetentionConfig config) {
+        return switch (this) {
+            case FRAUD_EVENTS -> config.getEventsHotMonths();
+            case SCORING_HISTORY -> config.getScoringHotMonths();
+            case AUDIT_LOG -> config.getAuditHotMonths();
+        };
+    }
+
+    /** Reads every row of one partition, oldest first; the partition name must already be validated. */
+    String exportSql(String partition) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sql.append(", ");
+            Column column = columns.get(i);
+            sql.append(column.name());
+            if (column.type() == ColumnType.JSON) sql.append("::text");
+        }
+        return sql.append(" FROM ").append(partition).append(" ORDER BY ").append(timeColumn).toString();
+    }
+
+    Object[] readRow(ResultSet rs) throws SQLException {
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            int col = i + 1;
+            row[i] = switch (columns.get(i).type()) {
+                case UUID -> rs.getObject(col, UUID.class);
+                case TEXT, JSON -> rs.getString(col);
+                case DECIMAL -> rs.getBigDecimal(col);
+                case DOUBLE -> {
+                    double value = rs.getDouble(col);
+                    yield rs.wasNull() ? null : value;
+                }
+                case BOOLEAN -> {
+                    boolean value = rs.getBoolean(col);
+                    yield rs.wasNull() ? null : value;
+                }
+                case TIMESTAMP -> {
+                    OffsetDateTime value = rs.getObject(col, OffsetDateTime.class);
+                    yield value != null ? value.withOffsetSameInstant(ZoneOffset.UTC) : null;
+                }
+            };
+        }
+        return row;
+    }
+}
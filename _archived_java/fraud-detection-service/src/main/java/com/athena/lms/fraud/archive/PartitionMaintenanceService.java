@@ -0,0 +1,185 @@
+package com.athena.lms.fraud.archive;
+
+import com.athena.lms.fraud.config.FraudRetentionConfig;
+import com.athena.lms.fraud.entity.ArchiveSegment;
+import com.athena.lms.fraud.repository.ArchiveSegmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly history partitions (V11) in shape: creates months ahead of time and moves
+ * months that have left their table's hot window into archive segments. A month is exported,
+ * recorded in fraud_archive_segments and dropped in one transaction, so it is either still in
+ * Postgres or archived, never lost in between; a failed run leaves it to the next. Every step
+ * holds a transaction-scoped advisory lock, so replicas running the job at the same time take
+ * turns and skip the months already handled.
+ */
+@Service
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private static final long MAINTENANCE_LOCK = 0x46524150_41525443L; // "FRAPARTC"
+    private static final Pattern PARTITION_NAME = Pattern.compile("[a-z_]+_p\\d{4}_\\d{2}");
+
+    private final ArchiveSegmentRepository segmentRepository;
+    private final FraudRetentionConfig config;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+
+    record Partition(String name, OffsetDateTime rangeFrom, OffsetDateTime rangeTo) {}
+
+    public PartitionMaintenanceService(ArchiveSegmentRepository segmentRepository, FraudRetentionConfig config,
+                                       DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.segmentRepository = segmentRepository;
+        this.config = config;
+        this.jdbc = new JdbcTemplate(dataSource);
+        // The export streams a month through a cursor instead of materialising it
+        this.jdbc.setFetchSize(5000);
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        try {
+            ensurePartitions();
+        } catch (RuntimeException e) {
+            log.error("Could not create upcoming history partitions: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${fraud.retention.cron:0 15 2 * * *}")
+    public void scheduledMaintenance() {
+        if (!config.isEnabled()) return;
+        try {
+            runMaintenance();
+        } catch (RuntimeException e) {
+            log.error("History partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public Map<String, Object> runMaintenance() {
+        long started = System.currentTimeMillis();
+        int created = ensurePartitions();
+
+        int archived = 0;
+        long rows = 0;
+        for (ArchivedTable table : ArchivedTable.values()) {
+            OffsetDateTime cutoff = hotWindowStart(table);
+            for (Partition partition : listPartitions(table)) {
+                if (partition.rangeTo().isAfter(cutoff)) break;
+                ArchiveSegment segment = archivePartition(table, partition);
+                if (segment != null) {
+                    archived++;
+                    rows += segment.getRowCount();
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("partitionsCreated", created);
+        result.put("partitionsArchived", archived);
+        result.put("rowsArchived", rows);
+        result.put("elapsedMs", System.currentTimeMillis() - started);
+        log.info("History partition maintenance: {}", result);
+        return result;
+    }
+
+    public int ensurePartitions() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate through = today.plusMonths(config.getMonthsAhead());
+        Integer created = transaction.execute(status -> {
+            if (!tryLock()) return 0;
+            int total = 0;
+            for (ArchivedTable table : ArchivedTable.values()) {
+                Integer n = jdbc.queryForObject("SELECT fraud_ensure_partitions(?, ?, ?, ?)", Integer.class,
+                        table.tableName(), table.timeColumn(), today, through);
+                total += n != null ? n : 0;
+            }
+            return total;
+        });
+        return created != null ? created : 0;
+    }
+
+    /** The start of the oldest month a table keeps in Postgres; months ending by then are archived. */
+    OffsetDateTime hotWindowStart(ArchivedTable table) {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).minusMonths(table.hotMonths(config));
+        return month.atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    List<Partition> listPartitions(ArchivedTable table) {
+        return jdbc.query("SELECT partition_name, range_from, range_to FROM fraud_list_partitions(?)",
+                (rs, i) -> new Partition(rs.getString(1),
+                        rs.getObject(2, OffsetDateTime.class), rs.getObject(3, OffsetDateTime.class)),
+                table.tableName());
+    }
+
+    /** Exports one month to its segment, records it and drops the partition; null if another replica has it. */
+    private ArchiveSegment archivePartition(ArchivedTable table, Partition partition) {
+        if (!PARTITION_NAME.matcher(partition.name()).matches()) {
+            throw new IllegalStateException("Unexpected partition name: " + partition.name());
+        }
+        Path file = Path.of(config.getArchiveDir(), table.tableName(), partition.name() + ".seg");
+
+        return transaction.execute(status -> {
+            if (!tryLock()) return null;
+            Boolean exists = jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition.name());
+            if (!Boolean.TRUE.equals(exists)) return null;
+
+            long started = System.currentTimeMillis();
+            long rows;
+            long bytes;
+            try (SegmentWriter writer = new SegmentWriter(file, table, config.getRowGroupSize())) {
+                jdbc.query(table.exportSql(partition.name()), rs -> {
+                    try {
+                        writer.append(table.readRow(rs));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                rows = writer.getRowCount();
+                bytes = writer.commit();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write archive segment " + file, e);
+            }
+
+            ArchiveSegment segment = segmentRepository.findByPartitionName(partition.name())
+                    .orElseGet(ArchiveSegment::new);
+            segment.setTableName(table.tableName());
+            segment.setPartitionName(partition.name());
+            segment.setRangeFrom(partition.rangeFrom());
+            segment.setRangeTo(partition.rangeTo());
+            segment.setRowCount(rows);
+            segment.setFilePath(file.toString());
+            segment.setFileBytes(bytes);
+            segment.setArchivedAt(OffsetDateTime.now());
+            segmentRepository.saveAndFlush(segment);
+
+            jdbc.execute("DROP TABLE " + partition.name());
+            log.info("Archived {} ({} rows, {} bytes) to {} in {} ms",
+                    partition.name(), rows, bytes, file, System.currentTimeMillis() - started);
+            return segment;
+        });
+    }
+
+    private boolean tryLock() {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK));
+    }
+}
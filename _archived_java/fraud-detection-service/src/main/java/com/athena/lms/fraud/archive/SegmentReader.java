@@ -0,0 +1,148 @@
+package com.athena.lms.fraud.archive;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Scans an archive segment written by {@link SegmentWriter}. Columns are matched to the
+ * table's current definition by name, so a column added to the table after the segment was
+ * written reads as null and a dropped one is ignored. Row groups entirely outside the
+ * requested time range are skipped without being inflated.
+ */
+public final class SegmentReader {
+
+    private SegmentReader() {}
+
+    /**
+     * Passes every row with from <= time < to that also satisfies the filter to the sink,
+     * in segment order (oldest first).
+     */
+    public static void scan(Path file, ArchivedTable table, OffsetDateTime from, OffsetDateTime to,
+                            Predicate<Object[]> filter, Consumer<Object[]> sink) throws IOException {
+        long fromMicros = SegmentWriter.micros(from);
+        long toMicros = SegmentWriter.micros(to);
+        int timeIndex = table.timeIndex();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SegmentWriter.MAGIC) throw new IOException(file + " is not an archive segment");
+            int version = in.readInt();
+            if (version != SegmentWriter.FORMAT_VERSION) {
+                throw new IOException(file + " has unsupported segment format " + version);
+            }
+            String tableName = in.readUTF();
+            if (!tableName.equals(table.tableName())) {
+                throw new IOException(file + " archives " + tableName + ", not " + table.tableName());
+            }
+
+            // Segment column -> position in today's row, or -1 when the table no longer has it
+            int columnCount = in.readInt();
+            ArchivedTable.ColumnType[] types = new ArchivedTable.ColumnType[columnCount];
+            int[] target = new int[columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                String name = in.readUTF();
+                types[c] = ArchivedTable.ColumnType.valueOf(in.readUTF());
+                target[c] = -1;
+                for (int i = 0; i < table.columns().size(); i++) {
+                    ArchivedTable.Column column = table.columns().get(i);
+                    if (column.name().equals(name) && column.type() == types[c]) target[c] = i;
+                }
+            }
+
+            while (true) {
+                int rowCount;
+                try {
+                    rowCount = in.readInt();
+                } catch (EOFException e) {
+                    throw new IOException(file + " is truncated");
+                }
+                if (rowCount == 0) return;
+
+                long minTime = in.readLong();
+                long maxTime = in.readLong();
+                int length = in.readInt();
+                if (maxTime < fromMicros || minTime >= toMicros) {
+                    in.skipNBytes(length);
+                    continue;
+                }
+
+                Object[][] rows = new Object[rowCount][table.columns().size()];
+                try (DataInputStream columns = new DataInputStream(
+                        new InflaterInputStream(new BoundedInputStream(in, length)))) {
+                    for (int c = 0; c < columnCount; c++) {
+                        for (int r = 0; r < rowCount; r++) {
+                            Object value = readValue(columns, types[c]);
+                            if (target[c] >= 0) rows[r][target[c]] = value;
+                        }
+                    }
+                }
+
+                for (Object[] row : rows) {
+                    long time = SegmentWriter.micros((OffsetDateTime) row[timeIndex]);
+                    if (time >= fromMicros && time < toMicros && filter.test(row)) sink.accept(row);
+                }
+            }
+        }
+    }
+
+    private static Object readValue(DataInputStream in, ArchivedTable.ColumnType type) throws IOException {
+        if (!in.readBoolean()) return null;
+        return switch (type) {
+            case UUID -> new UUID(in.readLong(), in.readLong());
+            case TEXT, JSON -> readString(in);
+            case DECIMAL -> new BigDecimal(readString(in));
+            case DOUBLE -> in.readDouble();
+            case BOOLEAN -> in.readBoolean();
+            case TIMESTAMP -> Instant.EPOCH.plus(in.readLong(), ChronoUnit.MICROS).atOffset(ZoneOffset.UTC);
+        };
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /** Exposes the next length bytes of a stream and leaves it positioned after them when closed. */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) return -1;
+            int b = in.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            if (remaining == 0) return -1;
+            int n = in.read(buf, off, (int) Math.min(len, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.skipNBytes(remaining);
+            remaining = 0;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.athena.lms.fraud.archive;
+
+import com.athena.lms.fraud.archive.ArchivedTable.Column;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes one archive segment: the rows of a history partition, stored column by column in
+ * deflate-compressed row groups.
+ *
+ * <pre>
+ * segment   := MAGIC version:int table:utf columnCount:int (name:utf type:utf)* group* end
+ * group     := rowCount:int minTime:long maxTime:long length:int deflated[length]
+ * end       := 0:int
+ * deflated  := for each column, its rowCount values (presence:byte value)
+ * </pre>
+ *
+ * Times are epoch microseconds (UTC). A group's min/max time lets readers skip it without
+ * inflating it; the end marker tells a complete segment from a truncated one. Rows go to a
+ * temporary file that {@link #commit()} syncs and moves into place, so a segment either
+ * exists whole or not at all.
+ */
+public final class SegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x46415347; // "FASG"
+    static final int FORMAT_VERSION = 1;
+
+    private final ArchivedTable table;
+    private final int rowGroupSize;
+    private final int timeIndex;
+    private final Path target;
+    private final Path temp;
+    private final FileOutputStream file;
+    private final DataOutputStream out;
+    private final List<Object[]> group = new ArrayList<>();
+    private long rowCount;
+    private boolean committed;
+
+    public SegmentWriter(Path target, ArchivedTable table, int rowGroupSize) throws IOException {
+        this.table = table;
+        this.rowGroupSize = rowGroupSize;
+        this.timeIndex = table.timeIndex();
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.createDirectories(target.getParent());
+        this.file = new FileOutputStream(temp.toFile());
+        this.out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(table.tableName());
+        out.writeInt(table.columns().size());
+        for (Column column : table.columns()) {
+            out.writeUTF(column.name());
+            out.writeUTF(column.type().name());
+        }
+    }
+
+    public void append(Object[] row) throws IOException {
+        group.add(row);
+        rowCount++;
+        if (group.size() >= rowGroupSize) flushGroup();
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /** Finishes the segment and atomically moves it to its target path; returns its size in bytes. */
+    public long commit() throws IOException {
+        flushGroup();
+        out.writeInt(0);
+        out.flush();
+        file.getFD().sync();
+        out.close();
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        return Files.size(target);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (committed) return;
+        out.close();
+        Files.deleteIfExists(temp);
+    }
+
+    private void flushGroup() throws IOException {
+        if (group.isEmpty()) return;
+
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        for (Object[] row : group) {
+            long time = micros((OffsetDateTime) row[timeIndex]);
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(group.size() * 64);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream columns = new DataOutputStream(new DeflaterOutputStream(bytes, deflater, 1 << 16))) {
+            for (int c = 0; c < table.columns().size(); c++) {
+                ArchivedTable.ColumnType type = table.columns().get(c).type();
+                for (Object[] row : group) {
+                    writeValue(columns, type, row[c]);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+
+        out.writeInt(group.size());
+        out.writeLong(minTime);
+        out.writeLong(maxTime);
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+        group.clear();
+    }
+
+    private static void writeValue(DataOutputStream out, ArchivedTable.ColumnType type, Object value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value == null) return;
+        switch (type) {
+            case UUID -> {
+                UUID uuid = (UUID) value;
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            case TEXT, JSON -> writeString(out, (String) value);
+            case DECIMAL -> writeString(out, ((BigDecimal) value).toPlainString());
+            case DOUBLE -> out.writeDouble((Double) value);
+            case BOOLEAN -> out.writeBoolean((Boolean) value);
+            case TIMESTAMP -> out.writeLong(micros((OffsetDateTime) value));
+        }
+    }
+
+    // writeUTF is limited to 64KB, which a jsonb payload can exceed
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    static long micros(OffsetDateTime time) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, time.toInstant());
+    }
+}
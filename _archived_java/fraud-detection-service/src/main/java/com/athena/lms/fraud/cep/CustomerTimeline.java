@@ -0,0 +1,134 @@
+package com.athena.lms.fraud.cep;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * One customer's recent events in a fixed-size ring, oldest overwritten first, plus for each
+ * pattern the sequences it has open. An open sequence points at the ring slot of the event
+ * that opened it and carries the running total of what has followed, so an arriving event
+ * costs O(patterns × max open sequences) however long the window is. A sequence closes when
+ * it matches, when its window passes, or when its opening event is overwritten in the ring.
+ *
+ * Not thread-safe: TimelineEngine only touches a timeline inside its map entry's compute.
+ */
+final class CustomerTimeline {
+
+    private final int capacity;
+    private final long[] at;
+    private final String[] types;
+    private final BigDecimal[] amounts;
+    // Events appended so far; event n lives in slot n % capacity while n > count - capacity
+    private long count;
+    private long lastEventAt;
+    private final OpenSequences[] open;
+
+    CustomerTimeline(int capacity, int patterns, int maxOpenSequences) {
+        this.capacity = capacity;
+        this.at = new long[capacity];
+        this.types = new String[capacity];
+        this.amounts = new BigDecimal[capacity];
+        this.open = new OpenSequences[patterns];
+        for (int i = 0; i < patterns; i++) open[i] = new OpenSequences(Math.min(maxOpenSequences, capacity));
+    }
+
+    /** Appends the event and adds any pattern it completes to matches. Timestamps must not go backwards. */
+    void append(long now, String eventType, BigDecimal amount, List<SequencePattern> patterns,
+                List<PatternMatch> matches) {
+        long seq = count++;
+        int slot = slot(seq);
+        at[slot] = now;
+        types[slot] = eventType;
+        amounts[slot] = amount;
+        lastEventAt = now;
+
+        for (SequencePattern pattern : patterns) {
+            OpenSequences sequences = open[pattern.index()];
+            sequences.expire(now - pattern.withinMillis(), seq - capacity);
+            if (pattern.continuesWith(eventType)) {
+                PatternMatch match = sequences.follow(pattern, amount, now);
+                if (match != null) matches.add(match);
+            }
+            if (pattern.opensWith(eventType, amount)) sequences.open(seq);
+        }
+    }
+
+    long lastEventAt() {
+        return lastEventAt;
+    }
+
+    int size() {
+        return (int) Math.min(count, capacity);
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % capacity);
+    }
+
+    /** Small ring of open sequences for one pattern, ordered by opening event. */
+    private final class OpenSequences {
+
+        private final long[] seqs;
+        private final BigDecimal[] followed;
+        private final int[] follows;
+        private int head;
+        private int size;
+
+        OpenSequences(int max) {
+            seqs = new long[max];
+            followed = new BigDecimal[max];
+            follows = new int[max];
+        }
+
+        void open(long seq) {
+            if (size == seqs.length) {
+                head = (head + 1) % seqs.length;
+                size--;
+            }
+            int i = (head + size) % seqs.length;
+            seqs[i] = seq;
+            followed[i] = BigDecimal.ZERO;
+            follows[i] = 0;
+            size++;
+        }
+
+        void expire(long cutoff, long overwritten) {
+            while (size > 0 && (seqs[head] <= overwritten || at[slot(seqs[head])] < cutoff)) {
+                followed[head] = null;
+                head = (head + 1) % seqs.length;
+                size--;
+            }
+        }
+
+        /**
+         * Adds the event to every open sequence and closes those it completes, returning the
+         * oldest of them.
+         */
+        PatternMatch follow(SequencePattern pattern, BigDecimal amount, long now) {
+            BigDecimal add = amount != null ? amount : BigDecimal.ZERO;
+            PatternMatch match = null;
+            int kept = 0;
+            for (int n = 0; n < size; n++) {
+                int i = (head + n) % seqs.length;
+                int first = slot(seqs[i]);
+                BigDecimal total = followed[i].add(add);
+                int events = follows[i] + 1;
+                if (pattern.satisfiedBy(amounts[first], total, events)) {
+                    if (match == null) {
+                        match = new PatternMatch(pattern.ruleCode(), pattern.alertType(), types[first],
+                                amounts[first], total, events, Duration.ofMillis(now - at[first]));
+                    }
+                    continue;
+                }
+                int k = (head + kept++) % seqs.length;
+                seqs[k] = seqs[i];
+                followed[k] = total;
+                follows[k] = events;
+            }
+            for (int n = kept; n < size; n++) followed[(head + n) % seqs.length] = null;
+            size = kept;
+            return match;
+        }
+    }
+}
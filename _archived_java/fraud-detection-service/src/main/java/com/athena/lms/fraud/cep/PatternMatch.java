@@ -0,0 +1,15 @@
+package com.athena.lms.fraud.cep;
+
+import com.athena.lms.fraud.enums.AlertType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * A completed sequence: the event that opened it and what followed up to the event that
+ * completed it. firstAmount is null for patterns that do not look at amounts.
+ */
+public record PatternMatch(String ruleCode, AlertType alertType,
+                           String firstEventType, BigDecimal firstAmount,
+                           BigDecimal followedAmount, int followEvents, Duration elapsed) {
+}
@@ -0,0 +1,41 @@
+package com.athena.lms.fraud.cep;
+
+import com.athena.lms.fraud.config.FraudCepConfig;
+import com.athena.lms.fraud.enums.AlertType;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * A compiled FraudCepConfig.Pattern. index is the pattern's slot in each CustomerTimeline.
+ */
+record SequencePattern(int index, String ruleCode, AlertType alertType,
+                       Set<String> first, BigDecimal firstMinAmount,
+                       Set<String> then, BigDecimal thenMinRatio, long withinMillis) {
+
+    static SequencePattern compile(int index, FraudCepConfig.Pattern p) {
+        if (p.getRuleCode() == null || p.getFirst().isEmpty() || p.getThen().isEmpty() || p.getWithin() == null) {
+            throw new IllegalArgumentException("CEP pattern needs rule-code, first, then and within: " + p);
+        }
+        AlertType alertType = p.getAlertType() != null ? p.getAlertType() : AlertType.valueOf(p.getRuleCode());
+        return new SequencePattern(index, p.getRuleCode(), alertType,
+                Set.copyOf(p.getFirst()), p.getFirstMinAmount(),
+                Set.copyOf(p.getThen()), p.getThenMinRatio(), p.getWithin().toMillis());
+    }
+
+    boolean opensWith(String eventType, BigDecimal amount) {
+        if (!first.contains(eventType)) return false;
+        if (firstMinAmount != null && (amount == null || amount.compareTo(firstMinAmount) < 0)) return false;
+        // A ratio needs a positive amount to be a ratio of
+        return thenMinRatio == null || (amount != null && amount.signum() > 0);
+    }
+
+    boolean continuesWith(String eventType) {
+        return then.contains(eventType);
+    }
+
+    boolean satisfiedBy(BigDecimal firstAmount, BigDecimal followedAmount, int followEvents) {
+        if (thenMinRatio == null) return followEvents > 0;
+        return followedAmount.compareTo(firstAmount.multiply(thenMinRatio)) >= 0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.athena.lms.fraud.cep;
+
+import com.athena.lms.fraud.config.FraudCepConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Complex-event-processing mode for the rule engine. Each customer gets a CustomerTimeline of
+ * their recent events, and every event is matched incrementally against the sequence patterns
+ * in fraud.cep.patterns (e.g. a credit followed by transfers moving 90% of it out within 15
+ * minutes). A rule whose code has a pattern is decided by the pattern instead of its velocity
+ * counters.
+ *
+ * Timelines live in memory on this instance and only see events it consumes; only events a
+ * pattern mentions are recorded, and a timeline with nothing newer than the longest pattern
+ * window is evicted.
+ */
+@Component
+@Slf4j
+public class TimelineEngine {
+
+    private final FraudCepConfig config;
+    private final boolean enabled;
+    private final int timelineCapacity;
+    private final int maxOpenSequences;
+    private final List<SequencePattern> patterns;
+    private final Map<String, SequencePattern> patternsByRule = new HashMap<>();
+    private final Set<String> eventTypes = new HashSet<>();
+    private final long horizonMillis;
+    private final Clock clock;
+
+    private final Map<TimelineKey, CustomerTimeline> timelines = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TimelineEngine(FraudCepConfig config) {
+        this(config, Clock.systemUTC());
+        if (enabled) {
+            log.info("CEP mode enabled: {} patterns {}", patterns.size(), patternsByRule.keySet());
+        }
+    }
+
+    TimelineEngine(FraudCepConfig config, Clock clock) {
+        this.config = config;
+        this.enabled = config.isEnabled();
+        this.timelineCapacity = config.getTimelineCapacity();
+        this.maxOpenSequences = config.getMaxOpenSequences();
+        this.clock = clock;
+
+        List<SequencePattern> compiled = new ArrayList<>();
+        for (FraudCepConfig.Pattern p : config.getPatterns()) {
+            SequencePattern pattern = SequencePattern.compile(compiled.size(), p);
+            compiled.add(pattern);
+            patternsByRule.put(pattern.ruleCode(), pattern);
+            eventTypes.addAll(pattern.first());
+            eventTypes.addAll(pattern.then());
+        }
+        this.patterns = List.copyOf(compiled);
+        this.horizonMillis = compiled.stream().mapToLong(SequencePattern::withinMillis).max().orElse(0);
+    }
+
+    /**
+     * A new, empty engine with the same patterns whose notion of now is the given clock, for
+     * replaying history without touching live timelines.
+     */
+    public TimelineEngine forReplay(Clock replayClock) {
+        return new TimelineEngine(config, replayClock);
+    }
+
+    /** True when the rule is decided by a sequence pattern rather than its own evaluator. */
+    public boolean handles(String ruleCode) {
+        return enabled && patternsByRule.containsKey(ruleCode);
+    }
+
+    /**
+     * Records the event on the customer's timeline and returns the patterns it completes,
+     * keyed by rule code. Call once per consumed event.
+     */
+    public Map<String, PatternMatch> observe(String tenantId, String customerId, String eventType, BigDecimal amount) {
+        if (!enabled || customerId == null || !eventTypes.contains(eventType)) return Map.of();
+
+        List<PatternMatch> matches = new ArrayList<>(1);
+        long now = clock.millis();
+        timelines.compute(new TimelineKey(tenantId, customerId), (key, timeline) -> {
+            if (timeline == null) timeline = new CustomerTimeline(timelineCapacity, patterns.size(), maxOpenSequences);
+            timeline.append(Math.max(now, timeline.lastEventAt()), eventType, amount, patterns, matches);
+            return timeline;
+        });
+        if (matches.isEmpty()) return Map.of();
+
+        Map<String, PatternMatch> byRule = new HashMap<>();
+        for (PatternMatch match : matches) byRule.put(match.ruleCode(), match);
+        return byRule;
+    }
+
+    public int size() {
+        return timelines.size();
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.cep.evict-interval-ms:300000}")
+    public void evictIdle() {
+        long cutoff = clock.millis() - horizonMillis;
+        int before = timelines.size();
+        for (TimelineKey key : timelines.keySet()) {
+            timelines.computeIfPresent(key, (k, timeline) -> timeline.lastEventAt() < cutoff ? null : timeline);
+        }
+        int evicted = before - timelines.size();
+        if (evicted > 0) log.debug("Evicted {} idle customer timelines, {} remaining", evicted, timelines.size());
+    }
+
+    private record TimelineKey(String tenantId, String customerId) {}
+}
@@ -0,0 +1,39 @@
+package com.athena.lms.fraud.config;
+
+import com.athena.lms.fraud.enums.AlertType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sequence patterns evaluated over per-customer event timelines. A pattern opens on a
+ * "first" event (optionally at least firstMinAmount) and matches when "then" events follow
+ * within the window; with thenMinRatio set they must add up to that fraction of the
+ * first event's amount, otherwise a single follow-up is enough.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "fraud.cep")
+@Data
+public class FraudCepConfig {
+
+    private boolean enabled = false;
+    private int timelineCapacity = 32;
+    private int maxOpenSequences = 8;
+    private List<Pattern> patterns = new ArrayList<>();
+
+    @Data
+    public static class Pattern {
+        private String ruleCode;
+        private AlertType alertType;
+        private List<String> first = new ArrayList<>();
+        private BigDecimal firstMinAmount;
+        private List<String> then = new ArrayList<>();
+        private BigDecimal thenMinRatio;
+        private Duration within;
+    }
+}
@@ -1,6 +1,9 @@
 package com.athena.lms.fraud.config;
 
 import com.athena.lms.common.config.LmsRabbitMQConfig;
+import com.athena.lms.fraud.event.FraudEventPublisher;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
@@ -22,4 +25,18 @@ public class FraudRabbitMQConfig {
     public Binding fraudWildcardBinding(Queue fraudQueue, TopicExchange lmsExchange) {
         return BindingBuilder.bind(fraudQueue).to(lmsExchange).with(LmsRabbitMQConfig.WILDCARD_PATTERN);
     }
+
+    /**
+     * Per-replica queue for rule configuration broadcasts: unlike the shared fraud queue, every
+     * running instance gets its own copy of each message. Removed when the instance disconnects.
+     */
+    @Bean
+    public Queue fraudRuleConfigQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("athena.lms.fraud.rules."));
+    }
+
+    @Bean
+    public Binding fraudRuleConfigBinding(Queue fraudRuleConfigQueue, TopicExchange lmsExchange) {
+        return BindingBuilder.bind(fraudRuleConfigQueue).to(lmsExchange).with(FraudEventPublisher.FRAUD_RULES_CONFIG);
+    }
 }
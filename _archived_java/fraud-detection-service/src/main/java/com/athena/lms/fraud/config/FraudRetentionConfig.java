@@ -0,0 +1,25 @@
+package com.athena.lms.fraud.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Retention of the monthly-partitioned history tables. A table keeps the current month plus
+ * its hot months in Postgres; older months are exported to archive segments under archiveDir
+ * and dropped. The directory must be shared by every replica that serves history queries.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "fraud.retention")
+@Data
+public class FraudRetentionConfig {
+
+    private boolean enabled = true;
+    private String archiveDir = "/var/lib/athena/fraud-archive";
+    private int monthsAhead = 3;
+    private int eventsHotMonths = 6;
+    private int scoringHotMonths = 6;
+    private int auditHotMonths = 24;
+    private int rowGroupSize = 50_000;
+    private int maxHistoryResults = 1000;
+}
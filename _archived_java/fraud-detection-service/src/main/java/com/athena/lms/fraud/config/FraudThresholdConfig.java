@@ -21,4 +21,20 @@ public class FraudThresholdConfig {
     private int dormantAccountDays = 180;
     private int earlyPayoffDays = 30;
     private int loanCyclingWindowDays = 7;
+
+    /** A detached copy, for rule configuration snapshots that must not see later property changes. */
+    public FraudThresholdConfig copy() {
+        FraudThresholdConfig copy = new FraudThresholdConfig();
+        copy.setLargeTransactionAmount(largeTransactionAmount);
+        copy.setStructuringWindowHours(structuringWindowHours);
+        copy.setStructuringThreshold(structuringThreshold);
+        copy.setVelocityMaxTransactions1h(velocityMaxTransactions1h);
+        copy.setVelocityMaxTransactions24h(velocityMaxTransactions24h);
+        copy.setVelocityMaxApplications30d(velocityMaxApplications30d);
+        copy.setRapidTransferWindowMinutes(rapidTransferWindowMinutes);
+        copy.setDormantAccountDays(dormantAccountDays);
+        copy.setEarlyPayoffDays(earlyPayoffDays);
+        copy.setLoanCyclingWindowDays(loanCyclingWindowDays);
+        return copy;
+    }
 }
@@ -2,12 +2,14 @@ package com.athena.lms.fraud.controller;
 
 import com.athena.lms.common.auth.TenantContextHolder;
 import com.athena.lms.common.dto.PageResponse;
+import com.athena.lms.fraud.archive.PartitionMaintenanceService;
 import com.athena.lms.fraud.dto.request.*;
 import com.athena.lms.fraud.dto.response.*;
 import com.athena.lms.fraud.enums.CaseStatus;
 import com.athena.lms.fraud.enums.SarReportType;
 import com.athena.lms.fraud.enums.SarStatus;
 import com.athena.lms.fraud.entity.ScoringHistory;
+import com.athena.lms.fraud.ml.LocalModelScorer;
 import com.athena.lms.fraud.ml.MLScoringClient;
 import com.athena.lms.fraud.ml.MLScoringResponse;
 import com.athena.lms.fraud.entity.FraudEvent;
@@ -20,11 +22,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -41,8 +45,11 @@ public class FraudCaseController {
     private final WatchlistService watchlistService;
     private final FraudScoringService fraudScoringService;
     private final MLScoringClient mlScoringClient;
+    private final LocalModelScorer localModelScorer;
     private final BatchScreeningService batchScreeningService;
     private final FraudEventRepository fraudEventRepository;
+    private final InvestigationHistoryService investigationHistoryService;
+    private final PartitionMaintenanceService partitionMaintenanceService;
 
     // ─── Cases ────────────────────────────────────────────────────────────────
 
@@ -117,6 +124,31 @@ public class FraudCaseController {
         return ResponseEntity.ok(networkAnalysisService.getFlaggedClusters(tenantId));
     }
 
+    @GetMapping("/network/{customerId}/neighborhood")
+    @Operation(summary = "Get customers within k hops", description = "Customers reachable through shared attributes in up to 4 hops, with the links between them")
+    public ResponseEntity<NetworkNeighborhoodResponse> getNeighborhood(
+            @PathVariable String customerId,
+            @RequestParam(defaultValue = "2") int hops) {
+        String tenantId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(networkAnalysisService.getNeighborhood(tenantId, customerId, hops));
+    }
+
+    @GetMapping("/network/{customerId}/cluster")
+    @Operation(summary = "Get the customer's connected cluster with risk roll-up")
+    public ResponseEntity<NetworkClusterResponse> getCluster(@PathVariable String customerId) {
+        String tenantId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(networkAnalysisService.getCluster(tenantId, customerId));
+    }
+
+    @GetMapping("/network/rings")
+    @Operation(summary = "Detect fraud rings", description = "Clusters of at least minSize customers tied together by more links than a chain, most flagged first")
+    public ResponseEntity<List<NetworkClusterResponse>> detectRings(
+            @RequestParam(defaultValue = "3") int minSize,
+            @RequestParam(defaultValue = "20") int limit) {
+        String tenantId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(networkAnalysisService.detectRings(tenantId, minSize, Math.min(limit, 50)));
+    }
+
     @PostMapping("/network/{linkId}/flag")
     @Operation(summary = "Flag a suspicious network link")
     public ResponseEntity<Void> flagLink(@PathVariable UUID linkId) {
@@ -250,6 +282,18 @@ public class FraudCaseController {
         return ResponseEntity.ok(mlScoringClient.getTrainingStatus());
     }
 
+    @GetMapping("/ml/local")
+    @Operation(summary = "Get in-process model status and shadow comparison")
+    public ResponseEntity<Map<String, Object>> getLocalModelStatus() {
+        return ResponseEntity.ok(localModelScorer.status());
+    }
+
+    @PostMapping("/ml/local/reload")
+    @Operation(summary = "Reload the in-process model from its export file")
+    public ResponseEntity<Map<String, Object>> reloadLocalModel() {
+        return ResponseEntity.ok(localModelScorer.reload());
+    }
+
     // ─── Screening ───────────────────────────────────────────────────────────
 
     @PostMapping("/screening/batch")
@@ -282,6 +326,48 @@ public class FraudCaseController {
         return ResponseEntity.ok(caseManagementService.getCaseTimeline(id, tenantId));
     }
 
+    // ─── Investigation History (live + archived) ─────────────────────────────
+
+    @GetMapping("/history/events/{customerId}")
+    @Operation(summary = "Get a customer's fraud events, including archived months")
+    public ResponseEntity<HistoryResponse<FraudEvent>> getEventHistory(
+            @PathVariable String customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        String tenantId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(investigationHistoryService.getEventHistory(tenantId, customerId, from, to, limit));
+    }
+
+    @GetMapping("/history/scores/{customerId}")
+    @Operation(summary = "Get a customer's ML scoring history, including archived months")
+    public ResponseEntity<HistoryResponse<ScoringHistory>> getScoringHistory(
+            @PathVariable String customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        String tenantId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(investigationHistoryService.getScoringHistory(tenantId, customerId, from, to, limit));
+    }
+
+    @GetMapping("/history/audit")
+    @Operation(summary = "Get an entity's audit trail, including archived months")
+    public ResponseEntity<HistoryResponse<AuditLogResponse>> getAuditHistory(
+            @RequestParam String entityType,
+            @RequestParam UUID entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        String tenantId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(investigationHistoryService.getAuditHistory(tenantId, entityType, entityId, from, to, limit));
+    }
+
+    @PostMapping("/history/maintenance")
+    @Operation(summary = "Create upcoming history partitions and archive months past retention now")
+    public ResponseEntity<Map<String, Object>> runHistoryMaintenance() {
+        return ResponseEntity.ok(partitionMaintenanceService.runMaintenance());
+    }
+
     // ─── Live Transaction Feed ───────────────────────────────────────────────
 
     @GetMapping("/events/recent")
@@ -9,19 +9,26 @@ import com.athena.lms.fraud.dto.response.CustomerRiskResponse;
 import com.athena.lms.fraud.dto.response.FraudSummaryResponse;
 import com.athena.lms.fraud.enums.AlertStatus;
 import com.athena.lms.fraud.dto.response.FraudAnalyticsResponse;
+import com.athena.lms.fraud.rules.RuleConfigRegistry;
+import com.athena.lms.fraud.service.AlertTriageService;
 import com.athena.lms.fraud.service.FraudAnalyticsService;
 import com.athena.lms.fraud.service.FraudDetectionService;
+import com.athena.lms.fraud.service.RuleBacktestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.athena.lms.fraud.dto.request.BacktestRequest;
 import com.athena.lms.fraud.dto.request.BulkAlertActionRequest;
 import com.athena.lms.fraud.dto.request.UpdateRuleRequest;
+import com.athena.lms.fraud.dto.response.BacktestResponse;
+import com.athena.lms.fraud.dto.response.BulkTriageJobResponse;
 import com.athena.lms.fraud.dto.response.RuleResponse;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +42,9 @@ public class FraudController {
 
     private final FraudDetectionService fraudDetectionService;
     private final FraudAnalyticsService fraudAnalyticsService;
+    private final RuleBacktestService ruleBacktestService;
+    private final AlertTriageService alertTriageService;
+    private final RuleConfigRegistry ruleConfigRegistry;
 
     // ─── Alerts ──────────────────────────────────────────────────────────────────
 
@@ -117,6 +127,13 @@ public class FraudController {
         return ResponseEntity.ok(fraudAnalyticsService.getAnalytics(tenantId, days));
     }
 
+    @PostMapping("/analytics/rollups/rebuild")
+    @Operation(summary = "Rebuild the tenant's analytics rollups from alert and scoring history")
+    public ResponseEntity<Map<String, Object>> rebuildAnalyticsRollups() {
+        String tenantId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(fraudAnalyticsService.rebuildRollups(tenantId));
+    }
+
     // ─── Rules Management ─────────────────────────────────────────────────────
 
     @GetMapping("/rules")
@@ -126,6 +143,12 @@ public class FraudController {
         return ResponseEntity.ok(fraudDetectionService.listRules(tenantId));
     }
 
+    @GetMapping("/rules/config")
+    @Operation(summary = "Rule configuration version this instance is evaluating with")
+    public ResponseEntity<Map<String, Object>> getRuleConfig() {
+        return ResponseEntity.ok(ruleConfigRegistry.status());
+    }
+
     @GetMapping("/rules/{id}")
     @Operation(summary = "Get rule details")
     public ResponseEntity<RuleResponse> getRule(@PathVariable UUID id) {
@@ -142,23 +165,43 @@ public class FraudController {
         return ResponseEntity.ok(fraudDetectionService.updateRule(id, request, tenantId));
     }
 
+    @PostMapping("/rules/backtest")
+    @Operation(summary = "Backtest rule changes",
+               description = "Replays stored events over a date range through the current rules and the given overrides, without writing anything")
+    public ResponseEntity<BacktestResponse> backtestRules(@Valid @RequestBody BacktestRequest request) {
+        String tenantId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(ruleBacktestService.backtest(tenantId, request));
+    }
+
     // ─── Bulk Operations ──────────────────────────────────────────────────────
 
     @PutMapping("/alerts/bulk/assign")
-    @Operation(summary = "Bulk assign alerts to analyst")
-    public ResponseEntity<Map<String, Object>> bulkAssignAlerts(
+    @Operation(summary = "Bulk assign alerts to analyst", description = "By alert ids or a filter; large sets run as a background job")
+    public ResponseEntity<BulkTriageJobResponse> bulkAssignAlerts(
             @Valid @RequestBody BulkAlertActionRequest request,
             @RequestParam String assignee) {
         String tenantId = TenantContextHolder.getTenantId();
-        return ResponseEntity.ok(fraudDetectionService.bulkAssign(request.getAlertIds(), assignee, request.getPerformedBy(), tenantId));
+        return jobResponse(alertTriageService.assign(tenantId, request, assignee));
     }
 
     @PutMapping("/alerts/bulk/resolve")
-    @Operation(summary = "Bulk resolve alerts")
-    public ResponseEntity<Map<String, Object>> bulkResolveAlerts(
+    @Operation(summary = "Bulk resolve alerts", description = "By alert ids or a filter; large sets run as a background job")
+    public ResponseEntity<BulkTriageJobResponse> bulkResolveAlerts(
             @Valid @RequestBody BulkAlertActionRequest request,
             @RequestParam boolean confirmedFraud) {
         String tenantId = TenantContextHolder.getTenantId();
-        return ResponseEntity.ok(fraudDetectionService.bulkResolve(request.getAlertIds(), confirmedFraud, request.getPerformedBy(), request.getNotes(), tenantId));
+        return jobResponse(alertTriageService.resolve(tenantId, request, confirmedFraud));
+    }
+
+    @GetMapping("/alerts/bulk/jobs/{jobId}")
+    @Operation(summary = "Get bulk triage job progress")
+    public ResponseEntity<BulkTriageJobResponse> getBulkJob(@PathVariable UUID jobId) {
+        String tenantId = TenantContextHolder.getTenantId();
+        return ResponseEntity.ok(alertTriageService.getJob(jobId, tenantId));
+    }
+
+    private static ResponseEntity<BulkTriageJobResponse> jobResponse(BulkTriageJobResponse job) {
+        HttpStatus status = "RUNNING".equals(job.getStatus()) ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(job);
     }
 }
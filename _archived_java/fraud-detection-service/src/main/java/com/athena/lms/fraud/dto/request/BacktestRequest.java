@@ -0,0 +1,31 @@
+package com.athena.lms.fraud.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class BacktestRequest {
+    @NotNull
+    private OffsetDateTime from;
+    @NotNull
+    private OffsetDateTime to;
+    /** Changes to the current rules; rules not listed run unchanged. */
+    @Valid
+    private List<RuleOverride> rules = new ArrayList<>();
+
+    @Data
+    public static class RuleOverride {
+        @NotBlank
+        private String ruleCode;
+        private Boolean enabled;
+        /** Merged over the rule's current parameters. */
+        private Map<String, Object> parameters;
+    }
+}
@@ -1,16 +1,29 @@
 package com.athena.lms.fraud.dto.request;
 
-import jakarta.validation.constraints.NotEmpty;
+import com.athena.lms.fraud.enums.AlertStatus;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+
+import java.time.OffsetDateTime;
 import java.util.Set;
 import java.util.UUID;
 
+/** Alerts to act on: either explicit ids or a filter, not both. */
 @Data
 public class BulkAlertActionRequest {
-    @NotEmpty
     private Set<UUID> alertIds;
+    private AlertFilter filter;
     @NotBlank
     private String performedBy;
     private String notes;
+
+    @Data
+    public static class AlertFilter {
+        private String ruleCode;
+        private AlertStatus status;
+        /** Created at or after; open-ended when null. */
+        private OffsetDateTime from;
+        /** Created before; open-ended when null. */
+        private OffsetDateTime to;
+    }
 }
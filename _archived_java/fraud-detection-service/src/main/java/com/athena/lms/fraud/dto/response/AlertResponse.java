@@ -27,6 +27,7 @@ public class AlertResponse {
     private String triggerEvent;
     private BigDecimal triggerAmount;
     private BigDecimal riskScore;
+    private Long ruleConfigVersion;
     private Boolean escalated;
     private Boolean escalatedToCompliance;
     private String assignedTo;
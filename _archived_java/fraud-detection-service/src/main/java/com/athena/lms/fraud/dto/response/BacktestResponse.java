@@ -0,0 +1,41 @@
+package com.athena.lms.fraud.dto.response;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Data
+public class BacktestResponse {
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+    private long eventsReplayed;
+    private long customers;
+    private long confirmedFraudCustomers;
+    private int partitions;
+    private long durationMs;
+    private List<RuleResult> rules;
+
+    @Data
+    public static class RuleResult {
+        private String ruleCode;
+        private boolean changed;
+        private Outcome current;
+        private Outcome candidate;
+    }
+
+    @Data
+    public static class Outcome {
+        private boolean enabled;
+        /** Alerts after the live one-hour per-customer dedup. */
+        private long alerts;
+        private long customersFlagged;
+        /** Flagged customers that have a confirmed-fraud alert raised in the range. */
+        private long confirmedFraudFlagged;
+        /** confirmedFraudFlagged / customersFlagged */
+        private BigDecimal precision;
+        /** confirmedFraudFlagged / all confirmed-fraud customers in the range */
+        private BigDecimal recall;
+    }
+}
@@ -0,0 +1,21 @@
+package com.athena.lms.fraud.dto.response;
+
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+public class BulkTriageJobResponse {
+    private UUID jobId;
+    private String action;
+    private String status;
+    /** Alerts matched when the job started. */
+    private long total;
+    private long processed;
+    /** Alerts actually changed; already-resolved alerts are skipped. */
+    private long updated;
+    private OffsetDateTime startedAt;
+    private OffsetDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.athena.lms.fraud.dto.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Investigation history newest first, drawn from the live table and, past its retention
+ * window, from archive segments.
+ */
+@Data
+public class HistoryResponse<T> {
+    private List<T> items = new ArrayList<>();
+    private int liveCount;
+    private int archivedCount;
+    private int segmentsScanned;
+    /** Archived months whose segment file could not be read on this node. */
+    private List<String> unavailableSegments = new ArrayList<>();
+    private boolean truncated;
+}
@@ -0,0 +1,23 @@
+package com.athena.lms.fraud.dto.response;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class NetworkClusterResponse {
+    private int size;
+    private int linkCount;
+    private int flaggedLinks;
+    private boolean cyclic;
+    private boolean truncated;
+    private List<String> members;
+
+    // Risk roll-up over the listed members
+    private String highestRiskLevel;
+    private BigDecimal averageRiskScore;
+    private Map<String, Long> customersByRiskLevel;
+    private int openAlerts;
+    private int confirmedFraud;
+}
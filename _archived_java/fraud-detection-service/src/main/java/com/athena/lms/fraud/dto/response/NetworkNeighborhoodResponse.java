@@ -0,0 +1,30 @@
+package com.athena.lms.fraud.dto.response;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class NetworkNeighborhoodResponse {
+    private String customerId;
+    private int hops;
+    private boolean truncated;
+    private List<Node> customers;
+    private List<Edge> links;
+
+    @Data
+    public static class Node {
+        private String customerId;
+        private int hops;
+        private String riskLevel;
+    }
+
+    @Data
+    public static class Edge {
+        private String customerIdA;
+        private String customerIdB;
+        private String linkType;
+        private String linkValue;
+        private int strength;
+        private boolean flagged;
+    }
+}
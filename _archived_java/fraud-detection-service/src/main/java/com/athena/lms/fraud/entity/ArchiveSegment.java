@@ -0,0 +1,46 @@
+package com.athena.lms.fraud.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** One history partition exported to an archive segment file and dropped from Postgres. */
+@Entity
+@Table(name = "fraud_archive_segments")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "table_name", nullable = false, length = 63)
+    private String tableName;
+
+    @Column(name = "partition_name", nullable = false, unique = true, length = 63)
+    private String partitionName;
+
+    @Column(name = "range_from", nullable = false)
+    private OffsetDateTime rangeFrom;
+
+    @Column(name = "range_to", nullable = false)
+    private OffsetDateTime rangeTo;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Column(name = "file_bytes", nullable = false)
+    private long fileBytes;
+
+    @Column(name = "archived_at", nullable = false)
+    @Builder.Default
+    private OffsetDateTime archivedAt = OffsetDateTime.now();
+}
@@ -31,12 +31,13 @@ public class CustomerRiskProfile {
     @Column(name = "customer_id", nullable = false, length = 100)
     private String customerId;
 
-    @Column(name = "risk_score", precision = 5, scale = 4)
+    // risk_score and risk_level are generated columns derived from the counters (V7)
+    @Column(name = "risk_score", precision = 5, scale = 4, insertable = false, updatable = false)
     @Builder.Default
     private BigDecimal riskScore = BigDecimal.ZERO;
 
     @Enumerated(EnumType.STRING)
-    @Column(name = "risk_level", nullable = false, length = 20)
+    @Column(name = "risk_level", nullable = false, length = 20, insertable = false, updatable = false)
     @Builder.Default
     private RiskLevel riskLevel = RiskLevel.LOW;
 
@@ -77,6 +77,9 @@ public class FraudAlert {
     @Column(name = "model_version", length = 50)
     private String modelVersion;
 
+    @Column(name = "rule_config_version")
+    private Long ruleConfigVersion;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "explanation", columnDefinition = "jsonb")
     private Map<String, Object> explanation;
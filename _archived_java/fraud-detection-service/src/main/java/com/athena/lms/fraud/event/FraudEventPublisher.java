@@ -21,6 +21,7 @@ public class FraudEventPublisher {
 
     public static final String FRAUD_ALERT_RAISED = "fraud.alert.raised";
     public static final String FRAUD_BLOCK_ACCOUNT = "fraud.block.account";
+    public static final String FRAUD_RULES_CONFIG = "fraud.rules.config";
 
     public void publishFraudAlertRaised(FraudAlert alert) {
         try {
@@ -98,4 +99,16 @@ public class FraudEventPublisher {
             log.error("Failed to publish block account event: {}", e.getMessage(), e);
         }
     }
+
+    /** Broadcasts a rule configuration snapshot to every fraud-detection replica. */
+    public void publishRuleConfig(Map<String, Object> snapshot) {
+        try {
+            DomainEvent<Map<String, Object>> event = DomainEvent.of(
+                    FRAUD_RULES_CONFIG, "fraud-detection-service", "*", snapshot);
+            lmsRabbitTemplate.convertAndSend(LmsRabbitMQConfig.LMS_EXCHANGE, FRAUD_RULES_CONFIG, event);
+            log.info("Published rule configuration v{}", snapshot.get("version"));
+        } catch (Exception e) {
+            log.error("Failed to publish rule configuration v{}: {}", snapshot.get("version"), e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,520 @@
+package com.athena.lms.fraud.graph;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * One tenant's customer link graph, held in memory so network queries never touch the database.
+ *
+ * Customers are interned to int ids; every link is an edge id into parallel primitive arrays and
+ * each customer keeps an int adjacency list of its edge ids. Components are tracked with a
+ * union-find (union by size) plus a circular member list per component, so a customer's cluster
+ * and its link / flagged-link counts are available without a traversal. An inverted index maps
+ * each shared attribute (link type + value) to the customers seen with it.
+ *
+ * Links are never removed; flagging and strength only move one way, so every mutation is
+ * idempotent and can be replayed onto a rebuilt graph. Thread-safe: queries share a read lock,
+ * mutations take the write lock.
+ */
+public class LinkGraph {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ─── Customers ───────────────────────────────────────────────────────────────
+    private final Map<String, Integer> customerIds;
+    private String[] customers;
+    private int[][] adjacency;
+    private int[] degree;
+    private int customerCount;
+
+    // ─── Union-find (indexed by customer id) ─────────────────────────────────────
+    private int[] parent;
+    private int[] componentSize;
+    private int[] componentLinks;
+    private int[] componentFlagged;
+    private int[] nextMember;
+
+    // ─── Links ───────────────────────────────────────────────────────────────────
+    private int[] linkA;
+    private int[] linkB;
+    private int[] linkStrength;
+    private byte[] linkType;
+    private String[] linkValue;
+    private final BitSet flagged = new BitSet();
+    private int linkCount;
+
+    private final List<String> linkTypes = new ArrayList<>();
+    private final List<LongIntMap> linkIndexByType = new ArrayList<>();
+
+    // (link type, value) -> customers seen with it
+    private final Map<String, int[]> attributeIndex = new HashMap<>();
+
+    public LinkGraph() {
+        this(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    }
+
+    public LinkGraph(int expectedCustomers, int expectedLinks) {
+        int nodes = Math.max(16, expectedCustomers);
+        int edges = Math.max(16, expectedLinks);
+        customerIds = new HashMap<>(nodes * 4 / 3 + 1);
+        customers = new String[nodes];
+        adjacency = new int[nodes][];
+        degree = new int[nodes];
+        parent = new int[nodes];
+        componentSize = new int[nodes];
+        componentLinks = new int[nodes];
+        componentFlagged = new int[nodes];
+        nextMember = new int[nodes];
+        linkA = new int[edges];
+        linkB = new int[edges];
+        linkStrength = new int[edges];
+        linkType = new byte[edges];
+        linkValue = new String[edges];
+    }
+
+    // ─── Mutations ───────────────────────────────────────────────────────────────
+
+    /**
+     * Adds the link, or merges into the existing one for the same pair and type: strength
+     * becomes the larger of the two and a flag is never cleared.
+     */
+    public void addLink(String customerIdA, String customerIdB, String type, String value,
+                        int strength, boolean isFlagged) {
+        if (customerIdA.equals(customerIdB)) return;
+        lock.writeLock().lock();
+        try {
+            int a = intern(customerIdA);
+            int b = intern(customerIdB);
+            int t = typeIndex(type);
+            long key = pairKey(a, b);
+            int link = linkIndexByType.get(t).get(key);
+            if (link == LongIntMap.MISSING) {
+                link = newLink(a, b, t, value, strength);
+                linkIndexByType.get(t).put(key, link);
+                int root = union(a, b);
+                componentLinks[root]++;
+                indexAttribute(t, value, a);
+                indexAttribute(t, value, b);
+            } else {
+                linkStrength[link] = Math.max(linkStrength[link], strength);
+            }
+            if (isFlagged) markFlagged(link);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns false when the graph has no such link. */
+    public boolean flag(String customerIdA, String customerIdB, String type) {
+        lock.writeLock().lock();
+        try {
+            int link = findLink(customerIdA, customerIdB, type);
+            if (link < 0) return false;
+            markFlagged(link);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records that the customer was seen with this attribute value and returns the other
+     * customers already seen with it, in first-seen order.
+     */
+    public List<String> observeAttribute(String customerId, String type, String value) {
+        lock.writeLock().lock();
+        try {
+            int customer = intern(customerId);
+            int[] seen = attributeIndex.get(attributeKey(typeIndex(type), value));
+            List<String> others = new ArrayList<>();
+            if (seen != null) {
+                for (int i = 1; i <= seen[0]; i++) {
+                    if (seen[i] != customer) others.add(customers[seen[i]]);
+                }
+            }
+            indexAttribute(typeIndex(type), value, customer);
+            return others;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds customers seen with the attribute elsewhere (before a restart, or by another instance). */
+    public void addSightings(String type, String value, Collection<String> customerIds) {
+        if (customerIds.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            int t = typeIndex(type);
+            for (String customerId : customerIds) indexAttribute(t, value, intern(customerId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Copies attribute sightings that are not backed by a link. */
+    public void mergeAttributesFrom(LinkGraph other) {
+        Map<String, List<String>> sightings = new HashMap<>();
+        other.lock.readLock().lock();
+        try {
+            other.attributeIndex.forEach((key, members) -> {
+                List<String> names = new ArrayList<>(members[0]);
+                for (int i = 1; i <= members[0]; i++) names.add(other.customers[members[i]]);
+                sightings.put(key, names);
+            });
+        } finally {
+            other.lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            sightings.forEach((key, names) -> {
+                int sep = key.indexOf('\u0000');
+                String type = key.substring(0, sep);
+                String value = key.substring(sep + 1);
+                int t = typeIndex(type);
+                for (String name : names) indexAttribute(t, value, intern(name));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ─── Queries ─────────────────────────────────────────────────────────────────
+
+    public int customerCount() {
+        lock.readLock().lock();
+        try {
+            return customerCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int linkCount() {
+        lock.readLock().lock();
+        try {
+            return linkCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** True when this graph has already seen the customer with the attribute value. */
+    public boolean hasSighting(String customerId, String type, String value) {
+        lock.readLock().lock();
+        try {
+            int t = linkTypes.indexOf(type);
+            Integer customer = customerIds.get(customerId);
+            if (t < 0 || customer == null) return false;
+            int[] seen = attributeIndex.get(attributeKey(t, value));
+            if (seen == null) return false;
+            for (int i = 1; i <= seen[0]; i++) {
+                if (seen[i] == customer) return true;
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The customer's direct links, empty for an unknown customer. */
+    public List<Link> links(String customerId) {
+        lock.readLock().lock();
+        try {
+            Integer customer = customerIds.get(customerId);
+            if (customer == null) return List.of();
+            List<Link> result = new ArrayList<>(degree[customer]);
+            for (int i = 0; i < degree[customer]; i++) result.add(view(adjacency[customer][i]));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Breadth-first neighbourhood up to hops away, stopping once maxCustomers have been reached.
+     * Returns the customers with their distance and every link between two returned customers.
+     * A maxCustomers below 1 returns no customers, marked truncated.
+     */
+    public Neighborhood neighborhood(String customerId, int hops, int maxCustomers) {
+        lock.readLock().lock();
+        try {
+            Integer start = customerIds.get(customerId);
+            if (start == null) return new Neighborhood(customerId, List.of(), List.of(), false);
+            if (maxCustomers < 1) return new Neighborhood(customerId, List.of(), List.of(), true);
+
+            Map<Integer, Integer> distance = new LinkedHashMap<>();
+            distance.put(start, 0);
+            int[] queue = new int[Math.min(maxCustomers, customerCount)];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            boolean truncated = false;
+            while (head < tail) {
+                int current = queue[head++];
+                int d = distance.get(current);
+                if (d == hops) continue;
+                for (int i = 0; i < degree[current]; i++) {
+                    int next = other(adjacency[current][i], current);
+                    if (distance.containsKey(next)) continue;
+                    if (tail == queue.length) {
+                        truncated = true;
+                        break;
+                    }
+                    distance.put(next, d + 1);
+                    queue[tail++] = next;
+                }
+                if (truncated) break;
+            }
+
+            List<Neighbor> found = new ArrayList<>(distance.size());
+            List<Link> links = new ArrayList<>();
+            BitSet seenLinks = new BitSet();
+            for (Map.Entry<Integer, Integer> entry : distance.entrySet()) {
+                int customer = entry.getKey();
+                found.add(new Neighbor(customers[customer], entry.getValue()));
+                for (int i = 0; i < degree[customer]; i++) {
+                    int link = adjacency[customer][i];
+                    if (!seenLinks.get(link) && distance.containsKey(other(link, customer))) {
+                        seenLinks.set(link);
+                        links.add(view(link));
+                    }
+                }
+            }
+            return new Neighborhood(customerId, found, links, truncated);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The connected component containing the customer, or null for an unknown customer. */
+    public Cluster cluster(String customerId, int maxMembers) {
+        lock.readLock().lock();
+        try {
+            Integer customer = customerIds.get(customerId);
+            return customer == null ? null : clusterView(find(customer), maxMembers);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Customers on at least one flagged link, at most limit of them. */
+    public List<String> flaggedCustomers(int limit) {
+        lock.readLock().lock();
+        try {
+            Set<String> result = new LinkedHashSet<>();
+            for (int link = flagged.nextSetBit(0); link >= 0 && result.size() < limit; link = flagged.nextSetBit(link + 1)) {
+                result.add(customers[linkA[link]]);
+                result.add(customers[linkB[link]]);
+            }
+            return new ArrayList<>(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fraud rings: components of at least minSize customers that are more than a tree (as many
+     * links as customers or more), i.e. the same customers tied together by several shared
+     * attributes. Most flagged links first, then largest.
+     */
+    public List<Cluster> rings(int minSize, int limit, int maxMembers) {
+        return clusters(limit, maxMembers,
+                root -> componentSize[root] >= minSize && componentLinks[root] >= componentSize[root]);
+    }
+
+    private List<Cluster> clusters(int limit, int maxMembers, IntPredicate filter) {
+        lock.readLock().lock();
+        try {
+            List<Integer> roots = new ArrayList<>();
+            for (int i = 0; i < customerCount; i++) {
+                if (parent[i] == i && componentSize[i] > 1 && filter.test(i)) roots.add(i);
+            }
+            roots.sort(Comparator.<Integer>comparingInt(r -> componentFlagged[r]).reversed()
+                    .thenComparing(Comparator.<Integer>comparingInt(r -> componentSize[r]).reversed()));
+            List<Cluster> result = new ArrayList<>(Math.min(limit, roots.size()));
+            for (int i = 0; i < roots.size() && i < limit; i++) result.add(clusterView(roots.get(i), maxMembers));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ─── Internals (callers hold the lock) ───────────────────────────────────────
+
+    private int intern(String customerId) {
+        Integer existing = customerIds.get(customerId);
+        if (existing != null) return existing;
+        if (customerCount == customers.length) growCustomers();
+        int id = customerCount++;
+        customerIds.put(customerId, id);
+        customers[id] = customerId;
+        adjacency[id] = new int[2];
+        parent[id] = id;
+        componentSize[id] = 1;
+        nextMember[id] = id;
+        return id;
+    }
+
+    private int newLink(int a, int b, int type, String value, int strength) {
+        if (linkCount == linkA.length) growLinks();
+        int link = linkCount++;
+        linkA[link] = a;
+        linkB[link] = b;
+        linkType[link] = (byte) type;
+        linkValue[link] = value;
+        linkStrength[link] = strength;
+        appendAdjacency(a, link);
+        appendAdjacency(b, link);
+        return link;
+    }
+
+    private void appendAdjacency(int customer, int link) {
+        int[] edges = adjacency[customer];
+        if (degree[customer] == edges.length) {
+            edges = Arrays.copyOf(edges, edges.length * 2);
+            adjacency[customer] = edges;
+        }
+        edges[degree[customer]++] = link;
+    }
+
+    private void markFlagged(int link) {
+        if (flagged.get(link)) return;
+        flagged.set(link);
+        componentFlagged[find(linkA[link])]++;
+    }
+
+    private int findLink(String customerIdA, String customerIdB, String type) {
+        Integer a = customerIds.get(customerIdA);
+        Integer b = customerIds.get(customerIdB);
+        int t = linkTypes.indexOf(type);
+        if (a == null || b == null || t < 0) return -1;
+        return linkIndexByType.get(t).get(pairKey(a, b));
+    }
+
+    // No path compression: queries run under the shared read lock; union by size keeps
+    // trees O(log n) deep
+    private int find(int customer) {
+        while (parent[customer] != customer) customer = parent[customer];
+        return customer;
+    }
+
+    private int union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) return ra;
+        if (componentSize[ra] < componentSize[rb]) {
+            int swap = ra;
+            ra = rb;
+            rb = swap;
+        }
+        parent[rb] = ra;
+        componentSize[ra] += componentSize[rb];
+        componentLinks[ra] += componentLinks[rb];
+        componentFlagged[ra] += componentFlagged[rb];
+        // Splice the two circular member lists together
+        int next = nextMember[ra];
+        nextMember[ra] = nextMember[rb];
+        nextMember[rb] = next;
+        return ra;
+    }
+
+    private Cluster clusterView(int root, int maxMembers) {
+        int size = componentSize[root];
+        List<String> members = new ArrayList<>(Math.max(0, Math.min(size, maxMembers)));
+        int member = root;
+        while (members.size() < maxMembers) {
+            members.add(customers[member]);
+            member = nextMember[member];
+            if (member == root) break;
+        }
+        return new Cluster(members, size, componentLinks[root], componentFlagged[root],
+                componentLinks[root] >= size, size > members.size());
+    }
+
+    private void indexAttribute(int type, String value, int customer) {
+        String key = attributeKey(type, value);
+        int[] members = attributeIndex.get(key);
+        if (members == null) {
+            attributeIndex.put(key, new int[]{1, customer, 0, 0});
+            return;
+        }
+        for (int i = 1; i <= members[0]; i++) {
+            if (members[i] == customer) return;
+        }
+        if (members[0] + 1 == members.length) {
+            members = Arrays.copyOf(members, members.length * 2);
+            attributeIndex.put(key, members);
+        }
+        members[++members[0]] = customer;
+    }
+
+    private int typeIndex(String type) {
+        int t = linkTypes.indexOf(type);
+        if (t >= 0) return t;
+        if (linkTypes.size() == Byte.MAX_VALUE) throw new IllegalStateException("Too many link types");
+        linkTypes.add(type);
+        linkIndexByType.add(new LongIntMap(linkA.length / 4));
+        return linkTypes.size() - 1;
+    }
+
+    private String attributeKey(int type, String value) {
+        return linkTypes.get(type) + '\u0000' + value;
+    }
+
+    private int other(int link, int customer) {
+        return linkA[link] == customer ? linkB[link] : linkA[link];
+    }
+
+    private Link view(int link) {
+        return new Link(customers[linkA[link]], customers[linkB[link]], linkTypes.get(linkType[link]),
+                linkValue[link], linkStrength[link], flagged.get(link));
+    }
+
+    private static long pairKey(int a, int b) {
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        return ((long) low << 32) | high;
+    }
+
+    private void growCustomers() {
+        int capacity = customers.length * 2;
+        customers = Arrays.copyOf(customers, capacity);
+        adjacency = Arrays.copyOf(adjacency, capacity);
+        degree = Arrays.copyOf(degree, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        componentSize = Arrays.copyOf(componentSize, capacity);
+        componentLinks = Arrays.copyOf(componentLinks, capacity);
+        componentFlagged = Arrays.copyOf(componentFlagged, capacity);
+        nextMember = Arrays.copyOf(nextMember, capacity);
+    }
+
+    private void growLinks() {
+        int capacity = linkA.length * 2;
+        linkA = Arrays.copyOf(linkA, capacity);
+        linkB = Arrays.copyOf(linkB, capacity);
+        linkStrength = Arrays.copyOf(linkStrength, capacity);
+        linkType = Arrays.copyOf(linkType, capacity);
+        linkValue = Arrays.copyOf(linkValue, capacity);
+    }
+
+    // ─── Views ───────────────────────────────────────────────────────────────────
+
+    public record Link(String customerIdA, String customerIdB, String linkType, String linkValue,
+                       int strength, boolean flagged) {
+
+        public String otherCustomer(String customerId) {
+            return customerIdA.equals(customerId) ? customerIdB : customerIdA;
+        }
+    }
+
+    public record Neighbor(String customerId, int hops) {}
+
+    public record Neighborhood(String customerId, List<Neighbor> customers, List<Link> links, boolean truncated) {}
+
+    public record Cluster(List<String> members, int size, int links, int flaggedLinks,
+                          boolean cyclic, boolean truncated) {}
+}
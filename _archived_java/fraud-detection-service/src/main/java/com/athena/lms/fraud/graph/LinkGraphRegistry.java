@@ -0,0 +1,170 @@
+package com.athena.lms.fraud.graph;
+
+import com.athena.lms.fraud.repository.NetworkLinkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Per-tenant LinkGraphs. A tenant's graph is loaded from network_links on first use; after
+ * that NetworkAnalysisService keeps it current by applying each recorded or flagged link once
+ * its transaction commits. Loaded graphs are rebuilt from the database periodically in the
+ * background (picking up links written by other instances) and swapped in, with any mutation
+ * made during the rebuild replayed onto the new graph.
+ *
+ * Every tenant with links is loaded once the application is ready, so the first request
+ * after a start does not wait for the load. Attribute sightings that have not produced a link
+ * yet (LinkGraph.observeAttribute) are kept in memory as seen by this instance, and a rebuild
+ * carries them over; NetworkAnalysisService also stores them in fraud_attribute_sightings and
+ * reads them back on a miss, so sightings survive a restart and are shared between instances.
+ */
+@Component
+@Slf4j
+public class LinkGraphRegistry {
+
+    private final NetworkLinkRepository linkRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean warmOnStartup;
+    private final Map<String, TenantGraph> tenants = new ConcurrentHashMap<>();
+
+    public LinkGraphRegistry(NetworkLinkRepository linkRepository, PlatformTransactionManager transactionManager,
+                             @Value("${fraud.graph.warm-on-startup:true}") boolean warmOnStartup) {
+        this.linkRepository = linkRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.warmOnStartup = warmOnStartup;
+    }
+
+    /** Loads every tenant's graph before the instance reports ready; a tenant that fails loads on first use. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmOnStartup) return;
+        long started = System.currentTimeMillis();
+        List<String> tenantIds;
+        try {
+            tenantIds = linkRepository.findTenantIds();
+        } catch (RuntimeException e) {
+            log.warn("Link graph warm-up skipped, graphs load on first use: {}", e.getMessage());
+            return;
+        }
+        for (String tenantId : tenantIds) {
+            try {
+                graph(tenantId);
+            } catch (RuntimeException e) {
+                log.warn("Link graph warm-up failed for tenant={}: {}", tenantId, e.getMessage());
+            }
+        }
+        log.info("Warmed {} link graphs in {}ms", tenantIds.size(), System.currentTimeMillis() - started);
+    }
+
+    public LinkGraph graph(String tenantId) {
+        return tenants.computeIfAbsent(tenantId, TenantGraph::new).get();
+    }
+
+    /**
+     * Applies the mutation once the current transaction commits, or right away outside one.
+     * A tenant whose graph is not loaded yet is skipped: its first load reads the committed row.
+     */
+    public void afterCommit(String tenantId, Consumer<LinkGraph> mutation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(tenantId, mutation);
+                }
+            });
+        } else {
+            apply(tenantId, mutation);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.graph.rebuild-interval-ms:900000}",
+               initialDelayString = "${fraud.graph.rebuild-interval-ms:900000}")
+    public void rebuildAll() {
+        tenants.values().forEach(TenantGraph::rebuild);
+    }
+
+    private void apply(String tenantId, Consumer<LinkGraph> mutation) {
+        TenantGraph tenant = tenants.get(tenantId);
+        if (tenant != null) tenant.apply(mutation);
+    }
+
+    private LinkGraph load(String tenantId) {
+        long started = System.currentTimeMillis();
+        int expected = (int) Math.min(Integer.MAX_VALUE / 2, linkRepository.countByTenantId(tenantId));
+        LinkGraph graph = new LinkGraph(expected, expected);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = linkRepository.streamGraphLinks(tenantId)) {
+                rows.forEach(row -> graph.addLink((String) row[0], (String) row[1], (String) row[2],
+                        (String) row[3], (Integer) row[4], (Boolean) row[5]));
+            }
+        });
+        log.info("Loaded link graph for tenant={}: customers={} links={} in {}ms", tenantId,
+                graph.customerCount(), graph.linkCount(), System.currentTimeMillis() - started);
+        return graph;
+    }
+
+    private final class TenantGraph {
+
+        private final String tenantId;
+        private volatile LinkGraph graph;
+        // Mutations applied while a rebuild is loading, replayed onto the rebuilt graph
+        private List<Consumer<LinkGraph>> pending;
+
+        TenantGraph(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        LinkGraph get() {
+            LinkGraph current = graph;
+            if (current != null) return current;
+            synchronized (this) {
+                if (graph == null) graph = load(tenantId);
+                return graph;
+            }
+        }
+
+        synchronized void apply(Consumer<LinkGraph> mutation) {
+            if (graph == null) return;
+            mutation.accept(graph);
+            if (pending != null) pending.add(mutation);
+        }
+
+        void rebuild() {
+            synchronized (this) {
+                if (graph == null || pending != null) return;
+                pending = new ArrayList<>();
+            }
+            LinkGraph fresh;
+            try {
+                fresh = load(tenantId);
+            } catch (RuntimeException e) {
+                log.warn("Link graph rebuild failed for tenant={}: {}", tenantId, e.getMessage());
+                synchronized (this) {
+                    pending = null;
+                }
+                return;
+            }
+            synchronized (this) {
+                pending.forEach(mutation -> mutation.accept(fresh));
+                fresh.mergeAttributesFrom(graph);
+                graph = fresh;
+                pending = null;
+            }
+        }
+    }
+}
@@ -24,7 +24,7 @@ public class FraudEventListener {
             "payment.completed", "payment.reversed", "payment.initiated",
             "transfer.completed", "transfer.initiated",
             "account.credit.received", "account.debit.processed",
-            "account.unfrozen",
+            "account.unfrozen", "account.reactivated",
             // Loan events
             "loan.application.submitted", "loan.disbursed",
             "loan.closed", "loan.written.off", "loan.repayment.received",
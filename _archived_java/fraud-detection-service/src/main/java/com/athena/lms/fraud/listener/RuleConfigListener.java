@@ -0,0 +1,34 @@
+package com.athena.lms.fraud.listener;
+
+import com.athena.lms.fraud.rules.RuleConfigRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Receives rule configuration snapshots broadcast on fraud.rules.config, on this replica's own
+ * queue (see FraudRabbitMQConfig), and hands them to the registry.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RuleConfigListener {
+
+    private final RuleConfigRegistry ruleConfigRegistry;
+
+    @RabbitListener(queues = "#{fraudRuleConfigQueue.name}")
+    public void handleRuleConfig(Map<String, Object> event) {
+        try {
+            if (event.get("payload") instanceof Map<?, ?> payload) {
+                ruleConfigRegistry.apply(payload);
+            } else {
+                log.warn("Rule configuration event {} has no payload, ignoring", event.get("id"));
+            }
+        } catch (Exception e) {
+            log.error("Failed to apply rule configuration event {}: {}", event.get("id"), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.athena.lms.fraud.ml;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a LightGBM model into a TreeEnsembleModel, either the text format written by
+ * Booster.save_model / model_to_string or the JSON written by Booster.dump_model. Only what the
+ * fraud scorer is trained as is supported: a single-output binary or regression model over
+ * numerical features. Categorical splits, linear trees and multiclass models are rejected
+ * rather than evaluated wrongly.
+ */
+final class LightGbmModelParser {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private LightGbmModelParser() {
+    }
+
+    static TreeEnsembleModel parse(String content, String version) {
+        String trimmed = content.stripLeading();
+        if (trimmed.isEmpty()) throw new IllegalArgumentException("Model file is empty");
+        return trimmed.charAt(0) == '{' ? parseJson(trimmed, version) : parseText(trimmed, version);
+    }
+
+    // ─── Text format ─────────────────────────────────────────────────────────────
+
+    private static TreeEnsembleModel parseText(String content, String version) {
+        Map<String, String> header = new HashMap<>();
+        List<Map<String, String>> trees = new ArrayList<>();
+        Map<String, String> section = header;
+        for (String rawLine : content.split("\n")) {
+            String line = rawLine.strip();
+            if (line.equals("end of trees")) break;
+            if (line.startsWith("Tree=")) {
+                section = new HashMap<>();
+                trees.add(section);
+                continue;
+            }
+            int eq = line.indexOf('=');
+            if (eq > 0) {
+                section.put(line.substring(0, eq), line.substring(eq + 1));
+            } else if (!line.isEmpty()) {
+                section.put(line, "");
+            }
+        }
+
+        requireSingleOutput(intValue(header.getOrDefault("num_class", "1")),
+                intValue(header.getOrDefault("num_tree_per_iteration", "1")));
+        String names = header.get("feature_names");
+        if (names == null) throw new IllegalArgumentException("Model has no feature_names");
+
+        TreeEnsembleModel.Builder builder = TreeEnsembleModel.builder(version, Arrays.asList(names.split(" ")))
+                .sigmoid(sigmoidFor(header.get("objective")))
+                .averageOutput(header.containsKey("average_output"));
+        for (Map<String, String> tree : trees) {
+            addTextTree(builder, tree);
+        }
+        return builder.build();
+    }
+
+    private static void addTextTree(TreeEnsembleModel.Builder builder, Map<String, String> tree) {
+        if ("1".equals(tree.get("is_linear"))) throw new IllegalArgumentException("Linear trees are not supported");
+        int numLeaves = intValue(required(tree, "num_leaves"));
+        double[] leafValues = doubles(required(tree, "leaf_value"));
+        if (numLeaves == 1) {
+            builder.addTree(builder.addLeaf(leafValues[0]));
+            return;
+        }
+
+        int[] splitFeature = ints(required(tree, "split_feature"));
+        double[] thresholds = doubles(required(tree, "threshold"));
+        int[] decisionType = ints(required(tree, "decision_type"));
+        int[] left = ints(required(tree, "left_child"));
+        int[] right = ints(required(tree, "right_child"));
+        int splits = numLeaves - 1;
+        if (splitFeature.length != splits || thresholds.length != splits || decisionType.length != splits
+                || left.length != splits || right.length != splits || leafValues.length != numLeaves) {
+            throw new IllegalArgumentException("Tree arrays do not match num_leaves=" + numLeaves);
+        }
+
+        int nodeBase = builder.nodeCount();
+        int leafBase = builder.leafCount();
+        for (int i = 0; i < splits; i++) {
+            int type = decisionType[i];
+            if ((type & 1) != 0) throw new IllegalArgumentException("Categorical splits are not supported");
+            builder.addSplit(splitFeature[i], thresholds[i], (byte) ((type >> 2) & 3), (type & 2) != 0);
+        }
+        for (double value : leafValues) builder.addLeaf(value);
+        for (int i = 0; i < splits; i++) {
+            builder.setChildren(nodeBase + i, globalChild(left[i], nodeBase, leafBase),
+                    globalChild(right[i], nodeBase, leafBase));
+        }
+        builder.addTree(nodeBase);
+    }
+
+    private static int globalChild(int child, int nodeBase, int leafBase) {
+        return child >= 0 ? nodeBase + child : ~(leafBase + ~child);
+    }
+
+    // ─── JSON dump ───────────────────────────────────────────────────────────────
+
+    private static TreeEnsembleModel parseJson(String content, String version) {
+        JsonNode root;
+        try {
+            root = JSON.readTree(content);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed model JSON: " + e.getMessage(), e);
+        }
+        requireSingleOutput(root.path("num_class").asInt(1), root.path("num_tree_per_iteration").asInt(1));
+
+        List<String> names = new ArrayList<>();
+        root.path("feature_names").forEach(n -> names.add(n.asText()));
+        if (names.isEmpty()) throw new IllegalArgumentException("Model has no feature_names");
+
+        TreeEnsembleModel.Builder builder = TreeEnsembleModel.builder(version, names)
+                .sigmoid(sigmoidFor(root.path("objective").asText(null)))
+                .averageOutput(root.path("average_output").asBoolean(false));
+        for (JsonNode tree : root.path("tree_info")) {
+            if (tree.path("is_linear").asBoolean(false)) throw new IllegalArgumentException("Linear trees are not supported");
+            builder.addTree(addJsonNode(builder, tree.path("tree_structure")));
+        }
+        return builder.build();
+    }
+
+    private static int addJsonNode(TreeEnsembleModel.Builder builder, JsonNode node) {
+        if (node.has("leaf_value")) return builder.addLeaf(node.get("leaf_value").asDouble());
+        if (!node.has("split_feature")) throw new IllegalArgumentException("Tree node is neither a split nor a leaf");
+        if (!"<=".equals(node.path("decision_type").asText("<="))) {
+            throw new IllegalArgumentException("Categorical splits are not supported");
+        }
+
+        byte missingType = switch (node.path("missing_type").asText("None")) {
+            case "Zero" -> TreeEnsembleModel.MISSING_ZERO;
+            case "NaN" -> TreeEnsembleModel.MISSING_NAN;
+            default -> TreeEnsembleModel.MISSING_NONE;
+        };
+        int split = builder.addSplit(node.get("split_feature").asInt(), number(node.get("threshold")),
+                missingType, node.path("default_left").asBoolean(false));
+        int left = addJsonNode(builder, node.path("left_child"));
+        int right = addJsonNode(builder, node.path("right_child"));
+        builder.setChildren(split, left, right);
+        return split;
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────────
+
+    private static void requireSingleOutput(int numClass, int treesPerIteration) {
+        if (numClass != 1 || treesPerIteration != 1) {
+            throw new IllegalArgumentException("Multiclass models are not supported (num_class=" + numClass + ")");
+        }
+    }
+
+    /** Sigmoid scale applied to the raw score, or 0 when the objective's output is the raw score. */
+    private static double sigmoidFor(String objective) {
+        if (objective == null || objective.isBlank()) return 0;
+        String[] parts = objective.strip().split(" ");
+        switch (parts[0]) {
+            case "binary", "cross_entropy", "xentropy" -> {
+                for (String part : parts) {
+                    if (part.startsWith("sigmoid:")) return Double.parseDouble(part.substring("sigmoid:".length()));
+                }
+                return 1.0;
+            }
+            case "regression", "regression_l2", "regression_l1", "huber", "fair", "quantile", "mape" -> {
+                return 0;
+            }
+            default -> throw new IllegalArgumentException("Unsupported objective: " + objective);
+        }
+    }
+
+    private static String required(Map<String, String> tree, String key) {
+        String value = tree.get(key);
+        if (value == null) throw new IllegalArgumentException("Tree is missing " + key);
+        return value;
+    }
+
+    private static int intValue(String value) {
+        try {
+            return Integer.parseInt(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not an integer: " + value);
+        }
+    }
+
+    private static int[] ints(String values) {
+        String[] tokens = values.strip().split(" ");
+        int[] result = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) result[i] = intValue(tokens[i]);
+        return result;
+    }
+
+    private static double[] doubles(String values) {
+        String[] tokens = values.strip().split(" ");
+        double[] result = new double[tokens.length];
+        for (int i = 0; i < tokens.length; i++) result[i] = doubleValue(tokens[i]);
+        return result;
+    }
+
+    private static double number(JsonNode node) {
+        if (node == null) throw new IllegalArgumentException("Split has no threshold");
+        return node.isNumber() ? node.asDouble() : doubleValue(node.asText());
+    }
+
+    private static double doubleValue(String token) {
+        return switch (token) {
+            case "inf", "+inf", "Infinity" -> Double.POSITIVE_INFINITY;
+            case "-inf", "-Infinity" -> Double.NEGATIVE_INFINITY;
+            default -> {
+                try {
+                    yield Double.parseDouble(token);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Not a number: " + token);
+                }
+            }
+        };
+    }
+}
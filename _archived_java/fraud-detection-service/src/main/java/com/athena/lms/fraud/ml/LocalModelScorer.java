@@ -0,0 +1,217 @@
+package com.athena.lms.fraud.ml;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Scores events in-process with a tree ensemble exported by fraud-ml-service (a LightGBM text
+ * model or JSON dump at fraud.ml.local.model-path), instead of a round trip to its combined
+ * endpoint. The file is polled and a changed model is swapped in atomically; a file that fails
+ * to parse is logged and the previous model keeps serving.
+ *
+ * fraud.ml.local.mode chooses who decides the score: REMOTE (the ML service, as before),
+ * SHADOW (the ML service, with the local score computed alongside and the difference tracked)
+ * or LOCAL (the local model, falling back to the ML service while no model is loaded).
+ */
+@Service
+@Slf4j
+public class LocalModelScorer {
+
+    public enum Mode { REMOTE, SHADOW, LOCAL }
+
+    private final TransactionFeatureExtractor featureExtractor;
+    private final Mode mode;
+    private final Path modelPath;
+    private final double ruleWeight;
+    private final double modelWeight;
+
+    private final AtomicReference<LoadedModel> current = new AtomicReference<>();
+    // lastModified:size of a file that failed to load, so a bad export is reported once
+    private volatile String failedStamp;
+
+    private final LongAdder shadowCompared = new LongAdder();
+    private final LongAdder shadowRiskLevelMismatches = new LongAdder();
+    private final DoubleAdder shadowAbsDeltaSum = new DoubleAdder();
+    private final DoubleAccumulator shadowMaxAbsDelta = new DoubleAccumulator(Math::max, 0);
+
+    public LocalModelScorer(
+            TransactionFeatureExtractor featureExtractor,
+            @Value("${fraud.ml.local.mode:remote}") String mode,
+            @Value("${fraud.ml.local.model-path:}") String modelPath,
+            @Value("${fraud.ml.local.rule-weight:0.3}") double ruleWeight,
+            @Value("${fraud.ml.local.model-weight:0.4}") double modelWeight) {
+        this.featureExtractor = featureExtractor;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.modelPath = modelPath == null || modelPath.isBlank() ? null : Path.of(modelPath);
+        this.ruleWeight = ruleWeight;
+        this.modelWeight = modelWeight;
+        if (this.mode != Mode.REMOTE && this.modelPath == null) {
+            throw new IllegalStateException("fraud.ml.local.model-path is required in " + this.mode + " mode");
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean isModelLoaded() {
+        return current.get() != null;
+    }
+
+    // ─── Scoring ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Combined score in the same shape the ML service returns: the model's probability
+     * blended with the rule score by the configured weights. Null when no model is loaded.
+     */
+    public MLScoringResponse scoreCombined(String tenantId, String customerId, String eventType,
+                                           BigDecimal amount, double ruleScore) {
+        LoadedModel loaded = current.get();
+        if (loaded == null) return null;
+
+        long start = System.nanoTime();
+        double[] features = featureExtractor.extract(tenantId, customerId, eventType, amount);
+        double probability = loaded.model().predict(features);
+        double score = (ruleWeight * ruleScore + modelWeight * probability) / (ruleWeight + modelWeight);
+        score = Math.round(score * 10_000) / 10_000.0;
+
+        Map<String, Object> lgbm = new LinkedHashMap<>();
+        lgbm.put("fraud_probability", Math.round(probability * 10_000) / 10_000.0);
+        lgbm.put("risk_level", MLScoringClient.riskLevelFor(probability));
+        lgbm.put("model_version", loaded.version());
+        lgbm.put("source", "local");
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("rule_score", ruleScore);
+        details.put("lgbm", lgbm);
+
+        return MLScoringResponse.builder()
+                .score(score)
+                .riskLevel(MLScoringClient.riskLevelFor(score))
+                .modelAvailable(true)
+                .details(details)
+                .latencyMs((System.nanoTime() - start) / 1_000_000.0)
+                .modelVersion(loaded.version())
+                .build();
+    }
+
+    /** Records how far the local score was from the ML service's for the same event. */
+    public void recordShadow(String customerId, MLScoringResponse remote, MLScoringResponse local) {
+        if (remote == null || local == null || !remote.isModelAvailable()) return;
+        double delta = Math.abs(remote.getScore() - local.getScore());
+        shadowCompared.increment();
+        shadowAbsDeltaSum.add(delta);
+        shadowMaxAbsDelta.accumulate(delta);
+        if (!remote.getRiskLevel().equals(local.getRiskLevel())) {
+            shadowRiskLevelMismatches.increment();
+            log.debug("ML shadow mismatch for customer={}: remote={} ({}) local={} ({})", customerId,
+                    remote.getScore(), remote.getRiskLevel(), local.getScore(), local.getRiskLevel());
+        }
+    }
+
+    // ─── Model Loading ───────────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (modelPath != null) reloadIfChanged();
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.ml.local.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        if (modelPath == null || !Files.isRegularFile(modelPath)) return;
+        try {
+            long modified = Files.getLastModifiedTime(modelPath).toMillis();
+            long size = Files.size(modelPath);
+            LoadedModel loaded = current.get();
+            boolean changed = loaded == null || loaded.lastModified() != modified || loaded.size() != size;
+            if (changed && !(modified + ":" + size).equals(failedStamp)) {
+                try {
+                    load(modified, size);
+                } catch (IOException | RuntimeException e) {
+                    failedStamp = modified + ":" + size;
+                    throw e;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load local fraud model from {}: {}", modelPath, e.getMessage());
+        }
+    }
+
+    /** Loads the model file now regardless of whether it changed; returns the resulting status. */
+    public Map<String, Object> reload() {
+        if (modelPath == null) return status();
+        try {
+            load(Files.getLastModifiedTime(modelPath).toMillis(), Files.size(modelPath));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load local fraud model from {}: {}", modelPath, e.getMessage());
+            Map<String, Object> status = status();
+            status.put("error", e.getMessage());
+            return status;
+        }
+        return status();
+    }
+
+    private void load(long modified, long size) throws IOException {
+        byte[] bytes = Files.readAllBytes(modelPath);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        String version = "local-" + Long.toHexString(crc.getValue());
+
+        TreeEnsembleModel parsed = LightGbmModelParser.parse(new String(bytes, StandardCharsets.UTF_8), version);
+        List<String> unknown = TransactionFeatureExtractor.unknownFeatures(parsed.getFeatureNames());
+        if (!unknown.isEmpty()) {
+            log.warn("Local fraud model {} uses features not produced here, scored as missing: {}", version, unknown);
+        }
+        TreeEnsembleModel model = parsed.withFeatureSlots(TransactionFeatureExtractor.slotsFor(parsed.getFeatureNames()));
+
+        LoadedModel previous = current.getAndSet(new LoadedModel(model, version, modified, size, Instant.now()));
+        log.info("Loaded local fraud model {} ({} trees, {} splits) from {}{}", version, model.getTreeCount(),
+                model.getNodeCount(), modelPath, previous != null ? ", replacing " + previous.version() : "");
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("mode", mode);
+        status.put("modelPath", modelPath != null ? modelPath.toString() : null);
+        LoadedModel loaded = current.get();
+        status.put("modelLoaded", loaded != null);
+        if (loaded != null) {
+            status.put("modelVersion", loaded.version());
+            status.put("trees", loaded.model().getTreeCount());
+            status.put("features", loaded.model().getFeatureNames().size());
+            status.put("loadedAt", loaded.loadedAt());
+        }
+        long compared = shadowCompared.sum();
+        if (compared > 0) {
+            Map<String, Object> shadow = new LinkedHashMap<>();
+            shadow.put("compared", compared);
+            shadow.put("meanAbsDelta", shadowAbsDeltaSum.sum() / compared);
+            shadow.put("maxAbsDelta", shadowMaxAbsDelta.get());
+            shadow.put("riskLevelMismatches", shadowRiskLevelMismatches.sum());
+            status.put("shadow", shadow);
+        }
+        return status;
+    }
+
+    private record LoadedModel(TreeEnsembleModel model, String version, long lastModified, long size,
+                               Instant loadedAt) {}
+}
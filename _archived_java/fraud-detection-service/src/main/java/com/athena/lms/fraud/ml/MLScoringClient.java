@@ -137,18 +137,20 @@ public class MLScoringClient {
     }
 
     private MLScoringResponse buildFallbackResponse(double ruleScore) {
-        String riskLevel;
-        if (ruleScore >= 0.8) riskLevel = "CRITICAL";
-        else if (ruleScore >= 0.6) riskLevel = "HIGH";
-        else if (ruleScore >= 0.3) riskLevel = "MEDIUM";
-        else riskLevel = "LOW";
-
         return MLScoringResponse.builder()
                 .score(ruleScore)
-                .riskLevel(riskLevel)
+                .riskLevel(riskLevelFor(ruleScore))
                 .modelAvailable(false)
                 .details(Map.of("fallback", true, "rule_score", ruleScore))
                 .latencyMs(0.0)
                 .build();
     }
+
+    /** Risk band for a 0-1 score, with the same cut-offs as combined_scorer.py. */
+    static String riskLevelFor(double score) {
+        if (score >= 0.8) return "CRITICAL";
+        if (score >= 0.6) return "HIGH";
+        if (score >= 0.3) return "MEDIUM";
+        return "LOW";
+    }
 }
@@ -28,4 +28,8 @@ public class MLScoringResponse {
 
     @JsonProperty("latency_ms")
     private double latencyMs;
+
+    /** Set when the score came from a specific model version, e.g. the in-process model. */
+    @JsonProperty("model_version")
+    private String modelVersion;
 }
@@ -0,0 +1,155 @@
+package com.athena.lms.fraud.ml;
+
+import com.athena.lms.fraud.entity.CustomerRiskProfile;
+import com.athena.lms.fraud.repository.CustomerRiskProfileRepository;
+import com.athena.lms.fraud.repository.VelocityCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the per-event feature vector for in-process model scoring from the velocity counters
+ * and the customer's risk profile. Names and definitions follow
+ * feature_engineer.extract_transaction_features in fraud-ml-service, so a model trained there
+ * can be scored here; vectors are plain double arrays in FEATURE_NAMES order, with one extra
+ * trailing slot that is always NaN for model features this extractor does not produce.
+ */
+@Component
+public class TransactionFeatureExtractor {
+
+    public static final List<String> EVENT_CATEGORIES = List.of(
+            "payment.completed", "transfer.completed", "loan.application.submitted",
+            "account.credit.received", "payment.reversed", "mobile.transfer.completed",
+            "loan.closed", "overdraft.granted");
+
+    public static final List<String> FEATURE_NAMES = List.of(
+            "amount", "amount_log", "is_round_amount",
+            "hour_of_day", "day_of_week", "is_weekend", "is_night",
+            "evt_payment_completed", "evt_transfer_completed", "evt_loan_application_submitted",
+            "evt_account_credit_received", "evt_payment_reversed", "evt_mobile_transfer_completed",
+            "evt_loan_closed", "evt_overdraft_granted",
+            "txn_count_1h", "txn_amount_1h", "transfer_count_1h", "credit_count_1h", "round_amount_count_1h",
+            "txn_count_24h", "txn_amount_24h", "transfer_count_24h", "loan_app_count_24h", "payment_reversed_24h",
+            "amount_to_24h_ratio",
+            "customer_risk_score", "customer_total_alerts", "customer_open_alerts", "customer_confirmed_fraud",
+            "customer_false_positives", "customer_txn_count_30d", "customer_avg_txn_amount",
+            "amount_deviation");
+
+    public static final int WIDTH = FEATURE_NAMES.size() + 1;
+    private static final int UNKNOWN_SLOT = WIDTH - 1;
+    private static final Map<String, Integer> SLOTS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < FEATURE_NAMES.size(); i++) SLOTS.put(FEATURE_NAMES.get(i), i);
+    }
+
+    private final VelocityCounterRepository counterRepository;
+    private final CustomerRiskProfileRepository riskProfileRepository;
+    private final Clock clock;
+
+    @Autowired
+    public TransactionFeatureExtractor(VelocityCounterRepository counterRepository,
+                                       CustomerRiskProfileRepository riskProfileRepository) {
+        this(counterRepository, riskProfileRepository, Clock.systemUTC());
+    }
+
+    TransactionFeatureExtractor(VelocityCounterRepository counterRepository,
+                                CustomerRiskProfileRepository riskProfileRepository, Clock clock) {
+        this.counterRepository = counterRepository;
+        this.riskProfileRepository = riskProfileRepository;
+        this.clock = clock;
+    }
+
+    /** For each of a model's feature names, the vector slot it is read from. */
+    public static int[] slotsFor(List<String> featureNames) {
+        int[] slots = new int[featureNames.size()];
+        for (int i = 0; i < slots.length; i++) slots[i] = SLOTS.getOrDefault(featureNames.get(i), UNKNOWN_SLOT);
+        return slots;
+    }
+
+    public static List<String> unknownFeatures(List<String> featureNames) {
+        return featureNames.stream().filter(name -> !SLOTS.containsKey(name)).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public double[] extract(String tenantId, String customerId, String eventType, BigDecimal amount) {
+        OffsetDateTime now = OffsetDateTime.now(clock).withOffsetSameInstant(ZoneOffset.UTC);
+        double value = amount != null ? amount.doubleValue() : 0.0;
+        double[] x = new double[WIDTH];
+        int i = 0;
+
+        // Raw event
+        x[i++] = value;
+        x[i++] = value > 0 ? Math.log1p(value) : 0.0;
+        x[i++] = value != 0 && amount.remainder(BigDecimal.valueOf(10_000)).signum() == 0 ? 1 : 0;
+        int hour = now.getHour();
+        int weekday = now.getDayOfWeek().getValue() - 1;   // Monday = 0, as Python's weekday()
+        x[i++] = hour;
+        x[i++] = weekday;
+        x[i++] = weekday >= 5 ? 1 : 0;
+        x[i++] = hour < 6 || hour >= 22 ? 1 : 0;
+        for (String category : EVENT_CATEGORIES) {
+            x[i++] = category.equals(eventType) ? 1 : 0;
+        }
+
+        // Velocity, counted from buckets ending within the last hour / day
+        Map<String, double[]> velocity = new HashMap<>();
+        if (customerId != null) {
+            for (Object[] row : counterRepository.sumByCounterTypeSince(tenantId, customerId,
+                    now.minusHours(1), now.minusHours(24))) {
+                velocity.put((String) row[0], new double[]{
+                        ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue(),
+                        ((Number) row[3]).doubleValue(), ((Number) row[4]).doubleValue()});
+            }
+        }
+        x[i++] = velocity(velocity, "TXN_COUNT", 0);
+        x[i++] = velocity(velocity, "TXN_AMOUNT", 1);
+        x[i++] = velocity(velocity, "TRANSFER_OUT", 0);
+        x[i++] = velocity(velocity, "CREDIT_RECEIVED", 0);
+        x[i++] = velocity(velocity, "ROUND_AMOUNT", 0);
+        x[i++] = velocity(velocity, "TXN_COUNT", 2);
+        double amount24h = velocity(velocity, "TXN_AMOUNT", 3);
+        x[i++] = amount24h;
+        x[i++] = velocity(velocity, "TRANSFER_OUT", 2);
+        x[i++] = velocity(velocity, "LOAN_APP", 2);
+        x[i++] = velocity(velocity, "PAYMENT_REVERSED", 2);
+        x[i++] = value != 0 && amount24h > 0 ? value / amount24h : 0.0;
+
+        // Customer risk profile
+        CustomerRiskProfile profile = customerId == null ? null
+                : riskProfileRepository.findByTenantIdAndCustomerId(tenantId, customerId).orElse(null);
+        double avgAmount = profile != null ? decimal(profile.getAvgTransactionAmount()) : 0.0;
+        x[i++] = profile != null ? decimal(profile.getRiskScore()) : 0.0;
+        x[i++] = profile != null ? count(profile.getTotalAlerts()) : 0;
+        x[i++] = profile != null ? count(profile.getOpenAlerts()) : 0;
+        x[i++] = profile != null ? count(profile.getConfirmedFraud()) : 0;
+        x[i++] = profile != null ? count(profile.getFalsePositives()) : 0;
+        x[i++] = profile != null ? count(profile.getTransactionCount30d()) : 0;
+        x[i++] = avgAmount;
+        x[i++] = Math.abs(value - avgAmount) / Math.max(avgAmount, 1.0);
+
+        x[UNKNOWN_SLOT] = Double.NaN;
+        return x;
+    }
+
+    private static double velocity(Map<String, double[]> velocity, String counterType, int column) {
+        double[] sums = velocity.get(counterType);
+        return sums == null ? 0.0 : sums[column];
+    }
+
+    private static double decimal(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+
+    private static int count(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,218 @@
+package com.athena.lms.fraud.ml;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A boosted tree ensemble evaluated in-process. All trees share one set of parallel primitive
+ * arrays: split nodes hold a feature index, a threshold and a missing-value mode, and the two
+ * children of node n sit at children[2n] and children[2n + 1] so each step is an indexed load
+ * rather than a left/right branch. A negative child is ~leafIndex into leafValues.
+ *
+ * Missing values follow LightGBM: NaN on a split without missing handling is treated as 0, a
+ * split with missing type Zero or NaN sends those values to its default side. The None case is
+ * folded into the other two at build time, so evaluation only checks the mode on nodes that
+ * have one. Instances are immutable and safe to share between threads.
+ */
+public final class TreeEnsembleModel {
+
+    static final byte MISSING_NONE = 0;
+    static final byte MISSING_ZERO = 1;
+    static final byte MISSING_NAN = 2;
+    private static final byte MISSING_TYPE = 3;
+    private static final byte DEFAULT_LEFT = 4;
+    // LightGBM's kZeroThreshold
+    private static final double ZERO_THRESHOLD = 1e-35;
+
+    private final String version;
+    private final List<String> featureNames;
+    private final int[] roots;
+    private final int[] splitFeature;
+    private final double[] threshold;
+    private final byte[] missing;
+    private final int[] children;
+    private final double[] leafValues;
+    private final double sigmoid;
+    private final boolean averageOutput;
+
+    private TreeEnsembleModel(String version, List<String> featureNames, int[] roots, int[] splitFeature,
+                              double[] threshold, byte[] missing, int[] children, double[] leafValues,
+                              double sigmoid, boolean averageOutput) {
+        this.version = version;
+        this.featureNames = featureNames;
+        this.roots = roots;
+        this.splitFeature = splitFeature;
+        this.threshold = threshold;
+        this.missing = missing;
+        this.children = children;
+        this.leafValues = leafValues;
+        this.sigmoid = sigmoid;
+        this.averageOutput = averageOutput;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /** Names of the model's input features, in the order its feature indices refer to. */
+    public List<String> getFeatureNames() {
+        return featureNames;
+    }
+
+    public int getTreeCount() {
+        return roots.length;
+    }
+
+    public int getNodeCount() {
+        return splitFeature.length;
+    }
+
+    /** Probability for binary objectives, the raw ensemble output otherwise. */
+    public double predict(double[] features) {
+        double raw = predictRaw(features);
+        return sigmoid > 0 ? 1.0 / (1.0 + Math.exp(-sigmoid * raw)) : raw;
+    }
+
+    public double predictRaw(double[] features) {
+        double sum = 0;
+        for (int root : roots) {
+            sum += leafValues[~leafFor(root, features)];
+        }
+        return averageOutput ? sum / roots.length : sum;
+    }
+
+    private int leafFor(int node, double[] x) {
+        while (node >= 0) {
+            double v = x[splitFeature[node]];
+            byte m = missing[node];
+            int side;
+            if (m != MISSING_NONE && isMissing(v, m)) {
+                side = (m & DEFAULT_LEFT) != 0 ? 0 : 1;
+            } else {
+                side = v <= threshold[node] ? 0 : 1;
+            }
+            node = children[2 * node + side];
+        }
+        return node;
+    }
+
+    private static boolean isMissing(double v, byte m) {
+        return (m & MISSING_TYPE) == MISSING_ZERO ? Double.isNaN(v) || Math.abs(v) <= ZERO_THRESHOLD : Double.isNaN(v);
+    }
+
+    /**
+     * The same trees reading their inputs from a different vector layout: feature i of this
+     * model is read from slot slots[i] of the vectors passed to predict.
+     */
+    public TreeEnsembleModel withFeatureSlots(int[] slots) {
+        if (slots.length != featureNames.size()) {
+            throw new IllegalArgumentException("Expected " + featureNames.size() + " slots, got " + slots.length);
+        }
+        int[] remapped = new int[splitFeature.length];
+        for (int n = 0; n < splitFeature.length; n++) remapped[n] = slots[splitFeature[n]];
+        return new TreeEnsembleModel(version, featureNames, roots, remapped, threshold, missing, children,
+                leafValues, sigmoid, averageOutput);
+    }
+
+    static Builder builder(String version, List<String> featureNames) {
+        return new Builder(version, featureNames);
+    }
+
+    /** Accumulates trees node by node; parsers add each tree's splits and leaves then its root. */
+    static final class Builder {
+        private final String version;
+        private final List<String> featureNames;
+        private int[] roots = new int[16];
+        private int treeCount;
+        private int[] splitFeature = new int[256];
+        private double[] threshold = new double[256];
+        private byte[] missing = new byte[256];
+        private int[] children = new int[512];
+        private int nodeCount;
+        private double[] leafValues = new double[256];
+        private int leafCount;
+        private double sigmoid;
+        private boolean averageOutput;
+
+        private Builder(String version, List<String> featureNames) {
+            this.version = version;
+            this.featureNames = List.copyOf(featureNames);
+        }
+
+        Builder sigmoid(double sigmoid) {
+            this.sigmoid = sigmoid;
+            return this;
+        }
+
+        Builder averageOutput(boolean averageOutput) {
+            this.averageOutput = averageOutput;
+            return this;
+        }
+
+        int nodeCount() {
+            return nodeCount;
+        }
+
+        int leafCount() {
+            return leafCount;
+        }
+
+        /** Adds a split with both children unset and returns its node index. */
+        int addSplit(int feature, double splitThreshold, byte missingType, boolean defaultLeft) {
+            if (feature < 0 || feature >= featureNames.size()) {
+                throw new IllegalArgumentException("Split on feature " + feature + " but the model has "
+                        + featureNames.size() + " features");
+            }
+            if (nodeCount == splitFeature.length) {
+                int capacity = nodeCount * 2;
+                splitFeature = Arrays.copyOf(splitFeature, capacity);
+                threshold = Arrays.copyOf(threshold, capacity);
+                missing = Arrays.copyOf(missing, capacity);
+                children = Arrays.copyOf(children, capacity * 2);
+            }
+            byte mode = missingType;
+            if (missingType == MISSING_NONE && 0 <= splitThreshold) {
+                // NaN is read as 0, which goes left here: the same as a NaN split defaulting left
+                mode = MISSING_NAN;
+                defaultLeft = true;
+            }
+            if (mode != MISSING_NONE && defaultLeft) mode |= DEFAULT_LEFT;
+            splitFeature[nodeCount] = feature;
+            threshold[nodeCount] = splitThreshold;
+            missing[nodeCount] = mode;
+            return nodeCount++;
+        }
+
+        void setChildren(int node, int left, int right) {
+            children[2 * node] = left;
+            children[2 * node + 1] = right;
+        }
+
+        /** Adds a leaf and returns its child reference, ~leafIndex. */
+        int addLeaf(double value) {
+            if (leafCount == leafValues.length) leafValues = Arrays.copyOf(leafValues, leafCount * 2);
+            leafValues[leafCount] = value;
+            return ~leafCount++;
+        }
+
+        /** Adds a tree by its root: a split node index, or a leaf reference for a single-leaf tree. */
+        void addTree(int root) {
+            if (treeCount == roots.length) roots = Arrays.copyOf(roots, treeCount * 2);
+            roots[treeCount++] = root;
+        }
+
+        TreeEnsembleModel build() {
+            if (treeCount == 0) throw new IllegalArgumentException("Model has no trees");
+            // Children always come after their parent, which also guarantees every walk ends at a leaf
+            for (int i = 0; i < 2 * nodeCount; i++) {
+                int child = children[i];
+                boolean valid = child >= 0 ? child > i / 2 && child < nodeCount : ~child < leafCount;
+                if (!valid) throw new IllegalArgumentException("Node " + (i / 2) + " has an invalid child " + child);
+            }
+            return new TreeEnsembleModel(version, featureNames, Arrays.copyOf(roots, treeCount),
+                    Arrays.copyOf(splitFeature, nodeCount), Arrays.copyOf(threshold, nodeCount),
+                    Arrays.copyOf(missing, nodeCount), Arrays.copyOf(children, 2 * nodeCount),
+                    Arrays.copyOf(leafValues, leafCount), sigmoid, averageOutput);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.athena.lms.fraud.repository;
+
+import com.athena.lms.fraud.entity.ArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, UUID> {
+
+    Optional<ArchiveSegment> findByPartitionName(String partitionName);
+
+    /** Segments of a table whose range overlaps [from, to), newest first. */
+    @Query("SELECT s FROM ArchiveSegment s WHERE s.tableName = :tableName " +
+           "AND s.rangeTo > :from AND s.rangeFrom < :to ORDER BY s.rangeFrom DESC")
+    List<ArchiveSegment> findOverlapping(String tableName, OffsetDateTime from, OffsetDateTime to);
+
+    List<ArchiveSegment> findByTableNameOrderByRangeFromDesc(String tableName);
+}
@@ -4,8 +4,10 @@ import com.athena.lms.fraud.entity.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,4 +21,9 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
 
     List<AuditLog> findByTenantIdAndEntityTypeAndEntityIdOrderByCreatedAtAsc(
         String tenantId, String entityType, UUID entityId);
+
+    @Query("SELECT a FROM AuditLog a WHERE a.tenantId = :tenantId AND a.entityType = :entityType " +
+           "AND a.entityId = :entityId AND a.createdAt >= :from AND a.createdAt < :to ORDER BY a.createdAt DESC")
+    List<AuditLog> findHistory(String tenantId, String entityType, UUID entityId,
+                               OffsetDateTime from, OffsetDateTime to, Pageable pageable);
 }
@@ -5,7 +5,11 @@ import com.athena.lms.fraud.enums.RiskLevel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,4 +25,29 @@ public interface CustomerRiskProfileRepository extends JpaRepository<CustomerRis
     long countByTenantIdAndRiskLevel(String tenantId, RiskLevel riskLevel);
 
     List<CustomerRiskProfile> findAllByTenantId(String tenantId);
+
+    List<CustomerRiskProfile> findByTenantIdAndCustomerIdIn(String tenantId, Collection<String> customerIds);
+
+    // ─── Atomic counter updates (risk_score / risk_level are generated from the counters) ──
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_risk_profiles (tenant_id, customer_id, total_alerts, open_alerts, last_alert_at) " +
+                   "VALUES (:tenantId, :customerId, 1, 1, NOW()) " +
+                   "ON CONFLICT (tenant_id, customer_id) DO UPDATE SET " +
+                   "total_alerts = COALESCE(customer_risk_profiles.total_alerts, 0) + 1, " +
+                   "open_alerts = COALESCE(customer_risk_profiles.open_alerts, 0) + 1, " +
+                   "last_alert_at = NOW(), updated_at = NOW()",
+           nativeQuery = true)
+    int recordAlertRaised(@Param("tenantId") String tenantId, @Param("customerId") String customerId);
+
+    @Modifying
+    @Query(value = "UPDATE customer_risk_profiles SET " +
+                   "open_alerts = GREATEST(COALESCE(open_alerts, 0) - 1, 0), " +
+                   "confirmed_fraud = COALESCE(confirmed_fraud, 0) + :confirmedFraud, " +
+                   "false_positives = COALESCE(false_positives, 0) + :falsePositives, " +
+                   "updated_at = NOW() " +
+                   "WHERE tenant_id = :tenantId AND customer_id = :customerId",
+           nativeQuery = true)
+    int recordAlertResolved(@Param("tenantId") String tenantId, @Param("customerId") String customerId,
+                            @Param("confirmedFraud") int confirmedFraud, @Param("falsePositives") int falsePositives);
 }
@@ -6,9 +6,13 @@ import com.athena.lms.fraud.enums.AlertStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -34,23 +38,87 @@ public interface FraudAlertRepository extends JpaRepository<FraudAlert, UUID> {
            "AND a.ruleCode = :ruleCode AND a.createdAt > :since")
     long countRecentAlertsByRule(String tenantId, String customerId, String ruleCode, OffsetDateTime since);
 
-    @Query("SELECT a.ruleCode, COUNT(a) FROM FraudAlert a WHERE a.tenantId = :tenantId AND a.ruleCode IS NOT NULL GROUP BY a.ruleCode ORDER BY COUNT(a) DESC")
-    List<Object[]> countByRule(String tenantId);
-
-    @Query("SELECT a.ruleCode, COUNT(a) FROM FraudAlert a WHERE a.tenantId = :tenantId AND a.status = 'CONFIRMED_FRAUD' AND a.ruleCode IS NOT NULL GROUP BY a.ruleCode")
-    List<Object[]> countConfirmedByRule(String tenantId);
-
-    @Query("SELECT a.ruleCode, COUNT(a) FROM FraudAlert a WHERE a.tenantId = :tenantId AND a.status = 'FALSE_POSITIVE' AND a.ruleCode IS NOT NULL GROUP BY a.ruleCode")
-    List<Object[]> countFalsePositiveByRule(String tenantId);
-
-    @Query("SELECT CAST(a.createdAt AS date), COUNT(a) FROM FraudAlert a WHERE a.tenantId = :tenantId AND a.createdAt > :since GROUP BY CAST(a.createdAt AS date) ORDER BY CAST(a.createdAt AS date)")
-    List<Object[]> countByDay(String tenantId, OffsetDateTime since);
-
-    @Query("SELECT a.alertType, COUNT(a) FROM FraudAlert a WHERE a.tenantId = :tenantId AND a.createdAt > :since GROUP BY a.alertType ORDER BY COUNT(a) DESC")
-    List<Object[]> countByAlertType(String tenantId, OffsetDateTime since);
-
-    long countByTenantId(String tenantId);
-
-    @Query("SELECT COUNT(a) FROM FraudAlert a WHERE a.tenantId = :tenantId AND a.status IN ('CONFIRMED_FRAUD', 'FALSE_POSITIVE')")
-    long countResolved(String tenantId);
+    /** The latest alert for the rule and customer since the given time, or null. */
+    @Query("SELECT MAX(a.createdAt) FROM FraudAlert a WHERE a.tenantId = :tenantId AND a.customerId = :customerId " +
+           "AND a.ruleCode = :ruleCode AND a.createdAt > :since")
+    OffsetDateTime findLatestAlertAt(String tenantId, String customerId, String ruleCode, OffsetDateTime since);
+
+    @Query("SELECT a.tenantId, a.customerId, a.ruleCode, MAX(a.createdAt) FROM FraudAlert a " +
+           "WHERE a.createdAt > :since AND a.customerId IS NOT NULL AND a.ruleCode IS NOT NULL " +
+           "GROUP BY a.tenantId, a.customerId, a.ruleCode")
+    List<Object[]> findLatestAlertPerRule(OffsetDateTime since);
+
+    // ─── Analytics: daily rollups kept in step with fraud_alerts by triggers (V9) ──
+
+    /** All-time alert counts per rule code ('' when raised without a rule) and status. */
+    @Query(value = "SELECT rule_code, status, SUM(alert_count) FROM fraud_alert_rollup_totals " +
+                   "WHERE tenant_id = :tenantId GROUP BY rule_code, status HAVING SUM(alert_count) > 0",
+           nativeQuery = true)
+    List<Object[]> rollupCountByRuleAndStatus(@Param("tenantId") String tenantId);
+
+    @Query(value = "SELECT day, SUM(alert_count) FROM fraud_alert_daily_rollups " +
+                   "WHERE tenant_id = :tenantId AND day >= :since GROUP BY day HAVING SUM(alert_count) > 0 ORDER BY day",
+           nativeQuery = true)
+    List<Object[]> rollupCountByDay(@Param("tenantId") String tenantId, @Param("since") LocalDate since);
+
+    @Query(value = "SELECT alert_type, SUM(alert_count) FROM fraud_alert_daily_rollups " +
+                   "WHERE tenant_id = :tenantId AND day >= :since GROUP BY alert_type HAVING SUM(alert_count) > 0 " +
+                   "ORDER BY SUM(alert_count) DESC",
+           nativeQuery = true)
+    List<Object[]> rollupCountByAlertType(@Param("tenantId") String tenantId, @Param("since") LocalDate since);
+
+    /** Recomputes the tenant's alert rollups from fraud_alerts; returns the number of daily buckets. */
+    @Query(value = "SELECT fraud_rebuild_alert_rollups(:tenantId)", nativeQuery = true)
+    long rebuildRollups(@Param("tenantId") String tenantId);
+
+    @Query("SELECT DISTINCT a.customerId FROM FraudAlert a WHERE a.tenantId = :tenantId AND a.status = 'CONFIRMED_FRAUD' " +
+           "AND a.customerId IS NOT NULL AND a.createdAt >= :from AND a.createdAt < :to")
+    List<String> findConfirmedFraudCustomers(String tenantId, OffsetDateTime from, OffsetDateTime to);
+
+    // ─── Bulk triage: set-based updates, resolved alerts are never touched ──
+
+    @Query("SELECT a.id FROM FraudAlert a WHERE a.tenantId = :tenantId " +
+           "AND (:ruleCode IS NULL OR a.ruleCode = :ruleCode) AND (:status IS NULL OR a.status = :status) " +
+           "AND a.createdAt >= :from AND a.createdAt < :to AND a.id > :after ORDER BY a.id")
+    List<UUID> findIdsForTriage(String tenantId, String ruleCode, AlertStatus status,
+                                OffsetDateTime from, OffsetDateTime to, UUID after, Pageable pageable);
+
+    @Query("SELECT COUNT(a) FROM FraudAlert a WHERE a.tenantId = :tenantId " +
+           "AND (:ruleCode IS NULL OR a.ruleCode = :ruleCode) AND (:status IS NULL OR a.status = :status) " +
+           "AND a.createdAt >= :from AND a.createdAt < :to")
+    long countForTriage(String tenantId, String ruleCode, AlertStatus status, OffsetDateTime from, OffsetDateTime to);
+
+    @Modifying
+    @Query(value = "UPDATE fraud_alerts SET assigned_to = :assignee, status = 'UNDER_REVIEW', updated_at = NOW() " +
+                   "WHERE tenant_id = :tenantId AND id IN (:ids) AND status NOT IN ('CONFIRMED_FRAUD', 'FALSE_POSITIVE')",
+           nativeQuery = true)
+    int bulkAssign(@Param("tenantId") String tenantId, @Param("ids") Collection<UUID> ids,
+                   @Param("assignee") String assignee);
+
+    /**
+     * Resolves the unresolved alerts among ids and, in the same statement, moves each affected
+     * customer's open_alerts into confirmed_fraud or false_positives by the number of their
+     * alerts resolved. Returns the number of alerts resolved.
+     */
+    @Modifying
+    @Query(value = "WITH targets AS (" +
+                   "  SELECT id, customer_id FROM fraud_alerts " +
+                   "  WHERE tenant_id = :tenantId AND id IN (:ids) AND status NOT IN ('CONFIRMED_FRAUD', 'FALSE_POSITIVE') " +
+                   "  FOR UPDATE" +
+                   "), profiles AS (" +
+                   "  UPDATE customer_risk_profiles p SET " +
+                   "    open_alerts = GREATEST(COALESCE(p.open_alerts, 0) - t.n, 0), " +
+                   "    confirmed_fraud = COALESCE(p.confirmed_fraud, 0) + :confirmedFraud * t.n, " +
+                   "    false_positives = COALESCE(p.false_positives, 0) + (1 - :confirmedFraud) * t.n, " +
+                   "    updated_at = NOW() " +
+                   "  FROM (SELECT customer_id, COUNT(*) AS n FROM targets WHERE customer_id IS NOT NULL GROUP BY customer_id) t " +
+                   "  WHERE p.tenant_id = :tenantId AND p.customer_id = t.customer_id" +
+                   ") " +
+                   "UPDATE fraud_alerts a SET status = :status, resolution = :status, resolved_by = :resolvedBy, " +
+                   "resolved_at = NOW(), resolution_notes = :notes, updated_at = NOW() " +
+                   "FROM targets t WHERE a.id = t.id",
+           nativeQuery = true)
+    int bulkResolve(@Param("tenantId") String tenantId, @Param("ids") Collection<UUID> ids,
+                    @Param("status") String status, @Param("confirmedFraud") int confirmedFraud,
+                    @Param("resolvedBy") String resolvedBy, @Param("notes") String notes);
 }
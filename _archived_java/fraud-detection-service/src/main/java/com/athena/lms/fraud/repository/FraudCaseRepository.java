@@ -22,9 +22,6 @@ public interface FraudCaseRepository extends JpaRepository<FraudCase, UUID> {
     Optional<FraudCase> findByTenantIdAndCaseNumber(String tenantId, String caseNumber);
     long countByTenantIdAndStatus(String tenantId, CaseStatus status);
 
-    @Query("SELECT COALESCE(MAX(CAST(SUBSTRING(c.caseNumber, 5) AS int)), 0) FROM FraudCase c WHERE c.tenantId = :tenantId")
-    int findMaxCaseNumber(String tenantId);
-
     @Query("SELECT COUNT(c) FROM FraudCase c WHERE c.tenantId = :tenantId AND c.status NOT LIKE 'CLOSED%'")
     long countActiveCases(String tenantId);
 
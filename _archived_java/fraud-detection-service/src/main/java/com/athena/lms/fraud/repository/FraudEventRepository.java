@@ -1,11 +1,17 @@
 package com.athena.lms.fraud.repository;
 
 import com.athena.lms.fraud.entity.FraudEvent;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface FraudEventRepository extends JpaRepository<FraudEvent, UUID> {
 
@@ -15,4 +21,16 @@ public interface FraudEventRepository extends JpaRepository<FraudEvent, UUID> {
             String tenantId, String customerId, Pageable pageable);
 
     Page<FraudEvent> findByTenantId(String tenantId, Pageable pageable);
+
+    @Query("SELECT e FROM FraudEvent e WHERE e.tenantId = :tenantId AND e.customerId = :customerId " +
+           "AND e.processedAt >= :from AND e.processedAt < :to ORDER BY e.processedAt DESC")
+    List<FraudEvent> findHistory(String tenantId, String customerId, OffsetDateTime from, OffsetDateTime to,
+                                 Pageable pageable);
+
+    // Projection for rule backtests, in processing order; must be consumed inside a transaction
+    @Query("SELECT e.customerId, e.eventType, e.payload, e.processedAt FROM FraudEvent e " +
+           "WHERE e.tenantId = :tenantId AND e.processedAt >= :from AND e.processedAt < :to " +
+           "ORDER BY e.processedAt")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    Stream<Object[]> streamForReplay(String tenantId, OffsetDateTime from, OffsetDateTime to);
 }
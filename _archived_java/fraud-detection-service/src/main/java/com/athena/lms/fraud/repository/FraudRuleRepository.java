@@ -14,6 +14,12 @@ public interface FraudRuleRepository extends JpaRepository<FraudRule, UUID> {
            "AND r.enabled = true ORDER BY r.category, r.ruleCode")
     List<FraudRule> findActiveRules(String tenantId);
 
+    @Query("SELECT r FROM FraudRule r WHERE r.enabled = true ORDER BY r.category, r.ruleCode")
+    List<FraudRule> findAllActiveRules();
+
+    @Query(value = "SELECT version FROM fraud_rule_config WHERE id = 1", nativeQuery = true)
+    long currentConfigVersion();
+
     Optional<FraudRule> findByTenantIdAndRuleCode(String tenantId, String ruleCode);
 
     List<FraudRule> findByTenantIdOrTenantId(String tenantId, String global);
@@ -1,12 +1,17 @@
 package com.athena.lms.fraud.repository;
 
 import com.athena.lms.fraud.entity.NetworkLink;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface NetworkLinkRepository extends JpaRepository<NetworkLink, UUID> {
@@ -21,4 +26,33 @@ public interface NetworkLinkRepository extends JpaRepository<NetworkLink, UUID>
 
     boolean existsByTenantIdAndCustomerIdAAndCustomerIdBAndLinkType(
         String tenantId, String customerIdA, String customerIdB, String linkType);
+
+    long countByTenantId(String tenantId);
+
+    // Projection for LinkGraph loading; must be consumed inside a transaction
+    @Query("SELECT n.customerIdA, n.customerIdB, n.linkType, n.linkValue, n.strength, n.flagged " +
+           "FROM NetworkLink n WHERE n.tenantId = :tenantId")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    Stream<Object[]> streamGraphLinks(String tenantId);
+
+    @Query("SELECT DISTINCT n.tenantId FROM NetworkLink n")
+    List<String> findTenantIds();
+
+    // ─── Attribute sightings (LinkGraph keeps the recent ones in memory) ─────────
+
+    @Modifying
+    @Query(value = "INSERT INTO fraud_attribute_sightings (tenant_id, link_type, link_value, customer_id) " +
+                   "VALUES (:tenantId, :linkType, :linkValue, :customerId) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int recordSighting(@Param("tenantId") String tenantId, @Param("linkType") String linkType,
+                       @Param("linkValue") String linkValue, @Param("customerId") String customerId);
+
+    /** Other customers seen with the value, first seen first. */
+    @Query(value = "SELECT customer_id FROM fraud_attribute_sightings " +
+                   "WHERE tenant_id = :tenantId AND link_type = :linkType AND link_value = :linkValue " +
+                   "AND customer_id <> :customerId ORDER BY first_seen_at, customer_id LIMIT :limit",
+           nativeQuery = true)
+    List<String> findSightings(@Param("tenantId") String tenantId, @Param("linkType") String linkType,
+                               @Param("linkValue") String linkValue, @Param("customerId") String customerId,
+                               @Param("limit") int limit);
 }
@@ -25,7 +25,4 @@ public interface SarReportRepository extends JpaRepository<SarReport, UUID> {
     Page<SarReport> findByTenantIdAndReportType(String tenantId, SarReportType type, Pageable pageable);
 
     long countByTenantIdAndStatus(String tenantId, SarStatus status);
-
-    @Query("SELECT COALESCE(MAX(CAST(SUBSTRING(s.reportNumber, 5) AS int)), 0) FROM SarReport s WHERE s.tenantId = :tenantId")
-    int findMaxReportNumber(String tenantId);
 }
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,16 +18,25 @@ public interface ScoringHistoryRepository extends JpaRepository<ScoringHistory,
 
     Page<ScoringHistory> findByTenantIdAndCustomerId(String tenantId, String customerId, Pageable pageable);
 
-    long countByTenantIdAndRiskLevel(String tenantId, String riskLevel);
+    @Query("SELECT s FROM ScoringHistory s WHERE s.tenantId = :tenantId AND s.customerId = :customerId " +
+           "AND s.createdAt >= :from AND s.createdAt < :to ORDER BY s.createdAt DESC")
+    List<ScoringHistory> findHistory(String tenantId, String customerId, OffsetDateTime from, OffsetDateTime to,
+                                     Pageable pageable);
 
-    @Query("SELECT sh.riskLevel, AVG(sh.mlScore) FROM ScoringHistory sh " +
-           "WHERE sh.tenantId = :tenantId GROUP BY sh.riskLevel")
-    List<Object[]> averageScoreByRiskLevel(@Param("tenantId") String tenantId);
+    // ─── Analytics: daily rollups kept in step with scoring_history by triggers (V9) ──
 
-    @Query(value = "SELECT CAST(created_at AS DATE) AS day, COUNT(*) AS volume " +
-                   "FROM scoring_history WHERE tenant_id = :tenantId " +
-                   "AND created_at >= CURRENT_DATE - CAST(:days || ' days' AS INTERVAL) " +
-                   "GROUP BY CAST(created_at AS DATE) ORDER BY day",
+    /** All-time score count and score sum per risk level. */
+    @Query(value = "SELECT risk_level, score_count, score_sum FROM scoring_rollup_totals " +
+                   "WHERE tenant_id = :tenantId AND score_count > 0",
            nativeQuery = true)
-    List<Object[]> scoringVolumePerDay(@Param("tenantId") String tenantId, @Param("days") int days);
+    List<Object[]> rollupByRiskLevel(@Param("tenantId") String tenantId);
+
+    @Query(value = "SELECT day, SUM(score_count) FROM scoring_daily_rollups " +
+                   "WHERE tenant_id = :tenantId AND day >= :since GROUP BY day HAVING SUM(score_count) > 0 ORDER BY day",
+           nativeQuery = true)
+    List<Object[]> rollupVolumePerDay(@Param("tenantId") String tenantId, @Param("since") LocalDate since);
+
+    /** Recomputes the tenant's scoring rollups from scoring_history; returns the number of daily buckets. */
+    @Query(value = "SELECT fraud_rebuild_scoring_rollups(:tenantId)", nativeQuery = true)
+    long rebuildRollups(@Param("tenantId") String tenantId);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,4 +24,17 @@ public interface VelocityCounterRepository extends JpaRepository<VelocityCounter
            "WHERE v.tenantId = :tenantId AND v.customerId = :customerId " +
            "AND v.counterType = :counterType AND v.windowEnd > :since")
     BigDecimal sumAmountSince(String tenantId, String customerId, String counterType, OffsetDateTime since);
+
+    /**
+     * Per counter type: count and amount of buckets ending at or after recentSince, then of
+     * buckets ending at or after since. One round trip for the ML feature vector.
+     */
+    @Query("SELECT v.counterType, " +
+           "COALESCE(SUM(CASE WHEN v.windowEnd >= :recentSince THEN v.count ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN v.windowEnd >= :recentSince THEN v.totalAmount ELSE 0 END), 0), " +
+           "COALESCE(SUM(v.count), 0), COALESCE(SUM(v.totalAmount), 0) FROM VelocityCounter v " +
+           "WHERE v.tenantId = :tenantId AND v.customerId = :customerId AND v.windowEnd >= :since " +
+           "GROUP BY v.counterType")
+    List<Object[]> sumByCounterTypeSince(String tenantId, String customerId,
+                                         OffsetDateTime recentSince, OffsetDateTime since);
 }
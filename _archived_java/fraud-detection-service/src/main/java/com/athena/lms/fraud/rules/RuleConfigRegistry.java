@@ -0,0 +1,179 @@
+package com.athena.lms.fraud.rules;
+
+import com.athena.lms.fraud.config.FraudThresholdConfig;
+import com.athena.lms.fraud.entity.FraudRule;
+import com.athena.lms.fraud.enums.AlertSeverity;
+import com.athena.lms.fraud.enums.RuleCategory;
+import com.athena.lms.fraud.event.FraudEventPublisher;
+import com.athena.lms.fraud.repository.FraudRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the rule configuration snapshot this replica evaluates with, so rule evaluation never
+ * reads fraud_rules. The first snapshot is loaded on first use. A rule change builds the new
+ * snapshot inside its own transaction, installs it once that commits and broadcasts it on
+ * fraud.rules.config, where every other replica installs it from its own queue. A snapshot
+ * replaces the current one only if its version is newer, so late or repeated broadcasts are
+ * harmless; a periodic check of the version row reloads a replica that missed one.
+ */
+@Component
+@Slf4j
+public class RuleConfigRegistry {
+
+    private final FraudRuleRepository ruleRepository;
+    private final FraudThresholdConfig thresholdConfig;
+    private final FraudEventPublisher eventPublisher;
+    private final TransactionTemplate readTransaction;
+    private final AtomicReference<RuleConfigSnapshot> current = new AtomicReference<>();
+
+    public RuleConfigRegistry(FraudRuleRepository ruleRepository, FraudThresholdConfig thresholdConfig,
+                              FraudEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.ruleRepository = ruleRepository;
+        this.thresholdConfig = thresholdConfig;
+        this.eventPublisher = eventPublisher;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // version and rules must come from the same database snapshot
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public RuleConfigSnapshot current() {
+        RuleConfigSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : loadFirst();
+    }
+
+    private synchronized RuleConfigSnapshot loadFirst() {
+        RuleConfigSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : install(load());
+    }
+
+    /**
+     * To be called in the transaction that changed fraud_rules, after the change is flushed:
+     * reads the configuration that transaction will commit and, once it has committed, installs
+     * it here and broadcasts it to the other replicas.
+     */
+    public void publishAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            installAndBroadcast(load());
+            return;
+        }
+        RuleConfigSnapshot snapshot = build();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                installAndBroadcast(snapshot);
+            }
+        });
+    }
+
+    /** Installs a snapshot broadcast by another replica (or this one). */
+    public void apply(Map<?, ?> payload) {
+        install(fromPayload(payload));
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.rules.version-check-interval-ms:30000}",
+               initialDelayString = "${fraud.rules.version-check-interval-ms:30000}")
+    public void reloadIfStale() {
+        RuleConfigSnapshot snapshot = current.get();
+        if (snapshot == null) return;
+        try {
+            long version = ruleRepository.currentConfigVersion();
+            if (version > snapshot.getVersion()) {
+                log.warn("Rule configuration v{} is behind the database (v{}), reloading", snapshot.getVersion(), version);
+                install(load());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rule configuration version check failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> status() {
+        RuleConfigSnapshot snapshot = current();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("version", snapshot.getVersion());
+        status.put("builtAt", snapshot.getBuiltAt());
+        status.put("enabledRules", snapshot.getRules().size());
+        status.put("tenantsWithOwnRules", snapshot.getTenantCount());
+        return status;
+    }
+
+    // ─── Snapshots ───────────────────────────────────────────────────────────────
+
+    private RuleConfigSnapshot load() {
+        return readTransaction.execute(status -> build());
+    }
+
+    private RuleConfigSnapshot build() {
+        long version = ruleRepository.currentConfigVersion();
+        return RuleConfigSnapshot.of(version, ruleRepository.findAllActiveRules(), thresholdConfig);
+    }
+
+    /** Swaps the snapshot in if it is newer than the current one; returns whichever is current after. */
+    RuleConfigSnapshot install(RuleConfigSnapshot candidate) {
+        RuleConfigSnapshot installed = current.accumulateAndGet(candidate,
+                (existing, next) -> existing == null || next.getVersion() > existing.getVersion() ? next : existing);
+        if (installed == candidate) {
+            log.info("Installed rule configuration v{} ({} enabled rules)", candidate.getVersion(), candidate.getRules().size());
+        }
+        return installed;
+    }
+
+    private void installAndBroadcast(RuleConfigSnapshot snapshot) {
+        if (install(snapshot) == snapshot) {
+            eventPublisher.publishRuleConfig(toPayload(snapshot));
+        }
+    }
+
+    // ─── Broadcast payload ───────────────────────────────────────────────────────
+
+    static Map<String, Object> toPayload(RuleConfigSnapshot snapshot) {
+        List<Map<String, Object>> rules = new ArrayList<>();
+        for (FraudRule rule : snapshot.getRules()) {
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("id", rule.getId() != null ? rule.getId().toString() : null);
+            r.put("tenantId", rule.getTenantId());
+            r.put("ruleCode", rule.getRuleCode());
+            r.put("ruleName", rule.getRuleName());
+            r.put("category", rule.getCategory().name());
+            r.put("severity", rule.getSeverity().name());
+            r.put("eventTypes", rule.getEventTypes());
+            r.put("parameters", rule.getParameters());
+            rules.add(r);
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("version", snapshot.getVersion());
+        payload.put("rules", rules);
+        return payload;
+    }
+
+    @SuppressWarnings("unchecked")
+    RuleConfigSnapshot fromPayload(Map<?, ?> payload) {
+        long version = ((Number) payload.get("version")).longValue();
+        List<FraudRule> rules = new ArrayList<>();
+        for (Object item : (List<?>) payload.get("rules")) {
+            Map<String, Object> r = (Map<String, Object>) item;
+            rules.add(FraudRule.builder()
+                    .id(r.get("id") != null ? UUID.fromString((String) r.get("id")) : null)
+                    .tenantId((String) r.get("tenantId"))
+                    .ruleCode((String) r.get("ruleCode"))
+                    .ruleName((String) r.get("ruleName"))
+                    .category(RuleCategory.valueOf((String) r.get("category")))
+                    .severity(AlertSeverity.valueOf((String) r.get("severity")))
+                    .eventTypes((String) r.get("eventTypes"))
+                    .enabled(true)
+                    .parameters(r.get("parameters") != null ? (Map<String, Object>) r.get("parameters") : Map.of())
+                    .build());
+        }
+        return RuleConfigSnapshot.of(version, rules, thresholdConfig);
+    }
+}
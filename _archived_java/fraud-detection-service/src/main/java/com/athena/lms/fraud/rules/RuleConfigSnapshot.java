@@ -0,0 +1,108 @@
+package com.athena.lms.fraud.rules;
+
+import com.athena.lms.fraud.config.FraudThresholdConfig;
+import com.athena.lms.fraud.entity.FraudRule;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * The rule configuration at one version: every enabled rule, pre-grouped into the ordered list
+ * each tenant evaluates (its own rules merged with the global '*' rules, by category then code,
+ * as findActiveRules returned them), and a frozen copy of the threshold defaults. Snapshots are
+ * shared by all evaluating threads and never modified after construction.
+ */
+public final class RuleConfigSnapshot {
+
+    public static final String GLOBAL_TENANT = "*";
+
+    private static final Comparator<FraudRule> EVALUATION_ORDER =
+            Comparator.comparing((FraudRule r) -> r.getCategory().name()).thenComparing(FraudRule::getRuleCode);
+
+    private final long version;
+    private final Instant builtAt;
+    private final FraudThresholdConfig thresholds;
+    private final List<FraudRule> rules;
+    private final List<FraudRule> globalRules;
+    private final Map<String, List<FraudRule>> rulesByTenant;
+
+    private RuleConfigSnapshot(long version, List<FraudRule> rules, FraudThresholdConfig thresholds) {
+        this.version = version;
+        this.builtAt = Instant.now();
+        this.thresholds = thresholds;
+        this.rules = rules;
+
+        Map<String, List<FraudRule>> own = new HashMap<>();
+        List<FraudRule> global = new ArrayList<>();
+        for (FraudRule rule : rules) {
+            if (GLOBAL_TENANT.equals(rule.getTenantId())) {
+                global.add(rule);
+            } else {
+                own.computeIfAbsent(rule.getTenantId(), k -> new ArrayList<>()).add(rule);
+            }
+        }
+        global.sort(EVALUATION_ORDER);
+        this.globalRules = List.copyOf(global);
+
+        Map<String, List<FraudRule>> byTenant = new HashMap<>();
+        own.forEach((tenantId, tenantRules) -> {
+            tenantRules.addAll(global);
+            tenantRules.sort(EVALUATION_ORDER);
+            byTenant.put(tenantId, List.copyOf(tenantRules));
+        });
+        this.rulesByTenant = Map.copyOf(byTenant);
+    }
+
+    /** Builds a snapshot from the enabled rules among the given ones; the rules are copied. */
+    public static RuleConfigSnapshot of(long version, Collection<FraudRule> rules, FraudThresholdConfig thresholds) {
+        List<FraudRule> enabled = rules.stream()
+                .filter(rule -> Boolean.TRUE.equals(rule.getEnabled()))
+                .map(RuleConfigSnapshot::detach)
+                .toList();
+        return new RuleConfigSnapshot(version, enabled, thresholds.copy());
+    }
+
+    /** The rules a tenant's events are evaluated against, in evaluation order. */
+    public List<FraudRule> rulesFor(String tenantId) {
+        return rulesByTenant.getOrDefault(tenantId, globalRules);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public FraudThresholdConfig getThresholds() {
+        return thresholds;
+    }
+
+    /** Every enabled rule in the snapshot, global and tenant-specific. */
+    public List<FraudRule> getRules() {
+        return rules;
+    }
+
+    public int getTenantCount() {
+        return rulesByTenant.size();
+    }
+
+    private static FraudRule detach(FraudRule rule) {
+        return FraudRule.builder()
+                .id(rule.getId())
+                .tenantId(rule.getTenantId())
+                .ruleCode(rule.getRuleCode())
+                .ruleName(rule.getRuleName())
+                .description(rule.getDescription())
+                .category(rule.getCategory())
+                .severity(rule.getSeverity())
+                .eventTypes(rule.getEventTypes())
+                .enabled(true)
+                .parameters(rule.getParameters() != null
+                        ? Collections.unmodifiableMap(new LinkedHashMap<>(rule.getParameters())) : Map.of())
+                .createdAt(rule.getCreatedAt())
+                .updatedAt(rule.getUpdatedAt())
+                .build();
+    }
+}
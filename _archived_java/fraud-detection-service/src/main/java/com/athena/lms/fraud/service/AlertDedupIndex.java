@@ -0,0 +1,148 @@
+package com.athena.lms.fraud.service;
+
+import com.athena.lms.fraud.repository.FraudAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each (tenant, customer, rule) last raised an alert so duplicates inside a
+ * rule's window are dropped without a count query per alert. tryClaim is atomic per key:
+ * of several listener threads racing on the same burst exactly one wins. A claim made inside
+ * a transaction is released if that transaction rolls back, so a failed save does not
+ * silence the rule for the whole window.
+ *
+ * The index is per instance and warmed from the last retention-hours of alerts at startup;
+ * entries older than that are evicted. A key the index has no live entry for is checked
+ * against fraud_alerts before it is claimed, so an alert raised by another instance (or
+ * before this one was warmed) still suppresses the duplicate; only repeats this instance
+ * has already seen skip the query.
+ */
+@Component
+@Slf4j
+public class AlertDedupIndex {
+
+    static final String SUPPRESSED_METRIC = "fraud.alerts.suppressed";
+
+    private final FraudAlertRepository alertRepository;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Duration retention;
+
+    // key -> epoch millis of the last alert raised for it
+    private final Map<DedupKey, Long> lastRaised = new ConcurrentHashMap<>();
+    private final Map<String, Counter> suppressedByRule = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AlertDedupIndex(FraudAlertRepository alertRepository, MeterRegistry meterRegistry,
+                           @Value("${fraud.dedup.retention-hours:24}") long retentionHours) {
+        this(alertRepository, meterRegistry, Clock.systemUTC(), Duration.ofHours(retentionHours));
+    }
+
+    AlertDedupIndex(FraudAlertRepository alertRepository, MeterRegistry meterRegistry,
+                    Clock clock, Duration retention) {
+        this.alertRepository = alertRepository;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.retention = retention;
+    }
+
+    /**
+     * Claims the right to raise an alert for this rule and customer. Returns false (and counts
+     * a suppressed duplicate) when one was raised less than window ago. Alerts without a
+     * customer are never deduplicated.
+     */
+    public boolean tryClaim(String tenantId, String customerId, String ruleCode, Duration window) {
+        if (customerId == null || ruleCode == null) return true;
+
+        DedupKey key = new DedupKey(tenantId, customerId, ruleCode);
+        long now = clock.millis();
+        long cutoff = now - window.toMillis();
+        Long known = lastRaised.get(key);
+        if (known == null || known <= cutoff) {
+            OffsetDateTime raised = alertRepository.findLatestAlertAt(tenantId, customerId, ruleCode,
+                    OffsetDateTime.ofInstant(Instant.ofEpochMilli(cutoff), clock.getZone()));
+            if (raised != null) lastRaised.merge(key, raised.toInstant().toEpochMilli(), Math::max);
+        }
+        boolean[] claimed = {false};
+        lastRaised.compute(key, (k, last) -> {
+            if (last != null && last > cutoff) return last;
+            claimed[0] = true;
+            return now;
+        });
+
+        if (!claimed[0]) {
+            suppressed(ruleCode).increment();
+            log.debug("Suppressed duplicate alert: rule={} customer={}", ruleCode, customerId);
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) release(key, now);
+                }
+            });
+        }
+        return true;
+    }
+
+    public int size() {
+        return lastRaised.size();
+    }
+
+    // ─── Warm-up & Eviction ──────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        OffsetDateTime since = OffsetDateTime.now(clock).minus(retention);
+        List<Object[]> rows = alertRepository.findLatestAlertPerRule(since);
+        for (Object[] row : rows) {
+            DedupKey key = new DedupKey((String) row[0], (String) row[1], (String) row[2]);
+            long raisedAt = ((OffsetDateTime) row[3]).toInstant().toEpochMilli();
+            lastRaised.merge(key, raisedAt, Math::max);
+        }
+        log.info("Alert dedup index warmed with {} entries from alerts since {}", rows.size(), since);
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.dedup.evict-interval-ms:300000}")
+    public void evictExpired() {
+        long cutoff = clock.millis() - retention.toMillis();
+        int before = lastRaised.size();
+        lastRaised.values().removeIf(last -> last <= cutoff);
+        int evicted = before - lastRaised.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired alert dedup entries", evicted);
+        }
+    }
+
+    private void release(DedupKey key, long claimedAt) {
+        // Only undo our own claim, not a newer one made after it
+        lastRaised.remove(key, claimedAt);
+    }
+
+    private Counter suppressed(String ruleCode) {
+        return suppressedByRule.computeIfAbsent(ruleCode, rule -> Counter.builder(SUPPRESSED_METRIC)
+                .description("Alerts dropped as duplicates of one raised within the rule's window")
+                .tag("rule", rule)
+                .register(meterRegistry));
+    }
+
+    private record DedupKey(String tenantId, String customerId, String ruleCode) {}
+}
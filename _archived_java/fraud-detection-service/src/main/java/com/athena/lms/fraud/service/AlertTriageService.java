@@ -0,0 +1,241 @@
+package com.athena.lms.fraud.service;
+
+import com.athena.lms.common.exception.BusinessException;
+import com.athena.lms.common.exception.ResourceNotFoundException;
+import com.athena.lms.fraud.dto.request.BulkAlertActionRequest;
+import com.athena.lms.fraud.dto.response.BulkTriageJobResponse;
+import com.athena.lms.fraud.enums.AlertStatus;
+import com.athena.lms.fraud.repository.FraudAlertRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bulk alert triage. Alerts are picked by id or by filter (rule code, status, creation range)
+ * and updated a chunk at a time, each chunk in one set-based statement: a resolve also moves
+ * the affected customers' risk profile counters in that statement, grouped per customer. Alerts
+ * already resolved are skipped, so re-running a triage is harmless.
+ *
+ * Up to sync-limit alerts are handled within the request. Larger sets run on a background
+ * thread and are followed through the returned job, which this instance keeps in memory for
+ * job-retention-minutes after it finishes.
+ */
+@Service
+@Slf4j
+public class AlertTriageService {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final OffsetDateTime OPEN_START = OffsetDateTime.parse("1970-01-01T00:00:00Z");
+    private static final OffsetDateTime OPEN_END = OffsetDateTime.parse("9999-12-31T00:00:00Z");
+
+    private final FraudAlertRepository alertRepository;
+    private final TransactionTemplate transaction;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fraud-alert-triage");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    @Value("${fraud.triage.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${fraud.triage.sync-limit:2000}")
+    private int syncLimit = 2000;
+
+    @Value("${fraud.triage.job-retention-minutes:60}")
+    private long jobRetentionMinutes = 60;
+
+    public AlertTriageService(FraudAlertRepository alertRepository, PlatformTransactionManager transactionManager) {
+        this.alertRepository = alertRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkTriageJobResponse assign(String tenantId, BulkAlertActionRequest request, String assignee) {
+        if (assignee == null || assignee.isBlank()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "assignee is required");
+        }
+        return start(tenantId, "ASSIGN", request,
+                ids -> alertRepository.bulkAssign(tenantId, ids, assignee));
+    }
+
+    public BulkTriageJobResponse resolve(String tenantId, BulkAlertActionRequest request, boolean confirmedFraud) {
+        AlertStatus status = confirmedFraud ? AlertStatus.CONFIRMED_FRAUD : AlertStatus.FALSE_POSITIVE;
+        return start(tenantId, "RESOLVE_" + status.name(), request,
+                ids -> alertRepository.bulkResolve(tenantId, ids, status.name(), confirmedFraud ? 1 : 0,
+                        request.getPerformedBy(), request.getNotes()));
+    }
+
+    public BulkTriageJobResponse getJob(UUID jobId, String tenantId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.tenantId.equals(tenantId)) {
+            throw new ResourceNotFoundException("Triage job not found: " + jobId);
+        }
+        return job.toResponse();
+    }
+
+    // ─── Execution ───────────────────────────────────────────────────────────────
+
+    private BulkTriageJobResponse start(String tenantId, String action, BulkAlertActionRequest request,
+                                        Function<List<UUID>, Integer> update) {
+        boolean byIds = request.getAlertIds() != null && !request.getAlertIds().isEmpty();
+        if (byIds == (request.getFilter() != null)) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Provide either alertIds or a filter");
+        }
+
+        ChunkSource source = byIds ? new IdChunks(List.copyOf(request.getAlertIds())) : new FilterChunks(tenantId, request.getFilter());
+        Job job = new Job(tenantId, action, source.total());
+        evictFinishedJobs();
+
+        if (job.total <= syncLimit) {
+            run(job, source, update);
+        } else {
+            jobs.put(job.id, job);
+            executor.submit(() -> run(job, source, update));
+            log.info("Started bulk {} job {} for {} alerts, tenant={}", action, job.id, job.total, tenantId);
+        }
+        return job.toResponse();
+    }
+
+    private void run(Job job, ChunkSource source, Function<List<UUID>, Integer> update) {
+        try {
+            for (List<UUID> chunk = source.next(); !chunk.isEmpty(); chunk = source.next()) {
+                List<UUID> ids = chunk;
+                Integer updated = transaction.execute(status -> update.apply(ids));
+                job.processed.addAndGet(ids.size());
+                job.updated.addAndGet(updated != null ? updated : 0);
+            }
+            job.finish(COMPLETED, null);
+            log.info("Bulk {} for tenant={}: {} of {} alerts updated", job.action, job.tenantId, job.updated, job.total);
+        } catch (RuntimeException e) {
+            job.finish(FAILED, e.getMessage());
+            log.error("Bulk {} job {} failed after {} alerts: {}", job.action, job.id, job.processed, e.getMessage());
+        }
+    }
+
+    private void evictFinishedJobs() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(Duration.ofMinutes(jobRetentionMinutes));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private interface ChunkSource {
+        long total();
+
+        /** The next chunk of alert ids, empty when done. */
+        List<UUID> next();
+    }
+
+    private final class IdChunks implements ChunkSource {
+        private final List<UUID> ids;
+        private int offset;
+
+        IdChunks(List<UUID> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public long total() {
+            return ids.size();
+        }
+
+        @Override
+        public List<UUID> next() {
+            List<UUID> chunk = ids.subList(offset, Math.min(offset + chunkSize, ids.size()));
+            offset += chunk.size();
+            return chunk;
+        }
+    }
+
+    /** Walks the filter's matches in id order, so alerts the update still matches are not revisited. */
+    private final class FilterChunks implements ChunkSource {
+        private final String tenantId;
+        private final String ruleCode;
+        private final AlertStatus status;
+        private final OffsetDateTime from;
+        private final OffsetDateTime to;
+        private UUID after = FIRST_ID;
+
+        FilterChunks(String tenantId, BulkAlertActionRequest.AlertFilter filter) {
+            this.tenantId = tenantId;
+            this.ruleCode = filter.getRuleCode() == null || filter.getRuleCode().isBlank() ? null : filter.getRuleCode();
+            this.status = filter.getStatus();
+            this.from = filter.getFrom() != null ? filter.getFrom() : OPEN_START;
+            this.to = filter.getTo() != null ? filter.getTo() : OPEN_END;
+            if (!to.isAfter(from)) {
+                throw new BusinessException(HttpStatus.BAD_REQUEST, "Filter range end must be after its start");
+            }
+        }
+
+        @Override
+        public long total() {
+            return alertRepository.countForTriage(tenantId, ruleCode, status, from, to);
+        }
+
+        @Override
+        public List<UUID> next() {
+            List<UUID> chunk = alertRepository.findIdsForTriage(tenantId, ruleCode, status, from, to, after,
+                    PageRequest.of(0, chunkSize));
+            if (!chunk.isEmpty()) after = chunk.get(chunk.size() - 1);
+            return new ArrayList<>(chunk);
+        }
+    }
+
+    private static final class Job {
+        private final UUID id = UUID.randomUUID();
+        private final String tenantId;
+        private final String action;
+        private final long total;
+        private final OffsetDateTime startedAt = OffsetDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private volatile String status = RUNNING;
+        private volatile String error;
+        private volatile OffsetDateTime finishedAt;
+
+        Job(String tenantId, String action, long total) {
+            this.tenantId = tenantId;
+            this.action = action;
+            this.total = total;
+        }
+
+        void finish(String finalStatus, String failure) {
+            error = failure;
+            finishedAt = OffsetDateTime.now();
+            status = finalStatus;
+        }
+
+        BulkTriageJobResponse toResponse() {
+            BulkTriageJobResponse resp = new BulkTriageJobResponse();
+            resp.setJobId(id);
+            resp.setAction(action);
+            resp.setStatus(status);
+            resp.setTotal(total);
+            resp.setProcessed(processed.get());
+            resp.setUpdated(updated.get());
+            resp.setStartedAt(startedAt);
+            resp.setFinishedAt(finishedAt);
+            resp.setError(error);
+            return resp;
+        }
+    }
+}
@@ -87,13 +87,8 @@ public class AutoActionService {
             if (value == null) continue;
             String linkValue = value.toString();
 
-            var existingLinks = networkAnalysisService.findByLinkValue(tenantId, attr.getValue(), linkValue);
-            Set<String> linkedCustomers = new HashSet<>();
-            for (var link : existingLinks) {
-                linkedCustomers.add(link.getCustomerIdA());
-                linkedCustomers.add(link.getCustomerIdB());
-            }
-            linkedCustomers.remove(customerId);
+            List<String> linkedCustomers = networkAnalysisService.customersSharingAttribute(
+                    tenantId, customerId, attr.getValue(), linkValue);
 
             for (String otherCustomer : linkedCustomers) {
                 networkAnalysisService.recordLink(tenantId, customerId, otherCustomer, attr.getValue(), linkValue);
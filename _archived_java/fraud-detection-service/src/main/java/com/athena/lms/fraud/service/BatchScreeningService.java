@@ -9,7 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.OffsetDateTime;
+import java.time.Duration;
 import java.util.*;
 
 @Service
@@ -17,10 +17,14 @@ import java.util.*;
 @Slf4j
 public class BatchScreeningService {
 
+    private static final String WATCHLIST_RULE = "WATCHLIST_SCREEN";
+    private static final Duration WATCHLIST_DEDUP_WINDOW = Duration.ofHours(24);
+
     private final WatchlistRepository watchlistRepository;
     private final CustomerRiskProfileRepository customerRiskProfileRepository;
     private final FraudAlertRepository fraudAlertRepository;
     private final CaseManagementService caseManagementService;
+    private final AlertDedupIndex alertDedupIndex;
 
     @Transactional
     public BatchScreeningResult screenAllCustomers(String tenantId) {
@@ -38,21 +42,15 @@ public class BatchScreeningService {
                 matchedCustomerIds.add(profile.getCustomerId());
 
                 for (WatchlistEntry match : matches) {
-                    // Check if a WATCHLIST_MATCH alert already exists for this customer (open)
-                    long existingAlerts = fraudAlertRepository.countOpenAlertsByCustomer(tenantId, profile.getCustomerId());
-                    // Also check recent watchlist alerts specifically
-                    long recentWatchlistAlerts = fraudAlertRepository.countRecentAlertsByRule(
-                            tenantId, profile.getCustomerId(), "WATCHLIST_SCREEN",
-                            OffsetDateTime.now().minusHours(24));
-
-                    if (recentWatchlistAlerts == 0) {
+                    // Skip if a watchlist alert was already raised for this customer in the last 24h
+                    if (alertDedupIndex.tryClaim(tenantId, profile.getCustomerId(), WATCHLIST_RULE, WATCHLIST_DEDUP_WINDOW)) {
                         FraudAlert alert = FraudAlert.builder()
                                 .tenantId(tenantId)
                                 .alertType(AlertType.WATCHLIST_MATCH)
                                 .severity(AlertSeverity.HIGH)
                                 .status(AlertStatus.OPEN)
                                 .source(AlertSource.WATCHLIST)
-                                .ruleCode("WATCHLIST_SCREEN")
+                                .ruleCode(WATCHLIST_RULE)
                                 .customerId(profile.getCustomerId())
                                 .subjectType("CUSTOMER")
                                 .subjectId(profile.getCustomerId())
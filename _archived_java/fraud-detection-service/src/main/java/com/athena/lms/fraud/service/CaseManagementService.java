@@ -1,7 +1,10 @@
 package com.athena.lms.fraud.service;
 
+import com.athena.lms.common.audit.AuditRecord;
+import com.athena.lms.common.audit.AuditWriter;
 import com.athena.lms.common.dto.PageResponse;
 import com.athena.lms.common.exception.ResourceNotFoundException;
+import com.athena.lms.common.sequence.SequenceService;
 import com.athena.lms.fraud.dto.request.*;
 import com.athena.lms.fraud.dto.response.*;
 import com.athena.lms.fraud.entity.*;
@@ -28,10 +31,11 @@ public class CaseManagementService {
     private final CaseNoteRepository noteRepository;
     private final AuditLogRepository auditLogRepository;
     private final FraudAlertRepository alertRepository;
+    private final SequenceService sequenceService;
+    private final AuditWriter auditWriter;
 
     public CaseResponse createCase(CreateCaseRequest req, String tenantId) {
-        int maxNum = caseRepository.findMaxCaseNumber(tenantId);
-        String caseNumber = String.format("FRD-%05d", maxNum + 1);
+        String caseNumber = sequenceService.nextFormatted(tenantId, "fraud-case");
 
         FraudCase fraudCase = FraudCase.builder()
             .tenantId(tenantId)
@@ -132,18 +136,18 @@ public class CaseManagementService {
 
     // ─── Audit ──────────────────────────────────────────────────────────────
 
+    /** Written asynchronously, and only if the surrounding transaction commits. */
     public void audit(String tenantId, String action, String entityType, UUID entityId,
                        String performedBy, String description, Map<String, Object> changes) {
-        AuditLog entry = AuditLog.builder()
+        auditWriter.record(AuditRecord.builder()
             .tenantId(tenantId)
             .action(action)
             .entityType(entityType)
             .entityId(entityId)
-            .performedBy(performedBy)
+            .actor(performedBy)
             .description(description)
-            .changes(changes)
-            .build();
-        auditLogRepository.save(entry);
+            .details(changes)
+            .build());
     }
 
     @Transactional(readOnly = true)
@@ -156,7 +160,7 @@ public class CaseManagementService {
         } else {
             page = auditLogRepository.findByTenantIdOrderByCreatedAtDesc(tenantId, pageable);
         }
-        return PageResponse.from(page.map(this::mapAuditResponse));
+        return PageResponse.from(page.map(CaseManagementService::mapAuditResponse));
     }
 
     // ─── Timeline ───────────────────────────────────────────────────────────
@@ -237,7 +241,7 @@ public class CaseManagementService {
         return resp;
     }
 
-    private AuditLogResponse mapAuditResponse(AuditLog log) {
+    static AuditLogResponse mapAuditResponse(AuditLog log) {
         AuditLogResponse resp = new AuditLogResponse();
         resp.setId(log.getId());
         resp.setAction(log.getAction());
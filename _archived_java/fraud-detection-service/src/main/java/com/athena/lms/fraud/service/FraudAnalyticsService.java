@@ -1,49 +1,62 @@
 package com.athena.lms.fraud.service;
 
 import com.athena.lms.fraud.dto.response.FraudAnalyticsResponse;
+import com.athena.lms.fraud.enums.AlertStatus;
 import com.athena.lms.fraud.repository.FraudAlertRepository;
 import com.athena.lms.fraud.repository.FraudCaseRepository;
+import com.athena.lms.fraud.repository.ScoringHistoryRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.OffsetDateTime;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.*;
 
+/**
+ * Fraud dashboard analytics, read from the per-day alert rollups (see V9) so the cost of a
+ * refresh depends on the number of rules, types and days shown rather than on alert history.
+ */
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
+@Slf4j
 public class FraudAnalyticsService {
 
     private final FraudAlertRepository alertRepository;
     private final FraudCaseRepository caseRepository;
+    private final ScoringHistoryRepository scoringHistoryRepository;
 
     public FraudAnalyticsResponse getAnalytics(String tenantId, int days) {
-        OffsetDateTime since = OffsetDateTime.now().minusDays(days);
+        LocalDate since = LocalDate.now(ZoneOffset.UTC).minusDays(days);
         FraudAnalyticsResponse resp = new FraudAnalyticsResponse();
 
-        long total = alertRepository.countByTenantId(tenantId);
-        long resolved = alertRepository.countResolved(tenantId);
+        // Totals and rule effectiveness, from the all-time counts per rule and status
+        long total = 0;
+        long resolved = 0;
+        Map<String, long[]> ruleStats = new LinkedHashMap<>();
+        for (Object[] row : alertRepository.rollupCountByRuleAndStatus(tenantId)) {
+            String ruleCode = (String) row[0];
+            String status = (String) row[1];
+            long count = ((Number) row[2]).longValue();
+            boolean confirmed = AlertStatus.CONFIRMED_FRAUD.name().equals(status);
+            boolean falsePositive = AlertStatus.FALSE_POSITIVE.name().equals(status);
+
+            total += count;
+            if (confirmed || falsePositive) resolved += count;
+            if (ruleCode.isEmpty()) continue;
+            long[] stats = ruleStats.computeIfAbsent(ruleCode, k -> new long[3]);
+            stats[0] += count;
+            if (confirmed) stats[1] += count;
+            if (falsePositive) stats[2] += count;
+        }
         resp.setTotalAlerts(total);
         resp.setResolvedAlerts(resolved);
         resp.setResolutionRate(total > 0 ? (double) resolved / total : 0.0);
 
         resp.setActiveCases(caseRepository.countActiveCases(tenantId));
 
-        // Rule effectiveness
-        Map<String, long[]> ruleStats = new LinkedHashMap<>();
-        for (Object[] row : alertRepository.countByRule(tenantId)) {
-            ruleStats.put((String) row[0], new long[]{((Number) row[1]).longValue(), 0, 0});
-        }
-        for (Object[] row : alertRepository.countConfirmedByRule(tenantId)) {
-            long[] stats = ruleStats.get((String) row[0]);
-            if (stats != null) stats[1] = ((Number) row[1]).longValue();
-        }
-        for (Object[] row : alertRepository.countFalsePositiveByRule(tenantId)) {
-            long[] stats = ruleStats.get((String) row[0]);
-            if (stats != null) stats[2] = ((Number) row[1]).longValue();
-        }
-
         long totalConfirmed = 0;
         long totalFP = 0;
         List<FraudAnalyticsResponse.RuleEffectiveness> ruleList = new ArrayList<>();
@@ -60,6 +73,7 @@ public class FraudAnalyticsService {
             totalFP += s[2];
             ruleList.add(re);
         }
+        ruleList.sort(Comparator.comparingLong(FraudAnalyticsResponse.RuleEffectiveness::getTotalTriggers).reversed());
         resp.setRuleEffectiveness(ruleList);
         resp.setConfirmedFraudCount(totalConfirmed);
         resp.setFalsePositiveCount(totalFP);
@@ -68,7 +82,7 @@ public class FraudAnalyticsService {
 
         // Daily trend
         List<FraudAnalyticsResponse.DailyAlertCount> trend = new ArrayList<>();
-        for (Object[] row : alertRepository.countByDay(tenantId, since)) {
+        for (Object[] row : alertRepository.rollupCountByDay(tenantId, since)) {
             FraudAnalyticsResponse.DailyAlertCount d = new FraudAnalyticsResponse.DailyAlertCount();
             d.setDate(row[0].toString());
             d.setCount(((Number) row[1]).longValue());
@@ -78,7 +92,7 @@ public class FraudAnalyticsService {
 
         // Alerts by type
         List<FraudAnalyticsResponse.TypeCount> typeList = new ArrayList<>();
-        for (Object[] row : alertRepository.countByAlertType(tenantId, since)) {
+        for (Object[] row : alertRepository.rollupCountByAlertType(tenantId, since)) {
             FraudAnalyticsResponse.TypeCount tc = new FraudAnalyticsResponse.TypeCount();
             tc.setType(row[0].toString());
             tc.setCount(((Number) row[1]).longValue());
@@ -88,4 +102,25 @@ public class FraudAnalyticsService {
 
         return resp;
     }
+
+    /**
+     * Recomputes the tenant's alert and scoring rollups from the base tables, for use after a
+     * manual data fix or if the rollups are ever suspected to have drifted. Writes to
+     * fraud_alerts and scoring_history wait until the rebuild commits, so run it off-peak.
+     */
+    @Transactional
+    public Map<String, Object> rebuildRollups(String tenantId) {
+        long started = System.currentTimeMillis();
+        long alertBuckets = alertRepository.rebuildRollups(tenantId);
+        long scoringBuckets = scoringHistoryRepository.rebuildRollups(tenantId);
+        long elapsedMs = System.currentTimeMillis() - started;
+        log.info("Rebuilt analytics rollups for tenant={}: {} alert buckets, {} scoring buckets in {} ms",
+                tenantId, alertBuckets, scoringBuckets, elapsedMs);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("alertBuckets", alertBuckets);
+        result.put("scoringBuckets", scoringBuckets);
+        result.put("elapsedMs", elapsedMs);
+        return result;
+    }
 }
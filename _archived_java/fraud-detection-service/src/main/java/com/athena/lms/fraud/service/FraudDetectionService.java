@@ -19,10 +19,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.athena.lms.fraud.ml.LocalModelScorer;
 import com.athena.lms.fraud.ml.MLScoringClient;
 import com.athena.lms.fraud.ml.MLScoringResponse;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.*;
 
@@ -32,6 +34,8 @@ import java.util.*;
 @Slf4j
 public class FraudDetectionService {
 
+    static final Duration ALERT_DEDUP_WINDOW = Duration.ofHours(1);
+
     private final FraudAlertRepository alertRepository;
     private final FraudEventRepository eventRepository;
     private final CustomerRiskProfileRepository riskProfileRepository;
@@ -39,7 +43,9 @@ public class FraudDetectionService {
     private final VelocityService velocityService;
     private final FraudEventPublisher eventPublisher;
     private final MLScoringClient mlScoringClient;
+    private final LocalModelScorer localModelScorer;
     private final AutoActionService autoActionService;
+    private final AlertDedupIndex alertDedupIndex;
 
     @org.springframework.beans.factory.annotation.Autowired(required = false)
     private FraudScoringService fraudScoringService;
@@ -51,7 +57,7 @@ public class FraudDetectionService {
         BigDecimal amount = extractAmount(eventData);
 
         // 1. Update velocity counters
-        updateVelocityCounters(tenantId, customerId, eventType, amount);
+        velocityService.recordEvent(tenantId, customerId, eventType, amount);
 
         // 2. Run rule engine
         List<FraudAlert> triggeredAlerts = ruleEngineService.evaluate(tenantId, eventType, eventData);
@@ -61,11 +67,11 @@ public class FraudDetectionService {
         String mlModelVersion = null;
         if (customerId != null) {
             double ruleScore = triggeredAlerts.isEmpty() ? 0.0 : 0.7; // rule triggered = baseline 0.7
-            MLScoringResponse mlResult = mlScoringClient.scoreCombined(
-                tenantId, customerId, eventType, amount, ruleScore);
+            MLScoringResponse mlResult = scoreWithModel(tenantId, customerId, eventType, amount, ruleScore);
             if (mlResult != null) {
                 mlScore = BigDecimal.valueOf(mlResult.getScore());
-                mlModelVersion = mlResult.isModelAvailable() ? "combined-v1" : "rules-only";
+                mlModelVersion = !mlResult.isModelAvailable() ? "rules-only"
+                        : Objects.requireNonNullElse(mlResult.getModelVersion(), "combined-v1");
             }
         }
 
@@ -73,11 +79,7 @@ public class FraudDetectionService {
         List<FraudAlert> savedAlerts = new ArrayList<>();
         for (FraudAlert alert : triggeredAlerts) {
             // Dedup: skip if same rule triggered for same customer in last hour
-            long recentCount = alertRepository.countRecentAlertsByRule(
-                    tenantId, alert.getCustomerId(), alert.getRuleCode(),
-                    OffsetDateTime.now().minusHours(1));
-            if (recentCount > 0) {
-                log.debug("Skipping duplicate alert: rule={} customer={}", alert.getRuleCode(), alert.getCustomerId());
+            if (!alertDedupIndex.tryClaim(tenantId, alert.getCustomerId(), alert.getRuleCode(), ALERT_DEDUP_WINDOW)) {
                 continue;
             }
 
@@ -102,7 +104,7 @@ public class FraudDetectionService {
 
             // Update customer risk profile
             if (customerId != null) {
-                updateRiskProfile(tenantId, customerId, saved);
+                updateRiskProfile(tenantId, customerId);
             }
         }
 
@@ -144,35 +146,33 @@ public class FraudDetectionService {
         return savedAlerts;
     }
 
-    private void updateVelocityCounters(String tenantId, String customerId, String eventType, BigDecimal amount) {
-        if (customerId == null) return;
-
-        // Transaction count (hourly buckets)
-        velocityService.increment(tenantId, customerId, "TXN_COUNT", amount, 60);
-
-        // Event-type-specific counters
-        switch (eventType) {
-            case "payment.completed", "account.credit.received" ->
-                velocityService.increment(tenantId, customerId, "CREDIT_RECEIVED", amount, 60);
-            case "transfer.completed", "mobile.transfer.completed" ->
-                velocityService.increment(tenantId, customerId, "TRANSFER_OUT", amount, 60);
-            case "loan.application.submitted" ->
-                velocityService.increment(tenantId, customerId, "LOAN_APP", BigDecimal.ZERO, 1440);
-            case "loan.closed" ->
-                velocityService.increment(tenantId, customerId, "LOAN_CLOSED", BigDecimal.ZERO, 1440);
-            case "payment.reversed" ->
-                velocityService.increment(tenantId, customerId, "PAYMENT_REVERSED", amount, 1440);
-        }
-
-        // Round amount tracking
-        if (amount != null && amount.remainder(new BigDecimal("10000")).compareTo(BigDecimal.ZERO) == 0) {
-            velocityService.increment(tenantId, customerId, "ROUND_AMOUNT", amount, 1440);
+    /**
+     * Combined ML score from the in-process model or the ML service, depending on
+     * fraud.ml.local.mode. In shadow mode the ML service decides and the local model is
+     * scored alongside for comparison.
+     */
+    private MLScoringResponse scoreWithModel(String tenantId, String customerId, String eventType,
+                                             BigDecimal amount, double ruleScore) {
+        LocalModelScorer.Mode mode = localModelScorer.getMode();
+        if (mode == LocalModelScorer.Mode.LOCAL) {
+            try {
+                MLScoringResponse local = localModelScorer.scoreCombined(tenantId, customerId, eventType, amount, ruleScore);
+                if (local != null) return local;
+            } catch (Exception e) {
+                log.warn("Local model scoring failed, using ML service: {}", e.getMessage());
+            }
         }
 
-        // Running transaction amount for structuring detection
-        if (amount != null) {
-            velocityService.increment(tenantId, customerId, "TXN_AMOUNT", amount, 60);
+        MLScoringResponse remote = mlScoringClient.scoreCombined(tenantId, customerId, eventType, amount, ruleScore);
+        if (mode == LocalModelScorer.Mode.SHADOW) {
+            try {
+                localModelScorer.recordShadow(customerId, remote,
+                        localModelScorer.scoreCombined(tenantId, customerId, eventType, amount, ruleScore));
+            } catch (Exception e) {
+                log.debug("Shadow scoring failed: {}", e.getMessage());
+            }
         }
+        return remote;
     }
 
     private boolean shouldEscalateToCompliance(FraudAlert alert) {
@@ -186,37 +186,9 @@ public class FraudDetectionService {
         return false;
     }
 
-    private void updateRiskProfile(String tenantId, String customerId, FraudAlert alert) {
-        CustomerRiskProfile profile = riskProfileRepository
-                .findByTenantIdAndCustomerId(tenantId, customerId)
-                .orElseGet(() -> CustomerRiskProfile.builder()
-                        .tenantId(tenantId)
-                        .customerId(customerId)
-                        .build());
-
-        profile.setTotalAlerts(profile.getTotalAlerts() + 1);
-        profile.setOpenAlerts(profile.getOpenAlerts() + 1);
-        profile.setLastAlertAt(OffsetDateTime.now());
-
-        // Recalculate risk level based on alert count and severity
-        recalculateRiskLevel(profile);
-        riskProfileRepository.save(profile);
-    }
-
-    private void recalculateRiskLevel(CustomerRiskProfile profile) {
-        int score = 0;
-        score += profile.getOpenAlerts() * 10;
-        score += profile.getConfirmedFraud() * 50;
-        score -= profile.getFalsePositives() * 5;
-        score = Math.max(0, Math.min(100, score));
-
-        BigDecimal normalizedScore = new BigDecimal(score).divide(new BigDecimal("100"), 4, java.math.RoundingMode.HALF_UP);
-        profile.setRiskScore(normalizedScore);
-
-        if (score >= 70) profile.setRiskLevel(RiskLevel.CRITICAL);
-        else if (score >= 50) profile.setRiskLevel(RiskLevel.HIGH);
-        else if (score >= 25) profile.setRiskLevel(RiskLevel.MEDIUM);
-        else profile.setRiskLevel(RiskLevel.LOW);
+    private void updateRiskProfile(String tenantId, String customerId) {
+        // Single upsert: concurrent alerts for one customer cannot lose each other's increments
+        riskProfileRepository.recordAlertRaised(tenantId, customerId);
     }
 
     // ─── Alert Management ────────────────────────────────────────────────────────
@@ -260,19 +232,9 @@ public class FraudDetectionService {
 
         // Update risk profile
         if (alert.getCustomerId() != null) {
-            CustomerRiskProfile profile = riskProfileRepository
-                    .findByTenantIdAndCustomerId(tenantId, alert.getCustomerId())
-                    .orElse(null);
-            if (profile != null) {
-                profile.setOpenAlerts(Math.max(0, profile.getOpenAlerts() - 1));
-                if (newStatus == AlertStatus.CONFIRMED_FRAUD) {
-                    profile.setConfirmedFraud(profile.getConfirmedFraud() + 1);
-                } else {
-                    profile.setFalsePositives(profile.getFalsePositives() + 1);
-                }
-                recalculateRiskLevel(profile);
-                riskProfileRepository.save(profile);
-            }
+            boolean confirmed = newStatus == AlertStatus.CONFIRMED_FRAUD;
+            riskProfileRepository.recordAlertResolved(tenantId, alert.getCustomerId(),
+                    confirmed ? 1 : 0, confirmed ? 0 : 1);
         }
 
         log.info("Resolved fraud alert id={} status={} by={}", id, newStatus, req.getResolvedBy());
@@ -348,38 +310,6 @@ public class FraudDetectionService {
         return mapToRuleResponse(rule);
     }
 
-    // ─── Bulk Operations ──────────────────────────────────────────────────────
-
-    public Map<String, Object> bulkAssign(Set<UUID> alertIds, String assignee, String performedBy, String tenantId) {
-        int assigned = 0;
-        for (UUID id : alertIds) {
-            try {
-                assignAlert(id, assignee, tenantId);
-                assigned++;
-            } catch (Exception e) {
-                log.warn("Failed to assign alert {}: {}", id, e.getMessage());
-            }
-        }
-        return Map.of("assigned", assigned, "total", alertIds.size());
-    }
-
-    public Map<String, Object> bulkResolve(Set<UUID> alertIds, boolean confirmedFraud, String performedBy, String notes, String tenantId) {
-        int resolved = 0;
-        for (UUID id : alertIds) {
-            try {
-                ResolveAlertRequest req = new ResolveAlertRequest();
-                req.setConfirmedFraud(confirmedFraud);
-                req.setResolvedBy(performedBy);
-                req.setNotes(notes);
-                resolveAlert(id, req, tenantId);
-                resolved++;
-            } catch (Exception e) {
-                log.warn("Failed to resolve alert {}: {}", id, e.getMessage());
-            }
-        }
-        return Map.of("resolved", resolved, "total", alertIds.size());
-    }
-
     // ─── Mappers ─────────────────────────────────────────────────────────────────
 
     private AlertResponse mapToAlertResponse(FraudAlert alert) {
@@ -398,6 +328,7 @@ public class FraudDetectionService {
         resp.setTriggerEvent(alert.getTriggerEvent());
         resp.setTriggerAmount(alert.getTriggerAmount());
         resp.setRiskScore(alert.getRiskScore());
+        resp.setRuleConfigVersion(alert.getRuleConfigVersion());
         resp.setEscalated(alert.getEscalated());
         resp.setEscalatedToCompliance(alert.getEscalatedToCompliance());
         resp.setAssignedTo(alert.getAssignedTo());
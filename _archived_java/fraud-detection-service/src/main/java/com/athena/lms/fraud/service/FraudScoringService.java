@@ -15,6 +15,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.*;
 
 @Service
@@ -86,31 +88,30 @@ public class FraudScoringService {
     }
 
     /**
-     * Get scoring dashboard stats for a tenant.
+     * Get scoring dashboard stats for a tenant, read from the daily scoring rollups.
      */
     @Transactional(readOnly = true)
     public Map<String, Object> getScoringStats(String tenantId) {
         Map<String, Object> stats = new LinkedHashMap<>();
 
-        // Counts by risk level
+        // Counts and average scores by risk level
         Map<String, Long> riskCounts = new LinkedHashMap<>();
         for (String level : List.of("LOW", "MEDIUM", "HIGH", "CRITICAL")) {
-            riskCounts.put(level, scoringHistoryRepository.countByTenantIdAndRiskLevel(tenantId, level));
+            riskCounts.put(level, 0L);
         }
-        stats.put("countsByRiskLevel", riskCounts);
-
-        // Average scores by risk level
         Map<String, Double> avgScores = new LinkedHashMap<>();
-        List<Object[]> avgRows = scoringHistoryRepository.averageScoreByRiskLevel(tenantId);
-        for (Object[] row : avgRows) {
-            avgScores.put((String) row[0], ((Number) row[1]).doubleValue());
+        for (Object[] row : scoringHistoryRepository.rollupByRiskLevel(tenantId)) {
+            long count = ((Number) row[1]).longValue();
+            riskCounts.put((String) row[0], count);
+            avgScores.put((String) row[0], ((Number) row[2]).doubleValue() / count);
         }
+        stats.put("countsByRiskLevel", riskCounts);
         stats.put("averageScoresByRiskLevel", avgScores);
 
         // Volume per day (last 30 days)
         List<Map<String, Object>> volumePerDay = new ArrayList<>();
-        List<Object[]> volumeRows = scoringHistoryRepository.scoringVolumePerDay(tenantId, 30);
-        for (Object[] row : volumeRows) {
+        LocalDate since = LocalDate.now(ZoneOffset.UTC).minusDays(30);
+        for (Object[] row : scoringHistoryRepository.rollupVolumePerDay(tenantId, since)) {
             Map<String, Object> dayEntry = new LinkedHashMap<>();
             dayEntry.put("date", row[0].toString());
             dayEntry.put("volume", ((Number) row[1]).longValue());
@@ -0,0 +1,201 @@
+package com.athena.lms.fraud.service;
+
+import com.athena.lms.fraud.archive.ArchivedTable;
+import com.athena.lms.fraud.archive.SegmentReader;
+import com.athena.lms.fraud.config.FraudRetentionConfig;
+import com.athena.lms.fraud.dto.response.AuditLogResponse;
+import com.athena.lms.fraud.dto.response.HistoryResponse;
+import com.athena.lms.fraud.entity.ArchiveSegment;
+import com.athena.lms.fraud.entity.AuditLog;
+import com.athena.lms.fraud.entity.FraudEvent;
+import com.athena.lms.fraud.entity.ScoringHistory;
+import com.athena.lms.fraud.repository.ArchiveSegmentRepository;
+import com.athena.lms.fraud.repository.AuditLogRepository;
+import com.athena.lms.fraud.repository.FraudEventRepository;
+import com.athena.lms.fraud.repository.ScoringHistoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Event, scoring and audit history for investigations across the retention boundary: rows
+ * still in Postgres first, then archive segments of older months, newest first, so callers
+ * never need to know where a month lives. Archived months are always older than the live
+ * ones, which lets a query stop reading segments as soon as it has enough rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InvestigationHistoryService {
+
+    private static final OffsetDateTime BEGINNING = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private final FraudEventRepository eventRepository;
+    private final ScoringHistoryRepository scoringHistoryRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final ArchiveSegmentRepository segmentRepository;
+    private final FraudRetentionConfig retentionConfig;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public HistoryResponse<FraudEvent> getEventHistory(String tenantId, String customerId,
+                                                       OffsetDateTime from, OffsetDateTime to, Integer limit) {
+        Window w = window(from, to, limit);
+        ArchivedTable table = ArchivedTable.FRAUD_EVENTS;
+        int tenant = table.indexOf("tenant_id");
+        int customer = table.indexOf("customer_id");
+
+        List<FraudEvent> live = eventRepository.findHistory(tenantId, customerId, w.from, w.to, PageRequest.of(0, w.limit));
+        return union(table, live, w,
+                row -> tenantId.equals(row[tenant]) && customerId.equals(row[customer]),
+                row -> FraudEvent.builder()
+                        .id((UUID) row[table.indexOf("id")])
+                        .tenantId((String) row[tenant])
+                        .eventType((String) row[table.indexOf("event_type")])
+                        .sourceService((String) row[table.indexOf("source_service")])
+                        .customerId((String) row[customer])
+                        .subjectId((String) row[table.indexOf("subject_id")])
+                        .amount((BigDecimal) row[table.indexOf("amount")])
+                        .riskScore((BigDecimal) row[table.indexOf("risk_score")])
+                        .rulesTriggered((String) row[table.indexOf("rules_triggered")])
+                        .payload(parseJson((String) row[table.indexOf("payload")]))
+                        .processedAt((OffsetDateTime) row[table.timeIndex()])
+                        .build());
+    }
+
+    @Transactional(readOnly = true)
+    public HistoryResponse<ScoringHistory> getScoringHistory(String tenantId, String customerId,
+                                                             OffsetDateTime from, OffsetDateTime to, Integer limit) {
+        Window w = window(from, to, limit);
+        ArchivedTable table = ArchivedTable.SCORING_HISTORY;
+        int tenant = table.indexOf("tenant_id");
+        int customer = table.indexOf("customer_id");
+
+        List<ScoringHistory> live = scoringHistoryRepository.findHistory(tenantId, customerId, w.from, w.to, PageRequest.of(0, w.limit));
+        return union(table, live, w,
+                row -> tenantId.equals(row[tenant]) && customerId.equals(row[customer]),
+                row -> ScoringHistory.builder()
+                        .id((UUID) row[table.indexOf("id")])
+                        .tenantId((String) row[tenant])
+                        .customerId((String) row[customer])
+                        .eventType((String) row[table.indexOf("event_type")])
+                        .amount((BigDecimal) row[table.indexOf("amount")])
+                        .mlScore(doubleOrZero(row[table.indexOf("ml_score")]))
+                        .riskLevel((String) row[table.indexOf("risk_level")])
+                        .modelAvailable(!Boolean.FALSE.equals(row[table.indexOf("model_available")]))
+                        .latencyMs(doubleOrZero(row[table.indexOf("latency_ms")]))
+                        .ruleScore(doubleOrZero(row[table.indexOf("rule_score")]))
+                        .anomalyScore(doubleOrZero(row[table.indexOf("anomaly_score")]))
+                        .lgbmScore(doubleOrZero(row[table.indexOf("lgbm_score")]))
+                        .modelDetails((String) row[table.indexOf("model_details")])
+                        .createdAt((OffsetDateTime) row[table.timeIndex()])
+                        .build());
+    }
+
+    @Transactional(readOnly = true)
+    public HistoryResponse<AuditLogResponse> getAuditHistory(String tenantId, String entityType, UUID entityId,
+                                                             OffsetDateTime from, OffsetDateTime to, Integer limit) {
+        Window w = window(from, to, limit);
+        ArchivedTable table = ArchivedTable.AUDIT_LOG;
+        int tenant = table.indexOf("tenant_id");
+        int type = table.indexOf("entity_type");
+        int entity = table.indexOf("entity_id");
+
+        List<AuditLogResponse> live = auditLogRepository
+                .findHistory(tenantId, entityType, entityId, w.from, w.to, PageRequest.of(0, w.limit))
+                .stream().map(CaseManagementService::mapAuditResponse).toList();
+        return union(table, live, w,
+                row -> tenantId.equals(row[tenant]) && entityType.equals(row[type]) && entityId.equals(row[entity]),
+                row -> CaseManagementService.mapAuditResponse(AuditLog.builder()
+                        .id((UUID) row[table.indexOf("id")])
+                        .tenantId((String) row[tenant])
+                        .action((String) row[table.indexOf("action")])
+                        .entityType((String) row[type])
+                        .entityId((UUID) row[entity])
+                        .performedBy((String) row[table.indexOf("performed_by")])
+                        .description((String) row[table.indexOf("description")])
+                        .changes(parseJson((String) row[table.indexOf("changes")]))
+                        .createdAt((OffsetDateTime) row[table.timeIndex()])
+                        .build()));
+    }
+
+    // ─── Live + archive union ─────────────────────────────────────────────────
+
+    private record Window(OffsetDateTime from, OffsetDateTime to, int limit) {}
+
+    private Window window(OffsetDateTime from, OffsetDateTime to, Integer limit) {
+        int max = retentionConfig.getMaxHistoryResults();
+        int n = limit == null || limit <= 0 ? max : Math.min(limit, max);
+        return new Window(from != null ? from : BEGINNING, to != null ? to : OffsetDateTime.now().plusDays(1), n);
+    }
+
+    private <T> HistoryResponse<T> union(ArchivedTable table, List<T> live, Window w,
+                                         Predicate<Object[]> filter, Function<Object[], T> mapper) {
+        HistoryResponse<T> response = new HistoryResponse<>();
+        response.getItems().addAll(live);
+        response.setLiveCount(live.size());
+        response.setTruncated(live.size() >= w.limit);
+
+        int timeIndex = table.timeIndex();
+        for (ArchiveSegment segment : segmentRepository.findOverlapping(table.tableName(), w.from, w.to)) {
+            if (response.getItems().size() >= w.limit) {
+                response.setTruncated(true);
+                break;
+            }
+            Path file = Path.of(segment.getFilePath());
+            if (!Files.isReadable(file)) {
+                response.getUnavailableSegments().add(segment.getPartitionName());
+                continue;
+            }
+
+            List<Object[]> matches = new ArrayList<>();
+            try {
+                SegmentReader.scan(file, table, w.from, w.to, filter, matches::add);
+            } catch (IOException e) {
+                log.error("Could not read archive segment {}: {}", file, e.getMessage());
+                response.getUnavailableSegments().add(segment.getPartitionName());
+                continue;
+            }
+            response.setSegmentsScanned(response.getSegmentsScanned() + 1);
+
+            matches.sort(Comparator.comparing((Object[] row) -> (OffsetDateTime) row[timeIndex]).reversed());
+            int room = w.limit - response.getItems().size();
+            if (matches.size() > room) response.setTruncated(true);
+            for (Object[] row : matches.subList(0, Math.min(room, matches.size()))) {
+                response.getItems().add(mapper.apply(row));
+            }
+            response.setArchivedCount(response.getArchivedCount() + Math.min(room, matches.size()));
+        }
+        return response;
+    }
+
+    private Map<String, Object> parseJson(String json) {
+        if (json == null) return null;
+        try {
+            return objectMapper.readValue(json, JSON_OBJECT);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable archived JSON value: {}", e.getMessage());
+            return Map.of("raw", json);
+        }
+    }
+
+    private static double doubleOrZero(Object value) {
+        return value != null ? (Double) value : 0.0;
+    }
+}
@@ -1,17 +1,26 @@
 package com.athena.lms.fraud.service;
 
+import com.athena.lms.common.exception.ResourceNotFoundException;
+import com.athena.lms.fraud.dto.response.NetworkClusterResponse;
+import com.athena.lms.fraud.dto.response.NetworkNeighborhoodResponse;
 import com.athena.lms.fraud.dto.response.NetworkNodeResponse;
 import com.athena.lms.fraud.entity.CustomerRiskProfile;
 import com.athena.lms.fraud.entity.NetworkLink;
 import com.athena.lms.fraud.enums.RiskLevel;
+import com.athena.lms.fraud.graph.LinkGraph;
+import com.athena.lms.fraud.graph.LinkGraphRegistry;
 import com.athena.lms.fraud.repository.CustomerRiskProfileRepository;
 import com.athena.lms.fraud.repository.NetworkLinkRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,8 +29,17 @@ import java.util.stream.Collectors;
 @Slf4j
 public class NetworkAnalysisService {
 
+    private static final int MAX_HOPS = 4;
+
     private final NetworkLinkRepository linkRepository;
     private final CustomerRiskProfileRepository riskProfileRepository;
+    private final LinkGraphRegistry graphRegistry;
+
+    @Value("${fraud.graph.max-attribute-fanout:100}")
+    private int maxAttributeFanout = 100;
+
+    @Value("${fraud.graph.max-result-customers:1000}")
+    private int maxResultCustomers = 1000;
 
     public void recordLink(String tenantId, String customerIdA, String customerIdB,
                             String linkType, String linkValue) {
@@ -36,6 +54,7 @@ public class NetworkAnalysisService {
                 if (link.getCustomerIdA().equals(a) && link.getCustomerIdB().equals(b)) {
                     link.setStrength(link.getStrength() + 1);
                     linkRepository.save(link);
+                    applyToGraph(tenantId, link);
                     return;
                 }
             }
@@ -49,64 +68,186 @@ public class NetworkAnalysisService {
             .linkValue(linkValue)
             .build();
         linkRepository.save(link);
+        applyToGraph(tenantId, link);
         log.debug("Recorded network link: {} <-> {} via {}={}", a, b, linkType, linkValue);
     }
 
-    @Transactional(readOnly = true)
-    public NetworkNodeResponse getCustomerNetwork(String tenantId, String customerId) {
-        List<NetworkLink> links = linkRepository.findByCustomer(tenantId, customerId);
-
-        NetworkNodeResponse node = new NetworkNodeResponse();
-        node.setCustomerId(customerId);
-        node.setLinkCount(links.size());
+    /**
+     * Records that the customer was seen with the attribute and returns the other customers
+     * already seen with it. Values shared by more than max-attribute-fanout customers (a large
+     * employer, a carrier NAT address) carry no signal and return nothing.
+     *
+     * The graph answers from memory. A sighting new to this instance is also stored, and when
+     * memory knows nobody else with the value the stored sightings are read, so customers seen
+     * before a restart or by another instance are still found.
+     */
+    public List<String> customersSharingAttribute(String tenantId, String customerId,
+                                                  String linkType, String linkValue) {
+        LinkGraph graph = graphRegistry.graph(tenantId);
+        boolean seenHere = graph.hasSighting(customerId, linkType, linkValue);
+        List<String> others = graph.observeAttribute(customerId, linkType, linkValue);
+        if (!seenHere) {
+            if (others.isEmpty()) {
+                others = linkRepository.findSightings(tenantId, linkType, linkValue, customerId, maxAttributeFanout + 1);
+                graph.addSightings(linkType, linkValue, others);
+            }
+            linkRepository.recordSighting(tenantId, linkType, linkValue, customerId);
+        }
+        if (others.size() > maxAttributeFanout) {
+            log.debug("Skipping {}={} shared by {} customers", linkType, linkValue, others.size());
+            return List.of();
+        }
+        return others;
+    }
 
-        // Get risk level
-        riskProfileRepository.findByTenantIdAndCustomerId(tenantId, customerId)
-            .ifPresentOrElse(
-                p -> node.setRiskLevel(p.getRiskLevel().name()),
-                () -> node.setRiskLevel("LOW")
-            );
+    public void flagLink(String tenantId, UUID linkId) {
+        NetworkLink link = linkRepository.findById(linkId)
+            .filter(l -> l.getTenantId().equals(tenantId))
+            .orElseThrow(() -> new ResourceNotFoundException("Link not found: " + linkId));
+        link.setFlagged(true);
+        linkRepository.save(link);
+        applyToGraph(tenantId, link);
+    }
 
-        List<NetworkNodeResponse.LinkResponse> linkResponses = links.stream().map(l -> {
-            NetworkNodeResponse.LinkResponse lr = new NetworkNodeResponse.LinkResponse();
-            lr.setLinkedCustomerId(l.getCustomerIdA().equals(customerId) ? l.getCustomerIdB() : l.getCustomerIdA());
-            lr.setLinkType(l.getLinkType());
-            lr.setLinkValue(l.getLinkValue());
-            lr.setStrength(l.getStrength());
-            lr.setFlagged(l.getFlagged());
-            return lr;
-        }).toList();
+    // ─── Queries (in-memory graph + one risk profile query) ──────────────────────
 
-        node.setLinks(linkResponses);
-        return node;
+    @Transactional(readOnly = true)
+    public NetworkNodeResponse getCustomerNetwork(String tenantId, String customerId) {
+        List<LinkGraph.Link> links = graphRegistry.graph(tenantId).links(customerId);
+        Map<String, CustomerRiskProfile> profiles = riskProfiles(tenantId, List.of(customerId));
+        return toNodeResponse(customerId, links, profiles);
     }
 
     @Transactional(readOnly = true)
     public List<NetworkNodeResponse> getFlaggedClusters(String tenantId) {
-        List<NetworkLink> flagged = linkRepository.findFlaggedLinks(tenantId);
-
-        // Group by unique customers
-        Set<String> customerIds = new HashSet<>();
-        for (NetworkLink link : flagged) {
-            customerIds.add(link.getCustomerIdA());
-            customerIds.add(link.getCustomerIdB());
-        }
-
+        LinkGraph graph = graphRegistry.graph(tenantId);
+        List<String> customerIds = graph.flaggedCustomers(maxResultCustomers);
+        Map<String, CustomerRiskProfile> profiles = riskProfiles(tenantId, customerIds);
         return customerIds.stream()
-            .map(cid -> getCustomerNetwork(tenantId, cid))
-            .filter(n -> n.getLinkCount() > 0)
+            .map(cid -> toNodeResponse(cid, graph.links(cid), profiles))
             .toList();
     }
 
     @Transactional(readOnly = true)
-    public List<NetworkLink> findByLinkValue(String tenantId, String linkType, String linkValue) {
-        return linkRepository.findByLink(tenantId, linkType, linkValue);
+    public NetworkNeighborhoodResponse getNeighborhood(String tenantId, String customerId, int hops) {
+        int depth = Math.max(1, Math.min(hops, MAX_HOPS));
+        LinkGraph.Neighborhood neighborhood = graphRegistry.graph(tenantId)
+            .neighborhood(customerId, depth, maxResultCustomers);
+        Map<String, CustomerRiskProfile> profiles = riskProfiles(tenantId,
+            neighborhood.customers().stream().map(LinkGraph.Neighbor::customerId).toList());
+
+        NetworkNeighborhoodResponse response = new NetworkNeighborhoodResponse();
+        response.setCustomerId(customerId);
+        response.setHops(depth);
+        response.setTruncated(neighborhood.truncated());
+        response.setCustomers(neighborhood.customers().stream().map(n -> {
+            NetworkNeighborhoodResponse.Node node = new NetworkNeighborhoodResponse.Node();
+            node.setCustomerId(n.customerId());
+            node.setHops(n.hops());
+            node.setRiskLevel(riskLevel(profiles.get(n.customerId())));
+            return node;
+        }).toList());
+        response.setLinks(neighborhood.links().stream().map(l -> {
+            NetworkNeighborhoodResponse.Edge edge = new NetworkNeighborhoodResponse.Edge();
+            edge.setCustomerIdA(l.customerIdA());
+            edge.setCustomerIdB(l.customerIdB());
+            edge.setLinkType(l.linkType());
+            edge.setLinkValue(l.linkValue());
+            edge.setStrength(l.strength());
+            edge.setFlagged(l.flagged());
+            return edge;
+        }).toList());
+        return response;
     }
 
-    public void flagLink(String tenantId, UUID linkId) {
-        NetworkLink link = linkRepository.findById(linkId)
-            .orElseThrow(() -> new com.athena.lms.common.exception.ResourceNotFoundException("Link not found: " + linkId));
-        link.setFlagged(true);
-        linkRepository.save(link);
+    @Transactional(readOnly = true)
+    public NetworkClusterResponse getCluster(String tenantId, String customerId) {
+        LinkGraph.Cluster cluster = graphRegistry.graph(tenantId).cluster(customerId, maxResultCustomers);
+        if (cluster == null) {
+            throw new ResourceNotFoundException("No network links for customer: " + customerId);
+        }
+        return toClusterResponse(cluster, riskProfiles(tenantId, cluster.members()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<NetworkClusterResponse> detectRings(String tenantId, int minSize, int limit) {
+        List<LinkGraph.Cluster> rings = graphRegistry.graph(tenantId)
+            .rings(Math.max(2, minSize), limit, maxResultCustomers);
+        Map<String, CustomerRiskProfile> profiles = riskProfiles(tenantId,
+            rings.stream().flatMap(r -> r.members().stream()).toList());
+        return rings.stream().map(r -> toClusterResponse(r, profiles)).toList();
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────────
+
+    private void applyToGraph(String tenantId, NetworkLink link) {
+        String a = link.getCustomerIdA();
+        String b = link.getCustomerIdB();
+        String type = link.getLinkType();
+        String value = link.getLinkValue();
+        int strength = link.getStrength();
+        boolean flagged = Boolean.TRUE.equals(link.getFlagged());
+        graphRegistry.afterCommit(tenantId, graph -> graph.addLink(a, b, type, value, strength, flagged));
+    }
+
+    private Map<String, CustomerRiskProfile> riskProfiles(String tenantId, Collection<String> customerIds) {
+        if (customerIds.isEmpty()) return Map.of();
+        return riskProfileRepository.findByTenantIdAndCustomerIdIn(tenantId, customerIds).stream()
+            .collect(Collectors.toMap(CustomerRiskProfile::getCustomerId, Function.identity(), (x, y) -> x));
+    }
+
+    private static String riskLevel(CustomerRiskProfile profile) {
+        return profile != null && profile.getRiskLevel() != null ? profile.getRiskLevel().name() : RiskLevel.LOW.name();
+    }
+
+    private NetworkNodeResponse toNodeResponse(String customerId, List<LinkGraph.Link> links,
+                                               Map<String, CustomerRiskProfile> profiles) {
+        NetworkNodeResponse node = new NetworkNodeResponse();
+        node.setCustomerId(customerId);
+        node.setLinkCount(links.size());
+        node.setRiskLevel(riskLevel(profiles.get(customerId)));
+        node.setLinks(links.stream().map(l -> {
+            NetworkNodeResponse.LinkResponse lr = new NetworkNodeResponse.LinkResponse();
+            lr.setLinkedCustomerId(l.otherCustomer(customerId));
+            lr.setLinkType(l.linkType());
+            lr.setLinkValue(l.linkValue());
+            lr.setStrength(l.strength());
+            lr.setFlagged(l.flagged());
+            return lr;
+        }).toList());
+        return node;
+    }
+
+    private NetworkClusterResponse toClusterResponse(LinkGraph.Cluster cluster, Map<String, CustomerRiskProfile> profiles) {
+        NetworkClusterResponse response = new NetworkClusterResponse();
+        response.setSize(cluster.size());
+        response.setLinkCount(cluster.links());
+        response.setFlaggedLinks(cluster.flaggedLinks());
+        response.setCyclic(cluster.cyclic());
+        response.setTruncated(cluster.truncated());
+        response.setMembers(cluster.members());
+
+        RiskLevel highest = RiskLevel.LOW;
+        BigDecimal totalScore = BigDecimal.ZERO;
+        Map<String, Long> byLevel = new TreeMap<>();
+        int openAlerts = 0;
+        int confirmedFraud = 0;
+        for (String member : cluster.members()) {
+            CustomerRiskProfile profile = profiles.get(member);
+            RiskLevel level = profile != null && profile.getRiskLevel() != null ? profile.getRiskLevel() : RiskLevel.LOW;
+            if (level.ordinal() > highest.ordinal()) highest = level;
+            byLevel.merge(level.name(), 1L, Long::sum);
+            if (profile == null) continue;
+            if (profile.getRiskScore() != null) totalScore = totalScore.add(profile.getRiskScore());
+            openAlerts += profile.getOpenAlerts() != null ? profile.getOpenAlerts() : 0;
+            confirmedFraud += profile.getConfirmedFraud() != null ? profile.getConfirmedFraud() : 0;
+        }
+        response.setHighestRiskLevel(highest.name());
+        response.setAverageRiskScore(cluster.members().isEmpty() ? BigDecimal.ZERO
+            : totalScore.divide(BigDecimal.valueOf(cluster.members().size()), 4, RoundingMode.HALF_UP));
+        response.setCustomersByRiskLevel(byLevel);
+        response.setOpenAlerts(openAlerts);
+        response.setConfirmedFraud(confirmedFraud);
+        return response;
     }
 }
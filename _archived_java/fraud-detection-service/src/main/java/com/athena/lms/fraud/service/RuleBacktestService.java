@@ -0,0 +1,366 @@
+package com.athena.lms.fraud.service;
+
+import com.athena.lms.common.exception.BusinessException;
+import com.athena.lms.fraud.cep.PatternMatch;
+import com.athena.lms.fraud.cep.TimelineEngine;
+import com.athena.lms.fraud.dto.request.BacktestRequest;
+import com.athena.lms.fraud.dto.response.BacktestResponse;
+import com.athena.lms.fraud.entity.FraudAlert;
+import com.athena.lms.fraud.entity.FraudRule;
+import com.athena.lms.fraud.repository.FraudAlertRepository;
+import com.athena.lms.fraud.repository.FraudEventRepository;
+import com.athena.lms.fraud.repository.FraudRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Replays a range of stored fraud_events through the current rules and a candidate variant of
+ * them, to see what a parameter change would have raised before making it. Nothing is written:
+ * velocity counters and CEP timelines are simulated in memory with the event's processing time
+ * as now, and alerts are counted after the same one-hour dedup the live path applies.
+ *
+ * Events are read once, in order, and fanned out by customer to parallel partitions; each
+ * partition owns the simulated state for its customers, so no state is shared between threads.
+ * Watchlist matching still reads the current watchlist.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RuleBacktestService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int QUEUED_BATCHES_PER_PARTITION = 32;
+    private static final int DEFAULT_LOOKBACK_MINUTES = 30 * 1440;
+    private static final List<ReplayEvent> END = new ArrayList<>();
+
+    private final FraudEventRepository eventRepository;
+    private final FraudRuleRepository ruleRepository;
+    private final FraudAlertRepository alertRepository;
+    private final RuleEngineService ruleEngineService;
+    private final TimelineEngine timelineEngine;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${fraud.backtest.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${fraud.backtest.max-range-days:366}")
+    private int maxRangeDays = 366;
+
+    @Transactional(readOnly = true)
+    public BacktestResponse backtest(String tenantId, BacktestRequest request) {
+        OffsetDateTime from = request.getFrom();
+        OffsetDateTime to = request.getTo();
+        if (!to.isAfter(from)) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Backtest range end must be after its start");
+        }
+        if (Duration.between(from, to).toDays() > maxRangeDays) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "Backtest range exceeds " + maxRangeDays + " days");
+        }
+
+        List<BacktestRequest.RuleOverride> overrides = request.getRules() != null ? request.getRules() : List.of();
+        List<FraudRule> allRules = ruleRepository.findByTenantIdOrGlobal(tenantId);
+        List<FraudRule> current = allRules.stream().filter(r -> Boolean.TRUE.equals(r.getEnabled())).toList();
+        List<FraudRule> candidate = applyOverrides(allRules, overrides).stream()
+                .filter(r -> Boolean.TRUE.equals(r.getEnabled())).toList();
+        Set<String> confirmed = new HashSet<>(alertRepository.findConfirmedFraudCustomers(tenantId, from, to));
+        int lookbackMinutes = Math.max(lookbackMinutes(current), lookbackMinutes(candidate));
+
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException(HttpStatus.CONFLICT, "A rule backtest is already running");
+        }
+        long started = System.currentTimeMillis();
+        int partitionCount = Math.max(1, parallelism);
+        ExecutorService workers = Executors.newFixedThreadPool(partitionCount, r -> {
+            Thread t = new Thread(r, "fraud-backtest");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Partition[] partitions = new Partition[partitionCount];
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < partitionCount; i++) {
+                partitions[i] = new Partition(tenantId, current, candidate, lookbackMinutes);
+                futures.add(workers.submit(partitions[i]));
+            }
+
+            long events = replay(tenantId, from, to, partitions);
+            for (Future<?> f : futures) f.get();
+
+            BacktestResponse response = summarize(partitions, allRules, overrides, confirmed);
+            response.setFrom(from);
+            response.setTo(to);
+            response.setEventsReplayed(events);
+            response.setPartitions(partitionCount);
+            response.setDurationMs(System.currentTimeMillis() - started);
+            log.info("Backtest tenant={} {}..{}: {} events in {}ms", tenantId, from, to, events, response.getDurationMs());
+            return response;
+        } catch (ExecutionException e) {
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "Backtest failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "Backtest interrupted");
+        } finally {
+            workers.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    /** Streams the range once and hands each event to its customer's partition in batches. */
+    private long replay(String tenantId, OffsetDateTime from, OffsetDateTime to, Partition[] partitions)
+            throws InterruptedException {
+        long events = 0;
+        List<List<ReplayEvent>> batches = new ArrayList<>();
+        for (int i = 0; i < partitions.length; i++) batches.add(new ArrayList<>(BATCH_SIZE));
+
+        try (Stream<Object[]> rows = eventRepository.streamForReplay(tenantId, from, to)) {
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                String customerId = (String) row[0];
+                @SuppressWarnings("unchecked")
+                Map<String, Object> payload = (Map<String, Object>) row[2];
+                if (payload == null) continue;
+                int p = customerId == null ? 0 : Math.floorMod(customerId.hashCode(), partitions.length);
+                List<ReplayEvent> batch = batches.get(p);
+                batch.add(new ReplayEvent((String) row[1], payload, ((OffsetDateTime) row[3]).toInstant().toEpochMilli()));
+                if (batch.size() == BATCH_SIZE) {
+                    partitions[p].queue.put(batch);
+                    batches.set(p, new ArrayList<>(BATCH_SIZE));
+                }
+                events++;
+            }
+        } finally {
+            for (int p = 0; p < partitions.length; p++) {
+                if (!batches.get(p).isEmpty()) partitions[p].queue.put(batches.get(p));
+                partitions[p].queue.put(END);
+            }
+        }
+        return events;
+    }
+
+    // ─── Candidate Rules ─────────────────────────────────────────────────────────
+
+    private List<FraudRule> applyOverrides(List<FraudRule> rules, List<BacktestRequest.RuleOverride> overrides) {
+        Map<String, BacktestRequest.RuleOverride> byCode = new HashMap<>();
+        for (BacktestRequest.RuleOverride o : overrides) byCode.put(o.getRuleCode(), o);
+        Set<String> known = new HashSet<>();
+        rules.forEach(r -> known.add(r.getRuleCode()));
+        for (String code : byCode.keySet()) {
+            if (!known.contains(code)) throw new BusinessException(HttpStatus.BAD_REQUEST, "Unknown rule: " + code);
+        }
+
+        List<FraudRule> result = new ArrayList<>(rules.size());
+        for (FraudRule rule : rules) {
+            BacktestRequest.RuleOverride o = byCode.get(rule.getRuleCode());
+            if (o == null) {
+                result.add(rule);
+                continue;
+            }
+            // Copies: the loaded rules are managed entities and must not change
+            Map<String, Object> parameters = new HashMap<>(rule.getParameters() != null ? rule.getParameters() : Map.of());
+            if (o.getParameters() != null) parameters.putAll(o.getParameters());
+            result.add(FraudRule.builder()
+                    .id(rule.getId())
+                    .tenantId(rule.getTenantId())
+                    .ruleCode(rule.getRuleCode())
+                    .ruleName(rule.getRuleName())
+                    .category(rule.getCategory())
+                    .severity(rule.getSeverity())
+                    .eventTypes(rule.getEventTypes())
+                    .enabled(o.getEnabled() != null ? o.getEnabled() : rule.getEnabled())
+                    .parameters(parameters)
+                    .build());
+        }
+        return result;
+    }
+
+    /** Longest counter window any of the rules reads, so simulated buckets are kept that long. */
+    private static int lookbackMinutes(List<FraudRule> rules) {
+        int lookback = DEFAULT_LOOKBACK_MINUTES;
+        for (FraudRule rule : rules) {
+            Map<String, Object> params = rule.getParameters();
+            if (params == null) continue;
+            lookback = Math.max(lookback, param(params, "windowMinutes"));
+            lookback = Math.max(lookback, param(params, "windowHours") * 60);
+            lookback = Math.max(lookback, param(params, "windowDays") * 1440);
+        }
+        return lookback;
+    }
+
+    private static int param(Map<String, Object> params, String key) {
+        Object val = params.get(key);
+        if (val instanceof Number n) return n.intValue();
+        if (val instanceof String s) { try { return Integer.parseInt(s); } catch (NumberFormatException e) { return 0; } }
+        return 0;
+    }
+
+    // ─── Results ─────────────────────────────────────────────────────────────────
+
+    private BacktestResponse summarize(Partition[] partitions, List<FraudRule> allRules,
+                                       List<BacktestRequest.RuleOverride> overrides, Set<String> confirmed) {
+        Map<String, Tally> current = new TreeMap<>();
+        Map<String, Tally> candidate = new TreeMap<>();
+        long customers = 0;
+        for (Partition p : partitions) {
+            p.current.forEach((code, t) -> current.computeIfAbsent(code, c -> new Tally()).merge(t));
+            p.candidate.forEach((code, t) -> candidate.computeIfAbsent(code, c -> new Tally()).merge(t));
+            customers += p.customers.size();
+        }
+
+        Map<String, Boolean> enabledNow = new HashMap<>();
+        Map<String, Boolean> enabledCandidate = new HashMap<>();
+        for (FraudRule r : allRules) {
+            enabledNow.merge(r.getRuleCode(), Boolean.TRUE.equals(r.getEnabled()), Boolean::logicalOr);
+        }
+        enabledNow.forEach(enabledCandidate::put);
+        Set<String> changed = new HashSet<>();
+        for (BacktestRequest.RuleOverride o : overrides) {
+            changed.add(o.getRuleCode());
+            if (o.getEnabled() != null) enabledCandidate.put(o.getRuleCode(), o.getEnabled());
+        }
+
+        List<BacktestResponse.RuleResult> results = new ArrayList<>();
+        for (String code : new TreeSet<>(enabledNow.keySet())) {
+            BacktestResponse.RuleResult result = new BacktestResponse.RuleResult();
+            result.setRuleCode(code);
+            result.setChanged(changed.contains(code));
+            result.setCurrent(outcome(enabledNow.get(code), current.get(code), confirmed));
+            result.setCandidate(outcome(enabledCandidate.get(code), candidate.get(code), confirmed));
+            results.add(result);
+        }
+
+        BacktestResponse response = new BacktestResponse();
+        response.setCustomers(customers);
+        response.setConfirmedFraudCustomers(confirmed.size());
+        response.setRules(results);
+        return response;
+    }
+
+    private static BacktestResponse.Outcome outcome(boolean enabled, Tally tally, Set<String> confirmed) {
+        BacktestResponse.Outcome outcome = new BacktestResponse.Outcome();
+        outcome.setEnabled(enabled);
+        long flagged = tally != null ? tally.customers.size() : 0;
+        long caught = tally != null ? tally.customers.stream().filter(confirmed::contains).count() : 0;
+        outcome.setAlerts(tally != null ? tally.alerts : 0);
+        outcome.setCustomersFlagged(flagged);
+        outcome.setConfirmedFraudFlagged(caught);
+        outcome.setPrecision(ratio(caught, flagged));
+        outcome.setRecall(ratio(caught, confirmed.size()));
+        return outcome;
+    }
+
+    private static BigDecimal ratio(long part, long whole) {
+        if (whole == 0) return BigDecimal.ZERO;
+        return BigDecimal.valueOf(part).divide(BigDecimal.valueOf(whole), 4, RoundingMode.HALF_UP);
+    }
+
+    // ─── Partitions ──────────────────────────────────────────────────────────────
+
+    private record ReplayEvent(String eventType, Map<String, Object> payload, long at) {}
+
+    private static final class Tally {
+        long alerts;
+        final Set<String> customers = new HashSet<>();
+
+        void merge(Tally other) {
+            alerts += other.alerts;
+            customers.addAll(other.customers);
+        }
+    }
+
+    /** One worker's customers: its own clock, counters, timelines, dedup and tallies. */
+    private final class Partition implements Callable<Void> {
+
+        final BlockingQueue<List<ReplayEvent>> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES_PER_PARTITION);
+        final Map<String, Tally> current = new HashMap<>();
+        final Map<String, Tally> candidate = new HashMap<>();
+        final Set<String> customers = new HashSet<>();
+
+        private final String tenantId;
+        private final List<FraudRule> currentRules;
+        private final List<FraudRule> candidateRules;
+        private final ReplayClock clock = new ReplayClock();
+        private final SimulatedVelocity velocity;
+        private final TimelineEngine timelines;
+        private final Map<String, Long> lastRaisedCurrent = new HashMap<>();
+        private final Map<String, Long> lastRaisedCandidate = new HashMap<>();
+
+        Partition(String tenantId, List<FraudRule> currentRules, List<FraudRule> candidateRules, int lookbackMinutes) {
+            this.tenantId = tenantId;
+            this.currentRules = currentRules;
+            this.candidateRules = candidateRules;
+            this.velocity = new SimulatedVelocity(clock, lookbackMinutes);
+            this.timelines = timelineEngine.forReplay(clock);
+        }
+
+        @Override
+        public Void call() throws InterruptedException {
+            RuntimeException failure = null;
+            for (List<ReplayEvent> batch = queue.take(); batch != END; batch = queue.take()) {
+                // Keep draining after a failure so the reader never blocks on a full queue
+                if (failure != null) continue;
+                try {
+                    for (ReplayEvent event : batch) process(event);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) throw failure;
+            return null;
+        }
+
+        private void process(ReplayEvent event) {
+            clock.millis = event.at();
+            Map<String, Object> payload = event.payload();
+            String customerId = RuleEngineService.extractString(payload, "customerId");
+            BigDecimal amount = RuleEngineService.extractAmount(payload);
+            if (customerId != null) customers.add(customerId);
+
+            // Same order as FraudDetectionService.processEvent: counters first, then rules
+            velocity.recordEvent(tenantId, customerId, event.eventType(), amount);
+            Map<String, PatternMatch> sequences = timelines.observe(tenantId, customerId, event.eventType(), amount);
+
+            count(ruleEngineService.evaluate(currentRules, tenantId, event.eventType(), payload, velocity, sequences),
+                    current, lastRaisedCurrent, event.at());
+            count(ruleEngineService.evaluate(candidateRules, tenantId, event.eventType(), payload, velocity, sequences),
+                    candidate, lastRaisedCandidate, event.at());
+        }
+
+        private void count(List<FraudAlert> alerts, Map<String, Tally> tallies, Map<String, Long> lastRaised, long at) {
+            long cutoff = at - FraudDetectionService.ALERT_DEDUP_WINDOW.toMillis();
+            for (FraudAlert alert : alerts) {
+                String customerId = alert.getCustomerId();
+                if (customerId != null) {
+                    Long last = lastRaised.get(customerId + '\0' + alert.getRuleCode());
+                    if (last != null && last > cutoff) continue;
+                    lastRaised.put(customerId + '\0' + alert.getRuleCode(), at);
+                }
+                Tally tally = tallies.computeIfAbsent(alert.getRuleCode(), c -> new Tally());
+                tally.alerts++;
+                if (customerId != null) tally.customers.add(customerId);
+            }
+        }
+    }
+
+    private static final class ReplayClock extends Clock {
+        volatile long millis;
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public long millis() { return millis; }
+        @Override public Instant instant() { return Instant.ofEpochMilli(millis); }
+    }
+}
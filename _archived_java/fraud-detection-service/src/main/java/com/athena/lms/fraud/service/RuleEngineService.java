@@ -1,6 +1,8 @@
 package com.athena.lms.fraud.service;
 
 import com.athena.lms.common.event.EventTypes;
+import com.athena.lms.fraud.cep.PatternMatch;
+import com.athena.lms.fraud.cep.TimelineEngine;
 import com.athena.lms.fraud.config.FraudThresholdConfig;
 import com.athena.lms.fraud.entity.FraudAlert;
 import com.athena.lms.fraud.entity.FraudRule;
@@ -8,6 +10,8 @@ import com.athena.lms.fraud.entity.WatchlistEntry;
 import com.athena.lms.fraud.enums.*;
 import com.athena.lms.fraud.repository.FraudRuleRepository;
 import com.athena.lms.fraud.repository.WatchlistRepository;
+import com.athena.lms.fraud.rules.RuleConfigRegistry;
+import com.athena.lms.fraud.rules.RuleConfigSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,11 +28,43 @@ public class RuleEngineService {
     private final FraudRuleRepository ruleRepository;
     private final VelocityService velocityService;
     private final WatchlistRepository watchlistRepository;
-    private final FraudThresholdConfig thresholdConfig;
+    private final RuleConfigRegistry ruleConfig;
+    private final TimelineEngine timelineEngine;
 
+    /**
+     * Evaluates the tenant's rules from the current rule configuration snapshot; each alert is
+     * stamped with the snapshot's version.
+     */
     public List<FraudAlert> evaluate(String tenantId, String eventType, Map<String, Object> eventData) {
-        List<FraudRule> rules = ruleRepository.findActiveRules(tenantId);
+        RuleConfigSnapshot config = ruleConfig.current();
+        String customerId = extractString(eventData, "customerId");
+        Map<String, PatternMatch> sequenceMatches =
+                timelineEngine.observe(tenantId, customerId, eventType, extractAmount(eventData));
+
+        List<FraudAlert> alerts = evaluate(config, config.rulesFor(tenantId), tenantId, eventType, eventData,
+                velocityService, sequenceMatches);
+        for (FraudAlert alert : alerts) {
+            log.info("Rule {} triggered for customer={} event={}", alert.getRuleCode(), customerId, eventType);
+        }
+        return alerts;
+    }
+
+    /**
+     * Evaluates the given rules against the given counters and completed sequences, without
+     * loading rules or recording the event anywhere. RuleBacktestService uses this to run
+     * candidate rules over replayed history; thresholds come from the current snapshot.
+     */
+    public List<FraudAlert> evaluate(List<FraudRule> rules, String tenantId, String eventType,
+                                     Map<String, Object> eventData, VelocityStore velocity,
+                                     Map<String, PatternMatch> sequenceMatches) {
+        return evaluate(ruleConfig.current(), rules, tenantId, eventType, eventData, velocity, sequenceMatches);
+    }
+
+    private List<FraudAlert> evaluate(RuleConfigSnapshot config, List<FraudRule> rules, String tenantId,
+                                      String eventType, Map<String, Object> eventData, VelocityStore velocity,
+                                      Map<String, PatternMatch> sequenceMatches) {
         List<FraudAlert> alerts = new ArrayList<>();
+        FraudThresholdConfig thresholds = config.getThresholds();
 
         String customerId = extractString(eventData, "customerId");
         BigDecimal amount = extractAmount(eventData);
@@ -38,10 +74,13 @@ public class RuleEngineService {
             if (!rule.appliesTo(eventType)) continue;
 
             try {
-                FraudAlert alert = evaluateRule(rule, tenantId, eventType, customerId, amount, subjectId, eventData);
+                FraudAlert alert = timelineEngine.handles(rule.getRuleCode())
+                        ? evaluateSequence(rule, tenantId, eventType, customerId, amount, subjectId,
+                                           sequenceMatches.get(rule.getRuleCode()))
+                        : evaluateRule(rule, thresholds, velocity, tenantId, eventType, customerId, amount, subjectId, eventData);
                 if (alert != null) {
+                    alert.setRuleConfigVersion(config.getVersion());
                     alerts.add(alert);
-                    log.info("Rule {} triggered for customer={} event={}", rule.getRuleCode(), customerId, eventType);
                 }
             } catch (Exception e) {
                 log.error("Error evaluating rule {}: {}", rule.getRuleCode(), e.getMessage(), e);
@@ -51,29 +90,31 @@ public class RuleEngineService {
         return alerts;
     }
 
-    private FraudAlert evaluateRule(FraudRule rule, String tenantId, String eventType,
+    private FraudAlert evaluateRule(FraudRule rule, FraudThresholdConfig thresholds, VelocityStore velocity,
+                                     String tenantId, String eventType,
                                      String customerId, BigDecimal amount, String subjectId,
                                      Map<String, Object> eventData) {
         return switch (rule.getRuleCode()) {
-            case "LARGE_SINGLE_TXN" -> evaluateLargeTransaction(rule, tenantId, eventType, customerId, amount, subjectId);
-            case "STRUCTURING" -> evaluateStructuring(rule, tenantId, eventType, customerId, amount, subjectId);
-            case "HIGH_VELOCITY_1H" -> evaluateVelocity(rule, tenantId, eventType, customerId, amount, subjectId, 60);
-            case "HIGH_VELOCITY_24H" -> evaluateVelocity(rule, tenantId, eventType, customerId, amount, subjectId, 1440);
-            case "APPLICATION_STACKING" -> evaluateApplicationStacking(rule, tenantId, eventType, customerId, subjectId);
-            case "RAPID_FUND_MOVEMENT" -> evaluateRapidFundMovement(rule, tenantId, eventType, customerId, amount, subjectId);
-            case "ROUND_AMOUNT_PATTERN" -> evaluateRoundAmountPattern(rule, tenantId, eventType, customerId, amount, subjectId);
+            case "LARGE_SINGLE_TXN" -> evaluateLargeTransaction(rule, thresholds, tenantId, eventType, customerId, amount, subjectId);
+            case "STRUCTURING" -> evaluateStructuring(rule, thresholds, velocity, tenantId, eventType, customerId, amount, subjectId);
+            case "HIGH_VELOCITY_1H" -> evaluateVelocity(rule, thresholds, velocity, tenantId, eventType, customerId, amount, subjectId, 60);
+            case "HIGH_VELOCITY_24H" -> evaluateVelocity(rule, thresholds, velocity, tenantId, eventType, customerId, amount, subjectId, 1440);
+            case "APPLICATION_STACKING" -> evaluateApplicationStacking(rule, thresholds, velocity, tenantId, eventType, customerId, subjectId);
+            case "RAPID_FUND_MOVEMENT" -> evaluateRapidFundMovement(rule, thresholds, velocity, tenantId, eventType, customerId, amount, subjectId);
+            case "ROUND_AMOUNT_PATTERN" -> evaluateRoundAmountPattern(rule, velocity, tenantId, eventType, customerId, amount, subjectId);
             case "WATCHLIST_MATCH" -> evaluateWatchlistMatch(rule, tenantId, eventType, customerId, subjectId, eventData);
             case "OVERPAYMENT" -> evaluateOverpayment(rule, tenantId, eventType, customerId, amount, subjectId, eventData);
-            case "LOAN_CYCLING" -> evaluateLoanCycling(rule, tenantId, eventType, customerId, subjectId);
-            case "DORMANT_REACTIVATION" -> evaluateDormantReactivation(rule, tenantId, eventType, customerId, subjectId, eventData);
+            case "LOAN_CYCLING" -> evaluateLoanCycling(rule, thresholds, velocity, tenantId, eventType, customerId, subjectId);
+            case "DORMANT_REACTIVATION" -> evaluateDormantReactivation(rule, thresholds, tenantId, eventType, customerId, subjectId, eventData);
             default -> null; // Unknown rules are skipped
         };
     }
 
-    private FraudAlert evaluateLargeTransaction(FraudRule rule, String tenantId, String eventType,
+    private FraudAlert evaluateLargeTransaction(FraudRule rule, FraudThresholdConfig thresholds,
+                                                 String tenantId, String eventType,
                                                  String customerId, BigDecimal amount, String subjectId) {
         if (amount == null) return null;
-        BigDecimal threshold = getParamDecimal(rule, "threshold", thresholdConfig.getLargeTransactionAmount());
+        BigDecimal threshold = getParamDecimal(rule, "threshold", thresholds.getLargeTransactionAmount());
         if (amount.compareTo(threshold) >= 0) {
             return buildAlert(rule, tenantId, eventType, customerId, subjectId, amount,
                     AlertType.LARGE_TRANSACTION,
@@ -82,20 +123,21 @@ public class RuleEngineService {
         return null;
     }
 
-    private FraudAlert evaluateStructuring(FraudRule rule, String tenantId, String eventType,
+    private FraudAlert evaluateStructuring(FraudRule rule, FraudThresholdConfig thresholds, VelocityStore velocity,
+                                            String tenantId, String eventType,
                                             String customerId, BigDecimal amount, String subjectId) {
         if (customerId == null || amount == null) return null;
-        int windowHours = getParamInt(rule, "windowHours", thresholdConfig.getStructuringWindowHours());
-        BigDecimal threshold = getParamDecimal(rule, "threshold", thresholdConfig.getStructuringThreshold());
+        int windowHours = getParamInt(rule, "windowHours", thresholds.getStructuringWindowHours());
+        BigDecimal threshold = getParamDecimal(rule, "threshold", thresholds.getStructuringThreshold());
         BigDecimal perTxnCeiling = getParamDecimal(rule, "perTxnCeiling", new BigDecimal("999999"));
         int minTxns = getParamInt(rule, "minTransactions", 3);
 
         // Only flag if individual transaction is below ceiling (potential structuring)
         if (amount.compareTo(perTxnCeiling) > 0) return null;
 
-        BigDecimal totalAmount = velocityService.getTotalAmount(
+        BigDecimal totalAmount = velocity.getTotalAmount(
                 tenantId, customerId, "TXN_AMOUNT", windowHours * 60);
-        int txnCount = velocityService.getCount(
+        int txnCount = velocity.getCount(
                 tenantId, customerId, "TXN_COUNT", windowHours * 60);
 
         if (totalAmount.add(amount).compareTo(threshold) >= 0 && txnCount >= minTxns) {
@@ -107,16 +149,17 @@ public class RuleEngineService {
         return null;
     }
 
-    private FraudAlert evaluateVelocity(FraudRule rule, String tenantId, String eventType,
+    private FraudAlert evaluateVelocity(FraudRule rule, FraudThresholdConfig thresholds, VelocityStore velocity,
+                                         String tenantId, String eventType,
                                          String customerId, BigDecimal amount, String subjectId,
                                          int defaultWindowMinutes) {
         if (customerId == null) return null;
         int maxTxns = getParamInt(rule, "maxTransactions",
-                defaultWindowMinutes == 60 ? thresholdConfig.getVelocityMaxTransactions1h()
-                                           : thresholdConfig.getVelocityMaxTransactions24h());
+                defaultWindowMinutes == 60 ? thresholds.getVelocityMaxTransactions1h()
+                                           : thresholds.getVelocityMaxTransactions24h());
         int windowMinutes = getParamInt(rule, "windowMinutes", defaultWindowMinutes);
 
-        int count = velocityService.getCount(tenantId, customerId, "TXN_COUNT", windowMinutes);
+        int count = velocity.getCount(tenantId, customerId, "TXN_COUNT", windowMinutes);
         if (count >= maxTxns) {
             return buildAlert(rule, tenantId, eventType, customerId, subjectId, amount,
                     AlertType.HIGH_VELOCITY,
@@ -126,13 +169,14 @@ public class RuleEngineService {
         return null;
     }
 
-    private FraudAlert evaluateApplicationStacking(FraudRule rule, String tenantId, String eventType,
+    private FraudAlert evaluateApplicationStacking(FraudRule rule, FraudThresholdConfig thresholds, VelocityStore velocity,
+                                                    String tenantId, String eventType,
                                                     String customerId, String subjectId) {
         if (customerId == null) return null;
-        int maxApps = getParamInt(rule, "maxApplications", thresholdConfig.getVelocityMaxApplications30d());
+        int maxApps = getParamInt(rule, "maxApplications", thresholds.getVelocityMaxApplications30d());
         int windowDays = getParamInt(rule, "windowDays", 30);
 
-        int count = velocityService.getCount(tenantId, customerId, "LOAN_APP", windowDays * 1440);
+        int count = velocity.getCount(tenantId, customerId, "LOAN_APP", windowDays * 1440);
         if (count >= maxApps) {
             return buildAlert(rule, tenantId, eventType, customerId, subjectId, null,
                     AlertType.APPLICATION_STACKING,
@@ -142,13 +186,14 @@ public class RuleEngineService {
         return null;
     }
 
-    private FraudAlert evaluateRapidFundMovement(FraudRule rule, String tenantId, String eventType,
+    private FraudAlert evaluateRapidFundMovement(FraudRule rule, FraudThresholdConfig thresholds, VelocityStore velocity,
+                                                   String tenantId, String eventType,
                                                    String customerId, BigDecimal amount, String subjectId) {
         if (customerId == null) return null;
-        int windowMinutes = getParamInt(rule, "windowMinutes", thresholdConfig.getRapidTransferWindowMinutes());
+        int windowMinutes = getParamInt(rule, "windowMinutes", thresholds.getRapidTransferWindowMinutes());
 
-        int creditCount = velocityService.getCount(tenantId, customerId, "CREDIT_RECEIVED", windowMinutes);
-        int transferCount = velocityService.getCount(tenantId, customerId, "TRANSFER_OUT", windowMinutes);
+        int creditCount = velocity.getCount(tenantId, customerId, "CREDIT_RECEIVED", windowMinutes);
+        int transferCount = velocity.getCount(tenantId, customerId, "TRANSFER_OUT", windowMinutes);
 
         if (creditCount > 0 && transferCount > 0) {
             return buildAlert(rule, tenantId, eventType, customerId, subjectId, amount,
@@ -159,13 +204,13 @@ public class RuleEngineService {
         return null;
     }
 
-    private FraudAlert evaluateRoundAmountPattern(FraudRule rule, String tenantId, String eventType,
+    private FraudAlert evaluateRoundAmountPattern(FraudRule rule, VelocityStore velocity, String tenantId, String eventType,
                                                     String customerId, BigDecimal amount, String subjectId) {
         if (customerId == null || amount == null) return null;
         BigDecimal roundThreshold = getParamDecimal(rule, "roundThreshold", new BigDecimal("10000"));
 
         if (amount.remainder(roundThreshold).compareTo(BigDecimal.ZERO) == 0) {
-            int roundCount = velocityService.getCount(tenantId, customerId, "ROUND_AMOUNT", 1440);
+            int roundCount = velocity.getCount(tenantId, customerId, "ROUND_AMOUNT", 1440);
             int minRound = getParamInt(rule, "minRoundTxns", 5);
             if (roundCount >= minRound) {
                 return buildAlert(rule, tenantId, eventType, customerId, subjectId, amount,
@@ -222,13 +267,14 @@ public class RuleEngineService {
         return null;
     }
 
-    private FraudAlert evaluateLoanCycling(FraudRule rule, String tenantId, String eventType,
+    private FraudAlert evaluateLoanCycling(FraudRule rule, FraudThresholdConfig thresholds, VelocityStore velocity,
+                                            String tenantId, String eventType,
                                             String customerId, String subjectId) {
         if (customerId == null) return null;
-        int windowDays = getParamInt(rule, "windowDays", thresholdConfig.getLoanCyclingWindowDays());
+        int windowDays = getParamInt(rule, "windowDays", thresholds.getLoanCyclingWindowDays());
 
-        int closedLoans = velocityService.getCount(tenantId, customerId, "LOAN_CLOSED", windowDays * 1440);
-        int newApps = velocityService.getCount(tenantId, customerId, "LOAN_APP", windowDays * 1440);
+        int closedLoans = velocity.getCount(tenantId, customerId, "LOAN_CLOSED", windowDays * 1440);
+        int newApps = velocity.getCount(tenantId, customerId, "LOAN_APP", windowDays * 1440);
 
         if (closedLoans > 0 && newApps > 0) {
             return buildAlert(rule, tenantId, eventType, customerId, subjectId, null,
@@ -239,20 +285,36 @@ public class RuleEngineService {
         return null;
     }
 
-    private FraudAlert evaluateDormantReactivation(FraudRule rule, String tenantId, String eventType,
+    private FraudAlert evaluateDormantReactivation(FraudRule rule, FraudThresholdConfig thresholds,
+                                                     String tenantId, String eventType,
                                                      String customerId, String subjectId,
                                                      Map<String, Object> eventData) {
         if (customerId == null) return null;
-        Object lastActivityObj = eventData.get("lastActivityDate");
-        if (lastActivityObj == null) return null;
+        // account.reactivated carries how long the account had been idle
+        BigDecimal inactiveDays = extractDecimal(eventData, "inactiveDays");
+        if (inactiveDays == null) return null;
 
-        // If event data includes account dormancy info, check it
-        int dormantDays = getParamInt(rule, "dormantDays", thresholdConfig.getDormantAccountDays());
+        int dormantDays = getParamInt(rule, "dormantDays", thresholds.getDormantAccountDays());
+        if (inactiveDays.intValue() < dormantDays) return null;
         BigDecimal amount = extractAmount(eventData);
 
         return buildAlert(rule, tenantId, eventType, customerId, subjectId, amount,
                 AlertType.DORMANT_REACTIVATION,
-                String.format("Activity on previously dormant account (dormant threshold: %d days)", dormantDays));
+                String.format("Activity on account dormant for %d days (threshold: %d days)",
+                        inactiveDays.intValue(), dormantDays));
+    }
+
+    private FraudAlert evaluateSequence(FraudRule rule, String tenantId, String eventType,
+                                        String customerId, BigDecimal amount, String subjectId,
+                                        PatternMatch match) {
+        if (match == null) return null;
+        String description = match.firstAmount() != null
+                ? String.format("Sequence %s: %s of %s followed by %s across %d events within %s",
+                        rule.getRuleCode(), match.firstEventType(), match.firstAmount(), match.followedAmount(),
+                        match.followEvents(), formatElapsed(match.elapsed()))
+                : String.format("Sequence %s: %s followed by %s within %s",
+                        rule.getRuleCode(), match.firstEventType(), eventType, formatElapsed(match.elapsed()));
+        return buildAlert(rule, tenantId, eventType, customerId, subjectId, amount, match.alertType(), description);
     }
 
     // ─── Rule CRUD ────────────────────────────────────────────────────────────
@@ -274,7 +336,9 @@ public class RuleEngineService {
         if (req.getSeverity() != null) rule.setSeverity(AlertSeverity.valueOf(req.getSeverity()));
         if (req.getEnabled() != null) rule.setEnabled(req.getEnabled());
         if (req.getParameters() != null) rule.setParameters(req.getParameters());
-        return ruleRepository.save(rule);
+        FraudRule saved = ruleRepository.saveAndFlush(rule);
+        ruleConfig.publishAfterCommit();
+        return saved;
     }
 
     // ─── Helpers ─────────────────────────────────────────────────────────────────
@@ -303,6 +367,12 @@ public class RuleEngineService {
                 .build();
     }
 
+    private String formatElapsed(java.time.Duration elapsed) {
+        if (elapsed.toDays() > 0) return elapsed.toDays() + " days";
+        if (elapsed.toHours() > 0) return elapsed.toHours() + " hours";
+        return elapsed.toMinutes() + " minutes";
+    }
+
     private String deriveSubjectType(String eventType) {
         if (eventType == null) return "UNKNOWN";
         if (eventType.startsWith("payment.") || eventType.startsWith("transfer.")) return "TRANSACTION";
@@ -315,7 +385,7 @@ public class RuleEngineService {
         return "OTHER";
     }
 
-    private String extractString(Map<String, Object> data, String key) {
+    static String extractString(Map<String, Object> data, String key) {
         if (data == null) return null;
         // Check nested payload
         Object val = data.get(key);
@@ -328,7 +398,7 @@ public class RuleEngineService {
         return null;
     }
 
-    private BigDecimal extractAmount(Map<String, Object> data) {
+    static BigDecimal extractAmount(Map<String, Object> data) {
         String amt = extractString(data, "amount");
         if (amt == null) amt = extractString(data, "triggerAmount");
         if (amt == null) amt = extractString(data, "totalAmount");
@@ -2,6 +2,7 @@ package com.athena.lms.fraud.service;
 
 import com.athena.lms.common.dto.PageResponse;
 import com.athena.lms.common.exception.ResourceNotFoundException;
+import com.athena.lms.common.sequence.SequenceService;
 import com.athena.lms.fraud.dto.request.CreateSarReportRequest;
 import com.athena.lms.fraud.dto.request.UpdateSarReportRequest;
 import com.athena.lms.fraud.dto.response.SarReportResponse;
@@ -37,10 +38,10 @@ public class SarReportService {
     private final FraudAlertRepository alertRepository;
     private final CaseManagementService caseManagementService;
     private final FraudEventPublisher eventPublisher;
+    private final SequenceService sequenceService;
 
     public SarReportResponse createReport(CreateSarReportRequest req, String tenantId) {
-        int maxNum = sarReportRepository.findMaxReportNumber(tenantId);
-        String reportNumber = String.format("SAR-%05d", maxNum + 1);
+        String reportNumber = sequenceService.nextFormatted(tenantId, "sar-report");
 
         SarReportType reportType = req.getReportType() != null
                 ? SarReportType.valueOf(req.getReportType())
@@ -183,8 +184,7 @@ public class SarReportService {
             }
         }
 
-        int maxNum = sarReportRepository.findMaxReportNumber(tenantId);
-        String reportNumber = String.format("SAR-%05d", maxNum + 1);
+        String reportNumber = sequenceService.nextFormatted(tenantId, "sar-report");
 
         SarReport report = SarReport.builder()
                 .tenantId(tenantId)
@@ -212,8 +212,7 @@ public class SarReportService {
 
     public SarReportResponse generateCTR(String tenantId, String customerId, BigDecimal amount,
                                           Map<String, Object> eventData) {
-        int maxNum = sarReportRepository.findMaxReportNumber(tenantId);
-        String reportNumber = String.format("SAR-%05d", maxNum + 1);
+        String reportNumber = sequenceService.nextFormatted(tenantId, "sar-report");
 
         String narrative = String.format(
                 "Currency Transaction Report: Customer %s conducted a transaction of %s exceeding the reporting threshold.",
@@ -0,0 +1,146 @@
+package com.athena.lms.fraud.service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory VelocityStore for replaying history: the same buckets VelocityService would have
+ * written, read back with the same "window end after now - window" cut, but with now taken
+ * from the replay clock. Each customer holds one small time-ordered bucket array per counter
+ * type; buckets older than lookbackMinutes are dropped as the replay moves on, and customers
+ * with nothing left are swept periodically, so memory tracks the customers active within the
+ * lookback rather than all customers replayed. Not thread-safe; each backtest partition owns one.
+ */
+class SimulatedVelocity implements VelocityStore {
+
+    private static final int SWEEP_INTERVAL = 100_000;
+
+    private final Clock clock;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final long lookbackMillis;
+    // windowMinutes -> {start, end} of the bucket last written, reused while the replay is inside it
+    private final Map<Integer, long[]> currentBucket = new HashMap<>();
+    private final Map<String, Integer> counterTypes = new HashMap<>();
+    private final Map<String, Buckets[]> customers = new HashMap<>();
+    private int incrementsSinceSweep;
+
+    SimulatedVelocity(Clock clock, int lookbackMinutes) {
+        this.clock = clock;
+        this.lookbackMillis = lookbackMinutes * 60_000L;
+    }
+
+    @Override
+    public void increment(String tenantId, String customerId, String counterType,
+                          BigDecimal amount, int windowMinutes) {
+        long now = clock.millis();
+        long[] window = currentBucket.get(windowMinutes);
+        if (window == null || now < window[0] || now >= window[1]) {
+            OffsetDateTime start = VelocityService.bucketStart(OffsetDateTime.ofInstant(clock.instant(), zone), windowMinutes);
+            window = new long[]{start.toInstant().toEpochMilli(), start.plusMinutes(windowMinutes).toInstant().toEpochMilli()};
+            currentBucket.put(windowMinutes, window);
+        }
+
+        buckets(customerId, counterType, true).add(window[1], amount, now - lookbackMillis);
+        // Sweep cost is proportional to customers held, so sweep no more often than that many increments
+        if (++incrementsSinceSweep >= Math.max(SWEEP_INTERVAL, customers.size())) {
+            incrementsSinceSweep = 0;
+            long expired = now - lookbackMillis;
+            customers.values().removeIf(row -> isExpired(row, expired));
+        }
+    }
+
+    private static boolean isExpired(Buckets[] row, long expired) {
+        for (Buckets b : row) {
+            if (b != null && b.lastEnd() > expired) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int getCount(String tenantId, String customerId, String counterType, int windowMinutes) {
+        Buckets buckets = buckets(customerId, counterType, false);
+        return buckets == null ? 0 : buckets.count(clock.millis() - windowMinutes * 60_000L);
+    }
+
+    @Override
+    public BigDecimal getTotalAmount(String tenantId, String customerId, String counterType, int windowMinutes) {
+        Buckets buckets = buckets(customerId, counterType, false);
+        return buckets == null ? BigDecimal.ZERO : buckets.totalAmount(clock.millis() - windowMinutes * 60_000L);
+    }
+
+    private Buckets buckets(String customerId, String counterType, boolean create) {
+        Integer index = counterTypes.get(counterType);
+        if (index == null) {
+            if (!create) return null;
+            index = counterTypes.size();
+            counterTypes.put(counterType, index);
+        }
+        Buckets[] row = customers.get(customerId);
+        if (row == null || index >= row.length) {
+            if (!create) return null;
+            row = row == null ? new Buckets[Math.max(index + 1, 8)] : Arrays.copyOf(row, index + 1);
+            customers.put(customerId, row);
+        }
+        if (row[index] == null && create) row[index] = new Buckets();
+        return row[index];
+    }
+
+    /** One counter's buckets in window-end order; the replay only ever appends at the end. */
+    private static final class Buckets {
+        private long[] ends = new long[2];
+        private int[] counts = new int[2];
+        private BigDecimal[] amounts = new BigDecimal[2];
+        private int first;
+        private int last = -1;
+
+        void add(long end, BigDecimal amount, long expireUpTo) {
+            while (first <= last && ends[first] <= expireUpTo) amounts[first++] = null;
+            if (first > last || ends[last] != end) {
+                if (last + 1 == ends.length) makeRoom();
+                last++;
+                ends[last] = end;
+                counts[last] = 0;
+                amounts[last] = BigDecimal.ZERO;
+            }
+            counts[last]++;
+            if (amount != null) amounts[last] = amounts[last].add(amount);
+        }
+
+        int count(long since) {
+            int total = 0;
+            for (int i = last; i >= first && ends[i] > since; i--) total += counts[i];
+            return total;
+        }
+
+        BigDecimal totalAmount(long since) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = last; i >= first && ends[i] > since; i--) total = total.add(amounts[i]);
+            return total;
+        }
+
+        long lastEnd() {
+            return first <= last ? ends[last] : Long.MIN_VALUE;
+        }
+
+        private void makeRoom() {
+            int size = last - first + 1;
+            int capacity = size * 2 > ends.length ? ends.length * 2 : ends.length;
+            long[] newEnds = new long[capacity];
+            int[] newCounts = new int[capacity];
+            BigDecimal[] newAmounts = new BigDecimal[capacity];
+            System.arraycopy(ends, first, newEnds, 0, size);
+            System.arraycopy(counts, first, newCounts, 0, size);
+            System.arraycopy(amounts, first, newAmounts, 0, size);
+            ends = newEnds;
+            counts = newCounts;
+            amounts = newAmounts;
+            first = 0;
+            last = size - 1;
+        }
+    }
+}
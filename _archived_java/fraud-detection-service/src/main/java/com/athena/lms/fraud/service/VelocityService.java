@@ -14,24 +14,15 @@ import java.time.temporal.ChronoUnit;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class VelocityService {
+public class VelocityService implements VelocityStore {
 
     private final VelocityCounterRepository counterRepository;
 
+    @Override
     @Transactional
     public void increment(String tenantId, String customerId, String counterType,
                           BigDecimal amount, int windowMinutes) {
-        OffsetDateTime now = OffsetDateTime.now();
-        OffsetDateTime start;
-        if (windowMinutes < 60) {
-            int minuteBucket = (now.getMinute() / windowMinutes) * windowMinutes;
-            start = now.truncatedTo(ChronoUnit.HOURS).plusMinutes(minuteBucket);
-        } else if (windowMinutes >= 1440) {
-            start = now.truncatedTo(ChronoUnit.DAYS);
-        } else {
-            start = now.truncatedTo(ChronoUnit.HOURS);
-        }
-        final OffsetDateTime windowStart = start;
+        final OffsetDateTime windowStart = bucketStart(OffsetDateTime.now(), windowMinutes);
         final OffsetDateTime windowEnd = windowStart.plusMinutes(windowMinutes);
 
         VelocityCounter counter = counterRepository
@@ -54,15 +45,28 @@ public class VelocityService {
         counterRepository.save(counter);
     }
 
+    @Override
     @Transactional(readOnly = true)
     public int getCount(String tenantId, String customerId, String counterType, int windowMinutes) {
         OffsetDateTime since = OffsetDateTime.now().minusMinutes(windowMinutes);
         return counterRepository.sumCountSince(tenantId, customerId, counterType, since);
     }
 
+    @Override
     @Transactional(readOnly = true)
     public BigDecimal getTotalAmount(String tenantId, String customerId, String counterType, int windowMinutes) {
         OffsetDateTime since = OffsetDateTime.now().minusMinutes(windowMinutes);
         return counterRepository.sumAmountSince(tenantId, customerId, counterType, since);
     }
+
+    /** Start of the counter bucket an increment at the given time lands in. */
+    static OffsetDateTime bucketStart(OffsetDateTime now, int windowMinutes) {
+        if (windowMinutes < 60) {
+            int minuteBucket = (now.getMinute() / windowMinutes) * windowMinutes;
+            return now.truncatedTo(ChronoUnit.HOURS).plusMinutes(minuteBucket);
+        } else if (windowMinutes >= 1440) {
+            return now.truncatedTo(ChronoUnit.DAYS);
+        }
+        return now.truncatedTo(ChronoUnit.HOURS);
+    }
 }
@@ -0,0 +1,59 @@
+package com.athena.lms.fraud.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Bucketed per-customer counters read by the velocity rules. VelocityService keeps them in
+ * velocity_counters; RuleBacktestService replays history against an in-memory copy.
+ */
+public interface VelocityStore {
+
+    void increment(String tenantId, String customerId, String counterType, BigDecimal amount, int windowMinutes);
+
+    int getCount(String tenantId, String customerId, String counterType, int windowMinutes);
+
+    BigDecimal getTotalAmount(String tenantId, String customerId, String counterType, int windowMinutes);
+
+    /** Increments the counters the rules read for one processed event. */
+    default void recordEvent(String tenantId, String customerId, String eventType, BigDecimal amount) {
+        if (customerId == null) return;
+
+        // Transaction count (hourly buckets)
+        increment(tenantId, customerId, "TXN_COUNT", amount, 60);
+
+        // Event-type-specific counters
+        switch (eventType) {
+            case "payment.completed", "account.credit.received" ->
+                increment(tenantId, customerId, "CREDIT_RECEIVED", amount, 60);
+            case "transfer.completed", "mobile.transfer.completed" ->
+                increment(tenantId, customerId, "TRANSFER_OUT", amount, 60);
+            case "loan.application.submitted" ->
+                increment(tenantId, customerId, "LOAN_APP", BigDecimal.ZERO, 1440);
+            case "loan.closed" ->
+                increment(tenantId, customerId, "LOAN_CLOSED", BigDecimal.ZERO, 1440);
+            case "payment.reversed" ->
+                increment(tenantId, customerId, "PAYMENT_REVERSED", amount, 1440);
+        }
+
+        // Round amount tracking
+        if (amount != null && isRoundAmount(amount)) {
+            increment(tenantId, customerId, "ROUND_AMOUNT", amount, 1440);
+        }
+
+        // Running transaction amount for structuring detection
+        if (amount != null) {
+            increment(tenantId, customerId, "TXN_AMOUNT", amount, 60);
+        }
+    }
+
+    /**
+     * Whether the amount is a multiple of 10,000. Equivalent to a zero remainder, but without a
+     * BigDecimal division for the common case of amounts that fit in a long.
+     */
+    private static boolean isRoundAmount(BigDecimal amount) {
+        BigDecimal a = amount.scale() > 0 ? amount.stripTrailingZeros() : amount;
+        if (a.scale() > 0) return false;
+        if (a.precision() - a.scale() > 18) return a.remainder(BigDecimal.valueOf(10_000)).signum() == 0;
+        return a.longValue() % 10_000 == 0;
+    }
+}
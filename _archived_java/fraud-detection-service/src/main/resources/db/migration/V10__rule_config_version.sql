@@ -0,0 +1,28 @@
+-- ─── Rule configuration version ─────────────────────────────────────────────
+-- Every replica evaluates rules from an in-memory snapshot stamped with this version. Any
+-- statement that changes fraud_rules bumps it in the same transaction, so the row lock also
+-- orders concurrent rule changes: versions are handed out in commit order, and a snapshot read
+-- inside the changing transaction is exactly the configuration that version names.
+
+CREATE TABLE fraud_rule_config (
+    id         SMALLINT PRIMARY KEY CHECK (id = 1),
+    version    BIGINT NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO fraud_rule_config (id, version) VALUES (1, 1);
+
+CREATE OR REPLACE FUNCTION fraud_rule_config_bump() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE fraud_rule_config SET version = version + 1, updated_at = NOW() WHERE id = 1;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_fraud_rules_config_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON fraud_rules
+    FOR EACH STATEMENT EXECUTE FUNCTION fraud_rule_config_bump();
+
+-- The configuration version each rule alert was raised under
+ALTER TABLE fraud_alerts ADD COLUMN rule_config_version BIGINT;
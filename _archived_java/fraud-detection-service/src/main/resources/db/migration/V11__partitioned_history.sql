@@ -0,0 +1,217 @@
+-- ─── Partitioned history tables ─────────────────────────────────────────────
+-- fraud_events, scoring_history and fraud_audit_log only ever grow. They become range
+-- partitioned by month (UTC) on their timestamp column, named <table>_pYYYY_MM, so that
+-- retention is a partition drop instead of a bulk DELETE and time-bounded queries only touch
+-- the months they ask for. PartitionMaintenanceService creates months ahead of time and, once
+-- a month falls out of its table's hot window, exports it to an archive segment on disk
+-- (recorded in fraud_archive_segments) before dropping it.
+--
+-- Each table also gets a DEFAULT partition so an insert never fails for want of a month;
+-- fraud_ensure_partitions moves any rows that landed there into the month when it is created.
+
+-- ─── Partition management ───────────────────────────────────────────────────
+
+-- Creates the missing monthly partitions of p_parent from p_from's month through p_to's month;
+-- returns how many were created.
+CREATE OR REPLACE FUNCTION fraud_ensure_partitions(p_parent TEXT, p_key TEXT, p_from DATE, p_to DATE)
+RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    month   DATE := date_trunc('month', p_from)::date;
+    part    TEXT;
+    lower_b TIMESTAMPTZ;
+    upper_b TIMESTAMPTZ;
+    created INT := 0;
+BEGIN
+    WHILE month <= p_to LOOP
+        part := format('%s_p%s', p_parent, to_char(month, 'YYYY_MM'));
+        IF to_regclass(part) IS NULL THEN
+            lower_b := month::timestamp AT TIME ZONE 'UTC';
+            upper_b := (month + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC';
+
+            EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part, p_parent);
+            -- Rows that fell into the default partition before this month existed move with it
+            EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) '
+                           'INSERT INTO %I SELECT * FROM moved',
+                           p_parent || '_default', p_key, lower_b, p_key, upper_b, part);
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           p_parent, part, lower_b, upper_b);
+            created := created + 1;
+        END IF;
+        month := (month + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+-- The monthly partitions of p_parent with their ranges, oldest first (the default partition excluded).
+CREATE OR REPLACE FUNCTION fraud_list_partitions(p_parent TEXT)
+RETURNS TABLE (partition_name TEXT, range_from TIMESTAMPTZ, range_to TIMESTAMPTZ)
+LANGUAGE sql STABLE AS $$
+    SELECT c.relname::text,
+           to_date(m.parts[1], 'YYYY_MM')::timestamp AT TIME ZONE 'UTC',
+           (to_date(m.parts[1], 'YYYY_MM') + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC'
+    FROM pg_inherits i
+    JOIN pg_class c ON c.oid = i.inhrelid
+    CROSS JOIN LATERAL regexp_match(c.relname, '_p(\d{4}_\d{2})$') AS m(parts)
+    WHERE i.inhparent = p_parent::regclass
+    ORDER BY 2
+$$;
+
+-- ─── fraud_events ───────────────────────────────────────────────────────────
+
+ALTER TABLE fraud_events RENAME TO fraud_events_unpartitioned;
+
+CREATE TABLE fraud_events (
+    id              UUID NOT NULL DEFAULT uuid_generate_v4(),
+    tenant_id       VARCHAR(50) NOT NULL,
+    event_type      VARCHAR(100) NOT NULL,
+    source_service  VARCHAR(100),
+    customer_id     VARCHAR(100),
+    subject_id      VARCHAR(100),
+    amount          NUMERIC(19,4),
+    risk_score      NUMERIC(5,4),
+    rules_triggered TEXT,
+    payload         JSONB,
+    processed_at    TIMESTAMPTZ NOT NULL DEFAULT NOW()
+) PARTITION BY RANGE (processed_at);
+
+CREATE TABLE fraud_events_default PARTITION OF fraud_events DEFAULT;
+
+SELECT fraud_ensure_partitions('fraud_events', 'processed_at',
+       COALESCE((SELECT MIN(processed_at) FROM fraud_events_unpartitioned)::date, CURRENT_DATE),
+       (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO fraud_events SELECT * FROM fraud_events_unpartitioned;
+DROP TABLE fraud_events_unpartitioned;
+
+ALTER TABLE fraud_events ADD PRIMARY KEY (id, processed_at);
+CREATE INDEX idx_fraud_events_tenant_processed ON fraud_events(tenant_id, processed_at);
+CREATE INDEX idx_fraud_events_customer ON fraud_events(tenant_id, customer_id, processed_at DESC);
+CREATE INDEX idx_fraud_events_type ON fraud_events(event_type);
+CREATE INDEX idx_fraud_events_processed ON fraud_events(processed_at DESC);
+
+-- ─── scoring_history ────────────────────────────────────────────────────────
+
+ALTER TABLE scoring_history RENAME TO scoring_history_unpartitioned;
+
+CREATE TABLE scoring_history (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    tenant_id VARCHAR(50) NOT NULL,
+    customer_id VARCHAR(100) NOT NULL,
+    event_type VARCHAR(100),
+    amount NUMERIC(19,4),
+    ml_score DOUBLE PRECISION NOT NULL,
+    risk_level VARCHAR(20) NOT NULL,
+    model_available BOOLEAN DEFAULT true,
+    latency_ms DOUBLE PRECISION,
+    rule_score DOUBLE PRECISION,
+    anomaly_score DOUBLE PRECISION,
+    lgbm_score DOUBLE PRECISION,
+    model_details TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE scoring_history_default PARTITION OF scoring_history DEFAULT;
+
+SELECT fraud_ensure_partitions('scoring_history', 'created_at',
+       COALESCE((SELECT MIN(created_at) FROM scoring_history_unpartitioned)::date, CURRENT_DATE),
+       (CURRENT_DATE + INTERVAL '3 months')::date);
+
+-- The rollup triggers are created after the copy so existing rows are not counted twice
+INSERT INTO scoring_history
+SELECT id, tenant_id, customer_id, event_type, amount, ml_score, risk_level, model_available, latency_ms,
+       rule_score, anomaly_score, lgbm_score, model_details, COALESCE(created_at, NOW())
+FROM scoring_history_unpartitioned;
+DROP TABLE scoring_history_unpartitioned;
+
+ALTER TABLE scoring_history ADD PRIMARY KEY (id, created_at);
+CREATE INDEX idx_scoring_history_customer ON scoring_history(tenant_id, customer_id, created_at DESC);
+CREATE INDEX idx_scoring_history_created ON scoring_history(created_at);
+CREATE INDEX idx_scoring_history_risk ON scoring_history(tenant_id, risk_level);
+
+CREATE TRIGGER trg_scoring_history_rollup_insert AFTER INSERT ON scoring_history
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION scoring_rollups_apply();
+CREATE TRIGGER trg_scoring_history_rollup_delete AFTER DELETE ON scoring_history
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION scoring_rollups_apply();
+
+-- Dropping an archived month fires no trigger, so its days stay in the rollups. A rebuild
+-- therefore only recomputes the days still held in scoring_history and keeps the older ones.
+CREATE OR REPLACE FUNCTION fraud_rebuild_scoring_rollups(p_tenant VARCHAR) RETURNS BIGINT
+LANGUAGE plpgsql AS $$
+DECLARE
+    buckets BIGINT;
+    since   DATE;
+BEGIN
+    LOCK TABLE scoring_history IN SHARE ROW EXCLUSIVE MODE;
+
+    SELECT (MIN(range_from) AT TIME ZONE 'UTC')::date INTO since FROM fraud_list_partitions('scoring_history');
+    since := LEAST(since, (SELECT MIN(created_at AT TIME ZONE 'UTC')::date FROM scoring_history_default));
+
+    DELETE FROM scoring_daily_rollups
+    WHERE (p_tenant IS NULL OR tenant_id = p_tenant) AND (since IS NULL OR day >= since);
+    DELETE FROM scoring_rollup_totals WHERE p_tenant IS NULL OR tenant_id = p_tenant;
+
+    INSERT INTO scoring_daily_rollups (tenant_id, day, risk_level, score_count, score_sum)
+    SELECT tenant_id, (created_at AT TIME ZONE 'UTC')::date, risk_level, COUNT(*), SUM(ml_score)
+    FROM scoring_history
+    WHERE p_tenant IS NULL OR tenant_id = p_tenant
+    GROUP BY 1, 2, 3;
+    GET DIAGNOSTICS buckets = ROW_COUNT;
+
+    INSERT INTO scoring_rollup_totals (tenant_id, risk_level, score_count, score_sum)
+    SELECT tenant_id, risk_level, SUM(score_count), SUM(score_sum)
+    FROM scoring_daily_rollups
+    WHERE p_tenant IS NULL OR tenant_id = p_tenant
+    GROUP BY 1, 2;
+
+    RETURN buckets;
+END
+$$;
+
+-- ─── fraud_audit_log ────────────────────────────────────────────────────────
+
+ALTER TABLE fraud_audit_log RENAME TO fraud_audit_log_unpartitioned;
+
+CREATE TABLE fraud_audit_log (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    tenant_id VARCHAR(50) NOT NULL,
+    action VARCHAR(100) NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id UUID NOT NULL,
+    performed_by VARCHAR(100) NOT NULL,
+    description TEXT,
+    changes JSONB,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE fraud_audit_log_default PARTITION OF fraud_audit_log DEFAULT;
+
+SELECT fraud_ensure_partitions('fraud_audit_log', 'created_at',
+       COALESCE((SELECT MIN(created_at) FROM fraud_audit_log_unpartitioned)::date, CURRENT_DATE),
+       (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO fraud_audit_log SELECT * FROM fraud_audit_log_unpartitioned;
+DROP TABLE fraud_audit_log_unpartitioned;
+
+ALTER TABLE fraud_audit_log ADD PRIMARY KEY (id, created_at);
+CREATE INDEX idx_fraud_audit_log_tenant ON fraud_audit_log(tenant_id, created_at DESC);
+CREATE INDEX idx_fraud_audit_log_entity ON fraud_audit_log(tenant_id, entity_type, entity_id);
+
+-- ─── Archive catalog ────────────────────────────────────────────────────────
+
+CREATE TABLE fraud_archive_segments (
+    id             UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    table_name     VARCHAR(63)  NOT NULL,
+    partition_name VARCHAR(63)  NOT NULL UNIQUE,
+    range_from     TIMESTAMPTZ  NOT NULL,
+    range_to       TIMESTAMPTZ  NOT NULL,
+    row_count      BIGINT       NOT NULL,
+    file_path      VARCHAR(500) NOT NULL,
+    file_bytes     BIGINT       NOT NULL,
+    archived_at    TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_fraud_archive_segments_range ON fraud_archive_segments(table_name, range_to DESC);
@@ -0,0 +1,24 @@
+-- ─── Block-leased sequences ─────────────────────────────────────────────────
+-- Case and SAR numbers come from SequenceService (athena-lms-common), which leases blocks of
+-- values from this table instead of scanning for the current maximum on every insert. Each
+-- counter starts after the highest number already issued to the tenant.
+
+CREATE TABLE lms_sequences (
+    tenant_id     VARCHAR(50)  NOT NULL,
+    sequence_name VARCHAR(100) NOT NULL,
+    next_value    BIGINT       NOT NULL,
+    updated_at    TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (tenant_id, sequence_name)
+);
+
+INSERT INTO lms_sequences (tenant_id, sequence_name, next_value)
+SELECT tenant_id, 'fraud-case', COALESCE(MAX(CAST(SUBSTRING(case_number FROM 5) AS BIGINT)), 0) + 1
+FROM fraud_cases
+WHERE case_number ~ '^FRD-[0-9]+$'
+GROUP BY tenant_id;
+
+INSERT INTO lms_sequences (tenant_id, sequence_name, next_value)
+SELECT tenant_id, 'sar-report', COALESCE(MAX(CAST(SUBSTRING(report_number FROM 5) AS BIGINT)), 0) + 1
+FROM sar_reports
+WHERE report_number ~ '^SAR-[0-9]+$'
+GROUP BY tenant_id;
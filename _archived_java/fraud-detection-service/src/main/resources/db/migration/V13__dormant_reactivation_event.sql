@@ -0,0 +1,8 @@
+-- ─── DORMANT_REACTIVATION on account.reactivated ───────────────────────────
+-- account-service now publishes account.reactivated, with the days the account was idle, when
+-- a dormant account moves money. The rule used to listen on credits and unfreezes, whose
+-- payloads never said how long the account had been inactive.
+
+UPDATE fraud_rules SET event_types = 'account.reactivated', updated_at = NOW()
+WHERE rule_code = 'DORMANT_REACTIVATION'
+  AND event_types = 'account.unfrozen,account.credit.received';
@@ -0,0 +1,23 @@
+-- ─── Attribute sightings ────────────────────────────────────────────────────
+-- Customers seen with a phone, device, IP, employer or address, whether or not a link came of
+-- it yet. The in-memory LinkGraph answers from its own sightings and reads these on a miss, so
+-- a value seen before a restart, or by another instance, still links the next customer with it.
+
+CREATE TABLE fraud_attribute_sightings (
+    tenant_id     VARCHAR(50)  NOT NULL,
+    link_type     VARCHAR(50)  NOT NULL,
+    link_value    VARCHAR(500) NOT NULL,
+    customer_id   VARCHAR(100) NOT NULL,
+    first_seen_at TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (tenant_id, link_type, link_value, customer_id)
+);
+
+-- Both ends of every existing link were seen with its value
+INSERT INTO fraud_attribute_sightings (tenant_id, link_type, link_value, customer_id, first_seen_at)
+SELECT tenant_id, link_type, link_value, customer_id, MIN(created_at)
+FROM (
+    SELECT tenant_id, link_type, link_value, customer_id_a AS customer_id, created_at FROM fraud_network_links
+    UNION ALL
+    SELECT tenant_id, link_type, link_value, customer_id_b, created_at FROM fraud_network_links
+) ends
+GROUP BY tenant_id, link_type, link_value, customer_id;
@@ -0,0 +1,30 @@
+-- ─── Customer risk profiles: score and level derived from the alert counters ────
+-- The counters are now updated with single atomic statements (no read-modify-write in the
+-- service), so risk_score / risk_level are computed by the database from the same row and
+-- can never lag behind the counts they describe.
+
+CREATE OR REPLACE FUNCTION fraud_risk_points(open_alerts INTEGER, confirmed_fraud INTEGER, false_positives INTEGER)
+RETURNS INTEGER
+LANGUAGE SQL IMMUTABLE AS $$
+    SELECT LEAST(100, GREATEST(0,
+        COALESCE(open_alerts, 0) * 10 + COALESCE(confirmed_fraud, 0) * 50 - COALESCE(false_positives, 0) * 5))
+$$;
+
+DROP INDEX IF EXISTS idx_risk_profile_level;
+DROP INDEX IF EXISTS idx_risk_profile_score;
+
+ALTER TABLE customer_risk_profiles DROP COLUMN risk_score, DROP COLUMN risk_level;
+
+ALTER TABLE customer_risk_profiles
+    ADD COLUMN risk_score NUMERIC(5,4) GENERATED ALWAYS AS (
+        fraud_risk_points(open_alerts, confirmed_fraud, false_positives) / 100.0) STORED,
+    ADD COLUMN risk_level VARCHAR(20) GENERATED ALWAYS AS (
+        CASE
+            WHEN fraud_risk_points(open_alerts, confirmed_fraud, false_positives) >= 70 THEN 'CRITICAL'
+            WHEN fraud_risk_points(open_alerts, confirmed_fraud, false_positives) >= 50 THEN 'HIGH'
+            WHEN fraud_risk_points(open_alerts, confirmed_fraud, false_positives) >= 25 THEN 'MEDIUM'
+            ELSE 'LOW'
+        END) STORED;
+
+CREATE INDEX idx_risk_profile_level ON customer_risk_profiles(tenant_id, risk_level);
+CREATE INDEX idx_risk_profile_score ON customer_risk_profiles(tenant_id, risk_score DESC);
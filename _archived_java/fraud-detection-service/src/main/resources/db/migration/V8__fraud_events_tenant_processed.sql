@@ -0,0 +1,2 @@
+-- Rule backtests stream one tenant's events over a processed_at range, in order
+CREATE INDEX idx_fraud_events_tenant_processed ON fraud_events(tenant_id, processed_at);
@@ -0,0 +1,207 @@
+-- ─── Analytics rollups ──────────────────────────────────────────────────────
+-- Alert and scoring counts per tenant and UTC day, plus all-time totals, so the analytics
+-- endpoints read a few hundred rollup rows instead of aggregating fraud_alerts and
+-- scoring_history on every dashboard refresh.
+--
+-- The rollups are kept in step by statement-level triggers: each INSERT/UPDATE/DELETE nets
+-- its rows' old and new buckets and applies one upsert per changed bucket, in key order, so a
+-- bulk resolve of thousands of alerts costs a handful of rollup writes and concurrent writers
+-- always take bucket locks in the same order. Counts that reach zero are left in place.
+--
+-- fraud_rebuild_alert_rollups / fraud_rebuild_scoring_rollups recompute a tenant's rollups
+-- (or every tenant's, given NULL) from the base table; they block writers to that table
+-- until the calling transaction commits.
+
+CREATE TABLE fraud_alert_daily_rollups (
+    tenant_id   VARCHAR(50)  NOT NULL,
+    day         DATE         NOT NULL,
+    rule_code   VARCHAR(100) NOT NULL,          -- '' for alerts not raised by a rule
+    alert_type  VARCHAR(50)  NOT NULL,
+    status      VARCHAR(30)  NOT NULL,
+    alert_count BIGINT       NOT NULL,
+    PRIMARY KEY (tenant_id, day, rule_code, alert_type, status)
+);
+
+CREATE TABLE fraud_alert_rollup_totals (
+    tenant_id   VARCHAR(50)  NOT NULL,
+    rule_code   VARCHAR(100) NOT NULL,
+    alert_type  VARCHAR(50)  NOT NULL,
+    status      VARCHAR(30)  NOT NULL,
+    alert_count BIGINT       NOT NULL,
+    PRIMARY KEY (tenant_id, rule_code, alert_type, status)
+);
+
+CREATE TABLE scoring_daily_rollups (
+    tenant_id   VARCHAR(50) NOT NULL,
+    day         DATE        NOT NULL,
+    risk_level  VARCHAR(20) NOT NULL,
+    score_count BIGINT      NOT NULL,
+    score_sum   DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (tenant_id, day, risk_level)
+);
+
+CREATE TABLE scoring_rollup_totals (
+    tenant_id   VARCHAR(50) NOT NULL,
+    risk_level  VARCHAR(20) NOT NULL,
+    score_count BIGINT      NOT NULL,
+    score_sum   DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (tenant_id, risk_level)
+);
+
+-- ─── Incremental maintenance ────────────────────────────────────────────────
+-- Transition tables are only visible to the trigger event that declared them, so the delta
+-- source is picked per operation and spliced into the shared upserts.
+
+CREATE OR REPLACE FUNCTION fraud_alert_rollups_apply() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    changed TEXT;
+BEGIN
+    changed := CASE TG_OP
+        WHEN 'INSERT' THEN
+            'SELECT tenant_id, created_at, rule_code, alert_type, status, 1 AS n FROM new_rows'
+        WHEN 'DELETE' THEN
+            'SELECT tenant_id, created_at, rule_code, alert_type, status, -1 AS n FROM old_rows'
+        ELSE
+            'SELECT tenant_id, created_at, rule_code, alert_type, status, -1 AS n FROM old_rows ' ||
+            'UNION ALL SELECT tenant_id, created_at, rule_code, alert_type, status, 1 FROM new_rows'
+    END;
+
+    EXECUTE format($sql$
+        INSERT INTO fraud_alert_daily_rollups AS r (tenant_id, day, rule_code, alert_type, status, alert_count)
+        SELECT tenant_id, (created_at AT TIME ZONE 'UTC')::date, COALESCE(rule_code, ''), alert_type, status, SUM(n)
+        FROM (%s) changed
+        GROUP BY 1, 2, 3, 4, 5
+        HAVING SUM(n) <> 0
+        ORDER BY 1, 2, 3, 4, 5
+        ON CONFLICT (tenant_id, day, rule_code, alert_type, status)
+        DO UPDATE SET alert_count = r.alert_count + EXCLUDED.alert_count
+    $sql$, changed);
+
+    EXECUTE format($sql$
+        INSERT INTO fraud_alert_rollup_totals AS r (tenant_id, rule_code, alert_type, status, alert_count)
+        SELECT tenant_id, COALESCE(rule_code, ''), alert_type, status, SUM(n)
+        FROM (%s) changed
+        GROUP BY 1, 2, 3, 4
+        HAVING SUM(n) <> 0
+        ORDER BY 1, 2, 3, 4
+        ON CONFLICT (tenant_id, rule_code, alert_type, status)
+        DO UPDATE SET alert_count = r.alert_count + EXCLUDED.alert_count
+    $sql$, changed);
+
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_fraud_alerts_rollup_insert AFTER INSERT ON fraud_alerts
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fraud_alert_rollups_apply();
+CREATE TRIGGER trg_fraud_alerts_rollup_update AFTER UPDATE ON fraud_alerts
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fraud_alert_rollups_apply();
+CREATE TRIGGER trg_fraud_alerts_rollup_delete AFTER DELETE ON fraud_alerts
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION fraud_alert_rollups_apply();
+
+CREATE OR REPLACE FUNCTION scoring_rollups_apply() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    changed TEXT;
+BEGIN
+    changed := CASE TG_OP
+        WHEN 'INSERT' THEN 'SELECT tenant_id, created_at, risk_level, ml_score, 1 AS n FROM new_rows'
+        ELSE 'SELECT tenant_id, created_at, risk_level, -ml_score AS ml_score, -1 AS n FROM old_rows'
+    END;
+
+    EXECUTE format($sql$
+        INSERT INTO scoring_daily_rollups AS r (tenant_id, day, risk_level, score_count, score_sum)
+        SELECT tenant_id, (COALESCE(created_at, NOW()) AT TIME ZONE 'UTC')::date, risk_level, SUM(n), SUM(ml_score)
+        FROM (%s) changed
+        GROUP BY 1, 2, 3
+        ORDER BY 1, 2, 3
+        ON CONFLICT (tenant_id, day, risk_level)
+        DO UPDATE SET score_count = r.score_count + EXCLUDED.score_count,
+                      score_sum = r.score_sum + EXCLUDED.score_sum
+    $sql$, changed);
+
+    EXECUTE format($sql$
+        INSERT INTO scoring_rollup_totals AS r (tenant_id, risk_level, score_count, score_sum)
+        SELECT tenant_id, risk_level, SUM(n), SUM(ml_score)
+        FROM (%s) changed
+        GROUP BY 1, 2
+        ORDER BY 1, 2
+        ON CONFLICT (tenant_id, risk_level)
+        DO UPDATE SET score_count = r.score_count + EXCLUDED.score_count,
+                      score_sum = r.score_sum + EXCLUDED.score_sum
+    $sql$, changed);
+
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_scoring_history_rollup_insert AFTER INSERT ON scoring_history
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION scoring_rollups_apply();
+CREATE TRIGGER trg_scoring_history_rollup_delete AFTER DELETE ON scoring_history
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION scoring_rollups_apply();
+
+-- ─── Rebuild / backfill ─────────────────────────────────────────────────────
+
+CREATE OR REPLACE FUNCTION fraud_rebuild_alert_rollups(p_tenant VARCHAR) RETURNS BIGINT
+LANGUAGE plpgsql AS $$
+DECLARE
+    buckets BIGINT;
+BEGIN
+    -- Writers (and their triggers) wait for this transaction, so no change is missed or counted twice
+    LOCK TABLE fraud_alerts IN SHARE ROW EXCLUSIVE MODE;
+
+    DELETE FROM fraud_alert_daily_rollups WHERE p_tenant IS NULL OR tenant_id = p_tenant;
+    DELETE FROM fraud_alert_rollup_totals WHERE p_tenant IS NULL OR tenant_id = p_tenant;
+
+    INSERT INTO fraud_alert_daily_rollups (tenant_id, day, rule_code, alert_type, status, alert_count)
+    SELECT tenant_id, (created_at AT TIME ZONE 'UTC')::date, COALESCE(rule_code, ''), alert_type, status, COUNT(*)
+    FROM fraud_alerts
+    WHERE p_tenant IS NULL OR tenant_id = p_tenant
+    GROUP BY 1, 2, 3, 4, 5;
+    GET DIAGNOSTICS buckets = ROW_COUNT;
+
+    INSERT INTO fraud_alert_rollup_totals (tenant_id, rule_code, alert_type, status, alert_count)
+    SELECT tenant_id, rule_code, alert_type, status, SUM(alert_count)
+    FROM fraud_alert_daily_rollups
+    WHERE p_tenant IS NULL OR tenant_id = p_tenant
+    GROUP BY 1, 2, 3, 4;
+
+    RETURN buckets;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION fraud_rebuild_scoring_rollups(p_tenant VARCHAR) RETURNS BIGINT
+LANGUAGE plpgsql AS $$
+DECLARE
+    buckets BIGINT;
+BEGIN
+    LOCK TABLE scoring_history IN SHARE ROW EXCLUSIVE MODE;
+
+    DELETE FROM scoring_daily_rollups WHERE p_tenant IS NULL OR tenant_id = p_tenant;
+    DELETE FROM scoring_rollup_totals WHERE p_tenant IS NULL OR tenant_id = p_tenant;
+
+    INSERT INTO scoring_daily_rollups (tenant_id, day, risk_level, score_count, score_sum)
+    SELECT tenant_id, (COALESCE(created_at, NOW()) AT TIME ZONE 'UTC')::date, risk_level, COUNT(*), SUM(ml_score)
+    FROM scoring_history
+    WHERE p_tenant IS NULL OR tenant_id = p_tenant
+    GROUP BY 1, 2, 3;
+    GET DIAGNOSTICS buckets = ROW_COUNT;
+
+    INSERT INTO scoring_rollup_totals (tenant_id, risk_level, score_count, score_sum)
+    SELECT tenant_id, risk_level, SUM(score_count), SUM(score_sum)
+    FROM scoring_daily_rollups
+    WHERE p_tenant IS NULL OR tenant_id = p_tenant
+    GROUP BY 1, 2;
+
+    RETURN buckets;
+END
+$$;
+
+SELECT fraud_rebuild_alert_rollups(NULL);
+SELECT fraud_rebuild_scoring_rollups(NULL);
@@ -0,0 +1,116 @@
+package com.athena.lms.fraud.archive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentWriterTest {
+
+    private static final ArchivedTable TABLE = ArchivedTable.FRAUD_EVENTS;
+    private static final OffsetDateTime MONTH = OffsetDateTime.of(2026, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir Path dir;
+
+    private static Object[] event(int i) {
+        return new Object[]{
+                UUID.randomUUID(), "tenant-" + (i % 2), "payment.completed", "payment-service",
+                "CUST-" + (i % 10), i % 3 == 0 ? null : "LN-" + i, new BigDecimal("1500.2500"), null,
+                "LARGE_SINGLE_TXN", "{\"amount\": " + i + "}", MONTH.plusMinutes(i)};
+    }
+
+    private Path write(int rows, int rowGroupSize) throws IOException {
+        Path file = dir.resolve("fraud_events").resolve("fraud_events_p2026_03.seg");
+        try (SegmentWriter writer = new SegmentWriter(file, TABLE, rowGroupSize)) {
+            for (int i = 0; i < rows; i++) writer.append(event(i));
+            writer.commit();
+        }
+        return file;
+    }
+
+    private List<Object[]> scan(Path file, OffsetDateTime from, OffsetDateTime to) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        SegmentReader.scan(file, TABLE, from, to, row -> true, rows::add);
+        return rows;
+    }
+
+    @Test
+    @DisplayName("round-trips every column, nulls included, across row groups")
+    void roundTrip() throws IOException {
+        Path file = write(250, 100);
+
+        List<Object[]> rows = scan(file, MONTH, MONTH.plusMonths(1));
+
+        assertThat(rows).hasSize(250);
+        Object[] third = rows.get(3);
+        Object[] expected = event(3);
+        assertThat(Arrays.copyOfRange(third, 1, third.length)).containsExactly(Arrays.copyOfRange(expected, 1, expected.length));
+        assertThat(third[5]).isNull();
+        assertThat(rows.get(249)[TABLE.timeIndex()]).isEqualTo(MONTH.plusMinutes(249));
+        assertThat(dir.resolve("fraud_events").resolve("fraud_events_p2026_03.seg.tmp")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("returns only rows in the time range that pass the filter")
+    void filtersByTimeAndPredicate() throws IOException {
+        Path file = write(250, 100);
+        int customer = TABLE.indexOf("customer_id");
+
+        List<Object[]> rows = new ArrayList<>();
+        SegmentReader.scan(file, TABLE, MONTH.plusMinutes(120), MONTH.plusMinutes(180),
+                row -> "CUST-7".equals(row[customer]), rows::add);
+
+        assertThat(rows).extracting(row -> row[TABLE.timeIndex()])
+                .containsExactly(MONTH.plusMinutes(127), MONTH.plusMinutes(137), MONTH.plusMinutes(147),
+                        MONTH.plusMinutes(157), MONTH.plusMinutes(167), MONTH.plusMinutes(177));
+    }
+
+    @Test
+    @DisplayName("an abandoned segment leaves no file behind")
+    void abandoned() throws IOException {
+        Path file = dir.resolve("fraud_events").resolve("fraud_events_p2026_04.seg");
+        try (SegmentWriter writer = new SegmentWriter(file, TABLE, 10)) {
+            writer.append(event(1));
+        }
+
+        try (var files = Files.list(file.getParent())) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("rejects a truncated segment")
+    void truncated() throws IOException {
+        Path file = write(250, 100);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThatThrownBy(() -> scan(file, MONTH, MONTH.plusMonths(1)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("truncated");
+    }
+
+    @Test
+    @DisplayName("rejects a segment of another table")
+    void wrongTable() throws IOException {
+        Path file = write(5, 100);
+
+        assertThatThrownBy(() -> SegmentReader.scan(file, ArchivedTable.AUDIT_LOG, MONTH, MONTH.plusMonths(1),
+                row -> true, row -> {}))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("archives fraud_events");
+    }
+}
@@ -0,0 +1,184 @@
+package com.athena.lms.fraud.cep;
+
+import com.athena.lms.fraud.config.FraudCepConfig;
+import com.athena.lms.fraud.enums.AlertType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineEngineTest {
+
+    private static final String TENANT = "test-tenant";
+    private static final String RAPID = "RAPID_FUND_MOVEMENT";
+    private static final String CYCLING = "LOAN_CYCLING";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-15T10:00:00Z"));
+    private TimelineEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TimelineEngine(config(true, 32), clock);
+    }
+
+    private static FraudCepConfig config(boolean enabled, int capacity) {
+        FraudCepConfig.Pattern rapid = new FraudCepConfig.Pattern();
+        rapid.setRuleCode(RAPID);
+        rapid.setFirst(List.of("payment.completed", "account.credit.received"));
+        rapid.setFirstMinAmount(new BigDecimal("50000"));
+        rapid.setThen(List.of("transfer.completed"));
+        rapid.setThenMinRatio(new BigDecimal("0.90"));
+        rapid.setWithin(Duration.ofMinutes(15));
+
+        FraudCepConfig.Pattern cycling = new FraudCepConfig.Pattern();
+        cycling.setRuleCode(CYCLING);
+        cycling.setFirst(List.of("loan.closed"));
+        cycling.setThen(List.of("loan.application.submitted"));
+        cycling.setWithin(Duration.ofDays(7));
+
+        FraudCepConfig config = new FraudCepConfig();
+        config.setEnabled(enabled);
+        config.setTimelineCapacity(capacity);
+        config.setPatterns(List.of(rapid, cycling));
+        return config;
+    }
+
+    private Map<String, PatternMatch> observe(String eventType, String amount) {
+        return engine.observe(TENANT, "CUST-1", eventType, amount != null ? new BigDecimal(amount) : null);
+    }
+
+    @Nested
+    @DisplayName("credit followed by outbound transfers")
+    class RapidFundMovement {
+
+        @Test
+        @DisplayName("matches once transfers within the window reach 90% of the credit")
+        void matchesOnCumulativeOutflow() {
+            assertThat(observe("payment.completed", "100000")).isEmpty();
+            clock.advance(Duration.ofMinutes(5));
+            assertThat(observe("transfer.completed", "50000")).isEmpty();
+            clock.advance(Duration.ofMinutes(5));
+
+            Map<String, PatternMatch> matches = observe("transfer.completed", "45000");
+
+            assertThat(matches).containsOnlyKeys(RAPID);
+            PatternMatch match = matches.get(RAPID);
+            assertThat(match.alertType()).isEqualTo(AlertType.RAPID_FUND_MOVEMENT);
+            assertThat(match.firstAmount()).isEqualByComparingTo("100000");
+            assertThat(match.followedAmount()).isEqualByComparingTo("95000");
+            assertThat(match.followEvents()).isEqualTo(2);
+            assertThat(match.elapsed()).isEqualTo(Duration.ofMinutes(10));
+        }
+
+        @Test
+        @DisplayName("a matched credit does not match again")
+        void closesOnMatch() {
+            observe("payment.completed", "100000");
+            assertThat(observe("transfer.completed", "100000")).containsKey(RAPID);
+            assertThat(observe("transfer.completed", "100000")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("transfers after the window has passed do not match")
+        void expiresAfterWindow() {
+            observe("payment.completed", "100000");
+            clock.advance(Duration.ofMinutes(16));
+            assertThat(observe("transfer.completed", "100000")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("credits below the minimum amount and transfers before the credit are ignored")
+        void requiresOrderAndMinimum() {
+            observe("transfer.completed", "100000");
+            observe("payment.completed", "40000");
+            assertThat(observe("transfer.completed", "40000")).isEmpty();
+
+            observe("payment.completed", "60000");
+            assertThat(observe("transfer.completed", "30000")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("customers and tenants have separate timelines")
+        void separateTimelines() {
+            observe("payment.completed", "100000");
+            assertThat(engine.observe(TENANT, "CUST-2", "transfer.completed", new BigDecimal("100000"))).isEmpty();
+            assertThat(engine.observe("other-tenant", "CUST-1", "transfer.completed", new BigDecimal("100000"))).isEmpty();
+            assertThat(observe("transfer.completed", "100000")).containsKey(RAPID);
+        }
+    }
+
+    @Nested
+    @DisplayName("loan closed followed by a new application")
+    class LoanCycling {
+
+        @Test
+        @DisplayName("matches an application within the window after a closure")
+        void matchesWithinDays() {
+            assertThat(observe("loan.application.submitted", null)).isEmpty();
+            observe("loan.closed", null);
+            clock.advance(Duration.ofDays(3));
+
+            Map<String, PatternMatch> matches = observe("loan.application.submitted", null);
+
+            assertThat(matches).containsOnlyKeys(CYCLING);
+            assertThat(matches.get(CYCLING).firstAmount()).isNull();
+            assertThat(matches.get(CYCLING).elapsed()).isEqualTo(Duration.ofDays(3));
+        }
+
+        @Test
+        @DisplayName("closure overwritten in the timeline ring no longer matches")
+        void boundedByRing() {
+            engine = new TimelineEngine(config(true, 4), clock);
+            observe("loan.closed", null);
+            for (int i = 0; i < 4; i++) observe("transfer.completed", "10");
+            assertThat(observe("loan.application.submitted", null)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("handles only configured rules, and nothing when disabled")
+    void handles() {
+        assertThat(engine.handles(RAPID)).isTrue();
+        assertThat(engine.handles("STRUCTURING")).isFalse();
+
+        TimelineEngine disabled = new TimelineEngine(config(false, 32), clock);
+        assertThat(disabled.handles(RAPID)).isFalse();
+        assertThat(disabled.observe(TENANT, "CUST-1", "payment.completed", new BigDecimal("100000"))).isEmpty();
+        assertThat(disabled.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("records only event types a pattern mentions and evicts idle timelines")
+    void recordsRelevantEventsAndEvicts() {
+        engine.observe(TENANT, "CUST-1", "customer.updated", null);
+        assertThat(engine.size()).isZero();
+
+        observe("loan.closed", null);
+        clock.advance(Duration.ofDays(6));
+        engine.observe(TENANT, "CUST-2", "payment.completed", new BigDecimal("100"));
+        clock.advance(Duration.ofDays(2));
+
+        engine.evictIdle();
+
+        assertThat(engine.size()).isEqualTo(1);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,75 @@
+package com.athena.lms.fraud.graph;
+
+import com.athena.lms.fraud.repository.NetworkLinkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LinkGraphRegistryTest {
+
+    private final NetworkLinkRepository linkRepository = mock(NetworkLinkRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(linkRepository.streamGraphLinks("t1")).thenAnswer(inv -> Stream.<Object[]>of(
+                new Object[]{"A", "B", "SHARED_PHONE", "+254700", 1, false}));
+        when(linkRepository.streamGraphLinks("t2")).thenAnswer(inv -> Stream.<Object[]>of(
+                new Object[]{"C", "D", "SHARED_DEVICE", "dev-1", 2, true}));
+    }
+
+    @Test
+    @DisplayName("warm-up loads every tenant with links, so first use does not wait for a load")
+    void warmUp() {
+        when(linkRepository.findTenantIds()).thenReturn(List.of("t1", "t2"));
+        LinkGraphRegistry registry = new LinkGraphRegistry(linkRepository, transactionManager, true);
+
+        registry.warmUp();
+
+        verify(linkRepository, times(2)).streamGraphLinks(anyString());
+        assertThat(registry.graph("t1").links("A")).hasSize(1);
+        assertThat(registry.graph("t2").links("C")).hasSize(1);
+        verify(linkRepository, times(2)).streamGraphLinks(anyString());
+    }
+
+    @Test
+    @DisplayName("a tenant that fails to load is skipped and loads on first use")
+    void warmUpFailure() {
+        when(linkRepository.findTenantIds()).thenReturn(List.of("t0", "t1"));
+        when(linkRepository.streamGraphLinks("t0"))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenAnswer(inv -> Stream.<Object[]>of(new Object[]{"E", "F", "SHARED_IP", "10.0.0.1", 1, false}));
+        LinkGraphRegistry registry = new LinkGraphRegistry(linkRepository, transactionManager, true);
+
+        registry.warmUp();
+
+        assertThat(registry.graph("t1").links("A")).hasSize(1);
+        assertThat(registry.graph("t0").links("E")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("with warm-up off, graphs load on first use only")
+    void warmUpOff() {
+        LinkGraphRegistry registry = new LinkGraphRegistry(linkRepository, transactionManager, false);
+
+        registry.warmUp();
+
+        verify(linkRepository, never()).findTenantIds();
+        verify(linkRepository, never()).streamGraphLinks(anyString());
+    }
+}
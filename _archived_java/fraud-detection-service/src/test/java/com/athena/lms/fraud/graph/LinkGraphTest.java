@@ -0,0 +1,206 @@
+package com.athena.lms.fraud.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LinkGraphTest {
+
+    @Nested
+    @DisplayName("Links")
+    class LinkTests {
+
+        @Test
+        @DisplayName("merges repeated links: max strength, flag is sticky")
+        void mergesRepeatedLinks() {
+            LinkGraph graph = new LinkGraph();
+            graph.addLink("A", "B", "SHARED_PHONE", "+254700", 1, true);
+            graph.addLink("B", "A", "SHARED_PHONE", "+254700", 4, false);
+            graph.addLink("A", "B", "SHARED_IP", "10.0.0.1", 1, false);
+            graph.addLink("A", "A", "SHARED_IP", "10.0.0.1", 1, false);
+
+            assertThat(graph.linkCount()).isEqualTo(2);
+            List<LinkGraph.Link> links = graph.links("A");
+            assertThat(links).hasSize(2);
+            assertThat(links.get(0).strength()).isEqualTo(4);
+            assertThat(links.get(0).flagged()).isTrue();
+            assertThat(links.get(0).otherCustomer("A")).isEqualTo("B");
+        }
+
+        @Test
+        @DisplayName("flags an existing link and reports unknown ones")
+        void flag() {
+            LinkGraph graph = new LinkGraph();
+            graph.addLink("A", "B", "SHARED_DEVICE", "dev-1", 1, false);
+
+            assertThat(graph.flag("B", "A", "SHARED_DEVICE")).isTrue();
+            assertThat(graph.flag("A", "C", "SHARED_DEVICE")).isFalse();
+            assertThat(graph.flaggedCustomers(10)).containsExactly("A", "B");
+        }
+
+        @Test
+        @DisplayName("grows past its initial capacity")
+        void grows() {
+            LinkGraph graph = new LinkGraph(16, 16);
+            for (int i = 1; i < 5000; i++) {
+                graph.addLink("C" + (i - 1), "C" + i, "SHARED_IP", "ip-" + i, 1, false);
+            }
+            assertThat(graph.customerCount()).isEqualTo(5000);
+            assertThat(graph.linkCount()).isEqualTo(4999);
+            assertThat(graph.cluster("C0", 10).size()).isEqualTo(5000);
+        }
+    }
+
+    @Nested
+    @DisplayName("Neighborhood")
+    class NeighborhoodTests {
+
+        @Test
+        @DisplayName("returns customers within k hops with their distance")
+        void kHops() {
+            LinkGraph graph = chain("A", "B", "C", "D", "E");
+
+            LinkGraph.Neighborhood twoHops = graph.neighborhood("C", 1, 100);
+            assertThat(twoHops.customers()).extracting(LinkGraph.Neighbor::customerId)
+                .containsExactlyInAnyOrder("C", "B", "D");
+            assertThat(twoHops.links()).hasSize(2);
+
+            LinkGraph.Neighborhood fromEnd = graph.neighborhood("A", 3, 100);
+            assertThat(fromEnd.customers()).extracting(LinkGraph.Neighbor::hops).containsExactly(0, 1, 2, 3);
+            assertThat(fromEnd.truncated()).isFalse();
+        }
+
+        @Test
+        @DisplayName("stops at the customer cap and says so")
+        void truncates() {
+            LinkGraph graph = new LinkGraph();
+            for (int i = 0; i < 50; i++) graph.addLink("HUB", "C" + i, "SHARED_EMPLOYER", "acme", 1, false);
+
+            LinkGraph.Neighborhood neighborhood = graph.neighborhood("HUB", 2, 10);
+            assertThat(neighborhood.customers()).hasSize(10);
+            assertThat(neighborhood.truncated()).isTrue();
+        }
+
+        @Test
+        @DisplayName("unknown customer has an empty neighborhood")
+        void unknown() {
+            assertThat(new LinkGraph().neighborhood("X", 2, 10).customers()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("a zero customer cap returns nothing, truncated")
+        void zeroCap() {
+            LinkGraph.Neighborhood neighborhood = chain("A", "B", "C").neighborhood("B", 2, 0);
+            assertThat(neighborhood.customers()).isEmpty();
+            assertThat(neighborhood.links()).isEmpty();
+            assertThat(neighborhood.truncated()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Clusters and rings")
+    class ClusterTests {
+
+        @Test
+        @DisplayName("union-find merges components and keeps link counts")
+        void components() {
+            LinkGraph graph = chain("A", "B", "C");
+            graph.addLink("X", "Y", "SHARED_IP", "10.0.0.9", 1, true);
+
+            assertThat(graph.cluster("A", 10).members()).containsExactlyInAnyOrder("A", "B", "C");
+            assertThat(graph.cluster("Y", 10).flaggedLinks()).isEqualTo(1);
+
+            graph.addLink("C", "X", "SHARED_PHONE", "+254711", 1, false);
+            LinkGraph.Cluster merged = graph.cluster("A", 10);
+            assertThat(merged.size()).isEqualTo(5);
+            assertThat(merged.links()).isEqualTo(4);
+            assertThat(merged.flaggedLinks()).isEqualTo(1);
+            assertThat(merged.cyclic()).isFalse();
+        }
+
+        @Test
+        @DisplayName("caps the members returned but reports the full size")
+        void memberCap() {
+            LinkGraph graph = chain("A", "B", "C", "D");
+
+            LinkGraph.Cluster capped = graph.cluster("A", 2);
+            assertThat(capped.members()).hasSize(2);
+            assertThat(capped.size()).isEqualTo(4);
+            assertThat(capped.truncated()).isTrue();
+            assertThat(graph.cluster("A", 0).members()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("rings are components with a cycle, most flagged first")
+        void rings() {
+            LinkGraph graph = chain("A", "B", "C");
+            graph.addLink("C", "A", "SHARED_DEVICE", "dev-1", 1, false);           // A-B-C triangle
+            graph.addLink("P", "Q", "SHARED_IP", "10.0.0.2", 1, true);
+            graph.addLink("Q", "R", "SHARED_IP", "10.0.0.2", 1, true);
+            graph.addLink("R", "P", "SHARED_IP", "10.0.0.2", 1, false);            // flagged triangle
+            graph.addLink("L1", "L2", "SHARED_PHONE", "+254722", 1, true);         // chain: not a ring
+
+            List<LinkGraph.Cluster> rings = graph.rings(3, 10, 10);
+            assertThat(rings).hasSize(2);
+            assertThat(rings.get(0).members()).containsExactlyInAnyOrder("P", "Q", "R");
+            assertThat(rings.get(0).flaggedLinks()).isEqualTo(2);
+            assertThat(rings.get(1).members()).containsExactlyInAnyOrder("A", "B", "C");
+        }
+    }
+
+    @Nested
+    @DisplayName("Attribute index")
+    class AttributeTests {
+
+        @Test
+        @DisplayName("returns earlier customers and indexes link endpoints")
+        void observe() {
+            LinkGraph graph = new LinkGraph();
+            graph.addLink("A", "B", "SHARED_PHONE", "+254700", 1, false);
+
+            assertThat(graph.observeAttribute("C", "SHARED_PHONE", "+254700")).containsExactly("A", "B");
+            assertThat(graph.observeAttribute("C", "SHARED_PHONE", "+254700")).containsExactly("A", "B");
+            assertThat(graph.observeAttribute("D", "SHARED_PHONE", "+254799")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("carries sightings over to a rebuilt graph")
+        void merge() {
+            LinkGraph old = new LinkGraph();
+            old.observeAttribute("A", "SHARED_DEVICE", "dev-1");
+
+            LinkGraph rebuilt = new LinkGraph();
+            rebuilt.mergeAttributesFrom(old);
+
+            assertThat(rebuilt.observeAttribute("B", "SHARED_DEVICE", "dev-1")).containsExactly("A");
+        }
+
+        @Test
+        @DisplayName("knows which customers it has seen with a value, and takes sightings from elsewhere")
+        void sightings() {
+            LinkGraph graph = new LinkGraph();
+            assertThat(graph.hasSighting("A", "SHARED_PHONE", "+254700")).isFalse();
+
+            graph.observeAttribute("A", "SHARED_PHONE", "+254700");
+            graph.addSightings("SHARED_PHONE", "+254700", List.of("B", "C"));
+
+            assertThat(graph.hasSighting("A", "SHARED_PHONE", "+254700")).isTrue();
+            assertThat(graph.hasSighting("B", "SHARED_PHONE", "+254700")).isTrue();
+            assertThat(graph.hasSighting("A", "SHARED_PHONE", "+254799")).isFalse();
+            assertThat(graph.hasSighting("A", "SHARED_DEVICE", "+254700")).isFalse();
+            assertThat(graph.observeAttribute("D", "SHARED_PHONE", "+254700")).containsExactly("A", "B", "C");
+        }
+    }
+
+    private static LinkGraph chain(String... customers) {
+        LinkGraph graph = new LinkGraph();
+        for (int i = 1; i < customers.length; i++) {
+            graph.addLink(customers[i - 1], customers[i], "SHARED_PHONE", "p-" + i, 1, false);
+        }
+        return graph;
+    }
+}
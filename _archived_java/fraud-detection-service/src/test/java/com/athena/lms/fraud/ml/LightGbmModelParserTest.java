@@ -0,0 +1,165 @@
+package com.athena.lms.fraud.ml;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LightGbmModelParserTest {
+
+    // Tree 0: amount <= 1000 ? (txn_count_1h <= 0.5 ? -0.5 : 1.0) : 0.25, the inner split
+    // sending NaN left. Tree 1 is a single leaf of 0.1.
+    private static final String TEXT_MODEL = """
+            tree
+            version=v4
+            num_class=1
+            num_tree_per_iteration=1
+            label_index=0
+            max_feature_idx=1
+            objective=binary sigmoid:1
+            feature_names=amount txn_count_1h
+            feature_infos=[0:5000000] [0:40]
+            tree_sizes=400 120
+
+            Tree=0
+            num_leaves=3
+            num_cat=0
+            split_feature=0 1
+            split_gain=12.5 3.25
+            threshold=1000.0000000000001 0.50000000000000011
+            decision_type=2 10
+            left_child=1 -1
+            right_child=-2 -3
+            leaf_value=-0.5 0.25 1
+            leaf_weight=10 5 3
+            leaf_count=10 5 3
+            internal_value=0 0.1
+            internal_weight=0 13
+            internal_count=18 13
+            is_linear=0
+            shrinkage=1
+
+
+            Tree=1
+            num_leaves=1
+            num_cat=0
+            split_feature=
+            split_gain=
+            threshold=
+            decision_type=
+            left_child=
+            right_child=
+            leaf_value=0.10000000000000001
+            leaf_weight=
+            leaf_count=
+            internal_value=
+            internal_weight=
+            internal_count=
+            is_linear=0
+            shrinkage=1
+
+
+            end of trees
+
+            feature_importances:
+            amount=1
+            txn_count_1h=1
+
+            parameters:
+            [boosting: gbdt]
+            end of parameters
+            """;
+
+    private static final String JSON_MODEL = """
+            {"name":"tree","version":"v4","num_class":1,"num_tree_per_iteration":1,"label_index":0,
+             "max_feature_idx":1,"objective":"binary sigmoid:1","average_output":false,
+             "feature_names":["amount","txn_count_1h"],
+             "tree_info":[
+               {"tree_index":0,"num_leaves":3,"num_cat":0,"shrinkage":1,"tree_structure":{
+                 "split_index":0,"split_feature":0,"threshold":1000.0000000000001,"decision_type":"<=",
+                 "default_left":true,"missing_type":"None",
+                 "left_child":{"split_index":1,"split_feature":1,"threshold":0.50000000000000011,
+                   "decision_type":"<=","default_left":true,"missing_type":"NaN",
+                   "left_child":{"leaf_index":0,"leaf_value":-0.5},
+                   "right_child":{"leaf_index":2,"leaf_value":1}},
+                 "right_child":{"leaf_index":1,"leaf_value":0.25}}},
+               {"tree_index":1,"num_leaves":1,"num_cat":0,"shrinkage":1,"tree_structure":{"leaf_value":0.1}}
+             ]}
+            """;
+
+    private static double sigmoid(double raw) {
+        return 1.0 / (1.0 + Math.exp(-raw));
+    }
+
+    private static void assertScores(TreeEnsembleModel model) {
+        assertThat(model.getTreeCount()).isEqualTo(2);
+        assertThat(model.predictRaw(new double[]{500, 0})).isCloseTo(-0.4, within(1e-12));
+        assertThat(model.predictRaw(new double[]{500, 3})).isCloseTo(1.1, within(1e-12));
+        assertThat(model.predictRaw(new double[]{2000, 0})).isCloseTo(0.35, within(1e-12));
+        assertThat(model.predict(new double[]{500, 0})).isCloseTo(sigmoid(-0.4), within(1e-12));
+    }
+
+    @Test
+    @DisplayName("evaluates a LightGBM text model")
+    void textModel() {
+        TreeEnsembleModel model = LightGbmModelParser.parse(TEXT_MODEL, "v1");
+
+        assertThat(model.getFeatureNames()).containsExactly("amount", "txn_count_1h");
+        assertThat(model.getVersion()).isEqualTo("v1");
+        assertScores(model);
+    }
+
+    @Test
+    @DisplayName("evaluates the same model from a dump_model JSON")
+    void jsonModel() {
+        assertScores(LightGbmModelParser.parse(JSON_MODEL, "v1"));
+    }
+
+    @Nested
+    @DisplayName("missing values")
+    class MissingValues {
+
+        private final TreeEnsembleModel model = LightGbmModelParser.parse(TEXT_MODEL, "v1");
+
+        @Test
+        @DisplayName("NaN on a NaN-aware split takes the default side")
+        void nanDefaultSide() {
+            assertThat(model.predictRaw(new double[]{500, Double.NaN})).isCloseTo(-0.4, within(1e-12));
+        }
+
+        @Test
+        @DisplayName("NaN on a split without missing handling is read as zero")
+        void nanAsZero() {
+            assertThat(model.predictRaw(new double[]{Double.NaN, 3})).isCloseTo(1.1, within(1e-12));
+        }
+    }
+
+    @Test
+    @DisplayName("reads features from remapped vector slots")
+    void featureSlots() {
+        TreeEnsembleModel model = LightGbmModelParser.parse(TEXT_MODEL, "v1").withFeatureSlots(new int[]{2, 0});
+
+        assertThat(model.predictRaw(new double[]{3, Double.NaN, 500})).isCloseTo(1.1, within(1e-12));
+    }
+
+    @Test
+    @DisplayName("rejects categorical splits and multiclass models")
+    void rejectsUnsupported() {
+        assertThatThrownBy(() -> LightGbmModelParser.parse(TEXT_MODEL.replace("decision_type=2 10", "decision_type=1 10"), "v1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Categorical");
+        assertThatThrownBy(() -> LightGbmModelParser.parse(TEXT_MODEL.replace("num_class=1", "num_class=3"), "v1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Multiclass");
+    }
+
+    @Test
+    @DisplayName("rejects trees whose children do not lead to leaves")
+    void rejectsCycles() {
+        assertThatThrownBy(() -> LightGbmModelParser.parse(TEXT_MODEL.replace("left_child=1 -1", "left_child=0 -1"), "v1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.athena.lms.fraud.service;
+
+import com.athena.lms.fraud.repository.FraudAlertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AlertDedupIndexTest {
+
+    @Mock private FraudAlertRepository alertRepository;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-15T10:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AlertDedupIndex index;
+
+    private static final String TENANT = "test-tenant";
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    @BeforeEach
+    void setUp() {
+        index = new AlertDedupIndex(alertRepository, meterRegistry, clock, Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("first alert claims, duplicates within the window are suppressed and counted per rule")
+    void suppressesWithinWindow() {
+        assertThat(index.tryClaim(TENANT, "CUST-1", "LARGE_SINGLE_TXN", HOUR)).isTrue();
+        assertThat(index.tryClaim(TENANT, "CUST-1", "LARGE_SINGLE_TXN", HOUR)).isFalse();
+        assertThat(index.tryClaim(TENANT, "CUST-1", "LARGE_SINGLE_TXN", HOUR)).isFalse();
+
+        // Other customer / rule / tenant are independent
+        assertThat(index.tryClaim(TENANT, "CUST-2", "LARGE_SINGLE_TXN", HOUR)).isTrue();
+        assertThat(index.tryClaim(TENANT, "CUST-1", "STRUCTURING", HOUR)).isTrue();
+        assertThat(index.tryClaim("other-tenant", "CUST-1", "LARGE_SINGLE_TXN", HOUR)).isTrue();
+
+        assertThat(suppressed("LARGE_SINGLE_TXN")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("claims again once the window has passed")
+    void claimsAfterWindow() {
+        assertThat(index.tryClaim(TENANT, "CUST-1", "LARGE_SINGLE_TXN", HOUR)).isTrue();
+        clock.advance(Duration.ofMinutes(61));
+        assertThat(index.tryClaim(TENANT, "CUST-1", "LARGE_SINGLE_TXN", HOUR)).isTrue();
+    }
+
+    @Test
+    @DisplayName("alerts without a customer are never deduplicated")
+    void noCustomerNoDedup() {
+        assertThat(index.tryClaim(TENANT, null, "LARGE_SINGLE_TXN", HOUR)).isTrue();
+        assertThat(index.tryClaim(TENANT, null, "LARGE_SINGLE_TXN", HOUR)).isTrue();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("concurrent claims on the same key let exactly one through")
+    void concurrentClaims() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger claimed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                if (index.tryClaim(TENANT, "CUST-1", "VELOCITY_1H", HOUR)) claimed.incrementAndGet();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(5, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(claimed.get()).isEqualTo(1);
+        assertThat(suppressed("VELOCITY_1H")).isEqualTo(threads - 1.0);
+    }
+
+    @Test
+    @DisplayName("on a local miss, an alert raised by another instance suppresses the duplicate")
+    void fallsBackToDatabase() {
+        OffsetDateTime tenMinutesAgo = OffsetDateTime.ofInstant(clock.instant(), ZoneOffset.UTC).minusMinutes(10);
+        when(alertRepository.findLatestAlertAt(eq(TENANT), eq("CUST-1"), eq("STRUCTURING"), any()))
+                .thenReturn(tenMinutesAgo);
+
+        assertThat(index.tryClaim(TENANT, "CUST-1", "STRUCTURING", HOUR)).isFalse();
+        assertThat(index.tryClaim(TENANT, "CUST-1", "STRUCTURING", HOUR)).isFalse();
+
+        // The answer is kept, so the repeat was decided locally
+        verify(alertRepository, times(1)).findLatestAlertAt(any(), any(), any(), any());
+        assertThat(suppressed("STRUCTURING")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("the database is asked only from the start of the window, and not for a live local entry")
+    void databaseWindow() {
+        assertThat(index.tryClaim(TENANT, "CUST-1", "VELOCITY_1H", HOUR)).isTrue();
+        assertThat(index.tryClaim(TENANT, "CUST-1", "VELOCITY_1H", HOUR)).isFalse();
+
+        OffsetDateTime windowStart = OffsetDateTime.ofInstant(clock.instant(), ZoneOffset.UTC).minus(HOUR);
+        verify(alertRepository, times(1)).findLatestAlertAt(TENANT, "CUST-1", "VELOCITY_1H", windowStart);
+    }
+
+    @Test
+    @DisplayName("warm-up loads recent alerts so they dedup after a restart")
+    void warmUp() {
+        OffsetDateTime tenMinutesAgo = OffsetDateTime.ofInstant(clock.instant(), ZoneOffset.UTC).minusMinutes(10);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{TENANT, "CUST-1", "STRUCTURING", tenMinutesAgo});
+        when(alertRepository.findLatestAlertPerRule(any())).thenReturn(rows);
+
+        index.warmUp();
+
+        assertThat(index.tryClaim(TENANT, "CUST-1", "STRUCTURING", HOUR)).isFalse();
+        assertThat(index.tryClaim(TENANT, "CUST-1", "STRUCTURING", Duration.ofMinutes(5))).isTrue();
+    }
+
+    @Test
+    @DisplayName("evicts entries older than the retention period")
+    void evictsExpired() {
+        index.tryClaim(TENANT, "CUST-1", "LARGE_SINGLE_TXN", HOUR);
+        clock.advance(Duration.ofHours(12));
+        index.tryClaim(TENANT, "CUST-2", "LARGE_SINGLE_TXN", HOUR);
+        clock.advance(Duration.ofHours(13));
+
+        index.evictExpired();
+
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private double suppressed(String rule) {
+        return meterRegistry.get(AlertDedupIndex.SUPPRESSED_METRIC).tag("rule", rule).counter().count();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,138 @@
+package com.athena.lms.fraud.service;
+
+import com.athena.lms.common.exception.BusinessException;
+import com.athena.lms.common.exception.ResourceNotFoundException;
+import com.athena.lms.fraud.dto.request.BulkAlertActionRequest;
+import com.athena.lms.fraud.dto.response.BulkTriageJobResponse;
+import com.athena.lms.fraud.enums.AlertStatus;
+import com.athena.lms.fraud.repository.FraudAlertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertTriageServiceTest {
+
+    @Mock private FraudAlertRepository alertRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private AlertTriageService service;
+
+    private static final String TENANT = "test-tenant";
+
+    @BeforeEach
+    void setUp() {
+        service = new AlertTriageService(alertRepository, transactionManager);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "syncLimit", 10);
+    }
+
+    private static BulkAlertActionRequest byIds(Collection<UUID> ids) {
+        BulkAlertActionRequest request = new BulkAlertActionRequest();
+        request.setAlertIds(new LinkedHashSet<>(ids));
+        request.setPerformedBy("analyst-1");
+        request.setNotes("bad rule deploy");
+        return request;
+    }
+
+    private static List<UUID> ids(int n) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) ids.add(UUID.randomUUID());
+        return ids;
+    }
+
+    @Test
+    @DisplayName("resolves listed alerts in set-based chunks and reports what changed")
+    void resolvesByIdsInChunks() {
+        when(alertRepository.bulkResolve(eq(TENANT), anyCollection(), eq("FALSE_POSITIVE"), eq(0),
+                eq("analyst-1"), eq("bad rule deploy")))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(1)).size())
+                .thenReturn(1);
+
+        BulkTriageJobResponse job = service.resolve(TENANT, byIds(ids(5)), false);
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getTotal()).isEqualTo(5);
+        assertThat(job.getProcessed()).isEqualTo(5);
+        assertThat(job.getUpdated()).isEqualTo(4);   // 2 + 1 + 1: one alert in the second chunk was already resolved
+        verify(alertRepository, times(3)).bulkResolve(eq(TENANT), anyCollection(), anyString(), anyInt(), anyString(), anyString());
+        verify(alertRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("walks a filter's matches by id so each alert is visited once")
+    void assignsByFilter() {
+        BulkAlertActionRequest request = new BulkAlertActionRequest();
+        BulkAlertActionRequest.AlertFilter filter = new BulkAlertActionRequest.AlertFilter();
+        filter.setRuleCode("LARGE_SINGLE_TXN");
+        filter.setStatus(AlertStatus.OPEN);
+        request.setFilter(filter);
+        request.setPerformedBy("lead-1");
+
+        List<UUID> matches = ids(3);
+        when(alertRepository.countForTriage(eq(TENANT), eq("LARGE_SINGLE_TXN"), eq(AlertStatus.OPEN), any(), any()))
+                .thenReturn(3L);
+        when(alertRepository.findIdsForTriage(eq(TENANT), eq("LARGE_SINGLE_TXN"), eq(AlertStatus.OPEN),
+                any(OffsetDateTime.class), any(OffsetDateTime.class), any(UUID.class), any(Pageable.class)))
+                .thenReturn(matches.subList(0, 2), matches.subList(2, 3), List.of());
+        when(alertRepository.bulkAssign(eq(TENANT), anyCollection(), eq("analyst-2")))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(1)).size());
+
+        BulkTriageJobResponse job = service.assign(TENANT, request, "analyst-2");
+
+        assertThat(job.getUpdated()).isEqualTo(3);
+        verify(alertRepository).findIdsForTriage(anyString(), anyString(), any(), any(), any(),
+                eq(new UUID(0L, 0L)), any());
+        verify(alertRepository).findIdsForTriage(anyString(), anyString(), any(), any(), any(),
+                eq(matches.get(1)), any());
+        verify(alertRepository).findIdsForTriage(anyString(), anyString(), any(), any(), any(),
+                eq(matches.get(2)), any());
+    }
+
+    @Test
+    @DisplayName("runs large sets in the background behind a job handle")
+    void largeSetRunsAsJob() throws InterruptedException {
+        when(alertRepository.bulkResolve(eq(TENANT), anyCollection(), eq("CONFIRMED_FRAUD"), eq(1), anyString(), anyString()))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(1)).size());
+
+        BulkTriageJobResponse started = service.resolve(TENANT, byIds(ids(25)), true);
+        assertThat(started.getTotal()).isEqualTo(25);
+
+        BulkTriageJobResponse job = service.getJob(started.getJobId(), TENANT);
+        for (int i = 0; i < 200 && job.getStatus().equals("RUNNING"); i++) {
+            Thread.sleep(10);
+            job = service.getJob(started.getJobId(), TENANT);
+        }
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getUpdated()).isEqualTo(25);
+        assertThatThrownBy(() -> service.getJob(started.getJobId(), "other-tenant"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("requires exactly one of alert ids and filter")
+    void requiresIdsOrFilter() {
+        BulkAlertActionRequest both = byIds(ids(1));
+        both.setFilter(new BulkAlertActionRequest.AlertFilter());
+        BulkAlertActionRequest neither = new BulkAlertActionRequest();
+        neither.setPerformedBy("analyst-1");
+
+        assertThatThrownBy(() -> service.resolve(TENANT, both, false)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> service.resolve(TENANT, neither, false)).isInstanceOf(BusinessException.class);
+        verifyNoInteractions(alertRepository);
+    }
+}
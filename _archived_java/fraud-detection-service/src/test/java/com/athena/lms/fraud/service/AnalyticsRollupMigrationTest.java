@@ -0,0 +1,80 @@
+package com.athena.lms.fraud.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The rollup trigger functions build one subquery per TG_OP and aggregate it by column name,
+ * so every branch must expose the same names. An unaliased expression such as -ml_score is
+ * named ?column? by Postgres and the statement fails only when that branch fires.
+ */
+class AnalyticsRollupMigrationTest {
+
+    private static final String MIGRATION = "db/migration/V9__analytics_rollups.sql";
+    private static final Pattern BRANCH = Pattern.compile("'SELECT ([^']*?) FROM (?:new|old)_rows");
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @Test
+    @DisplayName("insert, update and delete of an alert feed the rollups the same columns")
+    void alertBranches() throws IOException {
+        assertBranchesAgree("fraud_alert_rollups_apply");
+    }
+
+    @Test
+    @DisplayName("insert and delete of a score feed the rollups the same columns")
+    void scoringBranches() throws IOException {
+        assertBranchesAgree("scoring_rollups_apply");
+    }
+
+    private static void assertBranchesAgree(String function) throws IOException {
+        List<List<String>> branches = branches(functionBody(function));
+
+        assertThat(branches).hasSizeGreaterThan(1);
+        for (List<String> branch : branches) {
+            assertThat(branch).as(function).doesNotContainNull().isEqualTo(branches.get(0));
+        }
+    }
+
+    private static List<List<String>> branches(String body) {
+        List<List<String>> branches = new ArrayList<>();
+        Matcher m = BRANCH.matcher(body);
+        while (m.find()) {
+            branches.add(Arrays.stream(m.group(1).split(","))
+                    .map(String::trim)
+                    .map(AnalyticsRollupMigrationTest::outputName)
+                    .toList());
+        }
+        return branches;
+    }
+
+    // The name Postgres gives a select-list entry, or null when it would be ?column?
+    private static String outputName(String column) {
+        int as = column.toUpperCase().lastIndexOf(" AS ");
+        if (as >= 0) {
+            return column.substring(as + 4).trim();
+        }
+        return IDENTIFIER.matcher(column).matches() ? column : null;
+    }
+
+    private static String functionBody(String function) throws IOException {
+        String sql;
+        try (InputStream in = AnalyticsRollupMigrationTest.class.getClassLoader().getResourceAsStream(MIGRATION)) {
+            assertThat(in).as(MIGRATION).isNotNull();
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        int start = sql.indexOf("FUNCTION " + function + "()");
+        assertThat(start).as(function).isNotNegative();
+        return sql.substring(start, sql.indexOf("$$;", start));
+    }
+}
@@ -1,7 +1,6 @@
 package com.athena.lms.fraud.service;
 
 import com.athena.lms.fraud.entity.FraudAlert;
-import com.athena.lms.fraud.entity.NetworkLink;
 import com.athena.lms.fraud.enums.AlertSeverity;
 import com.athena.lms.fraud.enums.AlertType;
 import com.athena.lms.fraud.event.FraudEventPublisher;
@@ -128,13 +127,8 @@ class AutoActionServiceTest {
                     .subjectType("PAYMENT").subjectId("PAY-1").description("test")
                     .build();
 
-            NetworkLink existingLink = NetworkLink.builder()
-                    .tenantId(TENANT).customerIdA("CUST-2").customerIdB("CUST-3")
-                    .linkType("SHARED_PHONE").linkValue("+254700111222")
-                    .build();
-
-            when(networkAnalysisService.findByLinkValue(TENANT, "SHARED_PHONE", "+254700111222"))
-                    .thenReturn(List.of(existingLink));
+            when(networkAnalysisService.customersSharingAttribute(TENANT, "CUST-1", "SHARED_PHONE", "+254700111222"))
+                    .thenReturn(List.of("CUST-2", "CUST-3"));
 
             Map<String, Object> eventData = Map.of("phone", "+254700111222");
             service.detectNetworkLinks(TENANT, List.of(alert), eventData);
@@ -155,7 +149,7 @@ class AutoActionServiceTest {
 
             service.detectNetworkLinks(TENANT, List.of(alert), null);
 
-            verify(networkAnalysisService, never()).findByLinkValue(any(), any(), any());
+            verify(networkAnalysisService, never()).customersSharingAttribute(any(), any(), any(), any());
         }
 
         @Test
@@ -167,7 +161,7 @@ class AutoActionServiceTest {
                     .subjectType("PAYMENT").subjectId("PAY-1").description("test")
                     .build();
 
-            when(networkAnalysisService.findByLinkValue(eq(TENANT), anyString(), anyString()))
+            when(networkAnalysisService.customersSharingAttribute(eq(TENANT), eq("CUST-1"), anyString(), anyString()))
                     .thenReturn(List.of());
 
             Map<String, Object> eventData = Map.of(
@@ -178,10 +172,10 @@ class AutoActionServiceTest {
 
             service.detectNetworkLinks(TENANT, List.of(alert), eventData);
 
-            // Should check all three, but no recordLink since no existing links found
-            verify(networkAnalysisService).findByLinkValue(TENANT, "SHARED_PHONE", "+254700111222");
-            verify(networkAnalysisService).findByLinkValue(TENANT, "SHARED_DEVICE", "device-abc");
-            verify(networkAnalysisService).findByLinkValue(TENANT, "SHARED_IP", "10.0.0.1");
+            // Should check all three, but no recordLink since no other customer shares them
+            verify(networkAnalysisService).customersSharingAttribute(TENANT, "CUST-1", "SHARED_PHONE", "+254700111222");
+            verify(networkAnalysisService).customersSharingAttribute(TENANT, "CUST-1", "SHARED_DEVICE", "device-abc");
+            verify(networkAnalysisService).customersSharingAttribute(TENANT, "CUST-1", "SHARED_IP", "10.0.0.1");
             verify(networkAnalysisService, never()).recordLink(any(), any(), any(), any(), any());
         }
     }
@@ -36,6 +36,9 @@ class BatchScreeningServiceTest {
     @Mock
     CaseManagementService caseManagementService;
 
+    @Mock
+    AlertDedupIndex alertDedupIndex;
+
     @InjectMocks
     BatchScreeningService service;
 
@@ -63,9 +66,7 @@ class BatchScreeningServiceTest {
 
         when(watchlistRepository.findAllByTenantIdAndActive(TENANT, true)).thenReturn(List.of(entry));
         when(customerRiskProfileRepository.findAllByTenantId(TENANT)).thenReturn(List.of(profile));
-        when(fraudAlertRepository.countOpenAlertsByCustomer(eq(TENANT), anyString())).thenReturn(0L);
-        when(fraudAlertRepository.countRecentAlertsByRule(eq(TENANT), anyString(), eq("WATCHLIST_SCREEN"), any()))
-                .thenReturn(0L);
+        when(alertDedupIndex.tryClaim(eq(TENANT), anyString(), eq("WATCHLIST_SCREEN"), any())).thenReturn(true);
         when(fraudAlertRepository.save(any())).thenAnswer(inv -> {
             var alert = inv.getArgument(0);
             return alert;
@@ -156,8 +157,8 @@ class BatchScreeningServiceTest {
 
         when(watchlistRepository.findAllByTenantIdAndActive(TENANT, true)).thenReturn(List.of(entry));
         when(customerRiskProfileRepository.findAllByTenantId(TENANT)).thenReturn(List.of(profile));
-        when(fraudAlertRepository.countRecentAlertsByRule(eq(TENANT), anyString(), eq("WATCHLIST_SCREEN"), any()))
-                .thenReturn(1L); // Already has a recent alert
+        when(alertDedupIndex.tryClaim(eq(TENANT), anyString(), eq("WATCHLIST_SCREEN"), any()))
+                .thenReturn(false); // Already has a recent alert
 
         BatchScreeningResult result = service.screenAllCustomers(TENANT);
 
@@ -1,11 +1,13 @@
 package com.athena.lms.fraud.service;
 
+import com.athena.lms.common.audit.AuditRecord;
+import com.athena.lms.common.audit.AuditWriter;
+import com.athena.lms.common.sequence.SequenceService;
 import com.athena.lms.fraud.dto.request.AddCaseNoteRequest;
 import com.athena.lms.fraud.dto.request.CreateCaseRequest;
 import com.athena.lms.fraud.dto.request.UpdateCaseRequest;
 import com.athena.lms.fraud.dto.response.CaseNoteResponse;
 import com.athena.lms.fraud.dto.response.CaseResponse;
-import com.athena.lms.fraud.entity.AuditLog;
 import com.athena.lms.fraud.entity.CaseNote;
 import com.athena.lms.fraud.entity.FraudCase;
 import com.athena.lms.fraud.enums.AlertSeverity;
@@ -35,6 +37,8 @@ class CaseManagementServiceTest {
     @Mock private CaseNoteRepository noteRepository;
     @Mock private AuditLogRepository auditLogRepository;
     @Mock private FraudAlertRepository alertRepository;
+    @Mock private SequenceService sequenceService;
+    @Mock private AuditWriter auditWriter;
 
     @InjectMocks private CaseManagementService service;
 
@@ -47,7 +51,7 @@ class CaseManagementServiceTest {
         @Test
         @DisplayName("creates case with auto-generated case number")
         void createCase() {
-            when(caseRepository.findMaxCaseNumber(TENANT)).thenReturn(42);
+            when(sequenceService.nextFormatted(TENANT, "fraud-case")).thenReturn("FRD-00043");
             when(caseRepository.save(any())).thenAnswer(inv -> {
                 FraudCase c = inv.getArgument(0);
                 c.setId(UUID.randomUUID());
@@ -55,7 +59,6 @@ class CaseManagementServiceTest {
             });
             when(noteRepository.findByCaseIdAndTenantIdOrderByCreatedAtDesc(any(), eq(TENANT)))
                 .thenReturn(List.of());
-            when(auditLogRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             CreateCaseRequest req = new CreateCaseRequest();
             req.setTitle("Suspected structuring ring");
@@ -70,13 +73,13 @@ class CaseManagementServiceTest {
             assertThat(result.getPriority()).isEqualTo(AlertSeverity.MEDIUM);
 
             verify(caseRepository).save(any());
-            verify(auditLogRepository).save(any());
+            verify(auditWriter).record(any());
         }
 
         @Test
         @DisplayName("creates case with custom priority and alert IDs")
         void createWithPriorityAndAlerts() {
-            when(caseRepository.findMaxCaseNumber(TENANT)).thenReturn(0);
+            when(sequenceService.nextFormatted(TENANT, "fraud-case")).thenReturn("FRD-00001");
             when(caseRepository.save(any())).thenAnswer(inv -> {
                 FraudCase c = inv.getArgument(0);
                 c.setId(UUID.randomUUID());
@@ -84,7 +87,6 @@ class CaseManagementServiceTest {
             });
             when(noteRepository.findByCaseIdAndTenantIdOrderByCreatedAtDesc(any(), eq(TENANT)))
                 .thenReturn(List.of());
-            when(auditLogRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             UUID alertId = UUID.randomUUID();
             CreateCaseRequest req = new CreateCaseRequest();
@@ -119,7 +121,6 @@ class CaseManagementServiceTest {
             when(caseRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
             when(noteRepository.findByCaseIdAndTenantIdOrderByCreatedAtDesc(caseId, TENANT))
                 .thenReturn(List.of());
-            when(auditLogRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             UpdateCaseRequest req = new UpdateCaseRequest();
             req.setStatus("INVESTIGATING");
@@ -127,7 +128,7 @@ class CaseManagementServiceTest {
             CaseResponse result = service.updateCase(caseId, req, TENANT);
 
             assertThat(result.getStatus()).isEqualTo(CaseStatus.INVESTIGATING);
-            verify(auditLogRepository).save(argThat(a -> a.getAction().equals("CASE_UPDATED")));
+            verify(auditWriter).record(argThat(a -> a.action().equals("CASE_UPDATED")));
         }
 
         @Test
@@ -144,7 +145,6 @@ class CaseManagementServiceTest {
             when(caseRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
             when(noteRepository.findByCaseIdAndTenantIdOrderByCreatedAtDesc(caseId, TENANT))
                 .thenReturn(List.of());
-            when(auditLogRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             UpdateCaseRequest req = new UpdateCaseRequest();
             req.setStatus("CLOSED_CONFIRMED");
@@ -178,7 +178,6 @@ class CaseManagementServiceTest {
                 n.setId(UUID.randomUUID());
                 return n;
             });
-            when(auditLogRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             AddCaseNoteRequest req = new AddCaseNoteRequest();
             req.setContent("Identified additional suspicious transactions");
@@ -213,21 +212,20 @@ class CaseManagementServiceTest {
         @Test
         @DisplayName("records audit entry with changes")
         void auditWithChanges() {
-            when(auditLogRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             UUID entityId = UUID.randomUUID();
             Map<String, Object> changes = Map.of("status", Map.of("from", "OPEN", "to", "INVESTIGATING"));
 
             service.audit(TENANT, "CASE_UPDATED", "CASE", entityId, "analyst-1", "Status changed", changes);
 
-            ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-            verify(auditLogRepository).save(captor.capture());
+            ArgumentCaptor<AuditRecord> captor = ArgumentCaptor.forClass(AuditRecord.class);
+            verify(auditWriter).record(captor.capture());
 
-            AuditLog saved = captor.getValue();
-            assertThat(saved.getAction()).isEqualTo("CASE_UPDATED");
-            assertThat(saved.getEntityType()).isEqualTo("CASE");
-            assertThat(saved.getPerformedBy()).isEqualTo("analyst-1");
-            assertThat(saved.getChanges()).containsKey("status");
+            AuditRecord recorded = captor.getValue();
+            assertThat(recorded.action()).isEqualTo("CASE_UPDATED");
+            assertThat(recorded.entityType()).isEqualTo("CASE");
+            assertThat(recorded.actor()).isEqualTo("analyst-1");
+            assertThat(recorded.details()).containsKey("status");
         }
     }
 }
@@ -3,6 +3,7 @@ package com.athena.lms.fraud.service;
 import com.athena.lms.fraud.dto.response.FraudAnalyticsResponse;
 import com.athena.lms.fraud.repository.FraudAlertRepository;
 import com.athena.lms.fraud.repository.FraudCaseRepository;
+import com.athena.lms.fraud.repository.ScoringHistoryRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,8 +11,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.time.OffsetDateTime;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -22,22 +24,27 @@ class FraudAnalyticsServiceTest {
 
     @Mock private FraudAlertRepository alertRepository;
     @Mock private FraudCaseRepository caseRepository;
+    @Mock private ScoringHistoryRepository scoringHistoryRepository;
 
     @InjectMocks private FraudAnalyticsService service;
 
     private static final String TENANT = "test-tenant";
 
+    private void stubTrendAndTypes(List<Object[]> byDay, List<Object[]> byType) {
+        when(alertRepository.rollupCountByDay(eq(TENANT), any(LocalDate.class))).thenReturn(byDay);
+        when(alertRepository.rollupCountByAlertType(eq(TENANT), any(LocalDate.class))).thenReturn(byType);
+    }
+
     @Test
-    @DisplayName("computes resolution rate from total and resolved counts")
+    @DisplayName("computes resolution rate from the per-status rollup counts")
     void resolutionRate() {
-        when(alertRepository.countByTenantId(TENANT)).thenReturn(100L);
-        when(alertRepository.countResolved(TENANT)).thenReturn(40L);
+        when(alertRepository.rollupCountByRuleAndStatus(TENANT)).thenReturn(List.of(
+                new Object[]{"", "OPEN", 60L},
+                new Object[]{"", "CONFIRMED_FRAUD", 15L},
+                new Object[]{"LARGE_TXN", "FALSE_POSITIVE", 25L}
+        ));
         when(caseRepository.countActiveCases(TENANT)).thenReturn(5L);
-        when(alertRepository.countByRule(TENANT)).thenReturn(List.of());
-        when(alertRepository.countConfirmedByRule(TENANT)).thenReturn(List.of());
-        when(alertRepository.countFalsePositiveByRule(TENANT)).thenReturn(List.of());
-        when(alertRepository.countByDay(eq(TENANT), any(OffsetDateTime.class))).thenReturn(List.of());
-        when(alertRepository.countByAlertType(eq(TENANT), any(OffsetDateTime.class))).thenReturn(List.of());
+        stubTrendAndTypes(List.of(), List.of());
 
         FraudAnalyticsResponse result = service.getAnalytics(TENANT, 30);
 
@@ -48,25 +55,19 @@ class FraudAnalyticsServiceTest {
     }
 
     @Test
-    @DisplayName("computes rule effectiveness with precision rates")
+    @DisplayName("computes rule effectiveness with precision rates, busiest rule first")
     void ruleEffectiveness() {
-        when(alertRepository.countByTenantId(TENANT)).thenReturn(50L);
-        when(alertRepository.countResolved(TENANT)).thenReturn(20L);
-        when(caseRepository.countActiveCases(TENANT)).thenReturn(2L);
-        when(alertRepository.countByRule(TENANT)).thenReturn(List.of(
-                new Object[]{"LARGE_TXN", 30L},
-                new Object[]{"STRUCTURING", 20L}
+        when(alertRepository.rollupCountByRuleAndStatus(TENANT)).thenReturn(List.of(
+                new Object[]{"STRUCTURING", "OPEN", 10L},
+                new Object[]{"STRUCTURING", "CONFIRMED_FRAUD", 8L},
+                new Object[]{"STRUCTURING", "FALSE_POSITIVE", 2L},
+                new Object[]{"LARGE_TXN", "OPEN", 15L},
+                new Object[]{"LARGE_TXN", "CONFIRMED_FRAUD", 10L},
+                new Object[]{"LARGE_TXN", "FALSE_POSITIVE", 5L},
+                new Object[]{"", "CONFIRMED_FRAUD", 4L}
         ));
-        when(alertRepository.countConfirmedByRule(TENANT)).thenReturn(List.of(
-                new Object[]{"LARGE_TXN", 10L},
-                new Object[]{"STRUCTURING", 8L}
-        ));
-        when(alertRepository.countFalsePositiveByRule(TENANT)).thenReturn(List.of(
-                new Object[]{"LARGE_TXN", 5L},
-                new Object[]{"STRUCTURING", 2L}
-        ));
-        when(alertRepository.countByDay(eq(TENANT), any(OffsetDateTime.class))).thenReturn(List.of());
-        when(alertRepository.countByAlertType(eq(TENANT), any(OffsetDateTime.class))).thenReturn(List.of());
+        when(caseRepository.countActiveCases(TENANT)).thenReturn(2L);
+        stubTrendAndTypes(List.of(), List.of());
 
         FraudAnalyticsResponse result = service.getAnalytics(TENANT, 30);
 
@@ -79,6 +80,8 @@ class FraudAnalyticsServiceTest {
         // precision = 10 / (10+5) = 0.6667
         assertThat(largeTxn.getPrecisionRate()).isCloseTo(0.6667, org.assertj.core.data.Offset.offset(0.001));
 
+        // alerts raised without a rule count towards totals but not rule effectiveness
+        assertThat(result.getTotalAlerts()).isEqualTo(54);
         assertThat(result.getConfirmedFraudCount()).isEqualTo(18);
         assertThat(result.getFalsePositiveCount()).isEqualTo(7);
         // overall precision = 18 / (18+7) = 0.72
@@ -88,14 +91,9 @@ class FraudAnalyticsServiceTest {
     @Test
     @DisplayName("handles zero total alerts without division by zero")
     void zeroDivision() {
-        when(alertRepository.countByTenantId(TENANT)).thenReturn(0L);
-        when(alertRepository.countResolved(TENANT)).thenReturn(0L);
+        when(alertRepository.rollupCountByRuleAndStatus(TENANT)).thenReturn(List.of());
         when(caseRepository.countActiveCases(TENANT)).thenReturn(0L);
-        when(alertRepository.countByRule(TENANT)).thenReturn(List.of());
-        when(alertRepository.countConfirmedByRule(TENANT)).thenReturn(List.of());
-        when(alertRepository.countFalsePositiveByRule(TENANT)).thenReturn(List.of());
-        when(alertRepository.countByDay(eq(TENANT), any(OffsetDateTime.class))).thenReturn(List.of());
-        when(alertRepository.countByAlertType(eq(TENANT), any(OffsetDateTime.class))).thenReturn(List.of());
+        stubTrendAndTypes(List.of(), List.of());
 
         FraudAnalyticsResponse result = service.getAnalytics(TENANT, 30);
 
@@ -106,20 +104,11 @@ class FraudAnalyticsServiceTest {
     @Test
     @DisplayName("includes daily trend and type distribution data")
     void dailyTrendAndTypes() {
-        when(alertRepository.countByTenantId(TENANT)).thenReturn(10L);
-        when(alertRepository.countResolved(TENANT)).thenReturn(5L);
+        when(alertRepository.rollupCountByRuleAndStatus(TENANT)).thenReturn(List.of());
         when(caseRepository.countActiveCases(TENANT)).thenReturn(1L);
-        when(alertRepository.countByRule(TENANT)).thenReturn(List.of());
-        when(alertRepository.countConfirmedByRule(TENANT)).thenReturn(List.of());
-        when(alertRepository.countFalsePositiveByRule(TENANT)).thenReturn(List.of());
-        when(alertRepository.countByDay(eq(TENANT), any(OffsetDateTime.class))).thenReturn(List.of(
-                new Object[]{"2026-03-01", 3L},
-                new Object[]{"2026-03-02", 7L}
-        ));
-        when(alertRepository.countByAlertType(eq(TENANT), any(OffsetDateTime.class))).thenReturn(List.of(
-                new Object[]{"LARGE_TRANSACTION", 6L},
-                new Object[]{"STRUCTURING", 4L}
-        ));
+        stubTrendAndTypes(
+                List.of(new Object[]{LocalDate.of(2026, 3, 1), 3L}, new Object[]{LocalDate.of(2026, 3, 2), 7L}),
+                List.of(new Object[]{"LARGE_TRANSACTION", 6L}, new Object[]{"STRUCTURING", 4L}));
 
         FraudAnalyticsResponse result = service.getAnalytics(TENANT, 30);
 
@@ -130,4 +119,15 @@ class FraudAnalyticsServiceTest {
         assertThat(result.getAlertsByType()).hasSize(2);
         assertThat(result.getAlertsByType().get(0).getType()).isEqualTo("LARGE_TRANSACTION");
     }
+
+    @Test
+    @DisplayName("rebuilds both alert and scoring rollups for the tenant")
+    void rebuildRollups() {
+        when(alertRepository.rebuildRollups(TENANT)).thenReturn(120L);
+        when(scoringHistoryRepository.rebuildRollups(TENANT)).thenReturn(48L);
+
+        Map<String, Object> result = service.rebuildRollups(TENANT);
+
+        assertThat(result).containsEntry("alertBuckets", 120L).containsEntry("scoringBuckets", 48L);
+    }
 }
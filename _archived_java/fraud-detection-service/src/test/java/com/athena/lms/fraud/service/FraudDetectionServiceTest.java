@@ -1,9 +1,9 @@
 package com.athena.lms.fraud.service;
 
-import com.athena.lms.fraud.entity.CustomerRiskProfile;
 import com.athena.lms.fraud.entity.FraudAlert;
 import com.athena.lms.fraud.enums.*;
 import com.athena.lms.fraud.event.FraudEventPublisher;
+import com.athena.lms.fraud.ml.LocalModelScorer;
 import com.athena.lms.fraud.ml.MLScoringClient;
 import com.athena.lms.fraud.ml.MLScoringResponse;
 import com.athena.lms.fraud.repository.*;
@@ -35,6 +35,8 @@ class FraudDetectionServiceTest {
     @Mock private VelocityService velocityService;
     @Mock private FraudEventPublisher eventPublisher;
     @Mock private MLScoringClient mlScoringClient;
+    @Mock private LocalModelScorer localModelScorer;
+    @Mock private AlertDedupIndex alertDedupIndex;
 
     @InjectMocks private FraudDetectionService service;
 
@@ -75,15 +77,8 @@ class FraudDetectionServiceTest {
                 .build();
 
             when(ruleEngineService.evaluate(eq(TENANT), anyString(), anyMap())).thenReturn(List.of(alert));
-            when(alertRepository.countRecentAlertsByRule(anyString(), anyString(), anyString(), any()))
-                .thenReturn(0L);
+            when(alertDedupIndex.tryClaim(anyString(), anyString(), anyString(), any())).thenReturn(true);
             when(alertRepository.save(any())).thenReturn(alert);
-            when(riskProfileRepository.findByTenantIdAndCustomerId(eq(TENANT), eq("CUST-1")))
-                .thenReturn(Optional.of(CustomerRiskProfile.builder()
-                    .tenantId(TENANT).customerId("CUST-1")
-                    .riskLevel(RiskLevel.LOW).riskScore(BigDecimal.ZERO)
-                    .totalAlerts(0).openAlerts(0).confirmedFraud(0).falsePositives(0)
-                    .build()));
 
             Map<String, Object> data = Map.of("customerId", "CUST-1", "amount", "2000000");
             List<FraudAlert> result = service.processEvent(TENANT, "payment.completed", data);
@@ -91,6 +86,7 @@ class FraudDetectionServiceTest {
             assertThat(result).hasSize(1);
             verify(alertRepository).save(any());
             verify(eventPublisher).publishFraudAlertRaised(any());
+            verify(riskProfileRepository).recordAlertRaised(TENANT, "CUST-1");
         }
 
         @Test
@@ -111,8 +107,7 @@ class FraudDetectionServiceTest {
 
             when(ruleEngineService.evaluate(eq(TENANT), anyString(), anyMap())).thenReturn(List.of(alert));
             // Already triggered within last hour
-            when(alertRepository.countRecentAlertsByRule(anyString(), eq("CUST-1"), eq("LARGE_SINGLE_TXN"), any()))
-                .thenReturn(1L);
+            when(alertDedupIndex.tryClaim(anyString(), eq("CUST-1"), eq("LARGE_SINGLE_TXN"), any())).thenReturn(false);
 
             Map<String, Object> data = Map.of("customerId", "CUST-1", "amount", "2000000");
             List<FraudAlert> result = service.processEvent(TENANT, "payment.completed", data);
@@ -140,11 +135,8 @@ class FraudDetectionServiceTest {
                 .build();
 
             when(ruleEngineService.evaluate(eq(TENANT), anyString(), anyMap())).thenReturn(List.of(alert));
-            when(alertRepository.countRecentAlertsByRule(anyString(), anyString(), anyString(), any()))
-                .thenReturn(0L);
+            when(alertDedupIndex.tryClaim(anyString(), anyString(), anyString(), any())).thenReturn(true);
             when(alertRepository.save(any())).thenReturn(alert);
-            when(riskProfileRepository.findByTenantIdAndCustomerId(eq(TENANT), eq("CUST-1")))
-                .thenReturn(Optional.empty());
 
             Map<String, Object> data = Map.of("customerId", "CUST-1", "amount", "100000");
             service.processEvent(TENANT, "payment.completed", data);
@@ -171,11 +163,8 @@ class FraudDetectionServiceTest {
                 .build();
 
             when(ruleEngineService.evaluate(eq(TENANT), anyString(), anyMap())).thenReturn(List.of(alert));
-            when(alertRepository.countRecentAlertsByRule(anyString(), anyString(), anyString(), any()))
-                .thenReturn(0L);
+            when(alertDedupIndex.tryClaim(anyString(), anyString(), anyString(), any())).thenReturn(true);
             when(alertRepository.save(any())).thenReturn(alert);
-            when(riskProfileRepository.findByTenantIdAndCustomerId(eq(TENANT), eq("CUST-1")))
-                .thenReturn(Optional.empty());
 
             // ML service returns a score
             MLScoringResponse mlResult = MLScoringResponse.builder()
@@ -198,6 +187,45 @@ class FraudDetectionServiceTest {
             assertThat(saved.getRiskScore()).isNotNull();
             assertThat(saved.getModelVersion()).isEqualTo("combined-v1");
         }
+
+        @Test
+        @DisplayName("scores with the in-process model in local mode, without calling the ML service")
+        void localModelScore() {
+            FraudAlert alert = FraudAlert.builder()
+                .tenantId(TENANT)
+                .alertType(AlertType.LARGE_TRANSACTION)
+                .severity(AlertSeverity.HIGH)
+                .status(AlertStatus.OPEN)
+                .source(AlertSource.RULE_ENGINE)
+                .ruleCode("LARGE_SINGLE_TXN")
+                .customerId("CUST-1")
+                .subjectType("PAYMENT")
+                .subjectId("PAY-1")
+                .description("Large txn")
+                .build();
+
+            when(ruleEngineService.evaluate(eq(TENANT), anyString(), anyMap())).thenReturn(List.of(alert));
+            when(alertDedupIndex.tryClaim(anyString(), anyString(), anyString(), any())).thenReturn(true);
+            when(alertRepository.save(any())).thenReturn(alert);
+            when(localModelScorer.getMode()).thenReturn(LocalModelScorer.Mode.LOCAL);
+            when(localModelScorer.scoreCombined(eq(TENANT), eq("CUST-1"), eq("payment.completed"), any(), anyDouble()))
+                .thenReturn(MLScoringResponse.builder()
+                    .score(0.91)
+                    .riskLevel("CRITICAL")
+                    .modelAvailable(true)
+                    .modelVersion("local-1a2b3c4d")
+                    .build());
+
+            Map<String, Object> data = Map.of("customerId", "CUST-1", "amount", "2000000");
+            service.processEvent(TENANT, "payment.completed", data);
+
+            ArgumentCaptor<FraudAlert> captor = ArgumentCaptor.forClass(FraudAlert.class);
+            verify(alertRepository, atLeast(1)).save(captor.capture());
+            FraudAlert saved = captor.getAllValues().get(0);
+            assertThat(saved.getRiskScore()).isEqualByComparingTo("0.91");
+            assertThat(saved.getModelVersion()).isEqualTo("local-1a2b3c4d");
+            verifyNoInteractions(mlScoringClient);
+        }
     }
 
     @Nested
@@ -219,17 +247,8 @@ class FraudDetectionServiceTest {
                 .description("Test")
                 .build();
 
-            CustomerRiskProfile profile = CustomerRiskProfile.builder()
-                .tenantId(TENANT).customerId("CUST-1")
-                .riskLevel(RiskLevel.MEDIUM).riskScore(new BigDecimal("0.25"))
-                .totalAlerts(3).openAlerts(2).confirmedFraud(0).falsePositives(0)
-                .build();
-
             when(alertRepository.findById(alert.getId())).thenReturn(Optional.of(alert));
             when(alertRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-            when(riskProfileRepository.findByTenantIdAndCustomerId(TENANT, "CUST-1"))
-                .thenReturn(Optional.of(profile));
-            when(riskProfileRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             var req = new com.athena.lms.fraud.dto.request.ResolveAlertRequest();
             req.setConfirmedFraud(true);
@@ -239,9 +258,7 @@ class FraudDetectionServiceTest {
             var result = service.resolveAlert(alert.getId(), req, TENANT);
 
             assertThat(result.getStatus()).isEqualTo(AlertStatus.CONFIRMED_FRAUD);
-            verify(riskProfileRepository).save(argThat(p ->
-                p.getConfirmedFraud() == 1 && p.getOpenAlerts() == 1
-            ));
+            verify(riskProfileRepository).recordAlertResolved(TENANT, "CUST-1", 1, 0);
         }
 
         @Test
@@ -259,17 +276,8 @@ class FraudDetectionServiceTest {
                 .description("Test FP")
                 .build();
 
-            CustomerRiskProfile profile = CustomerRiskProfile.builder()
-                .tenantId(TENANT).customerId("CUST-2")
-                .riskLevel(RiskLevel.MEDIUM).riskScore(new BigDecimal("0.30"))
-                .totalAlerts(2).openAlerts(1).confirmedFraud(0).falsePositives(0)
-                .build();
-
             when(alertRepository.findById(alert.getId())).thenReturn(Optional.of(alert));
             when(alertRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-            when(riskProfileRepository.findByTenantIdAndCustomerId(TENANT, "CUST-2"))
-                .thenReturn(Optional.of(profile));
-            when(riskProfileRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             var req = new com.athena.lms.fraud.dto.request.ResolveAlertRequest();
             req.setConfirmedFraud(false);
@@ -278,9 +286,7 @@ class FraudDetectionServiceTest {
             var result = service.resolveAlert(alert.getId(), req, TENANT);
 
             assertThat(result.getStatus()).isEqualTo(AlertStatus.FALSE_POSITIVE);
-            verify(riskProfileRepository).save(argThat(p ->
-                p.getFalsePositives() == 1 && p.getOpenAlerts() == 0
-            ));
+            verify(riskProfileRepository).recordAlertResolved(TENANT, "CUST-2", 0, 1);
         }
     }
 
@@ -14,10 +14,12 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -97,20 +99,31 @@ class FraudScoringServiceTest {
     }
 
     @Test
-    @DisplayName("getScoringStats returns risk level counts")
+    @DisplayName("getScoringStats reads risk level counts and averages from the rollups")
     void scoringStats() {
-        when(scoringHistoryRepository.countByTenantIdAndRiskLevel("t1", "LOW")).thenReturn(10L);
-        when(scoringHistoryRepository.countByTenantIdAndRiskLevel("t1", "MEDIUM")).thenReturn(5L);
-        when(scoringHistoryRepository.countByTenantIdAndRiskLevel("t1", "HIGH")).thenReturn(3L);
-        when(scoringHistoryRepository.countByTenantIdAndRiskLevel("t1", "CRITICAL")).thenReturn(1L);
-        when(scoringHistoryRepository.averageScoreByRiskLevel("t1")).thenReturn(List.of());
-        when(scoringHistoryRepository.scoringVolumePerDay(eq("t1"), anyInt())).thenReturn(List.of());
+        when(scoringHistoryRepository.rollupByRiskLevel("t1")).thenReturn(List.of(
+                new Object[]{"LOW", 10L, 1.5},
+                new Object[]{"CRITICAL", 1L, 0.92}
+        ));
+        when(scoringHistoryRepository.rollupVolumePerDay(eq("t1"), any(LocalDate.class))).thenReturn(List.<Object[]>of(
+                new Object[]{LocalDate.of(2026, 3, 1), 11L}
+        ));
 
         Map<String, Object> stats = fraudScoringService.getScoringStats("t1");
 
         @SuppressWarnings("unchecked")
         Map<String, Long> counts = (Map<String, Long>) stats.get("countsByRiskLevel");
-        assertThat(counts.get("LOW")).isEqualTo(10L);
-        assertThat(counts.get("CRITICAL")).isEqualTo(1L);
+        assertThat(counts).containsExactly(
+                Map.entry("LOW", 10L), Map.entry("MEDIUM", 0L), Map.entry("HIGH", 0L), Map.entry("CRITICAL", 1L));
+        @SuppressWarnings("unchecked")
+        Map<String, Double> averages = (Map<String, Double>) stats.get("averageScoresByRiskLevel");
+        assertThat(averages.get("LOW")).isCloseTo(0.15, within(1e-9));
+        assertThat(averages).doesNotContainKey("MEDIUM");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> volume = (List<Map<String, Object>>) stats.get("volumePerDay");
+        assertThat(volume).singleElement().satisfies(day -> {
+            assertThat(day.get("date")).isEqualTo("2026-03-01");
+            assertThat(day.get("volume")).isEqualTo(11L);
+        });
     }
 }
@@ -0,0 +1,123 @@
+package com.athena.lms.fraud.service;
+
+import com.athena.lms.fraud.archive.ArchivedTable;
+import com.athena.lms.fraud.archive.SegmentWriter;
+import com.athena.lms.fraud.config.FraudRetentionConfig;
+import com.athena.lms.fraud.dto.response.HistoryResponse;
+import com.athena.lms.fraud.entity.ArchiveSegment;
+import com.athena.lms.fraud.entity.FraudEvent;
+import com.athena.lms.fraud.repository.ArchiveSegmentRepository;
+import com.athena.lms.fraud.repository.AuditLogRepository;
+import com.athena.lms.fraud.repository.FraudEventRepository;
+import com.athena.lms.fraud.repository.ScoringHistoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvestigationHistoryServiceTest {
+
+    @Mock private FraudEventRepository eventRepository;
+    @Mock private ScoringHistoryRepository scoringHistoryRepository;
+    @Mock private AuditLogRepository auditLogRepository;
+    @Mock private ArchiveSegmentRepository segmentRepository;
+
+    @TempDir Path dir;
+
+    private InvestigationHistoryService service;
+
+    private static final String TENANT = "test-tenant";
+    private static final OffsetDateTime MARCH = OffsetDateTime.of(2026, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() {
+        FraudRetentionConfig config = new FraudRetentionConfig();
+        config.setMaxHistoryResults(5);
+        service = new InvestigationHistoryService(eventRepository, scoringHistoryRepository, auditLogRepository,
+                segmentRepository, config, new ObjectMapper());
+    }
+
+    private ArchiveSegment archiveMarch(String... customers) throws IOException {
+        Path file = dir.resolve("fraud_events_p2026_03.seg");
+        try (SegmentWriter writer = new SegmentWriter(file, ArchivedTable.FRAUD_EVENTS, 2)) {
+            for (int i = 0; i < customers.length; i++) {
+                writer.append(new Object[]{UUID.randomUUID(), TENANT, "payment.completed", "payment-service",
+                        customers[i], null, new BigDecimal("100.0000"), null, null,
+                        "{\"channel\": \"MOBILE\"}", MARCH.plusDays(i)});
+            }
+            writer.commit();
+        }
+        return ArchiveSegment.builder().tableName("fraud_events").partitionName("fraud_events_p2026_03")
+                .rangeFrom(MARCH).rangeTo(MARCH.plusMonths(1)).filePath(file.toString()).build();
+    }
+
+    private FraudEvent liveEvent(OffsetDateTime at) {
+        return FraudEvent.builder().id(UUID.randomUUID()).tenantId(TENANT).customerId("CUST-1")
+                .eventType("payment.completed").processedAt(at).build();
+    }
+
+    @Test
+    @DisplayName("appends archived rows, newest first, after the live ones")
+    void unionsLiveAndArchived() throws IOException {
+        FraudEvent live = liveEvent(MARCH.plusMonths(7));
+        when(eventRepository.findHistory(eq(TENANT), eq("CUST-1"), any(), any(), any())).thenReturn(List.of(live));
+        when(segmentRepository.findOverlapping(eq("fraud_events"), any(), any()))
+                .thenReturn(List.of(archiveMarch("CUST-1", "CUST-2", "CUST-1")));
+
+        HistoryResponse<FraudEvent> history = service.getEventHistory(TENANT, "CUST-1", null, null, null);
+
+        assertThat(history.getItems()).extracting(FraudEvent::getProcessedAt)
+                .containsExactly(live.getProcessedAt(), MARCH.plusDays(2), MARCH);
+        assertThat(history.getItems().get(1).getPayload()).containsEntry("channel", "MOBILE");
+        assertThat(history.getLiveCount()).isEqualTo(1);
+        assertThat(history.getArchivedCount()).isEqualTo(2);
+        assertThat(history.getSegmentsScanned()).isEqualTo(1);
+        assertThat(history.isTruncated()).isFalse();
+    }
+
+    @Test
+    @DisplayName("stops at the result limit and marks the response truncated")
+    void respectsLimit() throws IOException {
+        when(eventRepository.findHistory(eq(TENANT), eq("CUST-1"), any(), any(), any())).thenReturn(List.of());
+        when(segmentRepository.findOverlapping(eq("fraud_events"), any(), any()))
+                .thenReturn(List.of(archiveMarch("CUST-1", "CUST-1", "CUST-1")));
+
+        HistoryResponse<FraudEvent> history = service.getEventHistory(TENANT, "CUST-1", null, null, 2);
+
+        assertThat(history.getItems()).extracting(FraudEvent::getProcessedAt)
+                .containsExactly(MARCH.plusDays(2), MARCH.plusDays(1));
+        assertThat(history.isTruncated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("reports archived months whose segment is not readable here")
+    void reportsMissingSegments() {
+        when(eventRepository.findHistory(eq(TENANT), eq("CUST-1"), any(), any(), any())).thenReturn(List.of());
+        when(segmentRepository.findOverlapping(eq("fraud_events"), any(), any())).thenReturn(List.of(
+                ArchiveSegment.builder().tableName("fraud_events").partitionName("fraud_events_p2025_01")
+                        .filePath(dir.resolve("missing.seg").toString()).build()));
+
+        HistoryResponse<FraudEvent> history = service.getEventHistory(TENANT, "CUST-1", null, null, null);
+
+        assertThat(history.getItems()).isEmpty();
+        assertThat(history.getUnavailableSegments()).containsExactly("fraud_events_p2025_01");
+    }
+}
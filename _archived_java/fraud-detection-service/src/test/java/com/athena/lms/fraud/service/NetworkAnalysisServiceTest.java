@@ -1,9 +1,12 @@
 package com.athena.lms.fraud.service;
 
+import com.athena.lms.fraud.dto.response.NetworkClusterResponse;
 import com.athena.lms.fraud.dto.response.NetworkNodeResponse;
 import com.athena.lms.fraud.entity.CustomerRiskProfile;
 import com.athena.lms.fraud.entity.NetworkLink;
 import com.athena.lms.fraud.enums.RiskLevel;
+import com.athena.lms.fraud.graph.LinkGraph;
+import com.athena.lms.fraud.graph.LinkGraphRegistry;
 import com.athena.lms.fraud.repository.CustomerRiskProfileRepository;
 import com.athena.lms.fraud.repository.NetworkLinkRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -26,6 +29,7 @@ class NetworkAnalysisServiceTest {
 
     @Mock private NetworkLinkRepository linkRepository;
     @Mock private CustomerRiskProfileRepository riskProfileRepository;
+    @Mock private LinkGraphRegistry graphRegistry;
 
     @InjectMocks private NetworkAnalysisService service;
 
@@ -75,18 +79,12 @@ class NetworkAnalysisServiceTest {
         @Test
         @DisplayName("returns network graph for customer")
         void getNetwork() {
-            NetworkLink link1 = NetworkLink.builder()
-                .tenantId(TENANT).customerIdA("CUST-1").customerIdB("CUST-2")
-                .linkType("SHARED_PHONE").linkValue("+254700111222")
-                .strength(3).flagged(false).build();
-            NetworkLink link2 = NetworkLink.builder()
-                .tenantId(TENANT).customerIdA("CUST-1").customerIdB("CUST-3")
-                .linkType("SHARED_IP").linkValue("10.0.0.1")
-                .strength(1).flagged(true).build();
-
-            when(linkRepository.findByCustomer(TENANT, "CUST-1")).thenReturn(List.of(link1, link2));
-            when(riskProfileRepository.findByTenantIdAndCustomerId(TENANT, "CUST-1"))
-                .thenReturn(Optional.of(CustomerRiskProfile.builder()
+            LinkGraph graph = new LinkGraph();
+            graph.addLink("CUST-1", "CUST-2", "SHARED_PHONE", "+254700111222", 3, false);
+            graph.addLink("CUST-1", "CUST-3", "SHARED_IP", "10.0.0.1", 1, true);
+            when(graphRegistry.graph(TENANT)).thenReturn(graph);
+            when(riskProfileRepository.findByTenantIdAndCustomerIdIn(TENANT, List.of("CUST-1")))
+                .thenReturn(List.of(CustomerRiskProfile.builder()
                     .tenantId(TENANT).customerId("CUST-1")
                     .riskLevel(RiskLevel.HIGH).riskScore(new BigDecimal("0.65"))
                     .build()));
@@ -98,22 +96,109 @@ class NetworkAnalysisServiceTest {
             assertThat(result.getLinkCount()).isEqualTo(2);
             assertThat(result.getLinks()).hasSize(2);
             assertThat(result.getLinks().get(0).getLinkedCustomerId()).isEqualTo("CUST-2");
+            assertThat(result.getLinks().get(0).getStrength()).isEqualTo(3);
             assertThat(result.getLinks().get(1).getLinkedCustomerId()).isEqualTo("CUST-3");
             assertThat(result.getLinks().get(1).isFlagged()).isTrue();
+            verifyNoInteractions(linkRepository);
         }
 
         @Test
         @DisplayName("returns LOW risk for unknown customer")
         void unknownCustomerDefaultRisk() {
-            when(linkRepository.findByCustomer(TENANT, "UNKNOWN")).thenReturn(List.of());
-            when(riskProfileRepository.findByTenantIdAndCustomerId(TENANT, "UNKNOWN"))
-                .thenReturn(Optional.empty());
+            when(graphRegistry.graph(TENANT)).thenReturn(new LinkGraph());
+            when(riskProfileRepository.findByTenantIdAndCustomerIdIn(TENANT, List.of("UNKNOWN")))
+                .thenReturn(List.of());
 
             NetworkNodeResponse result = service.getCustomerNetwork(TENANT, "UNKNOWN");
 
             assertThat(result.getRiskLevel()).isEqualTo("LOW");
             assertThat(result.getLinkCount()).isEqualTo(0);
         }
+
+        @Test
+        @DisplayName("rolls up risk across the customer's cluster with one profile query")
+        void clusterRiskRollUp() {
+            LinkGraph graph = new LinkGraph();
+            graph.addLink("CUST-1", "CUST-2", "SHARED_DEVICE", "device-abc", 1, true);
+            graph.addLink("CUST-2", "CUST-3", "SHARED_PHONE", "+254700111222", 1, false);
+            graph.addLink("CUST-9", "CUST-8", "SHARED_IP", "10.0.0.9", 1, false);
+            when(graphRegistry.graph(TENANT)).thenReturn(graph);
+            when(riskProfileRepository.findByTenantIdAndCustomerIdIn(eq(TENANT), anyCollection()))
+                .thenReturn(List.of(
+                    CustomerRiskProfile.builder().tenantId(TENANT).customerId("CUST-1")
+                        .riskLevel(RiskLevel.CRITICAL).riskScore(new BigDecimal("0.80"))
+                        .openAlerts(3).confirmedFraud(1).build(),
+                    CustomerRiskProfile.builder().tenantId(TENANT).customerId("CUST-3")
+                        .riskLevel(RiskLevel.MEDIUM).riskScore(new BigDecimal("0.25"))
+                        .openAlerts(1).confirmedFraud(0).build()));
+
+            NetworkClusterResponse result = service.getCluster(TENANT, "CUST-3");
+
+            assertThat(result.getSize()).isEqualTo(3);
+            assertThat(result.getMembers()).containsExactlyInAnyOrder("CUST-1", "CUST-2", "CUST-3");
+            assertThat(result.getFlaggedLinks()).isEqualTo(1);
+            assertThat(result.getHighestRiskLevel()).isEqualTo("CRITICAL");
+            assertThat(result.getAverageRiskScore()).isEqualByComparingTo("0.35");
+            assertThat(result.getCustomersByRiskLevel()).containsEntry("LOW", 1L).containsEntry("CRITICAL", 1L);
+            assertThat(result.getOpenAlerts()).isEqualTo(4);
+            verify(riskProfileRepository, times(1)).findByTenantIdAndCustomerIdIn(eq(TENANT), anyCollection());
+        }
+    }
+
+    @Nested
+    @DisplayName("Shared Attributes")
+    class SharedAttributeTests {
+
+        @Test
+        @DisplayName("returns customers already seen with the attribute value")
+        void returnsEarlierCustomers() {
+            LinkGraph graph = new LinkGraph();
+            when(graphRegistry.graph(TENANT)).thenReturn(graph);
+
+            assertThat(service.customersSharingAttribute(TENANT, "CUST-1", "SHARED_PHONE", "+254700")).isEmpty();
+            assertThat(service.customersSharingAttribute(TENANT, "CUST-2", "SHARED_PHONE", "+254700"))
+                .containsExactly("CUST-1");
+            assertThat(service.customersSharingAttribute(TENANT, "CUST-3", "SHARED_PHONE", "+254700"))
+                .containsExactly("CUST-1", "CUST-2");
+        }
+
+        @Test
+        @DisplayName("stores a sighting new to this instance, once")
+        void storesNewSightings() {
+            when(graphRegistry.graph(TENANT)).thenReturn(new LinkGraph());
+
+            service.customersSharingAttribute(TENANT, "CUST-1", "SHARED_PHONE", "+254700");
+            service.customersSharingAttribute(TENANT, "CUST-1", "SHARED_PHONE", "+254700");
+
+            verify(linkRepository, times(1)).recordSighting(TENANT, "SHARED_PHONE", "+254700", "CUST-1");
+        }
+
+        @Test
+        @DisplayName("on a miss, finds customers seen before a restart or by another instance")
+        void readsStoredSightingsOnMiss() {
+            LinkGraph graph = new LinkGraph();
+            when(graphRegistry.graph(TENANT)).thenReturn(graph);
+            when(linkRepository.findSightings(TENANT, "SHARED_DEVICE", "dev-1", "CUST-2", 101))
+                .thenReturn(List.of("CUST-1"));
+
+            assertThat(service.customersSharingAttribute(TENANT, "CUST-2", "SHARED_DEVICE", "dev-1"))
+                .containsExactly("CUST-1");
+            // Now in memory: the next customer is answered without a query
+            assertThat(service.customersSharingAttribute(TENANT, "CUST-3", "SHARED_DEVICE", "dev-1"))
+                .containsExactlyInAnyOrder("CUST-1", "CUST-2");
+            verify(linkRepository, times(1)).findSightings(any(), any(), any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("stored sightings past the fan-out limit return nothing")
+        void storedFanout() {
+            when(graphRegistry.graph(TENANT)).thenReturn(new LinkGraph());
+            List<String> crowd = new ArrayList<>();
+            for (int i = 0; i < 101; i++) crowd.add("CUST-" + i);
+            when(linkRepository.findSightings(TENANT, "SHARED_IP", "10.0.0.1", "CUST-X", 101)).thenReturn(crowd);
+
+            assertThat(service.customersSharingAttribute(TENANT, "CUST-X", "SHARED_IP", "10.0.0.1")).isEmpty();
+        }
     }
 
     @Nested
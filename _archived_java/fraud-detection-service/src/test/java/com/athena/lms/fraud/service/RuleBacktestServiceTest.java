@@ -0,0 +1,189 @@
+package com.athena.lms.fraud.service;
+
+import com.athena.lms.common.exception.BusinessException;
+import com.athena.lms.fraud.cep.TimelineEngine;
+import com.athena.lms.fraud.config.FraudCepConfig;
+import com.athena.lms.fraud.config.FraudThresholdConfig;
+import com.athena.lms.fraud.dto.request.BacktestRequest;
+import com.athena.lms.fraud.dto.response.BacktestResponse;
+import com.athena.lms.fraud.entity.FraudRule;
+import com.athena.lms.fraud.enums.AlertSeverity;
+import com.athena.lms.fraud.enums.RuleCategory;
+import com.athena.lms.fraud.repository.FraudAlertRepository;
+import com.athena.lms.fraud.repository.FraudEventRepository;
+import com.athena.lms.fraud.repository.FraudRuleRepository;
+import com.athena.lms.fraud.repository.WatchlistRepository;
+import com.athena.lms.fraud.rules.RuleConfigRegistry;
+import com.athena.lms.fraud.rules.RuleConfigSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RuleBacktestServiceTest {
+
+    @Mock private FraudEventRepository eventRepository;
+    @Mock private FraudRuleRepository ruleRepository;
+    @Mock private FraudAlertRepository alertRepository;
+    @Mock private VelocityService velocityService;
+    @Mock private WatchlistRepository watchlistRepository;
+    @Mock private RuleConfigRegistry ruleConfig;
+
+    private RuleBacktestService backtestService;
+
+    private static final String TENANT = "test-tenant";
+    private static final OffsetDateTime FROM = OffsetDateTime.parse("2024-03-01T00:00:00Z");
+    private static final OffsetDateTime TO = OffsetDateTime.parse("2024-04-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        TimelineEngine timelineEngine = new TimelineEngine(new FraudCepConfig());
+        lenient().when(ruleConfig.current()).thenReturn(RuleConfigSnapshot.of(1, List.of(), new FraudThresholdConfig()));
+        RuleEngineService ruleEngine = new RuleEngineService(ruleRepository, velocityService, watchlistRepository,
+                ruleConfig, timelineEngine);
+        backtestService = new RuleBacktestService(eventRepository, ruleRepository, alertRepository, ruleEngine, timelineEngine);
+    }
+
+    private FraudRule makeRule(String code, Map<String, Object> parameters, String... eventTypes) {
+        return FraudRule.builder()
+                .id(UUID.randomUUID())
+                .tenantId("*")
+                .ruleCode(code)
+                .ruleName(code)
+                .category(RuleCategory.TRANSACTION)
+                .severity(AlertSeverity.HIGH)
+                .eventTypes(String.join(",", eventTypes))
+                .enabled(true)
+                .parameters(new HashMap<>(parameters))
+                .build();
+    }
+
+    private static Object[] event(String customerId, String amount, String at) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("customerId", customerId);
+        payload.put("amount", amount);
+        return new Object[]{customerId, "payment.completed", payload, OffsetDateTime.parse(at)};
+    }
+
+    private BacktestRequest request(BacktestRequest.RuleOverride... overrides) {
+        BacktestRequest request = new BacktestRequest();
+        request.setFrom(FROM);
+        request.setTo(TO);
+        request.setRules(List.of(overrides));
+        return request;
+    }
+
+    private static BacktestRequest.RuleOverride override(String code, Map<String, Object> parameters) {
+        BacktestRequest.RuleOverride o = new BacktestRequest.RuleOverride();
+        o.setRuleCode(code);
+        o.setParameters(parameters);
+        return o;
+    }
+
+    @Test
+    @DisplayName("compares current and candidate thresholds and their overlap with confirmed fraud")
+    void comparesThresholds() {
+        when(ruleRepository.findByTenantIdOrGlobal(TENANT)).thenReturn(List.of(
+                makeRule("LARGE_SINGLE_TXN", Map.of("threshold", 1000000), "payment.completed")));
+        when(alertRepository.findConfirmedFraudCustomers(TENANT, FROM, TO)).thenReturn(List.of("CUST-1"));
+        when(eventRepository.streamForReplay(TENANT, FROM, TO)).thenReturn(Stream.of(
+                event("CUST-1", "600000", "2024-03-02T10:00:00Z"),
+                event("CUST-2", "1200000", "2024-03-02T11:00:00Z"),
+                event("CUST-3", "800000", "2024-03-03T09:00:00Z")));
+
+        BacktestResponse response = backtestService.backtest(TENANT,
+                request(override("LARGE_SINGLE_TXN", Map.of("threshold", 500000))));
+
+        assertThat(response.getEventsReplayed()).isEqualTo(3);
+        assertThat(response.getCustomers()).isEqualTo(3);
+        assertThat(response.getRules()).hasSize(1);
+        BacktestResponse.RuleResult result = response.getRules().get(0);
+        assertThat(result.isChanged()).isTrue();
+        assertThat(result.getCurrent().getAlerts()).isEqualTo(1);
+        assertThat(result.getCurrent().getConfirmedFraudFlagged()).isZero();
+        assertThat(result.getCandidate().getAlerts()).isEqualTo(3);
+        assertThat(result.getCandidate().getConfirmedFraudFlagged()).isEqualTo(1);
+        assertThat(result.getCandidate().getPrecision()).isEqualByComparingTo("0.3333");
+        assertThat(result.getCandidate().getRecall()).isEqualByComparingTo("1");
+
+        verifyNoInteractions(velocityService);
+        verify(alertRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("velocity rules see counters as of each event's time, with the live one-hour dedup")
+    void replaysVelocityInEventTime() {
+        when(ruleRepository.findByTenantIdOrGlobal(TENANT)).thenReturn(List.of(
+                makeRule("HIGH_VELOCITY_1H", Map.of("maxTransactions", 3, "windowMinutes", 60), "payment.completed")));
+        when(alertRepository.findConfirmedFraudCustomers(TENANT, FROM, TO)).thenReturn(List.of());
+        when(eventRepository.streamForReplay(TENANT, FROM, TO)).thenReturn(Stream.of(
+                event("CUST-1", "100", "2024-03-05T10:00:00Z"),
+                event("CUST-1", "100", "2024-03-05T10:05:00Z"),
+                event("CUST-1", "100", "2024-03-05T10:10:00Z"),   // 3rd in the hour: alert
+                event("CUST-1", "100", "2024-03-05T10:15:00Z"),   // deduplicated
+                event("CUST-1", "100", "2024-03-05T13:00:00Z"),
+                event("CUST-1", "100", "2024-03-05T13:05:00Z"),
+                event("CUST-1", "100", "2024-03-05T13:10:00Z"),   // new hour, past dedup: alert
+                event("CUST-2", "100", "2024-03-05T10:00:00Z")));
+
+        BacktestResponse response = backtestService.backtest(TENANT,
+                request(override("HIGH_VELOCITY_1H", Map.of("maxTransactions", 10))));
+
+        BacktestResponse.RuleResult result = response.getRules().get(0);
+        assertThat(result.getCurrent().getAlerts()).isEqualTo(2);
+        assertThat(result.getCurrent().getCustomersFlagged()).isEqualTo(1);
+        assertThat(result.getCandidate().getAlerts()).isZero();
+    }
+
+    @Test
+    @DisplayName("a disabled rule can be tried out without enabling it")
+    void enablesDisabledRuleForCandidateOnly() {
+        FraudRule rule = makeRule("LARGE_SINGLE_TXN", Map.of("threshold", 1000000), "payment.completed");
+        rule.setEnabled(false);
+        when(ruleRepository.findByTenantIdOrGlobal(TENANT)).thenReturn(List.of(rule));
+        when(alertRepository.findConfirmedFraudCustomers(TENANT, FROM, TO)).thenReturn(List.of());
+        when(eventRepository.streamForReplay(TENANT, FROM, TO)).thenReturn(Stream.<Object[]>of(
+                event("CUST-1", "2000000", "2024-03-02T10:00:00Z")));
+        BacktestRequest.RuleOverride enable = override("LARGE_SINGLE_TXN", null);
+        enable.setEnabled(true);
+
+        BacktestResponse response = backtestService.backtest(TENANT, request(enable));
+
+        BacktestResponse.RuleResult result = response.getRules().get(0);
+        assertThat(result.getCurrent().isEnabled()).isFalse();
+        assertThat(result.getCurrent().getAlerts()).isZero();
+        assertThat(result.getCandidate().isEnabled()).isTrue();
+        assertThat(result.getCandidate().getAlerts()).isEqualTo(1);
+        assertThat(rule.getEnabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("rejects unknown rules and inverted ranges")
+    void validatesRequest() {
+        when(ruleRepository.findByTenantIdOrGlobal(TENANT)).thenReturn(List.of(
+                makeRule("LARGE_SINGLE_TXN", Map.of(), "payment.completed")));
+
+        assertThatThrownBy(() -> backtestService.backtest(TENANT, request(override("NO_SUCH_RULE", Map.of()))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("NO_SUCH_RULE");
+
+        BacktestRequest inverted = request();
+        inverted.setFrom(TO);
+        inverted.setTo(FROM);
+        assertThatThrownBy(() -> backtestService.backtest(TENANT, inverted))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(eventRepository);
+    }
+}
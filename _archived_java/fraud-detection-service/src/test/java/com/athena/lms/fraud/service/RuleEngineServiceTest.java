@@ -1,5 +1,7 @@
 package com.athena.lms.fraud.service;
 
+import com.athena.lms.fraud.cep.PatternMatch;
+import com.athena.lms.fraud.cep.TimelineEngine;
 import com.athena.lms.fraud.config.FraudThresholdConfig;
 import com.athena.lms.fraud.entity.FraudAlert;
 import com.athena.lms.fraud.entity.FraudRule;
@@ -9,8 +11,8 @@ import com.athena.lms.fraud.enums.AlertType;
 import com.athena.lms.fraud.enums.RuleCategory;
 import com.athena.lms.fraud.repository.FraudRuleRepository;
 import com.athena.lms.fraud.repository.WatchlistRepository;
-// Note: RuleEngineService only depends on FraudRuleRepository (not FraudAlertRepository)
-import org.junit.jupiter.api.BeforeEach;
+import com.athena.lms.fraud.rules.RuleConfigRegistry;
+import com.athena.lms.fraud.rules.RuleConfigSnapshot;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -20,6 +22,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,24 +35,19 @@ class RuleEngineServiceTest {
     @Mock private FraudRuleRepository ruleRepository;
     @Mock private VelocityService velocityService;
     @Mock private WatchlistRepository watchlistRepository;
-    @Mock private FraudThresholdConfig thresholdConfig;
+    @Mock private RuleConfigRegistry ruleConfig;
+    @Mock private TimelineEngine timelineEngine;
 
     @InjectMocks private RuleEngineService ruleEngineService;
 
     private static final String TENANT = "test-tenant";
 
-    @BeforeEach
-    void setUp() {
-        // Default thresholds
-        lenient().when(thresholdConfig.getLargeTransactionAmount()).thenReturn(new BigDecimal("1000000"));
-        lenient().when(thresholdConfig.getStructuringThreshold()).thenReturn(new BigDecimal("1000000"));
-        lenient().when(thresholdConfig.getStructuringWindowHours()).thenReturn(24);
-        lenient().when(thresholdConfig.getVelocityMaxTransactions1h()).thenReturn(10);
-        lenient().when(thresholdConfig.getVelocityMaxTransactions24h()).thenReturn(50);
-        lenient().when(thresholdConfig.getVelocityMaxApplications30d()).thenReturn(5);
-        lenient().when(thresholdConfig.getRapidTransferWindowMinutes()).thenReturn(15);
-        lenient().when(thresholdConfig.getDormantAccountDays()).thenReturn(180);
-        lenient().when(thresholdConfig.getLoanCyclingWindowDays()).thenReturn(7);
+    private static final long CONFIG_VERSION = 42;
+
+    /** Installs the given rules, with default thresholds, as the current rule configuration. */
+    private void givenRules(FraudRule... rules) {
+        when(ruleConfig.current()).thenReturn(
+            RuleConfigSnapshot.of(CONFIG_VERSION, List.of(rules), new FraudThresholdConfig()));
     }
 
     private FraudRule makeRule(String code, String category, String severity, String... eventTypes) {
@@ -81,7 +79,7 @@ class RuleEngineServiceTest {
         @DisplayName("triggers when amount exceeds threshold")
         void shouldTriggerForLargeAmount() {
             FraudRule rule = makeRule("LARGE_SINGLE_TXN", "TRANSACTION", "HIGH", "payment.completed");
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(rule));
+            givenRules(rule);
 
             List<FraudAlert> alerts = ruleEngineService.evaluate(
                 TENANT, "payment.completed", eventData("CUST-1", new BigDecimal("2000000")));
@@ -95,7 +93,7 @@ class RuleEngineServiceTest {
         @DisplayName("does not trigger for amount below threshold")
         void shouldNotTriggerForSmallAmount() {
             FraudRule rule = makeRule("LARGE_SINGLE_TXN", "TRANSACTION", "HIGH", "payment.completed");
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(rule));
+            givenRules(rule);
 
             List<FraudAlert> alerts = ruleEngineService.evaluate(
                 TENANT, "payment.completed", eventData("CUST-1", new BigDecimal("500000")));
@@ -107,7 +105,7 @@ class RuleEngineServiceTest {
         @DisplayName("does not trigger for non-matching event type")
         void shouldNotTriggerForWrongEventType() {
             FraudRule rule = makeRule("LARGE_SINGLE_TXN", "TRANSACTION", "HIGH", "payment.completed");
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(rule));
+            givenRules(rule);
 
             List<FraudAlert> alerts = ruleEngineService.evaluate(
                 TENANT, "loan.application.submitted", eventData("CUST-1", new BigDecimal("2000000")));
@@ -124,7 +122,7 @@ class RuleEngineServiceTest {
         @DisplayName("triggers when transaction count exceeds 1h limit")
         void shouldTriggerForHighVelocity() {
             FraudRule rule = makeRule("HIGH_VELOCITY_1H", "VELOCITY", "HIGH", "payment.completed");
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(rule));
+            givenRules(rule);
             when(velocityService.getCount(eq(TENANT), eq("CUST-1"), eq("TXN_COUNT"), eq(60)))
                 .thenReturn(15);
 
@@ -139,7 +137,7 @@ class RuleEngineServiceTest {
         @DisplayName("does not trigger when count is below limit")
         void shouldNotTriggerBelowLimit() {
             FraudRule rule = makeRule("HIGH_VELOCITY_1H", "VELOCITY", "HIGH", "payment.completed");
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(rule));
+            givenRules(rule);
             when(velocityService.getCount(eq(TENANT), eq("CUST-1"), eq("TXN_COUNT"), eq(60)))
                 .thenReturn(5);
 
@@ -158,7 +156,7 @@ class RuleEngineServiceTest {
         @DisplayName("triggers when cumulative amount approaches threshold via many small txns")
         void shouldTriggerForStructuring() {
             FraudRule rule = makeRule("STRUCTURING", "AML", "CRITICAL", "payment.completed");
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(rule));
+            givenRules(rule);
             // 24h cumulative = 950000, current txn = 100000 → total 1050000 > threshold
             when(velocityService.getTotalAmount(eq(TENANT), eq("CUST-1"), eq("TXN_AMOUNT"), eq(1440)))
                 .thenReturn(new BigDecimal("950000"));
@@ -184,7 +182,7 @@ class RuleEngineServiceTest {
         void shouldTriggerForStacking() {
             FraudRule rule = makeRule("APPLICATION_STACKING", "APPLICATION", "HIGH",
                 "loan.application.submitted");
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(rule));
+            givenRules(rule);
             when(velocityService.getCount(eq(TENANT), eq("CUST-1"), eq("LOAN_APP"), eq(43200)))
                 .thenReturn(6);
 
@@ -205,7 +203,7 @@ class RuleEngineServiceTest {
         void shouldTriggerForWatchlistMatch() {
             FraudRule rule = makeRule("WATCHLIST_MATCH", "COMPLIANCE", "CRITICAL",
                 "customer.created", "customer.updated", "loan.application.submitted");
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(rule));
+            givenRules(rule);
 
             WatchlistEntry entry = new WatchlistEntry();
             entry.setListType(com.athena.lms.fraud.enums.WatchlistType.SANCTIONS);
@@ -233,7 +231,7 @@ class RuleEngineServiceTest {
         @DisplayName("triggers when many round-amount transactions detected")
         void shouldTriggerForRoundAmounts() {
             FraudRule rule = makeRule("ROUND_AMOUNT_PATTERN", "AML", "MEDIUM", "payment.completed");
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(rule));
+            givenRules(rule);
             when(velocityService.getCount(eq(TENANT), eq("CUST-1"), eq("ROUND_AMOUNT"), eq(1440)))
                 .thenReturn(6);
 
@@ -245,15 +243,64 @@ class RuleEngineServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("DORMANT_REACTIVATION Rule")
+    class DormantReactivationTests {
+
+        private Map<String, Object> reactivated(long inactiveDays) {
+            Map<String, Object> data = eventData("CUST-1", new BigDecimal("25000"));
+            data.put("inactiveDays", inactiveDays);
+            return data;
+        }
+
+        @Test
+        @DisplayName("triggers when the account was idle for at least dormantDays")
+        void shouldTriggerForLongInactivity() {
+            FraudRule rule = makeRule("DORMANT_REACTIVATION", "ACCOUNT", "MEDIUM", "account.reactivated");
+            givenRules(rule);
+
+            List<FraudAlert> alerts = ruleEngineService.evaluate(TENANT, "account.reactivated", reactivated(400));
+
+            assertThat(alerts).hasSize(1);
+            assertThat(alerts.get(0).getAlertType()).isEqualTo(AlertType.DORMANT_REACTIVATION);
+            assertThat(alerts.get(0).getTriggerAmount()).isEqualByComparingTo(new BigDecimal("25000"));
+        }
+
+        @Test
+        @DisplayName("does not trigger below the rule's dormantDays")
+        void shouldNotTriggerForShortInactivity() {
+            FraudRule rule = makeRule("DORMANT_REACTIVATION", "ACCOUNT", "MEDIUM", "account.reactivated");
+            rule.getParameters().put("dormantDays", 500);
+            givenRules(rule);
+
+            List<FraudAlert> alerts = ruleEngineService.evaluate(TENANT, "account.reactivated", reactivated(400));
+
+            assertThat(alerts).isEmpty();
+        }
+
+        @Test
+        @DisplayName("does not trigger without an inactivity duration")
+        void shouldNotTriggerWithoutDuration() {
+            FraudRule rule = makeRule("DORMANT_REACTIVATION", "ACCOUNT", "MEDIUM", "account.reactivated");
+            givenRules(rule);
+
+            List<FraudAlert> alerts = ruleEngineService.evaluate(
+                TENANT, "account.reactivated", eventData("CUST-1", new BigDecimal("25000")));
+
+            assertThat(alerts).isEmpty();
+        }
+    }
+
     @Nested
     @DisplayName("Disabled Rules")
     class DisabledRuleTests {
 
         @Test
-        @DisplayName("disabled rules are not returned by repository")
+        @DisplayName("disabled rules are left out of the configuration snapshot")
         void shouldNotEvaluateDisabledRules() {
-            // No active rules returned
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of());
+            FraudRule rule = makeRule("LARGE_SINGLE_TXN", "TRANSACTION", "HIGH", "payment.completed");
+            rule.setEnabled(false);
+            givenRules(rule);
 
             List<FraudAlert> alerts = ruleEngineService.evaluate(
                 TENANT, "payment.completed", eventData("CUST-1", new BigDecimal("5000000")));
@@ -262,6 +309,59 @@ class RuleEngineServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Rule Configuration Snapshot")
+    class ConfigSnapshotTests {
+
+        @Test
+        @DisplayName("stamps alerts with the configuration version they were raised under")
+        void shouldStampConfigVersion() {
+            givenRules(makeRule("LARGE_SINGLE_TXN", "TRANSACTION", "HIGH", "payment.completed"));
+
+            List<FraudAlert> alerts = ruleEngineService.evaluate(
+                TENANT, "payment.completed", eventData("CUST-1", new BigDecimal("2000000")));
+
+            assertThat(alerts).singleElement()
+                .extracting(FraudAlert::getRuleConfigVersion).isEqualTo(CONFIG_VERSION);
+            verifyNoInteractions(ruleRepository);
+        }
+
+        @Test
+        @DisplayName("evaluates global rules plus the tenant's own, never another tenant's")
+        void shouldScopeRulesToTenant() {
+            FraudRule global = makeRule("LARGE_SINGLE_TXN", "TRANSACTION", "HIGH", "payment.completed");
+            global.setTenantId("*");
+            FraudRule other = makeRule("OVERPAYMENT", "TRANSACTION", "HIGH", "payment.completed");
+            other.setTenantId("other-tenant");
+            FraudRule own = makeRule("ROUND_AMOUNT_PATTERN", "AML", "MEDIUM", "payment.completed");
+            givenRules(global, other, own);
+            when(velocityService.getCount(TENANT, "CUST-1", "ROUND_AMOUNT", 1440)).thenReturn(6);
+
+            Map<String, Object> data = eventData("CUST-1", new BigDecimal("2000000"));
+            data.put("outstandingBalance", "100");
+            List<FraudAlert> alerts = ruleEngineService.evaluate(TENANT, "payment.completed", data);
+
+            assertThat(alerts).extracting(FraudAlert::getRuleCode)
+                .containsExactly("ROUND_AMOUNT_PATTERN", "LARGE_SINGLE_TXN");
+        }
+
+        @Test
+        @DisplayName("a rule update publishes the new configuration")
+        void shouldPublishOnUpdate() {
+            FraudRule rule = makeRule("LARGE_SINGLE_TXN", "TRANSACTION", "HIGH", "payment.completed");
+            when(ruleRepository.findById(rule.getId())).thenReturn(Optional.of(rule));
+            when(ruleRepository.saveAndFlush(rule)).thenReturn(rule);
+            com.athena.lms.fraud.dto.request.UpdateRuleRequest req = new com.athena.lms.fraud.dto.request.UpdateRuleRequest();
+            req.setParameters(Map.of("threshold", 5000000));
+
+            ruleEngineService.updateRule(rule.getId(), req, TENANT);
+
+            var order = inOrder(ruleRepository, ruleConfig);
+            order.verify(ruleRepository).saveAndFlush(rule);
+            order.verify(ruleConfig).publishAfterCommit();
+        }
+    }
+
     @Nested
     @DisplayName("Multiple Rules Firing")
     class MultipleRuleTests {
@@ -272,7 +372,7 @@ class RuleEngineServiceTest {
             FraudRule largeRule = makeRule("LARGE_SINGLE_TXN", "TRANSACTION", "HIGH", "payment.completed");
             FraudRule roundRule = makeRule("ROUND_AMOUNT_PATTERN", "AML", "MEDIUM", "payment.completed");
 
-            when(ruleRepository.findActiveRules(TENANT)).thenReturn(List.of(largeRule, roundRule));
+            givenRules(largeRule, roundRule);
             // Round amount velocity count triggers
             when(velocityService.getCount(eq(TENANT), eq("CUST-1"), eq("ROUND_AMOUNT"), eq(1440)))
                 .thenReturn(6);
@@ -286,4 +386,43 @@ class RuleEngineServiceTest {
                 .containsExactlyInAnyOrder(AlertType.LARGE_TRANSACTION, AlertType.ROUND_AMOUNT_PATTERN);
         }
     }
+
+    @Nested
+    @DisplayName("Sequence Patterns (CEP mode)")
+    class SequencePatternTests {
+
+        @Test
+        @DisplayName("pattern-backed rule alerts on a completed sequence without reading counters")
+        void shouldAlertOnPatternMatch() {
+            FraudRule rule = makeRule("RAPID_FUND_MOVEMENT", "AML", "HIGH", "transfer.completed");
+            givenRules(rule);
+            when(timelineEngine.handles("RAPID_FUND_MOVEMENT")).thenReturn(true);
+            when(timelineEngine.observe(TENANT, "CUST-1", "transfer.completed", new BigDecimal("95000")))
+                .thenReturn(Map.of("RAPID_FUND_MOVEMENT", new PatternMatch("RAPID_FUND_MOVEMENT",
+                    AlertType.RAPID_FUND_MOVEMENT, "payment.completed", new BigDecimal("100000"),
+                    new BigDecimal("95000"), 1, Duration.ofMinutes(4))));
+
+            List<FraudAlert> alerts = ruleEngineService.evaluate(
+                TENANT, "transfer.completed", eventData("CUST-1", new BigDecimal("95000")));
+
+            assertThat(alerts).hasSize(1);
+            assertThat(alerts.get(0).getAlertType()).isEqualTo(AlertType.RAPID_FUND_MOVEMENT);
+            assertThat(alerts.get(0).getDescription()).contains("payment.completed of 100000", "4 minutes");
+            verifyNoInteractions(velocityService);
+        }
+
+        @Test
+        @DisplayName("pattern-backed rule stays silent until its sequence completes")
+        void shouldNotAlertWithoutMatch() {
+            FraudRule rule = makeRule("LOAN_CYCLING", "AML", "HIGH", "loan.application.submitted");
+            givenRules(rule);
+            when(timelineEngine.handles("LOAN_CYCLING")).thenReturn(true);
+
+            List<FraudAlert> alerts = ruleEngineService.evaluate(
+                TENANT, "loan.application.submitted", eventData("CUST-1", null));
+
+            assertThat(alerts).isEmpty();
+            verifyNoInteractions(velocityService);
+        }
+    }
 }
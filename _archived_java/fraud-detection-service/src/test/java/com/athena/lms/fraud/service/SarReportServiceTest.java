@@ -1,5 +1,6 @@
 package com.athena.lms.fraud.service;
 
+import com.athena.lms.common.sequence.SequenceService;
 import com.athena.lms.fraud.dto.request.CreateSarReportRequest;
 import com.athena.lms.fraud.dto.request.UpdateSarReportRequest;
 import com.athena.lms.fraud.dto.response.SarReportResponse;
@@ -40,6 +41,7 @@ class SarReportServiceTest {
     @Mock private FraudAlertRepository alertRepository;
     @Mock private CaseManagementService caseManagementService;
     @Mock private FraudEventPublisher eventPublisher;
+    @Mock private SequenceService sequenceService;
 
     @InjectMocks private SarReportService service;
 
@@ -52,7 +54,7 @@ class SarReportServiceTest {
         @Test
         @DisplayName("creates SAR report with auto-generated number")
         void createSarReport() {
-            when(sarReportRepository.findMaxReportNumber(TENANT)).thenReturn(5);
+            when(sequenceService.nextFormatted(TENANT, "sar-report")).thenReturn("SAR-00006");
             when(sarReportRepository.save(any())).thenAnswer(inv -> {
                 SarReport r = inv.getArgument(0);
                 r.setId(UUID.randomUUID());
@@ -176,7 +178,7 @@ class SarReportServiceTest {
             when(caseRepository.findById(caseId)).thenReturn(Optional.of(fraudCase));
             when(alertRepository.findById(alertId1)).thenReturn(Optional.of(alert1));
             when(alertRepository.findById(alertId2)).thenReturn(Optional.of(alert2));
-            when(sarReportRepository.findMaxReportNumber(TENANT)).thenReturn(0);
+            when(sequenceService.nextFormatted(TENANT, "sar-report")).thenReturn("SAR-00001");
             when(sarReportRepository.save(any())).thenAnswer(inv -> {
                 SarReport r = inv.getArgument(0);
                 r.setId(UUID.randomUUID());
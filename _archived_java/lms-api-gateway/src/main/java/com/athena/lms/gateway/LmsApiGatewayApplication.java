@@ -2,6 +2,7 @@ package com.athena.lms.gateway;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 @SpringBootApplication
@@ -9,6 +10,9 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 public class LmsApiGatewayApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(LmsApiGatewayApplication.class, args);
+        SpringApplication app = new SpringApplication(LmsApiGatewayApplication.class);
+        // Startup steps for /actuator/startup. No lazy init: every route and filter is hit on the first request.
+        app.setApplicationStartup(new BufferingApplicationStartup(4096));
+        app.run(args);
     }
 }
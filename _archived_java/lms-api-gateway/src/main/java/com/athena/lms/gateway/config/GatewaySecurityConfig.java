@@ -1,5 +1,6 @@
 package com.athena.lms.gateway.config;
 
+import com.athena.lms.gateway.filter.ServiceKeyAuthFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
@@ -18,6 +19,9 @@ public class GatewaySecurityConfig {
                 .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers("/actuator/**").permitAll()
+                        // Limits are gateway-wide and per-tenant counts cross tenants
+                        .pathMatchers("/gateway/rate-limits/**")
+                                .hasAuthority(ServiceKeyAuthFilter.SERVICE_KEY_AUTHORITY)
                         .anyExchange().authenticated()
                 )
                 .build();
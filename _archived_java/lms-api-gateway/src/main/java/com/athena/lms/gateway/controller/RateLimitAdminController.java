@@ -0,0 +1,56 @@
+package com.athena.lms.gateway.controller;
+
+import com.athena.lms.gateway.ratelimit.RateLimitProperties;
+import com.athena.lms.gateway.ratelimit.TenantRateLimiter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Runtime view and tuning of per-tenant admission control. Served by the gateway itself
+ * (not routed), to internal service-key callers only (see GatewaySecurityConfig).
+ */
+@RestController
+@RequestMapping("/gateway/rate-limits")
+public class RateLimitAdminController {
+
+    private final TenantRateLimiter limiter;
+
+    public RateLimitAdminController(TenantRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /** Current limits, queue depths and per-tenant admitted/delayed/queued/rejected counts. */
+    @GetMapping
+    public Map<String, Object> snapshot() {
+        return limiter.snapshot();
+    }
+
+    @PutMapping("/classes/{routeClass}")
+    public ResponseEntity<Map<String, Object>> updateClass(@PathVariable String routeClass,
+                                                           @RequestBody RateLimitProperties.ClassLimit limit) {
+        if (limit.getRatePerSecond() <= 0 || limit.getBurst() < 1 || limit.getMaxConcurrent() < 1) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", "ratePerSecond must be > 0, burst and maxConcurrent >= 1"));
+        }
+        limiter.updateClassLimit(routeClass, limit);
+        return ResponseEntity.ok(limiter.snapshot());
+    }
+
+    @PutMapping("/tenants/{tenantId}")
+    public ResponseEntity<Map<String, Object>> updateTenant(@PathVariable String tenantId,
+                                                            @RequestBody RateLimitProperties.TenantPolicy policy) {
+        if (policy.getWeight() < 1 || policy.getRateMultiplier() <= 0) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", "weight must be >= 1 and rateMultiplier > 0"));
+        }
+        limiter.updateTenantPolicy(tenantId, policy);
+        return ResponseEntity.ok(limiter.snapshot());
+    }
+}
@@ -31,11 +31,31 @@ public class ServiceKeyAuthFilter implements WebFilter, Ordered {
     private static final Logger log = LoggerFactory.getLogger(ServiceKeyAuthFilter.class);
 
     private static final String SERVICE_KEY_HEADER = "X-Service-Key";
+    private static final String SERVICE_TENANT_HEADER = "X-Service-Tenant";
+
+    /**
+     * Exchange attribute carrying the caller's tenant, read by TenantRateLimitFilter. Absent
+     * when the caller named none.
+     */
+    public static final String TENANT_ATTRIBUTE = "lms.tenantId";
+
+    /**
+     * Held only by callers presenting the internal service key, never by JWT users, whose
+     * ROLE_ADMIN is scoped to their own tenant. Guards gateway-wide administration.
+     */
+    public static final String SERVICE_KEY_AUTHORITY = "SERVICE_KEY";
+
     private static final List<SimpleGrantedAuthority> SERVICE_AUTHORITIES = List.of(
             new SimpleGrantedAuthority("ROLE_SERVICE"),
             new SimpleGrantedAuthority("ROLE_ADMIN")
     );
 
+    private static final List<SimpleGrantedAuthority> SERVICE_KEY_AUTHORITIES = List.of(
+            new SimpleGrantedAuthority("ROLE_SERVICE"),
+            new SimpleGrantedAuthority("ROLE_ADMIN"),
+            new SimpleGrantedAuthority(SERVICE_KEY_AUTHORITY)
+    );
+
     @Value("${lms.internal.service-key}")
     private String expectedServiceKey;
 
@@ -62,9 +82,13 @@ public class ServiceKeyAuthFilter implements WebFilter, Ordered {
         if (serviceKey != null && serviceKey.equals(expectedServiceKey)) {
             String serviceUser = request.getHeaders().getFirst("X-Service-User");
             String principal = serviceUser != null ? serviceUser : "service-client";
+            String tenantId = request.getHeaders().getFirst(SERVICE_TENANT_HEADER);
+            if (tenantId != null && !tenantId.isBlank()) {
+                exchange.getAttributes().put(TENANT_ATTRIBUTE, tenantId);
+            }
 
             UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(principal, null, SERVICE_AUTHORITIES);
+                    new UsernamePasswordAuthenticationToken(principal, null, SERVICE_KEY_AUTHORITIES);
             SecurityContextImpl securityContext = new SecurityContextImpl(auth);
 
             return chain.filter(exchange)
@@ -85,6 +109,12 @@ public class ServiceKeyAuthFilter implements WebFilter, Ordered {
                         .getBody();
 
                 String username = claims.getSubject();
+                // Same fallback as JwtUtil.extractTenantId: subject doubles as tenant in single-tenant setups
+                Object tenantClaim = claims.get("tenantId");
+                String tenantId = tenantClaim != null ? tenantClaim.toString() : username;
+                if (tenantId != null) {
+                    exchange.getAttributes().put(TENANT_ATTRIBUTE, tenantId);
+                }
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(username, null, SERVICE_AUTHORITIES);
                 SecurityContextImpl securityContext = new SecurityContextImpl(auth);
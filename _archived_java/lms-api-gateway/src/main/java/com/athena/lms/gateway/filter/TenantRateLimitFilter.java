@@ -0,0 +1,107 @@
+package com.athena.lms.gateway.filter;
+
+import com.athena.lms.gateway.ratelimit.RouteClassifier;
+import com.athena.lms.gateway.ratelimit.TenantRateLimiter;
+import com.athena.lms.gateway.ratelimit.TenantRateLimiter.Outcome;
+import com.athena.lms.gateway.ratelimit.TokenBucket;
+import com.athena.lms.gateway.ratelimit.WeightedFairQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+/**
+ * Per-tenant admission control for routed requests.
+ *
+ * 1. Token bucket per (tenant, route class): over-rate requests are delayed up to the class's
+ *    maxDelayMs to smooth bursts, beyond that rejected with 429.
+ * 2. Weighted fair queue per route class: caps requests in flight downstream and, when
+ *    saturated, shares slots between tenants by weight instead of arrival order.
+ *
+ * Callers without a tenant are limited per client address, so one of them cannot use up
+ * the others' budget. Each request is counted once, with its final outcome.
+ */
+@Component
+public class TenantRateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantRateLimitFilter.class);
+
+    private final TenantRateLimiter limiter;
+    private final RouteClassifier classifier;
+
+    public TenantRateLimitFilter(TenantRateLimiter limiter, RouteClassifier classifier) {
+        this.limiter = limiter;
+        this.classifier = classifier;
+    }
+
+    @Override
+    public int getOrder() {
+        return -40; // After RequestLoggingFilter so 429s are logged
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!limiter.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String tenantId = exchange.getAttribute(ServiceKeyAuthFilter.TENANT_ATTRIBUTE);
+        if (tenantId == null) {
+            tenantId = TenantRateLimiter.anonymousKey(clientAddress(request));
+        }
+        String routeClass = classifier.classify(request.getMethod(), request.getURI().getPath());
+
+        long delayNanos = limiter.reserve(tenantId, routeClass);
+        if (delayNanos == TokenBucket.REJECTED) {
+            limiter.record(tenantId, routeClass, Outcome.REJECTED);
+            return reject(exchange, tenantId, routeClass, "rate");
+        }
+
+        boolean delayed = delayNanos > 0;
+        Mono<Void> admitted = enterFairQueue(exchange, chain, tenantId, routeClass, delayed);
+        if (delayed) {
+            return Mono.delay(Duration.ofNanos(delayNanos)).then(admitted);
+        }
+        return admitted;
+    }
+
+    private Mono<Void> enterFairQueue(ServerWebExchange exchange, GatewayFilterChain chain,
+                                      String tenantId, String routeClass, boolean delayed) {
+        WeightedFairQueue queue = limiter.queue(routeClass);
+        return queue.acquire(tenantId, limiter.weight(tenantId))
+                .doOnNext(permit -> limiter.record(tenantId, routeClass,
+                        permit.wasQueued() ? Outcome.QUEUED : delayed ? Outcome.DELAYED : Outcome.ADMITTED))
+                .flatMap(permit -> chain.filter(exchange).doFinally(signal -> permit.release()))
+                .onErrorResume(WeightedFairQueue.QueueFullException.class, e -> {
+                    // Not forwarded, so it must not count against the tenant's rate
+                    limiter.refund(tenantId, routeClass);
+                    limiter.record(tenantId, routeClass, Outcome.REJECTED);
+                    return reject(exchange, tenantId, routeClass, "queue");
+                });
+    }
+
+    // The connecting address, not X-Forwarded-For: a client could vary that to get fresh buckets
+    private static String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) return "unknown";
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String tenantId, String routeClass, String reason) {
+        log.debug("Rate limited tenant={} class={} reason={} path={}",
+                tenantId, routeClass, reason, exchange.getRequest().getURI().getPath());
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set("Retry-After", "1");
+        return exchange.getResponse().setComplete();
+    }
+}
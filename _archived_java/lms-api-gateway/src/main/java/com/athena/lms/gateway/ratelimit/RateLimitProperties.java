@@ -0,0 +1,95 @@
+package com.athena.lms.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-tenant admission control settings (lms.gateway.rate-limit.*).
+ * These are the boot-time defaults; RateLimitAdminController changes them at runtime.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "lms.gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Path patterns classified as "heavy" (statements, bulk files, batch lookups). */
+    private List<String> heavyPaths = new ArrayList<>(List.of(
+            "/lms/api/v1/accounts/*/statement/**",
+            "/lms/api/v1/**/bulk/**",
+            "/lms/api/v1/**/batch/**"));
+
+    /** Limits per route class: read, write, heavy. */
+    private Map<String, ClassLimit> classes = new LinkedHashMap<>(Map.of(
+            RouteClassifier.READ, new ClassLimit(50, 100, 250, 64, 32),
+            RouteClassifier.WRITE, new ClassLimit(20, 40, 500, 32, 16),
+            RouteClassifier.HEAVY, new ClassLimit(2, 4, 2000, 4, 4)));
+
+    /** Per-tenant fair-queuing weight and rate multiplier; tenants not listed get weight 1, multiplier 1. */
+    private Map<String, TenantPolicy> tenants = new LinkedHashMap<>();
+
+    /** Tenants given their own tag on the request meters; later ones are counted as "other". */
+    private int maxTaggedTenants = 100;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public List<String> getHeavyPaths() { return heavyPaths; }
+    public void setHeavyPaths(List<String> heavyPaths) { this.heavyPaths = heavyPaths; }
+    public Map<String, ClassLimit> getClasses() { return classes; }
+    public void setClasses(Map<String, ClassLimit> classes) { this.classes = classes; }
+    public Map<String, TenantPolicy> getTenants() { return tenants; }
+    public void setTenants(Map<String, TenantPolicy> tenants) { this.tenants = tenants; }
+    public int getMaxTaggedTenants() { return maxTaggedTenants; }
+    public void setMaxTaggedTenants(int maxTaggedTenants) { this.maxTaggedTenants = maxTaggedTenants; }
+
+    public static class ClassLimit {
+        /** Sustained requests per second allowed for one tenant. */
+        private double ratePerSecond;
+        /** Requests a tenant may send back-to-back from idle. */
+        private int burst;
+        /** Over-rate requests are delayed up to this long (smoothing) before being rejected. */
+        private long maxDelayMs;
+        /** Requests of this class in flight downstream across all tenants. */
+        private int maxConcurrent;
+        /** Requests one tenant may have waiting for a concurrency slot. */
+        private int maxQueuedPerTenant;
+
+        public ClassLimit() {}
+
+        public ClassLimit(double ratePerSecond, int burst, long maxDelayMs, int maxConcurrent, int maxQueuedPerTenant) {
+            this.ratePerSecond = ratePerSecond;
+            this.burst = burst;
+            this.maxDelayMs = maxDelayMs;
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueuedPerTenant = maxQueuedPerTenant;
+        }
+
+        public double getRatePerSecond() { return ratePerSecond; }
+        public void setRatePerSecond(double ratePerSecond) { this.ratePerSecond = ratePerSecond; }
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+        public long getMaxDelayMs() { return maxDelayMs; }
+        public void setMaxDelayMs(long maxDelayMs) { this.maxDelayMs = maxDelayMs; }
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+        public int getMaxQueuedPerTenant() { return maxQueuedPerTenant; }
+        public void setMaxQueuedPerTenant(int maxQueuedPerTenant) { this.maxQueuedPerTenant = maxQueuedPerTenant; }
+    }
+
+    public static class TenantPolicy {
+        /** Share of contended concurrency slots relative to other tenants. */
+        private int weight = 1;
+        /** Scales every class's ratePerSecond and burst for this tenant. */
+        private double rateMultiplier = 1.0;
+
+        public int getWeight() { return weight; }
+        public void setWeight(int weight) { this.weight = weight; }
+        public double getRateMultiplier() { return rateMultiplier; }
+        public void setRateMultiplier(double rateMultiplier) { this.rateMultiplier = rateMultiplier; }
+    }
+}
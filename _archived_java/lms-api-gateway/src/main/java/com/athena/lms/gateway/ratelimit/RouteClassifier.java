@@ -0,0 +1,36 @@
+package com.athena.lms.gateway.ratelimit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Buckets requests into coarse route classes so a tenant's statement exports
+ * do not consume the same budget as its balance lookups.
+ */
+@Component
+public class RouteClassifier {
+
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+    public static final String HEAVY = "heavy";
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final RateLimitProperties properties;
+
+    public RouteClassifier(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    public String classify(HttpMethod method, String path) {
+        for (String pattern : properties.getHeavyPaths()) {
+            if (matcher.match(pattern, path)) {
+                return HEAVY;
+            }
+        }
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
@@ -0,0 +1,234 @@
+package com.athena.lms.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the live limits, one token bucket per (tenant, route class) and one fair queue per route class.
+ * Limits start from RateLimitProperties and can be replaced at runtime; existing buckets are
+ * re-configured in place so a limit change never hands a tenant a fresh burst.
+ *
+ * Buckets that have refilled completely are dropped every half minute: a new one behaves the
+ * same, so the map holds only callers seen in the last few seconds however many client
+ * addresses come and go. Per-tenant counts are kept under the same bounded keys as the meters.
+ */
+@Component
+public class TenantRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantRateLimiter.class);
+
+    private static final long IDLE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    public enum Outcome { ADMITTED, DELAYED, QUEUED, REJECTED }
+
+    /** Limiter key prefix for callers without a tenant; the rest of the key is the client address. */
+    public static final String ANONYMOUS_PREFIX = "anonymous:";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RateLimitProperties.ClassLimit> classLimits = new ConcurrentHashMap<>();
+    private final Map<String, RateLimitProperties.TenantPolicy> tenantPolicies = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, WeightedFairQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, TenantStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<String> taggedTenants = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextIdleSweep = new AtomicLong(System.nanoTime() + IDLE_SWEEP_INTERVAL_NANOS);
+
+    public TenantRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        classLimits.putAll(properties.getClasses());
+        tenantPolicies.putAll(properties.getTenants());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /** Nanoseconds to delay before forwarding (0 = now), or TokenBucket.REJECTED. */
+    public long reserve(String tenantId, String routeClass) {
+        long now = System.nanoTime();
+        sweepIfDue(now);
+        RateLimitProperties.ClassLimit limit = classLimit(routeClass);
+        TokenBucket bucket = buckets.computeIfAbsent(key(tenantId, routeClass), k -> newBucket(tenantId, limit));
+        return bucket.reserve(now, limit.getMaxDelayMs() * 1_000_000L);
+    }
+
+    /** Returns the slot reserve() took, for a request then turned away by the fair queue. */
+    public void refund(String tenantId, String routeClass) {
+        TokenBucket bucket = buckets.get(key(tenantId, routeClass));
+        if (bucket != null) bucket.refund();
+    }
+
+    public WeightedFairQueue queue(String routeClass) {
+        return queues.computeIfAbsent(routeClass, rc -> {
+            RateLimitProperties.ClassLimit limit = classLimit(rc);
+            WeightedFairQueue q = new WeightedFairQueue(limit.getMaxConcurrent(), limit.getMaxQueuedPerTenant());
+            Gauge.builder("lms.gateway.ratelimit.queue.depth", q, WeightedFairQueue::queuedCount)
+                    .tag("route_class", rc).register(meterRegistry);
+            Gauge.builder("lms.gateway.ratelimit.inflight", q, WeightedFairQueue::inFlightCount)
+                    .tag("route_class", rc).register(meterRegistry);
+            return q;
+        });
+    }
+
+    public int weight(String tenantId) {
+        RateLimitProperties.TenantPolicy policy = tenantPolicies.get(tenantId);
+        return policy != null ? policy.getWeight() : 1;
+    }
+
+    public static String anonymousKey(String clientAddress) {
+        return ANONYMOUS_PREFIX + clientAddress;
+    }
+
+    /** Counts one request's final outcome; call once per request. */
+    public void record(String tenantId, String routeClass, Outcome outcome) {
+        String tenantTag = tenantTag(tenantId);
+        stats.computeIfAbsent(tenantTag, t -> new TenantStats()).add(routeClass, outcome);
+        counters.computeIfAbsent(tenantTag + "|" + routeClass + "|" + outcome, k ->
+                Counter.builder("lms.gateway.ratelimit.requests")
+                        .tag("tenant", tenantTag)
+                        .tag("route_class", routeClass)
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    // ─── Runtime configuration ────────────────────────────────────────────────
+
+    public void updateClassLimit(String routeClass, RateLimitProperties.ClassLimit limit) {
+        classLimits.put(routeClass, limit);
+        buckets.forEach((key, bucket) -> {
+            if (key.endsWith("|" + routeClass)) {
+                String tenantId = key.substring(0, key.length() - routeClass.length() - 1);
+                configure(bucket, tenantId, limit);
+            }
+        });
+        WeightedFairQueue q = queues.get(routeClass);
+        if (q != null) {
+            q.configure(limit.getMaxConcurrent(), limit.getMaxQueuedPerTenant());
+        }
+        log.info("Rate limit for route class {} set to {}/s burst {} concurrency {}",
+                routeClass, limit.getRatePerSecond(), limit.getBurst(), limit.getMaxConcurrent());
+    }
+
+    public void updateTenantPolicy(String tenantId, RateLimitProperties.TenantPolicy policy) {
+        tenantPolicies.put(tenantId, policy);
+        classLimits.forEach((routeClass, limit) -> {
+            TokenBucket bucket = buckets.get(key(tenantId, routeClass));
+            if (bucket != null) {
+                configure(bucket, tenantId, limit);
+            }
+        });
+        log.info("Tenant {} rate policy set to weight {} multiplier {}",
+                tenantId, policy.getWeight(), policy.getRateMultiplier());
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> tenants = new TreeMap<>();
+        stats.forEach((tenantId, s) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("weight", weight(tenantId));
+            entry.put("rateMultiplier", rateMultiplier(tenantId));
+            entry.put("counts", s.toMap());
+            tenants.put(tenantId, entry);
+        });
+        Map<String, Object> queueState = new TreeMap<>();
+        queues.forEach((rc, q) -> queueState.put(rc, Map.of("inFlight", q.inFlightCount(), "queued", q.queuedCount())));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", properties.isEnabled());
+        body.put("classes", new TreeMap<>(classLimits));
+        body.put("queues", queueState);
+        body.put("tenants", tenants);
+        return body;
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    private RateLimitProperties.ClassLimit classLimit(String routeClass) {
+        RateLimitProperties.ClassLimit limit = classLimits.get(routeClass);
+        return limit != null ? limit : classLimits.get(RouteClassifier.WRITE);
+    }
+
+    // Bounds the tenant tag's cardinality, for the meters and snapshot() alike: anonymous callers
+    // share one value, and tenants past maxTaggedTenants share "other".
+    private String tenantTag(String tenantId) {
+        if (tenantId.startsWith(ANONYMOUS_PREFIX)) return "anonymous";
+        if (taggedTenants.contains(tenantId)) return tenantId;
+        // Racing first requests may overshoot the limit by a few, which is harmless
+        if (taggedTenants.size() < properties.getMaxTaggedTenants()) {
+            taggedTenants.add(tenantId);
+            return tenantId;
+        }
+        return "other";
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextIdleSweep.get();
+        if (now - due >= 0 && nextIdleSweep.compareAndSet(due, now + IDLE_SWEEP_INTERVAL_NANOS)) {
+            evictIdleBuckets(now);
+        }
+    }
+
+    // A request racing the sweep may reserve on a bucket just dropped, and that one slot is then
+    // forgotten; only an idle caller is affected, so it costs at most one token of its burst
+    int evictIdleBuckets(long now) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        int evicted = before - buckets.size();
+        if (evicted > 0) log.debug("Dropped {} idle rate limit buckets, {} left", evicted, buckets.size());
+        return evicted;
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private double rateMultiplier(String tenantId) {
+        RateLimitProperties.TenantPolicy policy = tenantPolicies.get(tenantId);
+        return policy != null ? policy.getRateMultiplier() : 1.0;
+    }
+
+    private TokenBucket newBucket(String tenantId, RateLimitProperties.ClassLimit limit) {
+        double m = rateMultiplier(tenantId);
+        return new TokenBucket(limit.getRatePerSecond() * m, (int) Math.max(1, Math.round(limit.getBurst() * m)));
+    }
+
+    private void configure(TokenBucket bucket, String tenantId, RateLimitProperties.ClassLimit limit) {
+        double m = rateMultiplier(tenantId);
+        bucket.configure(limit.getRatePerSecond() * m, (int) Math.max(1, Math.round(limit.getBurst() * m)));
+    }
+
+    private static String key(String tenantId, String routeClass) {
+        return tenantId + "|" + routeClass;
+    }
+
+    private static final class TenantStats {
+        private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+        void add(String routeClass, Outcome outcome) {
+            counts.computeIfAbsent(routeClass + "." + outcome.name().toLowerCase(), k -> new LongAdder()).increment();
+        }
+
+        Map<String, Long> toMap() {
+            Map<String, Long> out = new TreeMap<>();
+            counts.forEach((k, v) -> out.put(k, v.sum()));
+            return out;
+        }
+    }
+}
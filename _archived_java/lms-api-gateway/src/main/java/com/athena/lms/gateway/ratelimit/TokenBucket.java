@@ -0,0 +1,55 @@
+package com.athena.lms.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time"
+ * advanced with a single CAS per admitted request.
+ */
+public final class TokenBucket {
+
+    public static final long REJECTED = -1;
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+    private volatile long intervalNanos;
+    private volatile long toleranceNanos;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        configure(ratePerSecond, burst);
+    }
+
+    /** Applies new limits without resetting the bucket's history. */
+    void configure(double ratePerSecond, int burst) {
+        long interval = (long) (1_000_000_000L / Math.max(ratePerSecond, 0.001));
+        this.intervalNanos = interval;
+        this.toleranceNanos = interval * Math.max(burst - 1, 0);
+    }
+
+    /**
+     * Reserves one slot. Returns how long the caller must wait (0 = admit now),
+     * or REJECTED if the wait would exceed maxDelayNanos.
+     */
+    long reserve(long nowNanos, long maxDelayNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = Math.max(current, nowNanos);
+            long delay = base - toleranceNanos - nowNanos;
+            if (delay > maxDelayNanos) {
+                return REJECTED;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + intervalNanos)) {
+                return Math.max(delay, 0);
+            }
+        }
+    }
+
+    /** Gives back one reserved slot, for a request turned away after its reservation. */
+    void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    /** True once the bucket has refilled to a full burst, when dropping it loses no history. */
+    boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
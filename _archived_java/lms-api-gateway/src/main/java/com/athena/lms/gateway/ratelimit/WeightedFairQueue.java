@@ -0,0 +1,184 @@
+package com.athena.lms.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Start-time fair queuing over a fixed number of downstream slots for one route class.
+ *
+ * While slots are free requests pass straight through. Once saturated, each waiter is tagged
+ * with a virtual finish time of start + 1/weight, so a tenant flooding the queue only pushes
+ * its own requests back; other tenants keep getting slots in proportion to their weight.
+ */
+public final class WeightedFairQueue {
+
+    public static final class QueueFullException extends RuntimeException {
+        QueueFullException() {
+            super("tenant queue full", null, false, false);
+        }
+    }
+
+    /** A granted slot; release is idempotent so cancellation races cannot free a slot twice. */
+    public final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final boolean queued;
+
+        private Permit(boolean queued) {
+            this.queued = queued;
+        }
+
+        /** True if the request had to wait for a slot. */
+        public boolean wasQueued() {
+            return queued;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                dispatchNext();
+            }
+        }
+    }
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+
+    private final class Waiter {
+        final String tenantId;
+        final double startTag;
+        final double finishTag;
+        final long seq;
+        final MonoSink<Permit> sink;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        volatile Permit permit;
+
+        Waiter(String tenantId, double startTag, double finishTag, long seq, MonoSink<Permit> sink) {
+            this.tenantId = tenantId;
+            this.startTag = startTag;
+            this.finishTag = finishTag;
+            this.seq = seq;
+            this.sink = sink;
+        }
+    }
+
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>((a, b) -> {
+        int c = Double.compare(a.finishTag, b.finishTag);
+        return c != 0 ? c : Long.compare(a.seq, b.seq);
+    });
+    private final Map<String, Double> lastFinishTag = new HashMap<>();
+    private final Map<String, Integer> queuedPerTenant = new HashMap<>();
+    private volatile int maxConcurrent;
+    private volatile int maxQueuedPerTenant;
+    private int inFlight;
+    private double virtualTime;
+    private long seq;
+
+    WeightedFairQueue(int maxConcurrent, int maxQueuedPerTenant) {
+        configure(maxConcurrent, maxQueuedPerTenant);
+    }
+
+    void configure(int maxConcurrent, int maxQueuedPerTenant) {
+        int freed;
+        synchronized (this) {
+            this.maxConcurrent = Math.max(maxConcurrent, 1);
+            this.maxQueuedPerTenant = Math.max(maxQueuedPerTenant, 0);
+            freed = Math.max(0, Math.min(this.maxConcurrent - inFlight, queue.size()));
+            inFlight += freed;
+        }
+        // A raised limit hands the new slots to waiters immediately.
+        for (int i = 0; i < freed; i++) {
+            dispatchNext();
+        }
+    }
+
+    /**
+     * Emits a Permit once a slot is available, or QueueFullException if the tenant already
+     * has maxQueuedPerTenant requests waiting. Cancelling the Mono leaves the queue.
+     */
+    public Mono<Permit> acquire(String tenantId, int weight) {
+        return Mono.create(sink -> {
+            Waiter waiter = null;
+            boolean queueFull = false;
+            synchronized (this) {
+                if (inFlight < maxConcurrent && queue.isEmpty()) {
+                    inFlight++;
+                } else if (queuedPerTenant.getOrDefault(tenantId, 0) >= maxQueuedPerTenant) {
+                    queueFull = true;
+                } else {
+                    double start = Math.max(virtualTime, lastFinishTag.getOrDefault(tenantId, 0d));
+                    double finish = start + 1.0 / Math.max(weight, 1);
+                    lastFinishTag.put(tenantId, finish);
+                    queuedPerTenant.merge(tenantId, 1, Integer::sum);
+                    waiter = new Waiter(tenantId, start, finish, seq++, sink);
+                    queue.add(waiter);
+                }
+            }
+            // Signals are emitted outside the lock: success subscribes the downstream call synchronously.
+            if (queueFull) {
+                sink.error(new QueueFullException());
+            } else if (waiter == null) {
+                sink.success(new Permit(false));
+            } else {
+                Waiter queued = waiter;
+                sink.onCancel(() -> {
+                    if (queued.state.compareAndSet(WAITING, CANCELLED)) {
+                        synchronized (this) {
+                            if (queue.remove(queued)) {
+                                decrementQueued(queued.tenantId);
+                            }
+                        }
+                    } else if (queued.permit != null) {
+                        // Granted but the subscriber is gone: hand the slot on.
+                        queued.permit.release();
+                    }
+                });
+            }
+        });
+    }
+
+    synchronized int queuedCount() {
+        return queue.size();
+    }
+
+    synchronized int inFlightCount() {
+        return inFlight;
+    }
+
+    private void dispatchNext() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                // After a runtime limit cut, shrink in-flight down to the new maximum first.
+                next = inFlight > maxConcurrent ? null : queue.poll();
+                if (next == null) {
+                    inFlight--;
+                    if (inFlight == 0) {
+                        // Idle: restart virtual time so stale finish tags don't carry over.
+                        virtualTime = 0;
+                        lastFinishTag.clear();
+                    }
+                    return;
+                }
+                decrementQueued(next.tenantId);
+                virtualTime = next.startTag;
+            }
+            // The slot moves to the waiter; inFlight is unchanged.
+            Permit permit = new Permit(true);
+            next.permit = permit;
+            if (next.state.compareAndSet(WAITING, GRANTED)) {
+                next.sink.success(permit);
+                return;
+            }
+        }
+    }
+
+    private void decrementQueued(String tenantId) {
+        queuedPerTenant.computeIfPresent(tenantId, (k, v) -> v > 1 ? v - 1 : null);
+    }
+}
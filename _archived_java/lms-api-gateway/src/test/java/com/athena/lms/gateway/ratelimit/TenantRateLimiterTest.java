@@ -0,0 +1,74 @@
+package com.athena.lms.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantRateLimiterTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TenantRateLimiter limiter() {
+        // 1/s with a burst of 2 and no delay allowed, so a third request in a row is rejected
+        properties.getClasses().put("read", new RateLimitProperties.ClassLimit(1, 2, 0, 10, 10));
+        properties.setMaxTaggedTenants(2);
+        return new TenantRateLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("a refund returns the slot a request reserved before the fair queue turned it away")
+    void refund() {
+        TenantRateLimiter limiter = limiter();
+        assertThat(limiter.reserve("t1", "read")).isZero();
+        assertThat(limiter.reserve("t1", "read")).isZero();
+        assertThat(limiter.reserve("t1", "read")).isEqualTo(TokenBucket.REJECTED);
+
+        limiter.refund("t1", "read");
+
+        assertThat(limiter.reserve("t1", "read")).isZero();
+        // Other tenants have buckets of their own
+        assertThat(limiter.reserve("t2", "read")).isZero();
+    }
+
+    @Test
+    @DisplayName("buckets that have refilled are dropped, and a returning caller starts afresh")
+    void idleBucketsEvicted() {
+        TenantRateLimiter limiter = limiter();
+        for (int i = 0; i < 1_000; i++) {
+            limiter.reserve(TenantRateLimiter.anonymousKey("10.0.0." + i), "read");
+        }
+        limiter.reserve("t1", "read");
+        limiter.reserve("t1", "read");
+        assertThat(limiter.bucketCount()).isEqualTo(1_001);
+
+        long now = System.nanoTime();
+        assertThat(limiter.evictIdleBuckets(now)).isZero();
+        // A single request is a full bucket again after one interval, two after two
+        assertThat(limiter.evictIdleBuckets(now + TimeUnit.MILLISECONDS.toNanos(1_500))).isEqualTo(1_000);
+        assertThat(limiter.evictIdleBuckets(now + TimeUnit.SECONDS.toNanos(3))).isEqualTo(1);
+        assertThat(limiter.bucketCount()).isZero();
+
+        assertThat(limiter.reserve("t1", "read")).isZero();
+    }
+
+    @Test
+    @DisplayName("per-tenant counts share the meters' bounded tenant tags")
+    void statsBounded() {
+        TenantRateLimiter limiter = limiter();
+        for (int i = 1; i <= 5; i++) {
+            limiter.record("t" + i, "read", TenantRateLimiter.Outcome.ADMITTED);
+        }
+        limiter.record(TenantRateLimiter.anonymousKey("10.0.0.1"), "read", TenantRateLimiter.Outcome.REJECTED);
+        limiter.record(TenantRateLimiter.anonymousKey("10.0.0.2"), "read", TenantRateLimiter.Outcome.REJECTED);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> tenants = (Map<String, Object>) limiter.snapshot().get("tenants");
+        assertThat(tenants).containsOnlyKeys("t1", "t2", "other", "anonymous");
+    }
+}
@@ -0,0 +1,67 @@
+package com.athena.lms.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long MS = 1_000_000L;
+
+    // 10/s with a burst of 3: one token every 100ms
+    private final TokenBucket bucket = new TokenBucket(10, 3);
+
+    @Test
+    @DisplayName("a full burst is admitted at once, then callers wait one interval each up to the limit")
+    void burstThenDelay() {
+        long now = 1_000 * MS;
+
+        assertThat(bucket.reserve(now, 150 * MS)).isZero();
+        assertThat(bucket.reserve(now, 150 * MS)).isZero();
+        assertThat(bucket.reserve(now, 150 * MS)).isZero();
+        assertThat(bucket.reserve(now, 150 * MS)).isEqualTo(100 * MS);
+        assertThat(bucket.reserve(now, 150 * MS)).isEqualTo(TokenBucket.REJECTED);
+        // A rejection reserves nothing
+        assertThat(bucket.reserve(now + 100 * MS, 150 * MS)).isEqualTo(100 * MS);
+    }
+
+    @Test
+    @DisplayName("a refunded slot goes to the next caller")
+    void refund() {
+        long now = 1_000 * MS;
+        for (int i = 0; i < 3; i++) bucket.reserve(now, 0);
+        assertThat(bucket.reserve(now, 0)).isEqualTo(TokenBucket.REJECTED);
+
+        bucket.refund();
+
+        assertThat(bucket.reserve(now, 0)).isZero();
+        assertThat(bucket.reserve(now, 0)).isEqualTo(TokenBucket.REJECTED);
+    }
+
+    @Test
+    @DisplayName("a bucket is idle once it has refilled its whole burst, and not before")
+    void idle() {
+        long now = 1_000 * MS;
+        assertThat(bucket.isIdle(now)).isTrue();
+
+        bucket.reserve(now, 0);
+        bucket.reserve(now, 0);
+        assertThat(bucket.isIdle(now + 199 * MS)).isFalse();
+        assertThat(bucket.isIdle(now + 200 * MS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("new limits apply without handing out a fresh burst")
+    void configureKeepsHistory() {
+        long now = 1_000 * MS;
+        for (int i = 0; i < 3; i++) bucket.reserve(now, 0);
+
+        bucket.configure(10, 5);
+
+        // Two more tokens of tolerance, but the three spent are still spent
+        assertThat(bucket.reserve(now, 0)).isZero();
+        assertThat(bucket.reserve(now, 0)).isZero();
+        assertThat(bucket.reserve(now, 0)).isEqualTo(TokenBucket.REJECTED);
+    }
+}
@@ -0,0 +1,109 @@
+package com.athena.lms.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeightedFairQueueTest {
+
+    private final List<String> granted = new ArrayList<>();
+    private final List<WeightedFairQueue.Permit> permits = new ArrayList<>();
+
+    private Disposable acquire(WeightedFairQueue queue, String tenantId, int weight, String label) {
+        return queue.acquire(tenantId, weight).subscribe(permit -> {
+            granted.add(label);
+            permits.add(permit);
+        });
+    }
+
+    @Test
+    @DisplayName("requests pass straight through while slots are free")
+    void passThrough() {
+        WeightedFairQueue queue = new WeightedFairQueue(2, 1);
+
+        WeightedFairQueue.Permit first = queue.acquire("t1", 1).block();
+        WeightedFairQueue.Permit second = queue.acquire("t1", 1).block();
+
+        assertThat(first.wasQueued()).isFalse();
+        assertThat(second.wasQueued()).isFalse();
+        assertThat(queue.inFlightCount()).isEqualTo(2);
+        first.release();
+        first.release();
+        assertThat(queue.inFlightCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("once saturated, slots go to waiters by weight rather than arrival")
+    void weightedOrder() {
+        WeightedFairQueue queue = new WeightedFairQueue(1, 10);
+        WeightedFairQueue.Permit slot = queue.acquire("busy", 1).block();
+
+        acquire(queue, "heavy", 1, "heavy-1");
+        acquire(queue, "heavy", 1, "heavy-2");
+        acquire(queue, "heavy", 1, "heavy-3");
+        acquire(queue, "light", 4, "light-1");
+        acquire(queue, "light", 4, "light-2");
+        assertThat(granted).isEmpty();
+        assertThat(queue.queuedCount()).isEqualTo(5);
+
+        slot.release();
+        while (granted.size() < 5) permits.get(permits.size() - 1).release();
+
+        // The flooding tenant only pushes back its own requests
+        assertThat(granted).containsExactly("light-1", "light-2", "heavy-1", "heavy-2", "heavy-3");
+        assertThat(permits).allMatch(WeightedFairQueue.Permit::wasQueued);
+    }
+
+    @Test
+    @DisplayName("a tenant past its queue limit is turned away while other tenants still queue")
+    void queueFull() {
+        WeightedFairQueue queue = new WeightedFairQueue(1, 1);
+        queue.acquire("busy", 1).block();
+        acquire(queue, "t1", 1, "t1-1");
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        queue.acquire("t1", 1).subscribe(p -> granted.add("t1-2"), error::set);
+        acquire(queue, "t2", 1, "t2-1");
+
+        assertThat(error.get()).isInstanceOf(WeightedFairQueue.QueueFullException.class);
+        assertThat(queue.queuedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a cancelled waiter leaves the queue and a cancelled grant hands its slot on")
+    void cancellation() {
+        WeightedFairQueue queue = new WeightedFairQueue(1, 5);
+        WeightedFairQueue.Permit slot = queue.acquire("busy", 1).block();
+
+        Disposable cancelled = acquire(queue, "t1", 1, "cancelled");
+        acquire(queue, "t2", 1, "t2");
+        cancelled.dispose();
+        assertThat(queue.queuedCount()).isEqualTo(1);
+
+        slot.release();
+        assertThat(granted).containsExactly("t2");
+        permits.get(0).release();
+        assertThat(queue.inFlightCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("raising the limit hands the new slots to waiters at once")
+    void raisedLimit() {
+        WeightedFairQueue queue = new WeightedFairQueue(1, 5);
+        queue.acquire("busy", 1).block();
+        acquire(queue, "t1", 1, "t1-1");
+        acquire(queue, "t2", 1, "t2-1");
+
+        queue.configure(3, 5);
+
+        assertThat(granted).containsExactlyInAnyOrder("t1-1", "t2-1");
+        assertThat(queue.inFlightCount()).isEqualTo(3);
+        assertThat(queue.queuedCount()).isZero();
+    }
+}
@@ -1,5 +1,6 @@
 package com.athena.lms.management.controller;
 
+import com.athena.lms.common.dto.BatchLookupRequest;
 import com.athena.lms.common.dto.PageResponse;
 import com.athena.lms.management.dto.request.RepaymentRequest;
 import com.athena.lms.management.dto.request.RestructureRequest;
@@ -30,6 +31,12 @@ public class LoanManagementController {
         return ResponseEntity.ok(service.getById(id, getTenantId(auth)));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<LoanResponse>> getByIds(@Valid @RequestBody BatchLookupRequest<UUID> req,
+                                                       Authentication auth) {
+        return ResponseEntity.ok(service.getByIds(req.getIds(), getTenantId(auth)));
+    }
+
     @GetMapping("/{id}/schedule")
     public ResponseEntity<List<InstallmentResponse>> getSchedule(@PathVariable UUID id, Authentication auth) {
         return ResponseEntity.ok(service.getSchedule(id, getTenantId(auth)));
@@ -8,12 +8,14 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface LoanRepository extends JpaRepository<Loan, UUID> {
     Optional<Loan> findByIdAndTenantId(UUID id, String tenantId);
+    List<Loan> findByTenantIdAndIdIn(String tenantId, Collection<UUID> ids);
     Page<Loan> findByTenantId(String tenantId, Pageable pageable);
     Page<Loan> findByTenantIdAndStatus(String tenantId, LoanStatus status, Pageable pageable);
     Page<Loan> findByTenantIdAndCustomerId(String tenantId, String customerId, Pageable pageable);
@@ -143,6 +143,11 @@ public class LoanManagementService {
         return PageResponse.from(page.map(this::toResponse));
     }
 
+    public List<LoanResponse> getByIds(List<UUID> ids, String tenantId) {
+        return loanRepo.findByTenantIdAndIdIn(tenantId, ids)
+            .stream().map(this::toResponse).collect(Collectors.toList());
+    }
+
     public List<LoanResponse> listByCustomer(String customerId, String tenantId) {
         return loanRepo.findByTenantIdAndCustomerId(tenantId, customerId)
             .stream().map(this::toResponse).collect(Collectors.toList());
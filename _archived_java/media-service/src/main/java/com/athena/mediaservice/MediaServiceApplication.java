@@ -5,7 +5,9 @@ import com.athena.lms.common.auth.LmsAuthenticationEntryPoint;
 import com.athena.lms.common.auth.LmsJwtAuthenticationFilter;
 import com.athena.lms.common.auth.MdcLoggingFilter;
 import com.athena.lms.common.exception.GlobalExceptionHandler;
-import org.springframework.boot.SpringApplication;
+import com.athena.lms.common.startup.CriticalBeanLazyInitExcludeFilter;
+import com.athena.lms.common.startup.LmsSpringApplication;
+import com.athena.lms.common.startup.StartupTimingListener;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
@@ -14,9 +16,10 @@ import org.springframework.context.annotation.Import;
 @SpringBootApplication(scanBasePackages = {"com.athena.mediaservice"})
 @EnableDiscoveryClient
 @EnableCaching
-@Import({JwtUtil.class, MdcLoggingFilter.class, LmsJwtAuthenticationFilter.class, LmsAuthenticationEntryPoint.class, GlobalExceptionHandler.class})
+@Import({JwtUtil.class, MdcLoggingFilter.class, LmsJwtAuthenticationFilter.class, LmsAuthenticationEntryPoint.class, GlobalExceptionHandler.class,
+        CriticalBeanLazyInitExcludeFilter.class, StartupTimingListener.class})
 public class MediaServiceApplication {
     public static void main(String[] args) {
-        SpringApplication.run(MediaServiceApplication.class, args);
+        LmsSpringApplication.run(MediaServiceApplication.class, args);
     }
 }
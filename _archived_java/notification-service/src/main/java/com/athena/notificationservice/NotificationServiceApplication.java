@@ -1,6 +1,6 @@
 package com.athena.notificationservice;
 
-import org.springframework.boot.SpringApplication;
+import com.athena.lms.common.startup.LmsSpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
@@ -8,6 +8,6 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 @EnableDiscoveryClient
 public class NotificationServiceApplication {
     public static void main(String[] args) {
-        SpringApplication.run(NotificationServiceApplication.class, args);
+        LmsSpringApplication.run(NotificationServiceApplication.class, args);
     }
 }
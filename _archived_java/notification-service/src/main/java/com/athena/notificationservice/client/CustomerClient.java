@@ -1,18 +1,27 @@
 package com.athena.notificationservice.client;
 
+import com.athena.lms.common.client.BatchLoader;
+import com.athena.lms.common.dto.BatchLookupRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Map;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 public class CustomerClient {
 
+    private static final String NO_REPLY = "noreply@athena.lms";
+
     private final RestTemplate restTemplate;
+    private final BatchLoader<CustomerKey, String> emailLoader;
 
     @Value("${athena.account.url:http://lms-account-service:8086}")
     private String accountServiceUrl;
@@ -20,32 +29,73 @@ public class CustomerClient {
     @Value("${lms.internal.service-key:}")
     private String serviceKey;
 
-    public CustomerClient() {
-        this.restTemplate = new RestTemplate();
+    public CustomerClient(RestTemplateBuilder restTemplateBuilder,
+                          @Value("${athena.account.batch-window-ms:5}") long batchWindowMs) {
+        this.restTemplate = restTemplateBuilder.build(); // builder-made: observed and trace-propagating
+        this.emailLoader = new BatchLoader<>("customer-email", Duration.ofMillis(batchWindowMs),
+                BatchLookupRequest.MAX_IDS, this::fetchEmails);
     }
 
+    /** Concurrent lookups are coalesced into one POST /customers/batch per tenant. */
     public String resolveEmail(String customerId, String tenantId) {
         if (customerId == null || customerId.isBlank()) {
-            return "noreply@athena.lms";
+            return NO_REPLY;
         }
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-Service-Key", serviceKey);
-            headers.set("X-Service-Tenant", tenantId != null ? tenantId : "default");
-            headers.set("X-Service-User", "notification-service");
-
-            ResponseEntity<Map> response = restTemplate.exchange(
-                accountServiceUrl + "/api/v1/customers/by-customer-id/" + customerId,
-                HttpMethod.GET, new HttpEntity<>(headers), Map.class);
-
-            Map<?, ?> body = response.getBody();
-            if (body != null && body.get("email") != null) {
-                String email = body.get("email").toString();
-                if (!email.isBlank()) return email;
+        String email = emailLoader.load(new CustomerKey(tenantOrDefault(tenantId), customerId));
+        return email != null ? email : NO_REPLY;
+    }
+
+    /** Emails for many customers of one tenant; unknown customers map to the no-reply address. */
+    public Map<String, String> resolveEmails(Collection<String> customerIds, String tenantId) {
+        String tenant = tenantOrDefault(tenantId);
+        List<CustomerKey> keys = customerIds.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .map(id -> new CustomerKey(tenant, id))
+                .toList();
+        Map<CustomerKey, String> found = emailLoader.loadAll(keys);
+        Map<String, String> emails = new HashMap<>();
+        keys.forEach(k -> emails.put(k.customerId(), found.getOrDefault(k, NO_REPLY)));
+        return emails;
+    }
+
+    private Map<CustomerKey, String> fetchEmails(List<CustomerKey> keys) {
+        Map<CustomerKey, String> emails = new HashMap<>();
+        Map<String, List<String>> byTenant = keys.stream().collect(Collectors.groupingBy(
+                CustomerKey::tenantId, Collectors.mapping(CustomerKey::customerId, Collectors.toList())));
+
+        byTenant.forEach((tenantId, customerIds) -> {
+            try {
+                HttpHeaders headers = new HttpHeaders();
+                headers.set("X-Service-Key", serviceKey);
+                headers.set("X-Service-Tenant", tenantId);
+                headers.set("X-Service-User", "notification-service");
+                headers.setContentType(MediaType.APPLICATION_JSON);
+
+                ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+                    accountServiceUrl + "/api/v1/customers/batch",
+                    HttpMethod.POST, new HttpEntity<>(new BatchLookupRequest<>(customerIds), headers),
+                    new ParameterizedTypeReference<>() {});
+
+                List<Map<String, Object>> body = response.getBody();
+                if (body == null) return;
+                for (Map<String, Object> customer : body) {
+                    Object customerId = customer.get("customerId");
+                    Object email = customer.get("email");
+                    if (customerId != null && email != null && !email.toString().isBlank()) {
+                        emails.put(new CustomerKey(tenantId, customerId.toString()), email.toString());
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Could not resolve email for {} customers in tenant {}: {}",
+                        customerIds.size(), tenantId, e.getMessage());
             }
-        } catch (Exception e) {
-            log.warn("Could not resolve email for customer {}: {}", customerId, e.getMessage());
-        }
-        return "noreply@athena.lms";
+        });
+        return emails;
     }
+
+    private static String tenantOrDefault(String tenantId) {
+        return tenantId != null ? tenantId : "default";
+    }
+
+    private record CustomerKey(String tenantId, String customerId) {}
 }
@@ -1,46 +1,88 @@
 package com.athena.lms.overdraft.client;
 
-import lombok.RequiredArgsConstructor;
+import com.athena.lms.common.client.BatchLoader;
+import com.athena.lms.common.dto.BatchLookupRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ScoringClient {
 
     private final RestTemplate restTemplate;
+    private final BatchLoader<String, CreditScoreResult> loader;
 
     @Value("${athena.scoring.url}")
     private String scoringBaseUrl;
 
+    public ScoringClient(RestTemplate restTemplate,
+                         @Value("${athena.scoring.batch-window-ms:5}") long batchWindowMs) {
+        this.restTemplate = restTemplate;
+        this.loader = new BatchLoader<>("scoring-latest", Duration.ofMillis(batchWindowMs),
+                BatchLookupRequest.MAX_IDS, this::fetchLatestScores);
+    }
+
     /**
      * Fetches the latest credit score for a customer.
+     * Concurrent calls are coalesced into one latest:batch request.
      * Falls back to a deterministic mock if AI scoring service is unavailable.
      */
-    @SuppressWarnings("unchecked")
     public CreditScoreResult getLatestScore(String customerId) {
-        try {
-            String url = scoringBaseUrl + "/api/v1/scoring/customers/" + customerId + "/latest";
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            if (response != null) {
-                Object scoreObj = response.get("finalScore");
-                Object bandObj = response.get("scoreBand");
-                if (scoreObj != null && bandObj != null) {
-                    int score = ((Number) scoreObj).intValue();
-                    String band = bandObj.toString();
-                    log.info("Got credit score for customer {}: score={} band={}", customerId, score, band);
-                    return new CreditScoreResult(score, band);
+        return loader.load(customerId);
+    }
+
+    /** Latest scores for many customers in as few round trips as possible. */
+    public Map<String, CreditScoreResult> getLatestScores(Collection<String> customerIds) {
+        return loader.loadAll(customerIds);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, CreditScoreResult> fetchLatestScores(List<String> customerIds) {
+        Map<String, CreditScoreResult> scores = new HashMap<>();
+        // ai-scoring keys results by numeric customer id; wallet ids like "MOB-…" can only be mocked
+        Map<Long, String> numericIds = new HashMap<>();
+        for (String customerId : customerIds) {
+            try {
+                numericIds.put(Long.valueOf(customerId), customerId);
+            } catch (NumberFormatException ignored) {
+                // handled by the mock fallback below
+            }
+        }
+        if (!numericIds.isEmpty()) {
+            try {
+                String url = scoringBaseUrl + "/api/v1/scoring/customers/latest:batch";
+                List<Map<String, Object>> response = restTemplate.postForObject(url,
+                        new BatchLookupRequest<>(List.copyOf(numericIds.keySet())), List.class);
+                if (response != null) {
+                    for (Map<String, Object> result : response) {
+                        Object idObj = result.get("customerId");
+                        Object scoreObj = result.get("finalScore");
+                        Object bandObj = result.get("scoreBand");
+                        if (idObj == null || scoreObj == null || bandObj == null) continue;
+                        String customerId = numericIds.get(((Number) idObj).longValue());
+                        if (customerId == null) continue;
+                        int score = ((Number) scoreObj).intValue();
+                        String band = bandObj.toString();
+                        log.info("Got credit score for customer {}: score={} band={}", customerId, score, band);
+                        scores.put(customerId, new CreditScoreResult(score, band));
+                    }
                 }
+            } catch (Exception e) {
+                log.warn("AI scoring unavailable for {} customers: {} — using mock", numericIds.size(), e.getMessage());
             }
-        } catch (Exception e) {
-            log.warn("AI scoring unavailable for customer {}: {} — using mock", customerId, e.getMessage());
         }
-        return generateMockScore(customerId);
+        for (String customerId : customerIds) {
+            scores.computeIfAbsent(customerId, this::generateMockScore);
+        }
+        return scores;
     }
 
     private CreditScoreResult generateMockScore(String customerId) {
@@ -1,5 +1,7 @@
 package com.athena.lms.overdraft.service;
 
+import com.athena.lms.common.audit.AuditRecord;
+import com.athena.lms.common.audit.AuditWriter;
 import com.athena.lms.common.dto.PageResponse;
 import com.athena.lms.overdraft.dto.response.AuditLogResponse;
 import com.athena.lms.overdraft.entity.OverdraftAuditLog;
@@ -11,7 +13,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
@@ -23,20 +24,24 @@ import java.util.UUID;
 public class AuditService {
 
     private final OverdraftAuditLogRepository auditLogRepo;
+    private final AuditWriter auditWriter;
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    /**
+     * Hands the entry to the shared audit writer, which inserts it in a later batch once the
+     * caller's transaction commits; nothing is audited for work that rolls back.
+     */
     public void audit(String tenantId, String entityType, UUID entityId, String action,
                       Map<String, Object> before, Map<String, Object> after, Map<String, Object> metadata) {
-        OverdraftAuditLog entry = new OverdraftAuditLog();
-        entry.setTenantId(tenantId);
-        entry.setEntityType(entityType);
-        entry.setEntityId(entityId);
-        entry.setAction(action);
-        entry.setActor(resolveActor());
-        entry.setBeforeSnapshot(before);
-        entry.setAfterSnapshot(after);
-        entry.setMetadata(metadata);
-        auditLogRepo.save(entry);
+        auditWriter.record(AuditRecord.builder()
+            .tenantId(tenantId)
+            .entityType(entityType)
+            .entityId(entityId)
+            .action(action)
+            .actor(resolveActor())
+            .before(before)
+            .after(after)
+            .details(metadata)
+            .build());
     }
 
     @Transactional(readOnly = true)
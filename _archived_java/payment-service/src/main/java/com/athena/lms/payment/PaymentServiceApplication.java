@@ -1,11 +1,11 @@
 package com.athena.lms.payment;
 
-import org.springframework.boot.SpringApplication;
+import com.athena.lms.common.startup.LmsSpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication(scanBasePackages = {"com.athena.lms.payment", "com.athena.lms.common"})
 public class PaymentServiceApplication {
     public static void main(String[] args) {
-        SpringApplication.run(PaymentServiceApplication.class, args);
+        LmsSpringApplication.run(PaymentServiceApplication.class, args);
     }
 }
@@ -1,10 +1,12 @@
 package com.athena.lms.payment.client;
 
+import com.athena.lms.common.client.BatchLoader;
+import com.athena.lms.common.dto.BatchLookupRequest;
 import com.athena.lms.common.exception.BusinessException;
 import com.athena.lms.common.exception.ResourceNotFoundException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -15,54 +17,89 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Validates that a loanId references a real, active loan before accepting a payment.
+ * Concurrent validations are coalesced into one POST /loans/batch per caller token.
  * Fails open on infrastructure errors so payments aren't blocked by loan-management downtime.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class LoanManagementClient {
 
+    /** Marker for loans that could not be checked (auth or infrastructure error). */
+    private static final String UNVERIFIED = "UNVERIFIED";
+
     private final RestTemplate restTemplate;
+    private final BatchLoader<LoanKey, String> statusLoader;
 
     @Value("${athena.loan-management.url:http://lms-loan-management-service:8089}")
     private String loanManagementUrl;
 
+    public LoanManagementClient(RestTemplate restTemplate,
+                                @Value("${athena.loan-management.batch-window-ms:5}") long batchWindowMs) {
+        this.restTemplate = restTemplate;
+        this.statusLoader = new BatchLoader<>("loan-status", Duration.ofMillis(batchWindowMs),
+                BatchLookupRequest.MAX_IDS, this::fetchStatuses);
+    }
+
     public void validateLoanExists(UUID loanId) {
         if (loanId == null) return; // loanId is optional on payments
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            String authHeader = currentAuthHeader();
-            if (authHeader != null) headers.set("Authorization", authHeader);
+        String status = statusLoader.load(new LoanKey(currentAuthHeader(), loanId));
+        if (status == null) {
+            throw new ResourceNotFoundException("Loan", loanId.toString());
+        }
+        if ("CLOSED".equals(status) || "WRITTEN_OFF".equals(status)) {
+            throw new BusinessException("Loan " + loanId + " is not eligible for payment (status=" + status + ")");
+        }
+    }
 
-            ResponseEntity<Map> response = restTemplate.exchange(
-                loanManagementUrl + "/api/v1/loans/" + loanId,
-                HttpMethod.GET,
-                new HttpEntity<>(headers),
-                Map.class
-            );
+    /** Loan status per key; loans loan-management doesn't know are absent from the result. */
+    private Map<LoanKey, String> fetchStatuses(List<LoanKey> keys) {
+        Map<LoanKey, String> statuses = new HashMap<>();
+        // Never mix callers' credentials in one request: one call per Authorization header.
+        Map<Optional<String>, List<LoanKey>> byAuth = keys.stream()
+                .collect(Collectors.groupingBy(k -> Optional.ofNullable(k.authHeader())));
 
-            Map<?, ?> body = response.getBody();
-            if (body == null) {
-                throw new ResourceNotFoundException("Loan", loanId.toString());
-            }
-            Object status = body.get("status");
-            if ("CLOSED".equals(status) || "WRITTEN_OFF".equals(status)) {
-                throw new BusinessException("Loan " + loanId + " is not eligible for payment (status=" + status + ")");
+        byAuth.forEach((authHeader, group) -> {
+            List<UUID> loanIds = group.stream().map(LoanKey::loanId).toList();
+            try {
+                HttpHeaders headers = new HttpHeaders();
+                authHeader.ifPresent(h -> headers.set("Authorization", h));
+
+                ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+                    loanManagementUrl + "/api/v1/loans/batch",
+                    HttpMethod.POST,
+                    new HttpEntity<>(new BatchLookupRequest<>(loanIds), headers),
+                    new ParameterizedTypeReference<>() {}
+                );
+
+                List<Map<String, Object>> body = response.getBody();
+                if (body == null) return;
+                for (Map<String, Object> loan : body) {
+                    Object id = loan.get("id");
+                    Object status = loan.get("status");
+                    if (id != null) {
+                        statuses.put(new LoanKey(authHeader.orElse(null), UUID.fromString(id.toString())),
+                                status != null ? status.toString() : UNVERIFIED);
+                    }
+                }
+            } catch (HttpClientErrorException.Forbidden | HttpClientErrorException.Unauthorized e) {
+                log.warn("Loan management auth error for loanIds={}, proceeding: {}", loanIds, e.getMessage());
+                group.forEach(k -> statuses.put(k, UNVERIFIED));
+            } catch (Exception e) {
+                log.warn("Loan management unavailable, skipping loanId validation for {}: {}", loanIds, e.getMessage());
+                group.forEach(k -> statuses.put(k, UNVERIFIED));
             }
-        } catch (BusinessException | ResourceNotFoundException e) {
-            throw e;
-        } catch (HttpClientErrorException.NotFound e) {
-            throw new ResourceNotFoundException("Loan", loanId.toString());
-        } catch (HttpClientErrorException.Forbidden | HttpClientErrorException.Unauthorized e) {
-            log.warn("Loan management auth error for loanId={}, proceeding: {}", loanId, e.getMessage());
-        } catch (Exception e) {
-            log.warn("Loan management unavailable, skipping loanId validation for {}: {}", loanId, e.getMessage());
-        }
+        });
+        return statuses;
     }
 
     private String currentAuthHeader() {
@@ -74,4 +111,6 @@ public class LoanManagementClient {
             return null;
         }
     }
+
+    private record LoanKey(String authHeader, UUID loanId) {}
 }
@@ -1,11 +1,11 @@
 package com.athena.lms.product;
 
-import org.springframework.boot.SpringApplication;
+import com.athena.lms.common.startup.LmsSpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication(scanBasePackages = {"com.athena.lms.product", "com.athena.lms.common"})
 public class ProductServiceApplication {
     public static void main(String[] args) {
-        SpringApplication.run(ProductServiceApplication.class, args);
+        LmsSpringApplication.run(ProductServiceApplication.class, args);
     }
 }
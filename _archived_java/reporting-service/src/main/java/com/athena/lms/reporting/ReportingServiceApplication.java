@@ -1,6 +1,6 @@
 package com.athena.lms.reporting;
 
-import org.springframework.boot.SpringApplication;
+import com.athena.lms.common.startup.LmsSpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
@@ -8,6 +8,6 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableScheduling
 public class ReportingServiceApplication {
     public static void main(String[] args) {
-        SpringApplication.run(ReportingServiceApplication.class, args);
+        LmsSpringApplication.run(ReportingServiceApplication.class, args);
     }
 }
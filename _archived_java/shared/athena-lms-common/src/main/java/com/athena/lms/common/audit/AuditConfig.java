@@ -0,0 +1,23 @@
+package com.athena.lms.common.audit;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/** Asynchronous batched audit writer, active only with lms.audit.enabled=true. */
+@Configuration
+@ConditionalOnProperty(prefix = "lms.audit", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfig {
+
+    @Bean
+    public AuditWriter auditWriter(AuditProperties properties, DataSource dataSource,
+                                   ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new AuditWriter(properties, dataSource, observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+}
@@ -0,0 +1,39 @@
+package com.athena.lms.common.audit;
+
+import java.util.function.Function;
+
+/** The {@link AuditRecord} fields, with the column each maps to unless lms.audit.columns says otherwise. */
+enum AuditField {
+
+    ID("id", false, AuditRecord::id),
+    TENANT_ID("tenant_id", false, AuditRecord::tenantId),
+    ENTITY_TYPE("entity_type", false, AuditRecord::entityType),
+    ENTITY_ID("entity_id", false, AuditRecord::entityId),
+    ACTION("action", false, AuditRecord::action),
+    ACTOR("actor", false, AuditRecord::actor),
+    DESCRIPTION("description", false, AuditRecord::description),
+    BEFORE("before_snapshot", true, AuditRecord::before),
+    AFTER("after_snapshot", true, AuditRecord::after),
+    DETAILS("details", true, AuditRecord::details),
+    CREATED_AT("created_at", false, AuditRecord::createdAt);
+
+    final String defaultColumn;
+    final boolean json;
+    final Function<AuditRecord, Object> getter;
+
+    AuditField(String defaultColumn, boolean json, Function<AuditRecord, Object> getter) {
+        this.defaultColumn = defaultColumn;
+        this.json = json;
+        this.getter = getter;
+    }
+
+    /** Accepts the property-style key: actor, entity-type, entity_type, createdAt. */
+    static AuditField fromKey(String key) {
+        String normalized = key.replaceAll("([a-z])([A-Z])", "$1_$2").replace('-', '_').toUpperCase();
+        try {
+            return valueOf(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown audit field in lms.audit.columns: " + key);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.athena.lms.common.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Asynchronous audit writer settings (lms.audit.*). */
+@Data
+@ConfigurationProperties(prefix = "lms.audit")
+public class AuditProperties {
+
+    /** Off by default — services opt in once their audit calls go through {@link AuditWriter}. */
+    private boolean enabled = false;
+
+    /** The service's audit table, e.g. fraud_audit_log. */
+    private String table;
+
+    /**
+     * Column per {@link AuditRecord} field where it differs from the default (snake_case of the
+     * field; before/after map to before_snapshot/after_snapshot). An empty value leaves the
+     * field out, e.g. lms.audit.columns.actor=performed_by, lms.audit.columns.description=.
+     */
+    private Map<String, String> columns = new LinkedHashMap<>();
+
+    /** Records held in memory between capture and insert; beyond this, callers feel back-pressure. */
+    private int capacity = 8192;
+
+    /** Rows per multi-row INSERT. */
+    private int batchSize = 500;
+
+    /** Longest a captured record waits for its batch to fill. */
+    private long flushIntervalMs = 200;
+
+    /** How long a caller blocks on a full buffer before its record goes to the spill file instead. */
+    private long offerTimeoutMs = 50;
+
+    /** Local directory for records that could not be written to the database yet. */
+    private String spillDir = System.getProperty("java.io.tmpdir") + "/lms-audit";
+
+    /** Minimum time between attempts to replay spilled records into the database. */
+    private long replayIntervalMs = 10_000;
+
+    /** How long shutdown waits for the buffer to drain; whatever is left is spilled. */
+    private long shutdownTimeoutMs = 10_000;
+}
@@ -0,0 +1,27 @@
+package com.athena.lms.common.audit;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One audit entry as handed to {@link AuditWriter}. Services map the fields onto their own
+ * audit table through lms.audit.columns; fields a table has no column for are left out.
+ * id and createdAt are filled in at capture time when not set.
+ */
+@Builder(toBuilder = true)
+public record AuditRecord(
+        UUID id,
+        String tenantId,
+        String entityType,
+        UUID entityId,
+        String action,
+        String actor,
+        String description,
+        Map<String, Object> before,
+        Map<String, Object> after,
+        Map<String, Object> details,
+        OffsetDateTime createdAt) {
+}
@@ -0,0 +1,116 @@
+package com.athena.lms.common.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Local, append-only holding area for audit records the database has not taken yet: one JSON
+ * record per line, fsynced before append returns. Replay first rotates the active file aside,
+ * so new spills never mix with a file being replayed, and deletes a file only once every record
+ * in it is written. Records keep their ids and the insert ignores ids it already has, so a
+ * replay interrupted by a crash can simply run again. A line torn by a crash mid-append is
+ * skipped with a warning.
+ */
+@Slf4j
+final class AuditSpill {
+
+    private static final String ACTIVE = "audit-spill.jsonl";
+    private static final String REPLAY_SUFFIX = ".replay";
+
+    @FunctionalInterface
+    interface BatchSink {
+        void write(List<AuditRecord> batch);
+    }
+
+    private final Path dir;
+    private final ObjectMapper mapper;
+    private volatile boolean pending;
+
+    AuditSpill(Path dir, ObjectMapper mapper) {
+        this.dir = dir;
+        this.mapper = mapper;
+        this.pending = Files.isDirectory(dir);
+    }
+
+    synchronized void append(List<AuditRecord> records) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(records.size() * 256);
+        for (AuditRecord record : records) {
+            lines.write(mapper.writeValueAsBytes(record));
+            lines.write('\n');
+        }
+        Files.createDirectories(dir);
+        try (FileChannel channel = FileChannel.open(dir.resolve(ACTIVE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(false);
+        }
+        pending = true;
+    }
+
+    boolean hasPending() {
+        return pending;
+    }
+
+    /** Writes every spilled record to the sink, oldest file first; returns the number replayed. */
+    int replay(int batchSize, BatchSink sink) throws IOException {
+        rotate();
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(REPLAY_SUFFIX)).sorted().toList();
+        }
+
+        int replayed = 0;
+        for (Path file : files) {
+            List<AuditRecord> batch = new ArrayList<>(batchSize);
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        batch.add(mapper.readValue(line, AuditRecord.class));
+                    } catch (IOException e) {
+                        log.warn("Skipping unreadable spilled audit record in {}: {}", file, e.getMessage());
+                        continue;
+                    }
+                    if (batch.size() == batchSize) {
+                        sink.write(batch);
+                        replayed += batch.size();
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                sink.write(batch);
+                replayed += batch.size();
+            }
+            Files.delete(file);
+        }
+
+        synchronized (this) {
+            pending = Files.exists(dir.resolve(ACTIVE));
+        }
+        return replayed;
+    }
+
+    private synchronized void rotate() throws IOException {
+        Path active = dir.resolve(ACTIVE);
+        if (!Files.exists(active)) return;
+        String name = String.format("audit-spill-%013d-%d%s", System.currentTimeMillis(), System.nanoTime(), REPLAY_SUFFIX);
+        Files.move(active, dir.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,373 @@
+package com.athena.lms.common.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Takes audit inserts off the caller's transaction. A record captured inside a transaction is
+ * held with it and handed over only after commit, so rolled-back work leaves no audit trail;
+ * outside a transaction it is handed over at once. Handed-over records wait in a bounded buffer
+ * for a single writer thread, which inserts them with one multi-row INSERT per batch, flushing
+ * when the batch is full or its oldest record has waited flush-interval-ms.
+ *
+ * A full buffer blocks the caller for at most offer-timeout-ms; records that still do not fit,
+ * and batches the database refuses, go to a local spill file (see {@link AuditSpill}) and are
+ * replayed once the database takes writes again. Records are only lost if the spill file itself
+ * cannot be written, or if the process dies with records still in memory — at most the buffer
+ * plus one batch. A record the table rejects outright (a constraint violation) is logged and
+ * dropped rather than blocking its batch forever.
+ *
+ * Flushes are observed as lms.audit.flush (outcome=written|spilled) and records diverted from
+ * the database as lms.audit.spill (reason, outcome=spilled|dropped); with Micrometer on the
+ * classpath both become timers, their counts the flush and spill/drop counts.
+ */
+@Slf4j
+public class AuditWriter implements SmartLifecycle {
+
+    static final String FLUSH_OBSERVATION = "lms.audit.flush";
+    static final String SPILL_OBSERVATION = "lms.audit.spill";
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+    private static final int MAX_BIND_PARAMETERS = 65_535;
+
+    public record Stats(long captured, long written, long spilled, long dropped, int buffered, double lastFlushMs) {}
+
+    private final AuditProperties properties;
+    private final JdbcTemplate jdbc;
+    private final ObservationRegistry observations;
+    private final ObjectMapper mapper;
+    private final AuditSpill spill;
+    private final BlockingQueue<AuditRecord> buffer;
+    private final List<AuditField> fields;
+    private final String insertPrefix;
+    private final String rowPlaceholders;
+    private final String fullBatchSql;
+
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    private volatile boolean running;
+    private volatile boolean stopping;
+    private Thread worker;
+    private long nextReplayAt;
+
+    public AuditWriter(AuditProperties properties, DataSource dataSource, ObservationRegistry observations) {
+        if (!StringUtils.hasText(properties.getTable()) || !IDENTIFIER.matcher(properties.getTable()).matches()) {
+            throw new IllegalStateException("lms.audit.table must name the service's audit table, got: " + properties.getTable());
+        }
+        this.properties = properties;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.observations = observations;
+        this.mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.spill = new AuditSpill(Path.of(properties.getSpillDir()), mapper);
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, properties.getCapacity()));
+
+        List<String> columns = new ArrayList<>();
+        List<AuditField> mapped = new ArrayList<>();
+        for (AuditField field : AuditField.values()) {
+            String column = column(field);
+            if (column.isEmpty()) continue;
+            if (!IDENTIFIER.matcher(column).matches()) {
+                throw new IllegalStateException("Invalid audit column for " + field + ": " + column);
+            }
+            columns.add(column);
+            mapped.add(field);
+        }
+        if (properties.getBatchSize() < 1 || properties.getBatchSize() * mapped.size() > MAX_BIND_PARAMETERS) {
+            throw new IllegalStateException("lms.audit.batch-size must be between 1 and "
+                    + MAX_BIND_PARAMETERS / mapped.size() + " for " + mapped.size() + " columns");
+        }
+        this.fields = List.copyOf(mapped);
+        this.insertPrefix = "INSERT INTO " + properties.getTable() + " (" + String.join(", ", columns) + ") VALUES ";
+        this.rowPlaceholders = mapped.stream()
+                .map(f -> f.json ? "CAST(? AS jsonb)" : "?")
+                .collect(Collectors.joining(", ", "(", ")"));
+        this.fullBatchSql = insertSql(properties.getBatchSize());
+    }
+
+    /**
+     * Captures an audit record. Inside a transaction it is written only if that transaction
+     * commits; the caller never waits for the insert.
+     */
+    public void record(AuditRecord record) {
+        AuditRecord complete = record.toBuilder()
+                .id(record.id() != null ? record.id() : UUID.randomUUID())
+                .createdAt(record.createdAt() != null ? record.createdAt() : OffsetDateTime.now())
+                .build();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInTransaction().add(complete);
+        } else {
+            enqueue(complete);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(captured.get(), written.get(), spilled.get(), dropped.get(), buffer.size(),
+                lastFlushNanos / 1_000_000.0);
+    }
+
+    // ─── Transactional hand-off ──────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private List<AuditRecord> pendingInTransaction() {
+        List<AuditRecord> pending = (List<AuditRecord>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) return pending;
+
+        List<AuditRecord> records = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, records);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // A REQUIRES_NEW transaction inside this one collects its own records
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(AuditWriter.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(AuditWriter.this, records);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(AuditWriter.this);
+                if (status == STATUS_COMMITTED) records.forEach(AuditWriter.this::enqueue);
+            }
+        });
+        return records;
+    }
+
+    private void enqueue(AuditRecord record) {
+        captured.incrementAndGet();
+        if (!stopping) {
+            try {
+                if (buffer.offer(record, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        spill(List.of(record), stopping ? "shutdown" : "overflow");
+    }
+
+    // ─── Writer thread ───────────────────────────────────────────────────────
+
+    private void drainLoop() {
+        List<AuditRecord> batch = new ArrayList<>(properties.getBatchSize());
+        long flushNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditRecord first = buffer.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replayIfDue();
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < properties.getBatchSize()) {
+                    buffer.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getBatchSize() || wait <= 0) break;
+                    AuditRecord next = buffer.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only stop() interrupts, and only after its deadline: keep what was taken
+                if (!batch.isEmpty()) spill(List.copyOf(batch), "shutdown");
+                return;
+            }
+            if (flush(batch)) replayIfDue();
+            batch.clear();
+        }
+    }
+
+    private boolean flush(List<AuditRecord> batch) {
+        Observation observation = Observation.createNotStarted(FLUSH_OBSERVATION, observations).start();
+        long started = System.nanoTime();
+        try {
+            writeBatch(batch);
+            observation.lowCardinalityKeyValue("outcome", "written");
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not write {} audit records to {}, spilling them: {}",
+                    batch.size(), properties.getTable(), e.getMessage());
+            observation.lowCardinalityKeyValue("outcome", "spilled");
+            observation.error(e);
+            nextReplayAt = System.currentTimeMillis() + properties.getReplayIntervalMs();
+            spill(List.copyOf(batch), "flush-failure");
+            return false;
+        } finally {
+            lastFlushNanos = System.nanoTime() - started;
+            observation.stop();
+        }
+    }
+
+    /** Inserts the batch; throws if the database is unavailable, drops only records it rejects. */
+    private void writeBatch(List<AuditRecord> batch) {
+        try {
+            insert(batch);
+            written.addAndGet(batch.size());
+        } catch (DataIntegrityViolationException e) {
+            // One bad record must not hold the rest of its batch back forever
+            for (AuditRecord record : batch) {
+                try {
+                    insert(List.of(record));
+                    written.incrementAndGet();
+                } catch (DataIntegrityViolationException rejected) {
+                    dropped.incrementAndGet();
+                    observeDiversion("rejected", "dropped");
+                    log.error("Audit record {} {} {}/{} rejected by {}, dropped: {}", record.id(), record.action(),
+                            record.entityType(), record.entityId(), properties.getTable(),
+                            rejected.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<AuditRecord> batch) {
+        String sql = batch.size() == properties.getBatchSize() ? fullBatchSql : insertSql(batch.size());
+        Object[] args = new Object[batch.size() * fields.size()];
+        int i = 0;
+        for (AuditRecord record : batch) {
+            for (AuditField field : fields) {
+                Object value = field.getter.apply(record);
+                args[i++] = field.json ? toJson(value) : value;
+            }
+        }
+        jdbc.update(sql, args);
+    }
+
+    private void replayIfDue() {
+        if (!spill.hasPending() || System.currentTimeMillis() < nextReplayAt) return;
+        nextReplayAt = System.currentTimeMillis() + properties.getReplayIntervalMs();
+        try {
+            int replayed = spill.replay(properties.getBatchSize(), this::writeBatch);
+            if (replayed > 0) log.info("Replayed {} spilled audit records into {}", replayed, properties.getTable());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Replaying spilled audit records failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // ─── Spill ───────────────────────────────────────────────────────────────
+
+    private void spill(List<AuditRecord> records, String reason) {
+        String outcome;
+        try {
+            spill.append(records);
+            spilled.addAndGet(records.size());
+            outcome = "spilled";
+        } catch (IOException | RuntimeException e) {
+            dropped.addAndGet(records.size());
+            outcome = "dropped";
+            log.error("Dropped {} audit records ({}): spill file not writable: {}", records.size(), reason, e.getMessage());
+        }
+        observeDiversion(reason, outcome);
+    }
+
+    private void observeDiversion(String reason, String outcome) {
+        Observation.createNotStarted(SPILL_OBSERVATION, observations)
+                .lowCardinalityKeyValue("reason", reason)
+                .lowCardinalityKeyValue("outcome", outcome)
+                .start().stop();
+    }
+
+    // ─── SQL ─────────────────────────────────────────────────────────────────
+
+    private String column(AuditField field) {
+        for (var entry : properties.getColumns().entrySet()) {
+            if (AuditField.fromKey(entry.getKey()) == field) {
+                return entry.getValue() != null ? entry.getValue().trim() : "";
+            }
+        }
+        return field.defaultColumn;
+    }
+
+    /** Ids are generated here, so a replayed record the table already has is skipped. */
+    private String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(insertPrefix.length() + rows * (rowPlaceholders.length() + 2) + 32)
+                .append(insertPrefix);
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) sql.append(", ");
+            sql.append(rowPlaceholders);
+        }
+        return sql.append(" ON CONFLICT DO NOTHING").toString();
+    }
+
+    private String toJson(Object value) {
+        if (value == null) return null;
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit value is not serialisable to JSON", e);
+        }
+    }
+
+    // ─── Lifecycle ───────────────────────────────────────────────────────────
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        stopping = false;
+        worker = new Thread(this::drainLoop, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Audit writer started: table={} batch={} interval={}ms spill={}",
+                properties.getTable(), properties.getBatchSize(), properties.getFlushIntervalMs(), properties.getSpillDir());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) return;
+        stopping = true;
+        running = false;
+        try {
+            worker.join(properties.getShutdownTimeoutMs());
+            if (worker.isAlive()) worker.interrupt();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<AuditRecord> left = new ArrayList<>();
+        buffer.drainTo(left);
+        if (!left.isEmpty()) spill(left, "shutdown");
+        log.info("Audit writer stopped: {}", stats());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Stops after the web server and message listeners, so their last requests are still audited. */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
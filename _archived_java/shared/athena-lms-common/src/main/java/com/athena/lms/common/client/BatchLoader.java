@@ -0,0 +1,159 @@
+package com.athena.lms.common.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent single-key lookups into one multi-get call.
+ *
+ * Batching only happens under contention. A caller that finds no call in flight and no batch
+ * forming runs its key at once. Otherwise it joins the forming batch, or leads a new one. The
+ * leader waits until the calls in flight have all returned, or {@code window} has passed, then
+ * runs the batch function for every key collected meanwhile, on its own thread. Other callers
+ * block on their key's future. A batch that reaches {@code maxBatchSize} is flushed at once by
+ * the caller that filled it, and its leader stops waiting. No background threads are involved,
+ * so it suits the blocking RestTemplate clients.
+ *
+ * The batch function returns values for the keys it found; missing keys resolve to null.
+ * If it throws, Errors included, every caller in that batch gets the exception.
+ */
+@Slf4j
+public class BatchLoader<K, V> {
+
+    private final String name;
+    private final Function<List<K>, Map<K, V>> batchFunction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private Batch current;
+    private int inFlight;
+
+    public BatchLoader(String name, Duration window, int maxBatchSize, Function<List<K>, Map<K, V>> batchFunction) {
+        this.name = name;
+        this.batchFunction = batchFunction;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+    }
+
+    /** Loads one key, sharing the round trip with concurrent callers. */
+    public V load(K key) {
+        if (windowNanos <= 0) {
+            return loadAll(List.of(key)).get(key);
+        }
+
+        Batch mine;
+        Batch full = null;
+        boolean leader = false;
+        CompletableFuture<V> future;
+        synchronized (lock) {
+            if (current == null && inFlight == 0) {
+                // Idle: nothing to share a round trip with, so don't wait for company
+                mine = new Batch();
+                full = mine;
+                inFlight++;
+            } else {
+                if (current == null) {
+                    current = new Batch();
+                    leader = true;
+                }
+                mine = current;
+            }
+            future = mine.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (full == null && mine.futures.size() >= maxBatchSize) {
+                full = mine;
+                current = null;
+                inFlight++;
+                lock.notifyAll();
+            }
+        }
+
+        if (full != null) {
+            execute(full);
+        } else if (leader) {
+            Batch due = awaitWindow(mine);
+            if (due != null) {
+                execute(due);
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    /** Loads many keys directly (no window), split into maxBatchSize calls. */
+    public Map<K, V> loadAll(Collection<K> keys) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        Map<K, V> result = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += maxBatchSize) {
+            List<K> chunk = distinct.subList(from, Math.min(from + maxBatchSize, distinct.size()));
+            Map<K, V> found = batchFunction.apply(new ArrayList<>(chunk));
+            if (found != null) result.putAll(found);
+        }
+        return result;
+    }
+
+    /**
+     * Waits until no call is in flight or the window has passed, returning the leader's batch to
+     * execute, or null when the batch was filled and taken by another caller first. An interrupt
+     * cuts the wait short.
+     */
+    private Batch awaitWindow(Batch mine) {
+        synchronized (lock) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining = windowNanos;
+            try {
+                while (current == mine && inFlight > 0 && remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (current != mine) return null;
+            current = null;
+            inFlight++;
+            return mine;
+        }
+    }
+
+    private void execute(Batch batch) {
+        List<K> keys = new ArrayList<>(batch.futures.keySet());
+        try {
+            Map<K, V> found = batchFunction.apply(keys);
+            log.debug("{}: resolved {} keys in one call", name, keys.size());
+            batch.futures.forEach((k, f) -> f.complete(found != null ? found.get(k) : null));
+        } catch (Throwable t) {
+            // Release every waiter before rethrowing, Errors included, or they would block forever
+            batch.futures.values().forEach(f -> f.completeExceptionally(t));
+            throw t;
+        } finally {
+            synchronized (lock) {
+                inFlight--;
+                // A batch forming behind this call can go now if nothing else is running
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private final class Batch {
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Date;
+
 /**
  * LMS RabbitMQ topology — TopicExchange for pub/sub domain events.
  * Extends existing athena.exchange (DirectExchange) with new athena.lms.exchange.
@@ -163,10 +165,21 @@ public class LmsRabbitMQConfig {
         return new Jackson2JsonMessageConverter();
     }
 
+    /**
+     * Observed template: each publish is a producer span whose context travels in the AMQP
+     * headers (traceparent), and the publish time is stamped for queue-wait measurement.
+     */
     @Bean
     public RabbitTemplate lmsRabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(lmsMessageConverter());
+        template.setObservationEnabled(true);
+        template.setBeforePublishPostProcessors(message -> {
+            if (message.getMessageProperties().getTimestamp() == null) {
+                message.getMessageProperties().setTimestamp(new Date());
+            }
+            return message;
+        });
         return template;
     }
 }
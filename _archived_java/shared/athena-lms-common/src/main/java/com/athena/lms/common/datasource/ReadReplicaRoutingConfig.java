@@ -0,0 +1,103 @@
+package com.athena.lms.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary/replica DataSource wiring, active only with lms.datasource.routing.enabled=true.
+ *
+ * Every pool gets its own Hikari pool name (…-primary, …-replica-N) and is attached to the
+ * service's Micrometer registry, so hikaricp_* metrics are reported per route.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "lms.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaRoutingProperties.class)
+@Slf4j
+public class ReadReplicaRoutingConfig {
+
+    private static final String METER_REGISTRY_CLASS = "io.micrometer.core.instrument.MeterRegistry";
+
+    @Value("${spring.application.name:lms-service}")
+    private String serviceName;
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaRoutingProperties routing,
+                                                             Environment environment,
+                                                             ListableBeanFactory beanFactory) {
+        Object meterRegistry = meterRegistry(beanFactory);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(serviceName + "-" + ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricRegistry(meterRegistry);
+
+        String username = StringUtils.hasText(routing.getReplicaUsername())
+                ? routing.getReplicaUsername() : dataSourceProperties.determineUsername();
+        String password = StringUtils.hasText(routing.getReplicaPassword())
+                ? routing.getReplicaPassword() : dataSourceProperties.determinePassword();
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : routing.getReplicaUrls()) {
+            if (!StringUtils.hasText(url)) continue;
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setMaximumPoolSize(routing.getReplicaPoolSize());
+            replica.setReadOnly(true);
+            replica.setPoolName(serviceName + "-replica-" + replicas.size());
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+
+        log.info("Read-replica routing enabled: {} replica(s), max lag {}ms",
+                replicas.size(), routing.getMaxLagMs());
+        return new ReplicaRoutingDataSource(primary, replicas,
+                routing.getMaxLagMs(), routing.getLagCheckIntervalMs());
+    }
+
+    /**
+     * The DataSource JPA, Flyway and JdbcTemplate see. Lazy so routing is decided after the
+     * transaction manager has marked the transaction readOnly.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    /** Micrometer is present in every service image but not in this library's compile scope. */
+    private static Object meterRegistry(ListableBeanFactory beanFactory) {
+        if (!ClassUtils.isPresent(METER_REGISTRY_CLASS, null)) {
+            return null;
+        }
+        Class<?> type = ClassUtils.resolveClassName(METER_REGISTRY_CLASS, null);
+        return beanFactory.getBeanProvider(type).getIfAvailable();
+    }
+}
@@ -0,0 +1,36 @@
+package com.athena.lms.common.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing settings (lms.datasource.routing.*).
+ * The primary pool keeps using spring.datasource.* / spring.datasource.hikari.*.
+ */
+@Data
+@ConfigurationProperties(prefix = "lms.datasource.routing")
+public class ReadReplicaRoutingProperties {
+
+    /** Off by default — services keep a single primary pool unless explicitly enabled. */
+    private boolean enabled = false;
+
+    /** JDBC URLs of streaming replicas (comma-separated when set from an env var). */
+    private List<String> replicaUrls = new ArrayList<>();
+
+    /** Replica credentials; fall back to spring.datasource.username/password when blank. */
+    private String replicaUsername;
+    private String replicaPassword;
+
+    private int replicaPoolSize = 5;
+
+    /**
+     * Replicas lagging more than this are skipped. Also used as the read-your-writes window:
+     * a thread that wrote within the last maxLagMs keeps reading from the primary.
+     */
+    private long maxLagMs = 5000;
+
+    private long lagCheckIntervalMs = 2000;
+}
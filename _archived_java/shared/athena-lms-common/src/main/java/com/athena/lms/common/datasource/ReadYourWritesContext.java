@@ -0,0 +1,26 @@
+package com.athena.lms.common.datasource;
+
+/**
+ * ThreadLocal marker of the last read-write transaction on the current thread.
+ * Populated by ReplicaRoutingDataSource, cleared by ReadYourWritesFilter at the end of each request.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Long> LAST_WRITE_AT = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {}
+
+    public static void markWrite() {
+        LAST_WRITE_AT.set(System.currentTimeMillis());
+    }
+
+    /** True if this thread wrote within the given window (ms). */
+    public static boolean wroteWithin(long windowMs) {
+        Long at = LAST_WRITE_AT.get();
+        return at != null && System.currentTimeMillis() - at < windowMs;
+    }
+
+    public static void clear() {
+        LAST_WRITE_AT.remove();
+    }
+}
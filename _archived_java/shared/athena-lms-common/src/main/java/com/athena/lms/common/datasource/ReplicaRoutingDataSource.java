@@ -0,0 +1,170 @@
+package com.athena.lms.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes readOnly transactions to a healthy streaming replica and everything else to the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy so the lookup happens when the first statement
+ * runs — by then the transaction manager has published the readOnly flag.
+ * A replica is skipped while unreachable or lagging more than maxLagMs; with none left, reads
+ * fall back to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    /** Replay lag in ms; 0 when the replica has replayed everything it received, NULL on a primary. */
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final long lagCheckIntervalMs;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                    long maxLagMs, long lagCheckIntervalMs) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagMs = maxLagMs;
+        this.lagCheckIntervalMs = lagCheckIntervalMs;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(r -> targets.put(r.name(), r.pool));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (replicas.isEmpty()) {
+            log.warn("Read-replica routing enabled without replica URLs — all traffic stays on the primary");
+            return;
+        }
+        refreshReplicaLag();
+        lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-lag-check");
+            t.setDaemon(true);
+            return t;
+        });
+        lagChecker.scheduleWithFixedDelay(this::refreshReplicaLag,
+                lagCheckIntervalMs, lagCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWritesContext.markWrite();
+            }
+            return PRIMARY;
+        }
+        // A replica that passed the lag check is at most maxLagMs behind, so a write older
+        // than that is already visible there.
+        if (ReadYourWritesContext.wroteWithin(maxLagMs)) {
+            return PRIMARY;
+        }
+        Replica replica = nextUsableReplica();
+        return replica != null ? replica.name() : PRIMARY;
+    }
+
+    private Replica nextUsableReplica() {
+        int n = replicas.size();
+        if (n == 0) return null;
+        int start = Math.floorMod(cursor.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica candidate = replicas.get((start + i) % n);
+            if (candidate.usable) return candidate;
+        }
+        return null;
+    }
+
+    void refreshReplicaLag() {
+        for (Replica replica : replicas) {
+            boolean usable;
+            long lagMs;
+            try (Connection conn = replica.pool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(LAG_QUERY)) {
+                rs.next();
+                double lag = rs.getDouble(1);
+                if (rs.wasNull()) {
+                    // No replay timestamp: a primary, or a replica that has not replayed anything
+                    // yet. Either way there is no lag to trust, so it stays out of rotation.
+                    lagMs = -1;
+                    usable = false;
+                    log.debug("Replica lag check for {} returned no measurement", replica.name());
+                } else {
+                    lagMs = Math.round(lag);
+                    usable = lagMs <= maxLagMs;
+                }
+            } catch (Exception e) {
+                lagMs = -1;
+                usable = false;
+                log.debug("Replica lag check failed for {}: {}", replica.name(), e.getMessage());
+            }
+            if (usable != replica.usable) {
+                if (usable) {
+                    log.info("Replica {} back in rotation (lag {}ms)", replica.name(), lagMs);
+                } else {
+                    log.warn("Replica {} removed from rotation (lag {}ms, max {}ms) — reads fall back to primary",
+                            replica.name(), lagMs, maxLagMs);
+                }
+            }
+            replica.lagMs = lagMs;
+            replica.usable = usable;
+        }
+    }
+
+    /** Current replay lag per replica pool name (-1 = unreachable or not measurable). */
+    public Map<String, Long> getReplicaLagMs() {
+        Map<String, Long> lag = new HashMap<>();
+        replicas.forEach(r -> lag.put(r.name(), r.lagMs));
+        return lag;
+    }
+
+    @Override
+    public void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        replicas.forEach(r -> r.pool.close());
+        primary.close();
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private volatile long lagMs = -1;
+        private volatile boolean usable = false;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private String name() {
+            return pool.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.athena.lms.common.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of the multi-get endpoints (POST .../batch). Unknown ids are simply absent from the response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupRequest<T> {
+
+    public static final int MAX_IDS = 500;
+
+    @NotEmpty
+    @Size(max = MAX_IDS)
+    private List<T> ids;
+}
@@ -37,7 +37,10 @@ public class DomainEvent<T> {
     /** Tenant identifier for multi-tenant routing. */
     private String tenantId;
 
-    /** Correlation ID for distributed tracing — auto-populated from MDC requestId. */
+    /**
+     * Correlation ID for distributed tracing — auto-populated from MDC requestId, or the
+     * current traceId for events published outside an HTTP request (e.g. from a listener).
+     */
     private String correlationId;
 
     @Builder.Default
@@ -54,7 +57,7 @@ public class DomainEvent<T> {
                 .type(type)
                 .source(source)
                 .tenantId(tenantId)
-                .correlationId(MDC.get("requestId"))
+                .correlationId(MDC.get("requestId") != null ? MDC.get("requestId") : MDC.get("traceId"))
                 .payload(payload)
                 .build();
     }
@@ -15,6 +15,10 @@ public final class EventTypes {
     public static final String ACCOUNT_FROZEN           = "account.frozen";
     public static final String ACCOUNT_UNFROZEN         = "account.unfrozen";
     public static final String ACCOUNT_CLOSED           = "account.closed";
+    public static final String ACCOUNT_BULK_CREDIT_COMPLETED = "account.bulk.credit.completed";
+    public static final String ACCOUNT_INTEREST_CAPITALIZED = "account.interest.capitalized";
+    public static final String ACCOUNT_DORMANT          = "account.dormant";
+    public static final String ACCOUNT_REACTIVATED      = "account.reactivated";
 
     // ─── Loan origination events ───────────────────────────────────────────────
     public static final String LOAN_APPLICATION_SUBMITTED  = "loan.application.submitted";
@@ -0,0 +1,62 @@
+package com.athena.lms.common.sequence;
+
+/** Check digit schemes for formatted sequence numbers; each works on a string of decimal digits. */
+public enum CheckDigit {
+
+    NONE {
+        @Override
+        public String compute(String digits) {
+            return "";
+        }
+    },
+
+    /** One digit; catches every single-digit error and most adjacent transpositions. */
+    LUHN {
+        @Override
+        public String compute(String digits) {
+            int sum = 0;
+            boolean twice = true; // the rightmost payload digit is doubled once the check digit is appended
+            for (int i = digits.length() - 1; i >= 0; i--) {
+                int d = digit(digits, i);
+                if (twice) {
+                    d *= 2;
+                    if (d > 9) d -= 9;
+                }
+                sum += d;
+                twice = !twice;
+            }
+            return Integer.toString((10 - sum % 10) % 10);
+        }
+    },
+
+    /** ISO 7064 MOD 97-10, two digits (as in IBAN); catches all single errors and transpositions. */
+    MOD97 {
+        @Override
+        public String compute(String digits) {
+            int remainder = 0;
+            for (int i = 0; i < digits.length(); i++) {
+                remainder = (remainder * 10 + digit(digits, i)) % 97;
+            }
+            remainder = (remainder * 100) % 97;
+            return String.format("%02d", 98 - remainder);
+        }
+    };
+
+    /** The check digits to append to the given digits. */
+    public abstract String compute(String digits);
+
+    /** True when the value ends with the correct check digits for the digits before them. */
+    public boolean isValid(String digitsWithCheck) {
+        int width = compute("0").length();
+        if (digitsWithCheck == null || digitsWithCheck.length() <= width) return false;
+        if (!digitsWithCheck.chars().allMatch(c -> c >= '0' && c <= '9')) return false;
+        int split = digitsWithCheck.length() - width;
+        return compute(digitsWithCheck.substring(0, split)).equals(digitsWithCheck.substring(split));
+    }
+
+    private static int digit(String digits, int i) {
+        char c = digits.charAt(i);
+        if (c < '0' || c > '9') throw new IllegalArgumentException("Not a digit string: " + digits);
+        return c - '0';
+    }
+}
@@ -0,0 +1,22 @@
+package com.athena.lms.common.sequence;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/** Block-allocated sequences, active only with lms.sequence.enabled=true. */
+@Configuration
+@ConditionalOnProperty(prefix = "lms.sequence", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SequenceProperties.class)
+public class SequenceConfig {
+
+    @Bean
+    public SequenceService sequenceService(SequenceProperties properties, DataSource dataSource,
+                                           PlatformTransactionManager transactionManager) {
+        return new SequenceService(properties, dataSource, transactionManager);
+    }
+}
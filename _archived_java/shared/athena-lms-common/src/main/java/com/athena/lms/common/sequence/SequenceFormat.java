@@ -0,0 +1,110 @@
+package com.athena.lms.common.sequence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled number pattern such as "FRD-{seq:05}" or "ACC-{tenant:3}-{seq:09}{check}".
+ * See {@link SequenceProperties.Format} for the placeholders.
+ */
+public final class SequenceFormat {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(seq|tenant|check)(?::(\\d+))?}");
+
+    private sealed interface Part permits Literal, Seq, Tenant, Check {}
+    private record Literal(String text) implements Part {}
+    private record Seq(int width) implements Part {}
+    private record Tenant(int length) implements Part {}
+    private record Check() implements Part {}
+
+    private final String pattern;
+    private final CheckDigit checkDigit;
+    private final List<Part> parts;
+
+    private SequenceFormat(String pattern, CheckDigit checkDigit, List<Part> parts) {
+        this.pattern = pattern;
+        this.checkDigit = checkDigit;
+        this.parts = parts;
+    }
+
+    public static SequenceFormat compile(String pattern, CheckDigit checkDigit) {
+        List<Part> parts = new ArrayList<>();
+        Matcher m = PLACEHOLDER.matcher(pattern);
+        int last = 0;
+        boolean seq = false;
+        while (m.find()) {
+            if (m.start() > last) parts.add(new Literal(pattern.substring(last, m.start())));
+            int arg = m.group(2) != null ? Integer.parseInt(m.group(2)) : 0;
+            switch (m.group(1)) {
+                case "seq" -> {
+                    parts.add(new Seq(arg));
+                    seq = true;
+                }
+                case "tenant" -> parts.add(new Tenant(arg));
+                default -> {
+                    if (!seq) throw new IllegalArgumentException("{check} must follow {seq}: " + pattern);
+                    parts.add(new Check());
+                }
+            }
+            last = m.end();
+        }
+        if (last < pattern.length()) parts.add(new Literal(pattern.substring(last)));
+        if (!seq) throw new IllegalArgumentException("Sequence pattern has no {seq}: " + pattern);
+        if (checkDigit != CheckDigit.NONE && parts.stream().noneMatch(p -> p instanceof Check)) {
+            throw new IllegalArgumentException("Sequence pattern with a check digit needs {check}: " + pattern);
+        }
+        return new SequenceFormat(pattern, checkDigit, List.copyOf(parts));
+    }
+
+    /**
+     * The counter a tenant's numbers are drawn from. A pattern that renders the tenant keys its
+     * counter by the rendered text, so tenants whose ids render alike ({tenant:3} for "acme"
+     * and "ACME-EAST") share one counter and never draw the same number; any other pattern
+     * counts per tenant.
+     */
+    public String scope(String tenantId) {
+        StringBuilder scope = null;
+        for (Part part : parts) {
+            if (part instanceof Tenant t) {
+                if (scope == null) scope = new StringBuilder();
+                scope.append(tenant(tenantId, t));
+            }
+        }
+        return scope != null ? scope.toString() : tenantId;
+    }
+
+    public String format(String tenantId, long value) {
+        StringBuilder out = new StringBuilder(pattern.length() + 16);
+        String digits = "";
+        for (Part part : parts) {
+            if (part instanceof Literal literal) {
+                out.append(literal.text());
+            } else if (part instanceof Seq s) {
+                digits = s.width() > 0 ? String.format("%0" + s.width() + "d", value) : Long.toString(value);
+                out.append(digits);
+            } else if (part instanceof Tenant t) {
+                out.append(tenant(tenantId, t));
+            } else {
+                out.append(checkDigit.compute(digits));
+            }
+        }
+        return out.toString();
+    }
+
+    private static String tenant(String tenantId, Tenant t) {
+        String tenant = tenantId.toUpperCase(Locale.ROOT);
+        return t.length() > 0 && tenant.length() > t.length() ? tenant.substring(0, t.length()) : tenant;
+    }
+
+    public CheckDigit getCheckDigit() {
+        return checkDigit;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,39 @@
+package com.athena.lms.common.sequence;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Block-allocated sequence settings (lms.sequence.*). Each service that enables them needs
+ * the lms_sequences table in its own schema (see {@link SequenceService}).
+ */
+@Data
+@ConfigurationProperties(prefix = "lms.sequence")
+public class SequenceProperties {
+
+    /** Off by default — only services that issue human-readable numbers turn it on. */
+    private boolean enabled = false;
+
+    /** Numbers leased per database round trip when a format does not set its own. */
+    private int defaultBlockSize = 50;
+
+    /** Formats by sequence name, e.g. lms.sequence.formats.fraud-case.pattern=FRD-{seq:05}. */
+    private Map<String, Format> formats = new LinkedHashMap<>();
+
+    @Data
+    public static class Format {
+        /**
+         * Literal text with {seq} or {seq:0N} (zero-padded to N digits), {tenant} or
+         * {tenant:N} (first N characters, upper-cased) and {check} (check digits over {seq}).
+         */
+        private String pattern = "{seq}";
+        private CheckDigit checkDigit = CheckDigit.NONE;
+        /** Numbers leased at a time; larger blocks mean fewer round trips but bigger gaps after a restart. */
+        private Integer blockSize;
+        /** First value of a sequence that has never been leased. */
+        private long start = 1;
+    }
+}
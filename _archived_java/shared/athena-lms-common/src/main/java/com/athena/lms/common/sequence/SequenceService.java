@@ -0,0 +1,139 @@
+package com.athena.lms.common.sequence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant, per-name counters for human-readable numbers (case, report and account
+ * numbers), unique across threads and replicas without a database round trip per number.
+ *
+ * Each replica leases a block of values at a time with a single upsert on lms_sequences, in
+ * its own short transaction so the row lock is released at once, and hands the block out from
+ * memory: the common path is one atomic increment. Numbers are unique and increase within a
+ * replica, but are not gap-free (a restart abandons the rest of a block) and replicas
+ * interleave. A format that renders the tenant into the number counts per rendered prefix
+ * rather than per tenant (see {@link SequenceFormat#scope}), and its rows in lms_sequences are
+ * keyed by that prefix. Services that enable this need the table in their schema:
+ *
+ * <pre>
+ * CREATE TABLE lms_sequences (
+ *     tenant_id     VARCHAR(50)  NOT NULL,
+ *     sequence_name VARCHAR(100) NOT NULL,
+ *     next_value    BIGINT       NOT NULL,
+ *     updated_at    TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+ *     PRIMARY KEY (tenant_id, sequence_name)
+ * );
+ * </pre>
+ */
+@Slf4j
+public class SequenceService {
+
+    // next_value is the first value nobody has leased; the returned row gives the end of our block
+    private static final String LEASE_SQL =
+            "INSERT INTO lms_sequences AS s (tenant_id, sequence_name, next_value) VALUES (?, ?, ?) " +
+            "ON CONFLICT (tenant_id, sequence_name) " +
+            "DO UPDATE SET next_value = s.next_value + ?, updated_at = NOW() " +
+            "RETURNING next_value";
+
+    private final SequenceProperties properties;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate leaseTransaction;
+    private final Map<String, SequenceFormat> formats = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public SequenceService(SequenceProperties properties, DataSource dataSource,
+                           PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        // A lease must not wait for, or roll back with, the caller's transaction
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        properties.getFormats().forEach((name, format) ->
+                formats.put(name, SequenceFormat.compile(format.getPattern(), format.getCheckDigit())));
+    }
+
+    /** The next value of the tenant's sequence. */
+    public long next(String tenantId, String sequence) {
+        String scope = format(sequence).scope(tenantId);
+        return counters.computeIfAbsent(scope + '\u0000' + sequence, k -> new Counter(scope, sequence)).next();
+    }
+
+    /** The next value of the tenant's sequence, rendered with the sequence's configured format. */
+    public String nextFormatted(String tenantId, String sequence) {
+        return format(sequence).format(tenantId, next(tenantId, sequence));
+    }
+
+    /**
+     * Reserves {@code count} consecutive values of the tenant's sequence with one upsert, for
+     * bulk work that would otherwise drain the replica's block many times over, and returns
+     * the first. The replica's current block is left as it is.
+     */
+    public long reserve(String tenantId, String sequence, int count) {
+        if (count < 1) throw new IllegalArgumentException("count must be positive");
+        return lease(format(sequence).scope(tenantId), sequence, count) - count;
+    }
+
+    public SequenceFormat format(String sequence) {
+        return formats.computeIfAbsent(sequence, k -> SequenceFormat.compile("{seq}", CheckDigit.NONE));
+    }
+
+    /** Leases [end - size, end) of the scope's counter and returns end. */
+    long lease(String scope, String sequence, int size) {
+        SequenceProperties.Format format = properties.getFormats().get(sequence);
+        long start = format != null ? format.getStart() : 1;
+        Long end = leaseTransaction.execute(status ->
+                jdbc.queryForObject(LEASE_SQL, Long.class, scope, sequence, start + size, size));
+        if (end == null) throw new IllegalStateException("No block leased for sequence " + sequence);
+        log.debug("Leased {} {} values for {}: [{}, {})", size, sequence, scope, end - size, end);
+        return end;
+    }
+
+    private int blockSize(String sequence) {
+        SequenceProperties.Format format = properties.getFormats().get(sequence);
+        Integer size = format != null ? format.getBlockSize() : null;
+        return Math.max(1, size != null ? size : properties.getDefaultBlockSize());
+    }
+
+    // ─── Blocks ──────────────────────────────────────────────────────────────
+
+    private record Block(AtomicLong next, long end) {
+        static final Block EMPTY = new Block(new AtomicLong(), 0);
+    }
+
+    private final class Counter {
+
+        private final String scope;
+        private final String sequence;
+        private volatile Block block = Block.EMPTY;
+
+        Counter(String scope, String sequence) {
+            this.scope = scope;
+            this.sequence = sequence;
+        }
+
+        long next() {
+            while (true) {
+                Block current = block;
+                long value = current.next().getAndIncrement();
+                if (value < current.end()) return value;
+                refill(current);
+            }
+        }
+
+        // Only the thread that finds the block exhausted leases; the others wait here, then retry
+        private synchronized void refill(Block exhausted) {
+            if (block != exhausted) return;
+            int size = blockSize(sequence);
+            long end = lease(scope, sequence, size);
+            block = new Block(new AtomicLong(end - size), end);
+        }
+    }
+}
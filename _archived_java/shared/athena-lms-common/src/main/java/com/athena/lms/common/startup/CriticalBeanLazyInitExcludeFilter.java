@@ -0,0 +1,75 @@
+package com.athena.lms.common.startup;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Keeps the beans a service cannot run without eager when lazy initialization is on:
+ * - connection pools, JPA and Flyway, so a bad database fails startup (and migrations run)
+ *   instead of the first request
+ * - RabbitMQ topology
+ * - beans with @RabbitListener or @Scheduled methods, which are only registered once the
+ *   bean exists and would otherwise never consume or fire
+ * Everything else (controllers, services, clients, OpenAPI) is created on first use.
+ */
+@Component
+public class CriticalBeanLazyInitExcludeFilter implements LazyInitializationExcludeFilter {
+
+    private static final List<String> EAGER_TYPES = List.of(
+            "javax.sql.DataSource",
+            "jakarta.persistence.EntityManagerFactory",
+            "org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer",
+            "org.springframework.amqp.core.Declarable"
+    );
+
+    // By name: amqp is optional for common
+    private static final List<String> EAGER_ANNOTATIONS = List.of(
+            "org.springframework.amqp.rabbit.annotation.RabbitListener",
+            "org.springframework.amqp.rabbit.annotation.RabbitListeners",
+            "org.springframework.amqp.rabbit.annotation.RabbitHandler",
+            "org.springframework.scheduling.annotation.Scheduled",
+            "org.springframework.scheduling.annotation.Schedules"
+    );
+
+    private final List<Class<?>> eagerTypes;
+
+    public CriticalBeanLazyInitExcludeFilter() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        this.eagerTypes = EAGER_TYPES.stream()
+                .filter(name -> ClassUtils.isPresent(name, classLoader))
+                .<Class<?>>map(name -> ClassUtils.resolveClassName(name, classLoader))
+                .toList();
+    }
+
+    @Override
+    public boolean isExcluded(String beanName, BeanDefinition beanDefinition, Class<?> beanType) {
+        if (beanType == null) return false;
+        for (Class<?> eagerType : eagerTypes) {
+            if (eagerType.isAssignableFrom(beanType)) return true;
+        }
+        return hasEagerAnnotations(ClassUtils.getUserClass(beanType));
+    }
+
+    private static boolean hasEagerAnnotations(Class<?> type) {
+        if (isAnnotated(MergedAnnotations.from(type, SearchStrategy.TYPE_HIERARCHY))) return true;
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type, ReflectionUtils.USER_DECLARED_METHODS)) {
+            if (isAnnotated(MergedAnnotations.from(method, SearchStrategy.TYPE_HIERARCHY))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isAnnotated(MergedAnnotations annotations) {
+        for (String annotation : EAGER_ANNOTATIONS) {
+            if (annotations.isPresent(annotation)) return true;
+        }
+        return false;
+    }
+}
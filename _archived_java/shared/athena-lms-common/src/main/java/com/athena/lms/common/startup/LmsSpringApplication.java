@@ -0,0 +1,25 @@
+package com.athena.lms.common.startup;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Entry point shared by the LMS services, in place of SpringApplication.run:
+ * 1. Lazy initialization on by default; infrastructure and message/scheduler beans stay
+ *    eager (see CriticalBeanLazyInitExcludeFilter). Disable with SPRING_MAIN_LAZY_INITIALIZATION=false.
+ * 2. Startup steps are buffered for StartupTimingListener and /actuator/startup.
+ */
+public final class LmsSpringApplication {
+
+    private static final int STARTUP_STEP_CAPACITY = 4096;
+
+    private LmsSpringApplication() {}
+
+    public static ConfigurableApplicationContext run(Class<?> primarySource, String... args) {
+        SpringApplication app = new SpringApplication(primarySource);
+        app.setLazyInitialization(true); // spring.main.lazy-initialization still overrides
+        app.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        return app.run(args);
+    }
+}
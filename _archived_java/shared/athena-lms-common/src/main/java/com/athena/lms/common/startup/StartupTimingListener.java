@@ -0,0 +1,62 @@
+package com.athena.lms.common.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Logs how long the service took to become ready and which beans were slowest to create,
+ * so startup regressions show up in the logs of every deploy. Bean timings are inclusive
+ * (a bean's time covers the dependencies it pulled in) and only available when the service
+ * starts through LmsSpringApplication. The ready time is also exported by actuator as
+ * application.ready.time.
+ */
+@Slf4j
+@Component
+public class StartupTimingListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+
+    @Value("${spring.application.name:lms-service}")
+    private String serviceName;
+
+    @Value("${lms.startup.slowest-beans:10}")
+    private int slowestBeans;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Duration ready = event.getTimeTaken();
+        log.info("Startup: {} ready in {} ms (aot={})", serviceName,
+                ready != null ? ready.toMillis() : -1, AotDetector.useGeneratedArtifacts());
+
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (startup instanceof BufferingApplicationStartup buffering && slowestBeans > 0) {
+            // getBufferedTimeline() leaves the buffer for /actuator/startup
+            String slowest = buffering.getBufferedTimeline().getEvents().stream()
+                    .filter(e -> BEAN_INSTANTIATE_STEP.equals(e.getStartupStep().getName()))
+                    .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                    .limit(slowestBeans)
+                    .map(e -> beanName(e.getStartupStep()) + "=" + e.getDuration().toMillis() + "ms")
+                    .collect(Collectors.joining(", "));
+            log.info("Startup: slowest beans {}", slowest);
+        }
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) return tag.getValue();
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,47 @@
+package com.athena.lms.common.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.micrometer.RabbitMessageReceiverContext;
+import org.springframework.amqp.rabbit.support.micrometer.RabbitMessageSenderContext;
+
+import java.util.Date;
+
+/**
+ * Tags RabbitMQ publish/consume observations with lms.event.type (the routing key), so
+ * spans and the spring.rabbit.* timers can be split per event. Consumer spans also get
+ * lms.queue.wait.ms: time between publish (message timestamp, set by lmsRabbitTemplate)
+ * and the start of the listener. Runs on start, before the listener does any work.
+ */
+public class EventObservationHandler implements ObservationHandler<Observation.Context> {
+
+    public static final String EVENT_TYPE_KEY = "lms.event.type";
+    public static final String QUEUE_WAIT_KEY = "lms.queue.wait.ms";
+
+    @Override
+    public void onStart(Observation.Context context) {
+        if (context instanceof RabbitMessageReceiverContext receiver) {
+            MessageProperties properties = receiver.getCarrier().getMessageProperties();
+            if (properties.getReceivedRoutingKey() != null) {
+                receiver.addLowCardinalityKeyValue(KeyValue.of(EVENT_TYPE_KEY, properties.getReceivedRoutingKey()));
+            }
+            Date published = properties.getTimestamp();
+            if (published != null) {
+                long waitMs = Math.max(0, System.currentTimeMillis() - published.getTime());
+                receiver.addHighCardinalityKeyValue(KeyValue.of(QUEUE_WAIT_KEY, Long.toString(waitMs)));
+            }
+        } else if (context instanceof RabbitMessageSenderContext sender && sender.getDestination() != null) {
+            // destination is "exchange/routingKey"
+            String destination = sender.getDestination();
+            sender.addLowCardinalityKeyValue(KeyValue.of(EVENT_TYPE_KEY,
+                    destination.substring(destination.lastIndexOf('/') + 1)));
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof RabbitMessageReceiverContext || context instanceof RabbitMessageSenderContext;
+    }
+}
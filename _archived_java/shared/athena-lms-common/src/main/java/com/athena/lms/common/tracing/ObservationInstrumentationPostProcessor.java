@@ -0,0 +1,42 @@
+package com.athena.lms.common.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.lang.NonNull;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Adds observations (spans + timers) to the clients services build themselves:
+ * - RestTemplate beans made with new RestTemplate(), which Boot only instruments when they
+ *   come from RestTemplateBuilder; with a tracer present this also sends traceparent
+ * - Spring Data repositories, see RepositoryObservationInterceptor
+ */
+public class ObservationInstrumentationPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ObservationRegistry> registryProvider;
+
+    public ObservationInstrumentationPostProcessor(ObjectProvider<ObservationRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+            repositoryFactoryBean.addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, metadata) ->
+                            proxyFactory.addAdvice(new RepositoryObservationInterceptor(
+                                    registryProvider, metadata.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof RestTemplate restTemplate && restTemplate.getObservationRegistry().isNoop()) {
+            registryProvider.ifAvailable(restTemplate::setObservationRegistry);
+        }
+        return bean;
+    }
+}
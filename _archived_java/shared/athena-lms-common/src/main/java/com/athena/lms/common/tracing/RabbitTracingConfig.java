@@ -0,0 +1,37 @@
+package com.athena.lms.common.tracing;
+
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+
+/**
+ * Tracing across the event bus. lmsRabbitTemplate observes every publish and writes the
+ * trace context into the message headers; here every listener container factory gets
+ * observations too, so each @RabbitListener call is a consumer span continuing the
+ * publisher's trace.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.amqp.rabbit.core.RabbitTemplate")
+public class RabbitTracingConfig {
+
+    @Bean
+    public static BeanPostProcessor rabbitListenerObservationPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof AbstractRabbitListenerContainerFactory<?> factory) {
+                    factory.setObservationEnabled(true);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public EventObservationHandler eventObservationHandler() {
+        return new EventObservationHandler();
+    }
+}
@@ -0,0 +1,60 @@
+package com.athena.lms.common.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Wraps every Spring Data repository call in an "lms.repository" observation:
+ * a child span named Repository.method and a timer tagged repository/method.
+ */
+class RepositoryObservationInterceptor implements MethodInterceptor {
+
+    static final String OBSERVATION_NAME = "lms.repository";
+
+    private final ObjectProvider<ObservationRegistry> registryProvider;
+    private final String repositoryName;
+    private volatile ObservationRegistry registry;
+
+    RepositoryObservationInterceptor(ObjectProvider<ObservationRegistry> registryProvider, Class<?> repositoryInterface) {
+        this.registryProvider = registryProvider;
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ObservationRegistry observationRegistry = registry();
+        if (observationRegistry.isNoop()) {
+            return invocation.proceed();
+        }
+
+        String method = invocation.getMethod().getName();
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName(repositoryName + "." + method)
+                .lowCardinalityKeyValue("repository", repositoryName)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    // Looked up on each call until the registry bean exists. A repository can be called while
+    // the context is still being built; caching NOOP then would turn its spans off for good.
+    private ObservationRegistry registry() {
+        ObservationRegistry resolved = registry;
+        if (resolved == null) {
+            resolved = registryProvider.getIfAvailable();
+            if (resolved == null) return ObservationRegistry.NOOP;
+            registry = resolved;
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,26 @@
+package com.athena.lms.common.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Client-side instrumentation shared by all servlet services. Spans are exported by the
+ * service's tracing bridge (micrometer-tracing-bridge-otel + OTLP exporter); without one,
+ * observations only feed Micrometer timers.
+ */
+@Configuration
+@ConditionalOnClass(name = {
+        "org.springframework.web.client.RestTemplate",
+        "org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport"
+})
+public class TracingConfig {
+
+    @Bean
+    public static ObservationInstrumentationPostProcessor observationInstrumentationPostProcessor(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new ObservationInstrumentationPostProcessor(observationRegistry);
+    }
+}
@@ -0,0 +1,354 @@
+package com.athena.lms.common.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditWriterTest {
+
+    @TempDir
+    Path spillDir;
+
+    // Every INSERT the writer ran, and the record ids in the ones the database accepted
+    private final List<String> inserts = new CopyOnWriteArrayList<>();
+    private final Set<UUID> stored = ConcurrentHashMap.newKeySet();
+    private volatile boolean databaseDown;
+    private final Set<String> rejectedActions = ConcurrentHashMap.newKeySet();
+
+    private final AuditProperties properties = new AuditProperties();
+    private AuditWriter writer;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        properties.setTable("audit_log");
+        properties.setSpillDir(spillDir.toString());
+        properties.setBatchSize(3);
+        properties.setFlushIntervalMs(200);
+        properties.setOfferTimeoutMs(0);
+        properties.setReplayIntervalMs(50);
+        properties.setShutdownTimeoutMs(5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) writer.stop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private AuditWriter writer() throws SQLException {
+        writer = new AuditWriter(properties, dataSource(), ObservationRegistry.NOOP);
+        return writer;
+    }
+
+    // A statement per INSERT that remembers the record ids (parameter 1 of each row) bound to it
+    private DataSource dataSource() throws SQLException {
+        Connection connection = mock(Connection.class);
+        // Null parameters are bound the way Spring binds them for the PostgreSQL driver
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDriverName()).thenReturn("PostgreSQL JDBC Driver");
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.prepareStatement(anyString())).thenAnswer(inv -> {
+            String sql = inv.getArgument(0);
+            inserts.add(sql);
+            int columns = AuditField.values().length;
+            List<UUID> ids = new CopyOnWriteArrayList<>();
+            List<String> actions = new CopyOnWriteArrayList<>();
+            PreparedStatement ps = mock(PreparedStatement.class);
+            when(ps.getConnection()).thenReturn(connection);
+            doAnswer(set -> {
+                int index = set.getArgument(0);
+                if ((index - 1) % columns == AuditField.ID.ordinal()) ids.add(set.getArgument(1));
+                return null;
+            }).when(ps).setObject(anyInt(), any());
+            doAnswer(set -> {
+                int index = set.getArgument(0);
+                if ((index - 1) % columns == AuditField.ACTION.ordinal()) actions.add(set.getArgument(1));
+                return null;
+            }).when(ps).setString(anyInt(), any());
+            when(ps.executeUpdate()).thenAnswer(run -> {
+                if (databaseDown) throw new SQLTransientConnectionException("connection refused");
+                if (actions.stream().anyMatch(rejectedActions::contains)) {
+                    throw new SQLIntegrityConstraintViolationException("value too long for column action");
+                }
+                stored.addAll(ids);
+                return ids.size();
+            });
+            return ps;
+        });
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static AuditRecord record(String action) {
+        return AuditRecord.builder()
+                .id(UUID.randomUUID())
+                .tenantId("t1")
+                .entityType("CASE")
+                .entityId(UUID.randomUUID())
+                .action(action)
+                .actor("analyst")
+                .after(Map.of("status", "OPEN"))
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static int rows(String sql) {
+        return sql.split("\\), \\(").length;
+    }
+
+    @Nested
+    @DisplayName("Transactional hand-off")
+    class HandOffTests {
+
+        @Test
+        @DisplayName("a record captured in a transaction is written only once it commits")
+        void writtenAfterCommit() throws Exception {
+            writer().start();
+            AuditRecord record = record("CREATE");
+
+            TransactionSynchronizationManager.initSynchronization();
+            writer.record(record);
+            Thread.sleep(300);
+            assertThat(inserts).isEmpty();
+            assertThat(writer.stats().captured()).isZero();
+
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+            await(() -> stored.contains(record.id()));
+        }
+
+        @Test
+        @DisplayName("a record captured in a transaction that rolls back is never written")
+        void droppedOnRollback() throws Exception {
+            writer().start();
+
+            TransactionSynchronizationManager.initSynchronization();
+            writer.record(record("CREATE"));
+            writer.record(record("UPDATE"));
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+            writer.stop();
+
+            assertThat(inserts).isEmpty();
+            assertThat(writer.stats().captured()).isZero();
+            assertThat(spillDir).isEmptyDirectory();
+        }
+
+        @Test
+        @DisplayName("outside a transaction a record is handed over at once, with an id and timestamp")
+        void noTransaction() throws Exception {
+            writer().start();
+            AuditRecord bare = AuditRecord.builder().tenantId("t1").action("LOGIN").build();
+
+            writer.record(bare);
+
+            await(() -> writer.stats().written() == 1);
+            assertThat(stored).hasSize(1).doesNotContainNull();
+        }
+
+        private void complete(int status) {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(s -> s.afterCompletion(status));
+        }
+    }
+
+    @Nested
+    @DisplayName("Flushing")
+    class FlushTests {
+
+        @Test
+        @DisplayName("records go out as multi-row inserts of up to batch-size rows")
+        void multiRow() throws Exception {
+            writer();
+            for (int i = 0; i < 7; i++) writer.record(record("UPDATE"));
+            // Buffered before the writer starts, so the batches are 3, 3 and 1
+            writer.start();
+
+            await(() -> writer.stats().written() == 7);
+            assertThat(inserts).hasSize(3);
+            assertThat(inserts).extracting(AuditWriterTest::rows).containsExactly(3, 3, 1);
+            assertThat(inserts.get(0))
+                    .startsWith("INSERT INTO audit_log (id, tenant_id, entity_type, entity_id, action, actor, description, "
+                            + "before_snapshot, after_snapshot, details, created_at) VALUES (")
+                    .contains("CAST(? AS jsonb)")
+                    .endsWith(" ON CONFLICT DO NOTHING");
+        }
+
+        @Test
+        @DisplayName("a record the table rejects is dropped and the rest of its batch still written")
+        void rejectedRecord() throws Exception {
+            rejectedActions.add("BAD");
+            writer();
+            AuditRecord good = record("UPDATE");
+            AuditRecord bad = record("BAD");
+            AuditRecord other = record("UPDATE");
+            writer.record(good);
+            writer.record(bad);
+            writer.record(other);
+            writer.start();
+
+            await(() -> writer.stats().written() == 2);
+            assertThat(stored).containsExactlyInAnyOrder(good.id(), other.id());
+            assertThat(writer.stats().dropped()).isEqualTo(1);
+            assertThat(writer.stats().spilled()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Spill")
+    class SpillTests {
+
+        @Test
+        @DisplayName("records that do not fit the buffer are spilled, then replayed once the writer runs")
+        void bufferFull() throws Exception {
+            properties.setCapacity(1);
+            writer();
+            AuditRecord buffered = record("CREATE");
+            AuditRecord first = record("UPDATE");
+            AuditRecord second = record("UPDATE");
+            writer.record(buffered);
+            writer.record(first);
+            writer.record(second);
+
+            assertThat(writer.stats().spilled()).isEqualTo(2);
+            assertThat(writer.stats().buffered()).isEqualTo(1);
+            assertThat(spillLines()).hasSize(2);
+
+            writer.start();
+            await(() -> stored.size() == 3);
+            assertThat(stored).containsExactlyInAnyOrder(buffered.id(), first.id(), second.id());
+            await(() -> spillFiles().isEmpty());
+        }
+
+        @Test
+        @DisplayName("records spilled before a restart are replayed when the writer starts")
+        void replayOnStartup() throws Exception {
+            AuditRecord first = record("CREATE");
+            AuditRecord second = record("UPDATE");
+            new AuditSpill(spillDir, mapper()).append(List.of(first, second));
+
+            writer().start();
+
+            await(() -> stored.size() == 2);
+            assertThat(stored).containsExactlyInAnyOrder(first.id(), second.id());
+            await(() -> spillFiles().isEmpty());
+        }
+
+        @Test
+        @DisplayName("a batch the database refuses is spilled and replayed once it is back")
+        void databaseDown() throws Exception {
+            databaseDown = true;
+            writer().start();
+            AuditRecord record = record("CREATE");
+
+            writer.record(record);
+            await(() -> writer.stats().spilled() == 1);
+            assertThat(stored).isEmpty();
+
+            databaseDown = false;
+            await(() -> stored.contains(record.id()));
+        }
+
+        @Test
+        @DisplayName("replay skips a line torn by a crash and keeps the records around it")
+        void tornLine() throws Exception {
+            AuditSpill spill = new AuditSpill(spillDir, mapper());
+            AuditRecord before = record("CREATE");
+            AuditRecord after = record("UPDATE");
+            spill.append(List.of(before));
+            Files.writeString(spillDir.resolve("audit-spill.jsonl"), "{\"id\":\"", StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND);
+            Files.writeString(spillDir.resolve("audit-spill.jsonl"), "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND);
+            spill.append(List.of(after));
+
+            List<UUID> replayed = new CopyOnWriteArrayList<>();
+            int count = spill.replay(10, batch -> batch.forEach(r -> replayed.add(r.id())));
+
+            assertThat(count).isEqualTo(2);
+            assertThat(replayed).containsExactly(before.id(), after.id());
+            assertThat(spill.hasPending()).isFalse();
+            assertThat(spillFiles()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("a replay that fails keeps its file for the next attempt")
+        void failedReplayKeepsFile() throws Exception {
+            AuditSpill spill = new AuditSpill(spillDir, mapper());
+            spill.append(List.of(record("CREATE")));
+
+            try {
+                spill.replay(10, batch -> {
+                    throw new IllegalStateException("database unavailable");
+                });
+            } catch (IllegalStateException expected) {
+                // the writer logs this and retries after replay-interval-ms
+            }
+
+            assertThat(spillFiles()).hasSize(1);
+            assertThat(spill.replay(10, batch -> { })).isEqualTo(1);
+            assertThat(spillFiles()).isEmpty();
+        }
+
+        private List<String> spillLines() throws Exception {
+            return Files.readAllLines(spillDir.resolve("audit-spill.jsonl"));
+        }
+
+        private List<Path> spillFiles() {
+            try (Stream<Path> files = Files.list(spillDir)) {
+                return files.toList();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        // As AuditWriter configures it
+        private ObjectMapper mapper() {
+            return new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.athena.lms.common.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchLoaderTest {
+
+    // Long enough that any test waiting it out would time out
+    private static final Duration WINDOW = Duration.ofSeconds(30);
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+    private final List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+    // Key 0 holds its call in flight until released, so later callers see contention
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseBlocker = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        releaseBlocker.countDown();
+        pool.shutdownNow();
+    }
+
+    private Map<Integer, String> lookup(List<Integer> keys) {
+        calls.add(keys);
+        if (keys.contains(0)) {
+            blockerStarted.countDown();
+            try {
+                releaseBlocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return keys.stream().collect(Collectors.toMap(Function.identity(), k -> "v" + k));
+    }
+
+    private Future<String> blockInFlight(BatchLoader<Integer, String> loader) throws InterruptedException {
+        Future<String> blocker = pool.submit(() -> loader.load(0));
+        assertThat(blockerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        return blocker;
+    }
+
+    @Test
+    @DisplayName("an idle loader dispatches at once instead of waiting out the window")
+    void idleDispatchesAtOnce() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", WINDOW, 100, this::lookup);
+
+        long started = System.nanoTime();
+        assertThat(loader.load(1)).isEqualTo("v1");
+        assertThat(loader.load(2)).isEqualTo("v2");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        assertThat(calls).containsExactly(List.of(1), List.of(2));
+    }
+
+    @Test
+    @DisplayName("callers arriving while a call is in flight share one call once it returns")
+    void coalescesUnderContention() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", WINDOW, 100, this::lookup);
+        Future<String> blocker = blockInFlight(loader);
+
+        Future<String> first = pool.submit(() -> loader.load(1));
+        Future<String> second = pool.submit(() -> loader.load(2));
+        Thread.sleep(100);
+        assertThat(first).isNotDone();
+        releaseBlocker.countDown();
+
+        assertThat(blocker.get(5, TimeUnit.SECONDS)).isEqualTo("v0");
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+        assertThat(calls).hasSize(2);
+        assertThat(calls.get(1)).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    @DisplayName("a forming batch goes when the window passes even if the call in flight has not returned")
+    void windowBoundsTheWait() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", Duration.ofMillis(50), 100, this::lookup);
+        blockInFlight(loader);
+
+        Future<String> waiting = pool.submit(() -> loader.load(1));
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+        assertThat(calls).containsExactly(List.of(0), List.of(1));
+    }
+
+    @Test
+    @DisplayName("a full batch releases its leader without waiting for the call in flight")
+    void fullBatchFlushesAtOnce() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", WINDOW, 2, this::lookup);
+        Future<String> blocker = blockInFlight(loader);
+
+        Future<String> leader = pool.submit(() -> loader.load(1));
+        Thread.sleep(50);
+        Future<String> filler = pool.submit(() -> loader.load(2));
+
+        assertThat(filler.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("v1");
+        assertThat(blocker).isNotDone();
+    }
+
+    @Test
+    @DisplayName("an Error from the batch function reaches every caller of the batch")
+    void errorCompletesAllCallers() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", WINDOW, 2, keys -> {
+            if (keys.contains(0)) return lookup(keys);
+            throw new StackOverflowError("boom");
+        });
+        Future<String> blocker = blockInFlight(loader);
+
+        Future<String> leader = pool.submit(() -> loader.load(1));
+        Thread.sleep(50);
+        Future<String> filler = pool.submit(() -> loader.load(2));
+
+        assertThatThrownBy(() -> filler.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+
+        // Neither the failed batch nor the finished call still counts as in flight, so the next
+        // caller is dispatched at once rather than after the window
+        releaseBlocker.countDown();
+        assertThat(blocker.get(5, TimeUnit.SECONDS)).isEqualTo("v0");
+        Future<String> next = pool.submit(() -> loader.load(3));
+        assertThatThrownBy(() -> next.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+    }
+
+    @Test
+    @DisplayName("keys the batch function did not return resolve to null")
+    void missingKeys() {
+        BatchLoader<Integer, String> loader = new BatchLoader<>("test", Duration.ZERO, 10, keys -> Map.of(1, "v1"));
+
+        assertThat(loader.load(1)).isEqualTo("v1");
+        assertThat(loader.load(2)).isNull();
+    }
+}
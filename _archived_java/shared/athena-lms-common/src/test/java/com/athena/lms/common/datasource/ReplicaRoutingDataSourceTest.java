@@ -0,0 +1,114 @@
+package com.athena.lms.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    @Test
+    @DisplayName("a measured lag under the limit keeps the replica in rotation")
+    void measuredLag() throws SQLException {
+        HikariDataSource replica = replicaReturning(120.4, false);
+        ReplicaRoutingDataSource routing = routing(replica);
+
+        routing.refreshReplicaLag();
+
+        assertThat(routing.getReplicaLagMs()).containsEntry("replica-1", 120L);
+        assertThat(readRoute(routing)).isEqualTo("replica-1");
+    }
+
+    @Test
+    @DisplayName("a lag over the limit takes the replica out of rotation")
+    void laggingReplica() throws SQLException {
+        HikariDataSource replica = replicaReturning(5_000, false);
+        ReplicaRoutingDataSource routing = routing(replica);
+
+        routing.refreshReplicaLag();
+
+        assertThat(routing.getReplicaLagMs()).containsEntry("replica-1", 5_000L);
+        assertThat(readRoute(routing)).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("a NULL lag is not read as zero and leaves the replica unusable")
+    void nullLag() throws SQLException {
+        HikariDataSource replica = replicaReturning(0, true);
+        ReplicaRoutingDataSource routing = routing(replica);
+
+        routing.refreshReplicaLag();
+
+        assertThat(routing.getReplicaLagMs()).containsEntry("replica-1", -1L);
+        assertThat(readRoute(routing)).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("a NULL lag after a good one takes the replica back out")
+    void nullAfterMeasured() throws SQLException {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(replica.getPoolName()).thenReturn("replica-1");
+        ResultSet good = resultSet(10, false);
+        ResultSet missing = resultSet(0, true);
+        Statement stmt = mock(Statement.class);
+        when(stmt.executeQuery(anyString())).thenReturn(good, missing);
+        Connection conn = mock(Connection.class);
+        when(conn.createStatement()).thenReturn(stmt);
+        when(replica.getConnection()).thenReturn(conn);
+        ReplicaRoutingDataSource routing = routing(replica);
+
+        routing.refreshReplicaLag();
+        assertThat(readRoute(routing)).isEqualTo("replica-1");
+
+        routing.refreshReplicaLag();
+        assertThat(routing.getReplicaLagMs()).containsEntry("replica-1", -1L);
+        assertThat(readRoute(routing)).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    // The route a readOnly transaction on this thread would take
+    private static Object readRoute(ReplicaRoutingDataSource routing) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return routing.determineCurrentLookupKey();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private static ReplicaRoutingDataSource routing(HikariDataSource replica) {
+        HikariDataSource primary = mock(HikariDataSource.class);
+        when(primary.getPoolName()).thenReturn(ReplicaRoutingDataSource.PRIMARY);
+        return new ReplicaRoutingDataSource(primary, List.of(replica), 1_000, 1_000);
+    }
+
+    private static HikariDataSource replicaReturning(double lag, boolean isNull) throws SQLException {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(replica.getPoolName()).thenReturn("replica-1");
+        ResultSet rs = resultSet(lag, isNull);
+        Statement stmt = mock(Statement.class);
+        when(stmt.executeQuery(anyString())).thenReturn(rs);
+        Connection conn = mock(Connection.class);
+        when(conn.createStatement()).thenReturn(stmt);
+        when(replica.getConnection()).thenReturn(conn);
+        return replica;
+    }
+
+    private static ResultSet resultSet(double lag, boolean isNull) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getDouble(1)).thenReturn(isNull ? 0.0 : lag);
+        when(rs.wasNull()).thenReturn(isNull);
+        return rs;
+    }
+}
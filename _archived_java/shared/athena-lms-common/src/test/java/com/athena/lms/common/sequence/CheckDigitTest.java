@@ -0,0 +1,56 @@
+package com.athena.lms.common.sequence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckDigitTest {
+
+    @Test
+    @DisplayName("Luhn matches the published vectors")
+    void luhnVectors() {
+        assertThat(CheckDigit.LUHN.compute("7992739871")).isEqualTo("3");
+        assertThat(CheckDigit.LUHN.compute("000000042")).isEqualTo("2");
+        assertThat(CheckDigit.LUHN.compute("0")).isEqualTo("0");
+        assertThat(CheckDigit.LUHN.isValid("79927398713")).isTrue();
+        assertThat(CheckDigit.LUHN.isValid("4539578763621486")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Luhn rejects every single-digit error and an adjacent transposition")
+    void luhnDetectsErrors() {
+        String valid = "79927398713";
+        for (int i = 0; i < valid.length(); i++) {
+            for (char c = '0'; c <= '9'; c++) {
+                if (c == valid.charAt(i)) continue;
+                String typo = valid.substring(0, i) + c + valid.substring(i + 1);
+                assertThat(CheckDigit.LUHN.isValid(typo)).as(typo).isFalse();
+            }
+        }
+        assertThat(CheckDigit.LUHN.isValid("97927398713")).isFalse();
+    }
+
+    @Test
+    @DisplayName("MOD 97-10 matches the ISO 7064 and IBAN vectors")
+    void mod97Vectors() {
+        assertThat(CheckDigit.MOD97.compute("794")).isEqualTo("44");
+        // GB82 WEST 1234 5698 7654 32: the BBAN with letters as numbers, then "GB" as 1611
+        assertThat(CheckDigit.MOD97.compute("32142829123456987654321611")).isEqualTo("82");
+        assertThat(CheckDigit.MOD97.isValid("79444")).isTrue();
+        assertThat(CheckDigit.MOD97.isValid("79445")).isFalse();
+        assertThat(CheckDigit.MOD97.isValid("97444")).isFalse();
+    }
+
+    @Test
+    @DisplayName("NONE adds nothing; anything too short or not all digits is invalid")
+    void edges() {
+        assertThat(CheckDigit.NONE.compute("123")).isEmpty();
+        assertThat(CheckDigit.LUHN.isValid(null)).isFalse();
+        assertThat(CheckDigit.LUHN.isValid("3")).isFalse();
+        assertThat(CheckDigit.MOD97.isValid("44")).isFalse();
+        assertThat(CheckDigit.LUHN.isValid("7992739871X")).isFalse();
+        assertThatThrownBy(() -> CheckDigit.LUHN.compute("12A")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.athena.lms.common.sequence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SequenceFormatTest {
+
+    private final SequenceFormat accountNumber = SequenceFormat.compile("ACC-{tenant:3}-{seq:09}{check}", CheckDigit.LUHN);
+
+    @Test
+    @DisplayName("literals, a padded sequence, the tenant prefix and the check digit render in order")
+    void renders() {
+        assertThat(accountNumber.format("acme", 42)).isEqualTo("ACC-ACM-0000000422");
+        assertThat(CheckDigit.LUHN.isValid(accountNumber.format("acme", 987_654_321).substring(8))).isTrue();
+        assertThat(SequenceFormat.compile("FRD-{seq:05}", CheckDigit.NONE).format("t1", 7)).isEqualTo("FRD-00007");
+    }
+
+    @Test
+    @DisplayName("a value wider than its padding, an unpadded sequence and a short tenant are kept whole")
+    void widths() {
+        assertThat(SequenceFormat.compile("FRD-{seq:05}", CheckDigit.NONE).format("t1", 1_234_567)).isEqualTo("FRD-1234567");
+        assertThat(SequenceFormat.compile("{seq}", CheckDigit.NONE).format("t1", 12)).isEqualTo("12");
+        assertThat(accountNumber.format("ab", 1)).startsWith("ACC-AB-");
+        assertThat(SequenceFormat.compile("{tenant}/{seq}{check}", CheckDigit.MOD97).format("east", 794))
+                .isEqualTo("EAST/79444");
+    }
+
+    @Test
+    @DisplayName("malformed patterns are rejected when compiled")
+    void rejects() {
+        assertThatThrownBy(() -> SequenceFormat.compile("ACC-{tenant:3}", CheckDigit.NONE))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("no {seq}");
+        assertThatThrownBy(() -> SequenceFormat.compile("{check}{seq}", CheckDigit.LUHN))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("must follow {seq}");
+        assertThatThrownBy(() -> SequenceFormat.compile("ACC-{seq:09}", CheckDigit.LUHN))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("needs {check}");
+    }
+
+    @Test
+    @DisplayName("a pattern with the tenant is scoped by its rendered text, any other by tenant")
+    void scope() {
+        assertThat(accountNumber.scope("acme")).isEqualTo("ACM");
+        assertThat(accountNumber.scope("ACME-EAST")).isEqualTo("ACM");
+        assertThat(accountNumber.scope("ab")).isEqualTo("AB");
+        assertThat(SequenceFormat.compile("FRD-{seq:05}", CheckDigit.NONE).scope("acme")).isEqualTo("acme");
+    }
+}
@@ -0,0 +1,116 @@
+package com.athena.lms.common.sequence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SequenceServiceTest {
+
+    // lms_sequences, keyed as the lease upsert keys it
+    private final Map<String, Long> rows = new ConcurrentHashMap<>();
+    private SequenceService service;
+
+    @BeforeEach
+    void setUp() {
+        SequenceProperties properties = new SequenceProperties();
+        properties.getFormats().put("account-number", format("ACC-{tenant:3}-{seq:09}{check}", CheckDigit.LUHN, 100));
+        properties.getFormats().put("fraud-case", format("FRD-{seq:05}", CheckDigit.NONE, 3));
+        service = spy(new SequenceService(properties, mock(DataSource.class), null));
+        // The upsert: a new row starts at 1 + size, an existing one moves on by size; returns the end
+        doAnswer(inv -> rows.merge(inv.getArgument(0) + "/" + inv.getArgument(1),
+                1L + inv.<Integer>getArgument(2), (current, fresh) -> current + inv.<Integer>getArgument(2)))
+                .when(service).lease(anyString(), anyString(), anyInt());
+    }
+
+    private static SequenceProperties.Format format(String pattern, CheckDigit checkDigit, int blockSize) {
+        SequenceProperties.Format format = new SequenceProperties.Format();
+        format.setPattern(pattern);
+        format.setCheckDigit(checkDigit);
+        format.setBlockSize(blockSize);
+        return format;
+    }
+
+    @Test
+    @DisplayName("tenants whose ids render the same prefix draw from one counter")
+    void sharedPrefix() {
+        assertThat(service.nextFormatted("acme", "account-number")).isEqualTo("ACC-ACM-0000000018");
+        assertThat(service.nextFormatted("ACME-EAST", "account-number")).isEqualTo("ACC-ACM-0000000026");
+        assertThat(service.next("acme", "account-number")).isEqualTo(3);
+
+        verify(service, times(1)).lease("ACM", "account-number", 100);
+        assertThat(rows).containsOnlyKeys("ACM/account-number");
+    }
+
+    @Test
+    @DisplayName("a pattern without the tenant counts each tenant from the start")
+    void perTenant() {
+        assertThat(service.nextFormatted("t1", "fraud-case")).isEqualTo("FRD-00001");
+        assertThat(service.nextFormatted("t2", "fraud-case")).isEqualTo("FRD-00001");
+        assertThat(service.nextFormatted("t1", "fraud-case")).isEqualTo("FRD-00002");
+    }
+
+    @Test
+    @DisplayName("values run on across blocks, one lease per block")
+    void blocks() {
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 7; i++) values.add(service.next("t1", "fraud-case"));
+
+        assertThat(values).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        verify(service, times(3)).lease("t1", "fraud-case", 3);
+    }
+
+    @Test
+    @DisplayName("a reservation takes its values with one lease in the prefix's counter")
+    void reserve() {
+        service.next("acme", "account-number");
+
+        assertThat(service.reserve("ACME-WEST", "account-number", 250)).isEqualTo(101);
+        verify(service).lease("ACM", "account-number", 250);
+        // The replica's block is untouched
+        assertThat(service.next("acme", "account-number")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("concurrent callers never draw the same value")
+    void concurrent() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Long>>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                String tenant = t % 2 == 0 ? "acme" : "acme-north";
+                workers.add(pool.submit(() -> {
+                    List<Long> drawn = new ArrayList<>();
+                    for (int i = 0; i < 1_000; i++) drawn.add(service.next(tenant, "account-number"));
+                    return drawn;
+                }));
+            }
+            Set<Long> all = new HashSet<>();
+            for (Future<List<Long>> worker : workers) all.addAll(worker.get(10, TimeUnit.SECONDS));
+
+            assertThat(all).hasSize(8_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
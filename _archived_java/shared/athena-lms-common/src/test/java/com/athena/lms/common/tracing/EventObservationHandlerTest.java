@@ -0,0 +1,68 @@
+package com.athena.lms.common.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.micrometer.RabbitMessageReceiverContext;
+import org.springframework.amqp.rabbit.support.micrometer.RabbitMessageSenderContext;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventObservationHandlerTest {
+
+    private final EventObservationHandler handler = new EventObservationHandler();
+
+    @Test
+    @DisplayName("a consumed message is tagged with its routing key and how long it waited in the queue")
+    void receiver() {
+        MessageProperties properties = new MessageProperties();
+        properties.setReceivedRoutingKey("loan.disbursed");
+        properties.setTimestamp(new Date(System.currentTimeMillis() - 1_500));
+        RabbitMessageReceiverContext context =
+                new RabbitMessageReceiverContext(new Message(new byte[0], properties), "listener");
+
+        assertThat(handler.supportsContext(context)).isTrue();
+        handler.onStart(context);
+
+        assertThat(context.getLowCardinalityKeyValues())
+                .contains(KeyValue.of(EventObservationHandler.EVENT_TYPE_KEY, "loan.disbursed"));
+        KeyValue wait = context.getHighCardinalityKeyValue(EventObservationHandler.QUEUE_WAIT_KEY);
+        assertThat(Long.parseLong(wait.getValue())).isBetween(1_500L, 60_000L);
+    }
+
+    @Test
+    @DisplayName("a message without a timestamp gets no queue wait")
+    void receiverWithoutTimestamp() {
+        MessageProperties properties = new MessageProperties();
+        properties.setReceivedRoutingKey("loan.disbursed");
+        RabbitMessageReceiverContext context =
+                new RabbitMessageReceiverContext(new Message(new byte[0], properties), "listener");
+
+        handler.onStart(context);
+
+        assertThat(context.getHighCardinalityKeyValue(EventObservationHandler.QUEUE_WAIT_KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("a published message is tagged with the routing key part of its destination")
+    void sender() {
+        RabbitMessageSenderContext context = new RabbitMessageSenderContext(
+                new Message(new byte[0], new MessageProperties()), "lmsRabbitTemplate", "athena.lms.exchange/account.credit.received");
+
+        handler.onStart(context);
+
+        assertThat(context.getLowCardinalityKeyValues())
+                .contains(KeyValue.of(EventObservationHandler.EVENT_TYPE_KEY, "account.credit.received"));
+    }
+
+    @Test
+    @DisplayName("other observations are left alone")
+    void otherContexts() {
+        assertThat(handler.supportsContext(new Observation.Context())).isFalse();
+    }
+}
@@ -0,0 +1,55 @@
+package com.athena.lms.common.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.client.RestTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObservationInstrumentationPostProcessorTest {
+
+    private static ObjectProvider<ObservationRegistry> provider(ObservationRegistry registry) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (registry != null) beans.addBean("observationRegistry", registry);
+        return beans.getBeanProvider(ObservationRegistry.class);
+    }
+
+    @Test
+    @DisplayName("a RestTemplate built with new gets the context's registry")
+    void instrumentsPlainRestTemplate() {
+        ObservationRegistry registry = ObservationRegistry.create();
+        ObservationInstrumentationPostProcessor processor = new ObservationInstrumentationPostProcessor(provider(registry));
+
+        RestTemplate restTemplate = (RestTemplate) processor.postProcessAfterInitialization(new RestTemplate(), "client");
+
+        assertThat(restTemplate.getObservationRegistry()).isSameAs(registry);
+    }
+
+    @Test
+    @DisplayName("a RestTemplate that already has a registry keeps it")
+    void keepsExistingRegistry() {
+        ObservationRegistry own = ObservationRegistry.create();
+        own.observationConfig().observationHandler(context -> true);
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setObservationRegistry(own);
+        ObservationInstrumentationPostProcessor processor =
+                new ObservationInstrumentationPostProcessor(provider(ObservationRegistry.create()));
+
+        processor.postProcessAfterInitialization(restTemplate, "client");
+
+        assertThat(restTemplate.getObservationRegistry()).isSameAs(own);
+    }
+
+    @Test
+    @DisplayName("without a registry bean a RestTemplate is left as it is")
+    void noRegistry() {
+        ObservationInstrumentationPostProcessor processor = new ObservationInstrumentationPostProcessor(provider(null));
+
+        RestTemplate restTemplate = (RestTemplate) processor.postProcessAfterInitialization(new RestTemplate(), "client");
+
+        assertThat(restTemplate.getObservationRegistry().isNoop()).isTrue();
+    }
+}
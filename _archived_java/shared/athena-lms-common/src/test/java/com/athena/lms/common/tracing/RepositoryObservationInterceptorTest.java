@@ -0,0 +1,106 @@
+package com.athena.lms.common.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RepositoryObservationInterceptorTest {
+
+    interface SampleRepository {
+        Object findByName(String name);
+    }
+
+    private final List<Observation.Context> stopped = new CopyOnWriteArrayList<>();
+    private final ObservationRegistry registry = ObservationRegistry.create();
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<ObservationRegistry> provider = mock(ObjectProvider.class);
+    private MethodInvocation invocation;
+
+    @BeforeEach
+    void setUp() throws Throwable {
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(SampleRepository.class.getMethod("findByName", String.class));
+        when(invocation.proceed()).thenReturn("row");
+    }
+
+    @Test
+    @DisplayName("a call before the registry exists is not observed, and does not switch spans off for later calls")
+    void registryResolvedLate() throws Throwable {
+        when(provider.getIfAvailable()).thenReturn(null, registry);
+        RepositoryObservationInterceptor interceptor = new RepositoryObservationInterceptor(provider, SampleRepository.class);
+
+        assertThat(interceptor.invoke(invocation)).isEqualTo("row");
+        assertThat(stopped).isEmpty();
+
+        assertThat(interceptor.invoke(invocation)).isEqualTo("row");
+        assertThat(interceptor.invoke(invocation)).isEqualTo("row");
+        assertThat(stopped).hasSize(2);
+        // Once found, the registry is kept
+        verify(provider, times(2)).getIfAvailable();
+    }
+
+    @Test
+    @DisplayName("each call is one lms.repository observation named and tagged after the repository method")
+    void observationShape() throws Throwable {
+        when(provider.getIfAvailable()).thenReturn(registry);
+        RepositoryObservationInterceptor interceptor = new RepositoryObservationInterceptor(provider, SampleRepository.class);
+
+        interceptor.invoke(invocation);
+
+        Observation.Context context = stopped.get(0);
+        assertThat(context.getName()).isEqualTo(RepositoryObservationInterceptor.OBSERVATION_NAME);
+        assertThat(context.getContextualName()).isEqualTo("SampleRepository.findByName");
+        assertThat(context.getLowCardinalityKeyValues()).contains(
+                KeyValue.of("repository", "SampleRepository"), KeyValue.of("method", "findByName"));
+        assertThat(context.getError()).isNull();
+    }
+
+    @Test
+    @DisplayName("a failing call records the error on its observation and rethrows it")
+    void failure() throws Throwable {
+        when(provider.getIfAvailable()).thenReturn(registry);
+        IllegalStateException failure = new IllegalStateException("connection lost");
+        when(invocation.proceed()).thenThrow(failure);
+        RepositoryObservationInterceptor interceptor = new RepositoryObservationInterceptor(provider, SampleRepository.class);
+
+        assertThatThrownBy(() -> interceptor.invoke(invocation)).isSameAs(failure);
+        assertThat(stopped).singleElement().extracting(Observation.Context::getError).isSameAs(failure);
+    }
+
+    @Test
+    @DisplayName("a registry without handlers only proceeds")
+    void noopRegistry() throws Throwable {
+        when(provider.getIfAvailable()).thenReturn(ObservationRegistry.create());
+        RepositoryObservationInterceptor interceptor = new RepositoryObservationInterceptor(provider, SampleRepository.class);
+
+        assertThat(interceptor.invoke(invocation)).isEqualTo("row");
+        assertThat(stopped).isEmpty();
+    }
+}
@@ -0,0 +1,49 @@
+#!/bin/sh
+# Class-data sharing (AppCDS) for the service images. Spring Boot 3.2 has no built-in
+# CDS layout, and classes loaded from inside the fat jar cannot be archived, so the jar is
+# unpacked and the app started from a plain classpath recorded in app.args.
+#
+#   appcds.sh extract <boot-jar> <dir>   build stage (needs a JDK): unpack into <dir>
+#   appcds.sh train                      runtime stage, in the app dir: write app.jsa
+#
+# Run the result with: java -XX:SharedArchiveFile=app.jsa @app.args
+set -eu
+
+case "${1:-}" in
+  extract)
+    jar_file=$(realpath "$2")
+    mkdir -p "$3"
+    cd "$3"
+    jar -xf "$jar_file"
+    # Start-Class may be folded over several manifest lines
+    main_class=$(tr -d '\r' < META-INF/MANIFEST.MF | awk '
+      /^Start-Class:/ { sub(/^Start-Class: */, ""); value = $0; reading = 1; next }
+      reading && /^ / { value = value substr($0, 2); next }
+      { reading = 0 }
+      END { print value }')
+    # CDS refuses to dump with a non-empty directory on the classpath, so the application's
+    # own classes and resources go back into a jar
+    jar -cf application.jar -C BOOT-INF/classes .
+    rm -rf BOOT-INF/classes
+    classpath=application.jar
+    for lib in BOOT-INF/lib/*.jar; do classpath="$classpath:$lib"; done
+    printf -- '-cp %s\n%s\n' "$classpath" "$main_class" > app.args
+    rm -rf org   # Boot's jar launcher, not used
+    ;;
+  train)
+    # Refresh the context (no database, broker or Eureka needed - see the cds-training
+    # profile) and exit before anything starts; the loaded classes go to app.jsa.
+    # JWT_SECRET has no default and is never available at build time. Nothing is signed
+    # during the run, so a throwaway key that exists only for this process will do.
+    JWT_SECRET=$(head -c 32 /dev/urandom | base64) \
+    java -XX:ArchiveClassesAtExit=app.jsa \
+         -Dspring.context.exit=onRefresh \
+         -Dspring.profiles.active=cds-training \
+         @app.args
+    test -s app.jsa
+    ;;
+  *)
+    echo "usage: appcds.sh extract <boot-jar> <dir> | appcds.sh train" >&2
+    exit 2
+    ;;
+esac
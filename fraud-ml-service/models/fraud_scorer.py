@@ -24,6 +24,9 @@ logger = structlog.get_logger(__name__)
 MLFLOW_URI = os.getenv("MLFLOW_TRACKING_URI", "http://mlflow:5000")
 EXPERIMENT_NAME = os.getenv("MLFLOW_EXPERIMENT_NAME", "athena-fraud-scorer")
 MODEL_NAME = os.getenv("MLFLOW_MODEL_NAME", "AthenaFraudScorer")
+# Where trained boosters are also written as LightGBM text, for in-process scoring in
+# fraud-detection-service (fraud.ml.local.model-path). Unset disables the export.
+MODEL_EXPORT_DIR = os.getenv("MODEL_EXPORT_DIR", "")
 
 
 def ks_statistic(y_true: List, y_prob: List) -> float:
@@ -170,6 +173,10 @@ def train_and_register(
         top_features = sorted(importance.items(), key=lambda kv: -kv[1])[:10]
         mlflow.log_param("top_features", str(top_features[:5]))
 
+        if MODEL_EXPORT_DIR:
+            export_path = export_booster(model, register_as)
+            mlflow.log_param("export_path", export_path)
+
         result = mlflow.lightgbm.log_model(
             model,
             artifact_path="model",
@@ -202,6 +209,17 @@ def train_and_register(
         }
 
 
+def export_booster(model: lgb.LGBMClassifier, alias: str) -> str:
+    """Write the booster as LightGBM text, replacing the previous export atomically."""
+    os.makedirs(MODEL_EXPORT_DIR, exist_ok=True)
+    export_path = os.path.join(MODEL_EXPORT_DIR, f"fraud-scorer-{alias}.txt")
+    tmp_path = export_path + ".tmp"
+    model.booster_.save_model(tmp_path)
+    os.replace(tmp_path, export_path)
+    logger.info("Exported fraud model", path=export_path)
+    return export_path
+
+
 # Module-level singleton
 _champion: Optional[FraudScorer] = None
 _challenger: Optional[FraudScorer] = None
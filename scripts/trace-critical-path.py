@@ -0,0 +1,176 @@
+#!/usr/bin/env python3
+"""
+AthenaLMS — Critical-path report for event chains, from the traces in Jaeger.
+
+A loan disbursement is one trace: the HTTP call into loan-management, the publish on
+athena.lms.exchange, then the consumer spans in accounting, float, notification and
+reporting (and whatever they publish in turn). For each trace this walks the critical
+path — the chain of spans that determined when the last piece of work finished — and
+attributes every millisecond of end-to-end latency to one stage:
+
+    <service>: <span name>          time spent inside that span (not in a child on the path)
+    <service>: <span name> → wait   time after the span ended before its next step began
+                                    (broker queueing, consumer scheduling)
+
+Stages are averaged over all traces of the same chain (root span name).
+
+Usage:
+    source tests/.venv/bin/activate
+    python scripts/trace-critical-path.py --service loan-management-service
+    python scripts/trace-critical-path.py --service loan-management-service \\
+        --operation "http post /api/v1/loans/{id}/disburse" --lookback 6h --limit 200
+    python scripts/trace-critical-path.py --file traces.json   # saved /api/traces output
+"""
+import argparse
+import json
+import statistics
+import sys
+from collections import defaultdict
+
+import requests
+
+# ─── Config ───────────────────────────────────────────────────────────────────
+JAEGER = "http://localhost:16686"
+TIMEOUT = 30
+
+
+# ─── Trace model ──────────────────────────────────────────────────────────────
+class Span:
+    def __init__(self, raw, service):
+        self.id = raw["spanID"]
+        self.name = raw["operationName"]
+        self.service = service
+        self.start = raw["startTime"]               # µs
+        self.end = raw["startTime"] + raw["duration"]
+        refs = raw.get("references") or []
+        self.parent_id = refs[0]["spanID"] if refs else None
+        self.children = []
+        self.subtree_end = self.end
+
+    @property
+    def stage(self):
+        return f"{self.service}: {self.name}"
+
+
+def build_tree(trace):
+    processes = trace.get("processes", {})
+    spans = {}
+    for raw in trace["spans"]:
+        service = processes.get(raw["processID"], {}).get("serviceName", "?")
+        spans[raw["spanID"]] = Span(raw, service)
+
+    roots = []
+    for span in spans.values():
+        parent = spans.get(span.parent_id)
+        if parent is None:
+            roots.append(span)
+        else:
+            parent.children.append(span)
+
+    def settle(span):
+        # Consumers usually outlive the producer span: a span's work ends when its subtree does
+        for child in span.children:
+            settle(child)
+            span.subtree_end = max(span.subtree_end, child.subtree_end)
+
+    for root in roots:
+        settle(root)
+    return min(roots, key=lambda s: s.start) if roots else None
+
+
+def critical_path(span, cursor, stages):
+    """Adds to stages the time each span contributes to the path that ends at cursor."""
+    for child in sorted(span.children, key=lambda c: c.subtree_end, reverse=True):
+        if cursor <= span.start:
+            break
+        if child.subtree_end > cursor:
+            continue   # ran alongside the step already on the path
+        attribute(span, child.subtree_end, cursor, stages)
+        critical_path(child, child.subtree_end, stages)
+        cursor = child.start
+    attribute(span, span.start, cursor, stages)
+
+
+def attribute(span, start, end, stages):
+    if end <= start:
+        return
+    inside = max(0, min(end, span.end) - max(start, span.start))
+    if inside:
+        stages[span.stage] += inside
+    if end - start - inside > 0:
+        stages[f"{span.stage} → wait"] += end - start - inside
+
+
+# ─── Jaeger ───────────────────────────────────────────────────────────────────
+def fetch_traces(args):
+    if args.file:
+        with open(args.file) as f:
+            return json.load(f)["data"]
+    params = {"service": args.service, "lookback": args.lookback, "limit": args.limit}
+    if args.operation:
+        params["operation"] = args.operation
+    r = requests.get(f"{args.jaeger}/api/traces", params=params, timeout=TIMEOUT)
+    r.raise_for_status()
+    return r.json()["data"]
+
+
+# ─── Report ───────────────────────────────────────────────────────────────────
+def percentile(values, p):
+    ordered = sorted(values)
+    return ordered[min(len(ordered) - 1, int(round(p / 100 * (len(ordered) - 1))))]
+
+
+def report(traces, top):
+    chains = defaultdict(list)   # root span name -> [(e2e µs, {stage: µs})]
+    for trace in traces:
+        root = build_tree(trace)
+        if root is None:
+            continue
+        stages = defaultdict(int)
+        critical_path(root, root.subtree_end, stages)
+        chains[root.stage].append((root.subtree_end - root.start, stages))
+
+    if not chains:
+        print("No traces found.")
+        return
+
+    for chain, samples in sorted(chains.items(), key=lambda kv: -len(kv[1])):
+        e2e = [s[0] for s in samples]
+        totals = defaultdict(int)
+        for _, stages in samples:
+            for stage, us in stages.items():
+                totals[stage] += us
+        total_us = sum(e2e)
+
+        print(f"\n{chain}")
+        print(f"  traces={len(samples)}  end-to-end ms: "
+              f"p50={statistics.median(e2e) / 1000:.1f}  "
+              f"p95={percentile(e2e, 95) / 1000:.1f}  max={max(e2e) / 1000:.1f}")
+        print(f"  {'stage':<80} {'avg ms':>9} {'share':>7}")
+        for stage, us in sorted(totals.items(), key=lambda kv: -kv[1])[:top]:
+            print(f"  {stage[:80]:<80} {us / len(samples) / 1000:>9.1f} {100 * us / total_us:>6.1f}%")
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.split("\n\n")[0])
+    parser.add_argument("--jaeger", default=JAEGER, help="Jaeger query URL")
+    parser.add_argument("--service", help="service that starts the chains (root spans)")
+    parser.add_argument("--operation", help="only chains starting with this span name")
+    parser.add_argument("--lookback", default="1h")
+    parser.add_argument("--limit", type=int, default=100)
+    parser.add_argument("--top", type=int, default=15, help="stages shown per chain")
+    parser.add_argument("--file", help="read a saved /api/traces response instead of querying")
+    args = parser.parse_args()
+    if not args.file and not args.service:
+        parser.error("--service or --file is required")
+
+    try:
+        traces = fetch_traces(args)
+    except requests.RequestException as e:
+        print(f"Jaeger query failed: {e}", file=sys.stderr)
+        sys.exit(1)
+    report(traces, args.top)
+
+
+if __name__ == "__main__":
+    main()